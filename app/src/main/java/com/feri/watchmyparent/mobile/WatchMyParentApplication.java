@@ -3,35 +3,106 @@ package com.feri.watchmyparent.mobile;
 import android.app.Application;
 import android.util.Log;
 
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationService;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaHealthCheckService;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaRetryService;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
+import com.feri.watchmyparent.mobile.infrastructure.services.SensorArchiveService;
+import com.feri.watchmyparent.mobile.infrastructure.services.VitalSignsAnomalyDetector;
+import com.feri.watchmyparent.mobile.infrastructure.startup.StagedInitializer;
+import com.feri.watchmyparent.mobile.infrastructure.startup.StartupTimeline;
 import com.feri.watchmyparent.mobile.infrastructure.utils.DemoDataInitializer;
 import com.feri.watchmyparent.mobile.infrastructure.utils.HealthConnectChecker;
+import com.feri.watchmyparent.mobile.infrastructure.watch.RealSamsungHealthManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
+import dagger.Lazy;
 import dagger.hilt.android.HiltAndroidApp;
 
 @HiltAndroidApp
 public class WatchMyParentApplication extends Application {
 
     private static final String TAG = "WatchMyParentApp";
+    private static final int STARTUP_THREADS = 2;
+
+    // ✅ NEW: Originea timeline-ului e construcția aplicației (înaintea injectării Hilt)
+    private final StartupTimeline startupTimeline = new StartupTimeline();
+
+    // ✅ MODIFICAT: Dependențele sunt Lazy - singleton-urile (Room, scheduler-e, socket-uri) sunt construite
+    // în etapele de fundal, nu în timpul injectării din onCreate
+    @Inject
+    Lazy<DemoDataInitializer> demoDataInitializer;
+
+    @Inject
+    Lazy<EmergencyEscalationService> emergencyEscalationService;
+
+    @Inject
+    Lazy<VitalSignsAnomalyDetector> anomalyDetector;
+
+    @Inject
+    Lazy<KafkaHealthCheckService> kafkaHealthCheckService;
 
     @Inject
-    DemoDataInitializer demoDataInitializer;
+    Lazy<KafkaRetryService> kafkaRetryService;
+
+    @Inject
+    Lazy<RealSamsungHealthManager> samsungHealthManager;
+
+    @Inject
+    Lazy<SensorDataRepository> sensorDataRepository;
+
+    @Inject
+    Lazy<SensorArchiveService> sensorArchiveService;
+
+    @Inject
+    Lazy<PatientRegistry> patientRegistry;
 
     @Override
     public void onCreate() {
+        long injectionStart = startupTimeline.now();
         super.onCreate();
+        startupTimeline.record("hilt-injection", true, injectionStart, startupTimeline.now(), null);
+
+        // ✅ MODIFICAT: Pe main thread rămâne doar ce trebuie să existe înaintea primei citiri; restul rulează
+        // în fundal, în ordinea dependențelor
+        ExecutorService startupExecutor = Executors.newFixedThreadPool(STARTUP_THREADS, new StartupThreadFactory());
+        new StagedInitializer(startupTimeline, startupExecutor)
+                .onMainThread("logging", this::initializeLogging)
+                .onMainThread("anomaly-escalation", this::registerAnomalyEscalation)
+                // Calea de urgență pregătită înaintea primei alerte și înaintea traficului Kafka obișnuit
+                .inBackground("emergency-path", this::initializeEmergencyPath)
+                .inBackground("kafka-monitoring", this::startKafkaMonitoring, "emergency-path")
+                .inBackground("health-connect-check", this::checkHealthConnectStatus)
+                .inBackground("watch-setup", () -> samsungHealthManager.get().initialize(), "health-connect-check")
+                .inBackground("demo-data", this::initializeDemoData)
+                .inBackground("sensor-archive", () -> sensorArchiveService.get().start())
+                .start()
+                .whenComplete((ignored, throwable) -> {
+                    startupExecutor.shutdown();
+                    reportStartupTimeline();
+                });
+
+        Log.d(TAG, "✅ WatchMyParentApplication initialized (main thread: "
+                + startupTimeline.getMainThreadMillis() + "ms)");
+    }
 
-        // Inițializare simplă folosind Log standard Android
-        initializeLogging();
-
-        // Check Health Connect availability
-        checkHealthConnectStatus();
-
-        // Initialize demo data asynchronously
-        initializeDemoDataAsync();
+    // ✅ NEW: Sub presiune de memorie procesul poate fi oprit oricând - buffer-ul write-behind e scris acum
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        sensorDataRepository.get().flush();
+    }
 
-        Log.d(TAG, "✅ WatchMyParentApplication initialized");
+    public StartupTimeline getStartupTimeline() {
+        return startupTimeline;
     }
 
     private void initializeLogging() {
@@ -45,6 +116,33 @@ public class WatchMyParentApplication extends Application {
         }
     }
 
+    // Semnele vitale critice susținute intră pe aceeași cale ca detecția căderilor; serviciul de urgență e
+    // rezolvat abia la prima anomalie critică (sau de etapa emergency-path, dacă aceasta rulează prima)
+    private void registerAnomalyEscalation() {
+        anomalyDetector.get().addListener(anomaly -> {
+            if (anomaly.isCritical()) {
+                emergencyEscalationService.get().trigger(EmergencyAlert.criticalVital(anomaly));
+            }
+        });
+    }
+
+    private void initializeEmergencyPath() {
+        String userId = patientRegistry.get().getPrimaryUserId();
+        EmergencyEscalationService escalation = emergencyEscalationService.get();
+        escalation.warmUp(userId);
+        escalation.startKeepWarm(userId);
+        // Alertele rămase nelivrate la oprirea procesului
+        escalation.redeliverPending();
+        // ✅ NEW: ...și cele care au epuizat reîncercările între timp - periodic și când Kafka își revine
+        escalation.startRedelivery();
+        kafkaHealthCheckService.get().addRecoveryListener(escalation::redeliverPending);
+    }
+
+    private void startKafkaMonitoring() {
+        kafkaHealthCheckService.get().start();
+        kafkaRetryService.get().start();
+    }
+
     private void checkHealthConnectStatus() {
         try {
             HealthConnectChecker.HealthConnectStatus status =
@@ -65,36 +163,37 @@ public class WatchMyParentApplication extends Application {
         }
     }
 
-    private void initializeDemoDataAsync() {
-        // Run demo data initialization in background
-        new Thread(() -> {
-            try {
-                Log.d(TAG, "🔄 Initializing demo data...");
-
-                // Wait a bit for Hilt injection to complete
-                Thread.sleep(1000);
-
-                if (demoDataInitializer != null) {
-                    boolean success = demoDataInitializer.initializeDemoData().join();
-                    if (success) {
-                        Log.d(TAG, "✅ Demo data initialized successfully");
-                    } else {
-                        Log.e(TAG, "❌ Failed to initialize demo data");
-                    }
-                } else {
-                    Log.w(TAG, "⚠️ DemoDataInitializer not injected yet, will retry later");
-                }
-
-            } catch (Exception e) {
-                Log.e(TAG, "❌ Error during demo data initialization", e);
+    // ✅ MODIFICAT: Rulează ca etapă de fundal - injectarea e deja completă după super.onCreate(), deci nu mai
+    // e nevoie de thread-ul separat cu sleep
+    private void initializeDemoData() {
+        Log.d(TAG, "🔄 Initializing demo data...");
+        boolean success = demoDataInitializer.get().initializeDemoData().join();
+        if (success) {
+            Log.d(TAG, "✅ Demo data initialized successfully");
+        } else {
+            Log.e(TAG, "❌ Failed to initialize demo data");
+        }
+    }
+
+    // ✅ NEW: Bugetul de cold start - depășirile sunt raportate cu componentele care le-au cauzat
+    private void reportStartupTimeline() {
+        String report = startupTimeline.format();
+        if (startupTimeline.isWithinBudget()) {
+            Log.d(TAG, "⏱️ " + report);
+            return;
+        }
+        Log.w(TAG, "⚠️ Startup over budget - " + report);
+        for (StartupTimeline.Span span : startupTimeline.getSpans()) {
+            if (span.mainThread && span.getDurationMillis() > startupTimeline.getMainThreadBudgetMs() / 4) {
+                Log.w(TAG, "🐢 Slow main-thread startup component: " + span);
             }
-        }).start();
+        }
     }
 
     // Public method to manually trigger demo data initialization
     public void retryDemoDataInitialization() {
         if (demoDataInitializer != null) {
-            demoDataInitializer.initializeDemoData()
+            demoDataInitializer.get().initializeDemoData()
                     .thenAccept(success -> {
                         if (success) {
                             Log.d(TAG, "✅ Demo data retry successful");
@@ -110,4 +209,15 @@ public class WatchMyParentApplication extends Application {
         Log.w(TAG, "⚠️ Using mock Kafka implementation instead");
         // You could optionally add code here to switch to the mock implementation
     }
+
+    private static class StartupThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "startup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.feri.watchmyparent.mobile.application.dto;
 
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
 import java.time.LocalDateTime;
 
 public class SensorDataDTO {
@@ -19,6 +21,15 @@ public class SensorDataDTO {
     private int retryCount;
     private String errorMessage;
 
+    // ✅ NEW: Nivelul de alertă după pragurile personalizate (null = neevaluat)
+    private String alertLevel;
+
+    // ✅ NEW: Latency trace propagat din SensorReading (transient - nu ajunge în JSON)
+    private transient ReadingTrace trace;
+
+    // ✅ NEW: Rândul din sensor_data al citirii (null = fără istoric local) - coada offline îl actualizează la livrare
+    private transient String sensorDataId;
+
     public SensorDataDTO() {}
 
     public SensorDataDTO(String userId, SensorType sensorType, double value, String deviceId) {
@@ -31,6 +42,19 @@ public class SensorDataDTO {
         this.isTransmitted = false;
     }
 
+    // ✅ NEW: Conversia SensorReading -> DTO (nivelul de alertă și trace-ul sunt adăugate de apelant)
+    public static SensorDataDTO fromReading(SensorReading reading, String userId) {
+        SensorDataDTO dto = new SensorDataDTO();
+        dto.setUserId(userId);
+        dto.setSensorType(reading.getSensorType());
+        dto.setValue(reading.getValue());
+        dto.setUnit(reading.getUnit() != null ? reading.getUnit() : reading.getSensorType().getUnit());
+        dto.setTimestamp(reading.getTimestamp() != null ? reading.getTimestamp() : LocalDateTime.now());
+        dto.setDeviceId(reading.getDeviceId());
+        dto.setTransmitted(false);
+        return dto;
+    }
+
     // Getters and Setters
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
@@ -91,6 +115,30 @@ public class SensorDataDTO {
         this.errorMessage = errorMessage;
     }
 
+    public String getAlertLevel() {
+        return alertLevel;
+    }
+
+    public void setAlertLevel(String alertLevel) {
+        this.alertLevel = alertLevel;
+    }
+
+    public ReadingTrace getTrace() {
+        return trace;
+    }
+
+    public void setTrace(ReadingTrace trace) {
+        this.trace = trace;
+    }
+
+    public String getSensorDataId() {
+        return sensorDataId;
+    }
+
+    public void setSensorDataId(String sensorDataId) {
+        this.sensorDataId = sensorDataId;
+    }
+
     // ✅ Utility methods
     public String getFormattedValue() {
         if (unit != null && !unit.isEmpty()) {
@@ -1,10 +1,15 @@
 package com.feri.watchmyparent.mobile.application.interfaces;
 
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
 import java.util.concurrent.CompletableFuture;
 
 public interface DataTransmissionService {
 
+    // true = livrat sau păstrat offline
     CompletableFuture<Boolean> transmitData(Object data, String userId);
+    // ✅ NEW: TRANSMITTED doar la confirmarea broker-ului, QUEUED când citirea a rămas în coada offline
+    CompletableFuture<TransmissionStatus> transmitSensorData(SensorDataDTO data, String userId);
     CompletableFuture<Boolean> retryFailedTransmissions(String userId);
     CompletableFuture<Integer> getPendingTransmissionCount(String userId);
 }
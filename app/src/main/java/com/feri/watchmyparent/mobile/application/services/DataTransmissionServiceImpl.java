@@ -3,11 +3,15 @@ package com.feri.watchmyparent.mobile.application.services;
 import android.util.Log;
 import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
 import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
 import com.feri.watchmyparent.mobile.infrastructure.services.KafkaHealthCheckService;
 import com.feri.watchmyparent.mobile.infrastructure.services.KafkaRetryService;
 import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager;
 import com.feri.watchmyparent.mobile.infrastructure.services.NetworkStateManager;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
 import java.util.concurrent.CompletableFuture;
 import java.util.Map;
 import java.util.HashMap;
@@ -26,6 +30,7 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
     private final KafkaRetryService retryService;
     private final OfflineDataManager offlineDataManager;
     private final NetworkStateManager networkStateManager;
+    private final PipelineLatencyTracer latencyTracer;
 
     // Statistics
     private int totalTransmissions = 0;
@@ -39,19 +44,32 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
             KafkaHealthCheckService kafkaHealthService,
             KafkaRetryService retryService,
             OfflineDataManager offlineDataManager,
-            NetworkStateManager networkStateManager) {
+            NetworkStateManager networkStateManager,
+            PipelineLatencyTracer latencyTracer) {
 
         this.kafkaProducer = kafkaProducer;
         this.kafkaHealthService = kafkaHealthService;
         this.retryService = retryService;
         this.offlineDataManager = offlineDataManager;
         this.networkStateManager = networkStateManager;
+        this.latencyTracer = latencyTracer;
 
         Log.d(TAG, "✅ DataTransmissionService initialized with Kafka-only pipeline");
     }
 
     @Override
     public CompletableFuture<Boolean> transmitData(Object data, String userId) {
+        return transmit(data, userId).thenApply(status -> status != TransmissionStatus.FAILED);
+    }
+
+    @Override
+    public CompletableFuture<TransmissionStatus> transmitSensorData(SensorDataDTO data, String userId) {
+        return transmit(data, userId);
+    }
+
+    // ✅ MODIFICAT: Fiecare drum întoarce statusul real - TRANSMITTED doar când broker-ul a confirmat,
+    // QUEUED când datele au rămas în coada offline, FAILED când nu au fost nici trimise, nici păstrate
+    private CompletableFuture<TransmissionStatus> transmit(Object data, String userId) {
         return CompletableFuture.supplyAsync(() -> {
             totalTransmissions++;
 
@@ -60,11 +78,12 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
                 if (data == null || userId == null || userId.isEmpty()) {
                     Log.e(TAG, "❌ Invalid input: data=" + data + ", userId=" + userId);
                     failedTransmissions++;
-                    return false;
+                    return TransmissionStatus.FAILED;
                 }
 
                 Log.d(TAG, "📤 Transmitting data for user: " + userId +
                         " (type: " + data.getClass().getSimpleName() + ")");
+                latencyTracer.mark(traceOf(data), ReadingTrace.Stage.TRANSMIT_START);
 
                 // Verifică starea rețelei
                 if (!networkStateManager.isNetworkAvailable()) {
@@ -92,18 +111,16 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
     }
 
     //Transmite datele direct către Kafka
-    private boolean transmitToKafka(Object data, String userId) {
+    private TransmissionStatus transmitToKafka(Object data, String userId) {
         try {
-            // Convertește în mesaj Kafka
-            Map<String, Object> kafkaMessage = convertToKafkaMessage(data, userId);
-
             // Trimite prin Kafka
-            boolean sent = kafkaProducer.sendHealthData(kafkaMessage, userId).join();
+            boolean sent = sendToTopic(data, userId);
 
             if (sent) {
                 successfulTransmissions++;
+                latencyTracer.complete(traceOf(data), ReadingTrace.Stage.BROKER_ACK);
                 Log.d(TAG, "✅ Successfully transmitted data to Kafka for user: " + userId);
-                return true;
+                return TransmissionStatus.TRANSMITTED;
             } else {
                 failedTransmissions++;
                 Log.w(TAG, "❌ Failed to transmit data to Kafka for user: " + userId);
@@ -120,16 +137,18 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
     }
 
     // Gestionează transmisia eșuată către Kafka
-    private boolean handleFailedKafkaTransmission(Object data, String userId) {
+    private TransmissionStatus handleFailedKafkaTransmission(Object data, String userId) {
         if (data instanceof SensorDataDTO) {
             SensorDataDTO sensorData = (SensorDataDTO) data;
+            latencyTracer.mark(sensorData.getTrace(), ReadingTrace.Stage.RETRY_QUEUED);
 
-            // Încearcă retry logic
+            // Încearcă retry logic (KafkaRetryService închide trace-ul la RETRY_ACK)
+            // ✅ MODIFICAT: Retry-ul poate și el doar să păstreze citirea offline (QUEUED) - nu e o confirmare
             try {
-                boolean retrySuccess = retryService.retryTransmission(sensorData).join();
-                if (retrySuccess) {
-                    Log.d(TAG, "✅ Retry successful for " + sensorData.getSensorType());
-                    return true;
+                TransmissionStatus retryStatus = retryService.retryTransmission(sensorData).join();
+                if (retryStatus != TransmissionStatus.FAILED) {
+                    Log.d(TAG, "✅ Retry for " + sensorData.getSensorType() + " ended " + retryStatus);
+                    return retryStatus;
                 }
             } catch (Exception e) {
                 Log.e(TAG, "❌ Retry failed for " + sensorData.getSensorType(), e);
@@ -141,16 +160,16 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
     }
 
     //Gestionează transmisia când Kafka nu e sănătos
-    private boolean handleUnhealthyKafka(Object data, String userId) {
+    private TransmissionStatus handleUnhealthyKafka(Object data, String userId) {
         // Încearcă o singură dată transmisia directă (poate Kafka să fie iar funcțional)
         try {
-            Map<String, Object> kafkaMessage = convertToKafkaMessage(data, userId);
-            boolean sent = kafkaProducer.sendHealthData(kafkaMessage, userId).join();
+            boolean sent = sendToTopic(data, userId);
 
             if (sent) {
                 successfulTransmissions++;
+                latencyTracer.complete(traceOf(data), ReadingTrace.Stage.BROKER_ACK);
                 Log.d(TAG, "✅ Direct transmission successful despite unhealthy Kafka status");
-                return true;
+                return TransmissionStatus.TRANSMITTED;
             }
         } catch (Exception e) {
             Log.d(TAG, "📝 Direct transmission failed as expected - storing offline");
@@ -161,7 +180,8 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
     }
 
     // Gestionează stocarea offline
-    private boolean handleOfflineTransmission(Object data, String userId) {
+    // ✅ MODIFICAT: Datele păstrate offline sunt QUEUED, nu TRANSMITTED - broker-ul nu le-a confirmat încă
+    private TransmissionStatus handleOfflineTransmission(Object data, String userId) {
         try {
             if (data instanceof SensorDataDTO) {
                 SensorDataDTO sensorData = (SensorDataDTO) data;
@@ -169,49 +189,64 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
 
                 if (stored) {
                     offlineTransmissions++;
+                    latencyTracer.complete(sensorData.getTrace(), ReadingTrace.Stage.OFFLINE_STORED);
                     Log.d(TAG, "💾 Data stored offline for user: " + userId +
                             " (sensor: " + sensorData.getSensorType() + ")");
-                    return true;
+                    return TransmissionStatus.QUEUED;
                 } else {
+                    latencyTracer.complete(sensorData.getTrace(), ReadingTrace.Stage.DROPPED);
                     Log.e(TAG, "❌ Failed to store data offline for user: " + userId);
-                    return false;
+                    return TransmissionStatus.FAILED;
+                }
+            } else if (data instanceof Map && !"LOCATION_DATA".equals(((Map<?, ?>) data).get("dataType"))) {
+                // ✅ NEW: Evenimentele (tranziții de zonă, anomalii vitale) se păstrează ca mesajul Kafka complet;
+                // loturile de locație rămân netransmise în location_history, care le retrimite singur
+                boolean stored = offlineDataManager.storeOfflineEvent(convertToKafkaMessage(data, userId), userId).join();
+                if (stored) {
+                    offlineTransmissions++;
+                    Log.d(TAG, "💾 Event stored offline for user: " + userId +
+                            " (type: " + ((Map<?, ?>) data).get("dataType") + ")");
+                } else {
+                    Log.e(TAG, "❌ Failed to store event offline for user: " + userId);
                 }
+                return stored ? TransmissionStatus.QUEUED : TransmissionStatus.FAILED;
             } else {
                 Log.w(TAG, "⚠️ Cannot store non-SensorDataDTO offline: " + data.getClass().getSimpleName());
-                return false;
+                return TransmissionStatus.FAILED;
             }
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error storing data offline for user " + userId, e);
-            return false;
+            return TransmissionStatus.FAILED;
         }
     }
 
-    // Convertește data în mesaj Kafka
-    private Map<String, Object> convertToKafkaMessage(Object data, String userId) {
-        Map<String, Object> message = new HashMap<>();
-
+    // ✅ MODIFICAT: SensorDataDTO e scris direct ca record REST Proxy de TelemetryJsonEncoder (fără Map + Gson)
+    private boolean sendToTopic(Object data, String userId) {
         if (data instanceof SensorDataDTO) {
-            SensorDataDTO sensorData = (SensorDataDTO) data;
+            return kafkaProducer.sendSensorData((SensorDataDTO) data, userId,
+                    TelemetryJsonEncoder.SensorLayout.TRANSMISSION).join();
+        }
+        Map<String, Object> kafkaMessage = convertToKafkaMessage(data, userId);
 
-            message.put("userId", userId);
-            message.put("sensorType", sensorData.getSensorType().getCode());
-            message.put("value", sensorData.getValue());
-            message.put("unit", sensorData.getUnit());
-            message.put("timestamp", sensorData.getTimestamp().toString());
-            message.put("deviceId", sensorData.getDeviceId());
-            message.put("source", "samsung_galaxy_watch_7");
-            message.put("dataType", "REAL_SENSOR_DATA");
-            message.put("criticalityLevel", sensorData.getSensorType().getCriticalityLevel().name());
-            message.put("transmissionMethod", "kafka_only_pipeline");
+        // ✅ NEW: Mesajele de locație (inclusiv loturile delta-encoded din istoric) merg pe topicul de locație
+        if ("LOCATION_DATA".equals(kafkaMessage.get("dataType"))) {
+            return kafkaProducer.sendLocationData(kafkaMessage, userId).join();
+        }
+        return kafkaProducer.sendHealthData(kafkaMessage, userId).join();
+    }
 
-            if (sensorData.getSensorType().isSamsungHealthPermitted()) {
-                message.put("dataSource", "samsung_health_sdk");
-            } else {
-                message.put("dataSource", "android_sensor_api");
-            }
+    // Trace-ul de latență există doar pentru SensorDataDTO eșantionate
+    private ReadingTrace traceOf(Object data) {
+        return data instanceof SensorDataDTO ? ((SensorDataDTO) data).getTrace() : null;
+    }
+
+    // Convertește datele non-senzor în mesaj Kafka
+    private Map<String, Object> convertToKafkaMessage(Object data, String userId) {
+        Map<String, Object> message = new HashMap<>();
 
-        } else if (data instanceof Map) {
+        // SensorDataDTO nu mai trece pe aici: layout-ul lui e în TelemetryJsonEncoder.SensorLayout.TRANSMISSION
+        if (data instanceof Map) {
             // Dacă data e deja un Map (pentru alte tipuri de date)
             Map<String, Object> dataMap = (Map<String, Object>) data;
             message.putAll(dataMap);
@@ -230,59 +265,22 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
         return message;
     }
 
+    // ✅ MODIFICAT: Golește coada offline a utilizatorului prin KafkaRetryService - înregistrările livrate sunt șterse
+    // și rândurile lor din sensor_data devin TRANSMITTED (înainte erau retrimise prin transmitData și rămâneau în
+    // coadă, iar un nou eșec le dubla)
     @Override
     public CompletableFuture<Boolean> retryFailedTransmissions(String userId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                Log.d(TAG, "🔄 Retrying failed transmissions for user: " + userId);
-
-                // Obține datele offline pentru utilizator
-                return offlineDataManager.getOfflineData()
-                        .thenCompose(offlineData -> {
-                            // Filtrează datele pentru utilizatorul specificat
-                            java.util.List<OfflineDataManager.OfflineHealthData> userOfflineData =
-                                    offlineData.stream()
-                                            .filter(data -> userId.equals(data.userId))
-                                            .collect(java.util.stream.Collectors.toList());
-
-                            if (userOfflineData.isEmpty()) {
-                                Log.d(TAG, "📋 No offline data to retry for user: " + userId);
-                                return CompletableFuture.completedFuture(true);
-                            }
-
-                            Log.d(TAG, "📤 Retrying " + userOfflineData.size() + " offline records for user: " + userId);
-
-                            // Procesează fiecare înregistrare offline
-                            java.util.List<CompletableFuture<Boolean>> retryFutures = new java.util.ArrayList<>();
-
-                            for (OfflineDataManager.OfflineHealthData offlineRecord : userOfflineData) {
-                                // Convertește în SensorDataDTO
-                                SensorDataDTO sensorData = convertOfflineToDTO(offlineRecord);
-
-                                // Adaugă la lista de retry-uri
-                                CompletableFuture<Boolean> retryFuture = transmitData(sensorData, userId);
-                                retryFutures.add(retryFuture);
-                            }
-
-                            // Așteaptă completarea tuturor retry-urilor
-                            return CompletableFuture.allOf(retryFutures.toArray(new CompletableFuture[0]))
-                                    .thenApply(ignored -> {
-                                        long successfulRetries = retryFutures.stream()
-                                                .mapToLong(future -> future.join() ? 1 : 0)
-                                                .sum();
-
-                                        Log.d(TAG, "✅ Retry completed for user " + userId + ": " +
-                                                successfulRetries + "/" + retryFutures.size() + " successful");
-
-                                        return successfulRetries > 0;
-                                    });
-                        }).join();
-
-            } catch (Exception e) {
-                Log.e(TAG, "❌ Error retrying failed transmissions for user " + userId, e);
-                return false;
-            }
-        });
+        Log.d(TAG, "🔄 Retrying failed transmissions for user: " + userId);
+        return retryService.drainOfflineData(userId)
+                .thenApply(allDelivered -> {
+                    Log.d(TAG, "✅ Retry completed for user " + userId + ": " +
+                            (allDelivered ? "offline queue empty" : "some records still queued"));
+                    return allDelivered;
+                })
+                .exceptionally(throwable -> {
+                    Log.e(TAG, "❌ Error retrying failed transmissions for user " + userId, throwable);
+                    return false;
+                });
     }
 
     @Override
@@ -306,19 +304,6 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
         });
     }
 
-    // Convertește OfflineHealthData în SensorDataDTO
-    private SensorDataDTO convertOfflineToDTO(OfflineDataManager.OfflineHealthData offlineData) {
-        SensorDataDTO dto = new SensorDataDTO();
-        dto.setUserId(offlineData.userId);
-        dto.setSensorType(offlineData.sensorType);
-        dto.setValue(offlineData.value);
-        dto.setUnit(offlineData.unit);
-        dto.setTimestamp(offlineData.timestamp);
-        dto.setDeviceId(offlineData.deviceId);
-        dto.setRetryCount(offlineData.retryCount);
-        return dto;
-    }
-
     // ✅ Obține statisticile de transmisie
     public TransmissionStatistics getTransmissionStatistics() {
         TransmissionStatistics stats = new TransmissionStatistics();
@@ -348,6 +333,7 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
             // Statistici
             status.transmissionStats = getTransmissionStatistics();
             status.retryStats = retryService.getRetryStatistics();
+            status.latencyStats = latencyTracer.getStatistics();
 
             // Statusuri componente
             try {
@@ -371,6 +357,7 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
 
         retryService.resetStatistics();
         kafkaHealthService.resetHealthStatistics();
+        latencyTracer.resetStatistics();
 
         Log.d(TAG, "🔄 All transmission statistics reset");
     }
@@ -404,6 +391,7 @@ public class DataTransmissionServiceImpl implements DataTransmissionService {
         public KafkaHealthCheckService.KafkaHealthStatus kafkaHealthDetails;
         public NetworkStateManager.NetworkStatus networkDetails;
         public OfflineDataManager.OfflineStatistics offlineStats;
+        public PipelineLatencyTracer.LatencyStatistics latencyStats;
 
         public String getSummary() {
             return String.format(
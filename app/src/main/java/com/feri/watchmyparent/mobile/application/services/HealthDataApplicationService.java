@@ -10,15 +10,24 @@ import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
 import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
 import com.feri.watchmyparent.mobile.domain.repositories.UserRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryKey;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryQuery;
 import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorSeries;
+import com.feri.watchmyparent.mobile.infrastructure.database.KeysetPager;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
 import com.feri.watchmyparent.mobile.infrastructure.services.SensorDataIntegrationService;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 // MODIFICAT: Elimină PostgreSQL direct, folosește doar Kafka pipeline
 
 @Singleton
@@ -30,6 +39,7 @@ public class HealthDataApplicationService {
     private final SensorDataRepository sensorDataRepository; // Păstrat pentru citire locală
     private final DataTransmissionService dataTransmissionService; // ✅ ÎNLOCUIT serviciile separate
     private final SensorDataIntegrationService sensorDataIntegrationService; // ✅ ADĂUGAT
+    private final PipelineLatencyTracer latencyTracer;
 
     @Inject
     WatchConnectionApplicationService watchConnectionApplicationService;
@@ -39,12 +49,14 @@ public class HealthDataApplicationService {
             UserRepository userRepository,
             SensorDataRepository sensorDataRepository,
             DataTransmissionService dataTransmissionService, // ✅ ÎNLOCUIT
-            SensorDataIntegrationService sensorDataIntegrationService) { // ✅ ADĂUGAT
+            SensorDataIntegrationService sensorDataIntegrationService, // ✅ ADĂUGAT
+            PipelineLatencyTracer latencyTracer) {
 
         this.userRepository = userRepository;
         this.sensorDataRepository = sensorDataRepository;
         this.dataTransmissionService = dataTransmissionService;
         this.sensorDataIntegrationService = sensorDataIntegrationService;
+        this.latencyTracer = latencyTracer;
 
         Log.d(TAG, "✅ HealthDataApplicationService initialized with Kafka-only pipeline");
     }
@@ -73,9 +85,12 @@ public class HealthDataApplicationService {
                         // Determină criticitatea senzorului
                         CriticalityLevel criticalityLevel = sensorType.getCriticalityLevel();
 
-                        // Colectează datele prin integration service
-                        List<SensorReading> readings =
-                                sensorDataIntegrationService.collectSensorDataByCriticality(criticalityLevel).join();
+                        // Colectează datele prin integration service - pe banda pacientului dacă are
+                        // ceasuri înregistrate, altfel de pe ceasul implicit (comportamentul single-user)
+                        String collectionUserId = sensorDataIntegrationService.getMonitoredPatientIds().contains(userId)
+                                ? userId : sensorDataIntegrationService.getPrimaryUserId();
+                        List<SensorReading> readings = sensorDataIntegrationService
+                                .collectSensorDataByCriticality(collectionUserId, criticalityLevel).join();
 
                         // Filtrează pentru senzorul specific - CORECT
                         List<SensorReading> sensorReadings = readings.stream()
@@ -193,6 +208,10 @@ public class HealthDataApplicationService {
         dto.setDeviceId(reading.getDeviceId());
         dto.setTransmitted(false);
 
+        // Trace-ul e partajat cu DTO-ul din SensorDataIntegrationService - prima etapă terminală câștigă
+        dto.setTrace(reading.getTrace());
+        latencyTracer.mark(dto.getTrace(), ReadingTrace.Stage.DTO_CONVERTED);
+
         return dto;
     }
 
@@ -215,6 +234,44 @@ public class HealthDataApplicationService {
                         .collect(Collectors.toList()));
     }
 
+    // ✅ NEW: Ultimele citiri ca flux - emite la fiecare schimbare din baza locală, fără polling din UI
+    public Flowable<List<SensorDataDTO>> observeLatestSensorData(String userId) {
+        return sensorDataRepository.observeLatestByUserId(userId)
+                .map(sensorDataList -> sensorDataList.stream()
+                        .map(this::convertEntityToDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    // ✅ NEW: Istoricul paginat (keyset pe timestamp + id) pentru KeysetPager-ul din UI - fiecare pagină e un
+    // query cu LIMIT după cheie, deci deschiderea și derularea costă la fel oricât istoric ar exista
+    public KeysetPager.PageSource<SensorHistoryKey, SensorDataDTO> getSensorHistory(SensorHistoryQuery query) {
+        return new KeysetPager.PageSource<SensorHistoryKey, SensorDataDTO>() {
+            @Override
+            public CompletableFuture<KeysetPager.Page<SensorHistoryKey, SensorDataDTO>> loadOlder(SensorHistoryKey after, int limit) {
+                return sensorDataRepository.findHistoryOlder(query, after, limit)
+                        .thenApply(HealthDataApplicationService.this::toHistoryPage);
+            }
+
+            @Override
+            public CompletableFuture<KeysetPager.Page<SensorHistoryKey, SensorDataDTO>> loadNewer(SensorHistoryKey before, int limit) {
+                return sensorDataRepository.findHistoryNewer(query, before, limit)
+                        .thenApply(HealthDataApplicationService.this::toHistoryPage);
+            }
+        };
+    }
+
+    // ✅ NEW: Seria unui semn vital pentru grafic (ex. puls pe 30 de zile), cel mult maxPoints puncte - payload-ul
+    // nu crește cu intervalul
+    public CompletableFuture<SensorSeries> getSensorSeries(String userId, SensorType sensorType,
+                                                           LocalDateTime from, LocalDateTime to, int maxPoints) {
+        return sensorDataRepository.findSeries(userId, sensorType, from, to, maxPoints);
+    }
+
+    private KeysetPager.Page<SensorHistoryKey, SensorDataDTO> toHistoryPage(
+            List<com.feri.watchmyparent.mobile.domain.entities.SensorData> sensorDataList) {
+        return KeysetPager.Page.of(sensorDataList, SensorHistoryKey::of, this::convertEntityToDTO);
+    }
+
     private SensorDataDTO convertEntityToDTO(com.feri.watchmyparent.mobile.domain.entities.SensorData sensorData) {
         SensorDataDTO dto = new SensorDataDTO();
         dto.setUserId(sensorData.getUser().getIdUser());
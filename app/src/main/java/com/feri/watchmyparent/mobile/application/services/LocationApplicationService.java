@@ -8,16 +8,24 @@ import com.feri.watchmyparent.mobile.domain.entities.LocationData;
 import com.feri.watchmyparent.mobile.domain.entities.User;
 import com.feri.watchmyparent.mobile.domain.repositories.LocationDataRepository;
 import com.feri.watchmyparent.mobile.domain.repositories.UserRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.GeofenceTransition;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
 import com.feri.watchmyparent.mobile.domain.valueobjects.LocationStatus;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SafeZone;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.services.GeofenceEngine;
+import com.feri.watchmyparent.mobile.infrastructure.services.LocationHistoryService;
 import com.feri.watchmyparent.mobile.infrastructure.services.PostgreSQLDataService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 //MODIFICAT: LocationApplicationService pentru Kafka-only pipeline
 //Eliminat PostgreSQL direct, folosește DataTransmissionService
 @Singleton
@@ -28,21 +36,36 @@ public class LocationApplicationService {
     private final LocationDataRepository locationDataRepository;
     private final UserRepository userRepository;
     private final DataTransmissionService dataTransmissionService; // ✅ ÎNLOCUIT serviciile separate
+    private final GeofenceEngine geofenceEngine; // ✅ NEW: zone sigure multiple per pacient
+    private final LocationHistoryService locationHistoryService; // ✅ NEW: istoric comprimat
+
+    public static final String HOME_ZONE_ID = "home";
 
     @Inject
     public LocationApplicationService(
             LocationDataRepository locationDataRepository,
             UserRepository userRepository,
-            DataTransmissionService dataTransmissionService) { // ✅ CORECTAT
+            DataTransmissionService dataTransmissionService,
+            GeofenceEngine geofenceEngine,
+            LocationHistoryService locationHistoryService) {
         this.locationDataRepository = locationDataRepository;
         this.userRepository = userRepository;
         this.dataTransmissionService = dataTransmissionService;
+        this.geofenceEngine = geofenceEngine;
+        this.locationHistoryService = locationHistoryService;
 
-        Log.d(TAG, "✅ LocationApplicationService initialized with Kafka-only pipeline");
+        Log.d(TAG, "✅ LocationApplicationService initialized with Kafka-only pipeline and geofencing");
     }
 
     //Update user location with coordinates and accuracy - Update location prin Kafka-only pipeline
     public CompletableFuture<Boolean> updateLocation(String userId, double latitude, double longitude, double accuracy) {
+        return updateLocation(userId, latitude, longitude, accuracy, null);
+    }
+
+    // ✅ NEW: resolvedAddress e adresa din cache-ul de geocoding; null când nu e încă rezolvată
+    // (atunci se salvează coordonatele, iar adresa reală vine prin updateResolvedAddress)
+    public CompletableFuture<Boolean> updateLocation(String userId, double latitude, double longitude, double accuracy,
+                                                     String resolvedAddress) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 Log.d(TAG, "🔄 Updating REAL location for user: " + userId);
@@ -63,17 +86,31 @@ public class LocationApplicationService {
                 locationData.setIdLocationData(java.util.UUID.randomUUID().toString());
                 locationData.setUser(user);
 
+                LocalDateTime now = LocalDateTime.now();
+
+                // ✅ NEW: Evaluare incrementală a zonelor sigure (index spațial, fără haversine pe fiecare zonă)
+                List<GeofenceTransition> transitions = geofenceEngine.evaluate(userId, latitude, longitude, now);
+                boolean hasZones = geofenceEngine.hasZones(userId);
+                List<SafeZone> currentZones = geofenceEngine.getCurrentZones(userId);
+
                 // Actualizăm status-ul locației
                 LocationStatus locationStatus = new LocationStatus();
-                locationStatus.setStatus("ACTIVE");
+                locationStatus.setStatus(hasZones ? (isAtHome(currentZones) ? "HOME" : "AWAY") : "ACTIVE");
                 locationStatus.setLatitude(latitude);
                 locationStatus.setLongitude(longitude);
-                locationStatus.setTimestamp(LocalDateTime.now());
-                locationStatus.setAddress("GPS Location: " + String.format("%.6f, %.6f", latitude, longitude));
+                locationStatus.setTimestamp(now);
+                locationStatus.setAddress(buildAddress(latitude, longitude, resolvedAddress, currentZones));
 
                 locationData.setLocationStatus(locationStatus);
-                locationData.setHomeLatitude(latitude); // Implicit setăm aceeași locație ca home
-                locationData.setHomeLongitude(longitude);
+                SafeZone homeZone = findHomeZone(userId);
+                if (homeZone != null) {
+                    locationData.setHomeLatitude(homeZone.getCenterLatitude());
+                    locationData.setHomeLongitude(homeZone.getCenterLongitude());
+                    locationData.setRadiusMeters(homeZone.getRadiusMeters());
+                } else {
+                    locationData.setHomeLatitude(latitude); // Implicit setăm aceeași locație ca home
+                    locationData.setHomeLongitude(longitude);
+                }
                 locationData.setDeviceId("samsung_galaxy_watch_7_gps");
 
                 // Salvează local în Room database
@@ -89,6 +126,18 @@ public class LocationApplicationService {
                     Log.w(TAG, "⚠️ Location transmission failed - stored offline for retry");
                 }
 
+                // ✅ NEW: Istoricul primește fiecare fix; doar punctele care schimbă traiectoria sunt păstrate
+                locationHistoryService.ingest(userId, new LocationPoint(latitude, longitude, accuracy, now)).join();
+
+                // ✅ NEW: Tranzițiile de zonă se transmit doar când apar (nu la fiecare fix)
+                // ✅ MODIFICAT: cu Kafka indisponibil tranziția e păstrată offline (true); false = nici trimisă, nici salvată
+                for (GeofenceTransition transition : transitions) {
+                    boolean delivered = dataTransmissionService.transmitData(transition.toKafkaMessage(), userId).join();
+                    if (!delivered) {
+                        Log.e(TAG, "❌ Geofence transition lost (not sent, not stored offline): " + transition);
+                    }
+                }
+
                 Log.d(TAG, "✅ REAL location processing completed for user " + userId);
                 return true; // Returnăm true chiar dacă transmisia eșuează (se va încerca din nou)
 
@@ -99,6 +148,40 @@ public class LocationApplicationService {
         });
     }
 
+    // ✅ NEW: Adresa unei locații deja salvate, rezolvată ulterior de Geocoder - actualizează rândul salvat și îl
+    // retransmite, doar dacă fix-ul e încă ultima locație a pacientului (altfel un fix mai nou l-a înlocuit)
+    public CompletableFuture<Boolean> updateResolvedAddress(String userId, double latitude, double longitude,
+                                                            String address) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Optional<LocationData> locationOpt = locationDataRepository.findByUserId(userId).join();
+                LocationStatus current = locationOpt.isPresent() ? locationOpt.get().getLocationStatus() : null;
+                if (current == null || Double.compare(current.getLatitude(), latitude) != 0
+                        || Double.compare(current.getLongitude(), longitude) != 0) {
+                    Log.d(TAG, "📍 Resolved address skipped - a newer location replaced the fix for user " + userId);
+                    return false;
+                }
+
+                LocationData locationData = locationOpt.get();
+                current.setAddress(buildAddress(latitude, longitude, address, geofenceEngine.getCurrentZones(userId)));
+                locationData.setLocationStatus(current);
+                locationDataRepository.save(locationData).join();
+
+                boolean transmitted = dataTransmissionService.transmitData(locationData, userId).join();
+                if (transmitted) {
+                    Log.d(TAG, "✅ Resolved address transmitted for user " + userId + ": " + address);
+                } else {
+                    Log.w(TAG, "⚠️ Resolved address transmission failed - stored offline for retry");
+                }
+                return true;
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error updating resolved address for user " + userId, e);
+                return false;
+            }
+        });
+    }
+
     // Simplified location update cu coordonate GPS simulate in mod realist
     public CompletableFuture<LocationDataDTO> updateUserLocation(String userId) {
         return CompletableFuture.supplyAsync(() -> {
@@ -157,6 +240,19 @@ public class LocationApplicationService {
                 });
     }
 
+    // ✅ NEW: Locația curentă ca flux - emite la fiecare schimbare a rândului salvat (implicit cât timp lipsește)
+    public Flowable<LocationDataDTO> observeUserLocation(String userId) {
+        return observeLastLocation(userId)
+                .map(locationOpt -> locationOpt.isPresent()
+                        ? convertToDTO(locationOpt.get())
+                        : createDefaultLocationDTO(userId));
+    }
+
+    // ✅ NEW: Ultima locație salvată ca flux (partajat între ecrane, limitat la un cadru)
+    public Flowable<Optional<LocationData>> observeLastLocation(String userId) {
+        return locationDataRepository.observeByUserId(userId);
+    }
+
     //Get last location for user
     public CompletableFuture<Optional<LocationData>> getLastLocation(String userId) {
         return CompletableFuture.supplyAsync(() -> {
@@ -212,6 +308,10 @@ public class LocationApplicationService {
                     Log.d(TAG, "🆕 Created new location data with home coordinates");
                 }
 
+                // ✅ NEW: Home devine zona sigură HOME a engine-ului de geofencing
+                geofenceEngine.addZone(SafeZone.circle(HOME_ZONE_ID, userId, "Home", SafeZone.Category.HOME,
+                        latitude, longitude, locationData.getRadiusMeters()));
+
                 // Salvează local în Room database
                 locationDataRepository.save(locationData).join();
                 Log.d(TAG, "💾 Home location saved locally for user: " + userId);
@@ -235,6 +335,68 @@ public class LocationApplicationService {
         });
     }
 
+    // ✅ NEW: Zone sigure suplimentare (centru de zi, rude, farmacie...) - cerc sau poligon
+    public void addSafeZone(SafeZone zone) {
+        geofenceEngine.addZone(zone);
+    }
+
+    public boolean removeSafeZone(String userId, String zoneId) {
+        return geofenceEngine.removeZone(userId, zoneId);
+    }
+
+    public List<SafeZone> getSafeZones(String userId) {
+        return geofenceEngine.getZones(userId);
+    }
+
+    public List<SafeZone> getCurrentSafeZones(String userId) {
+        return geofenceEngine.getCurrentZones(userId);
+    }
+
+    public void addGeofenceListener(GeofenceEngine.GeofenceListener listener) {
+        geofenceEngine.addListener(listener);
+    }
+
+    // ✅ NEW: Traiectoria pacientului într-un interval de timp (din istoricul indexat)
+    public CompletableFuture<List<LocationPoint>> getLocationHistory(String userId, LocalDateTime from, LocalDateTime to) {
+        return locationHistoryService.getHistory(userId, from, to);
+    }
+
+    private SafeZone findHomeZone(String userId) {
+        for (SafeZone zone : geofenceEngine.getZones(userId)) {
+            if (zone.isHome() && zone.getShape() == SafeZone.Shape.CIRCLE) {
+                return zone;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAtHome(List<SafeZone> zones) {
+        for (SafeZone zone : zones) {
+            if (zone.isHome()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String buildAddress(double latitude, double longitude, String resolvedAddress, List<SafeZone> zones) {
+        StringBuilder address = new StringBuilder();
+        if (resolvedAddress != null) {
+            address.append(resolvedAddress);
+        } else {
+            address.append("GPS Location: ").append(String.format("%.6f, %.6f", latitude, longitude));
+        }
+        if (!zones.isEmpty()) {
+            address.append(" (");
+            for (int i = 0; i < zones.size(); i++) {
+                if (i > 0) address.append(", ");
+                address.append(zones.get(i).getName());
+            }
+            address.append(")");
+        }
+        return address.toString();
+    }
+
     // ADĂUGAT: Obține numărul de transmisii location în așteptare
     public CompletableFuture<Integer> getPendingLocationTransmissions(String userId) {
         return dataTransmissionService.getPendingTransmissionCount(userId)
@@ -312,7 +474,8 @@ public class LocationApplicationService {
         status.append("- Data Transmission: ✅ Kafka-Only Pipeline\n");
         status.append("- Local Storage: ✅ Room Database\n");
         status.append("- GPS Simulation: ✅ Oradea, RO coordinates\n");
-        status.append("- Retry Logic: ✅ Automatic via DataTransmissionService");
+        status.append("- Retry Logic: ✅ Automatic via DataTransmissionService\n");
+        status.append("- Geofencing: ").append(geofenceEngine.getStatistics());
 
         return status.toString();
     }
@@ -0,0 +1,79 @@
+package com.feri.watchmyparent.mobile.application.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.repositories.UserRepository;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
+import com.feri.watchmyparent.mobile.infrastructure.services.SensorDataIntegrationService;
+import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.concurrent.CompletableFuture;
+
+// ✅ NEW: Asocierea ceasurilor cu pacienții (conturi existente). Ceasul telefonului trece la pacient prin
+// PatientRegistry - colectarea, locația, căderile și ecranele îl urmează -, iar ceasurile în plus sunt
+// adăugate direct în SensorDataIntegrationService
+@Singleton
+public class PatientPairingApplicationService {
+
+    private static final String TAG = "PatientPairingService";
+
+    private final UserRepository userRepository;
+    private final PatientRegistry patientRegistry;
+    private final SensorDataIntegrationService sensorDataIntegrationService;
+
+    @Inject
+    public PatientPairingApplicationService(
+            UserRepository userRepository,
+            PatientRegistry patientRegistry,
+            SensorDataIntegrationService sensorDataIntegrationService) {
+        this.userRepository = userRepository;
+        this.patientRegistry = patientRegistry;
+        this.sensorDataIntegrationService = sensorDataIntegrationService;
+    }
+
+    // Ceasul telefonului devine al pacientului; false dacă pacientul nu are cont
+    public CompletableFuture<Boolean> pairPrimaryWatch(String userId, String deviceId) {
+        return requireUser(userId)
+                .thenApply(exists -> {
+                    if (exists) {
+                        patientRegistry.setPrimaryPatient(userId, deviceId);
+                        Log.d(TAG, "⌚ Primary watch " + patientRegistry.getPrimaryDeviceId() + " paired with " + userId);
+                    }
+                    return exists;
+                });
+    }
+
+    // Un ceas în plus (alt pacient sau al doilea ceas al aceluiași pacient), citit prin propriul WatchManager
+    public CompletableFuture<Boolean> pairAdditionalWatch(String userId, WatchManager deviceWatchManager) {
+        if (deviceWatchManager == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return requireUser(userId)
+                .thenApply(exists -> {
+                    if (exists) {
+                        sensorDataIntegrationService.registerPatientDevice(userId, deviceWatchManager, null);
+                    }
+                    return exists;
+                });
+    }
+
+    public boolean unpairWatch(String userId, String deviceId) {
+        return sensorDataIntegrationService.unregisterPatientDevice(userId, deviceId);
+    }
+
+    private CompletableFuture<Boolean> requireUser(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return userRepository.findById(userId)
+                .thenApply(userOpt -> {
+                    if (!userOpt.isPresent()) {
+                        Log.w(TAG, "⚠️ Cannot pair a watch with unknown patient " + userId);
+                    }
+                    return userOpt.isPresent();
+                });
+    }
+}
@@ -367,6 +367,11 @@ public class WatchConnectionApplicationService {
             return CompletableFuture.completedFuture(false);
         }
 
+        // ✅ NEW: Un senzor dezactivat nu mai ține senzorul hardware înregistrat
+        if (!config.isEnabled()) {
+            return watchManager.disableSensor(config.getSensorType());
+        }
+
         return watchManager.configureSensorFrequency(config.getSensorType(), config.getFrequencySeconds())
                 .thenApply(success -> {
                     if (success) {
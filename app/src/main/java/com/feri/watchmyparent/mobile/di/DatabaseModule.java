@@ -3,12 +3,23 @@ package com.feri.watchmyparent.mobile.di;
 import android.content.Context;
 import androidx.room.Room;
 import com.feri.watchmyparent.mobile.infrastructure.database.AppDatabase;
+import com.feri.watchmyparent.mobile.infrastructure.database.AppDatabaseMigrations;
+import com.feri.watchmyparent.mobile.infrastructure.database.ReactiveQueries;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorArchive;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.EmergencyContactDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.EmergencyOutboxDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.GeocodeCacheDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.LocationDataDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.LocationHistoryDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.MedicalProfileDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorConfigurationDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorArchiveDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorDataDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorRollupDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.UserDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SafeZoneDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.VitalBaselineDao;
 import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager;
 import dagger.Module;
 import dagger.Provides;
@@ -30,7 +41,10 @@ public class DatabaseModule {
                         AppDatabase.class,
                         "watchmyparent_database"
                 )
-                .fallbackToDestructiveMigration()
+                // ✅ MODIFICAT: actualizarea aplicației migrează datele (AppDatabaseMigrations) în loc să le șteargă;
+                // doar un downgrade mai recreează baza
+                .addMigrations(AppDatabaseMigrations.ALL)
+                .fallbackToDestructiveMigrationOnDowngrade()
                 .build();
     }
 
@@ -43,10 +57,36 @@ public class DatabaseModule {
                         OfflineDataManager.OfflineDataDatabase.class,
                         "offline_health_data"
                 )
-                .fallbackToDestructiveMigration()
+                // ✅ MODIFICAT: datele și evenimentele offline netransmise supraviețuiesc actualizării aplicației
+                .addMigrations(OfflineDataManager.MIGRATION_1_2)
+                .fallbackToDestructiveMigrationOnDowngrade()
                 .build();
     }
 
+    // ✅ NEW: Singurul scriitor pentru AppDatabase. Regula e valabilă pentru toate repository-urile și SensorArchive:
+    // scrierile (insert/update/delete) trec prin storageWriter.submit/execute, nu direct prin DAO, ca să fie grupate
+    // în tranzacții de group commit; citirile rămân pe executor-ul propriu al fiecărui repository.
+    @Provides
+    @Singleton
+    public StorageWriter provideStorageWriter(AppDatabase database) {
+        return new StorageWriter("app", database::runInTransaction);
+    }
+
+    // ✅ NEW: Registrul query-urilor observabile - un singur upstream Room per query, partajat de ecrane
+    @Provides
+    @Singleton
+    public ReactiveQueries provideReactiveQueries() {
+        return new ReactiveQueries();
+    }
+
+    // ✅ NEW: Arhiva comprimată a istoricului vechi - scrie prin același scriitor unic
+    @Provides
+    @Singleton
+    public SensorArchive provideSensorArchive(SensorDataDao sensorDataDao, SensorArchiveDao sensorArchiveDao,
+                                              StorageWriter storageWriter) {
+        return new SensorArchive(sensorDataDao, sensorArchiveDao, storageWriter);
+    }
+
     // Provide DAOs - PĂSTRAT pentru funcționalitatea locală
     @Provides
     @Singleton
@@ -83,4 +123,52 @@ public class DatabaseModule {
     public MedicalProfileDao provideMedicalProfileDao(AppDatabase database) {
         return database.medicalProfileDao();
     }
-}
\ No newline at end of file
+
+    // ✅ NEW: Cache persistent pentru reverse geocoding
+    @Provides
+    @Singleton
+    public GeocodeCacheDao provideGeocodeCacheDao(AppDatabase database) {
+        return database.geocodeCacheDao();
+    }
+
+    // ✅ NEW: Istoric de locații comprimat
+    @Provides
+    @Singleton
+    public LocationHistoryDao provideLocationHistoryDao(AppDatabase database) {
+        return database.locationHistoryDao();
+    }
+
+    // ✅ NEW: Baseline-uri persistate pentru detecția de anomalii
+    @Provides
+    @Singleton
+    public VitalBaselineDao provideVitalBaselineDao(AppDatabase database) {
+        return database.vitalBaselineDao();
+    }
+
+    // ✅ NEW: Outbox pentru alertele de urgență
+    @Provides
+    @Singleton
+    public EmergencyOutboxDao provideEmergencyOutboxDao(AppDatabase database) {
+        return database.emergencyOutboxDao();
+    }
+
+    // ✅ NEW: Rollup-urile de 5 minute pentru graficele pe intervale lungi
+    @Provides
+    @Singleton
+    public SensorRollupDao provideSensorRollupDao(AppDatabase database) {
+        return database.sensorRollupDao();
+    }
+
+    @Provides
+    @Singleton
+    public SensorArchiveDao provideSensorArchiveDao(AppDatabase database) {
+        return database.sensorArchiveDao();
+    }
+
+    // ✅ NEW: Zonele sigure persistate pentru GeofenceEngine
+    @Provides
+    @Singleton
+    public SafeZoneDao provideSafeZoneDao(AppDatabase database) {
+        return database.safeZoneDao();
+    }
+}
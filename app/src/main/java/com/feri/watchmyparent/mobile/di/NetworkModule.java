@@ -1,6 +1,7 @@
 package com.feri.watchmyparent.mobile.di;
 
 import com.feri.watchmyparent.mobile.infrastructure.database.PostgreSQLConfig;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.GeocodeCacheDao;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.KafkaMessageFormatter;
 import com.feri.watchmyparent.mobile.infrastructure.external.LocationServiceAdapter;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
@@ -39,7 +40,8 @@ public class NetworkModule {
 
     @Provides
     @Singleton
-    public LocationServiceAdapter provideLocationServiceAdapter(@ApplicationContext Context context) {
-        return new LocationServiceAdapter(context);
+    public LocationServiceAdapter provideLocationServiceAdapter(@ApplicationContext Context context,
+                                                                GeocodeCacheDao geocodeCacheDao) {
+        return new LocationServiceAdapter(context, geocodeCacheDao);
     }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.feri.watchmyparent.mobile.di;
 
 import com.feri.watchmyparent.mobile.domain.repositories.*;
 import com.feri.watchmyparent.mobile.infrastructure.repositories.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.ReactiveQueries;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorArchive;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.*;
 import dagger.Module;
 import dagger.Provides;
@@ -15,37 +18,47 @@ public class RepositoryModule {
 
     @Provides
     @Singleton
-    public UserRepository provideUserRepository(UserDao userDao) {
-        return new UserRepositoryImpl(userDao);
+    public UserRepository provideUserRepository(UserDao userDao, StorageWriter storageWriter) {
+        return new UserRepositoryImpl(userDao, storageWriter);
     }
 
     @Provides
     @Singleton
-    public SensorDataRepository provideSensorDataRepository(SensorDataDao sensorDataDao) {
-        return new SensorDataRepositoryImpl(sensorDataDao);
+    public SensorDataRepository provideSensorDataRepository(SensorDataDao sensorDataDao, SensorRollupDao sensorRollupDao,
+                                                            SensorArchive sensorArchive, StorageWriter storageWriter,
+                                                            ReactiveQueries reactiveQueries) {
+        return new SensorDataRepositoryImpl(sensorDataDao, sensorRollupDao, sensorArchive, storageWriter,
+                reactiveQueries);
     }
 
     @Provides
     @Singleton
-    public SensorConfigurationRepository provideSensorConfigurationRepository(SensorConfigurationDao sensorConfigurationDao) {
-        return new SensorConfigurationRepositoryImpl(sensorConfigurationDao);
+    public SensorConfigurationRepository provideSensorConfigurationRepository(SensorConfigurationDao sensorConfigurationDao, StorageWriter storageWriter) {
+        return new SensorConfigurationRepositoryImpl(sensorConfigurationDao, storageWriter);
     }
 
     @Provides
     @Singleton
-    public LocationDataRepository provideLocationDataRepository(LocationDataDao locationDataDao) {
-        return new LocationDataRepositoryImpl(locationDataDao);
+    public LocationDataRepository provideLocationDataRepository(LocationDataDao locationDataDao, StorageWriter storageWriter,
+                                                                ReactiveQueries reactiveQueries) {
+        return new LocationDataRepositoryImpl(locationDataDao, storageWriter, reactiveQueries);
     }
 
     @Provides
     @Singleton
-    public EmergencyContactRepository provideEmergencyContactRepository(EmergencyContactDao emergencyContactDao) {
-        return new EmergencyContactRepositoryImpl(emergencyContactDao);
+    public EmergencyContactRepository provideEmergencyContactRepository(EmergencyContactDao emergencyContactDao, StorageWriter storageWriter) {
+        return new EmergencyContactRepositoryImpl(emergencyContactDao, storageWriter);
     }
 
     @Provides
     @Singleton
-    public MedicalProfileRepository provideMedicalProfileRepository(MedicalProfileDao medicalProfileDao) {
-        return new MedicalProfileRepositoryImpl(medicalProfileDao);
+    public MedicalProfileRepository provideMedicalProfileRepository(MedicalProfileDao medicalProfileDao, StorageWriter storageWriter) {
+        return new MedicalProfileRepositoryImpl(medicalProfileDao, storageWriter);
+    }
+
+    @Provides
+    @Singleton
+    public LocationHistoryRepository provideLocationHistoryRepository(LocationHistoryDao locationHistoryDao, StorageWriter storageWriter) {
+        return new LocationHistoryRepositoryImpl(locationHistoryDao, storageWriter);
     }
 }
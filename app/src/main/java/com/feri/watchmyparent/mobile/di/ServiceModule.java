@@ -5,11 +5,14 @@ import android.content.Context;
 import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
 import com.feri.watchmyparent.mobile.application.services.*;
 import com.feri.watchmyparent.mobile.domain.repositories.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.EmergencyOutboxDao;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
 import com.feri.watchmyparent.mobile.infrastructure.services.*;
 import com.feri.watchmyparent.mobile.infrastructure.watch.RealSamsungHealthManager;
 import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
 
+import java.util.Arrays;
+
 import dagger.Binds;
 import dagger.Module;
 import dagger.Provides;
@@ -36,12 +39,14 @@ public abstract class ServiceModule {
             UserRepository userRepository,
             SensorDataRepository sensorDataRepository,
             DataTransmissionService dataTransmissionService, // ✅ CORECTAT
-            SensorDataIntegrationService sensorDataIntegrationService) { // ✅ CORECTAT
+            SensorDataIntegrationService sensorDataIntegrationService, // ✅ CORECTAT
+            PipelineLatencyTracer latencyTracer) {
         return new HealthDataApplicationService(
                 userRepository,
                 sensorDataRepository,
                 dataTransmissionService,
-                sensorDataIntegrationService);
+                sensorDataIntegrationService,
+                latencyTracer);
     }
 
     // ✅ CORECTAT: LocationApplicationService
@@ -50,9 +55,11 @@ public abstract class ServiceModule {
     public static LocationApplicationService provideLocationService(
             LocationDataRepository locationRepository,
             UserRepository userRepository,
-            DataTransmissionService dataTransmissionService) { // ✅ CORECTAT
+            DataTransmissionService dataTransmissionService, // ✅ CORECTAT
+            GeofenceEngine geofenceEngine,
+            LocationHistoryService locationHistoryService) {
         return new LocationApplicationService(
-                locationRepository, userRepository, dataTransmissionService);
+                locationRepository, userRepository, dataTransmissionService, geofenceEngine, locationHistoryService);
     }
 
     @Provides
@@ -63,6 +70,16 @@ public abstract class ServiceModule {
         return new UserApplicationService(userRepository, configurationRepository);
     }
 
+    // ✅ NEW: Asocierea ceasurilor cu pacienții
+    @Provides
+    @Singleton
+    public static PatientPairingApplicationService providePatientPairingService(
+            UserRepository userRepository,
+            PatientRegistry patientRegistry,
+            SensorDataIntegrationService sensorDataIntegrationService) {
+        return new PatientPairingApplicationService(userRepository, patientRegistry, sensorDataIntegrationService);
+    }
+
     // ✅ Infrastructure Services - NOI pentru Kafka-only pipeline
     @Provides
     @Singleton
@@ -82,8 +99,11 @@ public abstract class ServiceModule {
     public static KafkaRetryService provideKafkaRetryService(
             RealHealthDataKafkaProducer kafkaProducer,
             KafkaHealthCheckService healthCheckService,
-            OfflineDataManager offlineDataManager) {
-        return new KafkaRetryService(kafkaProducer, healthCheckService, offlineDataManager);
+            OfflineDataManager offlineDataManager,
+            PipelineLatencyTracer latencyTracer,
+            SensorDataRepository sensorDataRepository) {
+        return new KafkaRetryService(kafkaProducer, healthCheckService, offlineDataManager, latencyTracer,
+                sensorDataRepository);
     }
 
     @Provides
@@ -105,10 +125,11 @@ public abstract class ServiceModule {
             KafkaHealthCheckService kafkaHealthService,
             KafkaRetryService retryService,
             OfflineDataManager offlineDataManager,
-            NetworkStateManager networkStateManager) {
+            NetworkStateManager networkStateManager,
+            PipelineLatencyTracer latencyTracer) {
         return new DataTransmissionServiceImpl(
                 kafkaProducer, kafkaHealthService, retryService,
-                offlineDataManager, networkStateManager);
+                offlineDataManager, networkStateManager, latencyTracer);
     }
 
     // ✅ Servicii existente - ACTUALIZAT pentru Kafka-only
@@ -123,8 +144,13 @@ public abstract class ServiceModule {
     public static SensorDataIntegrationService provideSensorDataIntegrationService(
             RealSamsungHealthManager watchManager,
             SamsungHealthDataService samsungHealthDataService,
-            DataTransmissionService dataTransmissionService) { // ✅ ÎNLOCUIT PostgreSQL
-        return new SensorDataIntegrationService(watchManager, samsungHealthDataService, dataTransmissionService);
+            DataTransmissionService dataTransmissionService, // ✅ ÎNLOCUIT PostgreSQL
+            PipelineLatencyTracer latencyTracer,
+            VitalSignsAnomalyDetector anomalyDetector,
+            PatientRegistry patientRegistry,
+            SensorDataRepository sensorDataRepository) { // ✅ NEW: istoricul local al citirilor
+        return new SensorDataIntegrationService(watchManager, samsungHealthDataService,
+                dataTransmissionService, latencyTracer, anomalyDetector, patientRegistry, sensorDataRepository);
     }
 
     @Provides
@@ -135,6 +161,27 @@ public abstract class ServiceModule {
         return new RealSamsungHealthManager(context, samsungHealthDataService);
     }
 
+    // ✅ NEW: Calea de urgență - canalele sunt apelate în paralel; SMS/apel dezactivat până la legarea unui gateway
+    @Provides
+    @Singleton
+    public static EmergencyContactSender provideEmergencyContactSender() {
+        return EmergencyContactSender.NOT_CONFIGURED;
+    }
+
+    @Provides
+    @Singleton
+    public static EmergencyEscalationService provideEmergencyEscalationService(
+            @ApplicationContext Context context,
+            EmergencyOutboxDao outboxDao,
+            EmergencyContactRepository contactRepository,
+            RealHealthDataKafkaProducer kafkaProducer,
+            EmergencyContactSender contactSender) {
+        return new EmergencyEscalationService(outboxDao, contactRepository, Arrays.asList(
+                new LocalAlertNotifier(context),
+                new KafkaAlertNotifier(kafkaProducer),
+                new ContactMessageNotifier(contactSender)));
+    }
+
     // ✅ ELIMINAT: PostgreSQLDataService nu mai e necesar pentru pipeline-ul principal
     // Dacă e necesar pentru teste de conectivitate, poate fi adăugat separat
 }
\ No newline at end of file
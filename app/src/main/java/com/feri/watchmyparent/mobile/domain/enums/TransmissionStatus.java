@@ -2,8 +2,8 @@ package com.feri.watchmyparent.mobile.domain.enums;
 
 public enum TransmissionStatus {
 
-    PENDING,
-    TRANSMITTED,
-    FAILED,
-    QUEUED
+    PENDING,     // salvat local, transmisia nu s-a terminat
+    TRANSMITTED, // confirmat de broker
+    FAILED,      // nici trimis, nici păstrat offline - reluat de coada de retry din sensor_data
+    QUEUED       // ✅ MODIFICAT: păstrat în coada offline; devine TRANSMITTED când coada e golită
 }
@@ -4,8 +4,12 @@ import com.feri.watchmyparent.mobile.domain.entities.LocationData;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 public interface LocationDataRepository {
     CompletableFuture<LocationData> save(LocationData locationData);
     CompletableFuture<Optional<LocationData>> findByUserId(String userId);
     CompletableFuture<Void> delete(String id);
+    // ✅ NEW: Locația curentă, re-emisă la fiecare schimbare a rândului (gol cât timp nu există)
+    Flowable<Optional<LocationData>> observeByUserId(String userId);
 }
@@ -0,0 +1,16 @@
+package com.feri.watchmyparent.mobile.domain.repositories;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface LocationHistoryRepository {
+    CompletableFuture<Integer> saveAll(String userId, List<LocationPoint> points);
+    CompletableFuture<List<LocationPoint>> findByTimeRange(String userId, LocalDateTime from, LocalDateTime to);
+    CompletableFuture<List<LocationPoint>> findUntransmitted(String userId, int limit);
+    CompletableFuture<Integer> countUntransmitted(String userId);
+    CompletableFuture<Long> findOldestUntransmittedMillis(String userId);
+    CompletableFuture<Integer> markTransmitted(String userId, long upToMillis);
+    CompletableFuture<Integer> deleteOlderThan(LocalDateTime cutoff);
+}
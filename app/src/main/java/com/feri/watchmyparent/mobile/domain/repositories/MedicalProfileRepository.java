@@ -10,4 +10,13 @@ public interface MedicalProfileRepository {
     CompletableFuture<Optional<MedicalProfile>> findById(String id);
     CompletableFuture<Optional<MedicalProfile>> findByUserId(String userId);
     CompletableFuture<Void> delete(String id);
+
+    // ✅ NEW: Notificări după salvare/ștergere (ex. recompilarea pragurilor de alertă)
+    void addChangeListener(ProfileChangeListener listener);
+    void removeChangeListener(ProfileChangeListener listener);
+
+    interface ProfileChangeListener {
+        void onProfileSaved(MedicalProfile medicalProfile);
+        void onProfileDeleted(String medicalProfileId);
+    }
 }
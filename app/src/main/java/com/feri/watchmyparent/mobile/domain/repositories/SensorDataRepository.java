@@ -3,15 +3,39 @@ package com.feri.watchmyparent.mobile.domain.repositories;
 import com.feri.watchmyparent.mobile.domain.entities.SensorData;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
 import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryKey;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryQuery;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorSeries;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 public interface SensorDataRepository {
     CompletableFuture<SensorData> save(SensorData sensorData);
+    // ✅ NEW: Toate citirile într-o singură tranzacție
+    CompletableFuture<List<SensorData>> saveAll(List<SensorData> sensorData);
+    // ✅ NEW: Scrie salvările ținute în buffer-ul write-behind (oprirea serviciului, onTrimMemory)
+    CompletableFuture<Void> flush();
     CompletableFuture<List<SensorData>> findByUserIdAndSensorType(String userId, SensorType sensorType);
     CompletableFuture<List<SensorData>> findByTransmissionStatus(TransmissionStatus status);
     CompletableFuture<List<SensorData>> findLatestByUserId(String userId);
     CompletableFuture<Void> delete(String id);
-    CompletableFuture<List<SensorData>> findPendingTransmissions();
+    // ✅ NEW: Rândurile transmise pot fi arhivate; cele FAILED rămân în coada de retry
+    CompletableFuture<Void> updateTransmissionStatus(List<String> ids, TransmissionStatus status,
+                                                     LocalDateTime transmissionTime);
+    // ✅ MODIFICAT: Cele mai vechi citiri PENDING / FAILED, cel mult limit (QUEUED rămân ale cozii offline)
+    CompletableFuture<List<SensorData>> findPendingTransmissions(int limit);
     CompletableFuture<List<SensorData>> findByUserId(String userId, int limit);
+    // ✅ NEW: Istoric paginat keyset, cele mai noi primele. Older: citirile de după cheie (null = prima pagină);
+    // Newer: citirile de dinaintea cheii, tot în ordine descrescătoare
+    CompletableFuture<List<SensorData>> findHistoryOlder(SensorHistoryQuery query, SensorHistoryKey after, int limit);
+    CompletableFuture<List<SensorData>> findHistoryNewer(SensorHistoryQuery query, SensorHistoryKey before, int limit);
+    // ✅ NEW: Seria unui senzor pe [from, to) pentru grafice, cel mult maxPoints puncte (brut sau rollup, după interval)
+    CompletableFuture<SensorSeries> findSeries(String userId, SensorType sensorType,
+                                               LocalDateTime from, LocalDateTime to, int maxPoints);
+    // ✅ NEW: Ultima citire per senzor, re-emisă doar la schimbări și cel mult o dată pe cadru (partajat între ecrane)
+    Flowable<List<SensorData>> observeLatestByUserId(String userId);
+    Flowable<SensorData> observeLatestByUserIdAndSensorType(String userId, SensorType sensorType);
 }
@@ -0,0 +1,102 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+// Alertă de urgență (cădere, semn vital critic susținut) - trece prin EmergencyEscalationService,
+// nu prin pipeline-ul obișnuit de citiri
+public final class EmergencyAlert {
+
+    public enum Type { FALL, CRITICAL_VITAL }
+
+    private final String alertId;
+    private final String userId;
+    private final Type type;
+    private final String subject;          // "fall" sau codul senzorului - face parte din cheia de deduplicare
+    private final long triggeredAtMillis;  // momentul evenimentului (ceas/senzor), nu al procesării
+    private final double confidence;
+    private final String deviceId;
+    private final String location;
+    private final String details;
+
+    public EmergencyAlert(String alertId, String userId, Type type, String subject, long triggeredAtMillis,
+                          double confidence, String deviceId, String location, String details) {
+        this.alertId = alertId;
+        this.userId = userId;
+        this.type = type;
+        this.subject = subject;
+        this.triggeredAtMillis = triggeredAtMillis;
+        this.confidence = confidence;
+        this.deviceId = deviceId;
+        this.location = location;
+        this.details = details;
+    }
+
+    public static EmergencyAlert fall(String userId, long timestampMillis, double confidence,
+                                      String deviceId, String location) {
+        return new EmergencyAlert(UUID.randomUUID().toString(), userId, Type.FALL, "fall", timestampMillis,
+                confidence, deviceId, location, String.format(Locale.US, "Fall detected (%.0f%% confidence)", confidence));
+    }
+
+    public static EmergencyAlert criticalVital(VitalAnomaly anomaly) {
+        return new EmergencyAlert(UUID.randomUUID().toString(), anomaly.getUserId(), Type.CRITICAL_VITAL,
+                anomaly.getSensorType().getCode(), anomaly.getTimestampMillis(), 100.0, null, null,
+                String.format(Locale.US, "%s %s: %.1f %s", anomaly.getSensorType().getDisplayName(),
+                        anomaly.getKind(), anomaly.getValue(), anomaly.getSensorType().getUnit()));
+    }
+
+    public String getAlertId() { return alertId; }
+    public String getUserId() { return userId; }
+    public Type getType() { return type; }
+    public String getSubject() { return subject; }
+    public long getTriggeredAtMillis() { return triggeredAtMillis; }
+    public double getConfidence() { return confidence; }
+    public String getDeviceId() { return deviceId; }
+    public String getLocation() { return location; }
+    public String getDetails() { return details; }
+
+    // Declanșări repetate ale aceluiași eveniment (broadcast dublat, SDK + broadcast) au aceeași cheie
+    public String getDedupKey() {
+        return userId + "|" + type + "|" + subject;
+    }
+
+    public LocalDateTime getTriggeredAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(triggeredAtMillis), ZoneId.systemDefault());
+    }
+
+    // Textul trimis contactelor (SMS / notificare)
+    public String toMessageText() {
+        StringBuilder text = new StringBuilder("WatchMyParent EMERGENCY: ").append(details)
+                .append(" at ").append(getTriggeredAt().toLocalTime().withNano(0));
+        if (location != null && !location.isEmpty()) {
+            text.append(", location: ").append(location);
+        }
+        return text.toString();
+    }
+
+    public Map<String, Object> toKafkaMessage() {
+        Map<String, Object> message = new HashMap<>();
+        message.put("dataType", "EMERGENCY_ALERT");
+        message.put("alertId", alertId);
+        message.put("userId", userId);
+        message.put("alertType", type.name());
+        message.put("subject", subject);
+        message.put("confidence", confidence);
+        message.put("deviceId", deviceId);
+        message.put("location", location);
+        message.put("details", details);
+        message.put("timestamp", getTriggeredAt().toString());
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "EmergencyAlert{" + type + " " + subject + ", user=" + userId + ", id=" + alertId + ", at="
+                + getTriggeredAt() + "}";
+    }
+}
@@ -0,0 +1,61 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tranziție raportată de GeofenceEngine pentru o zonă sigură
+public final class GeofenceTransition {
+
+    public enum Type { ENTER, EXIT, DWELL }
+
+    private final String userId;
+    private final SafeZone zone;
+    private final Type type;
+    private final double latitude;
+    private final double longitude;
+    private final LocalDateTime timestamp;
+    private final Duration timeInZone; // pentru EXIT / DWELL, altfel Duration.ZERO
+
+    public GeofenceTransition(String userId, SafeZone zone, Type type, double latitude, double longitude,
+                              LocalDateTime timestamp, Duration timeInZone) {
+        this.userId = userId;
+        this.zone = zone;
+        this.type = type;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = timestamp;
+        this.timeInZone = timeInZone != null ? timeInZone : Duration.ZERO;
+    }
+
+    public String getUserId() { return userId; }
+    public SafeZone getZone() { return zone; }
+    public Type getType() { return type; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Duration getTimeInZone() { return timeInZone; }
+
+    // Mesaj Kafka (DataTransmissionService trimite Map-urile ca atare)
+    public Map<String, Object> toKafkaMessage() {
+        Map<String, Object> message = new HashMap<>();
+        message.put("dataType", "GEOFENCE_TRANSITION");
+        message.put("transition", type.name());
+        message.put("zoneId", zone.getZoneId());
+        message.put("zoneName", zone.getName());
+        message.put("zoneCategory", zone.getCategory().name());
+        message.put("latitude", latitude);
+        message.put("longitude", longitude);
+        message.put("timestamp", timestamp.toString());
+        message.put("timeInZoneSeconds", timeInZone.getSeconds());
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GeofenceTransition{user=%s, %s %s (%s), at=(%.6f, %.6f), time=%s, inZone=%ds}",
+                userId, type, zone.getName(), zone.getZoneId(), latitude, longitude, timestamp,
+                timeInZone.getSeconds());
+    }
+}
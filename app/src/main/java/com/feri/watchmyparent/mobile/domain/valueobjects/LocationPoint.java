@@ -0,0 +1,60 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+// Punct din istoricul de locații - imutabil, timestamp în epoch millis (interogări pe intervale de timp)
+public final class LocationPoint {
+
+    private final double latitude;
+    private final double longitude;
+    private final double accuracyMeters;
+    private final long timestampMillis;
+
+    public LocationPoint(double latitude, double longitude, double accuracyMeters, long timestampMillis) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.accuracyMeters = accuracyMeters;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public LocationPoint(double latitude, double longitude, double accuracyMeters, LocalDateTime timestamp) {
+        this(latitude, longitude, accuracyMeters, toEpochMillis(timestamp));
+    }
+
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public double getAccuracyMeters() { return accuracyMeters; }
+    public long getTimestampMillis() { return timestampMillis; }
+
+    public LocalDateTime getTimestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+
+    public static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LocationPoint that = (LocationPoint) o;
+        return Double.compare(that.latitude, latitude) == 0
+                && Double.compare(that.longitude, longitude) == 0
+                && Double.compare(that.accuracyMeters, accuracyMeters) == 0
+                && timestampMillis == that.timestampMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(latitude, longitude, accuracyMeters, timestampMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LocationPoint{%.6f, %.6f, ±%.0fm, %s}", latitude, longitude, accuracyMeters, getTimestamp());
+    }
+}
@@ -0,0 +1,81 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Timestamp-uri monotone (System.nanoTime) pentru fiecare etapă prin care trece o citire
+// Se atașează DOAR citirilor eșantionate - citirile neeșantionate au trace == null
+public class ReadingTrace {
+
+    // Etapele pipeline-ului, în ordinea în care sunt parcurse
+    public enum Stage {
+        SENSOR_TIMESTAMP,   // momentul măsurării pe ceas (derivat din SensorReading.timestamp)
+        COLLECTED,          // citirea a ajuns în SensorDataIntegrationService
+        DTO_CONVERTED,      // SensorReading -> SensorDataDTO
+        TRANSMIT_START,     // intrare în DataTransmissionServiceImpl
+        BROKER_ACK,         // Kafka a confirmat trimiterea directă
+        RETRY_QUEUED,       // predat către KafkaRetryService
+        RETRY_ACK,          // Kafka a confirmat după retry
+        OFFLINE_STORED,     // salvat în coada offline (Room)
+        DROPPED             // pierdut (input invalid / dead letter / eroare de stocare)
+    }
+
+    private static final int STAGE_COUNT = Stage.values().length;
+
+    private final SensorType sensorType;
+    private final CriticalityLevel criticalityLevel;
+    // ✅ MODIFICAT: Etapele sunt marcate din thread-uri diferite (colectare, pool-ul de transmisie, callback-ul
+    // Kafka, retry) - fiecare slot e scris o singură dată, atomic, și e vizibil thread-ului care completează
+    private final AtomicLongArray stageNanos = new AtomicLongArray(STAGE_COUNT);
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    public ReadingTrace(SensorType sensorType, long originNanos, long collectedNanos) {
+        this.sensorType = sensorType;
+        this.criticalityLevel = sensorType != null ? sensorType.getCriticalityLevel() : null;
+        this.stageNanos.set(Stage.SENSOR_TIMESTAMP.ordinal(), originNanos);
+        this.stageNanos.set(Stage.COLLECTED.ordinal(), collectedNanos);
+    }
+
+    public SensorType getSensorType() { return sensorType; }
+    public CriticalityLevel getCriticalityLevel() { return criticalityLevel; }
+
+    // Prima marcare câștigă - o etapă nu e suprascrisă de un al doilea apel
+    public void mark(Stage stage, long nanos) {
+        if (completed.get()) return;
+        stageNanos.compareAndSet(stage.ordinal(), 0L, nanos);
+    }
+
+    public long getStageNanos(Stage stage) {
+        return stageNanos.get(stage.ordinal());
+    }
+
+    public boolean hasStage(Stage stage) {
+        return stageNanos.get(stage.ordinal()) != 0L;
+    }
+
+    // Returnează true DOAR pentru primul apel - evită dubla înregistrare în histograme
+    public boolean tryComplete() {
+        return completed.compareAndSet(false, true);
+    }
+
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ReadingTrace{type=").append(sensorType);
+        long origin = stageNanos.get(Stage.SENSOR_TIMESTAMP.ordinal());
+        for (Stage stage : Stage.values()) {
+            long nanos = stageNanos.get(stage.ordinal());
+            if (nanos != 0L && stage != Stage.SENSOR_TIMESTAMP) {
+                sb.append(", ").append(stage.name()).append("=+")
+                        .append((nanos - origin) / 1_000_000L).append("ms");
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
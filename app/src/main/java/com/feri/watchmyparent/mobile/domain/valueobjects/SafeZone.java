@@ -0,0 +1,220 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Zonă sigură pentru un pacient (casă, centru de zi, rude, farmacie) - cerc sau poligon
+// Imutabilă: engine-ul de geofencing o poate indexa și partaja între thread-uri fără copii
+public final class SafeZone {
+
+    public enum Shape { CIRCLE, POLYGON }
+
+    public enum Category { HOME, CARE_FACILITY, RELATIVE, PHARMACY, MEDICAL, OTHER }
+
+    public static final long DEFAULT_DWELL_THRESHOLD_SECONDS = 10 * 60;
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private final String zoneId;
+    private final String userId;
+    private final String name;
+    private final Category category;
+    private final Shape shape;
+    private final long dwellThresholdSeconds;
+
+    // CIRCLE
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final double radiusMeters;
+    private final double metersPerDegreeLng; // precalculat pentru centrul cercului
+
+    // POLYGON (vârfuri în ordine, fără a repeta primul vârf)
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Bounding box - folosit la indexarea spațială
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    private SafeZone(String zoneId, String userId, String name, Category category, Shape shape,
+                     long dwellThresholdSeconds, double centerLatitude, double centerLongitude,
+                     double radiusMeters, double[] latitudes, double[] longitudes) {
+        this.zoneId = Objects.requireNonNull(zoneId, "zoneId");
+        this.userId = Objects.requireNonNull(userId, "userId");
+        this.name = name != null ? name : zoneId;
+        this.category = category != null ? category : Category.OTHER;
+        this.shape = shape;
+        this.dwellThresholdSeconds = dwellThresholdSeconds;
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.radiusMeters = radiusMeters;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+
+        if (shape == Shape.CIRCLE) {
+            this.metersPerDegreeLng = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(centerLatitude));
+            double latDelta = radiusMeters / METERS_PER_DEGREE_LAT;
+            double lngDelta = radiusMeters / Math.max(1.0, metersPerDegreeLng);
+            this.minLatitude = centerLatitude - latDelta;
+            this.maxLatitude = centerLatitude + latDelta;
+            this.minLongitude = centerLongitude - lngDelta;
+            this.maxLongitude = centerLongitude + lngDelta;
+        } else {
+            this.metersPerDegreeLng = 0;
+            double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+            double minLng = Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+            for (int i = 0; i < latitudes.length; i++) {
+                minLat = Math.min(minLat, latitudes[i]);
+                maxLat = Math.max(maxLat, latitudes[i]);
+                minLng = Math.min(minLng, longitudes[i]);
+                maxLng = Math.max(maxLng, longitudes[i]);
+            }
+            this.minLatitude = minLat;
+            this.maxLatitude = maxLat;
+            this.minLongitude = minLng;
+            this.maxLongitude = maxLng;
+        }
+    }
+
+    public static SafeZone circle(String zoneId, String userId, String name, Category category,
+                                  double centerLatitude, double centerLongitude, double radiusMeters) {
+        return circle(zoneId, userId, name, category, centerLatitude, centerLongitude, radiusMeters,
+                DEFAULT_DWELL_THRESHOLD_SECONDS);
+    }
+
+    public static SafeZone circle(String zoneId, String userId, String name, Category category,
+                                  double centerLatitude, double centerLongitude, double radiusMeters,
+                                  long dwellThresholdSeconds) {
+        if (radiusMeters <= 0) {
+            throw new IllegalArgumentException("radiusMeters must be > 0: " + radiusMeters);
+        }
+        return new SafeZone(zoneId, userId, name, category, Shape.CIRCLE, dwellThresholdSeconds,
+                centerLatitude, centerLongitude, radiusMeters, null, null);
+    }
+
+    public static SafeZone polygon(String zoneId, String userId, String name, Category category,
+                                   double[] latitudes, double[] longitudes) {
+        return polygon(zoneId, userId, name, category, latitudes, longitudes, DEFAULT_DWELL_THRESHOLD_SECONDS);
+    }
+
+    public static SafeZone polygon(String zoneId, String userId, String name, Category category,
+                                   double[] latitudes, double[] longitudes, long dwellThresholdSeconds) {
+        if (latitudes == null || longitudes == null || latitudes.length != longitudes.length || latitudes.length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices with matching coordinates");
+        }
+        return new SafeZone(zoneId, userId, name, category, Shape.POLYGON, dwellThresholdSeconds,
+                0, 0, 0, latitudes.clone(), longitudes.clone());
+    }
+
+    // Test exact de apartenență; bounding box-ul elimină rapid punctele evident exterioare
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude
+                || longitude < minLongitude || longitude > maxLongitude) {
+            return false;
+        }
+
+        if (shape == Shape.CIRCLE) {
+            // Proiecție echirectangulară locală - exactă sub 0.1% pentru raze de ordinul km
+            double dy = (latitude - centerLatitude) * METERS_PER_DEGREE_LAT;
+            double dx = (longitude - centerLongitude) * metersPerDegreeLng;
+            return dx * dx + dy * dy <= radiusMeters * radiusMeters;
+        }
+
+        // Ray casting (even-odd) în coordonate lat/lng - suficient pentru poligoane de dimensiunea unui cartier
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            if ((latitudes[i] > latitude) != (latitudes[j] > latitude)) {
+                double crossLng = longitudes[i] + (latitude - latitudes[i])
+                        * (longitudes[j] - longitudes[i]) / (latitudes[j] - latitudes[i]);
+                if (longitude < crossLng) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    // Distanța aproximativă (m) până la marginea zonei, indiferent dacă punctul e în interior sau exterior
+    public double distanceToBoundaryMeters(double latitude, double longitude) {
+        double metersPerDegreeLngHere = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(latitude));
+
+        if (shape == Shape.CIRCLE) {
+            double dy = (latitude - centerLatitude) * METERS_PER_DEGREE_LAT;
+            double dx = (longitude - centerLongitude) * metersPerDegreeLng;
+            return Math.abs(Math.sqrt(dx * dx + dy * dy) - radiusMeters);
+        }
+
+        // Distanța minimă până la laturile poligonului, în proiecție locală (metri) centrată pe punct
+        double best = Double.MAX_VALUE;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            double ax = (longitudes[j] - longitude) * metersPerDegreeLngHere;
+            double ay = (latitudes[j] - latitude) * METERS_PER_DEGREE_LAT;
+            double bx = (longitudes[i] - longitude) * metersPerDegreeLngHere;
+            double by = (latitudes[i] - latitude) * METERS_PER_DEGREE_LAT;
+            double ex = bx - ax;
+            double ey = by - ay;
+            double lengthSquared = ex * ex + ey * ey;
+            double t = lengthSquared > 0 ? Math.max(0, Math.min(1, -(ax * ex + ay * ey) / lengthSquared)) : 0;
+            double px = ax + t * ex;
+            double py = ay + t * ey;
+            best = Math.min(best, px * px + py * py);
+        }
+        return Math.sqrt(best);
+    }
+
+    // Getters
+    public String getZoneId() { return zoneId; }
+    public String getUserId() { return userId; }
+    public String getName() { return name; }
+    public Category getCategory() { return category; }
+    public Shape getShape() { return shape; }
+    public long getDwellThresholdSeconds() { return dwellThresholdSeconds; }
+    public double getCenterLatitude() { return centerLatitude; }
+    public double getCenterLongitude() { return centerLongitude; }
+    public double getRadiusMeters() { return radiusMeters; }
+    public double[] getLatitudes() { return latitudes != null ? latitudes.clone() : null; }
+    public double[] getLongitudes() { return longitudes != null ? longitudes.clone() : null; }
+    public double getMinLatitude() { return minLatitude; }
+    public double getMaxLatitude() { return maxLatitude; }
+    public double getMinLongitude() { return minLongitude; }
+    public double getMaxLongitude() { return maxLongitude; }
+
+    public boolean isHome() {
+        return category == Category.HOME;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SafeZone that = (SafeZone) o;
+        return Double.compare(that.centerLatitude, centerLatitude) == 0
+                && Double.compare(that.centerLongitude, centerLongitude) == 0
+                && Double.compare(that.radiusMeters, radiusMeters) == 0
+                && dwellThresholdSeconds == that.dwellThresholdSeconds
+                && zoneId.equals(that.zoneId)
+                && userId.equals(that.userId)
+                && name.equals(that.name)
+                && category == that.category
+                && shape == that.shape
+                && Arrays.equals(latitudes, that.latitudes)
+                && Arrays.equals(longitudes, that.longitudes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(zoneId, userId);
+    }
+
+    @Override
+    public String toString() {
+        if (shape == Shape.CIRCLE) {
+            return String.format("SafeZone{id=%s, user=%s, name=%s, %s, circle=(%.6f, %.6f) r=%.0fm}",
+                    zoneId, userId, name, category, centerLatitude, centerLongitude, radiusMeters);
+        }
+        return String.format("SafeZone{id=%s, user=%s, name=%s, %s, polygon=%d vertices}",
+                zoneId, userId, name, category, latitudes.length);
+    }
+}
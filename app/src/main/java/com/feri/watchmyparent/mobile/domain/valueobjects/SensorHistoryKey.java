@@ -0,0 +1,44 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Cheia de paginare a istoricului (keyset): poziția unei citiri în ordinea (timestamp, idSensorData).
+// Pagina următoare continuă strict după cheie, deci costul nu depinde de câte pagini au fost parcurse (fără OFFSET)
+public final class SensorHistoryKey {
+
+    private final LocalDateTime timestamp;
+    private final String idSensorData;
+
+    public SensorHistoryKey(LocalDateTime timestamp, String idSensorData) {
+        this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+        this.idSensorData = Objects.requireNonNull(idSensorData, "idSensorData");
+    }
+
+    public static SensorHistoryKey of(SensorData sensorData) {
+        return new SensorHistoryKey(sensorData.getTimestamp(), sensorData.getIdSensorData());
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getIdSensorData() { return idSensorData; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SensorHistoryKey that = (SensorHistoryKey) o;
+        return timestamp.equals(that.timestamp) && idSensorData.equals(that.idSensorData);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, idSensorData);
+    }
+
+    @Override
+    public String toString() {
+        return "SensorHistoryKey{" + timestamp + ", " + idSensorData + "}";
+    }
+}
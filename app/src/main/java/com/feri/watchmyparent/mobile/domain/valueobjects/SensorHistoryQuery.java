@@ -0,0 +1,70 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Filtrul istoricului unui pacient: toate senzorii sau unul singur, pe intervalul [from, to)
+public final class SensorHistoryQuery {
+
+    // Limite implicite - timestamp-urile sunt comparate ca text ISO, deci fără LocalDateTime.MIN/MAX (semn în față)
+    public static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final String userId;
+    private final SensorType sensorType; // null = toți senzorii
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public SensorHistoryQuery(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to) {
+        this.userId = Objects.requireNonNull(userId, "userId");
+        this.sensorType = sensorType;
+        this.from = from != null ? from : EARLIEST;
+        this.to = to != null ? to : LATEST;
+        if (!this.from.isBefore(this.to)) {
+            throw new IllegalArgumentException("Empty history range: " + this.from + " - " + this.to);
+        }
+    }
+
+    public static SensorHistoryQuery all(String userId) {
+        return new SensorHistoryQuery(userId, null, null, null);
+    }
+
+    public static SensorHistoryQuery of(String userId, SensorType sensorType) {
+        return new SensorHistoryQuery(userId, sensorType, null, null);
+    }
+
+    public SensorHistoryQuery between(LocalDateTime from, LocalDateTime to) {
+        return new SensorHistoryQuery(userId, sensorType, from, to);
+    }
+
+    public String getUserId() { return userId; }
+    public SensorType getSensorType() { return sensorType; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+
+    public boolean hasSensorType() {
+        return sensorType != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SensorHistoryQuery that = (SensorHistoryQuery) o;
+        return userId.equals(that.userId) && sensorType == that.sensorType
+                && from.equals(that.from) && to.equals(that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, sensorType, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "SensorHistoryQuery{" + userId + ", " + (sensorType != null ? sensorType : "ALL") + ", "
+                + from + " - " + to + "}";
+    }
+}
@@ -18,6 +18,9 @@ public class SensorReading {
     private double accuracy;
     private String metadata;
 
+    // ✅ NEW: Latency trace (doar pentru citirile eșantionate, altfel null) - nu face parte din identitate
+    private transient ReadingTrace trace;
+
     //Constructors
     public SensorReading() {}
 
@@ -85,6 +88,13 @@ public class SensorReading {
         this.metadata = metadata;
     }
 
+    public ReadingTrace getTrace() {
+        return trace;
+    }
+
+    public void setTrace(ReadingTrace trace) {
+        this.trace = trace;
+    }
 
     // ✅ Utility methods
     public boolean isValid() {
@@ -0,0 +1,76 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Seria unui senzor pe intervalul [from, to), gata de desenat: cel mult maxPoints puncte, crescător în timp.
+// Timpii sunt secunde epoch ale LocalDateTime-ului luat ca UTC (aceeași axă ca în baza de date, fără fus orar),
+// ținuți în array-uri primitive - graficul le poate folosi direct, fără obiecte per punct.
+public final class SensorSeries {
+
+    public enum Source {
+        RAW,    // citirile brute, reduse cu LTTB
+        ROLLUP  // agregatele de 5 minute (min/max), reduse pe bucket-uri min-max
+    }
+
+    private final SensorType sensorType;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final Source source;
+    private final long[] epochSeconds;
+    private final double[] values;
+    private final int sourceRows;
+
+    public SensorSeries(SensorType sensorType, LocalDateTime from, LocalDateTime to, Source source,
+                        long[] epochSeconds, double[] values, int sourceRows) {
+        if (epochSeconds.length != values.length) {
+            throw new IllegalArgumentException("Series arrays differ: " + epochSeconds.length + " / " + values.length);
+        }
+        this.sensorType = sensorType;
+        this.from = from;
+        this.to = to;
+        this.source = source;
+        this.epochSeconds = epochSeconds;
+        this.values = values;
+        this.sourceRows = sourceRows;
+    }
+
+    public SensorType getSensorType() { return sensorType; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+    public Source getSource() { return source; }
+    // Rândurile citite din baza de date (brute sau rollup) înainte de reducere
+    public int getSourceRows() { return sourceRows; }
+
+    public int size() {
+        return values.length;
+    }
+
+    public long getEpochSecond(int index) {
+        return epochSeconds[index];
+    }
+
+    public LocalDateTime getTimestamp(int index) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[index], 0, ZoneOffset.UTC);
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    // Array-urile interne (fără copie) - doar pentru citire
+    public long[] getEpochSeconds() { return epochSeconds; }
+    public double[] getValues() { return values; }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SensorSeries{" + sensorType + ", " + from + " - " + to + ", " + source + ", "
+                + values.length + " points from " + sourceRows + " rows}";
+    }
+}
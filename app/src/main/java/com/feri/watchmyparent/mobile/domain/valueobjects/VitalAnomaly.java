@@ -0,0 +1,88 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+// Anomalie raportată de VitalSignsAnomalyDetector pentru un semn vital al unui pacient
+public final class VitalAnomaly {
+
+    public enum Kind {
+        DEVIATION_HIGH,   // z-score robust peste prag față de baseline-ul personal
+        DEVIATION_LOW,
+        RAPID_RISE,       // viteză de variație peste limita fiziologică
+        RAPID_DROP,
+        SUSTAINED_HIGH,   // peste limita absolută pe toată fereastra de confirmare
+        SUSTAINED_LOW
+    }
+
+    public enum Severity { WARNING, CRITICAL }
+
+    private final String userId;
+    private final SensorType sensorType;
+    private final Kind kind;
+    private final Severity severity;
+    private final double value;
+    private final double baselineMean;
+    private final double baselineStdDev;
+    private final double score; // z-score, viteza (unități/min) sau durata (s), după Kind
+    private final long timestampMillis;
+
+    public VitalAnomaly(String userId, SensorType sensorType, Kind kind, Severity severity, double value,
+                        double baselineMean, double baselineStdDev, double score, long timestampMillis) {
+        this.userId = userId;
+        this.sensorType = sensorType;
+        this.kind = kind;
+        this.severity = severity;
+        this.value = value;
+        this.baselineMean = baselineMean;
+        this.baselineStdDev = baselineStdDev;
+        this.score = score;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getUserId() { return userId; }
+    public SensorType getSensorType() { return sensorType; }
+    public Kind getKind() { return kind; }
+    public Severity getSeverity() { return severity; }
+    public double getValue() { return value; }
+    public double getBaselineMean() { return baselineMean; }
+    public double getBaselineStdDev() { return baselineStdDev; }
+    public double getScore() { return score; }
+    public long getTimestampMillis() { return timestampMillis; }
+
+    public LocalDateTime getTimestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+
+    public boolean isCritical() {
+        return severity == Severity.CRITICAL;
+    }
+
+    // Mesaj Kafka (DataTransmissionService trimite Map-urile ca atare)
+    public Map<String, Object> toKafkaMessage() {
+        Map<String, Object> message = new HashMap<>();
+        message.put("dataType", "VITAL_ANOMALY");
+        message.put("sensorType", sensorType.getCode());
+        message.put("anomaly", kind.name());
+        message.put("severity", severity.name());
+        message.put("value", value);
+        message.put("unit", sensorType.getUnit());
+        message.put("baselineMean", baselineMean);
+        message.put("baselineStdDev", baselineStdDev);
+        message.put("score", score);
+        message.put("timestamp", getTimestamp().toString());
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VitalAnomaly{user=%s, %s %s %s, value=%.2f %s, baseline=%.2f±%.2f, score=%.2f, at=%s}",
+                userId, severity, sensorType, kind, value, sensorType.getUnit(), baselineMean, baselineStdDev,
+                score, getTimestamp());
+    }
+}
@@ -16,10 +16,17 @@ import com.feri.watchmyparent.mobile.infrastructure.database.converters.*;
                 SensorConfigurationEntity.class,
                 LocationDataEntity.class,
                 EmergencyContactEntity.class,
-                MedicalProfileEntity.class
+                MedicalProfileEntity.class,
+                GeocodeCacheEntity.class,
+                LocationHistoryEntity.class,
+                VitalBaselineEntity.class,
+                EmergencyOutboxEntity.class,
+                SensorRollupEntity.class,
+                SensorArchiveChunkEntity.class,
+                SafeZoneEntity.class // ✅ NEW: zonele sigure supraviețuiesc restart-ului
         },
-        version = 1,
-        exportSchema = false
+        version = 9,
+        exportSchema = true // ✅ MODIFICAT: schema fiecărei versiuni în app/schemas/, referința migrărilor
 )
 @TypeConverters({
         DateTimeConverter.class,
@@ -39,6 +46,13 @@ public abstract class AppDatabase extends RoomDatabase{
     public abstract LocationDataDao locationDataDao();
     public abstract EmergencyContactDao emergencyContactDao();
     public abstract MedicalProfileDao medicalProfileDao();
+    public abstract GeocodeCacheDao geocodeCacheDao();
+    public abstract LocationHistoryDao locationHistoryDao();
+    public abstract VitalBaselineDao vitalBaselineDao();
+    public abstract EmergencyOutboxDao emergencyOutboxDao();
+    public abstract SensorRollupDao sensorRollupDao();
+    public abstract SensorArchiveDao sensorArchiveDao();
+    public abstract SafeZoneDao safeZoneDao();
 
     // Singleton instance
     private static volatile AppDatabase INSTANCE;
@@ -52,7 +66,9 @@ public abstract class AppDatabase extends RoomDatabase{
                                     AppDatabase.class,
                                     "watchmyparent_database"
                             )
-                            .fallbackToDestructiveMigration()
+                            // ✅ MODIFICAT: migrări în loc de ștergerea bazei la fiecare versiune nouă
+                            .addMigrations(AppDatabaseMigrations.ALL)
+                            .fallbackToDestructiveMigrationOnDowngrade()
                             .build();
                 }
             }
@@ -0,0 +1,138 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+// ✅ NEW: Migrările AppDatabase - fiecare versiune a adăugat tabele sau indexuri, deci o actualizare a aplicației
+// nu mai șterge utilizatorii, profilurile, outbox-ul de urgență, baseline-urile și istoricul senzorilor.
+// DDL-ul e cel generat de Room pentru entități (Room validează tabelele după migrare și oprește aplicația dacă
+// diferă); schema exportată în app/schemas/ e referința pentru versiunile următoare.
+public final class AppDatabaseMigrations {
+
+    private AppDatabaseMigrations() {
+    }
+
+    // v2: cache-ul de reverse geocoding (GeocodeCacheEntity)
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `geocode_cache` (`geohash` TEXT NOT NULL, `address` TEXT, "
+                    + "`resolvedAtMillis` INTEGER NOT NULL, `lastAccessMillis` INTEGER NOT NULL, "
+                    + "`hitCount` INTEGER NOT NULL, PRIMARY KEY(`geohash`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_geocode_cache_resolvedAtMillis` "
+                    + "ON `geocode_cache` (`resolvedAtMillis`)");
+        }
+    };
+
+    // v3: istoricul comprimat de locații (LocationHistoryEntity)
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `location_history` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`userId` TEXT, `timestampMillis` INTEGER NOT NULL, `latitude` REAL NOT NULL, "
+                    + "`longitude` REAL NOT NULL, `accuracyMeters` REAL NOT NULL, `transmitted` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`idUser`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_location_history_userId_timestampMillis` "
+                    + "ON `location_history` (`userId`, `timestampMillis`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_location_history_userId_transmitted_timestampMillis` "
+                    + "ON `location_history` (`userId`, `transmitted`, `timestampMillis`)");
+        }
+    };
+
+    // v4: baseline-urile personale ale semnelor vitale (VitalBaselineEntity)
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `vital_baseline` (`userId` TEXT NOT NULL, `sensorType` TEXT NOT NULL, "
+                    + "`sampleCount` INTEGER NOT NULL, `mean` REAL NOT NULL, `variance` REAL NOT NULL, "
+                    + "`lastValue` REAL NOT NULL, `lastTimestampMillis` INTEGER NOT NULL, "
+                    + "`updatedAtMillis` INTEGER NOT NULL, PRIMARY KEY(`userId`, `sensorType`))");
+        }
+    };
+
+    // v5: outbox-ul alertelor de urgență (EmergencyOutboxEntity)
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `emergency_outbox` (`alertId` TEXT NOT NULL, `userId` TEXT, "
+                    + "`alertType` TEXT, `subject` TEXT, `triggeredAtMillis` INTEGER NOT NULL, "
+                    + "`confidence` REAL NOT NULL, `deviceId` TEXT, `location` TEXT, `details` TEXT, `state` TEXT, "
+                    + "`attempts` INTEGER NOT NULL, `deliveredChannels` TEXT, `firstNotificationMillis` INTEGER NOT NULL, "
+                    + "`createdAtMillis` INTEGER NOT NULL, `updatedAtMillis` INTEGER NOT NULL, PRIMARY KEY(`alertId`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_emergency_outbox_state_triggeredAtMillis` "
+                    + "ON `emergency_outbox` (`state`, `triggeredAtMillis`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_emergency_outbox_userId_triggeredAtMillis` "
+                    + "ON `emergency_outbox` (`userId`, `triggeredAtMillis`)");
+        }
+    };
+
+    // v6: indexurile paginării keyset - idSensorData la finalul indexului pe (userId, sensorType, timestamp)
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `index_sensor_data_userId_sensorType_timestamp`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sensor_data_userId_sensorType_timestamp_idSensorData` "
+                    + "ON `sensor_data` (`userId`, `sensorType`, `timestamp`, `idSensorData`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sensor_data_userId_timestamp_idSensorData` "
+                    + "ON `sensor_data` (`userId`, `timestamp`, `idSensorData`)");
+        }
+    };
+
+    // v7: rollup-urile de 5 minute (SensorRollupEntity), calculate și pentru citirile deja salvate - altfel
+    // graficele pe intervale lungi ar fi goale pentru istoricul de dinaintea actualizării
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sensor_rollup` (`userId` TEXT NOT NULL, `sensorType` TEXT NOT NULL, "
+                    + "`bucketStart` TEXT NOT NULL, `minValue` REAL NOT NULL, `maxValue` REAL NOT NULL, "
+                    + "`sumValue` REAL NOT NULL, `sampleCount` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`userId`, `sensorType`, `bucketStart`), FOREIGN KEY(`userId`) REFERENCES "
+                    + "`users`(`idUser`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            // Timestamp-urile sunt ISO_LOCAL_DATE_TIME ("2025-06-01T12:07:30"); începutul bucket-ului e scris ca
+            // un minut întreg, fără secunde ("2025-06-01T12:05") - exact cum îl scrie DateTimeConverter
+            db.execSQL("INSERT OR REPLACE INTO `sensor_rollup` (`userId`, `sensorType`, `bucketStart`, `minValue`, "
+                    + "`maxValue`, `sumValue`, `sampleCount`) SELECT userId, sensorType, substr(timestamp, 1, 14) "
+                    + "|| printf('%02d', CAST(substr(timestamp, 15, 2) AS INTEGER) / "
+                    + SeriesDownsampler.ROLLUP_BUCKET_MINUTES + " * " + SeriesDownsampler.ROLLUP_BUCKET_MINUTES
+                    + ") AS bucket, MIN(value), MAX(value), SUM(value), COUNT(*) FROM sensor_data "
+                    + "WHERE userId IS NOT NULL AND sensorType IS NOT NULL AND length(timestamp) >= 16 "
+                    + "GROUP BY userId, sensorType, bucket");
+        }
+    };
+
+    // v8: arhiva comprimată a istoricului vechi (SensorArchiveChunkEntity)
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sensor_archive_chunk` (`userId` TEXT NOT NULL, "
+                    + "`sensorType` TEXT NOT NULL, `blockStart` TEXT NOT NULL, `firstTimestamp` TEXT, "
+                    + "`lastTimestamp` TEXT, `pointCount` INTEGER NOT NULL, `minValue` REAL NOT NULL, "
+                    + "`maxValue` REAL NOT NULL, `data` BLOB, PRIMARY KEY(`userId`, `sensorType`, `blockStart`), "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`idUser`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+        }
+    };
+
+    // v9: zonele sigure ale pacienților (SafeZoneEntity) - înainte existau doar în memoria GeofenceEngine
+    public static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `safe_zone` (`userId` TEXT NOT NULL, `zoneId` TEXT NOT NULL, "
+                    + "`name` TEXT, `category` TEXT, `shape` TEXT, `dwellThresholdSeconds` INTEGER NOT NULL, "
+                    + "`centerLatitude` REAL NOT NULL, `centerLongitude` REAL NOT NULL, `radiusMeters` REAL NOT NULL, "
+                    + "`latitudes` TEXT, `longitudes` TEXT, `updatedAtMillis` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`userId`, `zoneId`))");
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9
+    };
+}
@@ -0,0 +1,284 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// ✅ NEW: Fereastră paginată peste un query keyset (ex. istoricul senzorilor), fără dependențe Android.
+// Adapter-ul cere poziții prin loadAround(); când poziția se apropie de capătul ferestrei (prefetchDistance)
+// se încarcă pagina următoare după cheia ultimului element, iar peste maxPages pagini se eliberează pagina
+// de la capătul opus. Derularea înapoi re-încarcă paginile eliberate după cheia primului element, deci
+// memoria e limitată la maxPages * pageSize elemente indiferent cât istoric există.
+//
+// Toată starea e modificată doar pe callbackExecutor (thread-ul UI pe Android); rezultatele unei ferestre
+// invalidate între timp sunt ignorate.
+public final class KeysetPager<K, T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 20;
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    // O pagină, în ordinea de afișare, cu cheile primului și ultimului element (continuarea în ambele direcții)
+    public static final class Page<K, T> {
+        final List<T> items;
+        final K firstKey;
+        final K lastKey;
+
+        public Page(List<T> items, K firstKey, K lastKey) {
+            this.items = items;
+            this.firstKey = firstKey;
+            this.lastKey = lastKey;
+        }
+
+        // Cheile se calculează din rândurile sursă, apoi rândurile sunt mapate (ex. entitate -> DTO)
+        public static <S, K, T> Page<K, T> of(List<S> rows, Function<S, K> keyOf, Function<S, T> mapper) {
+            List<T> items = new ArrayList<>(rows.size());
+            for (S row : rows) items.add(mapper.apply(row));
+            return rows.isEmpty()
+                    ? new Page<>(items, null, null)
+                    : new Page<>(items, keyOf.apply(rows.get(0)), keyOf.apply(rows.get(rows.size() - 1)));
+        }
+
+        public List<T> getItems() { return items; }
+    }
+
+    public interface PageSource<K, T> {
+        // Elementele de după cheie (null = prima pagină), în ordinea de afișare
+        CompletableFuture<Page<K, T>> loadOlder(K after, int limit);
+
+        // Elementele de dinaintea cheii, tot în ordinea de afișare
+        CompletableFuture<Page<K, T>> loadNewer(K before, int limit);
+    }
+
+    public interface Listener {
+        void onItemsInserted(int position, int count);
+        void onItemsRemoved(int position, int count);
+        void onLoadFailed(Throwable error);
+    }
+
+    private final PageSource<K, T> source;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxPages;
+    private final Executor callbackExecutor;
+    private Listener listener;
+
+    // Stare - doar pe callbackExecutor
+    private final ArrayDeque<Page<K, T>> pages = new ArrayDeque<>();
+    private int size = 0;
+    private int generation = 0;
+    private boolean started = false;
+    private boolean loadingOlder = false;
+    private boolean loadingNewer = false;
+    private boolean olderExhausted = false;
+    private boolean newerExhausted = true; // fereastra pornește de la cele mai noi elemente
+
+    private long pagesLoaded = 0;
+    private long pagesDropped = 0;
+    private long failedLoads = 0;
+    private int maxItemsHeld = 0;
+
+    public KeysetPager(PageSource<K, T> source, int pageSize, int prefetchDistance, int maxPages,
+                       Executor callbackExecutor) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        // Cu o singură pagină, prefetch-ul ar elibera chiar pagina vizibilă
+        if (maxPages < 2) throw new IllegalArgumentException("maxPages must be at least 2: " + maxPages);
+        this.source = source;
+        this.pageSize = pageSize;
+        this.prefetchDistance = Math.max(1, prefetchDistance);
+        this.maxPages = maxPages;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public KeysetPager(PageSource<K, T> source, Executor callbackExecutor) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE, DEFAULT_MAX_PAGES, callbackExecutor);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Prima pagină (cele mai noi elemente); apelurile repetate nu mai încarcă nimic
+    public void start() {
+        if (started) return;
+        started = true;
+        requestOlder();
+    }
+
+    // Reîncepe de la cele mai noi elemente (ex. pull-to-refresh); încărcările în curs sunt ignorate
+    public void invalidate() {
+        generation++;
+        int removed = size;
+        pages.clear();
+        size = 0;
+        loadingOlder = false;
+        loadingNewer = false;
+        olderExhausted = false;
+        newerExhausted = true;
+        started = false;
+        if (removed > 0 && listener != null) listener.onItemsRemoved(0, removed);
+        start();
+    }
+
+    // Apelat de adapter la bind: pornește prefetch-ul în direcția în care se apropie capătul ferestrei
+    public void loadAround(int position) {
+        if (position >= size - prefetchDistance) requestOlder();
+        if (position < prefetchDistance) requestNewer();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public T get(int position) {
+        if (position < 0 || position >= size) throw new IndexOutOfBoundsException("position " + position + ", size " + size);
+        int offset = position;
+        for (Page<K, T> page : pages) {
+            if (offset < page.items.size()) return page.items.get(offset);
+            offset -= page.items.size();
+        }
+        throw new IllegalStateException("Pager size out of sync: " + size);
+    }
+
+    public boolean isLoading() {
+        return loadingOlder || loadingNewer;
+    }
+
+    // Fereastra a ajuns la cel mai vechi element al intervalului
+    public boolean isEndReached() {
+        return olderExhausted;
+    }
+
+    public List<T> snapshot() {
+        List<T> items = new ArrayList<>(size);
+        for (Page<K, T> page : pages) items.addAll(page.items);
+        return Collections.unmodifiableList(items);
+    }
+
+    // ========== Încărcare ==========
+
+    private void requestOlder() {
+        if (loadingOlder || olderExhausted) return;
+        loadingOlder = true;
+        K after = pages.isEmpty() ? null : pages.peekLast().lastKey;
+        int requestGeneration = generation;
+        load(() -> source.loadOlder(after, pageSize))
+                .whenCompleteAsync((page, error) -> onOlderLoaded(requestGeneration, page, error), callbackExecutor);
+    }
+
+    private void requestNewer() {
+        if (loadingNewer || newerExhausted || pages.isEmpty()) return;
+        loadingNewer = true;
+        K before = pages.peekFirst().firstKey;
+        int requestGeneration = generation;
+        load(() -> source.loadNewer(before, pageSize))
+                .whenCompleteAsync((page, error) -> onNewerLoaded(requestGeneration, page, error), callbackExecutor);
+    }
+
+    private void onOlderLoaded(int requestGeneration, Page<K, T> page, Throwable error) {
+        if (requestGeneration != generation) return;
+        loadingOlder = false;
+        if (error != null) {
+            failed(error);
+            return;
+        }
+        if (page.items.size() < pageSize) olderExhausted = true;
+        if (page.items.isEmpty()) return;
+
+        int position = size;
+        pages.addLast(page);
+        size += page.items.size();
+        loaded();
+        if (listener != null) listener.onItemsInserted(position, page.items.size());
+
+        if (pages.size() > maxPages) {
+            Page<K, T> dropped = pages.removeFirst();
+            size -= dropped.items.size();
+            newerExhausted = false;
+            pagesDropped++;
+            if (listener != null) listener.onItemsRemoved(0, dropped.items.size());
+        }
+    }
+
+    private void onNewerLoaded(int requestGeneration, Page<K, T> page, Throwable error) {
+        if (requestGeneration != generation) return;
+        loadingNewer = false;
+        if (error != null) {
+            failed(error);
+            return;
+        }
+        if (page.items.size() < pageSize) newerExhausted = true;
+        if (page.items.isEmpty()) return;
+
+        pages.addFirst(page);
+        size += page.items.size();
+        loaded();
+        if (listener != null) listener.onItemsInserted(0, page.items.size());
+
+        if (pages.size() > maxPages) {
+            Page<K, T> dropped = pages.removeLast();
+            size -= dropped.items.size();
+            olderExhausted = false;
+            pagesDropped++;
+            if (listener != null) listener.onItemsRemoved(size, dropped.items.size());
+        }
+    }
+
+    private void loaded() {
+        pagesLoaded++;
+        maxItemsHeld = Math.max(maxItemsHeld, size);
+    }
+
+    private void failed(Throwable error) {
+        failedLoads++;
+        // Următorul loadAround reîncearcă
+        if (listener != null) listener.onLoadFailed(error);
+    }
+
+    private CompletableFuture<Page<K, T>> load(Supplier<CompletableFuture<Page<K, T>>> request) {
+        try {
+            return request.get();
+        } catch (RuntimeException e) {
+            CompletableFuture<Page<K, T>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public PagerStatistics getStatistics() {
+        PagerStatistics stats = new PagerStatistics();
+        stats.pageSize = pageSize;
+        stats.maxPages = maxPages;
+        stats.pagesHeld = pages.size();
+        stats.itemsHeld = size;
+        stats.maxItemsHeld = maxItemsHeld;
+        stats.pagesLoaded = pagesLoaded;
+        stats.pagesDropped = pagesDropped;
+        stats.failedLoads = failedLoads;
+        return stats;
+    }
+
+    public static class PagerStatistics {
+        public int pageSize = 0;
+        public int maxPages = 0;
+        public int pagesHeld = 0;
+        public int itemsHeld = 0;
+        public int maxItemsHeld = 0;
+        public long pagesLoaded = 0;
+        public long pagesDropped = 0;
+        public long failedLoads = 0;
+
+        @Override
+        public String toString() {
+            return String.format("KeysetPager{pages=%d/%d x %d, items=%d (max %d), loaded=%d, dropped=%d, failed=%d}",
+                    pagesHeld, maxPages, pageSize, itemsHeld, maxItemsHeld, pagesLoaded, pagesDropped, failedLoads);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+// ✅ NEW: Query-uri observabile pentru UI, fără dependențe Android. Flowable-urile Room re-emit la fiecare
+// invalidare a tabelei; aici sunt filtrate (doar schimbări reale), limitate la bugetul unui cadru de afișare
+// și partajate: toate ecranele care observă aceeași cheie folosesc un singur query upstream, cu ultima valoare
+// redată imediat la abonare. Upstream-ul e oprit când pleacă ultimul abonat.
+public final class ReactiveQueries {
+
+    // Un cadru la 60 Hz - UI-ul nu poate afișa mai des de atât
+    public static final long FRAME_BUDGET_MS = 16;
+
+    private final Scheduler throttleScheduler;
+    private final Map<String, Flowable<?>> shared = new ConcurrentHashMap<>();
+
+    public ReactiveQueries(Scheduler throttleScheduler) {
+        this.throttleScheduler = throttleScheduler;
+    }
+
+    public ReactiveQueries() {
+        this(Schedulers.computation());
+    }
+
+    // Prima valoare trece imediat, apoi cel mult una pe cadru (întotdeauna cea mai recentă)
+    public <T> Flowable<T> throttleToFrame(Flowable<T> source) {
+        return source.throttleLatest(FRAME_BUDGET_MS, TimeUnit.MILLISECONDS, throttleScheduler, true);
+    }
+
+    // Un singur upstream per cheie pentru toți observatorii; noii abonați primesc ultima valoare
+    @SuppressWarnings("unchecked")
+    public <T> Flowable<T> shared(String key, Supplier<Flowable<T>> query) {
+        return (Flowable<T>) shared.computeIfAbsent(key, ignored -> query.get().replay(1).refCount());
+    }
+
+    // Ultimele citiri sunt "aceleași" dacă fiecare SensorType are aceeași citire (id, moment, valoare):
+    // scrierile altor pacienți sau ale altor tabele invalidează query-ul, dar nu ajung în UI
+    public static boolean sameLatestReadings(List<SensorData> previous, List<SensorData> current) {
+        if (previous.size() != current.size()) return false;
+        Map<SensorType, SensorData> byType = new EnumMap<>(SensorType.class);
+        for (SensorData reading : previous) {
+            if (reading.getSensorType() != null) byType.put(reading.getSensorType(), reading);
+        }
+        for (SensorData reading : current) {
+            if (!sameReading(byType.get(reading.getSensorType()), reading)) return false;
+        }
+        return true;
+    }
+
+    public static boolean sameReading(SensorData previous, SensorData current) {
+        if (previous == null || current == null) return previous == current;
+        return previous.getSensorType() == current.getSensorType()
+                && Objects.equals(previous.getIdSensorData(), current.getIdSensorData())
+                && Objects.equals(previous.getTimestamp(), current.getTimestamp())
+                && Double.compare(previous.getValue(), current.getValue()) == 0
+                && previous.getTransmissionStatus() == current.getTransmissionStatus();
+    }
+}
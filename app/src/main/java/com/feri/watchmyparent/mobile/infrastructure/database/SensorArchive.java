@@ -0,0 +1,259 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.DateTimeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.SensorTypeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorArchiveDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorDataDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorArchiveChunkEntity;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorDataEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// ✅ NEW: Arhiva istoricului pe termen lung. Zilele închise ale fiecărui (user, sensorType) sunt sigilate într-un
+// chunk columnar comprimat (SensorChunkCodec) și șterse din sensor_data, în aceeași tranzacție a scriitorului.
+// Rămân în sensor_data doar citirile recente și blocurile cu citiri încă netransmise; rollup-urile de 5 minute
+// nu sunt atinse, deci graficele pe intervale lungi nu se schimbă.
+//
+// Se arhivează doar blocurile mai vechi decât fereastra de backfill Health Connect (7 zile): citirile întârziate
+// nu mai pot ajunge într-un bloc sigilat. Dacă totuși ajung, următoarea sigilare le combină cu chunk-ul existent.
+public final class SensorArchive {
+
+    private static final String TAG = "SensorArchive";
+
+    public static final int BLOCK_HOURS = 24;
+    public static final int ARCHIVE_AFTER_DAYS = 8;
+
+    private final SensorDataDao sensorDataDao;
+    private final SensorArchiveDao sensorArchiveDao;
+    private final StorageWriter storageWriter;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sensor-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SensorArchive(SensorDataDao sensorDataDao, SensorArchiveDao sensorArchiveDao, StorageWriter storageWriter) {
+        this.sensorDataDao = sensorDataDao;
+        this.sensorArchiveDao = sensorArchiveDao;
+        this.storageWriter = storageWriter;
+    }
+
+    public static LocalDateTime blockStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    // Axa arhivei: LocalDateTime luat ca UTC, la milisecundă (ca SeriesDownsampler, dar în millis)
+    public static long epochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    // ========== Sigilare ==========
+
+    // Sigilează toate blocurile care se termină până la cutoff (rotunjit în jos la începutul zilei). Fiecare bloc e
+    // o intenție de scriere separată, ca tranzacțiile scriitorului să rămână scurte
+    public CompletableFuture<SealStatistics> sealBefore(LocalDateTime cutoff) {
+        LocalDateTime sealedUntil = blockStart(cutoff);
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            SealStatistics stats = new SealStatistics();
+            for (Candidate candidate : findCandidates(sealedUntil)) {
+                for (LocalDateTime block = blockStart(candidate.oldest); block.isBefore(sealedUntil);
+                     block = block.plusHours(BLOCK_HOURS)) {
+                    LocalDateTime blockStart = block;
+                    stats.add(storageWriter.submit(Priority.NORMAL,
+                            () -> sealBlock(candidate.userId, candidate.sensorType, blockStart)).join());
+                }
+            }
+            stats.durationMs = (System.nanoTime() - start) / 1_000_000;
+            Log.d(TAG, "🗄️ Archive sealed until " + sealedUntil + ": " + stats);
+            return stats;
+        }, executor);
+    }
+
+    private List<Candidate> findCandidates(LocalDateTime sealedUntil) {
+        List<Candidate> candidates = new ArrayList<>();
+        try (Cursor cursor = sensorDataDao.getArchiveCandidates(sealedUntil)) {
+            while (cursor.moveToNext()) {
+                SensorType sensorType = SensorTypeConverter.fromString(cursor.getString(1));
+                LocalDateTime oldest = DateTimeConverter.fromTimestamp(cursor.getString(2));
+                if (cursor.getString(0) != null && sensorType != null && oldest != null) {
+                    candidates.add(new Candidate(cursor.getString(0), sensorType, oldest));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    // Pe thread-ul scriitorului, într-o singură tranzacție: chunk-ul (combinat cu cel existent) intră, rândurile ies
+    private BlockResult sealBlock(String userId, SensorType sensorType, LocalDateTime blockStart) {
+        LocalDateTime blockEnd = blockStart.plusHours(BLOCK_HOURS);
+        BlockResult result = new BlockResult();
+        if (sensorDataDao.countUntransmittedInBlock(userId, sensorType, blockStart, blockEnd,
+                TransmissionStatus.TRANSMITTED) > 0) {
+            result.skipped = true;
+            return result;
+        }
+        List<SensorDataEntity> rows = sensorDataDao.getSensorDataBlock(userId, sensorType, blockStart, blockEnd);
+        if (rows.isEmpty()) {
+            return result;
+        }
+
+        SensorChunkCodec.Builder builder = new SensorChunkCodec.Builder();
+        SensorArchiveChunkEntity existing = sensorArchiveDao.getChunk(userId, sensorType, blockStart);
+        if (existing != null && existing.data != null) {
+            builder.addAll(existing.data);
+        }
+        for (SensorDataEntity row : rows) {
+            builder.add(epochMillis(row.timestamp), row.value, row.unit, row.deviceId);
+            result.rowBytes += estimatedRowBytes(row);
+        }
+        byte[] data = builder.encode();
+        SensorChunkCodec.Footer footer = SensorChunkCodec.Footer.read(data);
+
+        SensorArchiveChunkEntity chunk = new SensorArchiveChunkEntity();
+        chunk.userId = userId;
+        chunk.sensorType = sensorType;
+        chunk.blockStart = blockStart;
+        chunk.firstTimestamp = fromEpochMillis(footer.firstMillis);
+        chunk.lastTimestamp = fromEpochMillis(footer.lastMillis);
+        chunk.pointCount = footer.count;
+        chunk.minValue = footer.minValue;
+        chunk.maxValue = footer.maxValue;
+        chunk.data = data;
+        sensorArchiveDao.insertChunk(chunk);
+        sensorDataDao.deleteSensorDataBlock(userId, sensorType, blockStart, blockEnd);
+
+        result.sealed = true;
+        result.points = rows.size();
+        result.chunkBytes = data.length - (existing != null && existing.data != null ? existing.data.length : 0);
+        return result;
+    }
+
+    // Octeții de date ai unui rând Room (textele ca UTF-8, valoarea ca REAL), fără antetul înregistrării și indexuri
+    static long estimatedRowBytes(SensorDataEntity row) {
+        return 8 + utf8Length(row.idSensorData) + utf8Length(row.userId)
+                + utf8Length(SensorTypeConverter.fromSensorType(row.sensorType)) + utf8Length(row.unit)
+                + utf8Length(DateTimeConverter.dateTimeToTimestamp(row.timestamp))
+                + utf8Length(row.transmissionStatus != null ? row.transmissionStatus.name() : null)
+                + utf8Length(DateTimeConverter.dateTimeToTimestamp(row.transmissionTime))
+                + utf8Length(row.deviceId) + utf8Length(row.metadata);
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // ========== Citire ==========
+
+    // Punctele arhivate din [from, to), crescător în timp; blocurile din afara intervalului nu sunt citite
+    public int read(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to,
+                    SensorChunkCodec.PointConsumer consumer) {
+        return read(userId, sensorType, from, to, -Double.MAX_VALUE, Double.MAX_VALUE, consumer);
+    }
+
+    // Ca mai sus, dar sare și blocurile al căror [min, max] nu atinge [minValue, maxValue] (ex. zilele cu puls
+    // peste un prag). Filtrul e doar pe blocuri - punctele returnate nu sunt filtrate după valoare
+    public int read(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to,
+                    double minValue, double maxValue, SensorChunkCodec.PointConsumer consumer) {
+        long fromMillis = epochMillis(from);
+        long toMillis = epochMillis(to);
+        int points = 0;
+        try (Cursor cursor = sensorArchiveDao.getChunkData(userId, sensorType, from, to, minValue, maxValue)) {
+            while (cursor.moveToNext()) {
+                points += SensorChunkCodec.decode(cursor.getBlob(0), fromMillis, toMillis, consumer);
+            }
+        }
+        return points;
+    }
+
+    public ArchiveStatistics getStatistics() {
+        ArchiveStatistics stats = new ArchiveStatistics();
+        try (Cursor cursor = sensorArchiveDao.getArchiveTotals()) {
+            if (cursor.moveToNext()) {
+                stats.chunks = cursor.getLong(0);
+                stats.points = cursor.getLong(1);
+                stats.bytes = cursor.getLong(2);
+            }
+        }
+        return stats;
+    }
+
+    // ========== STATISTICI ==========
+
+    private static final class Candidate {
+        final String userId;
+        final SensorType sensorType;
+        final LocalDateTime oldest;
+
+        Candidate(String userId, SensorType sensorType, LocalDateTime oldest) {
+            this.userId = userId;
+            this.sensorType = sensorType;
+            this.oldest = oldest;
+        }
+    }
+
+    private static final class BlockResult {
+        boolean sealed = false;
+        boolean skipped = false;
+        long points = 0;
+        long rowBytes = 0;
+        long chunkBytes = 0;
+    }
+
+    public static class SealStatistics {
+        public long blocksSealed = 0;
+        public long blocksSkipped = 0;
+        public long points = 0;
+        public long rowBytes = 0;
+        public long chunkBytes = 0;
+        public long durationMs = 0;
+
+        void add(BlockResult block) {
+            if (block.sealed) blocksSealed++;
+            if (block.skipped) blocksSkipped++;
+            points += block.points;
+            rowBytes += block.rowBytes;
+            chunkBytes += block.chunkBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SealStatistics{blocks=%d (skipped %d untransmitted), points=%d, "
+                            + "%.1f -> %.2f bytes/point, %d ms}",
+                    blocksSealed, blocksSkipped, points,
+                    points == 0 ? 0.0 : (double) rowBytes / points,
+                    points == 0 ? 0.0 : (double) chunkBytes / points, durationMs);
+        }
+    }
+
+    public static class ArchiveStatistics {
+        public long chunks = 0;
+        public long points = 0;
+        public long bytes = 0;
+
+        @Override
+        public String toString() {
+            return String.format("ArchiveStatistics{chunks=%d, points=%d, %.2f bytes/point}",
+                    chunks, points, points == 0 ? 0.0 : (double) bytes / points);
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ✅ NEW: Formatul chunk-urilor din arhiva istoricului (un bloc închis de timp pentru un (user, sensorType)),
+// fără dependențe Android. Coloanele sunt codate separat, în stilul Gorilla (Facebook, 2015):
+// - timestamp-uri (epoch millis): primul întreg, apoi delta-of-delta pe clase de lungime - citirile periodice
+//   costă 1-14 biți în loc de un text ISO de 19-29 de octeți;
+// - valori: XOR cu valoarea anterioară, doar biții semnificativi - o valoare repetată costă un bit;
+// - unit / deviceId: dicționar per chunk + run-length pe indici - de obicei o singură intrare.
+// La final un footer fix (first/last millis, count, min, max), citit fără decodare, pentru sărirea blocurilor.
+//
+// Decodarea e un flux: ChunkReader avansează punct cu punct peste array-ul de octeți, fără obiecte per punct.
+public final class SensorChunkCodec {
+
+    static final int MAGIC = 0x574D4331; // "WMC1"
+    public static final int FOOTER_BYTES = 8 + 8 + 4 + 8 + 8;
+
+    private SensorChunkCodec() {
+    }
+
+    public interface PointConsumer {
+        void accept(long epochMillis, double value, String unit, String deviceId);
+    }
+
+    // ========== Footer ==========
+
+    public static final class Footer {
+        public final long firstMillis;
+        public final long lastMillis;
+        public final int count;
+        public final double minValue;
+        public final double maxValue;
+
+        Footer(long firstMillis, long lastMillis, int count, double minValue, double maxValue) {
+            this.firstMillis = firstMillis;
+            this.lastMillis = lastMillis;
+            this.count = count;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+        }
+
+        public static Footer read(byte[] chunk) {
+            int offset = chunk.length - FOOTER_BYTES;
+            if (offset < 4 || readInt(chunk, 0) != MAGIC) {
+                throw new IllegalArgumentException("Not a sensor chunk (" + chunk.length + " bytes)");
+            }
+            return new Footer(readLong(chunk, offset), readLong(chunk, offset + 8), readInt(chunk, offset + 16),
+                    Double.longBitsToDouble(readLong(chunk, offset + 20)),
+                    Double.longBitsToDouble(readLong(chunk, offset + 28)));
+        }
+
+        // Blocul are puncte în [fromMillis, toMillis)
+        public boolean overlaps(long fromMillis, long toMillis) {
+            return lastMillis >= fromMillis && firstMillis < toMillis;
+        }
+    }
+
+    // ========== Codare ==========
+
+    public static final class Builder {
+        private long[] millis = new long[256];
+        private double[] values = new double[256];
+        private String[] units = new String[256];
+        private String[] deviceIds = new String[256];
+        private int size = 0;
+        private boolean sorted = true;
+
+        public void add(long epochMillis, double value, String unit, String deviceId) {
+            if (size == millis.length) {
+                millis = Arrays.copyOf(millis, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                units = Arrays.copyOf(units, size * 2);
+                deviceIds = Arrays.copyOf(deviceIds, size * 2);
+            }
+            if (size > 0 && epochMillis < millis[size - 1]) sorted = false;
+            millis[size] = epochMillis;
+            values[size] = value;
+            units[size] = unit;
+            deviceIds[size] = deviceId;
+            size++;
+        }
+
+        // Re-sigilarea unui bloc: punctele deja arhivate, apoi citirile sosite între timp
+        public void addAll(byte[] chunk) {
+            ChunkReader reader = new ChunkReader(chunk);
+            while (reader.next()) {
+                add(reader.getEpochMillis(), reader.getValue(), reader.getUnit(), reader.getDeviceId());
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] encode() {
+            if (size == 0) throw new IllegalStateException("Empty chunk");
+            if (!sorted) sortByTime();
+
+            BitWriter timestamps = new BitWriter(size * 2 + 16);
+            BitWriter valueBits = new BitWriter(size * 2 + 16);
+            timestamps.write(millis[0], 64);
+            valueBits.write(Double.doubleToRawLongBits(values[0]), 64);
+            long previousDelta = 0;
+            int previousLeading = -1;
+            int previousTrailing = 0;
+            double min = values[0];
+            double max = values[0];
+            for (int i = 1; i < size; i++) {
+                long delta = millis[i] - millis[i - 1];
+                writeDeltaOfDelta(timestamps, delta - previousDelta);
+                previousDelta = delta;
+
+                long xor = Double.doubleToRawLongBits(values[i]) ^ Double.doubleToRawLongBits(values[i - 1]);
+                if (xor == 0) {
+                    valueBits.write(0, 1);
+                } else {
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        // Încape în fereastra de biți semnificativi a valorii anterioare
+                        valueBits.write(0b10, 2);
+                        valueBits.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                    } else {
+                        int meaningful = 64 - leading - trailing;
+                        valueBits.write(0b11, 2);
+                        valueBits.write(leading, 5);
+                        valueBits.write(meaningful - 1, 6);
+                        valueBits.write(xor >>> trailing, meaningful);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+
+            byte[] timestampColumn = timestamps.toByteArray();
+            byte[] valueColumn = valueBits.toByteArray();
+            byte[] unitColumn = encodeStrings(units, size);
+            byte[] deviceColumn = encodeStrings(deviceIds, size);
+
+            ByteWriter out = new ByteWriter(32 + timestampColumn.length + valueColumn.length
+                    + unitColumn.length + deviceColumn.length + FOOTER_BYTES);
+            out.writeInt(MAGIC);
+            out.writeVarInt(size);
+            out.writeVarInt(timestampColumn.length);
+            out.writeVarInt(valueColumn.length);
+            out.writeVarInt(unitColumn.length);
+            out.writeVarInt(deviceColumn.length);
+            out.write(timestampColumn);
+            out.write(valueColumn);
+            out.write(unitColumn);
+            out.write(deviceColumn);
+            out.writeLong(millis[0]);
+            out.writeLong(millis[size - 1]);
+            out.writeInt(size);
+            out.writeLong(Double.doubleToRawLongBits(min));
+            out.writeLong(Double.doubleToRawLongBits(max));
+            return out.toByteArray();
+        }
+
+        // Doar la re-sigilare, când citiri întârziate ajung înaintea celor deja arhivate
+        private void sortByTime() {
+            List<Integer> order = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) order.add(i);
+            Collections.sort(order, (a, b) -> Long.compare(millis[a], millis[b]));
+            long[] sortedMillis = new long[size];
+            double[] sortedValues = new double[size];
+            String[] sortedUnits = new String[size];
+            String[] sortedDevices = new String[size];
+            for (int i = 0; i < size; i++) {
+                int from = order.get(i);
+                sortedMillis[i] = millis[from];
+                sortedValues[i] = values[from];
+                sortedUnits[i] = units[from];
+                sortedDevices[i] = deviceIds[from];
+            }
+            millis = sortedMillis;
+            values = sortedValues;
+            units = sortedUnits;
+            deviceIds = sortedDevices;
+            sorted = true;
+        }
+    }
+
+    // Clase de lungime pentru delta-of-delta (zigzag): 0 -> '0', apoi '10'+7, '110'+9, '1110'+12, '11110'+20,
+    // '11111'+64 biți. Jitter-ul de câteva zeci de ms al colectării intră în clasele de 9-12 biți.
+    private static void writeDeltaOfDelta(BitWriter out, long deltaOfDelta) {
+        long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+        if (zigzag == 0) {
+            out.write(0, 1);
+        } else if (zigzag < (1L << 7)) {
+            out.write(0b10, 2);
+            out.write(zigzag, 7);
+        } else if (zigzag < (1L << 9)) {
+            out.write(0b110, 3);
+            out.write(zigzag, 9);
+        } else if (zigzag < (1L << 12)) {
+            out.write(0b1110, 4);
+            out.write(zigzag, 12);
+        } else if (zigzag < (1L << 20)) {
+            out.write(0b11110, 5);
+            out.write(zigzag, 20);
+        } else {
+            out.write(0b11111, 5);
+            out.write(zigzag, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        int width;
+        if (in.read(1) == 0) return 0;
+        else if (in.read(1) == 0) width = 7;
+        else if (in.read(1) == 0) width = 9;
+        else if (in.read(1) == 0) width = 12;
+        else if (in.read(1) == 0) width = 20;
+        else width = 64;
+        long zigzag = in.read(width);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    // Dicționar (null inclus) + run-uri (index, lungime)
+    private static byte[] encodeStrings(String[] column, int size) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        ByteWriter runs = new ByteWriter(16);
+        int runCount = 0;
+        int runIndex = -1;
+        int runLength = 0;
+        for (int i = 0; i < size; i++) {
+            Integer index = dictionary.get(column[i]);
+            if (index == null) {
+                index = entries.size();
+                dictionary.put(column[i], index);
+                entries.add(column[i]);
+            }
+            if (index == runIndex) {
+                runLength++;
+                continue;
+            }
+            if (runLength > 0) {
+                runs.writeVarInt(runIndex);
+                runs.writeVarInt(runLength);
+                runCount++;
+            }
+            runIndex = index;
+            runLength = 1;
+        }
+        runs.writeVarInt(runIndex);
+        runs.writeVarInt(runLength);
+        runCount++;
+
+        ByteWriter out = new ByteWriter(16 + runs.size());
+        out.writeVarInt(entries.size());
+        for (String entry : entries) {
+            if (entry == null) {
+                out.writeVarInt(0);
+            } else {
+                byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+                out.writeVarInt(bytes.length + 1);
+                out.write(bytes);
+            }
+        }
+        out.writeVarInt(runCount);
+        out.write(runs.toByteArray());
+        return out.toByteArray();
+    }
+
+    // ========== Decodare ==========
+
+    // Toate punctele din [fromMillis, toMillis); se oprește la primul punct de după interval
+    public static int decode(byte[] chunk, long fromMillis, long toMillis, PointConsumer consumer) {
+        ChunkReader reader = new ChunkReader(chunk);
+        int emitted = 0;
+        while (reader.next()) {
+            long millis = reader.getEpochMillis();
+            if (millis >= toMillis) break;
+            if (millis < fromMillis) continue;
+            consumer.accept(millis, reader.getValue(), reader.getUnit(), reader.getDeviceId());
+            emitted++;
+        }
+        return emitted;
+    }
+
+    public static final class ChunkReader {
+        private final int count;
+        private final BitReader timestamps;
+        private final BitReader values;
+        private final StringColumn units;
+        private final StringColumn deviceIds;
+
+        private int position = 0;
+        private long millis;
+        private long delta;
+        private long valueBits;
+        private int leading;
+        private int trailing;
+
+        public ChunkReader(byte[] chunk) {
+            if (chunk.length < 4 + FOOTER_BYTES || readInt(chunk, 0) != MAGIC) {
+                throw new IllegalArgumentException("Not a sensor chunk (" + chunk.length + " bytes)");
+            }
+            ByteReader header = new ByteReader(chunk, 4);
+            count = header.readVarInt();
+            int timestampBytes = header.readVarInt();
+            int valueBytes = header.readVarInt();
+            int unitBytes = header.readVarInt();
+            int deviceBytes = header.readVarInt();
+            int offset = header.position();
+            timestamps = new BitReader(chunk, offset);
+            offset += timestampBytes;
+            values = new BitReader(chunk, offset);
+            offset += valueBytes;
+            units = new StringColumn(chunk, offset);
+            offset += unitBytes;
+            deviceIds = new StringColumn(chunk, offset);
+            if (offset + deviceBytes + FOOTER_BYTES != chunk.length) {
+                throw new IllegalArgumentException("Corrupt sensor chunk: column sizes do not match "
+                        + chunk.length + " bytes");
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public boolean next() {
+            if (position >= count) return false;
+            if (position == 0) {
+                millis = timestamps.read(64);
+                valueBits = values.read(64);
+            } else {
+                delta += readDeltaOfDelta(timestamps);
+                millis += delta;
+                if (values.read(1) != 0) {
+                    if (values.read(1) != 0) {
+                        leading = (int) values.read(5);
+                        int meaningful = (int) values.read(6) + 1;
+                        trailing = 64 - leading - meaningful;
+                    }
+                    valueBits ^= values.read(64 - leading - trailing) << trailing;
+                }
+            }
+            units.next();
+            deviceIds.next();
+            position++;
+            return true;
+        }
+
+        public long getEpochMillis() { return millis; }
+        public double getValue() { return Double.longBitsToDouble(valueBits); }
+        public String getUnit() { return units.current(); }
+        public String getDeviceId() { return deviceIds.current(); }
+    }
+
+    private static final class StringColumn {
+        private final String[] dictionary;
+        private final ByteReader runs;
+        private int remaining = 0;
+        private String current;
+
+        StringColumn(byte[] data, int offset) {
+            ByteReader reader = new ByteReader(data, offset);
+            dictionary = new String[reader.readVarInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                int length = reader.readVarInt();
+                dictionary[i] = length == 0 ? null : reader.readString(length - 1);
+            }
+            reader.readVarInt(); // numărul de run-uri
+            runs = reader;
+        }
+
+        void next() {
+            if (remaining == 0) {
+                current = dictionary[runs.readVarInt()];
+                remaining = runs.readVarInt();
+            }
+            remaining--;
+        }
+
+        String current() {
+            return current;
+        }
+    }
+
+    // ========== Biți / octeți ==========
+
+    private static final class BitWriter {
+        private byte[] buffer;
+        private int bitPosition = 0;
+
+        BitWriter(int initialBytes) {
+            buffer = new byte[Math.max(16, initialBytes)];
+        }
+
+        // Cei mai puțin semnificativi `bits` biți din value, de la cel mai semnificativ la cel mai puțin
+        void write(long value, int bits) {
+            if (((bitPosition + bits) >>> 3) + 1 > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, ((bitPosition + bits) >>> 3) + 2));
+            }
+            while (bits > 0) {
+                int free = 8 - (bitPosition & 7);
+                int take = Math.min(free, bits);
+                int chunk = (int) ((value >>> (bits - take)) & ((1 << take) - 1));
+                buffer[bitPosition >>> 3] |= (byte) (chunk << (free - take));
+                bitPosition += take;
+                bits -= take;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (bitPosition + 7) >>> 3);
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] data;
+        private int bitPosition;
+
+        BitReader(byte[] data, int byteOffset) {
+            this.data = data;
+            this.bitPosition = byteOffset << 3;
+        }
+
+        long read(int bits) {
+            long result = 0;
+            while (bits > 0) {
+                int available = 8 - (bitPosition & 7);
+                int take = Math.min(available, bits);
+                int current = data[bitPosition >>> 3] & 0xFF;
+                result = (result << take) | ((current >>> (available - take)) & ((1 << take) - 1));
+                bitPosition += take;
+                bits -= take;
+            }
+            return result;
+        }
+    }
+
+    private static final class ByteWriter {
+        private byte[] buffer;
+        private int size = 0;
+
+        ByteWriter(int initialBytes) {
+            buffer = new byte[Math.max(16, initialBytes)];
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] data;
+        private int position;
+
+        ByteReader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int readVarInt() {
+            int result = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+        }
+
+        String readString(int length) {
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        int position() {
+            return position;
+        }
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    private static long readLong(byte[] data, int offset) {
+        return ((long) readInt(data, offset) << 32) | (readInt(data, offset + 4) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,221 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorSeries;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+// ✅ NEW: Reducerea unei serii de timp la cel mult maxPoints puncte pentru grafice, fără dependențe Android.
+// Rândurile sunt citite o singură dată (cursor, crescător în timp) direct în array-uri primitive:
+// - intervale scurte: citirile brute, reduse cu LTTB (Largest-Triangle-Three-Buckets) - păstrează forma și vârfurile;
+// - intervale lungi: rollup-urile de 5 minute, combinate în maxPoints/2 bucket-uri egale pe axa timpului,
+//   fiecare desenat ca min + max - niciun extrem nu dispare, oricât de lung e intervalul.
+// Sursa se alege după câte bucket-uri de rollup intră în interval (useRollups).
+public final class SeriesDownsampler {
+
+    public static final int ROLLUP_BUCKET_MINUTES = 5;
+    public static final long ROLLUP_BUCKET_SECONDS = ROLLUP_BUCKET_MINUTES * 60L;
+    public static final int DEFAULT_MAX_POINTS = 500;
+    // LTTB păstrează întotdeauna primul și ultimul punct, plus cel puțin unul între ele
+    public static final int MIN_POINTS = 3;
+
+    private SeriesDownsampler() {
+    }
+
+    // Rollup-urile ajung dacă intervalul are cel puțin atâtea bucket-uri de 5 minute câte bucket-uri min-max
+    // are graficul; sub prag, citirile brute sunt puține și dau o rezoluție mai bună decât rollup-urile
+    public static boolean useRollups(LocalDateTime from, LocalDateTime to, int maxPoints) {
+        long span = epochSecond(to) - epochSecond(from);
+        return span / ROLLUP_BUCKET_SECONDS >= maxPoints / 2;
+    }
+
+    public static LocalDateTime rollupBucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS)
+                .plusMinutes(timestamp.getMinute() / ROLLUP_BUCKET_MINUTES * ROLLUP_BUCKET_MINUTES);
+    }
+
+    // Axa timpului: LocalDateTime luat ca UTC, la fel ca strftime('%s', timestamp) în SQLite
+    public static long epochSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static void checkMaxPoints(int maxPoints) {
+        if (maxPoints < MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + MIN_POINTS + ": " + maxPoints);
+        }
+    }
+
+    // ========== Citiri brute -> LTTB ==========
+
+    public static final class RawSeries {
+        private long[] times = new long[256];
+        private double[] values = new double[256];
+        private int size = 0;
+
+        // Crescător în timp (ORDER BY timestamp ASC)
+        public void add(long epochSecond, double value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            times[size] = epochSecond;
+            values[size] = value;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Două serii crescătoare (ex. arhiva și sensor_data) într-una singură, tot crescătoare
+        public static RawSeries merge(RawSeries first, RawSeries second) {
+            if (first.size == 0) return second;
+            if (second.size == 0) return first;
+            RawSeries merged = new RawSeries();
+            merged.times = new long[first.size + second.size];
+            merged.values = new double[first.size + second.size];
+            int i = 0;
+            int j = 0;
+            while (i < first.size || j < second.size) {
+                boolean takeFirst = j >= second.size || (i < first.size && first.times[i] <= second.times[j]);
+                merged.times[merged.size] = takeFirst ? first.times[i] : second.times[j];
+                merged.values[merged.size++] = takeFirst ? first.values[i++] : second.values[j++];
+            }
+            return merged;
+        }
+
+        public SensorSeries toSeries(SensorType sensorType, LocalDateTime from, LocalDateTime to, int maxPoints) {
+            checkMaxPoints(maxPoints);
+            if (size <= maxPoints) {
+                return new SensorSeries(sensorType, from, to, SensorSeries.Source.RAW,
+                        Arrays.copyOf(times, size), Arrays.copyOf(values, size), size);
+            }
+            long[] outTimes = new long[maxPoints];
+            double[] outValues = new double[maxPoints];
+            lttb(times, values, size, maxPoints, outTimes, outValues);
+            return new SensorSeries(sensorType, from, to, SensorSeries.Source.RAW, outTimes, outValues, size);
+        }
+    }
+
+    // LTTB (Steinarsson, 2013): primul și ultimul punct rămân; din fiecare din cele threshold-2 bucket-uri de la
+    // mijloc se păstrează punctul care face triunghiul cel mai mare cu punctul ales anterior și media bucket-ului
+    // următor. O singură trecere, O(n), fără alocări în afara array-urilor de ieșire.
+    static void lttb(long[] times, double[] values, int size, int threshold, long[] outTimes, double[] outValues) {
+        double every = (double) (size - 2) / (threshold - 2);
+        long origin = times[0]; // timpi relativi - ariile rămân precise în double
+        int selected = 0;
+        int out = 0;
+        outTimes[out] = times[0];
+        outValues[out++] = values[0];
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, size);
+            double averageTime = 0;
+            double averageValue = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageTime += times[i] - origin;
+                averageValue += values[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageTime /= nextCount;
+            averageValue /= nextCount;
+
+            int rangeStart = (int) Math.floor(bucket * every) + 1;
+            int rangeEnd = (int) Math.floor((bucket + 1) * every) + 1;
+            double selectedTime = times[selected] - origin;
+            double selectedValue = values[selected];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((selectedTime - averageTime) * (values[i] - selectedValue)
+                        - (selectedTime - (times[i] - origin)) * (averageValue - selectedValue));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            outTimes[out] = times[next];
+            outValues[out++] = values[next];
+            selected = next;
+        }
+
+        outTimes[out] = times[size - 1];
+        outValues[out] = values[size - 1];
+    }
+
+    // ========== Rollup-uri -> bucket-uri min-max ==========
+
+    public static final class MinMaxBuckets {
+        private final long fromSecond;
+        private final long spanSeconds;
+        private final int bucketCount;
+        private final long[] minTimes;
+        private final long[] maxTimes;
+        private final double[] minValues;
+        private final double[] maxValues;
+        private final boolean[] filled;
+        private int rows = 0;
+
+        public MinMaxBuckets(LocalDateTime from, LocalDateTime to, int maxPoints) {
+            checkMaxPoints(maxPoints);
+            this.fromSecond = epochSecond(from);
+            this.spanSeconds = Math.max(1, epochSecond(to) - fromSecond);
+            this.bucketCount = maxPoints / 2;
+            this.minTimes = new long[bucketCount];
+            this.maxTimes = new long[bucketCount];
+            this.minValues = new double[bucketCount];
+            this.maxValues = new double[bucketCount];
+            this.filled = new boolean[bucketCount];
+        }
+
+        // Un rând de rollup (sau o citire brută, cu min == max)
+        public void add(long epochSecond, double min, double max) {
+            rows++;
+            long offset = Math.max(0, epochSecond - fromSecond);
+            int bucket = (int) Math.min(bucketCount - 1, offset * bucketCount / spanSeconds);
+            if (!filled[bucket]) {
+                filled[bucket] = true;
+                minTimes[bucket] = epochSecond;
+                maxTimes[bucket] = epochSecond;
+                minValues[bucket] = min;
+                maxValues[bucket] = max;
+                return;
+            }
+            if (min < minValues[bucket]) {
+                minValues[bucket] = min;
+                minTimes[bucket] = epochSecond;
+            }
+            if (max > maxValues[bucket]) {
+                maxValues[bucket] = max;
+                maxTimes[bucket] = epochSecond;
+            }
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        // Fiecare bucket: minimul și maximul în ordinea în care au apărut (un singur punct dacă sunt egale)
+        public SensorSeries toSeries(SensorType sensorType, LocalDateTime from, LocalDateTime to) {
+            long[] times = new long[bucketCount * 2];
+            double[] values = new double[bucketCount * 2];
+            int size = 0;
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                if (!filled[bucket]) continue;
+                boolean minFirst = minTimes[bucket] <= maxTimes[bucket];
+                times[size] = minFirst ? minTimes[bucket] : maxTimes[bucket];
+                values[size++] = minFirst ? minValues[bucket] : maxValues[bucket];
+                if (minValues[bucket] != maxValues[bucket]) {
+                    times[size] = minFirst ? maxTimes[bucket] : minTimes[bucket];
+                    values[size++] = minFirst ? maxValues[bucket] : minValues[bucket];
+                }
+            }
+            return new SensorSeries(sensorType, from, to, SensorSeries.Source.ROLLUP,
+                    Arrays.copyOf(times, size), Arrays.copyOf(values, size), rows);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// ✅ NEW: Singurul scriitor al unei baze SQLite (actor cu group commit), fără dependențe Android.
+// Repository-urile trimit intenții de scriere prin cozi lock-free; thread-ul scriitorului le grupează
+// într-o singură tranzacție la fiecare maxDelayMs sau maxBatch intenții, iar future-ul fiecărui apelant
+// se completează abia după commit. Scrierile CRITICAL sar înaintea celorlalte și închid fereastra imediat.
+//
+// Ordinea e FIFO în cadrul aceleiași priorități. Future-urile se completează pe thread-ul scriitorului:
+// callback-urile lungi trebuie să folosească variantele *Async și nimeni nu are voie să aștepte (join/get)
+// pe acest thread.
+//
+// ✅ MODIFICAT: Sub Room, fiecare @Insert/@Update/@Query generat deschide o tranzacție imbricată; dacă aruncă,
+// tranzacția exterioară e marcată eșuată și se termină cu ROLLBACK fără excepție. De aceea o intenție eșuată
+// anulează explicit tranzacția de grup, iar celelalte intenții din lot rulează din nou într-o tranzacție nouă.
+// Corpurile intențiilor trebuie deci să facă doar scrieri în bază (pot rula de mai multe ori); efectele
+// externe (listeneri, notificări) se fac după commit, pe future.
+public final class StorageWriter {
+
+    public static final long DEFAULT_MAX_DELAY_MS = 5;
+    public static final int DEFAULT_MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    public enum Priority {
+        CRITICAL,
+        NORMAL
+    }
+
+    // Rulează corpul într-o tranzacție (RoomDatabase::runInTransaction, sau JDBC în benchmark)
+    public interface Transactor {
+        void runInTransaction(Runnable body);
+    }
+
+    private final String name;
+    private final Transactor transactor;
+    private final long maxDelayNanos;
+    private final int maxBatch;
+
+    private final ConcurrentLinkedQueue<WriteIntent<?>> critical = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<WriteIntent<?>> normal = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Statistici - scrise doar de thread-ul scriitorului
+    private volatile long committedWrites = 0;
+    private volatile long failedWrites = 0;
+    private volatile long criticalWrites = 0;
+    private volatile long transactions = 0;
+    private volatile long failedTransactions = 0;
+    private volatile int largestBatch = 0;
+    private volatile long transactionNanos = 0;
+
+    public StorageWriter(String name, Transactor transactor, long maxDelayMs, int maxBatch) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        this.name = name;
+        this.transactor = transactor;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.maxBatch = maxBatch;
+        this.writer = new Thread(this::writeLoop, "storage-writer-" + name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public StorageWriter(String name, Transactor transactor) {
+        this(name, transactor, DEFAULT_MAX_DELAY_MS, DEFAULT_MAX_BATCH);
+    }
+
+    // Citirile senzorilor CRITICAL (tier-ul de 30 s) au prioritate la scriere
+    public static Priority priorityOf(SensorType sensorType) {
+        return sensorType != null && sensorType.getCriticalityLevel() == CriticalityLevel.CRITICAL
+                ? Priority.CRITICAL : Priority.NORMAL;
+    }
+
+    // Scrierea rulează în următoarea tranzacție de grup; future-ul primește rezultatul după commit
+    public <T> CompletableFuture<T> submit(Priority priority, Supplier<T> write) {
+        WriteIntent<T> intent = new WriteIntent<>(priority, write);
+        if (!running) {
+            intent.future.completeExceptionally(new RejectedExecutionException("Storage writer " + name + " is closed"));
+            return intent.future;
+        }
+        // Contorul crește înaintea offer-ului, ca drenarea să nu-l poată duce sub zero
+        int pending = queued.incrementAndGet();
+        submitted.incrementAndGet();
+        (priority == Priority.CRITICAL ? critical : normal).offer(intent);
+        // Trezește scriitorul doar când are ceva de făcut acum: prima intenție, una critică sau lot plin
+        if (pending == 1 || pending >= maxBatch || priority == Priority.CRITICAL) {
+            LockSupport.unpark(writer);
+        }
+        if (!running && !writer.isAlive()) {
+            // close() a terminat între verificare și offer - nu mai golește nimeni coada
+            rejectRemaining(critical);
+            rejectRemaining(normal);
+        }
+        return intent.future;
+    }
+
+    public CompletableFuture<Void> execute(Priority priority, Runnable write) {
+        return submit(priority, () -> {
+            write.run();
+            return null;
+        });
+    }
+
+    public int getQueuedWrites() {
+        return queued.get();
+    }
+
+    // Oprește primirea de intenții, scrie ce a rămas în coadă și oprește thread-ul
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== Thread-ul scriitorului ==========
+
+    private void writeLoop() {
+        while (running || queued.get() > 0) {
+            if (queued.get() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            // Fereastra de group commit: așteaptă alte intenții, dar nu după o scriere critică sau un lot plin
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (running && critical.isEmpty() && queued.get() < maxBatch) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                LockSupport.parkNanos(this, remaining);
+            }
+
+            commitBatch();
+        }
+        // Intențiile sosite după oprire (cursă cu close) sunt respinse, nu pierdute în tăcere
+        rejectRemaining(critical);
+        rejectRemaining(normal);
+    }
+
+    private void commitBatch() {
+        List<WriteIntent<?>> batch = new ArrayList<>(Math.min(queued.get(), maxBatch));
+        drain(critical, batch);
+        drain(normal, batch);
+        if (batch.isEmpty()) return;
+        queued.addAndGet(-batch.size());
+
+        long start = System.nanoTime();
+        long attempts = 0;
+        long abortedAttempts = 0;
+        List<WriteIntent<?>> pending = batch;
+        while (!pending.isEmpty()) {
+            attempts++;
+            Throwable transactionError = runTransaction(pending);
+            if (transactionError == null) break;
+            abortedAttempts++;
+            if (transactionError != BatchAborted.INSTANCE) {
+                // Commit-ul însuși a eșuat: tranzacția anulată anulează și scrierile reușite din lot
+                for (WriteIntent<?> intent : pending) {
+                    if (intent.error == null) intent.error = transactionError;
+                }
+                break;
+            }
+            // Doar intențiile eșuate își păstrează eroarea; restul (anulate odată cu ele) rulează din nou.
+            // Fiecare reluare are cel puțin o intenție mai puțin, deci bucla se termină
+            List<WriteIntent<?>> survivors = new ArrayList<>(pending.size());
+            for (WriteIntent<?> intent : pending) {
+                if (intent.error == null) {
+                    intent.result = null;
+                    survivors.add(intent);
+                }
+            }
+            pending = survivors;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long committed = 0;
+        long criticalInBatch = 0;
+        for (WriteIntent<?> intent : batch) {
+            if (intent.priority == Priority.CRITICAL) criticalInBatch++;
+            if (intent.error == null) committed++;
+        }
+
+        // Statisticile sunt actualizate înaintea future-urilor - un apelant care a văzut commit-ul le vede și pe ele
+        committedWrites += committed;
+        failedWrites += batch.size() - committed;
+        criticalWrites += criticalInBatch;
+        transactions += attempts;
+        failedTransactions += abortedAttempts;
+        if (batch.size() > largestBatch) largestBatch = batch.size();
+        transactionNanos += elapsed;
+
+        for (WriteIntent<?> intent : batch) {
+            intent.complete();
+        }
+    }
+
+    // null dacă tranzacția a făcut commit; BatchAborted dacă o intenție a eșuat (și tranzacția a fost anulată)
+    private Throwable runTransaction(List<WriteIntent<?>> intents) {
+        try {
+            transactor.runInTransaction(() -> {
+                boolean failed = false;
+                for (WriteIntent<?> intent : intents) {
+                    if (!intent.apply()) failed = true;
+                }
+                // Room ar face oricum ROLLBACK (tranzacția imbricată a DAO-ului a eșuat), dar fără excepție
+                if (failed) throw BatchAborted.INSTANCE;
+            });
+            return null;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+
+    private void drain(ConcurrentLinkedQueue<WriteIntent<?>> queue, List<WriteIntent<?>> batch) {
+        WriteIntent<?> intent;
+        while (batch.size() < maxBatch && (intent = queue.poll()) != null) {
+            batch.add(intent);
+        }
+    }
+
+    private void rejectRemaining(ConcurrentLinkedQueue<WriteIntent<?>> queue) {
+        WriteIntent<?> intent;
+        while ((intent = queue.poll()) != null) {
+            queued.decrementAndGet();
+            intent.future.completeExceptionally(new RejectedExecutionException("Storage writer " + name + " is closed"));
+        }
+    }
+
+    private static final class WriteIntent<T> {
+        final Priority priority;
+        final Supplier<T> write;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        Throwable error;
+
+        WriteIntent(Priority priority, Supplier<T> write) {
+            this.priority = priority;
+            this.write = write;
+        }
+
+        boolean apply() {
+            try {
+                result = write.get();
+                return true;
+            } catch (Throwable t) {
+                error = t;
+                return false;
+            }
+        }
+
+        void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    // Semnalul intern care anulează tranzacția de grup după o intenție eșuată
+    private static final class BatchAborted extends RuntimeException {
+        static final BatchAborted INSTANCE = new BatchAborted();
+
+        private BatchAborted() {
+            super("Write intent failed - group transaction rolled back", null, false, false);
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public WriterStatistics getStatistics() {
+        WriterStatistics stats = new WriterStatistics();
+        stats.name = name;
+        stats.submitted = submitted.get();
+        stats.queued = queued.get();
+        stats.committedWrites = committedWrites;
+        stats.failedWrites = failedWrites;
+        stats.criticalWrites = criticalWrites;
+        stats.transactions = transactions;
+        stats.failedTransactions = failedTransactions;
+        stats.largestBatch = largestBatch;
+        stats.averageBatch = transactions == 0 ? 0 : (double) (committedWrites + failedWrites) / transactions;
+        stats.averageTransactionMs = transactions == 0 ? 0 : transactionNanos / 1e6 / transactions;
+        return stats;
+    }
+
+    public static class WriterStatistics {
+        public String name;
+        public long submitted = 0;
+        public int queued = 0;
+        public long committedWrites = 0;
+        public long failedWrites = 0;
+        public long criticalWrites = 0;
+        public long transactions = 0;
+        public long failedTransactions = 0;
+        public int largestBatch = 0;
+        public double averageBatch = 0;
+        public double averageTransactionMs = 0;
+
+        @Override
+        public String toString() {
+            return String.format("StorageWriter{%s: submitted=%d, queued=%d, committed=%d, failed=%d, critical=%d, " +
+                            "transactions=%d (failed %d), batch avg=%.1f max=%d, tx avg=%.2fms}",
+                    name, submitted, queued, committedWrites, failedWrites, criticalWrites, transactions,
+                    failedTransactions, averageBatch, largestBatch, averageTransactionMs);
+        }
+    }
+}
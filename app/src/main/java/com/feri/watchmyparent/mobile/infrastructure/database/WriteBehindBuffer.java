@@ -0,0 +1,197 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// ✅ NEW: Buffer write-behind, fără dependențe Android: salvările se adună până la maxDelayMs sau maxItems
+// și se scriu cu un singur insert în lot. Un element "durabil" (ex. citire CRITICAL) golește imediat bufferul,
+// deci nu stă niciodată doar în memorie. Future-ul fiecărui element se completează după scrierea lotului.
+public final class WriteBehindBuffer<T> {
+
+    public enum FlushReason {
+        COUNT,
+        TIME,
+        DURABLE,
+        EXPLICIT
+    }
+
+    private final Function<List<T>, CompletableFuture<?>> sink;
+    private final Predicate<T> durable;
+    private final long maxDelayMs;
+    private final int maxItems;
+    private final ScheduledExecutorService scheduler;
+
+    // Stare - doar sub lock-ul bufferului
+    private List<Pending<T>> buffer = new ArrayList<>();
+    private ScheduledFuture<?> timer;
+    private long oldestNanos;
+    private final long[] flushesByReason = new long[FlushReason.values().length];
+    private long flushes = 0;
+    private long flushedItems = 0;
+    private long failedFlushes = 0;
+    private int largestFlush = 0;
+    private long flushLatencyNanos = 0;
+    private long maxFlushLatencyNanos = 0;
+    private long maxBufferedNanos = 0;
+
+    public WriteBehindBuffer(Function<List<T>, CompletableFuture<?>> sink, Predicate<T> durable,
+                             long maxDelayMs, int maxItems, ScheduledExecutorService scheduler) {
+        if (maxItems < 1) throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        this.sink = sink;
+        this.durable = durable;
+        this.maxDelayMs = maxDelayMs;
+        this.maxItems = maxItems;
+        this.scheduler = scheduler;
+    }
+
+    public CompletableFuture<T> add(T item) {
+        Pending<T> pending = new Pending<>(item);
+        List<Pending<T>> batch = null;
+        FlushReason reason = null;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                oldestNanos = System.nanoTime();
+                timer = scheduler.schedule(() -> flush(FlushReason.TIME), maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+            buffer.add(pending);
+            if (durable.test(item)) {
+                reason = FlushReason.DURABLE;
+            } else if (buffer.size() >= maxItems) {
+                reason = FlushReason.COUNT;
+            }
+            if (reason != null) batch = takeBuffer(reason);
+        }
+        if (batch != null) write(batch);
+        return pending.future;
+    }
+
+    // Golește bufferul (oprirea serviciului, onTrimMemory); se completează după scrierea lotului
+    public CompletableFuture<Void> flush() {
+        return flush(FlushReason.EXPLICIT);
+    }
+
+    private CompletableFuture<Void> flush(FlushReason reason) {
+        List<Pending<T>> batch;
+        synchronized (this) {
+            if (buffer.isEmpty()) return CompletableFuture.completedFuture(null);
+            batch = takeBuffer(reason);
+        }
+        return write(batch);
+    }
+
+    public synchronized int getBufferedCount() {
+        return buffer.size();
+    }
+
+    private List<Pending<T>> takeBuffer(FlushReason reason) {
+        List<Pending<T>> batch = buffer;
+        buffer = new ArrayList<>();
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        flushesByReason[reason.ordinal()]++;
+        maxBufferedNanos = Math.max(maxBufferedNanos, System.nanoTime() - oldestNanos);
+        return batch;
+    }
+
+    private CompletableFuture<Void> write(List<Pending<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) items.add(pending.item);
+        long start = System.nanoTime();
+
+        CompletableFuture<?> written;
+        try {
+            written = sink.apply(items);
+        } catch (RuntimeException e) {
+            written = failedFuture(e);
+        }
+        return written.handle((ignored, error) -> {
+            recordFlush(batch.size(), System.nanoTime() - start, error != null);
+            for (Pending<T> pending : batch) {
+                if (error != null) {
+                    pending.future.completeExceptionally(error);
+                } else {
+                    pending.future.complete(pending.item);
+                }
+            }
+            return null;
+        });
+    }
+
+    private synchronized void recordFlush(int size, long latencyNanos, boolean failed) {
+        flushes++;
+        flushedItems += size;
+        if (failed) failedFlushes++;
+        largestFlush = Math.max(largestFlush, size);
+        flushLatencyNanos += latencyNanos;
+        maxFlushLatencyNanos = Math.max(maxFlushLatencyNanos, latencyNanos);
+    }
+
+    private static <V> CompletableFuture<V> failedFuture(Throwable error) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    private static final class Pending<T> {
+        final T item;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Pending(T item) {
+            this.item = item;
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public synchronized FlushStatistics getStatistics() {
+        FlushStatistics stats = new FlushStatistics();
+        stats.buffered = buffer.size();
+        stats.flushes = flushes;
+        stats.flushedItems = flushedItems;
+        stats.failedFlushes = failedFlushes;
+        stats.countFlushes = flushesByReason[FlushReason.COUNT.ordinal()];
+        stats.timeFlushes = flushesByReason[FlushReason.TIME.ordinal()];
+        stats.durableFlushes = flushesByReason[FlushReason.DURABLE.ordinal()];
+        stats.explicitFlushes = flushesByReason[FlushReason.EXPLICIT.ordinal()];
+        stats.largestFlush = largestFlush;
+        stats.averageFlushSize = flushes == 0 ? 0 : (double) flushedItems / flushes;
+        stats.averageFlushLatencyMs = flushes == 0 ? 0 : flushLatencyNanos / 1e6 / flushes;
+        stats.maxFlushLatencyMs = maxFlushLatencyNanos / 1e6;
+        stats.maxBufferedMs = maxBufferedNanos / 1e6;
+        return stats;
+    }
+
+    public static class FlushStatistics {
+        public int buffered = 0;
+        public long flushes = 0;
+        public long flushedItems = 0;
+        public long failedFlushes = 0;
+        public long countFlushes = 0;
+        public long timeFlushes = 0;
+        public long durableFlushes = 0;
+        public long explicitFlushes = 0;
+        public int largestFlush = 0;
+        public double averageFlushSize = 0;
+        public double averageFlushLatencyMs = 0;
+        public double maxFlushLatencyMs = 0;
+        public double maxBufferedMs = 0;
+
+        @Override
+        public String toString() {
+            return String.format("WriteBehind{buffered=%d, flushes=%d (count=%d, time=%d, durable=%d, explicit=%d, " +
+                            "failed=%d), items=%d, size avg=%.1f max=%d, latency avg=%.2fms max=%.2fms, " +
+                            "max buffered=%.0fms}",
+                    buffered, flushes, countFlushes, timeFlushes, durableFlushes, explicitFlushes, failedFlushes,
+                    flushedItems, averageFlushSize, largestFlush, averageFlushLatencyMs, maxFlushLatencyMs,
+                    maxBufferedMs);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.EmergencyOutboxEntity;
+import java.util.List;
+
+@Dao
+public interface EmergencyOutboxDao {
+
+    // Aceeași alertă scrisă de două ori (redelivery după restart) nu suprascrie starea existentă
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insert(EmergencyOutboxEntity alert);
+
+    @Update
+    int update(EmergencyOutboxEntity alert);
+
+    @Query("SELECT * FROM emergency_outbox WHERE alertId = :alertId")
+    EmergencyOutboxEntity getById(String alertId);
+
+    @Query("SELECT * FROM emergency_outbox WHERE state = 'PENDING' ORDER BY triggeredAtMillis ASC")
+    List<EmergencyOutboxEntity> getPending();
+
+    @Query("SELECT * FROM emergency_outbox WHERE userId = :userId ORDER BY triggeredAtMillis DESC LIMIT :limit")
+    List<EmergencyOutboxEntity> getRecent(String userId, int limit);
+
+    @Query("DELETE FROM emergency_outbox WHERE state != 'PENDING' AND triggeredAtMillis < :cutoffMillis")
+    int deleteCompletedOlderThan(long cutoffMillis);
+}
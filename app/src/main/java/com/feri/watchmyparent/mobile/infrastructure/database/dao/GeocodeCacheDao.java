@@ -0,0 +1,23 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.GeocodeCacheEntity;
+
+@Dao
+public interface GeocodeCacheDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(GeocodeCacheEntity entry);
+
+    @Query("SELECT * FROM geocode_cache WHERE geohash = :geohash LIMIT 1")
+    GeocodeCacheEntity findByGeohash(String geohash);
+
+    @Query("UPDATE geocode_cache SET hitCount = hitCount + 1, lastAccessMillis = :accessMillis WHERE geohash = :geohash")
+    int recordHit(String geohash, long accessMillis);
+
+    @Query("DELETE FROM geocode_cache WHERE resolvedAtMillis < :cutoffMillis")
+    int deleteResolvedBefore(long cutoffMillis);
+
+    @Query("SELECT COUNT(*) FROM geocode_cache")
+    int count();
+}
@@ -2,6 +2,9 @@ package com.feri.watchmyparent.mobile.infrastructure.database.dao;
 
 import androidx.room.*;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.LocationDataEntity;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Flowable;
 
 @Dao
 public interface LocationDataDao {
@@ -18,6 +21,10 @@ public interface LocationDataDao {
     @Query("SELECT * FROM location_data WHERE userId = :userId ORDER BY updatedAt DESC LIMIT 1")
     LocationDataEntity getLocationDataByUser(String userId);
 
+    // ✅ NEW: Observabil - listă goală (nu null) cât timp utilizatorul nu are încă locație salvată
+    @Query("SELECT * FROM location_data WHERE userId = :userId ORDER BY updatedAt DESC LIMIT 1")
+    Flowable<List<LocationDataEntity>> observeLocationDataByUser(String userId);
+
     @Query("DELETE FROM location_data WHERE idLocationData = :locationDataId")
     int deleteLocationDataById(String locationDataId);
 }
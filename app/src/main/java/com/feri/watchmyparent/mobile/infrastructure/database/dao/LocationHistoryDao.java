@@ -0,0 +1,34 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.LocationHistoryEntity;
+import java.util.List;
+
+@Dao
+public interface LocationHistoryDao {
+
+    // Duplicatele (același user + timestamp) sunt ignorate de indexul unic
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    List<Long> insertAll(List<LocationHistoryEntity> points);
+
+    @Query("SELECT * FROM location_history WHERE userId = :userId " +
+            "AND timestampMillis >= :fromMillis AND timestampMillis < :toMillis ORDER BY timestampMillis ASC")
+    List<LocationHistoryEntity> getRange(String userId, long fromMillis, long toMillis);
+
+    @Query("SELECT * FROM location_history WHERE userId = :userId AND transmitted = 0 " +
+            "ORDER BY timestampMillis ASC LIMIT :limit")
+    List<LocationHistoryEntity> getUntransmitted(String userId, int limit);
+
+    @Query("SELECT COUNT(*) FROM location_history WHERE userId = :userId AND transmitted = 0")
+    int countUntransmitted(String userId);
+
+    @Query("SELECT MIN(timestampMillis) FROM location_history WHERE userId = :userId AND transmitted = 0")
+    Long getOldestUntransmittedMillis(String userId);
+
+    @Query("UPDATE location_history SET transmitted = 1 WHERE userId = :userId " +
+            "AND transmitted = 0 AND timestampMillis <= :upToMillis")
+    int markTransmitted(String userId, long upToMillis);
+
+    @Query("DELETE FROM location_history WHERE timestampMillis < :cutoffMillis")
+    int deleteOlderThan(long cutoffMillis);
+}
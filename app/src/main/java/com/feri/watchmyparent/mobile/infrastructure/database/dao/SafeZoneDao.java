@@ -0,0 +1,21 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SafeZoneEntity;
+import java.util.List;
+
+@Dao
+public interface SafeZoneDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(SafeZoneEntity zone);
+
+    @Query("SELECT * FROM safe_zone")
+    List<SafeZoneEntity> getAll();
+
+    @Query("DELETE FROM safe_zone WHERE userId = :userId AND zoneId = :zoneId")
+    int delete(String userId, String zoneId);
+
+    @Query("DELETE FROM safe_zone WHERE userId = :userId")
+    int deleteByUser(String userId);
+}
@@ -0,0 +1,29 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import android.database.Cursor;
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorArchiveChunkEntity;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import java.time.LocalDateTime;
+
+@Dao
+public interface SensorArchiveDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertChunk(SensorArchiveChunkEntity chunk);
+
+    @Query("SELECT * FROM sensor_archive_chunk WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND blockStart = :blockStart")
+    SensorArchiveChunkEntity getChunk(String userId, SensorType sensorType, LocalDateTime blockStart);
+
+    // ✅ NEW: Blob-urile blocurilor care se suprapun cu [from, to) și pot conține valori din [minValue, maxValue];
+    // condițiile pe coloanele footer-ului sunt evaluate înaintea citirii blob-ului
+    @Query("SELECT data FROM sensor_archive_chunk WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND blockStart < :to AND lastTimestamp >= :from AND maxValue >= :minValue AND minValue <= :maxValue "
+            + "ORDER BY blockStart ASC")
+    Cursor getChunkData(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to,
+                        double minValue, double maxValue);
+
+    @Query("SELECT COUNT(*), IFNULL(SUM(pointCount), 0), IFNULL(SUM(LENGTH(data)), 0) FROM sensor_archive_chunk")
+    Cursor getArchiveTotals();
+}
@@ -1,17 +1,25 @@
 package com.feri.watchmyparent.mobile.infrastructure.database.dao;
 
+import android.database.Cursor;
 import androidx.room.*;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorDataEntity;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
 import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 @Dao
 public interface SensorDataDao {
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertSensorData(SensorDataEntity sensorData);
 
+    // ✅ NEW: Lot într-o singură tranzacție (un tick de colectare, flush-ul write-behind)
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertAllSensorData(List<SensorDataEntity> sensorData);
+
     @Update
     int updateSensorData(SensorDataEntity sensorData);
 
@@ -30,12 +38,84 @@ public interface SensorDataDao {
     @Query("SELECT * FROM sensor_data WHERE userId = :userId GROUP BY sensorType ORDER BY timestamp DESC")
     List<SensorDataEntity> getLatestSensorDataByUser(String userId);
 
-    @Query("SELECT * FROM sensor_data WHERE transmissionStatus IN (:statuses) ORDER BY timestamp ASC")
-    List<SensorDataEntity> getPendingTransmissions(TransmissionStatus... statuses);
+    // ✅ NEW: Același query, re-emis de Room la fiecare invalidare a tabelei sensor_data
+    @Query("SELECT * FROM sensor_data WHERE userId = :userId GROUP BY sensorType ORDER BY timestamp DESC")
+    Flowable<List<SensorDataEntity>> observeLatestSensorDataByUser(String userId);
+
+    // ✅ MODIFICAT: Coada de retry e citită pe loturi
+    @Query("SELECT * FROM sensor_data WHERE transmissionStatus IN (:statuses) ORDER BY timestamp ASC LIMIT :limit")
+    List<SensorDataEntity> getPendingTransmissions(int limit, TransmissionStatus... statuses);
 
     @Query("DELETE FROM sensor_data WHERE idSensorData = :sensorDataId")
     int deleteSensorDataById(String sensorDataId);
 
+    // ✅ NEW: Statusul de transmisie al unui lot de citiri deja scrise (confirmarea Kafka ajunge după insert)
+    // ✅ MODIFICAT: TRANSMITTED e final - un rezultat sosit mai târziu (QUEUED al tick-ului după ce coada offline
+    // a livrat deja citirea) nu îl mai suprascrie
+    @Query("UPDATE sensor_data SET transmissionStatus = :status, transmissionTime = :transmissionTime "
+            + "WHERE idSensorData IN (:sensorDataIds) AND transmissionStatus IS NOT 'TRANSMITTED'")
+    int updateTransmissionStatus(List<String> sensorDataIds, TransmissionStatus status, LocalDateTime transmissionTime);
+
     @Query("SELECT * FROM sensor_data WHERE userId = :userId ORDER BY timestamp DESC LIMIT :limit")
     List<SensorDataEntity> getSensorDataByUserWithLimit(String userId, int limit);
+
+    // ✅ NEW: Istoric paginat keyset pe (timestamp, idSensorData), în [from, to). "Older" continuă strict înaintea
+    // cheii, descrescător; prima pagină folosește cheia (to, ""). Condiția timestamp <= cheie dă intervalul pe index,
+    // iar ordinea vine direct din index - fără sortare, fără OFFSET, cost constant indiferent de pagină.
+    @Query("SELECT * FROM sensor_data WHERE userId = :userId AND timestamp >= :from "
+            + "AND timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR idSensorData < :beforeId) "
+            + "ORDER BY timestamp DESC, idSensorData DESC LIMIT :limit")
+    List<SensorDataEntity> getSensorDataPageOlder(String userId, LocalDateTime from,
+                                                  LocalDateTime beforeTimestamp, String beforeId, int limit);
+
+    @Query("SELECT * FROM sensor_data WHERE userId = :userId AND sensorType = :sensorType AND timestamp >= :from "
+            + "AND timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR idSensorData < :beforeId) "
+            + "ORDER BY timestamp DESC, idSensorData DESC LIMIT :limit")
+    List<SensorDataEntity> getSensorDataPageOlderByType(String userId, SensorType sensorType, LocalDateTime from,
+                                                        LocalDateTime beforeTimestamp, String beforeId, int limit);
+
+    // "Newer" continuă strict după cheie, crescător (pentru derularea înapoi după ce paginile de sus au fost eliberate)
+    @Query("SELECT * FROM sensor_data WHERE userId = :userId AND timestamp < :to "
+            + "AND timestamp >= :afterTimestamp AND (timestamp > :afterTimestamp OR idSensorData > :afterId) "
+            + "ORDER BY timestamp ASC, idSensorData ASC LIMIT :limit")
+    List<SensorDataEntity> getSensorDataPageNewer(String userId, LocalDateTime to,
+                                                  LocalDateTime afterTimestamp, String afterId, int limit);
+
+    @Query("SELECT * FROM sensor_data WHERE userId = :userId AND sensorType = :sensorType AND timestamp < :to "
+            + "AND timestamp >= :afterTimestamp AND (timestamp > :afterTimestamp OR idSensorData > :afterId) "
+            + "ORDER BY timestamp ASC, idSensorData ASC LIMIT :limit")
+    List<SensorDataEntity> getSensorDataPageNewerByType(String userId, SensorType sensorType, LocalDateTime to,
+                                                        LocalDateTime afterTimestamp, String afterId, int limit);
+
+    // ✅ NEW: Citirile brute ale unui senzor pe [from, to), pentru grafice - cursor cu (secunde epoch, valoare),
+    // fără entități; ordinea vine din indexul (userId, sensorType, timestamp)
+    @Query("SELECT CAST(strftime('%s', timestamp) AS INTEGER) AS epochSecond, value FROM sensor_data "
+            + "WHERE userId = :userId AND sensorType = :sensorType AND timestamp >= :from AND timestamp < :to "
+            + "ORDER BY timestamp ASC")
+    Cursor getSensorDataSeries(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to);
+
+    // Bucket-urile de rollup atinse de o ștergere
+    @Query("SELECT * FROM sensor_data WHERE idSensorData = :sensorDataId")
+    SensorDataEntity getSensorDataById(String sensorDataId);
+
+    // ✅ NEW: Arhivare - pentru fiecare (user, senzor), cea mai veche citire de dinaintea limitei
+    @Query("SELECT userId, sensorType, MIN(timestamp) FROM sensor_data WHERE timestamp < :cutoff "
+            + "GROUP BY userId, sensorType")
+    Cursor getArchiveCandidates(LocalDateTime cutoff);
+
+    @Query("SELECT * FROM sensor_data WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND timestamp >= :from AND timestamp < :to ORDER BY timestamp ASC")
+    List<SensorDataEntity> getSensorDataBlock(String userId, SensorType sensorType, LocalDateTime from,
+                                              LocalDateTime to);
+
+    // Un bloc cu citiri netransmise rămâne în sensor_data (coada de transmisie le citește de aici)
+    @Query("SELECT COUNT(*) FROM sensor_data WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND timestamp >= :from AND timestamp < :to AND transmissionStatus != :transmitted")
+    int countUntransmittedInBlock(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to,
+                                  TransmissionStatus transmitted);
+
+    // Ștergere în bloc după sigilare - rollup-urile bucket-urilor rămân neatinse
+    @Query("DELETE FROM sensor_data WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND timestamp >= :from AND timestamp < :to")
+    int deleteSensorDataBlock(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,35 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import android.database.Cursor;
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorRollupEntity;
+import java.time.LocalDateTime;
+
+@Dao
+public interface SensorRollupDao {
+
+    // ✅ NEW: Recalculează bucket-ul [bucketStart, bucketEnd) din citirile brute - idempotent, deci corect și la
+    // re-inserarea aceluiași id sau după ștergeri. Rulează în tranzacția scriitorului, după insert/delete;
+    // un bucket fără citiri rămâne șters.
+    @Query("DELETE FROM sensor_rollup WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND bucketStart = :bucketStart")
+    int deleteRollup(String userId, SensorType sensorType, LocalDateTime bucketStart);
+
+    @Query("INSERT INTO sensor_rollup (userId, sensorType, bucketStart, minValue, maxValue, sumValue, sampleCount) "
+            + "SELECT userId, sensorType, :bucketStart, MIN(value), MAX(value), SUM(value), COUNT(*) "
+            + "FROM sensor_data WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND timestamp >= :bucketStart AND timestamp < :bucketEnd GROUP BY userId, sensorType")
+    void insertRollupFromSensorData(String userId, SensorType sensorType, LocalDateTime bucketStart,
+                                    LocalDateTime bucketEnd);
+
+    // Bucket-urile din zilele arhivate, calculate în Java din chunk + rândurile rămase în sensor_data
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertRollup(SensorRollupEntity rollup);
+
+    // Seria pentru grafic, citită cu cursorul direct în array-uri primitive (secunde epoch, min, max)
+    @Query("SELECT CAST(strftime('%s', bucketStart) AS INTEGER) AS epochSecond, minValue, maxValue "
+            + "FROM sensor_rollup WHERE userId = :userId AND sensorType = :sensorType "
+            + "AND bucketStart >= :from AND bucketStart < :to ORDER BY bucketStart ASC")
+    Cursor getRollupSeries(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,21 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.dao;
+
+import androidx.room.*;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.VitalBaselineEntity;
+import java.util.List;
+
+@Dao
+public interface VitalBaselineDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<VitalBaselineEntity> baselines);
+
+    @Query("SELECT * FROM vital_baseline")
+    List<VitalBaselineEntity> getAll();
+
+    @Query("SELECT * FROM vital_baseline WHERE userId = :userId")
+    List<VitalBaselineEntity> getByUser(String userId);
+
+    @Query("DELETE FROM vital_baseline WHERE userId = :userId")
+    int deleteByUser(String userId);
+}
@@ -0,0 +1,41 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Outbox durabil pentru alertele de urgență - rândul e scris înainte de orice notificare, ca o alertă
+// să nu se piardă dacă procesul moare în timpul escaladării (vezi EmergencyEscalationService)
+@Entity(
+        tableName = "emergency_outbox",
+        indices = {
+                @Index(value = {"state", "triggeredAtMillis"}),
+                @Index(value = {"userId", "triggeredAtMillis"})
+        }
+)
+public class EmergencyOutboxEntity {
+    public static final String STATE_PENDING = "PENDING";
+    public static final String STATE_DELIVERED = "DELIVERED";
+    public static final String STATE_FAILED = "FAILED";
+
+    @PrimaryKey
+    @NonNull
+    public String alertId = "";
+
+    public String userId;
+    public String alertType;
+    public String subject;
+    public long triggeredAtMillis;
+    public double confidence;
+    public String deviceId;
+    public String location;
+    public String details;
+
+    public String state;
+    public int attempts;
+    public String deliveredChannels;     // canale confirmate, separate prin virgulă
+    public long firstNotificationMillis; // 0 = încă nicio notificare confirmată
+    public long createdAtMillis;
+    public long updatedAtMillis;
+}
@@ -0,0 +1,22 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Cache persistent pentru reverse geocoding - o adresă per celulă geohash
+@Entity(
+        tableName = "geocode_cache",
+        indices = {@Index("resolvedAtMillis")}
+)
+public class GeocodeCacheEntity {
+    @PrimaryKey
+    @NonNull
+    public String geohash;
+
+    public String address;
+    public long resolvedAtMillis;
+    public long lastAccessMillis;
+    public int hitCount;
+}
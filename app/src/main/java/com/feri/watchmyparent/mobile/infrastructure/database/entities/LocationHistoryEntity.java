@@ -0,0 +1,32 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Istoric de locații (doar punctele păstrate de TrajectorySimplifier), indexat pe (userId, timp)
+@Entity(
+        tableName = "location_history",
+        foreignKeys = @ForeignKey(
+                entity = UserEntity.class,
+                parentColumns = "idUser",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        ),
+        indices = {
+                @Index(value = {"userId", "timestampMillis"}, unique = true),
+                @Index(value = {"userId", "transmitted", "timestampMillis"})
+        }
+)
+public class LocationHistoryEntity {
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    public String userId;
+    public long timestampMillis;
+    public double latitude;
+    public double longitude;
+    public double accuracyMeters;
+    public boolean transmitted;
+}
@@ -0,0 +1,33 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+// Zonă sigură persistată (cerc sau poligon) - GeofenceEngine o reîncarcă la pornirea aplicației
+@Entity(
+        tableName = "safe_zone",
+        primaryKeys = {"userId", "zoneId"}
+)
+public class SafeZoneEntity {
+    @NonNull
+    public String userId;
+
+    @NonNull
+    public String zoneId;
+
+    public String name;
+    public String category; // SafeZone.Category.name()
+    public String shape;    // SafeZone.Shape.name()
+    public long dwellThresholdSeconds;
+
+    // CIRCLE
+    public double centerLatitude;
+    public double centerLongitude;
+    public double radiusMeters;
+
+    // POLYGON - vârfurile separate prin virgulă, null pentru cercuri
+    public String latitudes;
+    public String longitudes;
+
+    public long updatedAtMillis;
+}
@@ -0,0 +1,37 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import java.time.LocalDateTime;
+
+// ✅ NEW: Un bloc închis (o zi) din istoricul unui senzor, comprimat columnar (SensorChunkCodec). Coloanele
+// footer-ului sunt duplicate aici ca query-urile să sară blocurile fără să citească blob-ul
+@Entity(
+        tableName = "sensor_archive_chunk",
+        primaryKeys = {"userId", "sensorType", "blockStart"},
+        foreignKeys = @ForeignKey(
+                entity = UserEntity.class,
+                parentColumns = "idUser",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class SensorArchiveChunkEntity {
+    @NonNull
+    public String userId;
+
+    @NonNull
+    public SensorType sensorType;
+
+    @NonNull
+    public LocalDateTime blockStart;
+
+    public LocalDateTime firstTimestamp;
+    public LocalDateTime lastTimestamp;
+    public int pointCount;
+    public double minValue;
+    public double maxValue;
+    public byte[] data;
+}
@@ -18,7 +18,9 @@ import java.time.LocalDateTime;
                 onDelete = ForeignKey.CASCADE
         ),
         indices = {
-                @Index(value = {"userId", "sensorType", "timestamp"}),
+                // ✅ MODIFICAT: idSensorData la final - ordinea (timestamp, id) a paginării keyset vine din index
+                @Index(value = {"userId", "sensorType", "timestamp", "idSensorData"}),
+                @Index(value = {"userId", "timestamp", "idSensorData"}),
                 @Index(value = {"transmissionStatus"})
         }
 )
@@ -0,0 +1,35 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import java.time.LocalDateTime;
+
+// ✅ NEW: Agregatul pe 5 minute al unui senzor (SeriesDownsampler.ROLLUP_BUCKET_MINUTES), reconstruit din
+// sensor_data la fiecare scriere în bucket - graficele pe intervale lungi citesc de aici, nu rândurile brute
+@Entity(
+        tableName = "sensor_rollup",
+        primaryKeys = {"userId", "sensorType", "bucketStart"},
+        foreignKeys = @ForeignKey(
+                entity = UserEntity.class,
+                parentColumns = "idUser",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class SensorRollupEntity {
+    @NonNull
+    public String userId;
+
+    @NonNull
+    public SensorType sensorType;
+
+    @NonNull
+    public LocalDateTime bucketStart;
+
+    public double minValue;
+    public double maxValue;
+    public double sumValue;
+    public int sampleCount;
+}
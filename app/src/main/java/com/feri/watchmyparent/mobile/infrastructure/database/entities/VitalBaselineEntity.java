@@ -0,0 +1,24 @@
+package com.feri.watchmyparent.mobile.infrastructure.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+// Baseline-ul personal (EWMA / EWMVar) al unui semn vital, persistat ca să supraviețuiască restart-urilor
+@Entity(
+        tableName = "vital_baseline",
+        primaryKeys = {"userId", "sensorType"}
+)
+public class VitalBaselineEntity {
+    @NonNull
+    public String userId;
+
+    @NonNull
+    public String sensorType; // SensorType.name()
+
+    public long sampleCount;
+    public double mean;
+    public double variance;
+    public double lastValue;
+    public long lastTimestampMillis;
+    public long updatedAtMillis;
+}
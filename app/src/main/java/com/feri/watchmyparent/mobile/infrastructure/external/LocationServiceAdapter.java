@@ -11,7 +11,8 @@ import android.util.Log;
 import androidx.core.app.ActivityCompat;
 import com.google.android.gms.location.*;
 import com.feri.watchmyparent.mobile.domain.valueobjects.LocationStatus;
-import java.io.IOException;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.GeocodeCacheDao;
+import com.feri.watchmyparent.mobile.infrastructure.services.AdaptiveLocationStrategy;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
@@ -19,16 +20,31 @@ import java.util.concurrent.CompletableFuture;
 public class LocationServiceAdapter {
 
     private static final String TAG = "LocationServiceAdapter";
+    private static final String COORDINATE_ADDRESS_PREFIX = "GPS Location: ";
     private final Context context;
     private final FusedLocationProviderClient fusedLocationClient;
     private final Geocoder geocoder;
+    private final ReverseGeocodeCache geocodeCache; // ✅ NEW: L1 LRU + L2 Room, cheie geohash
     private LocationCallback locationCallback;
     private Location lastLocation = null;
 
-    public LocationServiceAdapter(Context context) {
+    // ✅ NEW: Achiziție adaptivă - request-ul se re-programează când strategia schimbă planul
+    private LocationCallback adaptiveCallback;
+    private AdaptiveLocationStrategy adaptiveStrategy;
+    private AdaptiveLocationStrategy.PlanListener adaptivePlanListener;
+    private AdaptiveLocationStrategy.LocationPlan activePlan;
+
+    public LocationServiceAdapter(Context context, GeocodeCacheDao geocodeCacheDao) {
         this.context = context;
         this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(context);
         this.geocoder = new Geocoder(context, Locale.getDefault());
+        this.geocodeCache = new ReverseGeocodeCache(this::resolveAddress, geocodeCacheDao);
+        this.geocodeCache.purgeExpired();
+    }
+
+    // Fără cache persistent - doar LRU în memorie
+    public LocationServiceAdapter(Context context) {
+        this(context, null);
     }
 
     public CompletableFuture<LocationStatus> getCurrentLocation() {
@@ -93,30 +109,23 @@ public class LocationServiceAdapter {
         }
     }
 
+    // ✅ MODIFICAT: Locația nu mai așteaptă Geocoder-ul - adresa vine din cache sau se rezolvă lazy
     private void processLocation(Location location, CompletableFuture<LocationStatus> future) {
         try {
-            getAddressFromLocation(location.getLatitude(), location.getLongitude())
-                    .thenAccept(address -> {
-                        LocationStatus locationStatus = new LocationStatus(
-                                "AWAY", // Will be determined by the domain service
-                                location.getLatitude(),
-                                location.getLongitude(),
-                                address
-                        );
-                        future.complete(locationStatus);
-                    })
-                    .exceptionally(throwable -> {
-                        Log.e(TAG, "Error getting address from location", throwable);
-                        // Fallback cu coordonate dacă adresa nu poate fi obținută
-                        LocationStatus locationStatus = new LocationStatus(
-                                "AWAY",
-                                location.getLatitude(),
-                                location.getLongitude(),
-                                "Address not available"
-                        );
-                        future.complete(locationStatus);
-                        return null;
-                    });
+            String cachedAddress = geocodeCache.peek(location.getLatitude(), location.getLongitude());
+            LocationStatus locationStatus = new LocationStatus(
+                    "AWAY", // Will be determined by the domain service
+                    location.getLatitude(),
+                    location.getLongitude(),
+                    cachedAddress != null ? cachedAddress
+                            : formatCoordinates(location.getLatitude(), location.getLongitude())
+            );
+            future.complete(locationStatus);
+
+            if (cachedAddress == null) {
+                // Încălzește cache-ul pentru fix-urile următoare din aceeași celulă
+                getAddressFromLocation(location.getLatitude(), location.getLongitude());
+            }
 
         } catch (Exception e) {
             Log.e(TAG, "Error processing location", e);
@@ -125,34 +134,45 @@ public class LocationServiceAdapter {
     }
 
     public CompletableFuture<String> getAddressFromLocation(double latitude, double longitude) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                List<Address> addresses = geocoder.getFromLocation(latitude, longitude, 1);
-                if (addresses != null && !addresses.isEmpty()) {
-                    Address address = addresses.get(0);
-                    StringBuilder addressBuilder = new StringBuilder();
-
-                    if (address.getThoroughfare() != null) {
-                        addressBuilder.append(address.getThoroughfare()).append(" ");
-                    }
-                    if (address.getSubThoroughfare() != null) {
-                        addressBuilder.append(address.getSubThoroughfare()).append(", ");
-                    }
-                    if (address.getLocality() != null) {
-                        addressBuilder.append(address.getLocality()).append(", ");
-                    }
-                    if (address.getCountryName() != null) {
-                        addressBuilder.append(address.getCountryName());
-                    }
+        return geocodeCache.getAddress(latitude, longitude)
+                .thenApply(address -> address != null ? address : "Address not found")
+                .exceptionally(throwable -> {
+                    Log.e(TAG, "Error getting address from coordinates", throwable);
+                    return "Unknown location";
+                });
+    }
 
-                    return addressBuilder.toString().trim().replaceAll(",$", "");
-                }
-                return "Address not found";
-            } catch (IOException e) {
-                Log.e(TAG, "Error getting address from coordinates", e);
-                return "Unknown location";
+    // Apel blocant Geocoder - rulat doar de ReverseGeocodeCache, pe executorul lui dedicat
+    private String resolveAddress(double latitude, double longitude) throws Exception {
+        List<Address> addresses = geocoder.getFromLocation(latitude, longitude, 1);
+        if (addresses != null && !addresses.isEmpty()) {
+            Address address = addresses.get(0);
+            StringBuilder addressBuilder = new StringBuilder();
+
+            if (address.getThoroughfare() != null) {
+                addressBuilder.append(address.getThoroughfare()).append(" ");
+            }
+            if (address.getSubThoroughfare() != null) {
+                addressBuilder.append(address.getSubThoroughfare()).append(", ");
+            }
+            if (address.getLocality() != null) {
+                addressBuilder.append(address.getLocality()).append(", ");
             }
-        });
+            if (address.getCountryName() != null) {
+                addressBuilder.append(address.getCountryName());
+            }
+
+            return addressBuilder.toString().trim().replaceAll(",$", "");
+        }
+        return null;
+    }
+
+    private static String formatCoordinates(double latitude, double longitude) {
+        return COORDINATE_ADDRESS_PREFIX + String.format(Locale.US, "%.6f, %.6f", latitude, longitude);
+    }
+
+    public ReverseGeocodeCache.GeocodeCacheStatistics getGeocodeCacheStatistics() {
+        return geocodeCache.getStatistics();
     }
 
     public void startLocationUpdates(LocationUpdateCallback callback) {
@@ -177,17 +197,8 @@ public class LocationServiceAdapter {
                     if (location != null) {
                         // Verificăm dacă locația s-a schimbat semnificativ (mai mult de 50m)
                         if (isSignificantLocationChange(location)) {
-                            getAddressFromLocation(location.getLatitude(), location.getLongitude())
-                                    .thenAccept(address -> {
-                                        LocationStatus locationStatus = new LocationStatus(
-                                                "AWAY",
-                                                location.getLatitude(),
-                                                location.getLongitude(),
-                                                address
-                                        );
-                                        callback.onLocationUpdate(locationStatus);
-                                        lastLocation = location;
-                                    });
+                            lastLocation = location;
+                            deliverLocation(location, callback);
                         }
                     }
                 }
@@ -204,6 +215,129 @@ public class LocationServiceAdapter {
         }
     }
 
+    // ✅ NEW: Updates continue cu prioritate/interval/batching alese de AdaptiveLocationStrategy
+    // (pasiv sau balanced cât timp pacientul stă pe loc, batch-uri în mers, HIGH_ACCURACY doar lângă margini de zone)
+    public synchronized void startAdaptiveLocationUpdates(AdaptiveLocationStrategy strategy,
+                                                          LocationUpdateCallback callback) {
+        if (!hasLocationPermission()) {
+            callback.onError(new SecurityException("Location permission not granted"));
+            return;
+        }
+        stopAdaptiveLocationUpdates();
+
+        adaptiveStrategy = strategy;
+        adaptiveCallback = new LocationCallback() {
+            @Override
+            public void onLocationResult(LocationResult locationResult) {
+                // Cu maxUpdateDelay, un rezultat conține tot batch-ul - fiecare fix trece prin strategie
+                for (Location location : locationResult.getLocations()) {
+                    double speed = location.hasSpeed() ? location.getSpeed() : Double.NaN;
+                    boolean deliver = strategy.onLocation(location.getLatitude(), location.getLongitude(),
+                            location.getAccuracy(), speed, location.getTime());
+                    if (deliver) {
+                        lastLocation = location;
+                        deliverLocation(location, callback);
+                    }
+                }
+            }
+        };
+        adaptivePlanListener = plan -> applyAdaptivePlan(plan, callback);
+        strategy.addListener(adaptivePlanListener);
+
+        applyAdaptivePlan(strategy.getCurrentPlan(), callback);
+    }
+
+    private synchronized void applyAdaptivePlan(AdaptiveLocationStrategy.LocationPlan plan,
+                                                LocationUpdateCallback callback) {
+        if (adaptiveCallback == null || plan.equals(activePlan)) {
+            return;
+        }
+
+        LocationRequest.Builder builder = new LocationRequest.Builder(toPriority(plan.accuracy), plan.intervalMs)
+                .setMinUpdateIntervalMillis(plan.minUpdateIntervalMs)
+                .setMinUpdateDistanceMeters((float) plan.minUpdateDistanceMeters)
+                .setWaitForAccurateLocation(false);
+        if (plan.maxUpdateDelayMs > 0) {
+            builder.setMaxUpdateDelayMillis(plan.maxUpdateDelayMs);
+        }
+
+        try {
+            // requestLocationUpdates cu același callback înlocuiește request-ul anterior
+            fusedLocationClient.requestLocationUpdates(builder.build(), adaptiveCallback, Looper.getMainLooper());
+            activePlan = plan;
+            Log.d(TAG, "📡 Adaptive location request: " + plan);
+        } catch (SecurityException e) {
+            callback.onError(e);
+        }
+    }
+
+    public synchronized void stopAdaptiveLocationUpdates() {
+        if (adaptiveCallback != null) {
+            fusedLocationClient.removeLocationUpdates(adaptiveCallback);
+            adaptiveCallback = null;
+        }
+        if (adaptiveStrategy != null && adaptivePlanListener != null) {
+            adaptiveStrategy.removeListener(adaptivePlanListener);
+        }
+        adaptiveStrategy = null;
+        adaptivePlanListener = null;
+        activePlan = null;
+    }
+
+    public synchronized boolean isAdaptiveTrackingActive() {
+        return adaptiveCallback != null;
+    }
+
+    private static int toPriority(AdaptiveLocationStrategy.Accuracy accuracy) {
+        switch (accuracy) {
+            case HIGH:
+                return Priority.PRIORITY_HIGH_ACCURACY;
+            case LOW_POWER:
+                return Priority.PRIORITY_LOW_POWER;
+            case PASSIVE:
+                return Priority.PRIORITY_PASSIVE;
+            case BALANCED:
+            default:
+                return Priority.PRIORITY_BALANCED_POWER_ACCURACY;
+        }
+    }
+
+    // Livrează imediat cu adresa din cache (sau coordonatele); adresa lipsă vine ulterior prin onAddressResolved
+    private void deliverLocation(Location location, LocationUpdateCallback callback) {
+        String cachedAddress = geocodeCache.peek(location.getLatitude(), location.getLongitude());
+        callback.onLocationUpdate(new LocationStatus(
+                "AWAY",
+                location.getLatitude(),
+                location.getLongitude(),
+                cachedAddress != null ? cachedAddress
+                        : formatCoordinates(location.getLatitude(), location.getLongitude())
+        ));
+
+        if (cachedAddress == null) {
+            // ✅ MODIFICAT: doar o adresă reală ajunge la onAddressResolved (nu "Address not found"/"Unknown location")
+            geocodeCache.getAddress(location.getLatitude(), location.getLongitude())
+                    .thenAccept(address -> {
+                        if (address != null) {
+                            callback.onAddressResolved(new LocationStatus(
+                                    "AWAY",
+                                    location.getLatitude(),
+                                    location.getLongitude(),
+                                    address
+                            ));
+                        }
+                    })
+                    .exceptionally(throwable -> {
+                        Log.w(TAG, "Address not resolved for delivered location: " + throwable.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    // ✅ NEW: Adresa livrată e doar coordonatele formatate (cache miss) - cea reală vine prin onAddressResolved
+    public static boolean isCoordinateAddress(String address) {
+        return address == null || address.startsWith(COORDINATE_ADDRESS_PREFIX);
+    }
+
     private boolean isSignificantLocationChange(Location newLocation) {
         if (lastLocation == null) return true;
 
@@ -217,6 +351,7 @@ public class LocationServiceAdapter {
             fusedLocationClient.removeLocationUpdates(locationCallback);
             locationCallback = null;
         }
+        stopAdaptiveLocationUpdates();
     }
 
     private boolean hasLocationPermission() {
@@ -229,5 +364,9 @@ public class LocationServiceAdapter {
     public interface LocationUpdateCallback {
         void onLocationUpdate(LocationStatus locationStatus);
         void onError(Exception error);
+
+        // Adresa unei locații deja livrate, rezolvată ulterior (cache miss)
+        default void onAddressResolved(LocationStatus locationStatus) {
+        }
     }
 }
\ No newline at end of file
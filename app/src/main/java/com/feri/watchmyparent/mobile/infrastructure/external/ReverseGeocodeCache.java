@@ -0,0 +1,288 @@
+package com.feri.watchmyparent.mobile.infrastructure.external;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.GeocodeCacheDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.GeocodeCacheEntity;
+import com.feri.watchmyparent.mobile.infrastructure.utils.Geohash;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache pe două niveluri pentru reverse geocoding, cu cheie = celula geohash a coordonatelor:
+//   L1 - LRU în memorie (fără I/O), L2 - tabela Room geocode_cache cu TTL.
+// Căutările concurente pentru aceeași celulă sunt unite într-un singur apel Geocoder,
+// iar apelurile blocante rulează pe un executor dedicat, nu pe common pool.
+public class ReverseGeocodeCache {
+
+    private static final String TAG = "ReverseGeocodeCache";
+
+    public static final int DEFAULT_PRECISION = 8;           // ≈ 38m x 19m
+    public static final int DEFAULT_MEMORY_ENTRIES = 256;
+    public static final long DEFAULT_TTL_MS = TimeUnit.DAYS.toMillis(30);
+    private static final int GEOCODER_THREADS = 2;
+
+    // Sursa de adrese (Geocoder în producție); întoarce null dacă nu există adresă
+    public interface AddressResolver {
+        String resolve(double latitude, double longitude) throws Exception;
+    }
+
+    private final AddressResolver resolver;
+    private final GeocodeCacheDao dao; // poate fi null - doar L1
+    private final int precision;
+    private final long ttlMs;
+    private final ExecutorService executor;
+    private final Map<String, CachedAddress> memory;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    // Statistici
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong geocoderCalls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong geocoderNanos = new AtomicLong();
+    private final AtomicLong maxGeocoderNanos = new AtomicLong();
+    private final AtomicLong persistentNanos = new AtomicLong();
+
+    public ReverseGeocodeCache(AddressResolver resolver, GeocodeCacheDao dao,
+                               int precision, int memoryEntries, long ttlMs) {
+        this.resolver = resolver;
+        this.dao = dao;
+        this.precision = precision;
+        this.ttlMs = ttlMs;
+        this.memory = new LinkedHashMap<String, CachedAddress>(memoryEntries * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAddress> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(GEOCODER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "geocoder-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Log.d(TAG, "✅ Reverse geocode cache: precision=" + precision + ", memory=" + memoryEntries +
+                ", ttl=" + TimeUnit.MILLISECONDS.toHours(ttlMs) + "h, persistent=" + (dao != null));
+    }
+
+    public ReverseGeocodeCache(AddressResolver resolver, GeocodeCacheDao dao) {
+        this(resolver, dao, DEFAULT_PRECISION, DEFAULT_MEMORY_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    public String cellOf(double latitude, double longitude) {
+        return Geohash.encode(latitude, longitude, precision);
+    }
+
+    // Doar L1, fără I/O - null dacă adresa celulei nu este în memorie
+    public String peek(double latitude, double longitude) {
+        CachedAddress cached = getFromMemory(cellOf(latitude, longitude), System.currentTimeMillis());
+        return cached != null ? cached.address : null;
+    }
+
+    // Adresa pentru coordonate: L1 → L2 → Geocoder; completată imediat la hit în memorie
+    public CompletableFuture<String> getAddress(double latitude, double longitude) {
+        lookups.incrementAndGet();
+        String cell = cellOf(latitude, longitude);
+
+        CachedAddress cached = getFromMemory(cell, System.currentTimeMillis());
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached.address);
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(cell, created);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing;
+        }
+
+        try {
+            // ✅ MODIFICAT: Intrarea din inFlight e scoasă înainte de completare - altfel o cerere sosită imediat
+            // după ar primi același rezultat (null sau eroare) în loc să încerce din nou
+            executor.execute(() -> {
+                String address;
+                try {
+                    address = load(cell, latitude, longitude);
+                } catch (Throwable t) {
+                    failures.incrementAndGet();
+                    inFlight.remove(cell, created);
+                    created.completeExceptionally(t);
+                    return;
+                }
+                inFlight.remove(cell, created);
+                created.complete(address);
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(cell, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private String load(String cell, double latitude, double longitude) throws Exception {
+        long now = System.currentTimeMillis();
+
+        // L2 - Room
+        if (dao != null) {
+            long start = System.nanoTime();
+            try {
+                GeocodeCacheEntity entity = dao.findByGeohash(cell);
+                if (entity != null && entity.address != null && now - entity.resolvedAtMillis < ttlMs) {
+                    dao.recordHit(cell, now);
+                    putInMemory(cell, new CachedAddress(entity.address, entity.resolvedAtMillis));
+                    persistentHits.incrementAndGet();
+                    return entity.address;
+                }
+            } catch (Exception e) {
+                Log.w(TAG, "⚠️ Persistent geocode cache unavailable: " + e.getMessage());
+            } finally {
+                persistentNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        // Miss - un singur apel Geocoder pentru celulă (centrul celulei, ca adresa să nu depindă de primul fix)
+        double[] center = Geohash.decodeCenter(cell);
+        long start = System.nanoTime();
+        String address;
+        try {
+            address = resolver.resolve(center[0], center[1]);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            geocoderCalls.incrementAndGet();
+            geocoderNanos.addAndGet(elapsed);
+            maxGeocoderNanos.accumulateAndGet(elapsed, Math::max);
+        }
+
+        if (address == null || address.isEmpty()) {
+            return null; // nu se cache-uiește - Geocoder-ul poate răspunde data viitoare
+        }
+
+        long resolvedAt = System.currentTimeMillis();
+        putInMemory(cell, new CachedAddress(address, resolvedAt));
+        if (dao != null) {
+            try {
+                GeocodeCacheEntity entity = new GeocodeCacheEntity();
+                entity.geohash = cell;
+                entity.address = address;
+                entity.resolvedAtMillis = resolvedAt;
+                entity.lastAccessMillis = resolvedAt;
+                entity.hitCount = 0;
+                dao.upsert(entity);
+            } catch (Exception e) {
+                Log.w(TAG, "⚠️ Could not persist geocode entry " + cell + ": " + e.getMessage());
+            }
+        }
+        return address;
+    }
+
+    private CachedAddress getFromMemory(String cell, long now) {
+        synchronized (memory) {
+            CachedAddress cached = memory.get(cell);
+            if (cached == null) {
+                return null;
+            }
+            if (now - cached.resolvedAtMillis >= ttlMs) {
+                memory.remove(cell);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void putInMemory(String cell, CachedAddress cached) {
+        synchronized (memory) {
+            memory.put(cell, cached);
+        }
+    }
+
+    // Șterge intrările expirate din L2 (apelat periodic, de ex. la pornirea colectării)
+    public CompletableFuture<Integer> purgeExpired() {
+        if (dao == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            int deleted = dao.deleteResolvedBefore(System.currentTimeMillis() - ttlMs);
+            Log.d(TAG, "🧹 Purged " + deleted + " expired geocode entries");
+            return deleted;
+        }, executor);
+    }
+
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class CachedAddress {
+        final String address;
+        final long resolvedAtMillis;
+
+        CachedAddress(String address, long resolvedAtMillis) {
+            this.address = address;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public GeocodeCacheStatistics getStatistics() {
+        GeocodeCacheStatistics stats = new GeocodeCacheStatistics();
+        stats.lookups = lookups.get();
+        stats.memoryHits = memoryHits.get();
+        stats.persistentHits = persistentHits.get();
+        stats.geocoderCalls = geocoderCalls.get();
+        stats.coalesced = coalesced.get();
+        stats.failures = failures.get();
+        synchronized (memory) {
+            stats.memoryEntries = memory.size();
+        }
+        stats.inFlight = inFlight.size();
+        long resolved = stats.memoryHits + stats.persistentHits + stats.coalesced;
+        stats.hitRate = stats.lookups > 0 ? (double) resolved / stats.lookups : 0.0;
+        stats.averageGeocoderMs = stats.geocoderCalls > 0
+                ? geocoderNanos.get() / 1_000_000.0 / stats.geocoderCalls : 0.0;
+        stats.maxGeocoderMs = maxGeocoderNanos.get() / 1_000_000.0;
+        long persistentLookups = stats.persistentHits + stats.geocoderCalls;
+        stats.averagePersistentMs = persistentLookups > 0
+                ? persistentNanos.get() / 1_000_000.0 / persistentLookups : 0.0;
+        return stats;
+    }
+
+    public static class GeocodeCacheStatistics {
+        public long lookups = 0;
+        public long memoryHits = 0;
+        public long persistentHits = 0;
+        public long geocoderCalls = 0;
+        public long coalesced = 0;
+        public long failures = 0;
+        public int memoryEntries = 0;
+        public int inFlight = 0;
+        public double hitRate = 0.0; // cereri servite fără un apel Geocoder propriu
+        public double averageGeocoderMs = 0.0;
+        public double maxGeocoderMs = 0.0;
+        public double averagePersistentMs = 0.0;
+
+        @Override
+        public String toString() {
+            return String.format("GeocodeCache{lookups=%d, hitRate=%.1f%%, L1=%d, L2=%d, geocoder=%d, " +
+                            "coalesced=%d, failures=%d, entries=%d, geocoderAvg=%.1fms, geocoderMax=%.1fms, L2Avg=%.2fms}",
+                    lookups, hitRate * 100, memoryHits, persistentHits, geocoderCalls, coalesced, failures,
+                    memoryEntries, averageGeocoderMs, maxGeocoderMs, averagePersistentMs);
+        }
+    }
+}
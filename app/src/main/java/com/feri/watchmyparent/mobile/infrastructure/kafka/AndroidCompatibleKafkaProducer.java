@@ -2,12 +2,14 @@ package com.feri.watchmyparent.mobile.infrastructure.kafka;
 
 import android.util.Log;
 
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSerializer;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -21,67 +23,75 @@ public class AndroidCompatibleKafkaProducer {
     private static final String TAG = "AndroidKafkaProducer";
 
     private final String bootstrapServers;
+    private final int restProxyPort;
     private final Gson gson;
-    private boolean isConnected = false;
+    private volatile boolean isConnected = false;
+
+    // ✅ NEW: Un encoder (și buffer) per thread de trimitere
+    private static final ThreadLocal<TelemetryJsonEncoder> ENCODERS =
+            ThreadLocal.withInitial(TelemetryJsonEncoder::new);
 
     // ✅ CORRECT topic names matching your .bat files
-    private static final String HEALTH_DATA_TOPIC = "health-data-topic";
-    private static final String LOCATION_DATA_TOPIC = "location-data-topic";
+    private static final String HEALTH_DATA_TOPIC = RestProxyRecords.HEALTH_DATA_TOPIC;
+    private static final String LOCATION_DATA_TOPIC = RestProxyRecords.LOCATION_DATA_TOPIC;
+    private static final String EMERGENCY_ALERT_TOPIC = RestProxyRecords.EMERGENCY_ALERT_TOPIC;
+    private static final int DEFAULT_REST_PROXY_PORT = 8082;
+    private static final int EMERGENCY_CONNECT_TIMEOUT_MS = 2000;
+    private static final int EMERGENCY_READ_TIMEOUT_MS = 3000;
 
     public AndroidCompatibleKafkaProducer(String bootstrapServers) {
+        this(bootstrapServers, DEFAULT_REST_PROXY_PORT);
+    }
+
+    // ✅ NEW: Port REST Proxy configurabil (ex. stand-in local pentru load testing)
+    public AndroidCompatibleKafkaProducer(String bootstrapServers, int restProxyPort) {
         this.bootstrapServers = bootstrapServers;
+        this.restProxyPort = restProxyPort;
         this.gson = new GsonBuilder()
                 .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (src, typeOfSrc, context)
                         -> context.serialize(src.toString()))
                 .create();
 
         System.setProperty("kafka.logs.dir", "C:/Kafka/logs");
-        testConnection();
+        // ✅ MODIFICAT: Fără probe în constructor - primul health check (etapa de pornire din fundal) sau
+        // primul send deschid socket-ul
     }
 
-    private void testConnection() {
-        CompletableFuture.runAsync(() -> {
-            try {
-                String[] serverParts = bootstrapServers.split(":");
-                if (serverParts.length != 2) {
-                    Log.e(TAG, "Invalid bootstrap server format: " + bootstrapServers);
-                    isConnected = false;
-                    return;
-                }
+    private boolean probeConnection() {
+        try {
+            String[] serverParts = bootstrapServers.split(":");
+            if (serverParts.length != 2) {
+                Log.e(TAG, "Invalid bootstrap server format: " + bootstrapServers);
+                isConnected = false;
+                return false;
+            }
 
-                String host = serverParts[0];
-                int port = Integer.parseInt(serverParts[1]);
+            String host = serverParts[0];
+            int port = Integer.parseInt(serverParts[1]);
 
-                java.net.Socket socket = new java.net.Socket();
-                socket.connect(new java.net.InetSocketAddress(host, port), 5000);
-                socket.close();
+            java.net.Socket socket = new java.net.Socket();
+            socket.connect(new java.net.InetSocketAddress(host, port), 5000);
+            socket.close();
 
-                isConnected = true;
-                Log.d(TAG, "✅ Successfully connected to Kafka server: " + bootstrapServers);
-            } catch (Exception e) {
-                isConnected = false;
-                Log.e(TAG, "❌ Failed to connect to Kafka server: " + e.getMessage());
-            }
-        });
+            isConnected = true;
+            Log.d(TAG, "✅ Successfully connected to Kafka server: " + bootstrapServers);
+        } catch (Exception e) {
+            isConnected = false;
+            Log.e(TAG, "❌ Failed to connect to Kafka server: " + e.getMessage());
+        }
+        return isConnected;
     }
 
     // ✅ FIXED: Send health data to correct topic with proper format
     public CompletableFuture<Boolean> sendHealthData(Object healthData, String userId) {
         return CompletableFuture.supplyAsync(() -> {
-            if (!isConnected) {
-                Log.w(TAG, "⚠️ Not connected to Kafka server, attempting reconnect...");
-                testConnection();
-                if (!isConnected) {
-                    Log.e(TAG, "❌ Cannot send data - Kafka not available");
-                    return false;
-                }
-            }
-
+            // ✅ MODIFICAT: Fără probă de conexiune înaintea trimiterii - cererea REST Proxy are propriile
+            // timeout-uri, iar rezultatul ei actualizează starea conexiunii
             try {
                 // ✅ DETERMINE correct topic based on data type
-                String topicName = determineTopicName(healthData);
+                String topicName = RestProxyRecords.topicFor(healthData);
                 String jsonData = gson.toJson(healthData);
-                String messageKey = userId + "_" + System.currentTimeMillis();
+                String messageKey = RestProxyRecords.messageKey(userId, System.currentTimeMillis());
 
                 Log.d(TAG, "📤 Sending data to Kafka topic: " + topicName);
                 Log.d(TAG, "📦 Message key: " + messageKey);
@@ -94,27 +104,20 @@ public class AndroidCompatibleKafkaProducer {
                 }
 
                 String host = serverParts[0];
-                int port = Integer.parseInt(serverParts[1]);
 
+                // ✅ MODIFICAT: Doar REST Proxy - socket-ul direct nu primea nicio confirmare, deci nu poate
+                // număra ca livrat; un eșec ajunge în retry / coada offline
                 boolean sent = false;
                 try {
-                    // ✅ TRY REST Proxy first (port 8082)
                     sent = sendViaRESTProxy(host, jsonData, messageKey, topicName);
                     if (sent) {
                         Log.d(TAG, "✅ Successfully sent via Kafka REST Proxy to topic: " + topicName);
                     }
                 } catch (Exception e) {
-                    Log.w(TAG, "⚠️ REST Proxy failed, trying direct protocol: " + e.getMessage());
-                }
-
-                // ✅ FALLBACK: Direct protocol simulation
-                if (!sent) {
-                    sent = sendViaDirectProtocol(host, port, jsonData, messageKey, topicName);
-                    if (sent) {
-                        Log.d(TAG, "✅ Successfully sent via direct protocol to topic: " + topicName);
-                    }
+                    Log.w(TAG, "⚠️ REST Proxy failed: " + e.getMessage());
                 }
 
+                isConnected = sent;
                 if (sent) {
                     Log.d(TAG, "📤 ✅ Data successfully transmitted to PostgreSQL via Kafka topic: " + topicName);
                     return true;
@@ -130,54 +133,52 @@ public class AndroidCompatibleKafkaProducer {
         });
     }
 
-    // ✅ FIXED: Determine correct topic based on data content
-    private String determineTopicName(Object data) {
-        if (data instanceof java.util.Map) {
-            java.util.Map<String, Object> map = (java.util.Map<String, Object>) data;
-            Object dataType = map.get("dataType");
-
-            if (dataType != null) {
-                String type = dataType.toString().toLowerCase();
-                if (type.contains("location")) {
-                    return LOCATION_DATA_TOPIC;
-                } else if (type.contains("sensor") || type.contains("health")) {
-                    return HEALTH_DATA_TOPIC;
+    // ✅ NEW: Citire de senzor scrisă direct ca record REST Proxy (topic de sănătate, ca dataType-urile *_SENSOR_DATA)
+    public CompletableFuture<Boolean> sendSensorData(SensorDataDTO sensorData, String userId,
+                                                     TelemetryJsonEncoder.SensorLayout layout) {
+        return CompletableFuture.supplyAsync(() -> {
+            // ✅ MODIFICAT: Fără probă de conexiune înaintea trimiterii - cererea REST Proxy are propriile
+            // timeout-uri, iar rezultatul ei actualizează starea conexiunii
+            try {
+                TelemetryJsonEncoder record = ENCODERS.get()
+                        .encodeSensorRecord(sensorData, userId, System.currentTimeMillis(), layout);
+                Log.d(TAG, "📤 Sending sensor data to Kafka topic: " + HEALTH_DATA_TOPIC);
+
+                String[] serverParts = bootstrapServers.split(":");
+                if (serverParts.length != 2) {
+                    Log.e(TAG, "Invalid bootstrap server format: " + bootstrapServers);
+                    return false;
                 }
-            }
 
-            // Check for location-specific fields
-            if (map.containsKey("latitude") && map.containsKey("longitude")) {
-                return LOCATION_DATA_TOPIC;
-            }
+                String host = serverParts[0];
 
-            // Check for sensor-specific fields
-            if (map.containsKey("sensorType") || map.containsKey("value")) {
-                return HEALTH_DATA_TOPIC;
-            }
-        }
+                boolean sent = false;
+                try {
+                    sent = sendViaRESTProxy(host, record, HEALTH_DATA_TOPIC);
+                } catch (Exception e) {
+                    Log.w(TAG, "⚠️ REST Proxy failed: " + e.getMessage());
+                }
+
+                isConnected = sent;
+                if (!sent) {
+                    Log.e(TAG, "❌ Failed to send data to any Kafka endpoint");
+                }
+                return sent;
 
-        // Default to health data topic
-        return HEALTH_DATA_TOPIC;
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error sending sensor data: " + e.getMessage(), e);
+                return false;
+            }
+        });
     }
 
     // ✅ FIXED: REST Proxy with correct topic
     private boolean sendViaRESTProxy(String host, String jsonData, String messageKey, String topicName) throws IOException {
-        URL url = new URL("http://" + host + ":8082/topics/" + topicName);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "application/vnd.kafka.json.v2+json");
-        connection.setRequestProperty("Accept", "application/vnd.kafka.v2+json");
-        connection.setDoOutput(true);
-        connection.setConnectTimeout(5000);
-        connection.setReadTimeout(10000);
+        HttpURLConnection connection = openRESTProxyConnection(host, topicName);
 
         // ✅ CORRECT Kafka REST Proxy format
-        String requestBody = String.format(
-                "{\"records\":[{\"key\":\"%s\",\"value\":%s}]}",
-                messageKey, jsonData
-        );
+        String requestBody = RestProxyRecords.recordBody(messageKey, jsonData);
 
-        Log.d(TAG, "📤 REST Proxy URL: " + url);
         Log.d(TAG, "📦 Request body length: " + requestBody.length());
 
         try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream()))) {
@@ -185,10 +186,45 @@ public class AndroidCompatibleKafkaProducer {
             writer.flush();
         }
 
+        return readRESTProxyResponse(connection, topicName);
+    }
+
+    // ✅ NEW: Corpul deja codificat e scris direct din buffer-ul encoder-ului, cu lungime fixă
+    private boolean sendViaRESTProxy(String host, TelemetryJsonEncoder record, String topicName) throws IOException {
+        HttpURLConnection connection = openRESTProxyConnection(host, topicName);
+        connection.setFixedLengthStreamingMode(record.getLength());
+
+        try (OutputStream out = connection.getOutputStream()) {
+            record.writeTo(out);
+        }
+
+        return readRESTProxyResponse(connection, topicName);
+    }
+
+    private HttpURLConnection openRESTProxyConnection(String host, String topicName) throws IOException {
+        URL url = new URL("http://" + host + ":" + restProxyPort + "/topics/" + topicName);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/vnd.kafka.json.v2+json");
+        connection.setRequestProperty("Accept", "application/vnd.kafka.v2+json");
+        connection.setDoOutput(true);
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(10000);
+        Log.d(TAG, "📤 REST Proxy URL: " + url);
+        return connection;
+    }
+
+    // ✅ MODIFICAT: Un 2xx nu ajunge - record-ul e livrat doar dacă intrarea lui din `offsets` nu are error_code
+    private boolean readRESTProxyResponse(HttpURLConnection connection, String topicName) throws IOException {
         int responseCode = connection.getResponseCode();
         Log.d(TAG, "📨 REST Proxy response code: " + responseCode);
 
         if (responseCode >= 200 && responseCode < 300) {
+            String response = readBody(connection.getInputStream());
+            if (RestProxyRecords.acceptedRecords(response) < 1) {
+                Log.e(TAG, "❌ REST Proxy rejected the record for topic " + topicName + ": " + response);
+                return false;
+            }
             Log.d(TAG, "✅ REST Proxy success - data sent to topic: " + topicName);
             return true;
         } else {
@@ -208,30 +244,17 @@ public class AndroidCompatibleKafkaProducer {
         }
     }
 
-    // ✅ ENHANCED: Direct protocol with topic specification
-    private boolean sendViaDirectProtocol(String host, int port, String jsonData, String messageKey, String topicName) {
-        Log.d(TAG, "🔌 Attempting direct protocol to " + host + ":" + port + " for topic: " + topicName);
-        try {
-            java.net.Socket socket = new java.net.Socket(host, port);
-            Log.d(TAG, "🔌 Socket connected successfully");
-
-            // ✅ IMPROVED: Include topic in message format
-            String message = String.format("TOPIC:%s|KEY:%s|DATA:%s\n", topicName, messageKey, jsonData);
-            Log.d(TAG, "📝 Message format: TOPIC:" + topicName + "|KEY:" + messageKey + "|DATA:[" + jsonData.length() + " chars]");
-
-            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()))) {
-                writer.write(message);
-                writer.flush();
-                Log.d(TAG, "📤 Message written to socket for topic: " + topicName);
+    private static String readBody(java.io.InputStream in) throws IOException {
+        if (in == null) return "";
+        StringBuilder body = new StringBuilder();
+        try (java.io.Reader reader = new java.io.InputStreamReader(in, java.nio.charset.StandardCharsets.UTF_8)) {
+            char[] buffer = new char[512];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                body.append(buffer, 0, read);
             }
-
-            socket.close();
-            Log.d(TAG, "🔌 Socket closed - message sent to topic: " + topicName);
-            return true;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Direct protocol error: " + e.getMessage(), e);
-            return false;
         }
+        return body.toString();
     }
 
     // ✅ NEW: Send location data to specific topic
@@ -254,15 +277,78 @@ public class AndroidCompatibleKafkaProducer {
         });
     }
 
+    // ✅ NEW: Calea de urgență - sincron pe thread-ul apelantului (fără pool-ul comun), timeout-uri scurte,
+    // fără fallback. Răspunsul e citit complet ca HttpURLConnection să păstreze conexiunea keep-alive
+    // deschisă de warmUpEmergencyConnection()
+    // ✅ MODIFICAT: Alerta e livrată doar dacă offset-ul ei din răspuns nu are error_code
+    public boolean sendEmergencyAlert(java.util.Map<String, Object> alert, String userId) throws IOException {
+        String requestBody = RestProxyRecords.recordBody(userId, gson.toJson(alert)); // ✅ MODIFICAT: cheie escapată
+        HttpURLConnection connection = openEmergencyConnection("POST");
+        connection.setRequestProperty("Content-Type", "application/vnd.kafka.json.v2+json");
+        connection.setDoOutput(true);
+        byte[] body = requestBody.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (java.io.OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int responseCode = connection.getResponseCode();
+        if (responseCode >= 200 && responseCode < 300) {
+            String response = readBody(connection.getInputStream());
+            if (RestProxyRecords.acceptedRecords(response) > 0) {
+                Log.d(TAG, "🚨 Emergency alert sent to topic: " + EMERGENCY_ALERT_TOPIC);
+                return true;
+            }
+            Log.e(TAG, "❌ Emergency alert record rejected by REST Proxy: " + response);
+            return false;
+        }
+        drain(connection, responseCode);
+        Log.e(TAG, "❌ Emergency alert rejected by REST Proxy: " + responseCode);
+        return false;
+    }
+
+    // DNS + TCP deschise din timp: prima alertă nu mai plătește handshake-ul
+    public boolean warmUpEmergencyConnection() {
+        try {
+            HttpURLConnection connection = openEmergencyConnection("GET");
+            int responseCode = connection.getResponseCode();
+            drain(connection, responseCode);
+            Log.d(TAG, "🔥 Emergency connection warmed up (" + responseCode + ")");
+            return responseCode < 500;
+        } catch (IOException e) {
+            Log.w(TAG, "⚠️ Emergency connection warm-up failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private HttpURLConnection openEmergencyConnection(String method) throws IOException {
+        String host = bootstrapServers.split(":")[0];
+        URL url = new URL("http://" + host + ":" + restProxyPort + "/topics/" + EMERGENCY_ALERT_TOPIC);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/vnd.kafka.v2+json");
+        connection.setConnectTimeout(EMERGENCY_CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(EMERGENCY_READ_TIMEOUT_MS);
+        return connection;
+    }
+
+    private static void drain(HttpURLConnection connection, int responseCode) {
+        try (java.io.InputStream in = responseCode < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in == null) return;
+            byte[] buffer = new byte[512];
+            while (in.read(buffer) != -1) {
+                // conținutul nu ne interesează - doar eliberarea conexiunii pentru reutilizare
+            }
+        } catch (IOException ignored) {
+            // conexiunea nu va fi reutilizată
+        }
+    }
+
     public boolean isConnected() {
         return isConnected;
     }
 
     public CompletableFuture<Boolean> healthCheck() {
-        return CompletableFuture.supplyAsync(() -> {
-            testConnection();
-            return isConnected;
-        });
+        return CompletableFuture.supplyAsync(this::probeConnection);
     }
 
     // ✅ NEW: Test both topics
@@ -11,6 +11,9 @@ import java.util.Map;
 
 public class KafkaMessageFormatter {
 
+    private static final ThreadLocal<TelemetryJsonEncoder> ENCODERS =
+            ThreadLocal.withInitial(TelemetryJsonEncoder::new);
+
     private final Gson gson;
 
     public KafkaMessageFormatter() {
@@ -20,32 +23,13 @@ public class KafkaMessageFormatter {
                 .create();
     }
 
+    // ✅ MODIFICAT: Senzorii și locația trec prin encoder-ul precompilat (același JSON, fără HashMap + Gson)
     public String formatSensorData(SensorData sensorData) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", "SENSOR_DATA");
-        message.put("userId", sensorData.getUser().getIdUser());
-        message.put("sensorType", sensorData.getSensorType().getCode());
-        message.put("value", sensorData.getValue());
-        message.put("unit", sensorData.getUnit());
-        message.put("timestamp", sensorData.getTimestamp().toString());
-        message.put("deviceId", sensorData.getDeviceId());
-        message.put("criticality", sensorData.getSensorType().getCriticalityLevel().name());
-
-        return gson.toJson(message);
+        return ENCODERS.get().encodeSensorData(sensorData).valueAsString();
     }
 
     public String formatLocationData(LocationData locationData) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", "LOCATION_DATA");
-        message.put("userId", locationData.getUser().getIdUser());
-        message.put("status", locationData.getLocationStatus().getStatus());
-        message.put("latitude", locationData.getLocationStatus().getLatitude());
-        message.put("longitude", locationData.getLocationStatus().getLongitude());
-        message.put("address", locationData.getLocationStatus().getAddress());
-        message.put("timestamp", locationData.getLocationStatus().getTimestamp().toString());
-        message.put("isAtHome", locationData.isAtHome());
-
-        return gson.toJson(message);
+        return ENCODERS.get().encodeLocationData(locationData).valueAsString();
     }
 
     public String formatUserData(Object userData) {
@@ -0,0 +1,103 @@
+package com.feri.watchmyparent.mobile.infrastructure.kafka;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Codare compactă a unui lot de puncte de traiectorie pentru topicul de locație:
+// primul punct absolut (coordonate în micro-grade), restul ca diferențe față de punctul anterior.
+// Diferențele dintre fixuri apropiate au 2-4 cifre în loc de 9-10, deci JSON-ul e mult mai mic.
+// Precizie: 1e-6 grade (~0.11 m), acuratețe rotunjită la metru.
+public final class LocationTrackEncoder {
+
+    public static final String DATA_TYPE = "LOCATION_DATA";
+    public static final String PAYLOAD_FORMAT = "LOCATION_TRACK_DELTA_V1";
+
+    private static final double E6 = 1_000_000.0;
+
+    private LocationTrackEncoder() {}
+
+    public static Map<String, Object> encode(String userId, List<LocationPoint> points) {
+        int count = points.size();
+        long[] dt = new long[Math.max(0, count - 1)];
+        int[] dLat = new int[dt.length];
+        int[] dLng = new int[dt.length];
+        int[] accuracy = new int[count];
+
+        long previousTime = 0;
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < count; i++) {
+            LocationPoint point = points.get(i);
+            long time = point.getTimestampMillis();
+            long lat = Math.round(point.getLatitude() * E6);
+            long lng = Math.round(point.getLongitude() * E6);
+            if (i > 0) {
+                dt[i - 1] = time - previousTime;
+                dLat[i - 1] = (int) (lat - previousLat);
+                dLng[i - 1] = (int) (lng - previousLng);
+            }
+            accuracy[i] = (int) Math.round(point.getAccuracyMeters());
+            previousTime = time;
+            previousLat = lat;
+            previousLng = lng;
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("dataType", DATA_TYPE);
+        message.put("payloadFormat", PAYLOAD_FORMAT);
+        message.put("userId", userId);
+        message.put("pointCount", count);
+        if (count > 0) {
+            LocationPoint first = points.get(0);
+            message.put("t0", first.getTimestampMillis());
+            message.put("lat0E6", Math.round(first.getLatitude() * E6));
+            message.put("lng0E6", Math.round(first.getLongitude() * E6));
+            message.put("dt", dt);
+            message.put("dLatE6", dLat);
+            message.put("dLngE6", dLng);
+            message.put("acc", accuracy);
+        }
+        return message;
+    }
+
+    // Inversul lui encode; acceptă atât array-uri primitive cât și liste de numere (ex. după parsare JSON)
+    public static List<LocationPoint> decode(Map<String, Object> message) {
+        if (!PAYLOAD_FORMAT.equals(message.get("payloadFormat"))) {
+            throw new IllegalArgumentException("Unsupported location payload: " + message.get("payloadFormat"));
+        }
+        int count = ((Number) message.get("pointCount")).intValue();
+        List<LocationPoint> points = new ArrayList<>(count);
+        if (count == 0) {
+            return points;
+        }
+
+        long time = ((Number) message.get("t0")).longValue();
+        long lat = ((Number) message.get("lat0E6")).longValue();
+        long lng = ((Number) message.get("lng0E6")).longValue();
+        Object dt = message.get("dt");
+        Object dLat = message.get("dLatE6");
+        Object dLng = message.get("dLngE6");
+        Object accuracy = message.get("acc");
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                time += longAt(dt, i - 1);
+                lat += longAt(dLat, i - 1);
+                lng += longAt(dLng, i - 1);
+            }
+            points.add(new LocationPoint(lat / E6, lng / E6, longAt(accuracy, i), time));
+        }
+        return points;
+    }
+
+    private static long longAt(Object values, int index) {
+        if (values instanceof long[]) return ((long[]) values)[index];
+        if (values instanceof int[]) return ((int[]) values)[index];
+        if (values instanceof List) return ((Number) ((List<?>) values).get(index)).longValue();
+        throw new IllegalArgumentException("Unsupported array type: " + (values == null ? "null" : values.getClass()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.feri.watchmyparent.mobile.infrastructure.kafka;
 
 import android.util.Log;
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSerializer;
@@ -24,6 +25,7 @@ public class RealHealthDataKafkaProducer {
         private static final String BOOTSTRAP_SERVERS_PROD = "kafka.watchmyparent.com:9092";
         private static final String HEALTH_DATA_TOPIC = "health-data-topic";
         private static final String LOCATION_DATA_TOPIC = "location-data-topic";
+        private static final int DEFAULT_REST_PROXY_PORT = 8082;
 
         // Use our custom Android-compatible implementation instead of KafkaProducer
         private final AndroidCompatibleKafkaProducer producer;
@@ -32,9 +34,14 @@ public class RealHealthDataKafkaProducer {
         private final String bootstrapServers;
 
         public RealHealthDataKafkaProducer() {
-            this.bootstrapServers = com.feri.watchmyparent.mobile.BuildConfig.DEBUG
+            this(com.feri.watchmyparent.mobile.BuildConfig.DEBUG
                     ? BOOTSTRAP_SERVERS_DEBUG
-                    : BOOTSTRAP_SERVERS_PROD;
+                    : BOOTSTRAP_SERVERS_PROD, DEFAULT_REST_PROXY_PORT);
+        }
+
+        // ✅ NEW: Server explicit (ex. Kafka REST proxy stand-in pentru testele de load pe JVM)
+        public RealHealthDataKafkaProducer(String bootstrapServers, int restProxyPort) {
+            this.bootstrapServers = bootstrapServers;
 
             Log.d(TAG, "✅ Initializing REAL Kafka Producer");
             Log.d(TAG, "🔗 Bootstrap servers: " + bootstrapServers);
@@ -45,42 +52,29 @@ public class RealHealthDataKafkaProducer {
                     .create();
 
             // Initialize our Android-compatible producer
-            this.producer = new AndroidCompatibleKafkaProducer(bootstrapServers);
-            testConnection();
+            this.producer = new AndroidCompatibleKafkaProducer(bootstrapServers, restProxyPort);
+            // ✅ MODIFICAT: Conexiunea nu mai e testată în constructor (injectat pe calea de pornire) -
+            // KafkaHealthCheckService o verifică imediat ce e pornit din etapa de fundal
         }
 
-        private void testConnection() {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    isConnected = producer.isConnected();
-                    if (isConnected) {
-                        Log.d(TAG, "✅ Kafka connection test successful");
-                    } else {
-                        Log.w(TAG, "⚠️ Kafka connection test failed");
-                    }
-                } catch (Exception e) {
-                    isConnected = false;
-                    Log.e(TAG, "❌ Kafka connection test failed", e);
-                }
-            });
+        // ✅ NEW: Alertă de urgență - sincron, fără batching; apelat de pe thread-urile EmergencyEscalationService
+        public boolean sendEmergencyAlert(java.util.Map<String, Object> alert, String userId) throws java.io.IOException {
+            return producer.sendEmergencyAlert(alert, userId);
+        }
+
+        public boolean warmUpEmergencyPath() {
+            return producer.warmUpEmergencyConnection();
         }
 
         public CompletableFuture<Boolean> sendHealthData(Object healthData, String userId) {
             Log.d(TAG, "🔄 Attempting to send health data to Kafka for user: " + userId);
             Log.d(TAG, "📦 Data to send: " + gson.toJson(healthData));
             return CompletableFuture.supplyAsync(() -> {
-                if (!isConnected) {
-                    Log.w(TAG, "⚠️ Kafka not connected, attempting to reconnect...");
-                    testConnection();
-                    if (!isConnected) {
-                        Log.e(TAG, "❌ Cannot send data - Kafka not available");
-                        return false;
-                    }
-                }
-
                 try {
                     // Use our compatible producer to send data
+                    // ✅ MODIFICAT: Fără probă de conexiune înaintea trimiterii - rezultatul actualizează starea
                     boolean success = producer.sendHealthData(healthData, userId).join();
+                    isConnected = success;
 
                     if (success) {
                         Log.d(TAG, String.format("📊 REAL DATA SENT - User: %s, Topic: %s",
@@ -96,8 +90,46 @@ public class RealHealthDataKafkaProducer {
             });
         }
 
+        // ✅ NEW: Citirile de senzori merg prin encoder-ul precompilat (fără Map, fără Gson, fără log cu JSON-ul)
+        public CompletableFuture<Boolean> sendSensorData(SensorDataDTO sensorData, String userId,
+                                                         TelemetryJsonEncoder.SensorLayout layout) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    boolean success = producer.sendSensorData(sensorData, userId, layout).join();
+                    isConnected = success;
+
+                    if (success) {
+                        Log.d(TAG, String.format("📊 REAL DATA SENT - User: %s, Topic: %s",
+                                userId, HEALTH_DATA_TOPIC));
+                    }
+
+                    return success;
+                } catch (Exception e) {
+                    Log.e(TAG, "❌ Error sending sensor data to real Kafka", e);
+                    isConnected = false; // Mark as disconnected to trigger reconnection
+                    return false;
+                }
+            });
+        }
+
         public CompletableFuture<Boolean> sendLocationData(Object locationData, String userId) {
-            return sendHealthData(locationData, userId); // Reuse the same method for now
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    boolean success = producer.sendLocationData(locationData, userId).join();
+                    isConnected = success;
+
+                    if (success) {
+                        Log.d(TAG, String.format("📍 REAL LOCATION SENT - User: %s, Topic: %s",
+                                userId, LOCATION_DATA_TOPIC));
+                    }
+
+                    return success;
+                } catch (Exception e) {
+                    Log.e(TAG, "❌ Error sending location data to real Kafka", e);
+                    isConnected = false;
+                    return false;
+                }
+            });
         }
 
         public boolean isConnected() {
@@ -116,9 +148,15 @@ public class RealHealthDataKafkaProducer {
             isConnected = false;
         }
 
+        // ✅ MODIFICAT: Rezultatul probei curente, nu flag-ul rămas de la verificarea anterioară
         public CompletableFuture<Boolean> healthCheck() {
-            return CompletableFuture.supplyAsync(() -> {
-                testConnection();
+            return producer.healthCheck().handle((connected, error) -> {
+                isConnected = error == null && connected;
+                if (isConnected) {
+                    Log.d(TAG, "✅ Kafka connection test successful");
+                } else {
+                    Log.w(TAG, "⚠️ Kafka connection test failed" + (error != null ? ": " + error.getMessage() : ""));
+                }
                 return isConnected;
             });
         }
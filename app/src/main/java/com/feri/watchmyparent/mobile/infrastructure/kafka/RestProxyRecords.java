@@ -0,0 +1,116 @@
+package com.feri.watchmyparent.mobile.infrastructure.kafka;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.Map;
+
+// ✅ NEW: Rutarea pe topic și formatul record-ului REST Proxy, fără dependențe Android
+// (folosite de AndroidCompatibleKafkaProducer și măsurate în modulul :benchmark)
+public final class RestProxyRecords {
+
+    // ✅ CORRECT topic names matching your .bat files
+    public static final String HEALTH_DATA_TOPIC = "health-data-topic";
+    public static final String LOCATION_DATA_TOPIC = "location-data-topic";
+    public static final String EMERGENCY_ALERT_TOPIC = "emergency-alert-topic";
+
+    private RestProxyRecords() {
+    }
+
+    // Topicul după conținutul mesajului (dataType, apoi câmpurile specifice); implicit topicul de sănătate
+    public static String topicFor(Object data) {
+        if (data instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) data;
+            Object dataType = map.get("dataType");
+
+            if (dataType != null) {
+                String type = dataType.toString().toLowerCase();
+                if (type.contains("location")) {
+                    return LOCATION_DATA_TOPIC;
+                } else if (type.contains("sensor") || type.contains("health")) {
+                    return HEALTH_DATA_TOPIC;
+                }
+            }
+
+            // Check for location-specific fields
+            if (map.containsKey("latitude") && map.containsKey("longitude")) {
+                return LOCATION_DATA_TOPIC;
+            }
+
+            // Check for sensor-specific fields
+            if (map.containsKey("sensorType") || map.containsKey("value")) {
+                return HEALTH_DATA_TOPIC;
+            }
+        }
+
+        // Default to health data topic
+        return HEALTH_DATA_TOPIC;
+    }
+
+    public static String messageKey(String userId, long millis) {
+        return userId + "_" + millis;
+    }
+
+    // ✅ MODIFICAT: cheia e escapată ca string JSON (userId-ul nu mai poate strica corpul cererii), valoarea e
+    // JSON-ul deja serializat
+    public static String recordBody(String messageKey, String jsonValue) {
+        StringBuilder body = new StringBuilder(jsonValue.length() + 64);
+        body.append("{\"records\":[{\"key\":");
+        appendJsonString(body, messageKey);
+        return body.append(",\"value\":").append(jsonValue).append("}]}").toString();
+    }
+
+    // ✅ NEW: Record-urile confirmate dintr-un răspuns 2xx. REST Proxy răspunde 200 și când o parte din lot
+    // eșuează - fiecare intrare din `offsets` are atunci error_code și offset null. Un răspuns fără `offsets`
+    // (sau care nu e JSON) nu confirmă nimic
+    public static int acceptedRecords(String responseBody) {
+        JsonArray offsets;
+        try {
+            JsonElement response = JsonParser.parseString(responseBody);
+            if (!response.isJsonObject()) return 0;
+            JsonElement array = response.getAsJsonObject().get("offsets");
+            if (array == null || !array.isJsonArray()) return 0;
+            offsets = array.getAsJsonArray();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+        int accepted = 0;
+        for (JsonElement entry : offsets) {
+            if (!entry.isJsonObject()) continue;
+            JsonObject offset = entry.getAsJsonObject();
+            if (isNull(offset.get("error_code")) && !isNull(offset.get("offset"))) accepted++;
+        }
+        return accepted;
+    }
+
+    private static boolean isNull(JsonElement element) {
+        return element == null || element.isJsonNull();
+    }
+
+    static void appendJsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
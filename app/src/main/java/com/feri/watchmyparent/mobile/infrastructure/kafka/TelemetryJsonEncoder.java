@@ -0,0 +1,568 @@
+package com.feri.watchmyparent.mobile.infrastructure.kafka;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.entities.LocationData;
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// ✅ NEW: Encoder JSON precompilat pentru mesajele de telemetrie: scrie direct în bytes (UTF-8) corpul
+// REST Proxy {"records":[{"key":...,"value":{...}}]}, fără HashMap, fără Gson și fără LocalDateTime.toString().
+// Ieșirea e identică byte cu byte cu vechiul drum HashMap -> Gson -> String.format:
+// - ordinea câmpurilor e ordinea de iterare a HashMap-ului construit de vechiul cod, calculată o singură dată
+//   prin reluarea acelorași inserări (depinde doar de setul de chei);
+// - valorile null sunt omise (Gson nu serializează null-urile din Map);
+// - string-urile sunt escapate ca în Gson (html-safe), numerele ca Double.toString.
+// Nu e thread-safe: o instanță per thread (buffer-ul e refolosit între mesaje).
+public final class TelemetryJsonEncoder {
+
+    public enum SensorLayout {
+        // DataTransmissionServiceImpl - drumul principal senzor -> Kafka
+        TRANSMISSION,
+        // KafkaRetryService - retry-uri și backlog-ul offline
+        RETRY
+    }
+
+    // ---------- câmpuri ----------
+    private static final int F_USER_ID = 0;
+    private static final int F_SENSOR_TYPE = 1;
+    private static final int F_VALUE = 2;
+    private static final int F_UNIT = 3;
+    private static final int F_TIMESTAMP = 4;
+    private static final int F_DEVICE_ID = 5;
+    private static final int F_SOURCE = 6;
+    private static final int F_DATA_TYPE_REAL = 7;
+    private static final int F_DATA_TYPE_RETRY = 8;
+    private static final int F_CRITICALITY_LEVEL = 9;
+    private static final int F_TRANSMISSION_METHOD = 10;
+    private static final int F_ALERT_LEVEL = 11;
+    private static final int F_DATA_SOURCE = 12;
+    private static final int F_RETRY_COUNT = 13;
+    private static final int F_TYPE_SENSOR = 14;
+    private static final int F_CRITICALITY = 15;
+    private static final int F_TYPE_LOCATION = 16;
+    private static final int F_STATUS = 17;
+    private static final int F_LATITUDE = 18;
+    private static final int F_LONGITUDE = 19;
+    private static final int F_ADDRESS = 20;
+    private static final int F_IS_AT_HOME = 21;
+
+    private static final String[] KEYS = {
+            "userId", "sensorType", "value", "unit", "timestamp", "deviceId", "source", "dataType", "dataType",
+            "criticalityLevel", "transmissionMethod", "alertLevel", "dataSource", "retryCount", "type", "criticality",
+            "type", "status", "latitude", "longitude", "address", "isAtHome"};
+
+    // "key": precodificat (cheile sunt ASCII, fără caractere de escapat)
+    private static final byte[][] KEY_BYTES = new byte[KEYS.length][];
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEY_BYTES[i] = ascii("\"" + KEYS[i] + "\":");
+        }
+    }
+
+    private static final byte[] SOURCE_WATCH = ascii("\"samsung_galaxy_watch_7\"");
+    private static final byte[] DATA_TYPE_REAL = ascii("\"REAL_SENSOR_DATA\"");
+    private static final byte[] DATA_TYPE_RETRY = ascii("\"RETRY_SENSOR_DATA\"");
+    private static final byte[] TRANSMISSION_METHOD = ascii("\"kafka_only_pipeline\"");
+    private static final byte[] DATA_SOURCE_SAMSUNG = ascii("\"samsung_health_sdk\"");
+    private static final byte[] DATA_SOURCE_ANDROID = ascii("\"android_sensor_api\"");
+    private static final byte[] TYPE_SENSOR = ascii("\"SENSOR_DATA\"");
+    private static final byte[] TYPE_LOCATION = ascii("\"LOCATION_DATA\"");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+
+    private static final byte[] RECORDS_PREFIX = ascii("{\"records\":[{\"key\":\"");
+    private static final byte[] RECORDS_VALUE = ascii("\",\"value\":");
+    private static final byte[] RECORDS_SUFFIX = ascii("}]}");
+
+    // Ordinea de iterare a HashMap-urilor vechi, per layout (cu/fără alertLevel)
+    private static final int[] TRANSMISSION_ORDER = hashMapOrder(F_USER_ID, F_SENSOR_TYPE, F_VALUE, F_UNIT,
+            F_TIMESTAMP, F_DEVICE_ID, F_SOURCE, F_DATA_TYPE_REAL, F_CRITICALITY_LEVEL, F_TRANSMISSION_METHOD,
+            F_DATA_SOURCE);
+    private static final int[] TRANSMISSION_ALERT_ORDER = hashMapOrder(F_USER_ID, F_SENSOR_TYPE, F_VALUE, F_UNIT,
+            F_TIMESTAMP, F_DEVICE_ID, F_SOURCE, F_DATA_TYPE_REAL, F_CRITICALITY_LEVEL, F_TRANSMISSION_METHOD,
+            F_ALERT_LEVEL, F_DATA_SOURCE);
+    private static final int[] RETRY_ORDER = hashMapOrder(F_USER_ID, F_SENSOR_TYPE, F_VALUE, F_UNIT, F_TIMESTAMP,
+            F_DEVICE_ID, F_SOURCE, F_DATA_TYPE_RETRY, F_RETRY_COUNT, F_CRITICALITY_LEVEL);
+    private static final int[] FORMATTER_SENSOR_ORDER = hashMapOrder(F_TYPE_SENSOR, F_USER_ID, F_SENSOR_TYPE,
+            F_VALUE, F_UNIT, F_TIMESTAMP, F_DEVICE_ID, F_CRITICALITY);
+    private static final int[] FORMATTER_LOCATION_ORDER = hashMapOrder(F_TYPE_LOCATION, F_USER_ID, F_STATUS,
+            F_LATITUDE, F_LONGITUDE, F_ADDRESS, F_TIMESTAMP, F_IS_AT_HOME);
+
+    // Escape-urile Gson pentru ASCII (html-safe: < > & = ' sunt scrise ca \\u00xx)
+    private static final byte[][] ASCII_ESCAPES = new byte[128][];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ASCII_ESCAPES[c] = ascii(String.format("\\u%04x", c));
+        }
+        ASCII_ESCAPES['"'] = ascii("\\\"");
+        ASCII_ESCAPES['\\'] = ascii("\\\\");
+        ASCII_ESCAPES['\t'] = ascii("\\t");
+        ASCII_ESCAPES['\b'] = ascii("\\b");
+        ASCII_ESCAPES['\n'] = ascii("\\n");
+        ASCII_ESCAPES['\r'] = ascii("\\r");
+        ASCII_ESCAPES['\f'] = ascii("\\f");
+        for (char c : new char[]{'<', '>', '&', '=', '\''}) {
+            ASCII_ESCAPES[c] = ascii(String.format("\\u%04x", (int) c));
+        }
+    }
+
+    private static final byte[] ESCAPE_2028 = ascii("\\u2028");
+    private static final byte[] ESCAPE_2029 = ascii("\\u2029");
+
+    private static final int MAX_FAST_DECIMALS = 6;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private byte[] buffer;
+    private int length;
+    private int keyStart;
+    private int keyEnd;
+    private int valueStart;
+    private int valueEnd;
+    private int fieldsWritten;
+
+    public TelemetryJsonEncoder() {
+        this(512);
+    }
+
+    public TelemetryJsonEncoder(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    // ========== MESAJE ==========
+
+    // Corpul REST Proxy pentru un SensorDataDTO; cheia mesajului e userId + "_" + keyMillis (ca înainte)
+    public TelemetryJsonEncoder encodeSensorRecord(SensorDataDTO data, String userId, long keyMillis,
+                                                   SensorLayout layout) {
+        length = 0;
+        write(RECORDS_PREFIX);
+        keyStart = length;
+        writeRaw(userId);
+        writeByte('_');
+        writeLong(keyMillis);
+        keyEnd = length;
+        write(RECORDS_VALUE);
+        writeSensorValue(data, userId, layout);
+        write(RECORDS_SUFFIX);
+        return this;
+    }
+
+    // Doar obiectul value (mesajul Kafka propriu-zis)
+    public TelemetryJsonEncoder encodeSensorValue(SensorDataDTO data, String userId, SensorLayout layout) {
+        length = 0;
+        writeSensorValue(data, userId, layout);
+        return this;
+    }
+
+    // Formatul KafkaMessageFormatter.formatSensorData
+    public TelemetryJsonEncoder encodeSensorData(SensorData sensorData) {
+        length = 0;
+        valueStart = 0;
+        beginObject();
+        for (int field : FORMATTER_SENSOR_ORDER) {
+            switch (field) {
+                case F_TYPE_SENSOR:
+                    constant(field, TYPE_SENSOR);
+                    break;
+                case F_USER_ID:
+                    string(field, sensorData.getUser().getIdUser());
+                    break;
+                case F_SENSOR_TYPE:
+                    string(field, sensorData.getSensorType().getCode());
+                    break;
+                case F_VALUE:
+                    number(field, sensorData.getValue());
+                    break;
+                case F_UNIT:
+                    string(field, sensorData.getUnit());
+                    break;
+                case F_TIMESTAMP:
+                    timestamp(field, sensorData.getTimestamp());
+                    break;
+                case F_DEVICE_ID:
+                    string(field, sensorData.getDeviceId());
+                    break;
+                case F_CRITICALITY:
+                    string(field, sensorData.getSensorType().getCriticalityLevel().name());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected field " + KEYS[field]);
+            }
+        }
+        endObject();
+        valueEnd = length;
+        return this;
+    }
+
+    // Formatul KafkaMessageFormatter.formatLocationData
+    public TelemetryJsonEncoder encodeLocationData(LocationData locationData) {
+        length = 0;
+        valueStart = 0;
+        LocationStatus status = locationData.getLocationStatus();
+        beginObject();
+        for (int field : FORMATTER_LOCATION_ORDER) {
+            switch (field) {
+                case F_TYPE_LOCATION:
+                    constant(field, TYPE_LOCATION);
+                    break;
+                case F_USER_ID:
+                    string(field, locationData.getUser().getIdUser());
+                    break;
+                case F_STATUS:
+                    string(field, status.getStatus());
+                    break;
+                case F_LATITUDE:
+                    number(field, status.getLatitude());
+                    break;
+                case F_LONGITUDE:
+                    number(field, status.getLongitude());
+                    break;
+                case F_ADDRESS:
+                    string(field, status.getAddress());
+                    break;
+                case F_TIMESTAMP:
+                    timestamp(field, status.getTimestamp());
+                    break;
+                case F_IS_AT_HOME:
+                    constant(field, locationData.isAtHome() ? TRUE : FALSE);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected field " + KEYS[field]);
+            }
+        }
+        endObject();
+        valueEnd = length;
+        return this;
+    }
+
+    private void writeSensorValue(SensorDataDTO data, String userId, SensorLayout layout) {
+        int[] order;
+        if (layout == SensorLayout.RETRY) {
+            order = RETRY_ORDER;
+        } else {
+            order = data.getAlertLevel() != null ? TRANSMISSION_ALERT_ORDER : TRANSMISSION_ORDER;
+        }
+        valueStart = length;
+        beginObject();
+        for (int field : order) {
+            switch (field) {
+                case F_USER_ID:
+                    string(field, userId);
+                    break;
+                case F_SENSOR_TYPE:
+                    string(field, data.getSensorType().getCode());
+                    break;
+                case F_VALUE:
+                    number(field, data.getValue());
+                    break;
+                case F_UNIT:
+                    string(field, data.getUnit());
+                    break;
+                case F_TIMESTAMP:
+                    timestamp(field, data.getTimestamp());
+                    break;
+                case F_DEVICE_ID:
+                    string(field, data.getDeviceId());
+                    break;
+                case F_SOURCE:
+                    constant(field, SOURCE_WATCH);
+                    break;
+                case F_DATA_TYPE_REAL:
+                    constant(field, DATA_TYPE_REAL);
+                    break;
+                case F_DATA_TYPE_RETRY:
+                    constant(field, DATA_TYPE_RETRY);
+                    break;
+                case F_CRITICALITY_LEVEL:
+                    string(field, data.getSensorType().getCriticalityLevel().name());
+                    break;
+                case F_TRANSMISSION_METHOD:
+                    constant(field, TRANSMISSION_METHOD);
+                    break;
+                case F_ALERT_LEVEL:
+                    string(field, data.getAlertLevel());
+                    break;
+                case F_DATA_SOURCE:
+                    constant(field, data.getSensorType().isSamsungHealthPermitted()
+                            ? DATA_SOURCE_SAMSUNG : DATA_SOURCE_ANDROID);
+                    break;
+                case F_RETRY_COUNT:
+                    name(field);
+                    writeLong(data.getRetryCount());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected field " + KEYS[field]);
+            }
+        }
+        endObject();
+        valueEnd = length;
+    }
+
+    // ========== ACCES LA REZULTAT ==========
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, length);
+    }
+
+    // Alocă - doar pentru drumurile rare (formatter-ul cu API String, teste)
+    public String valueAsString() {
+        return new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+    }
+
+    public String keyAsString() {
+        return new String(buffer, keyStart, keyEnd - keyStart, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // ========== SCRIERE ==========
+
+    private void beginObject() {
+        writeByte('{');
+        fieldsWritten = 0;
+    }
+
+    private void endObject() {
+        writeByte('}');
+    }
+
+    private void name(int field) {
+        if (fieldsWritten++ > 0) writeByte(',');
+        write(KEY_BYTES[field]);
+    }
+
+    private void constant(int field, byte[] value) {
+        name(field);
+        write(value);
+    }
+
+    // null -> câmpul lipsește, ca la Gson pe Map
+    private void string(int field, String value) {
+        if (value == null) return;
+        name(field);
+        writeString(value);
+    }
+
+    private void number(int field, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // Același comportament ca Gson (mesajul nu poate fi trimis)
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification.");
+        }
+        name(field);
+        writeDouble(value);
+    }
+
+    private void timestamp(int field, LocalDateTime value) {
+        name(field);
+        writeByte('"');
+        writeLocalDateTime(value);
+        writeByte('"');
+    }
+
+    private void writeString(String value) {
+        writeByte('"');
+        int n = value.length();
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                byte[] escape = ASCII_ESCAPES[c];
+                if (escape != null) {
+                    write(escape);
+                } else {
+                    writeByte(c);
+                }
+            } else if (c == '\u2028') {
+                write(ESCAPE_2028);
+            } else if (c == '\u2029') {
+                write(ESCAPE_2029);
+            } else {
+                i = writeUtf8(value, i, c);
+            }
+        }
+        writeByte('"');
+    }
+
+    // Cheia mesajului e inserată neescapată de String.format în vechiul cod
+    private void writeRaw(String value) {
+        int n = value.length();
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                writeByte(c);
+            } else {
+                i = writeUtf8(value, i, c);
+            }
+        }
+    }
+
+    // Ca OutputStreamWriter(UTF-8): perechile de surogate devin 4 bytes, surogatele izolate devin '?'
+    private int writeUtf8(String value, int index, char c) {
+        ensureCapacity(4);
+        if (c < 0x800) {
+            buffer[length++] = (byte) (0xC0 | (c >> 6));
+            buffer[length++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            buffer[length++] = '?';
+        } else {
+            buffer[length++] = (byte) (0xE0 | (c >> 12));
+            buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    // Double.toString fără alocare pentru valorile uzuale (1 <= |v| < 1e7, cel mult 6 zecimale): cea mai scurtă
+    // reprezentare zecimală care dă înapoi exact aceeași valoare double; restul trec prin Double.toString
+    void writeDouble(double value) {
+        double abs = Math.abs(value);
+        if (abs >= 1.0 && abs < 1e7) {
+            for (int decimals = 0; decimals <= MAX_FAST_DECIMALS; decimals++) {
+                long scaled = Math.round(abs * POW10[decimals]);
+                if (scaled / (double) POW10[decimals] == abs) {
+                    if (value < 0) writeByte('-');
+                    writeLong(scaled / POW10[decimals]);
+                    writeByte('.');
+                    if (decimals == 0) {
+                        writeByte('0');
+                    } else {
+                        writePadded(scaled % POW10[decimals], decimals);
+                    }
+                    return;
+                }
+            }
+        }
+        String text = Double.toString(value);
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[length++] = (byte) text.charAt(i);
+        }
+    }
+
+    // LocalDateTime.toString(): uuuu-MM-ddTHH:mm[:ss[.SSS|.SSSSSS|.SSSSSSSSS]]
+    void writeLocalDateTime(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 1000 || year > 9999) {
+            writeRaw(value.toString());
+            return;
+        }
+        writePadded(year, 4);
+        writeByte('-');
+        writePadded(value.getMonthValue(), 2);
+        writeByte('-');
+        writePadded(value.getDayOfMonth(), 2);
+        writeByte('T');
+        writePadded(value.getHour(), 2);
+        writeByte(':');
+        writePadded(value.getMinute(), 2);
+        int second = value.getSecond();
+        int nano = value.getNano();
+        if (second > 0 || nano > 0) {
+            writeByte(':');
+            writePadded(second, 2);
+            if (nano > 0) {
+                writeByte('.');
+                if (nano % 1_000_000 == 0) {
+                    writePadded(nano / 1_000_000, 3);
+                } else if (nano % 1000 == 0) {
+                    writePadded(nano / 1000, 6);
+                } else {
+                    writePadded(nano, 9);
+                }
+            }
+        }
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        length = end;
+    }
+
+    private void writePadded(long value, int width) {
+        ensureCapacity(width);
+        for (int i = length + width - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        length += width;
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Reia inserările vechiului cod într-un HashMap și citește ordinea de iterare
+    private static int[] hashMapOrder(int... fields) {
+        Map<String, Integer> replay = new HashMap<>();
+        for (int field : fields) {
+            replay.put(KEYS[field], field);
+        }
+        int[] order = new int[replay.size()];
+        int i = 0;
+        for (Integer field : replay.values()) {
+            order[i++] = field;
+        }
+        return order;
+    }
+}
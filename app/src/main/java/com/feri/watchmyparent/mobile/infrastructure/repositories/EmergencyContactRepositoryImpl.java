@@ -5,6 +5,8 @@ import android.util.Log;
 import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
 import com.feri.watchmyparent.mobile.domain.entities.User;
 import com.feri.watchmyparent.mobile.domain.repositories.EmergencyContactRepository;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.EmergencyContactDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.EmergencyContactEntity;
 import javax.inject.Inject;
@@ -20,16 +22,18 @@ import java.util.stream.Collectors;
 public class EmergencyContactRepositoryImpl implements EmergencyContactRepository{
 
     private final EmergencyContactDao emergencyContactDao;
+    private final StorageWriter storageWriter;
     private final Executor executor = Executors.newFixedThreadPool(4);
 
     @Inject
-    public EmergencyContactRepositoryImpl(EmergencyContactDao emergencyContactDao) {
+    public EmergencyContactRepositoryImpl(EmergencyContactDao emergencyContactDao, StorageWriter storageWriter) {
         this.emergencyContactDao = emergencyContactDao;
+        this.storageWriter = storageWriter;
     }
 
     @Override
     public CompletableFuture<EmergencyContact> save(EmergencyContact emergencyContact) {
-        return CompletableFuture.supplyAsync(() -> {
+        return storageWriter.submit(Priority.NORMAL, () -> {
             try {
                 EmergencyContactEntity entity = convertToEntity(emergencyContact);
                 emergencyContactDao.insertEmergencyContact(entity);
@@ -39,7 +43,7 @@ public class EmergencyContactRepositoryImpl implements EmergencyContactRepositor
                 Log.e("EmergencyContactRepositoryImpl", "Error saving emergency contact", e);
                 throw new RuntimeException("Failed to save emergency contact", e);
             }
-        }, executor);
+        });
     }
 
     @Override
@@ -72,7 +76,7 @@ public class EmergencyContactRepositoryImpl implements EmergencyContactRepositor
 
     @Override
     public CompletableFuture<Void> delete(String id) {
-        return CompletableFuture.runAsync(() -> {
+        return storageWriter.execute(Priority.NORMAL, () -> {
             try {
                 emergencyContactDao.deleteEmergencyContactById(id);
                 Log.d("EmergencyContactRepositoryImpl", "Emergency contact deleted: " + id);
@@ -80,7 +84,7 @@ public class EmergencyContactRepositoryImpl implements EmergencyContactRepositor
                 Log.e("EmergencyContactRepositoryImpl", "Error deleting emergency contact: " + id, e);
                 throw new RuntimeException("Failed to delete emergency contact", e);
             }
-        }, executor);
+        });
     }
 
     private EmergencyContactEntity convertToEntity(EmergencyContact contact) {
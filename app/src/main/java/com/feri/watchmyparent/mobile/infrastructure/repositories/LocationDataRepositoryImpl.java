@@ -5,29 +5,41 @@ import android.util.Log;
 import com.feri.watchmyparent.mobile.domain.entities.LocationData;
 import com.feri.watchmyparent.mobile.domain.entities.User;
 import com.feri.watchmyparent.mobile.domain.repositories.LocationDataRepository;
+import com.feri.watchmyparent.mobile.infrastructure.database.ReactiveQueries;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.LocationDataDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.LocationDataEntity;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 @Singleton
 public class LocationDataRepositoryImpl implements LocationDataRepository {
 
     private final LocationDataDao locationDataDao;
+    private final StorageWriter storageWriter;
     private final Executor executor = Executors.newFixedThreadPool(4);
+    // ✅ NEW: Query-urile observabile sunt partajate între ecrane
+    private final ReactiveQueries reactiveQueries;
 
     @Inject
-    public LocationDataRepositoryImpl(LocationDataDao locationDataDao) {
+    public LocationDataRepositoryImpl(LocationDataDao locationDataDao, StorageWriter storageWriter,
+                                      ReactiveQueries reactiveQueries) {
         this.locationDataDao = locationDataDao;
+        this.storageWriter = storageWriter;
+        this.reactiveQueries = reactiveQueries;
     }
 
     @Override
     public CompletableFuture<LocationData> save(LocationData locationData) {
-        return CompletableFuture.supplyAsync(() -> {
+        return storageWriter.submit(Priority.NORMAL, () -> {
             try {
                 LocationDataEntity entity = convertToEntity(locationData);
                 locationDataDao.insertLocationData(entity);
@@ -37,7 +49,7 @@ public class LocationDataRepositoryImpl implements LocationDataRepository {
                 Log.e("LocationDataRepository", "Error saving location data", e);
                 throw new RuntimeException("Failed to save location data", e);
             }
-        }, executor);
+        });
     }
 
     @Override
@@ -53,9 +65,21 @@ public class LocationDataRepositoryImpl implements LocationDataRepository {
         }, executor);
     }
 
+    // ✅ NEW: Rândul e re-citit la fiecare scriere în location_data; UI-ul primește doar schimbările lui
+    @Override
+    public Flowable<Optional<LocationData>> observeByUserId(String userId) {
+        return reactiveQueries.shared("location_data/" + userId, () -> reactiveQueries.throttleToFrame(
+                locationDataDao.observeLocationDataByUser(userId)
+                        .map(entities -> entities.isEmpty()
+                                ? Optional.<LocationData>empty()
+                                : Optional.of(convertToDomain(entities.get(0))))
+                        .distinctUntilChanged(LocationDataRepositoryImpl::sameLocation)
+                        .doOnError(e -> Log.e("LocationDataRepository", "Error observing location data for user: " + userId, e))));
+    }
+
     @Override
     public CompletableFuture<Void> delete(String id) {
-        return CompletableFuture.runAsync(() -> {
+        return storageWriter.execute(Priority.NORMAL, () -> {
             try {
                 locationDataDao.deleteLocationDataById(id);
                 Log.d("LocationDataRepository", "Location data deleted: " + id);
@@ -63,7 +87,7 @@ public class LocationDataRepositoryImpl implements LocationDataRepository {
                 Log.e("LocationDataRepository", "Error deleting location data", e);
                 throw new RuntimeException("Failed to delete location data", e);
             }
-        }, executor);
+        });
     }
 
     private LocationDataEntity convertToEntity(LocationData locationData) {
@@ -98,4 +122,13 @@ public class LocationDataRepositoryImpl implements LocationDataRepository {
 
         return locationData;
     }
+
+    private static boolean sameLocation(Optional<LocationData> previous, Optional<LocationData> current) {
+        if (!previous.isPresent() || !current.isPresent()) return previous.isPresent() == current.isPresent();
+        LocationData a = previous.get();
+        LocationData b = current.get();
+        return Objects.equals(a.getIdLocationData(), b.getIdLocationData())
+                && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt())
+                && Objects.equals(a.getLocationStatus(), b.getLocationStatus());
+    }
 }
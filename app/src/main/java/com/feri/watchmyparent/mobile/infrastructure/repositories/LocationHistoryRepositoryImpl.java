@@ -0,0 +1,151 @@
+package com.feri.watchmyparent.mobile.infrastructure.repositories;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.repositories.LocationHistoryRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.LocationHistoryDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.LocationHistoryEntity;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+@Singleton
+public class LocationHistoryRepositoryImpl implements LocationHistoryRepository {
+
+    private final LocationHistoryDao locationHistoryDao;
+    private final StorageWriter storageWriter;
+    private final Executor executor = Executors.newFixedThreadPool(4);
+
+    @Inject
+    public LocationHistoryRepositoryImpl(LocationHistoryDao locationHistoryDao, StorageWriter storageWriter) {
+        this.locationHistoryDao = locationHistoryDao;
+        this.storageWriter = storageWriter;
+    }
+
+    @Override
+    public CompletableFuture<Integer> saveAll(String userId, List<LocationPoint> points) {
+        return storageWriter.submit(Priority.NORMAL, () -> {
+            try {
+                if (points.isEmpty()) {
+                    return 0;
+                }
+                List<LocationHistoryEntity> entities = new ArrayList<>(points.size());
+                for (LocationPoint point : points) {
+                    entities.add(convertToEntity(userId, point));
+                }
+                int inserted = 0;
+                for (Long rowId : locationHistoryDao.insertAll(entities)) {
+                    if (rowId != null && rowId != -1L) inserted++;
+                }
+                Log.d("LocationHistoryRepository", "Saved " + inserted + "/" + points.size() + " history points for user: " + userId);
+                return inserted;
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error saving location history", e);
+                throw new RuntimeException("Failed to save location history", e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<LocationPoint>> findByTimeRange(String userId, LocalDateTime from, LocalDateTime to) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return convertToDomain(locationHistoryDao.getRange(userId,
+                        LocationPoint.toEpochMillis(from), LocationPoint.toEpochMillis(to)));
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error finding location history for user: " + userId, e);
+                throw new RuntimeException("Failed to find location history", e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<LocationPoint>> findUntransmitted(String userId, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return convertToDomain(locationHistoryDao.getUntransmitted(userId, limit));
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error finding untransmitted history for user: " + userId, e);
+                throw new RuntimeException("Failed to find untransmitted location history", e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> countUntransmitted(String userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return locationHistoryDao.countUntransmitted(userId);
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error counting untransmitted history", e);
+                return 0;
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Long> findOldestUntransmittedMillis(String userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return locationHistoryDao.getOldestUntransmittedMillis(userId);
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error finding oldest untransmitted point", e);
+                return null;
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> markTransmitted(String userId, long upToMillis) {
+        return storageWriter.submit(Priority.NORMAL, () -> {
+            try {
+                return locationHistoryDao.markTransmitted(userId, upToMillis);
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error marking history transmitted", e);
+                throw new RuntimeException("Failed to mark location history transmitted", e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteOlderThan(LocalDateTime cutoff) {
+        return storageWriter.submit(Priority.NORMAL, () -> {
+            try {
+                int deleted = locationHistoryDao.deleteOlderThan(LocationPoint.toEpochMillis(cutoff));
+                Log.d("LocationHistoryRepository", "Deleted " + deleted + " history points older than " + cutoff);
+                return deleted;
+            } catch (Exception e) {
+                Log.e("LocationHistoryRepository", "Error deleting old location history", e);
+                throw new RuntimeException("Failed to delete old location history", e);
+            }
+        });
+    }
+
+    private LocationHistoryEntity convertToEntity(String userId, LocationPoint point) {
+        LocationHistoryEntity entity = new LocationHistoryEntity();
+        entity.userId = userId;
+        entity.timestampMillis = point.getTimestampMillis();
+        entity.latitude = point.getLatitude();
+        entity.longitude = point.getLongitude();
+        entity.accuracyMeters = point.getAccuracyMeters();
+        entity.transmitted = false;
+        return entity;
+    }
+
+    private List<LocationPoint> convertToDomain(List<LocationHistoryEntity> entities) {
+        List<LocationPoint> points = new ArrayList<>(entities.size());
+        for (LocationHistoryEntity entity : entities) {
+            points.add(new LocationPoint(entity.latitude, entity.longitude,
+                    entity.accuracyMeters, entity.timestampMillis));
+        }
+        return points;
+    }
+}
@@ -5,12 +5,16 @@ import android.util.Log;
 import com.feri.watchmyparent.mobile.domain.entities.MedicalProfile;
 import com.feri.watchmyparent.mobile.domain.entities.User;
 import com.feri.watchmyparent.mobile.domain.repositories.MedicalProfileRepository;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.MedicalProfileDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.MedicalProfileEntity;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -18,16 +22,19 @@ import java.util.concurrent.Executors;
 public class MedicalProfileRepositoryImpl implements MedicalProfileRepository {
 
     private final MedicalProfileDao medicalProfileDao;
+    private final StorageWriter storageWriter;
     private final Executor executor = Executors.newFixedThreadPool(4);
+    private final List<ProfileChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     @Inject
-    public MedicalProfileRepositoryImpl(MedicalProfileDao medicalProfileDao) {
+    public MedicalProfileRepositoryImpl(MedicalProfileDao medicalProfileDao, StorageWriter storageWriter) {
         this.medicalProfileDao = medicalProfileDao;
+        this.storageWriter = storageWriter;
     }
 
     @Override
     public CompletableFuture<MedicalProfile> save(MedicalProfile medicalProfile) {
-        return CompletableFuture.supplyAsync(() -> {
+        return storageWriter.submit(Priority.NORMAL, () -> {
             try {
                 MedicalProfileEntity entity = convertToEntity(medicalProfile);
                 medicalProfileDao.insertMedicalProfile(entity);
@@ -37,7 +44,11 @@ public class MedicalProfileRepositoryImpl implements MedicalProfileRepository {
                 Log.e("MedicalProfileRepositoryImpl", "Error saving medical profile", e);
                 throw new RuntimeException("Failed to save medical profile", e);
             }
-        }, executor);
+        }).thenApply(saved -> {
+            // ✅ MODIFICAT: Listenerii află de profil abia după commit (intenția poate rula de mai multe ori)
+            notifySaved(saved);
+            return saved;
+        });
     }
 
     @Override
@@ -68,7 +79,7 @@ public class MedicalProfileRepositoryImpl implements MedicalProfileRepository {
 
     @Override
     public CompletableFuture<Void> delete(String id) {
-        return CompletableFuture.runAsync(() -> {
+        return storageWriter.execute(Priority.NORMAL, () -> {
             try {
                 medicalProfileDao.deleteMedicalProfileById(id);
                 Log.e("MedicalProfileRepositoryImpl", "Medical profile deleted: " + id);
@@ -76,7 +87,38 @@ public class MedicalProfileRepositoryImpl implements MedicalProfileRepository {
                 Log.e("MedicalProfileRepositoryImpl", "Error deleting medical profile", e);
                 throw new RuntimeException("Failed to delete medical profile", e);
             }
-        }, executor);
+        }).thenRun(() -> notifyDeleted(id));
+    }
+
+    @Override
+    public void addChangeListener(ProfileChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ProfileChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Un listener care aruncă nu trebuie să transforme o salvare reușită într-o eroare
+    private void notifySaved(MedicalProfile medicalProfile) {
+        for (ProfileChangeListener listener : changeListeners) {
+            try {
+                listener.onProfileSaved(medicalProfile);
+            } catch (Exception e) {
+                Log.e("MedicalProfileRepositoryImpl", "Profile change listener failed", e);
+            }
+        }
+    }
+
+    private void notifyDeleted(String id) {
+        for (ProfileChangeListener listener : changeListeners) {
+            try {
+                listener.onProfileDeleted(id);
+            } catch (Exception e) {
+                Log.e("MedicalProfileRepositoryImpl", "Profile change listener failed", e);
+            }
+        }
     }
 
     private MedicalProfileEntity convertToEntity(MedicalProfile profile) {
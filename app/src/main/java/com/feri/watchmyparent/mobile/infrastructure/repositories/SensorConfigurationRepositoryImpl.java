@@ -6,6 +6,8 @@ import com.feri.watchmyparent.mobile.domain.entities.SensorConfiguration;
 import com.feri.watchmyparent.mobile.domain.entities.User;
 import com.feri.watchmyparent.mobile.domain.repositories.SensorConfigurationRepository;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorConfigurationDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorConfigurationEntity;
 import javax.inject.Inject;
@@ -21,16 +23,18 @@ import java.util.stream.Collectors;
 public class SensorConfigurationRepositoryImpl implements SensorConfigurationRepository {
 
     private final SensorConfigurationDao configurationDao;
+    private final StorageWriter storageWriter;
     private final Executor executor = Executors.newFixedThreadPool(4);
 
     @Inject
-    public SensorConfigurationRepositoryImpl(SensorConfigurationDao configurationDao) {
+    public SensorConfigurationRepositoryImpl(SensorConfigurationDao configurationDao, StorageWriter storageWriter) {
         this.configurationDao = configurationDao;
+        this.storageWriter = storageWriter;
     }
 
     @Override
     public CompletableFuture<SensorConfiguration> save(SensorConfiguration configuration) {
-        return CompletableFuture.supplyAsync(() -> {
+        return storageWriter.submit(Priority.NORMAL, () -> {
             try {
                 SensorConfigurationEntity entity = convertToEntity(configuration);
                 configurationDao.insertSensorConfiguration(entity);
@@ -40,7 +44,7 @@ public class SensorConfigurationRepositoryImpl implements SensorConfigurationRep
                 Log.e("SensorConfigurationRepository", "Error saving sensor configuration", e);
                 throw new RuntimeException("Failed to save sensor configuration", e);
             }
-        }, executor);
+        });
     }
 
     @Override
@@ -73,7 +77,7 @@ public class SensorConfigurationRepositoryImpl implements SensorConfigurationRep
 
     @Override
     public CompletableFuture<Void> delete(String id) {
-        return CompletableFuture.runAsync(() -> {
+        return storageWriter.execute(Priority.NORMAL, () -> {
             try {
                 configurationDao.deleteSensorConfigurationById(id);
                 Log.d("SensorConfigurationRepository", "Sensor configuration deleted: " + id);
@@ -81,7 +85,7 @@ public class SensorConfigurationRepositoryImpl implements SensorConfigurationRep
                 Log.e("SensorConfigurationRepository", "Error deleting sensor configuration", e);
                 throw new RuntimeException("Failed to delete sensor configuration", e);
             }
-        }, executor);
+        });
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.feri.watchmyparent.mobile.infrastructure.repositories;
 
+import android.database.Cursor;
 import android.util.Log;
 
 import com.feri.watchmyparent.mobile.domain.entities.SensorData;
@@ -8,40 +9,147 @@ import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
 import com.feri.watchmyparent.mobile.domain.repositories.UserRepository;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
 import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryKey;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryQuery;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorSeries;
+import com.feri.watchmyparent.mobile.infrastructure.database.ReactiveQueries;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorArchive;
+import com.feri.watchmyparent.mobile.infrastructure.database.SeriesDownsampler;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
+import com.feri.watchmyparent.mobile.infrastructure.database.WriteBehindBuffer;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorDataDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorRollupDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorDataEntity;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorRollupEntity;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 @Singleton
 public class SensorDataRepositoryImpl implements SensorDataRepository{
 
+    // ✅ NEW: Write-behind implicit - salvările se adună cel mult 2 s sau 64 de citiri (un tick are 17 senzori)
+    public static final long DEFAULT_WRITE_BEHIND_MS = 2000;
+    public static final int DEFAULT_WRITE_BEHIND_MAX = 64;
+
     private final SensorDataDao sensorDataDao;
+    // ✅ NEW: Rollup-urile de 5 minute, ținute la zi în aceeași tranzacție cu citirile
+    private final SensorRollupDao sensorRollupDao;
+    // ✅ NEW: Zilele vechi sigilate în arhiva comprimată - citite de findSeries împreună cu rândurile din sensor_data
+    private final SensorArchive sensorArchive;
+    private final StorageWriter storageWriter;
     private final Executor executor = Executors.newFixedThreadPool(4);
+    // null = write-behind dezactivat, fiecare save() e o intenție de scriere separată
+    private final WriteBehindBuffer<SensorData> writeBehind;
+    // ✅ NEW: Query-urile observabile sunt partajate între ecrane
+    private final ReactiveQueries reactiveQueries;
 
     @Inject
-    public SensorDataRepositoryImpl(SensorDataDao sensorDataDao) {
+    public SensorDataRepositoryImpl(SensorDataDao sensorDataDao, SensorRollupDao sensorRollupDao,
+                                    SensorArchive sensorArchive, StorageWriter storageWriter,
+                                    ReactiveQueries reactiveQueries) {
+        this(sensorDataDao, sensorRollupDao, sensorArchive, storageWriter, reactiveQueries,
+                DEFAULT_WRITE_BEHIND_MS, DEFAULT_WRITE_BEHIND_MAX);
+    }
+
+    // writeBehindMs <= 0 dezactivează buffer-ul
+    public SensorDataRepositoryImpl(SensorDataDao sensorDataDao, SensorRollupDao sensorRollupDao,
+                                    SensorArchive sensorArchive, StorageWriter storageWriter,
+                                    ReactiveQueries reactiveQueries, long writeBehindMs, int writeBehindMax) {
         this.sensorDataDao = sensorDataDao;
+        this.sensorRollupDao = sensorRollupDao;
+        this.sensorArchive = sensorArchive;
+        this.storageWriter = storageWriter;
+        this.reactiveQueries = reactiveQueries;
+        if (writeBehindMs > 0) {
+            ScheduledExecutorService flushTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sensor-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Citirile CRITICAL nu stau în memorie: golesc imediat buffer-ul, cu prioritate la scriitor
+            this.writeBehind = new WriteBehindBuffer<>(this::saveAll,
+                    data -> StorageWriter.priorityOf(data.getSensorType()) == Priority.CRITICAL,
+                    writeBehindMs, writeBehindMax, flushTimer);
+        } else {
+            this.writeBehind = null;
+        }
     }
 
+    // ✅ MODIFICAT: Cu write-behind activ, future-ul se completează după flush-ul lotului din care face parte
     @Override
     public CompletableFuture<SensorData> save(SensorData sensorData) {
-        return CompletableFuture.supplyAsync(() -> {
+        if (writeBehind != null) {
+            return writeBehind.add(sensorData);
+        }
+        return storageWriter.submit(StorageWriter.priorityOf(sensorData.getSensorType()), () -> {
             try {
                 SensorDataEntity entity = convertToEntity(sensorData);
                 sensorDataDao.insertSensorData(entity);
+                refreshRollups(Collections.singletonList(entity));
                 Log.d("SensorDataRepositoryImpl", "Sensor data saved: " + sensorData.getSensorType() + " for user " + sensorData.getUser().getIdUser());
                 return sensorData;
             } catch (Exception e) {
                 Log.e("SensorDataRepositoryImpl", "Error saving sensor data", e);
                 throw new RuntimeException("Failed to save sensor data", e);
             }
-        }, executor);
+        });
+    }
+
+    // ✅ NEW: Un singur @Insert pe listă, într-o singură intenție de scriere (CRITICAL dacă lotul are o citire critică)
+    @Override
+    public CompletableFuture<List<SensorData>> saveAll(List<SensorData> sensorData) {
+        if (sensorData.isEmpty()) {
+            return CompletableFuture.completedFuture(sensorData);
+        }
+        Priority priority = Priority.NORMAL;
+        for (SensorData data : sensorData) {
+            if (StorageWriter.priorityOf(data.getSensorType()) == Priority.CRITICAL) {
+                priority = Priority.CRITICAL;
+                break;
+            }
+        }
+        return storageWriter.submit(priority, () -> {
+            try {
+                List<SensorDataEntity> entities = new ArrayList<>(sensorData.size());
+                for (SensorData data : sensorData) {
+                    entities.add(convertToEntity(data));
+                }
+                sensorDataDao.insertAllSensorData(entities);
+                refreshRollups(entities);
+                Log.d("SensorDataRepositoryImpl", "Sensor data batch saved: " + entities.size() + " readings");
+                return sensorData;
+            } catch (Exception e) {
+                Log.e("SensorDataRepositoryImpl", "Error saving sensor data batch", e);
+                throw new RuntimeException("Failed to save sensor data batch", e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        if (writeBehind == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeBehind.flush().whenComplete((ignored, error) ->
+                Log.d("SensorDataRepositoryImpl", "💾 Write-behind flushed: " + writeBehind.getStatistics()));
+    }
+
+    public WriteBehindBuffer.FlushStatistics getWriteBehindStatistics() {
+        return writeBehind != null ? writeBehind.getStatistics() : new WriteBehindBuffer.FlushStatistics();
     }
 
     @Override
@@ -89,24 +197,70 @@ public class SensorDataRepositoryImpl implements SensorDataRepository{
         }, executor);
     }
 
+    // ✅ NEW: Room re-rulează query-ul la fiecare scriere în sensor_data (orice pacient); în UI ajung doar
+    // schimbările reale ale ultimelor citiri, cel mult una pe cadru
+    @Override
+    public Flowable<List<SensorData>> observeLatestByUserId(String userId) {
+        return reactiveQueries.shared("sensor_data/latest/" + userId, () -> reactiveQueries.throttleToFrame(
+                sensorDataDao.observeLatestSensorDataByUser(userId)
+                        .map(entities -> entities.stream()
+                                .map(this::convertToDomain)
+                                .collect(Collectors.toList()))
+                        .distinctUntilChanged(ReactiveQueries::sameLatestReadings)
+                        .doOnError(e -> Log.e("SensorDataRepositoryImpl", "Error observing latest sensor data", e))));
+    }
+
+    // Derivat din fluxul partajat al utilizatorului - nu deschide un query nou per senzor
+    @Override
+    public Flowable<SensorData> observeLatestByUserIdAndSensorType(String userId, SensorType sensorType) {
+        return observeLatestByUserId(userId)
+                .concatMapIterable(readings -> readings.stream()
+                        .filter(reading -> reading.getSensorType() == sensorType)
+                        .collect(Collectors.toList()))
+                .distinctUntilChanged(ReactiveQueries::sameReading);
+    }
+
     @Override
     public CompletableFuture<Void> delete(String id) {
-        return CompletableFuture.runAsync(() -> {
+        return storageWriter.execute(Priority.NORMAL, () -> {
             try {
+                SensorDataEntity deleted = sensorDataDao.getSensorDataById(id);
                 sensorDataDao.deleteSensorDataById(id);
+                if (deleted != null) {
+                    refreshRollups(Collections.singletonList(deleted));
+                }
                 Log.d("SensorDataRepositoryImpl", "Sensor data deleted: " + id);
             } catch (Exception e) {
                 Log.e("SensorDataRepositoryImpl", "Error deleting sensor data", e);
                 throw new RuntimeException("Failed to delete sensor data", e);
             }
-        }, executor);
+        });
     }
 
+    // ✅ NEW: Un singur UPDATE pe lot; rândurile trebuie să fie deja scrise (apelantul așteaptă future-ul din save)
     @Override
-    public CompletableFuture<List<SensorData>> findPendingTransmissions() {
+    public CompletableFuture<Void> updateTransmissionStatus(List<String> ids, TransmissionStatus status,
+                                                            LocalDateTime transmissionTime) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return storageWriter.execute(Priority.NORMAL, () -> {
+            try {
+                int updated = sensorDataDao.updateTransmissionStatus(ids, status, transmissionTime);
+                Log.d("SensorDataRepositoryImpl", "Transmission status " + status + ": " + updated + "/" + ids.size()
+                        + " readings");
+            } catch (Exception e) {
+                Log.e("SensorDataRepositoryImpl", "Error updating transmission status", e);
+                throw new RuntimeException("Failed to update transmission status", e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<SensorData>> findPendingTransmissions(int limit) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                List<SensorDataEntity> entities = sensorDataDao.getPendingTransmissions(
+                List<SensorDataEntity> entities = sensorDataDao.getPendingTransmissions(limit,
                         TransmissionStatus.PENDING, TransmissionStatus.FAILED);
                 return entities.stream()
                         .map(this::convertToDomain)
@@ -119,27 +273,173 @@ public class SensorDataRepositoryImpl implements SensorDataRepository{
     }
 
     // Metodă nouă implementată pentru DashboardViewModel
+    // ✅ MODIFICAT: LIMIT în query - nu mai încarcă tot istoricul utilizatorului ca să păstreze primele rânduri
     @Override
     public CompletableFuture<List<SensorData>> findByUserId(String userId, int limit) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                List<SensorDataEntity> entities = sensorDataDao.getAllSensorDataByUser(userId);
+                List<SensorDataEntity> entities = sensorDataDao.getSensorDataByUserWithLimit(userId, limit);
+                return entities.stream()
+                        .map(this::convertToDomain)
+                        .collect(Collectors.toList());
+            } catch (Exception e) {
+                Log.e("SensorDataRepositoryImpl", "Error finding sensor data by user with limit", e);
+                throw new RuntimeException("Failed to find sensor data", e);
+            }
+        }, executor);
+    }
 
-                // Limitează rezultatele la primul număr specificat
-                List<SensorDataEntity> limitedEntities = entities.stream()
-                        .limit(limit)
+    @Override
+    public CompletableFuture<List<SensorData>> findHistoryOlder(SensorHistoryQuery query, SensorHistoryKey after, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                // Prima pagină: cheia (to, "") - strict înainte de capătul intervalului
+                LocalDateTime beforeTimestamp = after != null ? after.getTimestamp() : query.getTo();
+                String beforeId = after != null ? after.getIdSensorData() : "";
+                List<SensorDataEntity> entities = query.hasSensorType()
+                        ? sensorDataDao.getSensorDataPageOlderByType(query.getUserId(), query.getSensorType(),
+                                query.getFrom(), beforeTimestamp, beforeId, limit)
+                        : sensorDataDao.getSensorDataPageOlder(query.getUserId(), query.getFrom(),
+                                beforeTimestamp, beforeId, limit);
+                return entities.stream()
+                        .map(this::convertToDomain)
                         .collect(Collectors.toList());
+            } catch (Exception e) {
+                Log.e("SensorDataRepositoryImpl", "Error loading sensor history page: " + query, e);
+                throw new RuntimeException("Failed to load sensor history", e);
+            }
+        }, executor);
+    }
 
-                return limitedEntities.stream()
+    @Override
+    public CompletableFuture<List<SensorData>> findHistoryNewer(SensorHistoryQuery query, SensorHistoryKey before, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                // Fără cheie: de la începutul intervalului
+                LocalDateTime afterTimestamp = before != null ? before.getTimestamp() : query.getFrom();
+                String afterId = before != null ? before.getIdSensorData() : "";
+                List<SensorDataEntity> entities = query.hasSensorType()
+                        ? sensorDataDao.getSensorDataPageNewerByType(query.getUserId(), query.getSensorType(),
+                                query.getTo(), afterTimestamp, afterId, limit)
+                        : sensorDataDao.getSensorDataPageNewer(query.getUserId(), query.getTo(),
+                                afterTimestamp, afterId, limit);
+                List<SensorData> page = entities.stream()
                         .map(this::convertToDomain)
                         .collect(Collectors.toList());
+                // Query-ul citește crescător de la cheie; istoricul se afișează descrescător
+                Collections.reverse(page);
+                return page;
             } catch (Exception e) {
-                Log.e("SensorDataRepositoryImpl", "Error finding sensor data by user with limit", e);
-                throw new RuntimeException("Failed to find sensor data", e);
+                Log.e("SensorDataRepositoryImpl", "Error loading sensor history page: " + query, e);
+                throw new RuntimeException("Failed to load sensor history", e);
+            }
+        }, executor);
+    }
+
+    // ✅ NEW: Seria pentru grafic, redusă la cel mult maxPoints puncte. Intervalele scurte citesc rândurile brute
+    // (LTTB), cele lungi rollup-urile de 5 minute (min-max); ambele trec o singură dată prin cursor
+    @Override
+    public CompletableFuture<SensorSeries> findSeries(String userId, SensorType sensorType,
+                                                      LocalDateTime from, LocalDateTime to, int maxPoints) {
+        SeriesDownsampler.checkMaxPoints(maxPoints);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Empty series range: " + from + " - " + to);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                SensorSeries series = SeriesDownsampler.useRollups(from, to, maxPoints)
+                        ? readRollupSeries(userId, sensorType, from, to, maxPoints)
+                        : readRawSeries(userId, sensorType, from, to, maxPoints);
+                Log.d("SensorDataRepositoryImpl", "📈 " + series + " in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+                return series;
+            } catch (Exception e) {
+                Log.e("SensorDataRepositoryImpl", "Error loading sensor series: " + sensorType + " for user " + userId, e);
+                throw new RuntimeException("Failed to load sensor series", e);
             }
         }, executor);
     }
 
+    private SensorSeries readRawSeries(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to,
+                                       int maxPoints) {
+        // ✅ MODIFICAT: Zilele arhivate vin din chunk-uri, restul din sensor_data; ambele surse sunt crescătoare
+        SeriesDownsampler.RawSeries archived = new SeriesDownsampler.RawSeries();
+        sensorArchive.read(userId, sensorType, from, to,
+                (epochMillis, value, unit, deviceId) -> archived.add(Math.floorDiv(epochMillis, 1000L), value));
+        SeriesDownsampler.RawSeries raw = new SeriesDownsampler.RawSeries();
+        try (Cursor cursor = sensorDataDao.getSensorDataSeries(userId, sensorType, from, to)) {
+            while (cursor.moveToNext()) {
+                raw.add(cursor.getLong(0), cursor.getDouble(1));
+            }
+        }
+        return SeriesDownsampler.RawSeries.merge(archived, raw).toSeries(sensorType, from, to, maxPoints);
+    }
+
+    private SensorSeries readRollupSeries(String userId, SensorType sensorType, LocalDateTime from, LocalDateTime to,
+                                          int maxPoints) {
+        SeriesDownsampler.MinMaxBuckets buckets = new SeriesDownsampler.MinMaxBuckets(from, to, maxPoints);
+        // Bucket-ul de rollup care conține `from` începe înaintea lui
+        try (Cursor cursor = sensorRollupDao.getRollupSeries(userId, sensorType,
+                SeriesDownsampler.rollupBucketStart(from), to)) {
+            while (cursor.moveToNext()) {
+                buckets.add(cursor.getLong(0), cursor.getDouble(1), cursor.getDouble(2));
+            }
+        }
+        return buckets.toSeries(sensorType, from, to);
+    }
+
+    // ✅ NEW: Recalculează din sensor_data fiecare bucket de 5 minute atins de scriere (o dată per bucket, nu per
+    // citire). Rulează pe thread-ul scriitorului, în aceeași tranzacție cu insert-ul / delete-ul
+    // ✅ MODIFICAT: Într-o zi deja sigilată punctele bucket-ului sunt în chunk, nu în sensor_data - o citire
+    // întârziată nu trebuie să înlocuiască rollup-ul zilei cu doar rândul ei
+    private void refreshRollups(List<SensorDataEntity> entities) {
+        Map<String, SensorDataEntity> buckets = new LinkedHashMap<>();
+        for (SensorDataEntity entity : entities) {
+            if (entity.userId == null || entity.sensorType == null || entity.timestamp == null) continue;
+            LocalDateTime bucketStart = SeriesDownsampler.rollupBucketStart(entity.timestamp);
+            buckets.putIfAbsent(entity.userId + "|" + entity.sensorType + "|" + bucketStart, entity);
+        }
+        for (SensorDataEntity entity : buckets.values()) {
+            LocalDateTime bucketStart = SeriesDownsampler.rollupBucketStart(entity.timestamp);
+            LocalDateTime bucketEnd = bucketStart.plusMinutes(SeriesDownsampler.ROLLUP_BUCKET_MINUTES);
+            sensorRollupDao.deleteRollup(entity.userId, entity.sensorType, bucketStart);
+            SensorRollupEntity archived = archivedRollup(entity.userId, entity.sensorType, bucketStart, bucketEnd);
+            if (archived == null) {
+                sensorRollupDao.insertRollupFromSensorData(entity.userId, entity.sensorType, bucketStart, bucketEnd);
+                continue;
+            }
+            try (Cursor cursor = sensorDataDao.getSensorDataSeries(entity.userId, entity.sensorType,
+                    bucketStart, bucketEnd)) {
+                while (cursor.moveToNext()) {
+                    addToRollup(archived, cursor.getDouble(1));
+                }
+            }
+            sensorRollupDao.insertRollup(archived);
+        }
+    }
+
+    // Agregatul punctelor arhivate din bucket, sau null dacă ziua nu are chunk (cazul obișnuit - o citire recentă)
+    private SensorRollupEntity archivedRollup(String userId, SensorType sensorType, LocalDateTime bucketStart,
+                                              LocalDateTime bucketEnd) {
+        SensorRollupEntity rollup = new SensorRollupEntity();
+        rollup.userId = userId;
+        rollup.sensorType = sensorType;
+        rollup.bucketStart = bucketStart;
+        rollup.minValue = Double.POSITIVE_INFINITY;
+        rollup.maxValue = Double.NEGATIVE_INFINITY;
+        int points = sensorArchive.read(userId, sensorType, bucketStart, bucketEnd,
+                (epochMillis, value, unit, deviceId) -> addToRollup(rollup, value));
+        return points > 0 ? rollup : null;
+    }
+
+    private static void addToRollup(SensorRollupEntity rollup, double value) {
+        rollup.minValue = Math.min(rollup.minValue, value);
+        rollup.maxValue = Math.max(rollup.maxValue, value);
+        rollup.sumValue += value;
+        rollup.sampleCount++;
+    }
+
     private SensorDataEntity convertToEntity(SensorData sensorData) {
         SensorDataEntity entity = new SensorDataEntity();
         entity.idSensorData = sensorData.getIdSensorData();
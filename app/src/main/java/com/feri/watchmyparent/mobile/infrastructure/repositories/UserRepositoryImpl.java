@@ -5,6 +5,8 @@ import android.util.Log;
 import com.feri.watchmyparent.mobile.domain.entities.User;
 import com.feri.watchmyparent.mobile.domain.enums.UserType;
 import com.feri.watchmyparent.mobile.domain.repositories.UserRepository;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
 import com.feri.watchmyparent.mobile.infrastructure.database.dao.UserDao;
 import com.feri.watchmyparent.mobile.infrastructure.database.entities.UserEntity;
 import javax.inject.Inject;
@@ -18,16 +20,18 @@ import java.util.concurrent.Executors;
 public class UserRepositoryImpl implements UserRepository{
 
     private final UserDao userDao;
+    private final StorageWriter storageWriter;
     private final Executor executor = Executors.newFixedThreadPool(4);
 
     @Inject
-    public UserRepositoryImpl(UserDao userDao) {
+    public UserRepositoryImpl(UserDao userDao, StorageWriter storageWriter) {
         this.userDao = userDao;
+        this.storageWriter = storageWriter;
     }
 
     @Override
     public CompletableFuture<User> save(User user) {
-        return CompletableFuture.supplyAsync(() -> {
+        return storageWriter.submit(Priority.NORMAL, () -> {
             try {
                 UserEntity entity = convertToEntity(user);
                 userDao.insertUser(entity);
@@ -37,7 +41,7 @@ public class UserRepositoryImpl implements UserRepository{
                 Log.e("UserRepositoryImpl", "Error saving user: " + user.getIdUser(), e);
                 throw new RuntimeException("Failed to save user", e);
             }
-        }, executor);
+        });
     }
 
     @Override
@@ -106,7 +110,7 @@ public class UserRepositoryImpl implements UserRepository{
 
     @Override
     public CompletableFuture<Void> delete(String id) {
-        return CompletableFuture.runAsync(() -> {
+        return storageWriter.execute(Priority.NORMAL, () -> {
             try {
                 userDao.deleteUserById(id);
                 Log.d("UserRepositoryImpl", "User deleted successfully: " + id);
@@ -114,7 +118,7 @@ public class UserRepositoryImpl implements UserRepository{
                 Log.e("UserRepositoryImpl", "Error deleting user: " + id, e);
                 throw new RuntimeException("Failed to delete user", e);
             }
-        }, executor);
+        });
     }
 
     @Override
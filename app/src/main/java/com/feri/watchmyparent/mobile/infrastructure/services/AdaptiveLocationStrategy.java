@@ -0,0 +1,398 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// Strategie de achiziție a locației în funcție de mișcare: în loc de un fix HIGH_ACCURACY la fiecare
+// 10 minute, alege prioritatea și intervalul din semnalele de mișcare deja colectate (pași, accelerometru),
+// din deplasarea între fix-uri (prag de 50m, ca isSignificantLocationChange) și din distanța până la
+// cea mai apropiată margine de zonă sigură. GPS-ul precis rulează doar aproape de margini, unde o
+// tranziție poate apărea în următoarele secunde.
+@Singleton
+public class AdaptiveLocationStrategy {
+
+    private static final String TAG = "AdaptiveLocationStrategy";
+
+    public enum Mode { STATIONARY_PASSIVE, STATIONARY, WALKING, VEHICLE, NEAR_ZONE_EDGE }
+
+    // Mapate pe com.google.android.gms.location.Priority de LocationServiceAdapter
+    public enum Accuracy { HIGH, BALANCED, LOW_POWER, PASSIVE }
+
+    // Praguri
+    public static final double SIGNIFICANT_CHANGE_METERS = 50.0;
+    public static final double ZONE_EDGE_METERS = 150.0;
+    private static final double WALKING_STEPS_PER_MINUTE = 20.0;
+    private static final double LINEAR_ACCELERATION_ACTIVE = 0.6; // m/s²
+    private static final double GRAVITY = 9.81;
+    private static final double ACCELEROMETER_ACTIVE_DELTA = 0.8; // m/s² față de gravitație
+    private static final double VEHICLE_SPEED_MPS = 7.0;          // ~25 km/h
+    private static final double WALKING_SPEED_MPS = 1.4;
+    private static final long MOTION_SIGNAL_TTL_MS = 5 * 60 * 1000;   // semnale mai vechi = mișcare necunoscută
+    private static final long MOVING_HOLD_MS = 3 * 60 * 1000;         // ~1.5 eșantioane IMPORTANT (2 min)
+    private static final long DISPLACEMENT_HOLD_MS = 3 * 60 * 1000;
+    private static final long STATIONARY_CONFIRM_MS = 10 * 60 * 1000;
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private final GeofenceEngine geofenceEngine;
+    private volatile String userId; // ✅ MODIFICAT: urmează pacientul asociat ceasului (PatientRegistry)
+    private final CopyOnWriteArrayList<PlanListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Starea mișcării - accesată sub lock-ul obiectului
+    private long lastMotionActiveMs = 0;
+    private long lastMotionSignalMs = 0;
+    private double lastStepCount = -1;
+    private long lastStepTimestampMs = 0;
+
+    // Ultimul fix și ancora pentru schimbări semnificative
+    private boolean hasFix = false;
+    private double lastLatitude;
+    private double lastLongitude;
+    private double lastAccuracyMeters;
+    private double lastSpeedMps = Double.NaN;
+    private long lastFixMs;
+    private double anchorLatitude;
+    private double anchorLongitude;
+    private long anchorSinceMs;
+    private double lastEdgeDistanceMeters = Double.POSITIVE_INFINITY;
+
+    private LocationPlan currentPlan;
+    private long planSinceMs;
+
+    // Statistici
+    private final Map<Mode, Long> timeInModeMs = new EnumMap<>(Mode.class);
+    private long planChanges = 0;
+    private long fixesReceived = 0;
+    private long significantFixes = 0;
+
+    public interface PlanListener {
+        void onPlanChanged(LocationPlan plan);
+    }
+
+    @Inject
+    public AdaptiveLocationStrategy(GeofenceEngine geofenceEngine, PatientRegistry patientRegistry) {
+        this(geofenceEngine, patientRegistry.getPrimaryUserId());
+        patientRegistry.addListener((previousUserId, previousDeviceId, newUserId, deviceId) -> userId = newUserId);
+    }
+
+    public AdaptiveLocationStrategy(GeofenceEngine geofenceEngine, String userId) {
+        this.geofenceEngine = geofenceEngine;
+        this.userId = userId;
+        long now = System.currentTimeMillis();
+        this.currentPlan = planFor(Mode.STATIONARY, Double.POSITIVE_INFINITY, Double.NaN);
+        this.planSinceMs = now;
+        this.anchorSinceMs = now;
+        Log.d(TAG, "✅ Adaptive location strategy for user " + userId + ": " + currentPlan);
+    }
+
+    public void addListener(PlanListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PlanListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ========== INPUTS ==========
+
+    // Citiri de pe ceas (STEP_COUNT, ACCELEROMETER, LINEAR_ACCELERATION); restul sunt ignorate
+    public void onSensorReading(SensorReading reading) {
+        if (reading == null || reading.getSensorType() == null) {
+            return;
+        }
+        long timestampMs = reading.getTimestamp() != null
+                ? reading.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        onMotionSample(reading.getSensorType(), reading.getValue(), timestampMs);
+    }
+
+    public void onMotionSample(SensorType type, double value, long timestampMs) {
+        LocationPlan changed;
+        synchronized (this) {
+            boolean active;
+            switch (type) {
+                case STEP_COUNT:
+                    // Contor cumulativ - rata pașilor din diferența față de citirea anterioară
+                    active = false;
+                    if (lastStepCount >= 0 && value >= lastStepCount && timestampMs > lastStepTimestampMs) {
+                        double minutes = (timestampMs - lastStepTimestampMs) / 60000.0;
+                        active = (value - lastStepCount) / minutes >= WALKING_STEPS_PER_MINUTE;
+                    }
+                    lastStepCount = value;
+                    lastStepTimestampMs = timestampMs;
+                    break;
+                case LINEAR_ACCELERATION:
+                    active = Math.abs(value) >= LINEAR_ACCELERATION_ACTIVE;
+                    break;
+                case ACCELEROMETER:
+                    active = Math.abs(value - GRAVITY) >= ACCELEROMETER_ACTIVE_DELTA;
+                    break;
+                default:
+                    return;
+            }
+
+            lastMotionSignalMs = Math.max(lastMotionSignalMs, timestampMs);
+            if (active) {
+                lastMotionActiveMs = Math.max(lastMotionActiveMs, timestampMs);
+            }
+            changed = reevaluate(timestampMs);
+        }
+        notifyIfChanged(changed);
+    }
+
+    // Fix primit de la FusedLocationProvider; speedMps = NaN dacă nu e disponibil.
+    // Întoarce true dacă fix-ul e o schimbare semnificativă (sau suntem lângă o margine de zonă)
+    public boolean onLocation(double latitude, double longitude, double accuracyMeters, double speedMps, long timestampMs) {
+        LocationPlan changed;
+        boolean deliver;
+        synchronized (this) {
+            fixesReceived++;
+            double edgeDistance = geofenceEngine != null
+                    ? geofenceEngine.distanceToNearestBoundaryMeters(userId, latitude, longitude)
+                    : Double.POSITIVE_INFINITY;
+
+            boolean significant = !hasFix
+                    || distanceMeters(anchorLatitude, anchorLongitude, latitude, longitude) > SIGNIFICANT_CHANGE_METERS;
+            if (Double.isNaN(speedMps) && hasFix && timestampMs > lastFixMs) {
+                speedMps = distanceMeters(lastLatitude, lastLongitude, latitude, longitude)
+                        / ((timestampMs - lastFixMs) / 1000.0);
+            }
+
+            if (significant) {
+                significantFixes++;
+                anchorLatitude = latitude;
+                anchorLongitude = longitude;
+                anchorSinceMs = timestampMs;
+            }
+
+            hasFix = true;
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+            lastAccuracyMeters = accuracyMeters;
+            lastSpeedMps = speedMps;
+            lastFixMs = timestampMs;
+            lastEdgeDistanceMeters = edgeDistance;
+
+            // Lângă margine fiecare fix contează pentru detecția tranziției
+            deliver = significant || edgeDistance <= ZONE_EDGE_METERS + accuracyMeters;
+            changed = reevaluate(timestampMs);
+        }
+        notifyIfChanged(changed);
+        return deliver;
+    }
+
+    // Re-evaluare periodică (semnalele de mișcare expiră chiar dacă nu mai vin citiri)
+    public LocationPlan refresh(long nowMs) {
+        LocationPlan changed;
+        synchronized (this) {
+            changed = reevaluate(nowMs);
+        }
+        notifyIfChanged(changed);
+        return getCurrentPlan();
+    }
+
+    // ========== DECISION ==========
+
+    private LocationPlan reevaluate(long nowMs) {
+        Mode mode = decideMode(nowMs);
+        LocationPlan plan = planFor(mode, lastEdgeDistanceMeters, lastSpeedMps);
+        if (plan.equals(currentPlan)) {
+            return null;
+        }
+        accumulateModeTime(nowMs);
+        Log.d(TAG, "🔄 Location plan " + currentPlan.mode + " → " + plan);
+        currentPlan = plan;
+        planChanges++;
+        return plan;
+    }
+
+    private Mode decideMode(long nowMs) {
+        boolean motionKnown = nowMs - lastMotionSignalMs <= MOTION_SIGNAL_TTL_MS;
+        boolean moving = nowMs - lastMotionActiveMs <= MOVING_HOLD_MS;
+        boolean displaced = hasFix && nowMs - anchorSinceMs < DISPLACEMENT_HOLD_MS && significantFixes > 1;
+
+        if (!moving && !displaced) {
+            // Staționar confirmat: pasiv doar dacă semnalele de mișcare sunt proaspete - ele ne trezesc
+            // la prima mișcare, deci o ieșire din zonă nu poate trece neobservată
+            if (motionKnown && hasFix && nowMs - anchorSinceMs >= STATIONARY_CONFIRM_MS) {
+                return Mode.STATIONARY_PASSIVE;
+            }
+            return Mode.STATIONARY;
+        }
+        // HIGH_ACCURACY doar când fix-urile confirmă deplasarea - pașii prin casă nu pornesc GPS-ul precis
+        if (displaced && lastEdgeDistanceMeters <= ZONE_EDGE_METERS + lastAccuracyMeters) {
+            return Mode.NEAR_ZONE_EDGE;
+        }
+        if (!Double.isNaN(lastSpeedMps) && lastSpeedMps >= VEHICLE_SPEED_MPS) {
+            return Mode.VEHICLE;
+        }
+        return Mode.WALKING;
+    }
+
+    static LocationPlan planFor(Mode mode, double edgeDistanceMeters, double speedMps) {
+        switch (mode) {
+            case STATIONARY_PASSIVE:
+                // Doar fix-urile cerute de alte aplicații + un fix ieftin rar
+                return new LocationPlan(mode, Accuracy.PASSIVE, 15 * 60_000L, 5 * 60_000L, 0, SIGNIFICANT_CHANGE_METERS);
+            case STATIONARY:
+                return new LocationPlan(mode, Accuracy.BALANCED, 10 * 60_000L, 5 * 60_000L, 0, SIGNIFICANT_CHANGE_METERS);
+            case NEAR_ZONE_EDGE:
+                // Fără batching - tranziția trebuie văzută imediat
+                return new LocationPlan(mode, Accuracy.HIGH, 15_000L, 5_000L, 0, 0);
+            case VEHICLE:
+            case WALKING:
+            default: {
+                double speed = Double.isNaN(speedMps) || speedMps < WALKING_SPEED_MPS ? WALKING_SPEED_MPS : speedMps;
+                long interval = mode == Mode.VEHICLE ? 30_000L : 60_000L;
+                // Batch-ul nu poate depăși jumătate din timpul până la cea mai apropiată margine
+                long maxDelay = 5 * 60_000L;
+                if (!Double.isInfinite(edgeDistanceMeters)) {
+                    long untilEdgeMs = (long) (Math.max(0, edgeDistanceMeters - ZONE_EDGE_METERS) / speed * 1000 / 2);
+                    maxDelay = Math.min(maxDelay, untilEdgeMs);
+                }
+                // Cuantificat la minute întregi ca să nu re-programăm request-ul la fiecare fix
+                maxDelay = maxDelay >= 2 * interval ? (maxDelay / 60_000L) * 60_000L : 0;
+                return new LocationPlan(mode, Accuracy.BALANCED, interval, interval / 2, maxDelay, 25);
+            }
+        }
+    }
+
+    private void accumulateModeTime(long nowMs) {
+        long elapsed = Math.max(0, nowMs - planSinceMs);
+        Long previous = timeInModeMs.get(currentPlan.mode);
+        timeInModeMs.put(currentPlan.mode, (previous != null ? previous : 0L) + elapsed);
+        planSinceMs = nowMs;
+    }
+
+    private void notifyIfChanged(LocationPlan changed) {
+        if (changed == null) {
+            return;
+        }
+        for (PlanListener listener : listeners) {
+            try {
+                listener.onPlanChanged(changed);
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Location plan listener failed", e);
+            }
+        }
+    }
+
+    private static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dy = (lat2 - lat1) * METERS_PER_DEGREE_LAT;
+        double dx = (lng2 - lng1) * METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    public synchronized LocationPlan getCurrentPlan() {
+        return currentPlan;
+    }
+
+    public synchronized double getLastAccuracyMeters() {
+        return lastAccuracyMeters;
+    }
+
+    // ========== PLAN ==========
+
+    public static final class LocationPlan {
+        public final Mode mode;
+        public final Accuracy accuracy;
+        public final long intervalMs;
+        public final long minUpdateIntervalMs;
+        public final long maxUpdateDelayMs; // 0 = fără batching
+        public final double minUpdateDistanceMeters;
+
+        LocationPlan(Mode mode, Accuracy accuracy, long intervalMs, long minUpdateIntervalMs,
+                     long maxUpdateDelayMs, double minUpdateDistanceMeters) {
+            this.mode = mode;
+            this.accuracy = accuracy;
+            this.intervalMs = intervalMs;
+            this.minUpdateIntervalMs = minUpdateIntervalMs;
+            this.maxUpdateDelayMs = maxUpdateDelayMs;
+            this.minUpdateDistanceMeters = minUpdateDistanceMeters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LocationPlan that = (LocationPlan) o;
+            return intervalMs == that.intervalMs
+                    && minUpdateIntervalMs == that.minUpdateIntervalMs
+                    && maxUpdateDelayMs == that.maxUpdateDelayMs
+                    && Double.compare(that.minUpdateDistanceMeters, minUpdateDistanceMeters) == 0
+                    && mode == that.mode
+                    && accuracy == that.accuracy;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mode, accuracy, intervalMs, minUpdateIntervalMs, maxUpdateDelayMs, minUpdateDistanceMeters);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LocationPlan{%s, %s, interval=%ds, batch=%ds, minDistance=%.0fm}",
+                    mode, accuracy, intervalMs / 1000, maxUpdateDelayMs / 1000, minUpdateDistanceMeters);
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public synchronized AcquisitionStatistics getStatistics(long nowMs) {
+        AcquisitionStatistics stats = new AcquisitionStatistics();
+        for (Mode mode : Mode.values()) {
+            Long time = timeInModeMs.get(mode);
+            long total = time != null ? time : 0L;
+            if (mode == currentPlan.mode) {
+                total += Math.max(0, nowMs - planSinceMs);
+            }
+            stats.timeInModeMs.put(mode, total);
+        }
+        stats.currentPlan = currentPlan;
+        stats.planChanges = planChanges;
+        stats.fixesReceived = fixesReceived;
+        stats.significantFixes = significantFixes;
+        return stats;
+    }
+
+    public AcquisitionStatistics getStatistics() {
+        return getStatistics(System.currentTimeMillis());
+    }
+
+    public static class AcquisitionStatistics {
+        public final Map<Mode, Long> timeInModeMs = new EnumMap<>(Mode.class);
+        public LocationPlan currentPlan;
+        public long planChanges = 0;
+        public long fixesReceived = 0;
+        public long significantFixes = 0;
+
+        public long getHighAccuracyMs() {
+            Long time = timeInModeMs.get(Mode.NEAR_ZONE_EDGE);
+            return time != null ? time : 0L;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder modes = new StringBuilder();
+            for (Map.Entry<Mode, Long> entry : timeInModeMs.entrySet()) {
+                if (modes.length() > 0) modes.append(", ");
+                modes.append(entry.getKey()).append('=').append(entry.getValue() / 60000).append("min");
+            }
+            return String.format("LocationAcquisition{mode=%s, changes=%d, fixes=%d (significant %d), " +
+                            "highAccuracy=%dmin, [%s]}",
+                    currentPlan != null ? currentPlan.mode : null, planChanges, fixesReceived, significantFixes,
+                    getHighAccuracyMs() / 60000, modes);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.entities.MedicalProfile;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.Medication;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+// Compilează un MedicalProfile în CompiledAlertRules: pornește de la pragurile implicite pentru vârstnici
+// (aliniate cu limitele din VitalSignsAnomalyDetector) și aplică regulile declanșate de afecțiuni,
+// medicație și istoricul atletic. Potrivirea se face pe cuvinte cheie (RO + EN, fără diacritice),
+// o singură dată per versiune de profil - nu per citire.
+public final class AlertRuleCompiler {
+
+    public static final int NIGHT_START_HOUR = 22;
+    public static final int NIGHT_END_HOUR = 6;
+
+    private static final int SENSOR_COUNT = SensorType.values().length;
+
+    // Medicație care scade frecvența cardiacă (beta-blocante, blocante de calciu non-DHP, digoxină, ...)
+    private static final String[] RATE_CONTROL_DRUGS = {"olol", "carvedilol", "labetalol", "diltiazem",
+            "verapamil", "digoxin", "ivabradin", "amiodaron"};
+    private static final String[] PACEMAKER = {"pacemaker", "stimulator cardiac"};
+    private static final String[] ATRIAL_FIBRILLATION = {"fibrilatie atriala", "atrial fibrillation", "afib"};
+    private static final String[] HYPERTHYROIDISM = {"hipertiroid", "hyperthyroid", "graves"};
+    private static final String[] CHRONIC_LUNG_DISEASE = {"bpoc", "copd", "emfizem", "emphysema",
+            "fibroza pulmonara", "pulmonary fibrosis"};
+    private static final String[] HYPERTENSION = {"hipertensiune", "hypertension"};
+    private static final String[] ANTIHYPERTENSIVE_DRUGS = {"pril", "sartan", "amlodipin", "nifedipin",
+            "furosemid", "hidroclorotiazid", "hydrochlorothiazide", "indapamid", "doxazosin", "tamsulosin"};
+    private static final String[] IMMUNOSUPPRESSION = {"imunosupr", "immunosuppress", "chimioterapie",
+            "chemotherapy", "transplant", "neutropeni"};
+    private static final String[] IMMUNOSUPPRESSIVE_DRUGS = {"prednison", "metotrexat", "methotrexate",
+            "tacrolimus", "ciclosporin", "cyclosporin", "azatioprin", "azathioprine", "micofenolat", "mycophenol"};
+    private static final String[] ANTIPYRETIC_DRUGS = {"paracetamol", "acetaminophen", "ibuprofen", "metamizol",
+            "algocalmin", "aspirin", "nurofen"};
+    private static final String[] ANXIETY = {"anxiet", "panic", "panica"};
+
+    private AlertRuleCompiler() {}
+
+    public static CompiledAlertRules compileDefaults(String userId, ZoneId zone, long nowMillis) {
+        return new Tables().build(userId, null, 0, zone, nowMillis, Long.MAX_VALUE);
+    }
+
+    public static CompiledAlertRules compile(MedicalProfile profile, ZoneId zone, long nowMillis) {
+        String userId = profile.getUser() != null ? profile.getUser().getIdUser() : null;
+        List<String> conditions = normalize(profile.getCurrentDiseases());
+        conditions.addAll(normalize(profile.getSensorModifyingConditions()));
+        LocalDate today = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        List<String> medications = activeMedications(profile.getMedications(), today);
+
+        Tables tables = new Tables();
+
+        // Frecvență cardiacă
+        if (profile.isHasAthleticHistory()) {
+            tables.lower(SensorType.HEART_RATE, CompiledAlertRules.WARNING_LOW, 42, 38);
+            tables.lower(SensorType.HEART_RATE, CompiledAlertRules.CRITICAL_LOW, 35, 35);
+            tables.note(SensorType.HEART_RATE, "athletic history");
+        }
+        String rateControl = firstMatch(medications, RATE_CONTROL_DRUGS);
+        if (rateControl != null) {
+            // Bradicardia e așteptată; tahicardia "scapă" de sub medicație și e mai relevantă
+            tables.lower(SensorType.HEART_RATE, CompiledAlertRules.WARNING_LOW, 45, 40);
+            tables.lower(SensorType.HEART_RATE, CompiledAlertRules.CRITICAL_LOW, 35, 35);
+            tables.set(SensorType.HEART_RATE, CompiledAlertRules.WARNING_HIGH, 90, 90);
+            tables.set(SensorType.HEART_RATE, CompiledAlertRules.CRITICAL_HIGH, 110, 110);
+            tables.note(SensorType.HEART_RATE, "rate control medication (" + rateControl + ")");
+        }
+        if (firstMatch(conditions, ATRIAL_FIBRILLATION) != null) {
+            tables.raise(SensorType.HEART_RATE, CompiledAlertRules.WARNING_HIGH, 110, 110);
+            tables.note(SensorType.HEART_RATE, "atrial fibrillation");
+        }
+        if (firstMatch(conditions, HYPERTHYROIDISM) != null) {
+            tables.raise(SensorType.HEART_RATE, CompiledAlertRules.WARNING_HIGH, 110, 110);
+            tables.note(SensorType.HEART_RATE, "hyperthyroidism");
+        }
+        if (firstMatch(conditions, PACEMAKER) != null) {
+            // Sub frecvența minimă programată înseamnă disfuncție - se aplică ultima, peste relaxările de mai sus
+            tables.set(SensorType.HEART_RATE, CompiledAlertRules.WARNING_LOW, 55, 55);
+            tables.set(SensorType.HEART_RATE, CompiledAlertRules.CRITICAL_LOW, 50, 50);
+            tables.note(SensorType.HEART_RATE, "pacemaker");
+        }
+
+        // Saturație oxigen
+        if (firstMatch(conditions, CHRONIC_LUNG_DISEASE) != null) {
+            tables.lower(SensorType.BLOOD_OXYGEN, CompiledAlertRules.WARNING_LOW, 88, 88);
+            tables.lower(SensorType.BLOOD_OXYGEN, CompiledAlertRules.CRITICAL_LOW, 85, 85);
+            tables.note(SensorType.BLOOD_OXYGEN, "chronic lung disease");
+        }
+
+        // Tensiune arterială (sistolică)
+        if (firstMatch(conditions, HYPERTENSION) != null) {
+            tables.raise(SensorType.BLOOD_PRESSURE, CompiledAlertRules.WARNING_HIGH, 160, 160);
+            tables.note(SensorType.BLOOD_PRESSURE, "known hypertension");
+        }
+        String antihypertensive = firstMatch(medications, ANTIHYPERTENSIVE_DRUGS);
+        if (antihypertensive != null) {
+            // Risc de hipotensiune (ortostatică) sub tratament
+            tables.raise(SensorType.BLOOD_PRESSURE, CompiledAlertRules.WARNING_LOW, 105, 105);
+            tables.raise(SensorType.BLOOD_PRESSURE, CompiledAlertRules.CRITICAL_LOW, 95, 95);
+            tables.note(SensorType.BLOOD_PRESSURE, "antihypertensive medication (" + antihypertensive + ")");
+        }
+
+        // Temperatură
+        String immunosuppression = firstMatch(conditions, IMMUNOSUPPRESSION);
+        if (immunosuppression == null) {
+            immunosuppression = firstMatch(medications, IMMUNOSUPPRESSIVE_DRUGS);
+        }
+        if (immunosuppression != null) {
+            tables.lower(SensorType.BODY_TEMPERATURE, CompiledAlertRules.WARNING_HIGH, 37.3, 37.3);
+            tables.lower(SensorType.BODY_TEMPERATURE, CompiledAlertRules.CRITICAL_HIGH, 37.8, 37.8);
+            tables.note(SensorType.BODY_TEMPERATURE, "immunosuppression (" + immunosuppression + ")");
+        }
+        String antipyretic = firstMatch(medications, ANTIPYRETIC_DRUGS);
+        if (antipyretic != null) {
+            // Antipireticele maschează febra - pragurile coboară față de cele deja stabilite
+            tables.shift(SensorType.BODY_TEMPERATURE, CompiledAlertRules.WARNING_HIGH, -0.3);
+            tables.shift(SensorType.BODY_TEMPERATURE, CompiledAlertRules.CRITICAL_HIGH, -0.3);
+            tables.note(SensorType.BODY_TEMPERATURE, "antipyretic medication (" + antipyretic + ")");
+        }
+
+        // Stres
+        if (firstMatch(conditions, ANXIETY) != null) {
+            tables.raise(SensorType.STRESS, CompiledAlertRules.WARNING_HIGH, 80, 80);
+            tables.raise(SensorType.STRESS, CompiledAlertRules.CRITICAL_HIGH, 92, 92);
+            tables.note(SensorType.STRESS, "anxiety disorder");
+        }
+
+        long version = profile.getUpdatedAt() != null
+                ? profile.getUpdatedAt().atZone(zone).toInstant().toEpochMilli() : 0;
+        // ✅ MODIFICAT: regulile expiră și la începutul primei medicații programate, ca să fie recompilate cu ea
+        return tables.build(userId, profile.getIdMedicalProfile(), version, zone, nowMillis,
+                nextMedicationStart(profile.getMedications(), today, zone));
+    }
+
+    private static List<String> activeMedications(Collection<Medication> medications, LocalDate today) {
+        List<String> names = new ArrayList<>();
+        if (medications == null) return names;
+        for (Medication medication : medications) {
+            if (medication == null || medication.getMedicationName() == null) continue;
+            // Medicația programată să înceapă în viitor nu modifică încă pragurile
+            if (medication.getMedicationStartDate() != null && medication.getMedicationStartDate().isAfter(today)) {
+                continue;
+            }
+            names.add(normalize(medication.getMedicationName()));
+        }
+        return names;
+    }
+
+    // Momentul (începutul zilei, în fusul pacientului) la care pornește cea mai apropiată medicație viitoare
+    private static long nextMedicationStart(Collection<Medication> medications, LocalDate today, ZoneId zone) {
+        LocalDate next = null;
+        if (medications != null) {
+            for (Medication medication : medications) {
+                if (medication == null || medication.getMedicationName() == null) continue;
+                LocalDate start = medication.getMedicationStartDate();
+                if (start != null && start.isAfter(today) && (next == null || start.isBefore(next))) {
+                    next = start;
+                }
+            }
+        }
+        return next != null ? next.atStartOfDay(zone).toInstant().toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    private static List<String> normalize(Collection<String> values) {
+        List<String> result = new ArrayList<>();
+        if (values == null) return result;
+        for (String value : values) {
+            if (value != null) result.add(normalize(value));
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+
+    // Returnează termenul din profil care a declanșat regula (pentru explicații), sau null
+    private static String firstMatch(List<String> terms, String[] keywords) {
+        for (String term : terms) {
+            for (String keyword : keywords) {
+                if (term.contains(keyword)) return term;
+            }
+        }
+        return null;
+    }
+
+    // Tabelele în construcție - se copiază în CompiledAlertRules la final
+    private static final class Tables {
+        private final double[] day = new double[SENSOR_COUNT * CompiledAlertRules.STRIDE];
+        private final double[] night = new double[SENSOR_COUNT * CompiledAlertRules.STRIDE];
+        private final String[] reasons = new String[SENSOR_COUNT];
+        private final List<String> applied = new ArrayList<>();
+
+        Tables() {
+            Arrays.fill(day, Double.NaN);
+            Arrays.fill(night, Double.NaN);
+            //                                       crit<  warn<  warn>  crit>
+            defaults(SensorType.HEART_RATE, 40, 50, 100, 120);
+            defaults(SensorType.BLOOD_OXYGEN, 90, 93, Double.NaN, Double.NaN);
+            defaults(SensorType.BLOOD_PRESSURE, 90, 100, 140, 180);
+            defaults(SensorType.BODY_TEMPERATURE, 35.0, 35.5, 37.5, 38.0);
+            defaults(SensorType.STRESS, Double.NaN, Double.NaN, 70, 85);
+            // Noaptea pulsul și saturația scad fiziologic în somn
+            night[index(SensorType.HEART_RATE, CompiledAlertRules.WARNING_LOW)] = 45;
+            night[index(SensorType.BLOOD_OXYGEN, CompiledAlertRules.WARNING_LOW)] = 92;
+            night[index(SensorType.BLOOD_OXYGEN, CompiledAlertRules.CRITICAL_LOW)] = 88;
+        }
+
+        private void defaults(SensorType type, double criticalLow, double warningLow,
+                              double warningHigh, double criticalHigh) {
+            int base = type.ordinal() * CompiledAlertRules.STRIDE;
+            double[] values = {criticalLow, warningLow, warningHigh, criticalHigh};
+            System.arraycopy(values, 0, day, base, CompiledAlertRules.STRIDE);
+            System.arraycopy(values, 0, night, base, CompiledAlertRules.STRIDE);
+        }
+
+        void set(SensorType type, int position, double dayValue, double nightValue) {
+            day[index(type, position)] = dayValue;
+            night[index(type, position)] = nightValue;
+        }
+
+        // Relaxează un prag inferior / înăsprește unul superior (nu anulează o regulă mai permisivă)
+        void lower(SensorType type, int position, double dayValue, double nightValue) {
+            int i = index(type, position);
+            day[i] = Double.isNaN(day[i]) ? dayValue : Math.min(day[i], dayValue);
+            night[i] = Double.isNaN(night[i]) ? nightValue : Math.min(night[i], nightValue);
+        }
+
+        void raise(SensorType type, int position, double dayValue, double nightValue) {
+            int i = index(type, position);
+            day[i] = Double.isNaN(day[i]) ? dayValue : Math.max(day[i], dayValue);
+            night[i] = Double.isNaN(night[i]) ? nightValue : Math.max(night[i], nightValue);
+        }
+
+        void shift(SensorType type, int position, double delta) {
+            int i = index(type, position);
+            day[i] += delta;
+            night[i] += delta;
+        }
+
+        void note(SensorType type, String rule) {
+            int ordinal = type.ordinal();
+            reasons[ordinal] = reasons[ordinal] == null ? rule : reasons[ordinal] + ", " + rule;
+            applied.add(type.getCode() + ": " + rule);
+        }
+
+        // Valabile până la următoarea schimbare de oră (DST) sau până la profileChangeMillis, care vine prima
+        CompiledAlertRules build(String userId, String profileId, long version, ZoneId zone, long nowMillis,
+                                 long profileChangeMillis) {
+            Instant now = Instant.ofEpochMilli(nowMillis);
+            ZoneRules rules = zone.getRules();
+            long offsetMillis = rules.getOffset(now).getTotalSeconds() * 1000L;
+            ZoneOffsetTransition transition = rules.nextTransition(now);
+            long validUntil = Math.min(profileChangeMillis,
+                    transition != null ? transition.getInstant().toEpochMilli() : Long.MAX_VALUE);
+            return new CompiledAlertRules(userId, profileId, version, day.clone(), night.clone(),
+                    NIGHT_START_HOUR, NIGHT_END_HOUR, offsetMillis, validUntil, reasons.clone(),
+                    new ArrayList<>(applied));
+        }
+
+        private static int index(SensorType type, int position) {
+            return type.ordinal() * CompiledAlertRules.STRIDE + position;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.entities.MedicalProfile;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.repositories.MedicalProfileRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// Pragurile de alertă personalizate per pacient. Profilul medical e compilat o singură dată în
+// CompiledAlertRules (AlertRuleCompiler) și recompilat doar când repository-ul anunță o salvare;
+// citirile sunt evaluate cu o căutare în map + array-uri, fără acces la profil sau la JSON-ul medicației.
+// Pacienții fără profil (sau al căror profil încă se încarcă) primesc pragurile implicite.
+@Singleton
+public class AlertRuleEngine {
+
+    private static final String TAG = "AlertRuleEngine";
+    private static final int LEVEL_COUNT = CompiledAlertRules.Level.values().length;
+
+    private final MedicalProfileRepository repository; // poate fi null - reguli doar din compile()
+    private final ZoneId zone;
+    private final Map<String, Entry> rules = new ConcurrentHashMap<>();
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private volatile CompiledAlertRules defaults;
+
+    // Statistici
+    private final AtomicLong compilations = new AtomicLong();
+    private final AtomicLong recompilations = new AtomicLong();
+    private final AtomicLong profileLoads = new AtomicLong();
+    private final AtomicLongArray alertsByLevel = new AtomicLongArray(LEVEL_COUNT);
+
+    @Inject
+    public AlertRuleEngine(MedicalProfileRepository repository) {
+        this(repository, ZoneId.systemDefault());
+    }
+
+    public AlertRuleEngine() {
+        this(null, ZoneId.systemDefault());
+    }
+
+    public AlertRuleEngine(MedicalProfileRepository repository, ZoneId zone) {
+        this.repository = repository;
+        this.zone = zone;
+        this.defaults = AlertRuleCompiler.compileDefaults(null, zone, System.currentTimeMillis());
+        if (repository != null) {
+            repository.addChangeListener(new MedicalProfileRepository.ProfileChangeListener() {
+                @Override
+                public void onProfileSaved(MedicalProfile medicalProfile) {
+                    compile(medicalProfile);
+                }
+
+                @Override
+                public void onProfileDeleted(String medicalProfileId) {
+                    removeProfile(medicalProfileId);
+                }
+            });
+        }
+        Log.d(TAG, "✅ Alert rule engine initialized, zone=" + zone + ", repository=" + (repository != null));
+    }
+
+    // ========== COMPILARE ==========
+
+    public CompiledAlertRules compile(MedicalProfile profile) {
+        if (profile == null || profile.getUser() == null || profile.getUser().getIdUser() == null) {
+            throw new IllegalArgumentException("Medical profile without user");
+        }
+        String userId = profile.getUser().getIdUser();
+        CompiledAlertRules compiled = AlertRuleCompiler.compile(profile, zone, System.currentTimeMillis());
+        Entry previous = rules.put(userId, new Entry(profile, compiled));
+        compilations.incrementAndGet();
+        if (previous != null && previous.profile != null) {
+            recompilations.incrementAndGet();
+        }
+        Log.d(TAG, "🧩 Compiled alert rules for " + userId + ": " + compiled.getAppliedRules());
+        return compiled;
+    }
+
+    public void removeUser(String userId) {
+        rules.remove(userId);
+    }
+
+    private void removeProfile(String medicalProfileId) {
+        for (Map.Entry<String, Entry> entry : rules.entrySet()) {
+            if (medicalProfileId.equals(entry.getValue().compiled.getProfileId())) {
+                rules.remove(entry.getKey());
+                Log.d(TAG, "🗑️ Alert rules reset to defaults for " + entry.getKey());
+            }
+        }
+    }
+
+    // Încarcă (sau reîncarcă) profilul din repository și îl compilează
+    public CompletableFuture<CompiledAlertRules> loadProfile(String userId) {
+        if (repository == null) {
+            return CompletableFuture.completedFuture(rulesFor(userId, System.currentTimeMillis()));
+        }
+        profileLoads.incrementAndGet();
+        return repository.findByUserId(userId)
+                .thenApply(profile -> {
+                    if (profile.isPresent()) {
+                        return compile(profile.get());
+                    }
+                    // Fără profil: marcăm pacientul ca rezolvat ca să nu reîncercăm la fiecare citire
+                    rules.putIfAbsent(userId, new Entry(null, defaults));
+                    return rules.get(userId).compiled;
+                })
+                .whenComplete((compiled, throwable) -> {
+                    loading.remove(userId);
+                    if (throwable != null) {
+                        Log.w(TAG, "⚠️ Could not load medical profile for " + userId + ": " + throwable.getMessage());
+                    }
+                });
+    }
+
+    // ========== EVALUARE ==========
+
+    public CompiledAlertRules rulesFor(String userId, long timestampMillis) {
+        Entry entry = userId != null ? rules.get(userId) : null;
+        if (entry == null) {
+            if (userId != null && repository != null && loading.add(userId)) {
+                loadProfile(userId);
+            }
+            return currentDefaults(timestampMillis);
+        }
+        if (!entry.compiled.isValidAt(timestampMillis)) {
+            return refresh(userId, entry, timestampMillis);
+        }
+        return entry.compiled;
+    }
+
+    public CompiledAlertRules.Level evaluate(String userId, SensorType sensorType, double value, long timestampMillis) {
+        if (sensorType == null || Double.isNaN(value)) {
+            return CompiledAlertRules.Level.NORMAL;
+        }
+        CompiledAlertRules.Level level = rulesFor(userId, timestampMillis).evaluate(sensorType, value, timestampMillis);
+        if (level != CompiledAlertRules.Level.NORMAL) {
+            alertsByLevel.incrementAndGet(level.ordinal());
+        }
+        return level;
+    }
+
+    public CompiledAlertRules.Level evaluate(String userId, SensorReading reading) {
+        if (reading == null || !reading.isValid()) {
+            return CompiledAlertRules.Level.NORMAL;
+        }
+        LocalDateTime timestamp = reading.getTimestamp() != null ? reading.getTimestamp() : LocalDateTime.now();
+        return evaluate(userId, reading.getSensorType(), reading.getValue(),
+                timestamp.atZone(zone).toInstant().toEpochMilli());
+    }
+
+    // După o schimbare de oră (DST) offsetul din tabele nu mai e corect, iar la începutul unei medicații programate
+    // pragurile se schimbă - recompilăm din profilul reținut
+    private CompiledAlertRules refresh(String userId, Entry entry, long timestampMillis) {
+        CompiledAlertRules compiled = entry.profile != null
+                ? AlertRuleCompiler.compile(entry.profile, zone, timestampMillis)
+                : currentDefaults(timestampMillis);
+        rules.replace(userId, entry, new Entry(entry.profile, compiled));
+        recompilations.incrementAndGet();
+        return compiled;
+    }
+
+    private CompiledAlertRules currentDefaults(long timestampMillis) {
+        CompiledAlertRules current = defaults;
+        if (!current.isValidAt(timestampMillis)) {
+            current = AlertRuleCompiler.compileDefaults(null, zone, timestampMillis);
+            defaults = current;
+        }
+        return current;
+    }
+
+    private static final class Entry {
+        final MedicalProfile profile; // null = pragurile implicite
+        final CompiledAlertRules compiled;
+
+        Entry(MedicalProfile profile, CompiledAlertRules compiled) {
+            this.profile = profile;
+            this.compiled = compiled;
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public RuleEngineStatistics getStatistics() {
+        RuleEngineStatistics stats = new RuleEngineStatistics();
+        for (Entry entry : rules.values()) {
+            if (entry.profile != null) stats.personalizedPatients++;
+            else stats.defaultPatients++;
+        }
+        stats.compilations = compilations.get();
+        stats.recompilations = recompilations.get();
+        stats.profileLoads = profileLoads.get();
+        stats.warnings = alertsByLevel.get(CompiledAlertRules.Level.WARNING_LOW.ordinal())
+                + alertsByLevel.get(CompiledAlertRules.Level.WARNING_HIGH.ordinal());
+        stats.criticals = alertsByLevel.get(CompiledAlertRules.Level.CRITICAL_LOW.ordinal())
+                + alertsByLevel.get(CompiledAlertRules.Level.CRITICAL_HIGH.ordinal());
+        return stats;
+    }
+
+    public static class RuleEngineStatistics {
+        public int personalizedPatients = 0;
+        public int defaultPatients = 0;
+        public long compilations = 0;
+        public long recompilations = 0;
+        public long profileLoads = 0;
+        public long warnings = 0;
+        public long criticals = 0;
+
+        @Override
+        public String toString() {
+            return String.format("AlertRules{personalized=%d, default=%d, compilations=%d, recompilations=%d, " +
+                            "loads=%d, warnings=%d, criticals=%d}",
+                    personalizedPatients, defaultPatients, compilations, recompilations, profileLoads,
+                    warnings, criticals);
+        }
+    }
+}
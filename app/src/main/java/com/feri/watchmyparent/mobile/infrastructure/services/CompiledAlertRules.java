@@ -0,0 +1,134 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.util.Collections;
+import java.util.List;
+
+// Pragurile de alertă ale unui pacient, compilate o singură dată din MedicalProfile (vezi AlertRuleCompiler).
+// Pentru fiecare SensorType sunt 4 praguri (critic jos, atenție jos, atenție sus, critic sus) într-un tabel
+// de zi și unul de noapte, indexate după ordinal - evaluarea unei citiri înseamnă doar căutări în array.
+// Obiectul e imutabil: la schimbarea profilului se compilează unul nou și se înlocuiește referința.
+public final class CompiledAlertRules {
+
+    public enum Level {
+        NORMAL, WARNING_LOW, WARNING_HIGH, CRITICAL_LOW, CRITICAL_HIGH;
+
+        public boolean isCritical() {
+            return this == CRITICAL_LOW || this == CRITICAL_HIGH;
+        }
+
+        public boolean isAlert() {
+            return this != NORMAL;
+        }
+    }
+
+    // Pozițiile pragurilor în tabel (NaN = fără prag - comparațiile cu NaN sunt mereu false)
+    static final int CRITICAL_LOW = 0;
+    static final int WARNING_LOW = 1;
+    static final int WARNING_HIGH = 2;
+    static final int CRITICAL_HIGH = 3;
+    static final int STRIDE = 4;
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    private final String userId;
+    private final String profileId;          // null = pragurile implicite
+    private final long profileVersion;       // updatedAt al profilului compilat (epoch ms)
+    private final double[] day;
+    private final double[] night;
+    private final int nightStartHour;
+    private final int nightEndHour;
+    private final long zoneOffsetMillis;     // offsetul fusului orar la momentul compilării
+    private final long validUntilMillis;     // următoarea schimbare de oră (DST) sau începutul unei medicații - după ea se recompilează
+    private final String[] reasons;          // per ordinal: ce a modificat pragurile implicite
+    private final List<String> appliedRules;
+
+    CompiledAlertRules(String userId, String profileId, long profileVersion, double[] day, double[] night,
+                       int nightStartHour, int nightEndHour, long zoneOffsetMillis, long validUntilMillis,
+                       String[] reasons, List<String> appliedRules) {
+        this.userId = userId;
+        this.profileId = profileId;
+        this.profileVersion = profileVersion;
+        this.day = day;
+        this.night = night;
+        this.nightStartHour = nightStartHour;
+        this.nightEndHour = nightEndHour;
+        this.zoneOffsetMillis = zoneOffsetMillis;
+        this.validUntilMillis = validUntilMillis;
+        this.reasons = reasons;
+        this.appliedRules = Collections.unmodifiableList(appliedRules);
+    }
+
+    // Calea fierbinte: fără alocări, fără acces la profil
+    public Level evaluate(SensorType sensorType, double value, long timestampMillis) {
+        int base = sensorType.ordinal() * STRIDE;
+        double[] table = isNight(timestampMillis) ? night : day;
+        if (value < table[base + CRITICAL_LOW]) return Level.CRITICAL_LOW;
+        if (value > table[base + CRITICAL_HIGH]) return Level.CRITICAL_HIGH;
+        if (value < table[base + WARNING_LOW]) return Level.WARNING_LOW;
+        if (value > table[base + WARNING_HIGH]) return Level.WARNING_HIGH;
+        return Level.NORMAL;
+    }
+
+    public double criticalLow(SensorType sensorType, long timestampMillis) {
+        return threshold(sensorType, CRITICAL_LOW, timestampMillis);
+    }
+
+    public double criticalHigh(SensorType sensorType, long timestampMillis) {
+        return threshold(sensorType, CRITICAL_HIGH, timestampMillis);
+    }
+
+    public double threshold(SensorType sensorType, int position, long timestampMillis) {
+        return (isNight(timestampMillis) ? night : day)[sensorType.ordinal() * STRIDE + position];
+    }
+
+    // Are cel puțin un prag pentru senzor (altfel orice valoare e NORMAL)
+    public boolean hasThresholds(SensorType sensorType) {
+        int base = sensorType.ordinal() * STRIDE;
+        for (int i = 0; i < STRIDE; i++) {
+            if (!Double.isNaN(day[base + i]) || !Double.isNaN(night[base + i])) return true;
+        }
+        return false;
+    }
+
+    public boolean isNight(long timestampMillis) {
+        int hour = (int) (Math.floorMod(timestampMillis + zoneOffsetMillis, DAY_MS) / HOUR_MS);
+        return nightStartHour > nightEndHour
+                ? hour >= nightStartHour || hour < nightEndHour
+                : hour >= nightStartHour && hour < nightEndHour;
+    }
+
+    // Offsetul fusului orar e fixat la compilare; după o schimbare de oră tabelele trebuie recompilate
+    public boolean isValidAt(long timestampMillis) {
+        return timestampMillis < validUntilMillis;
+    }
+
+    public String explain(SensorType sensorType) {
+        int base = sensorType.ordinal() * STRIDE;
+        String reason = reasons[sensorType.ordinal()];
+        return String.format("%s day[%s] night[%s]%s", sensorType,
+                format(day, base), format(night, base), reason != null ? " - " + reason : " - default");
+    }
+
+    private static String format(double[] table, int base) {
+        return String.format("crit<%s warn<%s warn>%s crit>%s", value(table[base + CRITICAL_LOW]),
+                value(table[base + WARNING_LOW]), value(table[base + WARNING_HIGH]), value(table[base + CRITICAL_HIGH]));
+    }
+
+    private static String value(double threshold) {
+        return Double.isNaN(threshold) ? "-" : String.format("%.1f", threshold);
+    }
+
+    public String getUserId() { return userId; }
+    public String getProfileId() { return profileId; }
+    public long getProfileVersion() { return profileVersion; }
+    public boolean isDefault() { return profileId == null; }
+    public List<String> getAppliedRules() { return appliedRules; }
+
+    @Override
+    public String toString() {
+        return "CompiledAlertRules{user=" + userId + ", profile=" + profileId + ", rules=" + appliedRules + "}";
+    }
+}
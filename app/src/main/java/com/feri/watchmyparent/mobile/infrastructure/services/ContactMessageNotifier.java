@@ -0,0 +1,89 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// SMS (și opțional apel) către fiecare contact de urgență, în paralel, prin EmergencyContactSender.
+// Livrarea e confirmată dacă cel puțin un contact a fost anunțat.
+public class ContactMessageNotifier implements EmergencyNotifier {
+
+    private static final String TAG = "ContactMessageNotifier";
+    public static final String CHANNEL = "contacts";
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final EmergencyContactSender sender;
+    private final ExecutorService contactExecutor;
+
+    public ContactMessageNotifier(EmergencyContactSender sender) {
+        this.sender = sender;
+        AtomicInteger counter = new AtomicInteger();
+        this.contactExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "emergency-contact-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getChannel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return TIMEOUT_MS;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return sender.isConfigured();
+    }
+
+    @Override
+    public void warmUp() {
+        sender.warmUp();
+    }
+
+    @Override
+    public boolean deliver(EmergencyAlert alert, List<EmergencyContact> contacts) throws Exception {
+        if (contacts.isEmpty()) {
+            Log.w(TAG, "⚠️ No emergency contacts for " + alert.getUserId());
+            return false;
+        }
+        String text = alert.toMessageText();
+        List<Future<Boolean>> sends = new ArrayList<>(contacts.size());
+        for (EmergencyContact contact : contacts) {
+            sends.add(contactExecutor.submit(() -> {
+                boolean sent = sender.sendMessage(contact, text);
+                if (alert.getType() == EmergencyAlert.Type.FALL) {
+                    sent |= sender.placeCall(contact);
+                }
+                return sent;
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        int reached = 0;
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                if (sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) reached++;
+            } catch (Exception e) {
+                sends.get(i).cancel(true);
+                Log.w(TAG, "⚠️ Could not reach " + contacts.get(i).getFullName() + ": " + e.getMessage());
+            }
+        }
+        Log.d(TAG, "📱 Emergency contacts reached: " + reached + "/" + contacts.size());
+        return reached > 0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+
+// Trimiterea efectivă a SMS-urilor / apelurilor către contactele de urgență (gateway SMS, telefonie).
+// Implementarea se leagă în ServiceModule; până la configurarea unui gateway canalul e dezactivat.
+public interface EmergencyContactSender {
+
+    EmergencyContactSender NOT_CONFIGURED = new EmergencyContactSender() {
+        @Override
+        public boolean isConfigured() {
+            return false;
+        }
+
+        @Override
+        public boolean sendMessage(EmergencyContact contact, String text) {
+            return false;
+        }
+    };
+
+    boolean isConfigured();
+
+    default void warmUp() {}
+
+    boolean sendMessage(EmergencyContact contact, String text) throws Exception;
+
+    default boolean placeCall(EmergencyContact contact) throws Exception {
+        return false;
+    }
+}
@@ -0,0 +1,533 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+import com.feri.watchmyparent.mobile.domain.repositories.EmergencyContactRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.EmergencyOutboxDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.EmergencyOutboxEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+
+// Calea de urgență, separată de pipeline-ul de citiri (fără batching, fără benzile per pacient):
+//   1. deduplicare - declanșările repetate ale aceluiași eveniment se atașează escaladării existente
+//   2. outbox durabil (emergency_outbox) scris înaintea oricărei notificări
+//   3. fan-out paralel pe toate canalele (notificare locală, topic Kafka, SMS/apel), fiecare cu timeout
+//   4. canalele eșuate sunt reîncercate cu backoff; ce rămâne nelivrat e reluat din outbox la pornire,
+//      periodic (startRedelivery) și când Kafka își revine
+// Thread-urile și conexiunile sunt pregătite din timp (warmUp); metrica principală e latența
+// declanșare -> prima notificare confirmată.
+@Singleton
+public class EmergencyEscalationService {
+
+    private static final String TAG = "EmergencyEscalation";
+
+    public static final long DEDUP_WINDOW_MS = TimeUnit.MINUTES.toMillis(2);
+    public static final long CONTACT_LOOKUP_TIMEOUT_MS = 1_000;
+    public static final long CONTACT_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+    public static final long RETRY_BASE_DELAY_MS = 1_000;
+    public static final int MAX_ATTEMPTS_PER_RUN = 5;
+    // Alertele mai vechi nu mai sunt relevante pentru aparținători - rămân în outbox ca FAILED
+    public static final long REDELIVERY_MAX_AGE_MS = TimeUnit.HOURS.toMillis(24);
+    public static final long OUTBOX_RETENTION_MS = TimeUnit.DAYS.toMillis(30);
+    // Sub timeout-ul keep-alive al HttpURLConnection (5 min)
+    public static final long KEEP_WARM_INTERVAL_MS = TimeUnit.MINUTES.toMillis(4);
+    // ✅ NEW: O alertă PENDING după MAX_ATTEMPTS_PER_RUN (~31 s) e reluată din outbox la acest interval
+    public static final long REDELIVERY_INTERVAL_MS = TimeUnit.MINUTES.toMillis(2);
+
+    private final EmergencyOutboxDao outboxDao;
+    private final EmergencyContactRepository contactRepository;
+    private final List<EmergencyNotifier> notifiers;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Escalation> active = new ConcurrentHashMap<>();
+    private final Map<String, CachedContacts> contactCache = new ConcurrentHashMap<>();
+    private final AtomicBoolean keepWarmStarted = new AtomicBoolean(false);
+    private final AtomicBoolean redeliveryStarted = new AtomicBoolean(false);
+    private final long retryBaseDelayMs;
+    private final long redeliveryIntervalMs;
+
+    // Statistici
+    private final PipelineLatencyTracer.LatencyHistogram firstNotificationLatency = new PipelineLatencyTracer.LatencyHistogram();
+    private final PipelineLatencyTracer.LatencyHistogram outboxWriteLatency = new PipelineLatencyTracer.LatencyHistogram();
+    private final Map<String, PipelineLatencyTracer.LatencyHistogram> channelLatency = new ConcurrentHashMap<>();
+    private final AtomicLong alertsTriggered = new AtomicLong();
+    private final AtomicLong duplicatesSuppressed = new AtomicLong();
+    private final AtomicLong alertsDelivered = new AtomicLong();
+    private final AtomicLong channelFailures = new AtomicLong();
+    private final AtomicLong channelTimeouts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong outboxFailures = new AtomicLong();
+    private final AtomicLong redelivered = new AtomicLong();
+
+    public EmergencyEscalationService(EmergencyOutboxDao outboxDao, EmergencyContactRepository contactRepository,
+                                      List<EmergencyNotifier> notifiers) {
+        this(outboxDao, contactRepository, notifiers, RETRY_BASE_DELAY_MS, REDELIVERY_INTERVAL_MS);
+    }
+
+    // ✅ NEW: Intervale configurabile (testele parcurg toate reîncercările și reluarea în câteva sute de ms)
+    public EmergencyEscalationService(EmergencyOutboxDao outboxDao, EmergencyContactRepository contactRepository,
+                                      List<EmergencyNotifier> notifiers, long retryBaseDelayMs,
+                                      long redeliveryIntervalMs) {
+        this.outboxDao = outboxDao;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.redeliveryIntervalMs = redeliveryIntervalMs;
+        this.contactRepository = contactRepository;
+        this.notifiers = Collections.unmodifiableList(new ArrayList<>(notifiers));
+        for (EmergencyNotifier notifier : notifiers) {
+            channelLatency.put(notifier.getChannel(), new PipelineLatencyTracer.LatencyHistogram());
+        }
+
+        // Fără coadă: un canal blocat nu întârzie celelalte; thread-urile de bază sunt pornite de la început
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(notifiers.size() + 1, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "emergency-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        this.executor.prestartAllCoreThreads();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "emergency-timer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        Log.d(TAG, "✅ Emergency escalation ready with channels " + channelNames(notifiers));
+    }
+
+    // ========== WARM-UP ==========
+
+    // Conexiuni, canale de notificare și contacte pregătite înaintea primei alerte
+    public void warmUp(String userId) {
+        for (EmergencyNotifier notifier : notifiers) {
+            if (!notifier.isAvailable()) continue;
+            executor.execute(() -> {
+                try {
+                    notifier.warmUp();
+                } catch (Exception e) {
+                    Log.w(TAG, "⚠️ Warm-up failed for " + notifier.getChannel() + ": " + e.getMessage());
+                }
+            });
+        }
+        if (userId != null) {
+            refreshContacts(userId);
+        }
+    }
+
+    public void startKeepWarm(String userId) {
+        if (keepWarmStarted.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(() -> warmUp(userId),
+                    KEEP_WARM_INTERVAL_MS, KEEP_WARM_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public CompletableFuture<List<EmergencyContact>> refreshContacts(String userId) {
+        return contactRepository.findByUserId(userId).thenApply(contacts -> {
+            contactCache.put(userId, new CachedContacts(contacts, System.currentTimeMillis()));
+            Log.d(TAG, "📇 Cached " + contacts.size() + " emergency contacts for " + userId);
+            return contacts;
+        });
+    }
+
+    // ========== DECLANȘARE ==========
+
+    public CompletableFuture<EscalationResult> trigger(EmergencyAlert alert) {
+        long startNanos = System.nanoTime();
+        alertsTriggered.incrementAndGet();
+
+        Escalation candidate = new Escalation(alert, startNanos);
+        Escalation winner = active.compute(alert.getDedupKey(), (key, current) ->
+                current != null && Math.abs(alert.getTriggeredAtMillis() - current.alert.getTriggeredAtMillis()) < DEDUP_WINDOW_MS
+                        ? current : candidate);
+        if (winner != candidate) {
+            duplicatesSuppressed.incrementAndGet();
+            Log.w(TAG, "🔁 Duplicate trigger attached to " + winner.alert.getAlertId());
+            return winner.firstRound.thenApply(EscalationResult::asDuplicate);
+        }
+
+        Log.e(TAG, "🚨 Escalating " + alert);
+        executor.execute(() -> start(candidate, true));
+        return candidate.firstRound;
+    }
+
+    // ✅ NEW: Reluarea periodică a outbox-ului - o alertă nu mai așteaptă următoarea pornire a aplicației
+    public void startRedelivery() {
+        if (redeliveryStarted.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(this::redeliverPending,
+                    redeliveryIntervalMs, redeliveryIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Alertele rămase PENDING (proces oprit în timpul escaladării, canale căzute) - apelat la pornire,
+    // periodic și la revenirea conexiunii Kafka; escaladările încă în curs nu sunt duplicate
+    public CompletableFuture<Integer> redeliverPending() {
+        return CompletableFuture.supplyAsync(() -> {
+            long now = System.currentTimeMillis();
+            int resumed = 0;
+            try {
+                outboxDao.deleteCompletedOlderThan(now - OUTBOX_RETENTION_MS);
+                for (EmergencyOutboxEntity row : outboxDao.getPending()) {
+                    if (now - row.triggeredAtMillis > REDELIVERY_MAX_AGE_MS) {
+                        row.state = EmergencyOutboxEntity.STATE_FAILED;
+                        row.updatedAtMillis = now;
+                        outboxDao.update(row);
+                        continue;
+                    }
+                    EmergencyAlert alert = toAlert(row);
+                    Escalation escalation = new Escalation(alert, System.nanoTime());
+                    escalation.row = row;
+                    if (row.deliveredChannels != null && !row.deliveredChannels.isEmpty()) {
+                        escalation.delivered.addAll(Arrays.asList(row.deliveredChannels.split(",")));
+                        escalation.firstNotified.set(true); // latența a fost deja măsurată în rularea inițială
+                    }
+                    // ✅ MODIFICAT: o escaladare terminată (rămasă doar pentru fereastra de deduplicare) e înlocuită
+                    Escalation current = active.compute(alert.getDedupKey(),
+                            (key, existing) -> existing == null || existing.finished ? escalation : existing);
+                    if (current != escalation) continue; // deja în curs
+                    redelivered.incrementAndGet();
+                    resumed++;
+                    executor.execute(() -> start(escalation, false));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Could not read emergency outbox", e);
+            }
+            if (resumed > 0) Log.w(TAG, "🔁 Resumed " + resumed + " pending emergency alerts");
+            return resumed;
+        }, executor);
+    }
+
+    private void start(Escalation escalation, boolean writeOutbox) {
+        // 1. Outbox înaintea oricărei notificări; o eroare de scriere nu oprește notificarea
+        if (writeOutbox) {
+            long outboxStart = System.nanoTime();
+            try {
+                EmergencyOutboxEntity row = toEntity(escalation.alert);
+                outboxDao.insert(row);
+                escalation.row = row;
+                outboxWriteLatency.record(System.nanoTime() - outboxStart);
+            } catch (Exception e) {
+                outboxFailures.incrementAndGet();
+                Log.e(TAG, "❌ Emergency outbox write failed - notifying anyway", e);
+            }
+        }
+        // 2. Contactele din cache (încărcate la warm-up), altfel o căutare cu timeout scurt
+        escalation.contacts = contactsFor(escalation.alert.getUserId());
+        // 3. Fan-out
+        dispatch(escalation, 1);
+    }
+
+    private List<EmergencyContact> contactsFor(String userId) {
+        CachedContacts cached = contactCache.get(userId);
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.loadedAtMillis > CONTACT_CACHE_TTL_MS) {
+                refreshContacts(userId); // în fundal - escaladarea folosește lista existentă
+            }
+            return cached.contacts;
+        }
+        try {
+            return refreshContacts(userId).get(CONTACT_LOOKUP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Emergency contacts unavailable for " + userId + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    private void dispatch(Escalation escalation, int attempt) {
+        List<CompletableFuture<Boolean>> round = new ArrayList<>();
+        for (EmergencyNotifier notifier : notifiers) {
+            if (notifier.isAvailable() && !escalation.delivered.contains(notifier.getChannel())) {
+                round.add(runChannel(escalation, notifier));
+            }
+        }
+        CompletableFuture.allOf(round.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, throwable) -> afterRound(escalation, attempt));
+    }
+
+    private CompletableFuture<Boolean> runChannel(Escalation escalation, EmergencyNotifier notifier) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean(false); // livrare sau timeout - primul câștigă
+        long channelStart = System.nanoTime();
+        Future<?> task = executor.submit(() -> {
+            boolean delivered;
+            try {
+                delivered = notifier.deliver(escalation.alert, escalation.contacts);
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Channel " + notifier.getChannel() + " failed: " + e.getMessage());
+                delivered = false;
+            }
+            // O livrare după timeout e tot o livrare - aparținătorul a fost anunțat
+            if (delivered) {
+                onDelivered(escalation, notifier.getChannel(), channelStart);
+            } else {
+                channelFailures.incrementAndGet();
+            }
+            if (settled.compareAndSet(false, true)) result.complete(delivered);
+        });
+        scheduler.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                channelTimeouts.incrementAndGet();
+                task.cancel(true);
+                Log.w(TAG, "⏱️ Channel " + notifier.getChannel() + " timed out after " + notifier.getTimeoutMs() + "ms");
+                result.complete(false);
+            }
+        }, notifier.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private void onDelivered(Escalation escalation, String channel, long channelStart) {
+        long now = System.nanoTime();
+        escalation.delivered.add(channel);
+        PipelineLatencyTracer.LatencyHistogram histogram = channelLatency.get(channel);
+        if (histogram != null) histogram.record(now - channelStart);
+        if (escalation.firstNotified.compareAndSet(false, true)) {
+            long latency = now - escalation.startNanos;
+            escalation.firstNotificationNanos = latency;
+            escalation.firstNotificationMillis = System.currentTimeMillis();
+            firstNotificationLatency.record(latency);
+            escalation.firstNotification.complete(latency / 1_000_000.0);
+            Log.e(TAG, String.format("🚨 First notification via %s after %.1fms", channel, latency / 1_000_000.0));
+        }
+    }
+
+    private void afterRound(Escalation escalation, int attempt) {
+        boolean complete = true;
+        for (EmergencyNotifier notifier : notifiers) {
+            if (notifier.isAvailable() && !escalation.delivered.contains(notifier.getChannel())) {
+                complete = false;
+                break;
+            }
+        }
+        persist(escalation, complete);
+        if (complete) alertsDelivered.incrementAndGet(); // înaintea rezultatului - statisticile îl includ deja
+        escalation.firstRound.complete(result(escalation, attempt, complete));
+
+        if (complete) {
+            Log.d(TAG, "✅ Emergency alert " + escalation.alert.getAlertId() + " delivered on " + escalation.delivered);
+            finish(escalation);
+        } else if (attempt < MAX_ATTEMPTS_PER_RUN) {
+            retries.incrementAndGet();
+            long delay = retryBaseDelayMs << (attempt - 1);
+            scheduler.schedule(() -> executor.execute(() -> dispatch(escalation, attempt + 1)),
+                    delay, TimeUnit.MILLISECONDS);
+        } else {
+            Log.e(TAG, "❌ Emergency alert " + escalation.alert.getAlertId()
+                    + " still undelivered after " + attempt + " attempts - kept in outbox for redelivery");
+            finish(escalation);
+        }
+    }
+
+    // ✅ NEW: Escaladarea terminată rămâne în active doar cât durează fereastra de deduplicare, apoi e scoasă
+    // (altfel harta crește cu fiecare alertă, iar redeliverPending ar sări alerta rămasă PENDING)
+    private void finish(Escalation escalation) {
+        escalation.finished = true;
+        long remaining = escalation.alert.getTriggeredAtMillis() + DEDUP_WINDOW_MS - System.currentTimeMillis();
+        if (remaining <= 0) {
+            active.remove(escalation.alert.getDedupKey(), escalation);
+            return;
+        }
+        try {
+            scheduler.schedule(() -> active.remove(escalation.alert.getDedupKey(), escalation),
+                    remaining, TimeUnit.MILLISECONDS);
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            active.remove(escalation.alert.getDedupKey(), escalation); // serviciul e oprit
+        }
+    }
+
+    // Escaladări încă în hartă (în curs sau în fereastra de deduplicare)
+    public int getActiveEscalationCount() {
+        return active.size();
+    }
+
+    private void persist(Escalation escalation, boolean complete) {
+        EmergencyOutboxEntity row = escalation.row;
+        if (row == null) return; // outbox indisponibil
+        try {
+            row.attempts++;
+            row.deliveredChannels = String.join(",", escalation.delivered);
+            if (escalation.firstNotificationMillis > 0 && row.firstNotificationMillis == 0) {
+                row.firstNotificationMillis = escalation.firstNotificationMillis;
+            }
+            row.state = complete ? EmergencyOutboxEntity.STATE_DELIVERED : EmergencyOutboxEntity.STATE_PENDING;
+            row.updatedAtMillis = System.currentTimeMillis();
+            outboxDao.update(row);
+        } catch (Exception e) {
+            outboxFailures.incrementAndGet();
+            Log.e(TAG, "❌ Could not update emergency outbox", e);
+        }
+    }
+
+    private static EmergencyOutboxEntity toEntity(EmergencyAlert alert) {
+        long now = System.currentTimeMillis();
+        EmergencyOutboxEntity row = new EmergencyOutboxEntity();
+        row.alertId = alert.getAlertId();
+        row.userId = alert.getUserId();
+        row.alertType = alert.getType().name();
+        row.subject = alert.getSubject();
+        row.triggeredAtMillis = alert.getTriggeredAtMillis();
+        row.confidence = alert.getConfidence();
+        row.deviceId = alert.getDeviceId();
+        row.location = alert.getLocation();
+        row.details = alert.getDetails();
+        row.state = EmergencyOutboxEntity.STATE_PENDING;
+        row.deliveredChannels = "";
+        row.createdAtMillis = now;
+        row.updatedAtMillis = now;
+        return row;
+    }
+
+    private static EmergencyAlert toAlert(EmergencyOutboxEntity row) {
+        return new EmergencyAlert(row.alertId, row.userId, EmergencyAlert.Type.valueOf(row.alertType), row.subject,
+                row.triggeredAtMillis, row.confidence, row.deviceId, row.location, row.details);
+    }
+
+    private static EscalationResult result(Escalation escalation, int attempt, boolean complete) {
+        EscalationResult result = new EscalationResult();
+        result.alertId = escalation.alert.getAlertId();
+        result.deliveredChannels = new LinkedHashSet<>(escalation.delivered);
+        result.complete = complete;
+        result.attempts = attempt;
+        result.firstNotificationMs = escalation.firstNotificationNanos >= 0
+                ? escalation.firstNotificationNanos / 1_000_000.0 : -1;
+        return result;
+    }
+
+    private static String channelNames(List<EmergencyNotifier> notifiers) {
+        List<String> names = new ArrayList<>();
+        for (EmergencyNotifier notifier : notifiers) {
+            names.add(notifier.getChannel() + (notifier.isAvailable() ? "" : " (disabled)"));
+        }
+        return names.toString();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+
+    // Starea unei escaladări în curs (una per cheie de deduplicare)
+    private static final class Escalation {
+        final EmergencyAlert alert;
+        final long startNanos;
+        final Set<String> delivered = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean firstNotified = new AtomicBoolean(false);
+        final CompletableFuture<EscalationResult> firstRound = new CompletableFuture<>();
+        final CompletableFuture<Double> firstNotification = new CompletableFuture<>();
+        volatile List<EmergencyContact> contacts = Collections.emptyList();
+        volatile EmergencyOutboxEntity row;
+        volatile long firstNotificationNanos = -1;
+        volatile long firstNotificationMillis;
+        volatile boolean finished;
+
+        Escalation(EmergencyAlert alert, long startNanos) {
+            this.alert = alert;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static final class CachedContacts {
+        final List<EmergencyContact> contacts;
+        final long loadedAtMillis;
+
+        CachedContacts(List<EmergencyContact> contacts, long loadedAtMillis) {
+            this.contacts = contacts;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+
+    // Rezultatul primei runde de fan-out (escaladarea continuă în fundal pentru canalele eșuate)
+    public static class EscalationResult {
+        public String alertId;
+        public boolean duplicate = false;
+        public boolean complete = false;
+        public int attempts = 0;
+        public double firstNotificationMs = -1;
+        public Set<String> deliveredChannels = Collections.emptySet();
+
+        EscalationResult asDuplicate() {
+            EscalationResult copy = new EscalationResult();
+            copy.alertId = alertId;
+            copy.duplicate = true;
+            copy.complete = complete;
+            copy.attempts = attempts;
+            copy.firstNotificationMs = firstNotificationMs;
+            copy.deliveredChannels = deliveredChannels;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("EscalationResult{alert=%s, duplicate=%s, complete=%s, attempts=%d, " +
+                            "firstNotification=%.1fms, channels=%s}",
+                    alertId, duplicate, complete, attempts, firstNotificationMs, deliveredChannels);
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public PipelineLatencyTracer.LatencySnapshot getFirstNotificationLatency() {
+        return firstNotificationLatency.snapshot();
+    }
+
+    public PipelineLatencyTracer.LatencySnapshot getChannelLatency(String channel) {
+        PipelineLatencyTracer.LatencyHistogram histogram = channelLatency.get(channel);
+        return histogram != null ? histogram.snapshot() : new PipelineLatencyTracer.LatencySnapshot();
+    }
+
+    public EscalationStatistics getStatistics() {
+        EscalationStatistics stats = new EscalationStatistics();
+        stats.triggered = alertsTriggered.get();
+        stats.duplicatesSuppressed = duplicatesSuppressed.get();
+        stats.delivered = alertsDelivered.get();
+        stats.channelFailures = channelFailures.get();
+        stats.channelTimeouts = channelTimeouts.get();
+        stats.retries = retries.get();
+        stats.outboxFailures = outboxFailures.get();
+        stats.redelivered = redelivered.get();
+        stats.firstNotification = firstNotificationLatency.snapshot();
+        stats.outboxWrite = outboxWriteLatency.snapshot();
+        return stats;
+    }
+
+    public static class EscalationStatistics {
+        public long triggered = 0;
+        public long duplicatesSuppressed = 0;
+        public long delivered = 0;
+        public long channelFailures = 0;
+        public long channelTimeouts = 0;
+        public long retries = 0;
+        public long outboxFailures = 0;
+        public long redelivered = 0;
+        public PipelineLatencyTracer.LatencySnapshot firstNotification = new PipelineLatencyTracer.LatencySnapshot();
+        public PipelineLatencyTracer.LatencySnapshot outboxWrite = new PipelineLatencyTracer.LatencySnapshot();
+
+        @Override
+        public String toString() {
+            return String.format("Emergency{triggered=%d, duplicates=%d, delivered=%d, failures=%d, timeouts=%d, " +
+                            "retries=%d, outboxFailures=%d, redelivered=%d, firstNotification[%s], outbox[%s]}",
+                    triggered, duplicatesSuppressed, delivered, channelFailures, channelTimeouts, retries,
+                    outboxFailures, redelivered, firstNotification, outboxWrite);
+        }
+    }
+}
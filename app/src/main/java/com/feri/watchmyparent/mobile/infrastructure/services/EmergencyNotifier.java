@@ -0,0 +1,26 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+
+import java.util.List;
+
+// Un canal de notificare pentru alertele de urgență (notificare locală, topic Kafka, SMS/apel).
+// EmergencyEscalationService apelează toate canalele în paralel, fiecare cu propriul timeout.
+public interface EmergencyNotifier {
+
+    String getChannel();
+
+    long getTimeoutMs();
+
+    // Canalele neconfigurate (ex. fără gateway SMS) sunt sărite, nu raportate ca eșec
+    default boolean isAvailable() {
+        return true;
+    }
+
+    // Apelat la pornire, înaintea oricărei alerte: conexiuni deschise, canale de notificare create
+    default void warmUp() {}
+
+    // true = livrare confirmată; o excepție sau false = canalul va fi reîncercat
+    boolean deliver(EmergencyAlert alert, List<EmergencyContact> contacts) throws Exception;
+}
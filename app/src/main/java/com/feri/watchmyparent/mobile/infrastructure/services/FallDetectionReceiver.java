@@ -1,34 +1,43 @@
 package com.feri.watchmyparent.mobile.infrastructure.services;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
-import androidx.core.app.NotificationCompat;
 
-import com.feri.watchmyparent.mobile.R;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
 import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
 import com.feri.watchmyparent.mobile.presentation.ui.dashboard.DashboardActivity;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
+import dagger.hilt.components.SingletonComponent;
 
 // REMOVED @AndroidEntryPoint - This was causing the ASM transformation error
 // BroadcastReceiver-ul nu poate folosi Hilt dependency injection în mod standard
 public class FallDetectionReceiver extends BroadcastReceiver {
 
     private static final String TAG = "FallDetectionReceiver";
-    private static final String CHANNEL_ID = "fall_detection_alerts";
-    private static final int NOTIFICATION_ID = 9001;
+    // goAsync() - receiver-ul rămâne activ până la prima rundă de notificări, dar nu peste limita sistemului
+    private static final long MAX_ASYNC_WAIT_MS = 8_000;
+
+    // ✅ NEW: Serviciul de escaladare obținut din graful Hilt printr-un EntryPoint (fără @AndroidEntryPoint)
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    public interface EmergencyEntryPoint {
+        EmergencyEscalationService emergencyEscalationService();
 
-    // ✅ REMOVED @Inject - Nu mai folosim Hilt injection
-    // În schimb, vom obține serviciul prin alte mijloace
+        PatientRegistry patientRegistry(); // ✅ NEW: pacientul care poartă ceasul
+    }
 
     @Override
     public void onReceive(Context context, Intent intent) {
@@ -59,13 +68,7 @@ public class FallDetectionReceiver extends BroadcastReceiver {
             SensorReading fallReading = createFallDetectionReading(timestamp, confidence, deviceId);
 
             // Process fall detection
-            processFallDetection(context, fallReading);
-
-            // Send immediate notification
-            sendFallDetectionNotification(context, confidence);
-
-            // ✅ FIXED: Send data through alternative method (nu prin Hilt injection)
-            sendFallDetectionDataAlternative(context, fallReading);
+            processFallDetection(context, fallReading, location);
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error processing fall detection", e);
@@ -91,14 +94,14 @@ public class FallDetectionReceiver extends BroadcastReceiver {
         return fallReading;
     }
 
-    private void processFallDetection(Context context, SensorReading fallReading) {
+    private void processFallDetection(Context context, SensorReading fallReading, String location) {
         Log.e(TAG, "🚨 Processing fall detection alert...");
 
-        // 1. Log critical event
-        logCriticalEvent(fallReading);
+        // 1. Start emergency protocols - înaintea oricărui alt pas
+        startEmergencyProtocols(context, fallReading, location);
 
-        // 2. Start emergency protocols (if needed)
-        startEmergencyProtocols(context, fallReading);
+        // 2. Log critical event
+        logCriticalEvent(fallReading);
 
         // 3. Update application state (optional)
         updateApplicationState(context);
@@ -116,9 +119,33 @@ public class FallDetectionReceiver extends BroadcastReceiver {
         Log.e("CRITICAL_MONITORING", criticalLog);
     }
 
-    private void startEmergencyProtocols(Context context, SensorReading fallReading) {
+    // ✅ NEW: Outbox + notificare locală, Kafka și contacte în paralel (EmergencyEscalationService).
+    // Înlocuiește notificarea directă și salvarea în SharedPreferences.
+    private void startEmergencyProtocols(Context context, SensorReading fallReading, String location) {
         Log.e(TAG, "🚨 Emergency protocols activated for fall detection");
-        // Emergency protocols implementation
+
+        EmergencyEntryPoint entryPoint = EntryPointAccessors
+                .fromApplication(context.getApplicationContext(), EmergencyEntryPoint.class);
+        EmergencyEscalationService escalation = entryPoint.emergencyEscalationService();
+        long timestamp = fallReading.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        EmergencyAlert alert = EmergencyAlert.fall(entryPoint.patientRegistry().getPrimaryUserId(), timestamp,
+                fallReading.getAccuracy(), fallReading.getDeviceId(), location);
+
+        PendingResult pendingResult = goAsync();
+        AtomicBoolean finished = new AtomicBoolean(false);
+        Runnable finish = () -> {
+            if (finished.compareAndSet(false, true)) pendingResult.finish();
+        };
+        new Handler(Looper.getMainLooper()).postDelayed(finish, MAX_ASYNC_WAIT_MS);
+
+        escalation.trigger(alert).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                Log.e(TAG, "❌ Emergency escalation failed", throwable);
+            } else {
+                Log.e(TAG, "🚨 Emergency escalation: " + result);
+            }
+            finish.run();
+        });
     }
 
     private void updateApplicationState(Context context) {
@@ -132,82 +159,6 @@ public class FallDetectionReceiver extends BroadcastReceiver {
         }
     }
 
-    private void sendFallDetectionNotification(Context context, double confidence) {
-        try {
-            createNotificationChannel(context);
-
-            Intent notificationIntent = new Intent(context, DashboardActivity.class);
-            notificationIntent.putExtra("FALL_DETECTION_ALERT", true);
-            notificationIntent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
-
-            PendingIntent pendingIntent = PendingIntent.getActivity(
-                    context, 0, notificationIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-                    .setSmallIcon(R.drawable.ic_watch_notification)
-                    .setContentTitle("🚨 FALL DETECTED!")
-                    .setContentText(String.format("Samsung Galaxy Watch 7 detected a fall (%.1f%% confidence)", confidence))
-                    .setPriority(NotificationCompat.PRIORITY_MAX)
-                    .setCategory(NotificationCompat.CATEGORY_ALARM)
-                    .setAutoCancel(true)
-                    .setContentIntent(pendingIntent)
-                    .setVibrate(new long[]{0, 1000, 500, 1000})
-                    .setDefaults(NotificationCompat.DEFAULT_ALL);
-
-            NotificationManager notificationManager =
-                    (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-            notificationManager.notify(NOTIFICATION_ID, builder.build());
-
-            Log.e(TAG, "🔔 Fall detection notification sent");
-
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error sending fall detection notification", e);
-        }
-    }
-
-    private void createNotificationChannel(Context context) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(
-                    CHANNEL_ID,
-                    "Fall Detection Alerts",
-                    NotificationManager.IMPORTANCE_HIGH);
-            channel.setDescription("Critical alerts for fall detection from Samsung Galaxy Watch 7");
-            channel.enableVibration(true);
-            channel.setVibrationPattern(new long[]{0, 1000, 500, 1000});
-
-            NotificationManager manager = context.getSystemService(NotificationManager.class);
-            manager.createNotificationChannel(channel);
-        }
-    }
-
-    // ✅ ALTERNATIVE METHOD: Send data fără Hilt injection
-    private void sendFallDetectionDataAlternative(Context context, SensorReading fallReading) {
-        try {
-            // Salvăm datele într-un SharedPreferences sau fișier temporar
-            // pentru ca serviciul principal să le ia și să le trimită prin Kafka
-
-            android.content.SharedPreferences prefs = context.getSharedPreferences("fall_detection", Context.MODE_PRIVATE);
-            android.content.SharedPreferences.Editor editor = prefs.edit();
-
-            editor.putString("last_fall_timestamp", fallReading.getTimestamp().toString());
-            editor.putFloat("last_fall_confidence", (float) fallReading.getAccuracy());
-            editor.putString("last_fall_device", fallReading.getDeviceId());
-            editor.putBoolean("pending_fall_transmission", true);
-            editor.apply();
-
-            Log.d(TAG, "✅ Fall detection data saved for transmission by main service");
-
-            // Trigger main service to process the pending fall detection
-            Intent serviceIntent = new Intent(context, WatchDataCollectionService.class);
-            serviceIntent.putExtra("PROCESS_FALL_DETECTION", true);
-            context.startService(serviceIntent);
-
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error in alternative fall detection data transmission", e);
-        }
-    }
-
     // Static method pentru testarea fall detection din cod
     public static void simulateFallDetection(Context context) {
         Log.d(TAG, "🧪 Simulating fall detection for testing...");
@@ -0,0 +1,593 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.GeofenceTransition;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SafeZone;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SafeZoneDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SafeZoneEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// Engine de geofencing cu mai multe zone sigure per pacient.
+// Fiecare pacient are un index spațial pe grilă (celule fixe în grade): o zonă este inserată în toate
+// celulele atinse de bounding box-ul ei, deci o evaluare testează doar zonele din celula punctului -
+// costul nu crește cu numărul total de zone. Tranzițiile (ENTER/EXIT/DWELL) sunt calculate incremental
+// față de starea anterioară a pacientului.
+// ✅ NEW: Cu un SafeZoneDao, zonele sunt scrise în Room la fiecare modificare și reîncărcate la pornire.
+@Singleton
+public class GeofenceEngine {
+
+    private static final String TAG = "GeofenceEngine";
+
+    // ~1.1 km pe latitudine - zonele tipice (50-500 m) ating 1-4 celule
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 0.01;
+    // Zonele foarte mari (oraș, județ) nu se mai indexează, se verifică la fiecare evaluare
+    private static final int MAX_CELLS_PER_ZONE = 256;
+    // Un EXIT se confirmă doar după atâtea fix-uri consecutive în afara zonei (GPS jitter la margine)
+    public static final int DEFAULT_EXIT_CONFIRMATION_FIXES = 2;
+
+    private static final long LNG_CELLS_STRIDE = 1L << 32;
+    private static final SafeZone[] NO_ZONES = new SafeZone[0];
+
+    private final double cellSizeDegrees;
+    private final int exitConfirmationFixes;
+    private final Map<String, UserGeofences> users = new ConcurrentHashMap<>();
+    private final List<GeofenceListener> listeners = new CopyOnWriteArrayList<>();
+    private final SafeZoneDao dao; // poate fi null - doar în memorie
+    private final ExecutorService ioExecutor;
+    // Zonele modificate înainte de terminarea restaurării nu sunt suprascrise de versiunea salvată
+    private final Set<String> changedBeforeRestore = ConcurrentHashMap.newKeySet();
+    private volatile boolean restored;
+
+    // Statistici
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong candidatesChecked = new AtomicLong();
+    private final AtomicLong transitionsEmitted = new AtomicLong();
+    private final AtomicLong evaluationNanos = new AtomicLong();
+    private final AtomicLong zonesRestored = new AtomicLong();
+
+    public interface GeofenceListener {
+        void onTransition(GeofenceTransition transition);
+    }
+
+    @Inject
+    public GeofenceEngine(SafeZoneDao dao) {
+        this(dao, DEFAULT_CELL_SIZE_DEGREES, DEFAULT_EXIT_CONFIRMATION_FIXES);
+    }
+
+    public GeofenceEngine() {
+        this(null, DEFAULT_CELL_SIZE_DEGREES, DEFAULT_EXIT_CONFIRMATION_FIXES);
+    }
+
+    public GeofenceEngine(double cellSizeDegrees, int exitConfirmationFixes) {
+        this(null, cellSizeDegrees, exitConfirmationFixes);
+    }
+
+    public GeofenceEngine(SafeZoneDao dao, double cellSizeDegrees, int exitConfirmationFixes) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("cellSizeDegrees must be > 0: " + cellSizeDegrees);
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.exitConfirmationFixes = Math.max(1, exitConfirmationFixes);
+        this.dao = dao;
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "safe-zone-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (dao != null) {
+            restoreZones();
+        } else {
+            restored = true;
+        }
+        Log.d(TAG, "✅ Geofence engine initialized (cell=" + cellSizeDegrees + "°, exit confirmation=" +
+                this.exitConfirmationFixes + " fixes, persistent=" + (dao != null) + ")");
+    }
+
+    // ========== ZONE MANAGEMENT ==========
+
+    // Adaugă sau înlocuiește (după zoneId) o zonă sigură
+    public void addZone(SafeZone zone) {
+        UserGeofences user = users.computeIfAbsent(zone.getUserId(), UserGeofences::new);
+        synchronized (user) {
+            markChanged(zone.getUserId(), zone.getZoneId());
+            putZone(user, zone);
+        }
+        persist(() -> dao.upsert(toEntity(zone)));
+        Log.d(TAG, "📍 Safe zone added: " + zone);
+    }
+
+    private void putZone(UserGeofences user, SafeZone zone) {
+        user.zones.put(zone.getZoneId(), zone);
+        ZonePresence presence = user.presence.get(zone.getZoneId());
+        if (presence != null) {
+            presence.zone = zone;
+        }
+        user.rebuildIndex();
+    }
+
+    public boolean removeZone(String userId, String zoneId) {
+        UserGeofences user = users.get(userId);
+        if (user == null) {
+            return false;
+        }
+        synchronized (user) {
+            if (user.zones.remove(zoneId) == null) {
+                return false;
+            }
+            markChanged(userId, zoneId);
+            user.presence.remove(zoneId);
+            user.rebuildIndex();
+        }
+        persist(() -> dao.delete(userId, zoneId));
+        Log.d(TAG, "🗑️ Safe zone removed: " + zoneId + " (user " + userId + ")");
+        return true;
+    }
+
+    public void clearZones(String userId) {
+        markChanged(userId, null);
+        users.remove(userId);
+        persist(() -> dao.deleteByUser(userId));
+    }
+
+    public List<SafeZone> getZones(String userId) {
+        UserGeofences user = users.get(userId);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+        synchronized (user) {
+            return new ArrayList<>(user.zones.values());
+        }
+    }
+
+    public boolean hasZones(String userId) {
+        UserGeofences user = users.get(userId);
+        return user != null && user.index.zoneCount > 0;
+    }
+
+    public void addListener(GeofenceListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GeofenceListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ========== EVALUATION ==========
+
+    // Zonele care conțin punctul - fără stare, fără tranziții
+    public List<SafeZone> getZonesContaining(String userId, double latitude, double longitude) {
+        UserGeofences user = users.get(userId);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+        List<SafeZone> result = new ArrayList<>();
+        ZoneIndex index = user.index;
+        collectContaining(index.candidates(cellKey(latitude, longitude)), latitude, longitude, result);
+        collectContaining(index.oversized, latitude, longitude, result);
+        return result;
+    }
+
+    // Distanța până la cea mai apropiată margine de zonă din vecinătatea punctului (celula + cele 8 vecine,
+    // adică cel puțin o celulă în orice direcție); POSITIVE_INFINITY dacă nu există zone în apropiere
+    public double distanceToNearestBoundaryMeters(String userId, double latitude, double longitude) {
+        UserGeofences user = users.get(userId);
+        if (user == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        ZoneIndex index = user.index;
+        long latIndex = latIndex(latitude);
+        long lngIndex = lngIndex(longitude);
+        double best = Double.POSITIVE_INFINITY;
+        for (long lat = latIndex - 1; lat <= latIndex + 1; lat++) {
+            for (long lng = lngIndex - 1; lng <= lngIndex + 1; lng++) {
+                for (SafeZone zone : index.candidates(cellKey(lat, lng))) {
+                    best = Math.min(best, zone.distanceToBoundaryMeters(latitude, longitude));
+                }
+            }
+        }
+        for (SafeZone zone : index.oversized) {
+            best = Math.min(best, zone.distanceToBoundaryMeters(latitude, longitude));
+        }
+        return best;
+    }
+
+    // Zonele în care pacientul este considerat prezent (după histerezis)
+    public List<SafeZone> getCurrentZones(String userId) {
+        UserGeofences user = users.get(userId);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+        synchronized (user) {
+            List<SafeZone> result = new ArrayList<>();
+            for (ZonePresence presence : user.presence.values()) {
+                result.add(presence.zone);
+            }
+            return result;
+        }
+    }
+
+    // Evaluează un fix de locație și întoarce tranzițiile produse de el (posibil listă goală)
+    public List<GeofenceTransition> evaluate(String userId, double latitude, double longitude, LocalDateTime timestamp) {
+        UserGeofences user = users.get(userId);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+
+        long start = System.nanoTime();
+        List<GeofenceTransition> transitions = new ArrayList<>(2);
+
+        synchronized (user) {
+            ZoneIndex index = user.index;
+            SafeZone[] cell = index.candidates(cellKey(latitude, longitude));
+            candidatesChecked.addAndGet(cell.length + index.oversized.length);
+
+            // 1. Zone care conțin punctul acum: ENTER pentru cele noi, DWELL când pragul e atins
+            user.evaluationEpoch++;
+            markInside(user, cell, userId, latitude, longitude, timestamp, transitions);
+            markInside(user, index.oversized, userId, latitude, longitude, timestamp, transitions);
+
+            // 2. Zone în care era prezent, dar punctul nu mai e în ele: EXIT după confirmare
+            Iterator<ZonePresence> it = user.presence.values().iterator();
+            while (it.hasNext()) {
+                ZonePresence presence = it.next();
+                if (presence.lastSeenEpoch == user.evaluationEpoch) {
+                    continue;
+                }
+                presence.outsideFixes++;
+                if (presence.outsideFixes >= exitConfirmationFixes) {
+                    it.remove();
+                    transitions.add(new GeofenceTransition(userId, presence.zone, GeofenceTransition.Type.EXIT,
+                            latitude, longitude, timestamp, safeBetween(presence.enteredAt, timestamp)));
+                }
+            }
+        }
+
+        evaluations.incrementAndGet();
+        evaluationNanos.addAndGet(System.nanoTime() - start);
+
+        if (!transitions.isEmpty()) {
+            transitionsEmitted.addAndGet(transitions.size());
+            for (GeofenceTransition transition : transitions) {
+                Log.d(TAG, "🚧 " + transition);
+                for (GeofenceListener listener : listeners) {
+                    try {
+                        listener.onTransition(transition);
+                    } catch (Exception e) {
+                        Log.e(TAG, "❌ Geofence listener failed", e);
+                    }
+                }
+            }
+        }
+        return transitions;
+    }
+
+    private void markInside(UserGeofences user, SafeZone[] zones, String userId, double latitude, double longitude,
+                            LocalDateTime timestamp, List<GeofenceTransition> transitions) {
+        for (SafeZone zone : zones) {
+            if (!zone.contains(latitude, longitude)) {
+                continue;
+            }
+            ZonePresence presence = user.presence.get(zone.getZoneId());
+            if (presence == null) {
+                presence = new ZonePresence(zone, timestamp);
+                user.presence.put(zone.getZoneId(), presence);
+                transitions.add(new GeofenceTransition(userId, zone, GeofenceTransition.Type.ENTER,
+                        latitude, longitude, timestamp, Duration.ZERO));
+            } else {
+                presence.outsideFixes = 0;
+                if (!presence.dwellReported) {
+                    Duration inZone = safeBetween(presence.enteredAt, timestamp);
+                    if (inZone.getSeconds() >= zone.getDwellThresholdSeconds()) {
+                        presence.dwellReported = true;
+                        transitions.add(new GeofenceTransition(userId, zone, GeofenceTransition.Type.DWELL,
+                                latitude, longitude, timestamp, inZone));
+                    }
+                }
+            }
+            presence.lastSeenEpoch = user.evaluationEpoch;
+        }
+    }
+
+    private static void collectContaining(SafeZone[] zones, double latitude, double longitude, List<SafeZone> out) {
+        for (SafeZone zone : zones) {
+            if (zone.contains(latitude, longitude)) {
+                out.add(zone);
+            }
+        }
+    }
+
+    private static Duration safeBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return Duration.ZERO;
+        }
+        return Duration.between(from, to);
+    }
+
+    // ========== SPATIAL INDEX ==========
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(latIndex(latitude), lngIndex(longitude));
+    }
+
+    private static long cellKey(long latIndex, long lngIndex) {
+        return latIndex * LNG_CELLS_STRIDE + lngIndex;
+    }
+
+    private long latIndex(double latitude) {
+        return (long) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private long lngIndex(double longitude) {
+        return (long) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    // Index imutabil - reconstruit la modificarea zonelor, citit fără lock
+    private static final class ZoneIndex {
+        static final ZoneIndex EMPTY = new ZoneIndex(Collections.<Long, SafeZone[]>emptyMap(), NO_ZONES, 0);
+
+        final Map<Long, SafeZone[]> cells;
+        final SafeZone[] oversized;
+        final int zoneCount;
+
+        ZoneIndex(Map<Long, SafeZone[]> cells, SafeZone[] oversized, int zoneCount) {
+            this.cells = cells;
+            this.oversized = oversized;
+            this.zoneCount = zoneCount;
+        }
+
+        SafeZone[] candidates(long cellKey) {
+            SafeZone[] zones = cells.get(cellKey);
+            return zones != null ? zones : NO_ZONES;
+        }
+    }
+
+    private ZoneIndex buildIndex(Iterable<SafeZone> zones) {
+        Map<Long, List<SafeZone>> buckets = new HashMap<>();
+        List<SafeZone> oversized = new ArrayList<>();
+        int count = 0;
+
+        for (SafeZone zone : zones) {
+            count++;
+            long minLat = latIndex(zone.getMinLatitude());
+            long maxLat = latIndex(zone.getMaxLatitude());
+            long minLng = lngIndex(zone.getMinLongitude());
+            long maxLng = lngIndex(zone.getMaxLongitude());
+
+            if ((maxLat - minLat + 1) * (maxLng - minLng + 1) > MAX_CELLS_PER_ZONE) {
+                oversized.add(zone);
+                continue;
+            }
+            for (long lat = minLat; lat <= maxLat; lat++) {
+                for (long lng = minLng; lng <= maxLng; lng++) {
+                    Long key = cellKey(lat, lng);
+                    List<SafeZone> bucket = buckets.get(key);
+                    if (bucket == null) {
+                        bucket = new ArrayList<>(2);
+                        buckets.put(key, bucket);
+                    }
+                    bucket.add(zone);
+                }
+            }
+        }
+
+        Map<Long, SafeZone[]> cells = new HashMap<>(buckets.size() * 2);
+        for (Map.Entry<Long, List<SafeZone>> entry : buckets.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().toArray(NO_ZONES));
+        }
+        return new ZoneIndex(cells, oversized.toArray(NO_ZONES), count);
+    }
+
+    // Starea unui pacient - modificată doar sub lock-ul obiectului
+    private final class UserGeofences {
+        final String userId;
+        final Map<String, SafeZone> zones = new LinkedHashMap<>();
+        final Map<String, ZonePresence> presence = new LinkedHashMap<>();
+        volatile ZoneIndex index = ZoneIndex.EMPTY;
+        long evaluationEpoch = 0;
+
+        UserGeofences(String userId) {
+            this.userId = userId;
+        }
+
+        void rebuildIndex() {
+            index = buildIndex(zones.values());
+        }
+    }
+
+    private static final class ZonePresence {
+        SafeZone zone;
+        final LocalDateTime enteredAt;
+        long lastSeenEpoch;
+        int outsideFixes = 0;
+        boolean dwellReported = false;
+
+        ZonePresence(SafeZone zone, LocalDateTime enteredAt) {
+            this.zone = zone;
+            this.enteredAt = enteredAt;
+        }
+    }
+
+    // ========== PERSISTENȚĂ ==========
+
+    // Reîncarcă zonele salvate; zonele adăugate sau șterse între timp păstrează versiunea din memorie
+    public CompletableFuture<Integer> restoreZones() {
+        if (dao == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            int count = 0;
+            try {
+                for (SafeZoneEntity entity : dao.getAll()) {
+                    SafeZone zone;
+                    try {
+                        zone = fromEntity(entity);
+                    } catch (IllegalArgumentException e) {
+                        Log.w(TAG, "⚠️ Skipping invalid saved safe zone " + entity.zoneId + ": " + e.getMessage());
+                        continue;
+                    }
+                    UserGeofences user = users.computeIfAbsent(zone.getUserId(), UserGeofences::new);
+                    synchronized (user) {
+                        if (changedBeforeRestore.contains(zone.getUserId())
+                                || changedBeforeRestore.contains(zoneKey(zone.getUserId(), zone.getZoneId()))) {
+                            continue;
+                        }
+                        putZone(user, zone);
+                    }
+                    count++;
+                }
+                zonesRestored.addAndGet(count);
+                Log.d(TAG, "✅ Restored " + count + " safe zones");
+            } catch (Exception e) {
+                Log.w(TAG, "⚠️ Could not restore safe zones: " + e.getMessage());
+            } finally {
+                restored = true;
+                changedBeforeRestore.clear();
+            }
+            return count;
+        }, ioExecutor);
+    }
+
+    // zoneId null = toate zonele pacientului
+    private void markChanged(String userId, String zoneId) {
+        if (!restored) {
+            changedBeforeRestore.add(zoneId != null ? zoneKey(userId, zoneId) : userId);
+        }
+    }
+
+    private static String zoneKey(String userId, String zoneId) {
+        return userId + '\u0000' + zoneId;
+    }
+
+    // Scrierile rulează în ordine pe thread-ul de I/O, după restaurare
+    private void persist(Runnable write) {
+        if (dao == null) {
+            return;
+        }
+        ioExecutor.execute(() -> {
+            try {
+                write.run();
+            } catch (Exception e) {
+                Log.w(TAG, "⚠️ Could not persist safe zone change: " + e.getMessage());
+            }
+        });
+    }
+
+    private static SafeZoneEntity toEntity(SafeZone zone) {
+        SafeZoneEntity entity = new SafeZoneEntity();
+        entity.userId = zone.getUserId();
+        entity.zoneId = zone.getZoneId();
+        entity.name = zone.getName();
+        entity.category = zone.getCategory().name();
+        entity.shape = zone.getShape().name();
+        entity.dwellThresholdSeconds = zone.getDwellThresholdSeconds();
+        entity.centerLatitude = zone.getCenterLatitude();
+        entity.centerLongitude = zone.getCenterLongitude();
+        entity.radiusMeters = zone.getRadiusMeters();
+        entity.latitudes = joinCoordinates(zone.getLatitudes());
+        entity.longitudes = joinCoordinates(zone.getLongitudes());
+        entity.updatedAtMillis = System.currentTimeMillis();
+        return entity;
+    }
+
+    private static SafeZone fromEntity(SafeZoneEntity entity) {
+        SafeZone.Category category;
+        try {
+            category = SafeZone.Category.valueOf(entity.category);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            category = SafeZone.Category.OTHER;
+        }
+        if (SafeZone.Shape.POLYGON.name().equals(entity.shape)) {
+            return SafeZone.polygon(entity.zoneId, entity.userId, entity.name, category,
+                    splitCoordinates(entity.latitudes), splitCoordinates(entity.longitudes),
+                    entity.dwellThresholdSeconds);
+        }
+        return SafeZone.circle(entity.zoneId, entity.userId, entity.name, category,
+                entity.centerLatitude, entity.centerLongitude, entity.radiusMeters, entity.dwellThresholdSeconds);
+    }
+
+    // Double.toString păstrează exact valoarea la citire
+    private static String joinCoordinates(double[] values) {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) builder.append(',');
+            builder.append(values[i]);
+        }
+        return builder.toString();
+    }
+
+    private static double[] splitCoordinates(String joined) {
+        if (joined == null || joined.isEmpty()) {
+            return null;
+        }
+        String[] parts = joined.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i]);
+        }
+        return values;
+    }
+
+    // ========== STATISTICI ==========
+
+    public GeofenceStatistics getStatistics() {
+        GeofenceStatistics stats = new GeofenceStatistics();
+        for (UserGeofences user : users.values()) {
+            ZoneIndex index = user.index;
+            stats.users++;
+            stats.zones += index.zoneCount;
+            stats.indexedCells += index.cells.size();
+            stats.oversizedZones += index.oversized.length;
+        }
+        stats.evaluations = evaluations.get();
+        stats.transitions = transitionsEmitted.get();
+        stats.restoredZones = zonesRestored.get();
+        stats.averageCandidatesPerEvaluation = stats.evaluations > 0
+                ? (double) candidatesChecked.get() / stats.evaluations : 0.0;
+        stats.averageEvaluationMicros = stats.evaluations > 0
+                ? evaluationNanos.get() / 1000.0 / stats.evaluations : 0.0;
+        return stats;
+    }
+
+    public static class GeofenceStatistics {
+        public int users = 0;
+        public int zones = 0;
+        public int indexedCells = 0;
+        public int oversizedZones = 0;
+        public long evaluations = 0;
+        public long transitions = 0;
+        public double averageCandidatesPerEvaluation = 0.0;
+        public double averageEvaluationMicros = 0.0;
+        public long restoredZones = 0;
+
+        @Override
+        public String toString() {
+            return String.format("Geofences{users=%d, zones=%d, cells=%d, oversized=%d, evaluations=%d, " +
+                            "transitions=%d, candidates/eval=%.2f, avg=%.2fµs, restored=%d}",
+                    users, zones, indexedCells, oversizedZones, evaluations, transitions,
+                    averageCandidatesPerEvaluation, averageEvaluationMicros, restoredZones);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.health.services.client.PassiveListenerService;
+import androidx.health.services.client.data.DataPointContainer;
+import androidx.health.services.client.data.HealthEvent;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.AndroidEntryPoint;
+
+// ✅ NEW: Primește batch-urile pasive de la Health Services (procesul e pornit de platformă dacă nu rulează)
+// și le trimite pe aceeași cale ca polling-ul: SensorDataIntegrationService -> anomalii -> Kafka
+@AndroidEntryPoint
+public class HealthServicesPassiveListenerService extends PassiveListenerService {
+
+    private static final String TAG = "PassiveListener";
+
+    @Inject
+    SensorDataIntegrationService sensorDataIntegrationService;
+
+    @Inject
+    EmergencyEscalationService emergencyEscalationService;
+
+    @Inject
+    AdaptiveLocationStrategy adaptiveLocationStrategy;
+
+    @Inject
+    PatientRegistry patientRegistry; // ✅ NEW: pacientul care poartă ceasul
+
+    @Override
+    public void onNewDataPointsReceived(@NonNull DataPointContainer dataPoints) {
+        String deviceId = patientRegistry.getPrimaryDeviceId();
+        List<SensorReading> readings = HealthServicesPassiveMonitor.toSensorReadings(dataPoints, deviceId);
+        if (readings.isEmpty()) return;
+
+        Log.d(TAG, "📥 Passive batch: " + readings.size() + " data points");
+        sensorDataIntegrationService.ingestPassiveReadings(patientRegistry.getPrimaryUserId(), deviceId, readings)
+                .thenAccept(accepted -> {
+                    // Pașii ghidează achiziția GPS la fel ca în polling
+                    for (SensorReading reading : accepted) {
+                        adaptiveLocationStrategy.onSensorReading(reading);
+                    }
+                })
+                .exceptionally(throwable -> {
+                    Log.e(TAG, "❌ Passive batch ingest failed", throwable);
+                    return null;
+                });
+    }
+
+    @Override
+    public void onHealthEventReceived(@NonNull HealthEvent event) {
+        if (event.getType() != HealthEvent.Type.FALL_DETECTED) return;
+
+        Log.e(TAG, "🚨 FALL DETECTED by Health Services");
+        EmergencyAlert alert = EmergencyAlert.fall(patientRegistry.getPrimaryUserId(),
+                event.getEventTime().toEpochMilli(), 100.0, patientRegistry.getPrimaryDeviceId(), null);
+        emergencyEscalationService.trigger(alert).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                Log.e(TAG, "❌ Emergency escalation failed", throwable);
+            } else {
+                Log.e(TAG, "🚨 Emergency escalation: " + result);
+            }
+        });
+    }
+
+    @Override
+    public void onPermissionLost() {
+        // Platforma a oprit livrările - polling-ul preia imediat toate tipurile
+        Log.w(TAG, "⚠️ Passive monitoring permission lost");
+        sensorDataIntegrationService.clearPassiveTypes(patientRegistry.getPrimaryUserId());
+    }
+}
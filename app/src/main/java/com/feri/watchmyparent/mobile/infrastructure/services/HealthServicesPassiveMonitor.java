@@ -0,0 +1,185 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.health.services.client.HealthServices;
+import androidx.health.services.client.PassiveMonitoringClient;
+import androidx.health.services.client.data.DataPointContainer;
+import androidx.health.services.client.data.DataType;
+import androidx.health.services.client.data.HealthEvent;
+import androidx.health.services.client.data.IntervalDataPoint;
+import androidx.health.services.client.data.PassiveListenerConfig;
+import androidx.health.services.client.data.PassiveMonitoringCapabilities;
+import androidx.health.services.client.data.SampleDataPoint;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+// ✅ NEW: Monitorizare pasivă prin Health Services - platforma colectează în low-power și livrează batch-uri
+// către HealthServicesPassiveListenerService (procesul e pornit la nevoie). Polling-ul din
+// WatchDataCollectionService rămâne doar fallback pentru tipurile neacoperite sau cu livrări întârziate.
+@Singleton
+public class HealthServicesPassiveMonitor {
+
+    private static final String TAG = "PassiveMonitor";
+
+    // Tipurile Health Services care au corespondent în SensorType (restul nu sunt cerute platformei)
+    private static final Map<DataType<?, ?>, SensorType> PASSIVE_DATA_TYPES = new LinkedHashMap<>();
+
+    static {
+        PASSIVE_DATA_TYPES.put(DataType.HEART_RATE_BPM, SensorType.HEART_RATE);
+        PASSIVE_DATA_TYPES.put(DataType.STEPS_DAILY, SensorType.STEP_COUNT);
+    }
+
+    private final Context context;
+    private final SensorDataIntegrationService sensorDataIntegrationService;
+    private final Executor callbackExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "passive-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean registered = false;
+    // ✅ NEW: Crește la fiecare unregister - o înregistrare terminată după oprire nu mai reactivează listener-ul
+    private final AtomicInteger generation = new AtomicInteger();
+
+    @Inject
+    public HealthServicesPassiveMonitor(@ApplicationContext Context context,
+                                        SensorDataIntegrationService sensorDataIntegrationService) {
+        this.context = context;
+        this.sensorDataIntegrationService = sensorDataIntegrationService;
+    }
+
+    // Idempotent - înregistrarea nouă o înlocuiește pe cea existentă (necesar după reboot / update)
+    public CompletableFuture<Set<SensorType>> register() {
+        CompletableFuture<Set<SensorType>> result = new CompletableFuture<>();
+        int registration = generation.get();
+        PassiveMonitoringClient client;
+        try {
+            client = HealthServices.getClient(context).getPassiveMonitoringClient();
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Health Services unavailable - polling only: " + e.getMessage());
+            result.complete(Collections.emptySet());
+            return result;
+        }
+
+        ListenableFuture<PassiveMonitoringCapabilities> capabilitiesFuture = client.getCapabilitiesAsync();
+        capabilitiesFuture.addListener(() -> {
+            try {
+                PassiveMonitoringCapabilities capabilities = capabilitiesFuture.get();
+
+                Set<DataType<?, ?>> dataTypes = new HashSet<>();
+                Set<SensorType> sensorTypes = EnumSet.noneOf(SensorType.class);
+                for (Map.Entry<DataType<?, ?>, SensorType> entry : PASSIVE_DATA_TYPES.entrySet()) {
+                    if (capabilities.getSupportedDataTypesPassiveMonitoring().contains(entry.getKey())) {
+                        dataTypes.add(entry.getKey());
+                        sensorTypes.add(entry.getValue());
+                    }
+                }
+                Set<HealthEvent.Type> healthEvents = new HashSet<>();
+                if (capabilities.getSupportedHealthEventTypes().contains(HealthEvent.Type.FALL_DETECTED)) {
+                    healthEvents.add(HealthEvent.Type.FALL_DETECTED);
+                }
+
+                if (dataTypes.isEmpty() && healthEvents.isEmpty()) {
+                    Log.w(TAG, "⚠️ No supported passive data types - polling only");
+                    result.complete(Collections.emptySet());
+                    return;
+                }
+
+                PassiveListenerConfig config = PassiveListenerConfig.builder()
+                        .setDataTypes(dataTypes)
+                        .setHealthEventTypes(healthEvents)
+                        .build();
+                ListenableFuture<Void> listenerRegistration =
+                        client.setPassiveListenerServiceAsync(HealthServicesPassiveListenerService.class, config);
+                listenerRegistration.addListener(() -> {
+                    try {
+                        listenerRegistration.get();
+                        if (generation.get() != registration) {
+                            // unregister() a rulat între timp - monitorizarea a fost oprită
+                            client.clearPassiveListenerServiceAsync();
+                            Log.d(TAG, "🛑 Passive registration finished after stop - cleared");
+                            result.complete(Collections.emptySet());
+                            return;
+                        }
+                        registered = true;
+                        sensorDataIntegrationService.registerPassiveTypes(
+                                sensorDataIntegrationService.getPrimaryUserId(), sensorTypes);
+                        Log.d(TAG, "✅ Passive monitoring registered: " + sensorTypes + ", events=" + healthEvents);
+                        result.complete(sensorTypes);
+                    } catch (Exception e) {
+                        Log.e(TAG, "❌ Passive registration failed - polling only", e);
+                        result.complete(Collections.emptySet());
+                    }
+                }, callbackExecutor);
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Passive capabilities unavailable - polling only", e);
+                result.complete(Collections.emptySet());
+            }
+        }, callbackExecutor);
+        return result;
+    }
+
+    // ✅ MODIFICAT: Șterge listener-ul platformei și când flag-ul local e false - înregistrarea supraviețuiește
+    // morții procesului, iar fără ștergere platforma ar porni în continuare procesul cu batch-uri pasive
+    public void unregister() {
+        generation.incrementAndGet();
+        registered = false;
+        sensorDataIntegrationService.clearPassiveTypes(sensorDataIntegrationService.getPrimaryUserId());
+        try {
+            HealthServices.getClient(context).getPassiveMonitoringClient().clearPassiveListenerServiceAsync();
+            Log.d(TAG, "🛑 Passive monitoring unregistered");
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Could not clear passive listener: " + e.getMessage());
+        }
+    }
+
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    // Punctele au timestamp relativ la boot - convertite în timp de perete o singură dată per batch
+    public static List<SensorReading> toSensorReadings(DataPointContainer container, String deviceId) {
+        Instant bootInstant = Instant.ofEpochMilli(System.currentTimeMillis() - SystemClock.elapsedRealtime());
+        List<SensorReading> readings = new ArrayList<>();
+
+        for (SampleDataPoint<Double> point : container.getData(DataType.HEART_RATE_BPM)) {
+            readings.add(toReading(SensorType.HEART_RATE, point.getValue(), point.getTimeInstant(bootInstant), deviceId));
+        }
+        for (IntervalDataPoint<Long> point : container.getData(DataType.STEPS_DAILY)) {
+            readings.add(toReading(SensorType.STEP_COUNT, point.getValue(), point.getEndInstant(bootInstant), deviceId));
+        }
+        return readings;
+    }
+
+    private static SensorReading toReading(SensorType type, double value, Instant time, String deviceId) {
+        SensorReading reading = new SensorReading(type, value, deviceId);
+        reading.setTimestamp(LocalDateTime.ofInstant(time, ZoneId.systemDefault()));
+        return reading;
+    }
+}
@@ -0,0 +1,39 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+
+import java.util.List;
+
+// Canalul server: alerta ajunge pe emergency-alert-topic, de unde backend-ul notifică aplicațiile aparținătorilor
+public class KafkaAlertNotifier implements EmergencyNotifier {
+
+    public static final String CHANNEL = "kafka";
+
+    private final RealHealthDataKafkaProducer producer;
+
+    public KafkaAlertNotifier(RealHealthDataKafkaProducer producer) {
+        this.producer = producer;
+    }
+
+    @Override
+    public String getChannel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return 5_000;
+    }
+
+    @Override
+    public void warmUp() {
+        producer.warmUpEmergencyPath();
+    }
+
+    @Override
+    public boolean deliver(EmergencyAlert alert, List<EmergencyContact> contacts) throws Exception {
+        return producer.sendEmergencyAlert(alert.toKafkaMessage(), alert.getUserId());
+    }
+}
@@ -5,9 +5,11 @@ import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaPro
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -33,20 +35,32 @@ public class KafkaHealthCheckService {
     private static final int MAX_CONSECUTIVE_FAILURES = 5;
     private static final int CONNECTION_TIMEOUT_SECONDS = 10;
 
+    private final long healthCheckIntervalSeconds;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    // ✅ NEW: Apelați când o verificare reușește după una eșuată (sau la prima reușită)
+    private final CopyOnWriteArrayList<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+
     @Inject
     public KafkaHealthCheckService(RealHealthDataKafkaProducer kafkaProducer) {
+        this(kafkaProducer, HEALTH_CHECK_INTERVAL);
+    }
+
+    // ✅ NEW: Interval configurabil (testele de load au nevoie de detecție rapidă a outage-urilor)
+    public KafkaHealthCheckService(RealHealthDataKafkaProducer kafkaProducer, long healthCheckIntervalSeconds) {
         this.kafkaProducer = kafkaProducer;
+        this.healthCheckIntervalSeconds = healthCheckIntervalSeconds;
 
         Log.d(TAG, "✅ KafkaHealthCheckService initialized");
-        startHealthChecks();
     }
 
-    // Pornește monitorizarea periodică a stării Kafka
-    private void startHealthChecks() {
-        Log.d(TAG, "🔄 Starting periodic Kafka health checks (interval: " + HEALTH_CHECK_INTERVAL + "s)");
+    // ✅ MODIFICAT: Monitorizarea periodică nu mai pornește din constructor - e pornită o singură dată de etapa
+    // de fundal a pornirii aplicației (sau explicit de cine construiește serviciul)
+    public void start() {
+        if (!started.compareAndSet(false, true)) return;
+        Log.d(TAG, "🔄 Starting periodic Kafka health checks (interval: " + healthCheckIntervalSeconds + "s)");
 
         scheduler.scheduleWithFixedDelay(this::performHealthCheck,
-                0, HEALTH_CHECK_INTERVAL, TimeUnit.SECONDS);
+                0, healthCheckIntervalSeconds, TimeUnit.SECONDS);
     }
 
     // Execută un health check pentru Kafka
@@ -54,6 +68,7 @@ public class KafkaHealthCheckService {
         CompletableFuture.runAsync(() -> {
             try {
                 totalChecks++;
+                boolean wasHealthy = isKafkaHealthy;
                 boolean currentlyHealthy = kafkaProducer.healthCheck().join();
 
                 updateHealthStatus(currentlyHealthy);
@@ -79,6 +94,9 @@ public class KafkaHealthCheckService {
                 }
 
                 isKafkaHealthy = currentlyHealthy;
+                if (currentlyHealthy && !wasHealthy) {
+                    notifyRecovered();
+                }
 
                 // Log periodic status
                 if (totalChecks % 10 == 0) { // Every 5 minutes
@@ -94,6 +112,21 @@ public class KafkaHealthCheckService {
         });
     }
 
+    // ✅ NEW: Ce a rămas nelivrat cât timp Kafka a fost căzut (ex. alertele de urgență din outbox) e reluat imediat
+    public void addRecoveryListener(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    private void notifyRecovered() {
+        for (Runnable listener : recoveryListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Kafka recovery listener failed", e);
+            }
+        }
+    }
+
     //Actualizează statusul de sănătate
     private void updateHealthStatus(boolean healthy) {
         // Kafka e considerat sănătos dacă:
@@ -2,7 +2,12 @@ package com.feri.watchmyparent.mobile.infrastructure.services;
 
 import android.util.Log;
 import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
+import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager.OfflineEvent;
 import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager.OfflineHealthData;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,6 +16,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -24,15 +30,19 @@ public class KafkaRetryService {
     private final RealHealthDataKafkaProducer kafkaProducer;
     private final KafkaHealthCheckService healthCheckService;
     private final OfflineDataManager offlineDataManager;
+    private final PipelineLatencyTracer latencyTracer;
+    private final SensorDataRepository sensorDataRepository; // ✅ NEW: statusul rândurilor livrate din coadă (null -> fără)
+    // ✅ NEW: Golirea periodică și cea cerută de utilizator nu trimit aceeași înregistrare de două ori
+    private final Object drainLock = new Object();
     private final ScheduledExecutorService retryScheduler = Executors.newScheduledThreadPool(3);
 
     // Retry configuration
     private static final int MAX_RETRY_ATTEMPTS = 5;
-    private static final long INITIAL_RETRY_DELAY_MS = 1000; // 1 second
-    private static final double BACKOFF_MULTIPLIER = 2.0;
-    private static final long MAX_RETRY_DELAY_MS = 300000; // 5 minutes
     private static final long RETRY_BATCH_INTERVAL_MS = 60000; // 1 minute
 
+    private final long retryBatchIntervalMs;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
     // Statistics
     private int totalRetryAttempts = 0;
     private int successfulRetries = 0;
@@ -43,39 +53,59 @@ public class KafkaRetryService {
     public KafkaRetryService(
             RealHealthDataKafkaProducer kafkaProducer,
             KafkaHealthCheckService healthCheckService,
-            OfflineDataManager offlineDataManager) {
+            OfflineDataManager offlineDataManager,
+            PipelineLatencyTracer latencyTracer,
+            SensorDataRepository sensorDataRepository) {
+        this(kafkaProducer, healthCheckService, offlineDataManager, latencyTracer, sensorDataRepository,
+                RETRY_BATCH_INTERVAL_MS);
+    }
+
+    // ✅ NEW: Interval configurabil pentru procesarea backlog-ului offline (load testing)
+    public KafkaRetryService(
+            RealHealthDataKafkaProducer kafkaProducer,
+            KafkaHealthCheckService healthCheckService,
+            OfflineDataManager offlineDataManager,
+            PipelineLatencyTracer latencyTracer,
+            SensorDataRepository sensorDataRepository,
+            long retryBatchIntervalMs) {
         this.kafkaProducer = kafkaProducer;
         this.healthCheckService = healthCheckService;
         this.offlineDataManager = offlineDataManager;
+        this.latencyTracer = latencyTracer;
+        this.sensorDataRepository = sensorDataRepository;
+        this.retryBatchIntervalMs = retryBatchIntervalMs;
 
         Log.d(TAG, "✅ KafkaRetryService initialized");
-        startPeriodicRetryProcessor();
     }
 
     // Pornește procesarea periodică a retry-urilor
-    private void startPeriodicRetryProcessor() {
-        Log.d(TAG, "🔄 Starting periodic retry processor (interval: " + RETRY_BATCH_INTERVAL_MS + "ms)");
+    // ✅ MODIFICAT: Apelat de etapa de fundal a pornirii aplicației, nu din constructor; idempotent
+    public void start() {
+        if (!started.compareAndSet(false, true)) return;
+        Log.d(TAG, "🔄 Starting periodic retry processor (interval: " + retryBatchIntervalMs + "ms)");
 
         retryScheduler.scheduleWithFixedDelay(
                 this::processOfflineDataBatch,
-                RETRY_BATCH_INTERVAL_MS,
-                RETRY_BATCH_INTERVAL_MS,
+                retryBatchIntervalMs,
+                retryBatchIntervalMs,
                 TimeUnit.MILLISECONDS
         );
     }
 
     // Încearcă transmiterea unui singur mesaj cu retry logic
-    public CompletableFuture<Boolean> retryTransmission(SensorDataDTO sensorData) {
+    // ✅ MODIFICAT: TRANSMITTED = confirmat de broker, QUEUED = păstrat offline pentru mai târziu, FAILED = pierdut
+    public CompletableFuture<TransmissionStatus> retryTransmission(SensorDataDTO sensorData) {
         return retryTransmissionWithDelay(sensorData, 0);
     }
 
     // Retry cu delay calculat exponențial
-    private CompletableFuture<Boolean> retryTransmissionWithDelay(SensorDataDTO sensorData, int attemptNumber) {
+    private CompletableFuture<TransmissionStatus> retryTransmissionWithDelay(SensorDataDTO sensorData, int attemptNumber) {
         if (attemptNumber >= MAX_RETRY_ATTEMPTS) {
             Log.w(TAG, "💀 Max retry attempts reached for sensor " + sensorData.getSensorType() +
                     " - moving to dead letter queue");
+            latencyTracer.complete(sensorData.getTrace(), ReadingTrace.Stage.DROPPED);
             moveToDeadLetterQueue(sensorData);
-            return CompletableFuture.completedFuture(false);
+            return CompletableFuture.completedFuture(TransmissionStatus.FAILED);
         }
 
         // Verifică dacă Kafka este sănătos înainte de retry
@@ -87,7 +117,7 @@ public class KafkaRetryService {
         // Calculează delay-ul cu exponential backoff
         long delayMs = calculateRetryDelay(attemptNumber);
 
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<TransmissionStatus> future = new CompletableFuture<>();
 
         retryScheduler.schedule(() -> {
             totalRetryAttempts++;
@@ -95,15 +125,17 @@ public class KafkaRetryService {
             Log.d(TAG, "🔄 Retry attempt " + (attemptNumber + 1) + "/" + MAX_RETRY_ATTEMPTS +
                     " for " + sensorData.getSensorType() + " (delay: " + delayMs + "ms)");
 
-            kafkaProducer.sendHealthData(convertToKafkaMessage(sensorData), sensorData.getUserId())
+            kafkaProducer.sendSensorData(sensorData, sensorData.getUserId(),
+                            TelemetryJsonEncoder.SensorLayout.RETRY)
                     .thenAccept(success -> {
                         if (success) {
                             successfulRetries++;
                             sensorData.markAsTransmitted("Kafka-Retry");
+                            latencyTracer.complete(sensorData.getTrace(), ReadingTrace.Stage.RETRY_ACK);
 
                             Log.d(TAG, "✅ Retry successful for " + sensorData.getSensorType() +
                                     " after " + (attemptNumber + 1) + " attempts");
-                            future.complete(true);
+                            future.complete(TransmissionStatus.TRANSMITTED);
                         } else {
                             failedRetries++;
                             sensorData.markAsFailedTransmission("Retry failed attempt " + (attemptNumber + 1));
@@ -132,91 +164,181 @@ public class KafkaRetryService {
 
     // Calculează delay-ul pentru retry cu exponential backoff
     private long calculateRetryDelay(int attemptNumber) {
-        long delay = (long) (INITIAL_RETRY_DELAY_MS * Math.pow(BACKOFF_MULTIPLIER, attemptNumber));
-        return Math.min(delay, MAX_RETRY_DELAY_MS);
+        return RetryBackoff.delayMillis(attemptNumber);
     }
 
     //Stochează datele pentru retry mai târziu
-    private CompletableFuture<Boolean> storeForLaterRetry(SensorDataDTO sensorData) {
+    private CompletableFuture<TransmissionStatus> storeForLaterRetry(SensorDataDTO sensorData) {
         return offlineDataManager.storeOfflineData(sensorData)
                 .thenApply(stored -> {
                     if (stored) {
+                        latencyTracer.complete(sensorData.getTrace(), ReadingTrace.Stage.OFFLINE_STORED);
                         Log.d(TAG, "💾 Stored data offline for later retry: " + sensorData.getSensorType());
                     } else {
                         Log.e(TAG, "❌ Failed to store data offline: " + sensorData.getSensorType());
                     }
-                    return stored;
+                    return stored ? TransmissionStatus.QUEUED : TransmissionStatus.FAILED;
                 });
     }
 
     //Procesează batch-ul de date offline pentru retry
     private void processOfflineDataBatch() {
+        drainOfflineData(null);
+    }
+
+    // ✅ NEW: Golește coada offline (userId null = toți utilizatorii). Înregistrările livrate sunt șterse și rândurile
+    // lor din sensor_data devin TRANSMITTED; cele scoase fără livrare devin FAILED. true = nu a rămas nimic netrimis
+    public CompletableFuture<Boolean> drainOfflineData(String userId) {
         if (!healthCheckService.isKafkaHealthy()) {
             Log.d(TAG, "⚠️ Kafka unhealthy - skipping offline data processing");
-            return;
+            return CompletableFuture.completedFuture(false);
         }
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                List<OfflineHealthData> offlineData = offlineDataManager.getOfflineData().join();
-
-                if (offlineData.isEmpty()) {
-                    return;
+        return CompletableFuture.supplyAsync(() -> {
+            synchronized (drainLock) {
+                try {
+                    // ✅ NEW: Evenimentele offline (tranziții de zonă, anomalii) pleacă primele - sunt puține și urgente
+                    boolean eventsDelivered = processOfflineEvents(userId);
+                    boolean readingsDelivered = processOfflineReadings(userId);
+
+                    // Curăță înregistrările cu prea multe retry-uri
+                    cleanupFailedRecords();
+                    return eventsDelivered && readingsDelivered;
+
+                } catch (Exception e) {
+                    Log.e(TAG, "❌ Error processing offline data batch", e);
+                    return false;
                 }
+            }
+        });
+    }
 
-                Log.d(TAG, "📤 Processing " + offlineData.size() + " offline records for retry");
+    private boolean processOfflineReadings(String userId) {
+        List<OfflineHealthData> offlineData = new ArrayList<>();
+        for (OfflineHealthData data : offlineDataManager.getOfflineData().join()) {
+            if (userId == null || userId.equals(data.userId)) {
+                offlineData.add(data);
+            }
+        }
+        if (offlineData.isEmpty()) {
+            return true;
+        }
 
-                List<Long> successfulIds = new ArrayList<>();
-                List<Long> failedIds = new ArrayList<>();
+        Log.d(TAG, "📤 Processing " + offlineData.size() + " offline records for retry");
 
-                for (OfflineHealthData data : offlineData) {
-                    try {
-                        // Convertește din OfflineHealthData în SensorDataDTO
-                        SensorDataDTO sensorDataDTO = convertOfflineToDTO(data);
+        List<Long> successfulIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        List<String> deliveredRows = new ArrayList<>();
 
-                        // Încearcă transmiterea
-                        boolean sent = kafkaProducer.sendHealthData(
-                                convertToKafkaMessage(sensorDataDTO),
-                                data.userId
-                        ).join();
+        for (OfflineHealthData data : offlineData) {
+            try {
+                // Convertește din OfflineHealthData în SensorDataDTO
+                SensorDataDTO sensorDataDTO = convertOfflineToDTO(data);
 
-                        if (sent) {
-                            successfulIds.add(data.id);
-                            Log.d(TAG, "✅ Successfully sent offline data: " + data.sensorType);
-                        } else {
-                            failedIds.add(data.id);
-                            Log.w(TAG, "❌ Failed to send offline data: " + data.sensorType);
-                        }
+                // Încearcă transmiterea
+                boolean sent = kafkaProducer.sendSensorData(
+                        sensorDataDTO,
+                        data.userId,
+                        TelemetryJsonEncoder.SensorLayout.RETRY
+                ).join();
 
-                    } catch (Exception e) {
-                        failedIds.add(data.id);
-                        Log.e(TAG, "❌ Exception sending offline data for " + data.sensorType, e);
+                if (sent) {
+                    successfulIds.add(data.id);
+                    if (data.sensorDataId != null) {
+                        deliveredRows.add(data.sensorDataId);
                     }
+                    latencyTracer.recordOfflineDwell(data.sensorType, data.createdAt);
+                    Log.d(TAG, "✅ Successfully sent offline data: " + data.sensorType);
+                } else {
+                    failedIds.add(data.id);
+                    Log.w(TAG, "❌ Failed to send offline data: " + data.sensorType);
                 }
 
-                // Șterge datele transmise cu succes
-                if (!successfulIds.isEmpty()) {
-                    offlineDataManager.deleteOfflineData(successfulIds).join();
-                    Log.d(TAG, "🗑️ Cleaned up " + successfulIds.size() + " successfully transmitted records");
-                }
+            } catch (Exception e) {
+                failedIds.add(data.id);
+                Log.e(TAG, "❌ Exception sending offline data for " + data.sensorType, e);
+            }
+        }
 
-                // Incrementează retry count pentru cele eșuate
-                if (!failedIds.isEmpty()) {
-                    offlineDataManager.incrementRetryCount(failedIds).join();
-                    Log.w(TAG, "🔄 Incremented retry count for " + failedIds.size() + " failed records");
-                }
+        // Șterge datele transmise cu succes
+        if (!successfulIds.isEmpty()) {
+            offlineDataManager.deleteOfflineData(successfulIds).join();
+            updateSensorDataStatus(deliveredRows, TransmissionStatus.TRANSMITTED, LocalDateTime.now());
+            Log.d(TAG, "🗑️ Cleaned up " + successfulIds.size() + " successfully transmitted records");
+        }
 
-                // Curăță înregistrările cu prea multe retry-uri
-                int cleanedUp = offlineDataManager.cleanupFailedRecords(MAX_RETRY_ATTEMPTS).join();
-                if (cleanedUp > 0) {
-                    deadLetterCount += cleanedUp;
-                    Log.w(TAG, "💀 Moved " + cleanedUp + " records to dead letter queue (total: " + deadLetterCount + ")");
-                }
+        // Incrementează retry count pentru cele eșuate
+        if (!failedIds.isEmpty()) {
+            offlineDataManager.incrementRetryCount(failedIds).join();
+            Log.w(TAG, "🔄 Incremented retry count for " + failedIds.size() + " failed records");
+        }
+        return failedIds.isEmpty();
+    }
 
+    // ✅ NEW: Retrimite mesajele Kafka salvate de DataTransmissionServiceImpl când Kafka era indisponibil
+    private boolean processOfflineEvents(String userId) {
+        List<OfflineEvent> events = new ArrayList<>();
+        for (OfflineEvent event : offlineDataManager.getOfflineEvents().join()) {
+            if (userId == null || userId.equals(event.userId)) {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return true;
+        }
+
+        List<Long> successfulIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (OfflineEvent event : events) {
+            try {
+                boolean sent = kafkaProducer.sendHealthData(OfflineDataManager.decodeEvent(event), event.userId).join();
+                if (sent) {
+                    successfulIds.add(event.id);
+                } else {
+                    failedIds.add(event.id);
+                    Log.w(TAG, "❌ Failed to send offline event: " + event.dataType);
+                }
             } catch (Exception e) {
-                Log.e(TAG, "❌ Error processing offline data batch", e);
+                failedIds.add(event.id);
+                Log.e(TAG, "❌ Exception sending offline event " + event.dataType, e);
             }
-        });
+        }
+
+        if (!successfulIds.isEmpty()) {
+            offlineDataManager.deleteOfflineEvents(successfulIds).join();
+            Log.d(TAG, "✅ Sent " + successfulIds.size() + " offline events");
+        }
+        if (!failedIds.isEmpty()) {
+            offlineDataManager.incrementEventRetryCount(failedIds).join();
+        }
+        return failedIds.isEmpty();
+    }
+
+    // Curăță citirile și evenimentele cu prea multe retry-uri
+    private void cleanupFailedRecords() {
+        int cleanedUp = offlineDataManager.cleanupFailedRecords(MAX_RETRY_ATTEMPTS).join();
+        if (cleanedUp > 0) {
+            deadLetterCount += cleanedUp;
+            Log.w(TAG, "💀 Moved " + cleanedUp + " records to dead letter queue (total: " + deadLetterCount + ")");
+        }
+        // ✅ NEW: Citirile scoase din coadă fără livrare (și cele evacuate la limită) rămân în coada de retry din sensor_data
+        updateSensorDataStatus(offlineDataManager.drainDroppedSensorDataIds(), TransmissionStatus.FAILED, null);
+    }
+
+    // ✅ NEW: Buffer-ul write-behind e scris întâi - altfel UPDATE-ul nu găsește rândurile salvate de curând.
+    // Un rând TRANSMITTED nu mai e modificat (vezi SensorDataDao.updateTransmissionStatus)
+    private void updateSensorDataStatus(List<String> sensorDataIds, TransmissionStatus status,
+                                        LocalDateTime transmissionTime) {
+        if (sensorDataRepository == null || sensorDataIds == null || sensorDataIds.isEmpty()) {
+            return;
+        }
+        try {
+            sensorDataRepository.flush().join();
+            sensorDataRepository.updateTransmissionStatus(sensorDataIds, status, transmissionTime).join();
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Transmission status " + status + " not saved for " + sensorDataIds.size() +
+                    " readings: " + e.getMessage());
+        }
     }
 
     // Convertește OfflineHealthData în SensorDataDTO
@@ -229,10 +351,12 @@ public class KafkaRetryService {
         dto.setTimestamp(offlineData.timestamp);
         dto.setDeviceId(offlineData.deviceId);
         dto.setRetryCount(offlineData.retryCount);
+        dto.setSensorDataId(offlineData.sensorDataId);
         return dto;
     }
 
-    //Convertește SensorDataDTO în mesaj Kafka
+    //Convertește SensorDataDTO în mesaj Kafka (doar pentru dead letter; retry-urile folosesc
+    // TelemetryJsonEncoder.SensorLayout.RETRY, cu aceleași chei)
     private java.util.Map<String, Object> convertToKafkaMessage(SensorDataDTO sensorData) {
         java.util.Map<String, Object> message = new java.util.HashMap<>();
         message.put("userId", sensorData.getUserId());
@@ -0,0 +1,79 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import androidx.core.app.NotificationCompat;
+
+import com.feri.watchmyparent.mobile.R;
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.presentation.ui.dashboard.DashboardActivity;
+
+import java.util.List;
+
+// Notificare locală de prioritate maximă pe telefonul pacientului (canalul e creat la warm-up)
+public class LocalAlertNotifier implements EmergencyNotifier {
+
+    public static final String CHANNEL = "notification";
+    private static final String CHANNEL_ID = "fall_detection_alerts";
+
+    private final Context context;
+    private final NotificationManager notificationManager;
+
+    public LocalAlertNotifier(Context context) {
+        this.context = context.getApplicationContext();
+        this.notificationManager = (NotificationManager) this.context.getSystemService(Context.NOTIFICATION_SERVICE);
+    }
+
+    @Override
+    public String getChannel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return 2_000;
+    }
+
+    @Override
+    public void warmUp() {
+        NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "Fall Detection Alerts",
+                NotificationManager.IMPORTANCE_HIGH);
+        channel.setDescription("Critical alerts for fall detection from Samsung Galaxy Watch 7");
+        channel.enableVibration(true);
+        channel.setVibrationPattern(new long[]{0, 1000, 500, 1000});
+        notificationManager.createNotificationChannel(channel);
+    }
+
+    @Override
+    public boolean deliver(EmergencyAlert alert, List<EmergencyContact> contacts) {
+        Intent notificationIntent = new Intent(context, DashboardActivity.class);
+        notificationIntent.putExtra(alert.getType() == EmergencyAlert.Type.FALL
+                ? "FALL_DETECTION_ALERT" : "EMERGENCY_ALERT", true);
+        notificationIntent.putExtra("EMERGENCY_ALERT_ID", alert.getAlertId());
+        notificationIntent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+                context, alert.getAlertId().hashCode(), notificationIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_watch_notification)
+                .setContentTitle(alert.getType() == EmergencyAlert.Type.FALL ? "🚨 FALL DETECTED!" : "🚨 EMERGENCY ALERT")
+                .setContentText(alert.getDetails())
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setAutoCancel(true)
+                .setContentIntent(pendingIntent)
+                .setVibrate(new long[]{0, 1000, 500, 1000})
+                .setDefaults(NotificationCompat.DEFAULT_ALL);
+
+        notificationManager.notify(alert.getAlertId().hashCode(), builder.build());
+        return true;
+    }
+}
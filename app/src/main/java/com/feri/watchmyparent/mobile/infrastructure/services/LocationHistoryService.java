@@ -0,0 +1,232 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
+import com.feri.watchmyparent.mobile.domain.repositories.LocationHistoryRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.LocationTrackEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// Istoric de locații per pacient: fixurile trec prin TrajectorySimplifier la ingestie, doar punctele
+// păstrate ajung în tabela location_history, iar acestea se trimit pe topicul de locație în loturi
+// delta-encoded. Tabela este și coada durabilă - un lot eșuat rămâne netransmis și pleacă data viitoare.
+@Singleton
+public class LocationHistoryService {
+
+    private static final String TAG = "LocationHistoryService";
+
+    public static final int BATCH_MIN_POINTS = 20;
+    public static final int BATCH_MAX_POINTS = 200;
+    public static final long BATCH_MAX_AGE_MS = TimeUnit.MINUTES.toMillis(15);
+    public static final int RETENTION_DAYS = 30;
+
+    private final LocationHistoryRepository historyRepository;
+    private final DataTransmissionService dataTransmissionService;
+    private final double toleranceMeters;
+
+    private final Map<String, TrajectorySimplifier> simplifiers = new ConcurrentHashMap<>();
+    private final Set<String> transmitting = ConcurrentHashMap.newKeySet();
+
+    // Statistici
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong batchesFailed = new AtomicLong();
+    private final AtomicLong pointsSent = new AtomicLong();
+    private final AtomicLong storedPoints = new AtomicLong();
+
+    @Inject
+    public LocationHistoryService(LocationHistoryRepository historyRepository,
+                                  DataTransmissionService dataTransmissionService) {
+        this(historyRepository, dataTransmissionService, TrajectorySimplifier.DEFAULT_TOLERANCE_METERS);
+    }
+
+    public LocationHistoryService(LocationHistoryRepository historyRepository,
+                                  DataTransmissionService dataTransmissionService,
+                                  double toleranceMeters) {
+        this.historyRepository = historyRepository;
+        this.dataTransmissionService = dataTransmissionService;
+        this.toleranceMeters = toleranceMeters;
+        Log.d(TAG, "✅ Location history initialized (tolerance=" + toleranceMeters + "m, batch=" +
+                BATCH_MIN_POINTS + " points / " + TimeUnit.MILLISECONDS.toMinutes(BATCH_MAX_AGE_MS) + " min)");
+    }
+
+    // Ingestie: simplificare online, persistă punctele păstrate, apoi trimite un lot dacă e cazul
+    public CompletableFuture<Integer> ingest(String userId, LocationPoint point) {
+        List<LocationPoint> kept;
+        TrajectorySimplifier simplifier = simplifierFor(userId);
+        synchronized (simplifier) {
+            kept = new ArrayList<>(simplifier.add(point));
+        }
+        return persistAndMaybeTransmit(userId, kept, false);
+    }
+
+    // Închide traiectoria curentă (ex. la oprirea colectării) și trimite tot ce a rămas
+    public CompletableFuture<Integer> flush(String userId) {
+        List<LocationPoint> kept;
+        TrajectorySimplifier simplifier = simplifierFor(userId);
+        synchronized (simplifier) {
+            kept = new ArrayList<>(simplifier.flush());
+        }
+        return persistAndMaybeTransmit(userId, kept, true);
+    }
+
+    private CompletableFuture<Integer> persistAndMaybeTransmit(String userId, List<LocationPoint> kept, boolean force) {
+        CompletableFuture<Integer> saved = kept.isEmpty()
+                ? CompletableFuture.completedFuture(0)
+                : historyRepository.saveAll(userId, kept);
+        return saved.thenCompose(inserted -> {
+            storedPoints.addAndGet(inserted);
+            return (force ? transmitPending(userId) : transmitIfDue(userId)).thenApply(sent -> inserted);
+        }).exceptionally(e -> {
+            Log.e(TAG, "❌ Error storing location history for user " + userId, e);
+            return 0;
+        });
+    }
+
+    private CompletableFuture<Integer> transmitIfDue(String userId) {
+        return historyRepository.countUntransmitted(userId).thenCompose(count -> {
+            if (count >= BATCH_MIN_POINTS) {
+                return transmitPending(userId);
+            }
+            if (count == 0) {
+                return CompletableFuture.completedFuture(0);
+            }
+            return historyRepository.findOldestUntransmittedMillis(userId).thenCompose(oldest ->
+                    oldest != null && System.currentTimeMillis() - oldest >= BATCH_MAX_AGE_MS
+                            ? transmitPending(userId)
+                            : CompletableFuture.completedFuture(0));
+        });
+    }
+
+    // Trimite toate punctele netransmise în loturi de cel mult BATCH_MAX_POINTS; întoarce numărul de puncte trimise
+    public CompletableFuture<Integer> transmitPending(String userId) {
+        if (!transmitting.add(userId)) {
+            return CompletableFuture.completedFuture(0); // un alt apel trimite deja pentru acest pacient
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            int sent = 0;
+            try {
+                while (true) {
+                    List<LocationPoint> batch = historyRepository.findUntransmitted(userId, BATCH_MAX_POINTS).join();
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    Map<String, Object> message = LocationTrackEncoder.encode(userId, batch);
+                    boolean ok = dataTransmissionService.transmitData(message, userId).join();
+                    if (!ok) {
+                        batchesFailed.incrementAndGet();
+                        Log.w(TAG, "⚠️ Location batch of " + batch.size() + " points not sent - kept for retry");
+                        break;
+                    }
+                    historyRepository.markTransmitted(userId, batch.get(batch.size() - 1).getTimestampMillis()).join();
+                    batchesSent.incrementAndGet();
+                    pointsSent.addAndGet(batch.size());
+                    sent += batch.size();
+                    Log.d(TAG, "📍 Sent location batch of " + batch.size() + " points for user " + userId);
+                    if (batch.size() < BATCH_MAX_POINTS) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                batchesFailed.incrementAndGet();
+                Log.e(TAG, "❌ Error transmitting location history for user " + userId, e);
+            } finally {
+                transmitting.remove(userId);
+            }
+            return sent;
+        });
+    }
+
+    // Traiectoria într-un interval [from, to): puncte din tabelă + poziția curentă încă nepăstrată
+    public CompletableFuture<List<LocationPoint>> getHistory(String userId, LocalDateTime from, LocalDateTime to) {
+        long fromMillis = LocationPoint.toEpochMillis(from);
+        long toMillis = LocationPoint.toEpochMillis(to);
+        return historyRepository.findByTimeRange(userId, from, to).thenApply(points -> {
+            TrajectorySimplifier simplifier = simplifiers.get(userId);
+            if (simplifier != null) {
+                LocationPoint tail;
+                synchronized (simplifier) {
+                    tail = simplifier.pending();
+                }
+                if (tail != null && tail.getTimestampMillis() >= fromMillis && tail.getTimestampMillis() < toMillis
+                        && (points.isEmpty() || points.get(points.size() - 1).getTimestampMillis() < tail.getTimestampMillis())) {
+                    List<LocationPoint> withTail = new ArrayList<>(points);
+                    withTail.add(tail);
+                    return withTail;
+                }
+            }
+            return points;
+        });
+    }
+
+    public CompletableFuture<Integer> purgeExpired() {
+        return historyRepository.deleteOlderThan(LocalDateTime.now().minusDays(RETENTION_DAYS));
+    }
+
+    private TrajectorySimplifier simplifierFor(String userId) {
+        TrajectorySimplifier simplifier = simplifiers.get(userId);
+        if (simplifier == null) {
+            TrajectorySimplifier created = new TrajectorySimplifier(toleranceMeters,
+                    TrajectorySimplifier.DEFAULT_MAX_WINDOW,
+                    TrajectorySimplifier.DEFAULT_MAX_SEGMENT_MS,
+                    TrajectorySimplifier.DEFAULT_MAX_GAP_MS);
+            simplifier = simplifiers.putIfAbsent(userId, created);
+            if (simplifier == null) {
+                simplifier = created;
+            }
+        }
+        return simplifier;
+    }
+
+    // ========== STATISTICI ==========
+
+    public HistoryStatistics getStatistics() {
+        HistoryStatistics stats = new HistoryStatistics();
+        for (TrajectorySimplifier simplifier : simplifiers.values()) {
+            synchronized (simplifier) {
+                stats.pointsIn += simplifier.getPointsIn();
+                stats.pointsKept += simplifier.getPointsKept();
+                stats.pointsRejected += simplifier.getPointsRejected();
+            }
+        }
+        stats.trackedUsers = simplifiers.size();
+        stats.compressionRatio = stats.pointsKept > 0 ? (double) stats.pointsIn / stats.pointsKept : 1.0;
+        stats.storedPoints = storedPoints.get();
+        stats.batchesSent = batchesSent.get();
+        stats.batchesFailed = batchesFailed.get();
+        stats.pointsSent = pointsSent.get();
+        return stats;
+    }
+
+    public static class HistoryStatistics {
+        public int trackedUsers = 0;
+        public long pointsIn = 0;
+        public long pointsKept = 0;
+        public long pointsRejected = 0;
+        public long storedPoints = 0;
+        public long batchesSent = 0;
+        public long batchesFailed = 0;
+        public long pointsSent = 0;
+        public double compressionRatio = 1.0;
+
+        @Override
+        public String toString() {
+            return String.format("LocationHistory{users=%d, in=%d, kept=%d, rejected=%d, ratio=%.1fx, stored=%d, " +
+                            "batches=%d, failed=%d, sent=%d}",
+                    trackedUsers, pointsIn, pointsKept, pointsRejected, compressionRatio, storedPoints,
+                    batchesSent, batchesFailed, pointsSent);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.feri.watchmyparent.mobile.infrastructure.services;
 
 import android.util.Log;
+import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.Dao;
@@ -10,15 +11,28 @@ import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
 import com.feri.watchmyparent.mobile.infrastructure.database.converters.DateTimeConverter;
 import com.feri.watchmyparent.mobile.infrastructure.database.converters.SensorTypeConverter;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.reflect.TypeToken;
 
+import java.lang.reflect.Type;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -30,29 +44,76 @@ public class OfflineDataManager {
 
     private static final String TAG = "OfflineDataManager";
     private static final int MAX_OFFLINE_RECORDS = 10000; // Limita pentru evitarea overflow-ului
+    private static final int MAX_OFFLINE_EVENTS = 2000; // ✅ NEW: evenimentele sunt rare - tranziții de zonă, anomalii
 
-    private final OfflineDataDatabase database;
+    // ✅ NEW: Mesajul Kafka al unui eveniment e păstrat ca JSON; numerele întregi revin Long (nu Double) la citire,
+    // deci mesajul retrimis e identic cu cel care n-a putut pleca
+    private static final Gson EVENT_GSON = new GsonBuilder()
+            .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
+            .create();
+    private static final Type EVENT_MESSAGE_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+
+    // ✅ NEW: v2 adaugă tabela offline_event (înainte, evenimentele non-senzor erau pierdute în timpul unei pene)
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `offline_event` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`userId` TEXT, `dataType` TEXT, `payload` TEXT, `retryCount` INTEGER NOT NULL, `createdAt` TEXT)");
+        }
+    };
+
+    // ✅ NEW: v3 leagă fiecare citire offline de rândul ei din sensor_data (statusul rândului urmează livrarea)
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `offline_health_data` ADD COLUMN `sensorDataId` TEXT");
+        }
+    };
+
+    private final android.content.Context context;
+    // ✅ MODIFICAT: Baza de date e construită la prima folosire (din thread-urile de I/O), nu la injectare
+    private volatile OfflineDataDatabase database;
+    // ✅ NEW: Scriitorul unic al bazei offline - scrierile sunt grupate în tranzacții (group commit)
+    private final StorageWriter storageWriter = new StorageWriter("offline",
+            body -> database().runInTransaction(body));
+    // ✅ NEW: Rândurile din sensor_data ale citirilor scoase din coadă fără livrare (evacuate la limită, retry-uri
+    // epuizate) - KafkaRetryService le trece FAILED, ca retry-ul din sensor_data să le reia
+    private final ConcurrentLinkedQueue<String> droppedSensorDataIds = new ConcurrentLinkedQueue<>();
 
     @Inject
     public OfflineDataManager(android.content.Context context) {
-        this.database = Room.databaseBuilder(
-                context.getApplicationContext(),
-                OfflineDataDatabase.class,
-                "offline_health_data"
-        ).build();
+        this.context = context.getApplicationContext();
+        Log.d(TAG, "✅ OfflineDataManager created (Room database opened on first use)");
+    }
 
-        Log.d(TAG, "✅ OfflineDataManager initialized with Room database");
+    private OfflineDataDatabase database() {
+        OfflineDataDatabase db = database;
+        if (db == null) {
+            synchronized (this) {
+                db = database;
+                if (db == null) {
+                    db = Room.databaseBuilder(context, OfflineDataDatabase.class, "offline_health_data")
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3) // ✅ NEW: datele offline nu se pierd la actualizare
+                            .fallbackToDestructiveMigrationOnDowngrade()
+                            .build();
+                    database = db;
+                    Log.d(TAG, "✅ OfflineDataManager Room database initialized");
+                }
+            }
+        }
+        return db;
     }
 
     // Salvează datele local când Kafka nu e disponibi
     public CompletableFuture<Boolean> storeOfflineData(SensorDataDTO sensorData) {
-        return CompletableFuture.supplyAsync(() -> {
+        return write(StorageWriter.priorityOf(sensorData.getSensorType()), () -> {
             try {
                 // Verifică dacă am prea multe înregistrări offline
-                int offlineCount = database.offlineDao().getOfflineCount();
+                int offlineCount = database().offlineDao().getOfflineCount();
                 if (offlineCount >= MAX_OFFLINE_RECORDS) {
                     // Șterge cele mai vechi 1000 de înregistrări
-                    database.offlineDao().deleteOldestRecords(1000);
+                    droppedSensorDataIds.addAll(database().offlineDao().getOldestSensorDataIds(1000));
+                    database().offlineDao().deleteOldestRecords(1000);
                     Log.w(TAG, "⚠️ Cleaned " + 1000 + " old offline records (limit: " + MAX_OFFLINE_RECORDS + ")");
                 }
 
@@ -66,8 +127,9 @@ public class OfflineDataManager {
                 offlineData.deviceId = sensorData.getDeviceId();
                 offlineData.retryCount = sensorData.getRetryCount();
                 offlineData.createdAt = LocalDateTime.now();
+                offlineData.sensorDataId = sensorData.getSensorDataId();
 
-                long id = database.offlineDao().insertOfflineData(offlineData);
+                long id = database().offlineDao().insertOfflineData(offlineData);
 
                 if (id > 0) {
                     Log.d(TAG, "💾 Stored offline: " + sensorData.getSensorType() +
@@ -80,16 +142,87 @@ public class OfflineDataManager {
 
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error storing offline data", e);
-                return false;
+                throw new RuntimeException("Failed to store offline data", e);
+            }
+        }, false);
+    }
+
+    // ✅ NEW: Salvează un eveniment (mesaj Kafka deja construit) pentru retransmitere când Kafka revine
+    public CompletableFuture<Boolean> storeOfflineEvent(Map<String, Object> message, String userId) {
+        String payload = EVENT_GSON.toJson(message);
+        Object dataType = message.get("dataType");
+        return write(Priority.CRITICAL, () -> {
+            try {
+                int eventCount = database().eventDao().getEventCount();
+                if (eventCount >= MAX_OFFLINE_EVENTS) {
+                    database().eventDao().deleteOldestEvents(100);
+                    Log.w(TAG, "⚠️ Cleaned 100 old offline events (limit: " + MAX_OFFLINE_EVENTS + ")");
+                }
+
+                OfflineEvent event = new OfflineEvent();
+                event.userId = userId;
+                event.dataType = dataType != null ? dataType.toString() : null;
+                event.payload = payload;
+                event.createdAt = LocalDateTime.now();
+
+                long id = database().eventDao().insertEvent(event);
+                Log.d(TAG, "💾 Stored offline event: " + event.dataType + " for user " + userId);
+                return id > 0;
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error storing offline event", e);
+                throw new RuntimeException("Failed to store offline event", e);
+            }
+        }, false);
+    }
+
+    // ✅ NEW: Evenimentele offline, cele mai vechi primele
+    public CompletableFuture<List<OfflineEvent>> getOfflineEvents() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return database().eventDao().getAllEvents();
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error retrieving offline events", e);
+                return new java.util.ArrayList<>();
             }
         });
     }
 
+    // ✅ NEW: Mesajul Kafka salvat de storeOfflineEvent
+    public static Map<String, Object> decodeEvent(OfflineEvent event) {
+        return EVENT_GSON.fromJson(event.payload, EVENT_MESSAGE_TYPE);
+    }
+
+    public CompletableFuture<Boolean> deleteOfflineEvents(List<Long> ids) {
+        return write(Priority.NORMAL, () -> {
+            try {
+                int deleted = database().eventDao().deleteEventsByIds(ids);
+                Log.d(TAG, "🗑️ Deleted " + deleted + " offline events after successful transmission");
+                return deleted > 0;
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error deleting offline events", e);
+                throw new RuntimeException("Failed to delete offline events", e);
+            }
+        }, false);
+    }
+
+    public CompletableFuture<Boolean> incrementEventRetryCount(List<Long> ids) {
+        return write(Priority.NORMAL, () -> {
+            try {
+                return database().eventDao().incrementRetryCount(ids) > 0;
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error updating event retry count", e);
+                throw new RuntimeException("Failed to update event retry count", e);
+            }
+        }, false);
+    }
+
     // Recuperează toate datele offline pentru transmitere
     public CompletableFuture<List<OfflineHealthData>> getOfflineData() {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                List<OfflineHealthData> offlineData = database.offlineDao().getAllOfflineData();
+                List<OfflineHealthData> offlineData = database().offlineDao().getAllOfflineData();
                 Log.d(TAG, "📤 Retrieved " + offlineData.size() + " offline records for transmission");
                 return offlineData;
 
@@ -102,39 +235,42 @@ public class OfflineDataManager {
 
     // Șterge datele offline după transmiterea cu succes
     public CompletableFuture<Boolean> deleteOfflineData(List<Long> ids) {
-        return CompletableFuture.supplyAsync(() -> {
+        return write(Priority.NORMAL, () -> {
             try {
-                int deleted = database.offlineDao().deleteOfflineDataByIds(ids);
+                int deleted = database().offlineDao().deleteOfflineDataByIds(ids);
                 Log.d(TAG, "🗑️ Deleted " + deleted + " offline records after successful transmission");
                 return deleted > 0;
 
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error deleting offline data", e);
-                return false;
+                throw new RuntimeException("Failed to delete offline data", e);
             }
-        });
+        }, false);
     }
 
     // Incrementează retry count pentru înregistrările eșuate
     public CompletableFuture<Boolean> incrementRetryCount(List<Long> ids) {
-        return CompletableFuture.supplyAsync(() -> {
+        return write(Priority.NORMAL, () -> {
             try {
-                int updated = database.offlineDao().incrementRetryCount(ids);
+                int updated = database().offlineDao().incrementRetryCount(ids);
                 Log.d(TAG, "🔄 Updated retry count for " + updated + " records");
                 return updated > 0;
 
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error updating retry count", e);
-                return false;
+                throw new RuntimeException("Failed to update retry count", e);
             }
-        });
+        }, false);
     }
 
     // Curăță înregistrările cu prea multe retry-uri
     public CompletableFuture<Integer> cleanupFailedRecords(int maxRetries) {
-        return CompletableFuture.supplyAsync(() -> {
+        return write(Priority.NORMAL, () -> {
             try {
-                int deleted = database.offlineDao().deleteFailedRecords(maxRetries);
+                // ✅ MODIFICAT: și evenimentele care au epuizat retry-urile
+                droppedSensorDataIds.addAll(database().offlineDao().getFailedSensorDataIds(maxRetries));
+                int deleted = database().offlineDao().deleteFailedRecords(maxRetries)
+                        + database().eventDao().deleteFailedEvents(maxRetries);
                 if (deleted > 0) {
                     Log.w(TAG, "🧹 Cleaned up " + deleted + " failed records (max retries: " + maxRetries + ")");
                 }
@@ -142,20 +278,44 @@ public class OfflineDataManager {
 
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error cleaning up failed records", e);
-                return 0;
+                throw new RuntimeException("Failed to clean up failed records", e);
             }
+        }, 0);
+    }
+
+    // ✅ NEW: Rândurile din sensor_data rămase fără copie offline de la ultimul apel
+    public List<String> drainDroppedSensorDataIds() {
+        List<String> ids = new ArrayList<>();
+        for (String id; (id = droppedSensorDataIds.poll()) != null; ) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    // Scrierea intră în următoarea tranzacție de grup; un commit eșuat întoarce valoarea de eșec, ca înainte
+    // ✅ MODIFICAT: Corpurile aruncă mai departe - o eroare prinsă în corp ar lăsa StorageWriter să creadă că
+    // intenția a reușit, deși Room anulează în tăcere toată tranzacția de grup; aici devine valoarea de eșec
+    private <T> CompletableFuture<T> write(Priority priority, Supplier<T> write, T failure) {
+        return storageWriter.submit(priority, write).exceptionally(e -> {
+            Log.e(TAG, "❌ Offline write transaction failed", e);
+            return failure;
         });
     }
 
+    public StorageWriter.WriterStatistics getWriterStatistics() {
+        return storageWriter.getStatistics();
+    }
+
     // Obține statistici offline
     public CompletableFuture<OfflineStatistics> getOfflineStatistics() {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 OfflineStatistics stats = new OfflineStatistics();
-                stats.totalRecords = database.offlineDao().getOfflineCount();
-                stats.pendingRecords = database.offlineDao().getPendingCount();
-                stats.failedRecords = database.offlineDao().getFailedCount(3);
-                stats.oldestRecord = database.offlineDao().getOldestRecordTime();
+                stats.totalRecords = database().offlineDao().getOfflineCount();
+                stats.pendingRecords = database().offlineDao().getPendingCount();
+                stats.failedRecords = database().offlineDao().getFailedCount(3);
+                stats.oldestRecord = database().offlineDao().getOldestRecordTime();
+                stats.pendingEvents = database().eventDao().getEventCount();
 
                 return stats;
 
@@ -181,6 +341,7 @@ public class OfflineDataManager {
         public String deviceId;
         public int retryCount = 0;
         public LocalDateTime createdAt;
+        public String sensorDataId; // ✅ NEW: rândul din sensor_data (null = fără istoric local)
     }
 
     // DAO pentru operațiuni offline
@@ -201,6 +362,14 @@ public class OfflineDataManager {
         @Query("DELETE FROM offline_health_data WHERE retryCount >= :maxRetries")
         int deleteFailedRecords(int maxRetries);
 
+        // ✅ NEW: Rândurile din sensor_data ale înregistrărilor pe care deleteFailedRecords / deleteOldestRecords le scot
+        @Query("SELECT sensorDataId FROM offline_health_data WHERE retryCount >= :maxRetries AND sensorDataId IS NOT NULL")
+        List<String> getFailedSensorDataIds(int maxRetries);
+
+        @Query("SELECT sensorDataId FROM offline_health_data WHERE sensorDataId IS NOT NULL AND id IN "
+                + "(SELECT id FROM offline_health_data ORDER BY createdAt ASC LIMIT :count)")
+        List<String> getOldestSensorDataIds(int count);
+
         @Query("DELETE FROM offline_health_data WHERE id IN (SELECT id FROM offline_health_data ORDER BY createdAt ASC LIMIT :count)")
         int deleteOldestRecords(int count);
 
@@ -217,11 +386,51 @@ public class OfflineDataManager {
         LocalDateTime getOldestRecordTime();
     }
 
+    // ✅ NEW: Eveniment offline - mesajul Kafka complet (tranziție de zonă, anomalie vitală), serializat JSON
+    @Entity(tableName = "offline_event")
+    @TypeConverters({DateTimeConverter.class})
+    public static class OfflineEvent {
+        @PrimaryKey(autoGenerate = true)
+        public long id;
+
+        public String userId;
+        public String dataType;
+        public String payload;
+        public int retryCount = 0;
+        public LocalDateTime createdAt;
+    }
+
+    @Dao
+    public interface OfflineEventDao {
+        @Insert
+        long insertEvent(OfflineEvent event);
+
+        @Query("SELECT * FROM offline_event ORDER BY id ASC")
+        List<OfflineEvent> getAllEvents();
+
+        @Query("DELETE FROM offline_event WHERE id IN (:ids)")
+        int deleteEventsByIds(List<Long> ids);
+
+        @Query("UPDATE offline_event SET retryCount = retryCount + 1 WHERE id IN (:ids)")
+        int incrementRetryCount(List<Long> ids);
+
+        @Query("DELETE FROM offline_event WHERE retryCount >= :maxRetries")
+        int deleteFailedEvents(int maxRetries);
+
+        @Query("DELETE FROM offline_event WHERE id IN (SELECT id FROM offline_event ORDER BY id ASC LIMIT :count)")
+        int deleteOldestEvents(int count);
+
+        @Query("SELECT COUNT(*) FROM offline_event")
+        int getEventCount();
+    }
+
     // Database Room
-    @Database(entities = {OfflineHealthData.class}, version = 1, exportSchema = false)
+    // ✅ MODIFICAT: v2 - tabela offline_event (MIGRATION_1_2), v3 - offline_health_data.sensorDataId (MIGRATION_2_3)
+    @Database(entities = {OfflineHealthData.class, OfflineEvent.class}, version = 3, exportSchema = false)
     @TypeConverters({DateTimeConverter.class, SensorTypeConverter.class})
     public abstract static class OfflineDataDatabase extends RoomDatabase {
         public abstract OfflineHealthDataDao offlineDao();
+        public abstract OfflineEventDao eventDao();
     }
 
     // Statistici offline
@@ -230,11 +439,12 @@ public class OfflineDataManager {
         public int pendingRecords = 0;
         public int failedRecords = 0;
         public LocalDateTime oldestRecord = null;
+        public int pendingEvents = 0; // ✅ NEW
 
         @Override
         public String toString() {
-            return String.format("Offline Stats: Total=%d, Pending=%d, Failed=%d, Oldest=%s",
-                    totalRecords, pendingRecords, failedRecords,
+            return String.format("Offline Stats: Total=%d, Pending=%d, Failed=%d, Events=%d, Oldest=%s",
+                    totalRecords, pendingRecords, failedRecords, pendingEvents,
                     oldestRecord != null ? oldestRecord.toString() : "N/A");
         }
     }
@@ -0,0 +1,171 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ✅ NEW: Ce tipuri de senzori sunt acoperite de livrările pasive (Health Services) pentru fiecare pacient.
+// Un tip acoperit nu mai este citit prin polling; dacă livrările întârzie peste pragul de staleness
+// (sau permisiunea se pierde), tipul revine automat în polling până la următorul batch pasiv.
+public class PassiveDataCoverage {
+
+    // Platforma livrează batch-uri la câteva minute - semnele vitale tolerează mai puțină întârziere
+    public static final long CRITICAL_STALE_AFTER_MS = 5 * 60_000L;
+    public static final long DEFAULT_STALE_AFTER_MS = 15 * 60_000L;
+
+    private final Map<String, PatientCoverage> patients = new ConcurrentHashMap<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong readingsAccepted = new AtomicLong();
+    private final AtomicLong duplicatesDropped = new AtomicLong();
+    private final AtomicLong pollsSkipped = new AtomicLong();
+    private final AtomicLong fallbackPolls = new AtomicLong();
+
+    // Tipurile înregistrate la platformă; până la primul batch sunt acoperite o fereastră de staleness
+    public void register(String userId, Collection<SensorType> types, long nowMillis) {
+        PatientCoverage coverage = patients.computeIfAbsent(userId, id -> new PatientCoverage());
+        synchronized (coverage) {
+            coverage.lastDelivery.clear();
+            coverage.watermark.keySet().retainAll(types);
+            for (SensorType type : types) {
+                coverage.lastDelivery.put(type, nowMillis);
+                if (!coverage.watermark.containsKey(type)) {
+                    coverage.watermark.put(type, Long.MIN_VALUE);
+                }
+            }
+        }
+    }
+
+    // Permisiune pierdută / înregistrare ștearsă - totul revine în polling
+    public void clear(String userId) {
+        PatientCoverage coverage = patients.get(userId);
+        if (coverage == null) return;
+        synchronized (coverage) {
+            coverage.lastDelivery.clear();
+        }
+    }
+
+    // Filtrează un batch pasiv: platforma poate re-livra puncte deja primite (ex. după repornirea procesului)
+    public List<SensorReading> accept(String userId, List<SensorReading> readings, long nowMillis) {
+        batches.incrementAndGet();
+        PatientCoverage coverage = patients.get(userId);
+        if (coverage == null || readings == null || readings.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<SensorReading> accepted = new ArrayList<>(readings.size());
+        synchronized (coverage) {
+            for (SensorReading reading : readings) {
+                SensorType type = reading.getSensorType();
+                if (type == null || !coverage.watermark.containsKey(type)) continue;
+
+                long timestamp = toMillis(reading.getTimestamp(), nowMillis);
+                if (timestamp <= coverage.watermark.get(type)) {
+                    duplicatesDropped.incrementAndGet();
+                    continue;
+                }
+                coverage.watermark.put(type, timestamp);
+                coverage.lastDelivery.put(type, nowMillis);
+                accepted.add(reading);
+            }
+        }
+        readingsAccepted.addAndGet(accepted.size());
+        return accepted;
+    }
+
+    public boolean isCovered(String userId, SensorType type, long nowMillis) {
+        PatientCoverage coverage = patients.get(userId);
+        if (coverage == null) return false;
+        synchronized (coverage) {
+            Long last = coverage.lastDelivery.get(type);
+            return last != null && nowMillis - last <= staleAfter(type);
+        }
+    }
+
+    // Tipurile care trebuie încă citite prin polling la acest tick
+    public List<SensorType> sensorsToPoll(String userId, List<SensorType> requested, long nowMillis) {
+        PatientCoverage coverage = patients.get(userId);
+        if (coverage == null) return requested;
+
+        List<SensorType> toPoll = new ArrayList<>(requested.size());
+        synchronized (coverage) {
+            for (SensorType type : requested) {
+                if (!coverage.watermark.containsKey(type)) {
+                    toPoll.add(type);
+                    continue;
+                }
+                Long last = coverage.lastDelivery.get(type);
+                if (last != null && nowMillis - last <= staleAfter(type)) {
+                    pollsSkipped.incrementAndGet();
+                } else {
+                    fallbackPolls.incrementAndGet();
+                    toPoll.add(type);
+                }
+            }
+        }
+        return toPoll;
+    }
+
+    public Set<SensorType> getRegisteredTypes(String userId) {
+        PatientCoverage coverage = patients.get(userId);
+        if (coverage == null) return Collections.emptySet();
+        synchronized (coverage) {
+            return Collections.unmodifiableSet(new HashSet<>(coverage.watermark.keySet()));
+        }
+    }
+
+    public static long staleAfter(SensorType type) {
+        return type.getCriticalityLevel() == CriticalityLevel.CRITICAL
+                ? CRITICAL_STALE_AFTER_MS : DEFAULT_STALE_AFTER_MS;
+    }
+
+    public CoverageStatistics getStatistics() {
+        CoverageStatistics stats = new CoverageStatistics();
+        stats.batches = batches.get();
+        stats.readingsAccepted = readingsAccepted.get();
+        stats.duplicatesDropped = duplicatesDropped.get();
+        stats.pollsSkipped = pollsSkipped.get();
+        stats.fallbackPolls = fallbackPolls.get();
+        return stats;
+    }
+
+    private static long toMillis(LocalDateTime timestamp, long fallbackMillis) {
+        return timestamp != null
+                ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : fallbackMillis;
+    }
+
+    private static class PatientCoverage {
+        // Ultimul timestamp primit per tip (deduplicare) - prezența cheii = tip înregistrat pasiv
+        final Map<SensorType, Long> watermark = new EnumMap<>(SensorType.class);
+        // Momentul ultimei livrări utile per tip - lipsa cheii = neacoperit
+        final Map<SensorType, Long> lastDelivery = new EnumMap<>(SensorType.class);
+    }
+
+    public static class CoverageStatistics {
+        public long batches;
+        public long readingsAccepted;
+        public long duplicatesDropped;
+        public long pollsSkipped;
+        public long fallbackPolls;
+
+        @Override
+        public String toString() {
+            return String.format("PassiveCoverage{batches=%d, accepted=%d, duplicates=%d, pollsSkipped=%d, fallbackPolls=%d}",
+                    batches, readingsAccepted, duplicatesDropped, pollsSkipped, fallbackPolls);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+// ✅ NEW: Pacientul care poartă ceasul asociat telefonului - citirile, locația, căderile și livrările pasive
+// sunt atribuite lui. Persistat în SharedPreferences; până la asocierea unui cont rămâne contul demo
+// creat de DemoDataInitializer.
+@Singleton
+public class PatientRegistry {
+
+    private static final String TAG = "PatientRegistry";
+    private static final String PREFS_NAME = "patient_registry";
+    private static final String KEY_USER_ID = "primary_user_id";
+    private static final String KEY_DEVICE_ID = "primary_device_id";
+
+    public static final String DEFAULT_USER_ID = "demo-user-id";
+    public static final String DEFAULT_DEVICE_ID = "samsung_galaxy_watch_7";
+
+    public interface PrimaryPatientListener {
+        void onPrimaryPatientChanged(String previousUserId, String previousDeviceId, String userId, String deviceId);
+    }
+
+    private final SharedPreferences prefs; // null -> doar în memorie (simulări, teste)
+    private final List<PrimaryPatientListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile String primaryUserId;
+    private volatile String primaryDeviceId;
+
+    @Inject
+    public PatientRegistry(@ApplicationContext Context context) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.primaryUserId = prefs.getString(KEY_USER_ID, DEFAULT_USER_ID);
+        this.primaryDeviceId = prefs.getString(KEY_DEVICE_ID, DEFAULT_DEVICE_ID);
+        Log.d(TAG, "✅ Primary patient: " + primaryUserId + " (" + primaryDeviceId + ")");
+    }
+
+    public PatientRegistry(String primaryUserId, String primaryDeviceId) {
+        this.prefs = null;
+        this.primaryUserId = requireUserId(primaryUserId);
+        this.primaryDeviceId = primaryDeviceId != null ? primaryDeviceId : DEFAULT_DEVICE_ID;
+    }
+
+    public String getPrimaryUserId() {
+        return primaryUserId;
+    }
+
+    public String getPrimaryDeviceId() {
+        return primaryDeviceId;
+    }
+
+    // Asocierea ceasului cu alt pacient (ex. după crearea contului) - ascultătorii mută înregistrările
+    public void setPrimaryPatient(String userId, String deviceId) {
+        String previousUserId;
+        String previousDeviceId;
+        synchronized (this) {
+            String resolvedDeviceId = deviceId != null ? deviceId : DEFAULT_DEVICE_ID;
+            if (requireUserId(userId).equals(primaryUserId) && resolvedDeviceId.equals(primaryDeviceId)) {
+                return;
+            }
+            previousUserId = primaryUserId;
+            previousDeviceId = primaryDeviceId;
+            primaryUserId = userId;
+            primaryDeviceId = resolvedDeviceId;
+            if (prefs != null) {
+                prefs.edit()
+                        .putString(KEY_USER_ID, userId)
+                        .putString(KEY_DEVICE_ID, resolvedDeviceId)
+                        .apply();
+            }
+        }
+
+        Log.d(TAG, "🔄 Primary patient: " + previousUserId + " -> " + userId + " (" + primaryDeviceId + ")");
+        for (PrimaryPatientListener listener : listeners) {
+            listener.onPrimaryPatientChanged(previousUserId, previousDeviceId, userId, primaryDeviceId);
+        }
+    }
+
+    public void addListener(PrimaryPatientListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PrimaryPatientListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static String requireUserId(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        return userId;
+    }
+}
@@ -0,0 +1,285 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Executor partajat pe pacienți: fiecare pacient are propria "bandă" serială (task-urile lui rulează
+// strict în ordinea trimiterii), iar benzile diferite rulează în paralel pe un pool comun de workeri.
+// Izolare: backlog limitat per pacient + backoff exponențial după eșecuri consecutive,
+// astfel încât un ceas blocat sau defect nu întârzie colectarea celorlalți pacienți.
+public class PatientShardedExecutor {
+
+    private static final String TAG = "PatientShardedExecutor";
+
+    public static final int DEFAULT_MAX_BACKLOG_PER_PATIENT = 8;
+    private static final int TASKS_PER_TURN = 4; // după atâtea task-uri banda cedează workerul (fairness)
+    private static final int FAILURES_BEFORE_BACKOFF = 3;
+    private static final long BASE_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 5 * 60 * 1000;
+
+    private final ExecutorService workers;
+    private final int maxBacklogPerPatient;
+    private final Map<String, PatientLane> lanes = new ConcurrentHashMap<>();
+
+    public PatientShardedExecutor(int workerThreads, int maxBacklogPerPatient) {
+        this.workers = Executors.newFixedThreadPool(workerThreads, new LaneThreadFactory());
+        this.maxBacklogPerPatient = maxBacklogPerPatient;
+        Log.d(TAG, "✅ Patient sharded executor: " + workerThreads + " workers, backlog/patient=" + maxBacklogPerPatient);
+    }
+
+    public PatientShardedExecutor() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_MAX_BACKLOG_PER_PATIENT);
+    }
+
+    // Task-ul rulează după toate task-urile trimise anterior pentru același pacient
+    public <T> CompletableFuture<T> submit(String patientKey, Supplier<T> task) {
+        PatientLane lane = lanes.computeIfAbsent(patientKey, PatientLane::new);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Runnable work = () -> {
+            try {
+                T value = task.get();
+                lane.recordSuccess();
+                result.complete(value);
+            } catch (Throwable t) {
+                lane.recordFailure();
+                result.completeExceptionally(t);
+            }
+        };
+
+        boolean schedule;
+        synchronized (lane) {
+            long now = System.currentTimeMillis();
+            if (now < lane.backoffUntilMs) {
+                lane.skipped++;
+                result.completeExceptionally(new RejectedExecutionException(
+                        "Patient " + patientKey + " in backoff for " + (lane.backoffUntilMs - now) + "ms"));
+                return result;
+            }
+            if (lane.queue.size() >= maxBacklogPerPatient) {
+                lane.shed++;
+                result.completeExceptionally(new RejectedExecutionException(
+                        "Patient " + patientKey + " backlog full (" + maxBacklogPerPatient + ")"));
+                return result;
+            }
+            lane.queue.add(work);
+            lane.peakBacklog = Math.max(lane.peakBacklog, lane.queue.size());
+            schedule = !lane.scheduled;
+            lane.scheduled = true;
+        }
+
+        if (schedule) {
+            try {
+                workers.execute(lane);
+            } catch (RejectedExecutionException e) {
+                synchronized (lane) {
+                    lane.queue.clear();
+                    lane.scheduled = false;
+                }
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    public boolean isInBackoff(String patientKey) {
+        PatientLane lane = lanes.get(patientKey);
+        return lane != null && System.currentTimeMillis() < lane.backoffUntilMs;
+    }
+
+    public void resetPatient(String patientKey) {
+        PatientLane lane = lanes.get(patientKey);
+        if (lane != null) {
+            synchronized (lane) {
+                lane.consecutiveFailures = 0;
+                lane.backoffUntilMs = 0;
+            }
+        }
+    }
+
+    public void removePatient(String patientKey) {
+        lanes.remove(patientKey);
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Bandă serială pentru un pacient - rulează cel mult TASKS_PER_TURN task-uri, apoi se re-programează
+    private final class PatientLane implements Runnable {
+        final String patientKey;
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        boolean scheduled = false;
+
+        // Statistici - scrise doar sub lock-ul benzii
+        long completed = 0;
+        long failed = 0;
+        long shed = 0;
+        long skipped = 0;
+        int peakBacklog = 0;
+        int consecutiveFailures = 0;
+        volatile long backoffUntilMs = 0;
+        long lastSuccessMs = 0;
+
+        PatientLane(String patientKey) {
+            this.patientKey = patientKey;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < TASKS_PER_TURN; i++) {
+                Runnable next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                next.run();
+            }
+
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+
+        synchronized void recordSuccess() {
+            completed++;
+            consecutiveFailures = 0;
+            backoffUntilMs = 0;
+            lastSuccessMs = System.currentTimeMillis();
+        }
+
+        synchronized void recordFailure() {
+            failed++;
+            consecutiveFailures++;
+            if (consecutiveFailures >= FAILURES_BEFORE_BACKOFF) {
+                int exponent = Math.min(consecutiveFailures - FAILURES_BEFORE_BACKOFF, 16);
+                long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << exponent);
+                backoffUntilMs = System.currentTimeMillis() + backoff;
+                Log.w(TAG, "⚠️ Patient " + patientKey + " failed " + consecutiveFailures +
+                        " times in a row - backing off " + backoff + "ms");
+            }
+        }
+
+        synchronized LaneStatistics snapshot() {
+            LaneStatistics stats = new LaneStatistics();
+            stats.patientKey = patientKey;
+            stats.backlog = queue.size();
+            stats.peakBacklog = peakBacklog;
+            stats.completed = completed;
+            stats.failed = failed;
+            stats.shed = shed;
+            stats.skipped = skipped;
+            stats.consecutiveFailures = consecutiveFailures;
+            stats.inBackoff = System.currentTimeMillis() < backoffUntilMs;
+            stats.lastSuccessMs = lastSuccessMs;
+            return stats;
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public List<LaneStatistics> getLaneStatistics() {
+        List<LaneStatistics> result = new ArrayList<>();
+        for (PatientLane lane : lanes.values()) {
+            result.add(lane.snapshot());
+        }
+        return result;
+    }
+
+    public ExecutorStatistics getStatistics() {
+        ExecutorStatistics stats = new ExecutorStatistics();
+        for (PatientLane lane : lanes.values()) {
+            LaneStatistics laneStats = lane.snapshot();
+            stats.patients++;
+            stats.backlog += laneStats.backlog;
+            stats.completed += laneStats.completed;
+            stats.failed += laneStats.failed;
+            stats.shed += laneStats.shed;
+            stats.skipped += laneStats.skipped;
+            if (laneStats.inBackoff) stats.patientsInBackoff++;
+        }
+        return stats;
+    }
+
+    public static class LaneStatistics {
+        public String patientKey;
+        public int backlog;
+        public int peakBacklog;
+        public long completed;
+        public long failed;
+        public long shed;
+        public long skipped;
+        public int consecutiveFailures;
+        public boolean inBackoff;
+        public long lastSuccessMs;
+
+        @Override
+        public String toString() {
+            return String.format("%s: backlog=%d (peak %d), completed=%d, failed=%d, shed=%d, skipped=%d%s",
+                    patientKey, backlog, peakBacklog, completed, failed, shed, skipped,
+                    inBackoff ? " [BACKOFF]" : "");
+        }
+    }
+
+    public static class ExecutorStatistics {
+        public int patients = 0;
+        public int patientsInBackoff = 0;
+        public long backlog = 0;
+        public long completed = 0;
+        public long failed = 0;
+        public long shed = 0;
+        public long skipped = 0;
+
+        @Override
+        public String toString() {
+            return String.format("PatientShards{patients=%d, backoff=%d, backlog=%d, completed=%d, " +
+                            "failed=%d, shed=%d, skipped=%d}",
+                    patients, patientsInBackoff, backlog, completed, failed, shed, skipped);
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "patient-shard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace.Stage;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// Măsoară latența end-to-end (timestamp senzor -> ACK Kafka) și pe etape pentru citirile eșantionate
+// Histogramele sunt pre-alocate per SensorType și per CriticalityLevel - zero alocări pe hot path
+@Singleton
+public class PipelineLatencyTracer {
+
+    private static final String TAG = "PipelineLatencyTracer";
+
+    // Rate implicite de eșantionare - senzorii critici sunt urmăriți mai des
+    private static final double DEFAULT_CRITICAL_SAMPLING = 0.10;
+    private static final double DEFAULT_IMPORTANT_SAMPLING = 0.05;
+    private static final double DEFAULT_REGULAR_SAMPLING = 0.01;
+    private static final double DEFAULT_LONG_TERM_SAMPLING = 0.01;
+
+    // Limită pentru vârsta timestamp-ului senzorului (citiri din cache / Health Connect pot fi foarte vechi)
+    private static final long MAX_SENSOR_AGE_NANOS = Duration.ofHours(24).toNanos();
+
+    private static final int STAGE_COUNT = Stage.values().length;
+    private static final int TYPE_COUNT = SensorType.values().length;
+    private static final int LEVEL_COUNT = CriticalityLevel.values().length;
+
+    private volatile boolean enabled = true;
+    private final double[] samplingRates = new double[LEVEL_COUNT];
+
+    // [stage][sensorType] și [stage][criticality] - latența de la etapa anterioară până la etapa curentă
+    private final LatencyHistogram[][] stageByType = new LatencyHistogram[STAGE_COUNT][TYPE_COUNT];
+    private final LatencyHistogram[][] stageByLevel = new LatencyHistogram[STAGE_COUNT][LEVEL_COUNT];
+    // End-to-end: SENSOR_TIMESTAMP -> etapa terminală
+    private final LatencyHistogram[] endToEndByType = new LatencyHistogram[TYPE_COUNT];
+    private final LatencyHistogram[] endToEndByLevel = new LatencyHistogram[LEVEL_COUNT];
+    // Timpul petrecut în coada offline până la re-transmitere (wall clock, createdAt -> replay)
+    private final LatencyHistogram[] offlineDwellByType = new LatencyHistogram[TYPE_COUNT];
+
+    private final AtomicLong tracesStarted = new AtomicLong();
+    private final AtomicLong tracesCompleted = new AtomicLong();
+    private final AtomicLong[] outcomeCounts = new AtomicLong[STAGE_COUNT];
+
+    @Inject
+    public PipelineLatencyTracer() {
+        samplingRates[CriticalityLevel.CRITICAL.ordinal()] = DEFAULT_CRITICAL_SAMPLING;
+        samplingRates[CriticalityLevel.IMPORTANT.ordinal()] = DEFAULT_IMPORTANT_SAMPLING;
+        samplingRates[CriticalityLevel.REGULAR.ordinal()] = DEFAULT_REGULAR_SAMPLING;
+        samplingRates[CriticalityLevel.LONG_TERM.ordinal()] = DEFAULT_LONG_TERM_SAMPLING;
+
+        for (int s = 0; s < STAGE_COUNT; s++) {
+            for (int t = 0; t < TYPE_COUNT; t++) stageByType[s][t] = new LatencyHistogram();
+            for (int l = 0; l < LEVEL_COUNT; l++) stageByLevel[s][l] = new LatencyHistogram();
+            outcomeCounts[s] = new AtomicLong();
+        }
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            endToEndByType[t] = new LatencyHistogram();
+            offlineDwellByType[t] = new LatencyHistogram();
+        }
+        for (int l = 0; l < LEVEL_COUNT; l++) endToEndByLevel[l] = new LatencyHistogram();
+
+        Log.d(TAG, "✅ PipelineLatencyTracer initialized (critical sampling: " + DEFAULT_CRITICAL_SAMPLING + ")");
+    }
+
+    // ========== CONFIGURARE ==========
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        Log.d(TAG, "⚙️ Latency tracing " + (enabled ? "enabled" : "disabled"));
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    // rate în [0.0, 1.0] - 0 dezactivează tracing-ul pentru nivelul respectiv
+    public void setSamplingRate(CriticalityLevel level, double rate) {
+        samplingRates[level.ordinal()] = Math.max(0.0, Math.min(1.0, rate));
+        Log.d(TAG, "⚙️ Sampling rate for " + level.name() + " set to " + samplingRates[level.ordinal()]);
+    }
+
+    public double getSamplingRate(CriticalityLevel level) {
+        return samplingRates[level.ordinal()];
+    }
+
+    // ========== HOT PATH ==========
+
+    // Decide eșantionarea și atașează trace-ul citirii; returnează null dacă citirea nu e urmărită
+    public ReadingTrace startTrace(SensorReading reading) {
+        if (!enabled || reading == null || reading.getSensorType() == null) return null;
+        if (reading.getTrace() != null) return reading.getTrace();
+
+        double rate = samplingRates[reading.getSensorType().getCriticalityLevel().ordinal()];
+        if (rate <= 0.0 || (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        ReadingTrace trace = new ReadingTrace(reading.getSensorType(),
+                now - sensorAgeNanos(reading.getTimestamp()), now);
+        reading.setTrace(trace);
+        tracesStarted.incrementAndGet();
+        return trace;
+    }
+
+    // Null-safe: apelanții nu trebuie să verifice dacă citirea e eșantionată
+    public void mark(ReadingTrace trace, Stage stage) {
+        if (trace != null) {
+            trace.mark(stage, System.nanoTime());
+        }
+    }
+
+    // Marchează etapa terminală și înregistrează histogramele (o singură dată per trace)
+    public void complete(ReadingTrace trace, Stage terminalStage) {
+        if (trace == null) return;
+        trace.mark(terminalStage, System.nanoTime());
+        if (!trace.tryComplete()) return;
+
+        int typeIndex = trace.getSensorType().ordinal();
+        int levelIndex = trace.getCriticalityLevel().ordinal();
+
+        long previous = trace.getStageNanos(Stage.SENSOR_TIMESTAMP);
+        for (Stage stage : Stage.values()) {
+            if (stage == Stage.SENSOR_TIMESTAMP || !trace.hasStage(stage)) continue;
+            long current = trace.getStageNanos(stage);
+            long delta = current - previous;
+            stageByType[stage.ordinal()][typeIndex].record(delta);
+            stageByLevel[stage.ordinal()][levelIndex].record(delta);
+            previous = current;
+        }
+
+        long endToEnd = trace.getStageNanos(terminalStage) - trace.getStageNanos(Stage.SENSOR_TIMESTAMP);
+        endToEndByType[typeIndex].record(endToEnd);
+        endToEndByLevel[levelIndex].record(endToEnd);
+
+        outcomeCounts[terminalStage.ordinal()].incrementAndGet();
+        tracesCompleted.incrementAndGet();
+    }
+
+    // Înregistrările offline nu supraviețuiesc cu nanos monotone - folosim createdAt (wall clock)
+    public void recordOfflineDwell(SensorType sensorType, LocalDateTime createdAt) {
+        if (!enabled || sensorType == null || createdAt == null) return;
+        long dwellNanos = Duration.between(createdAt, LocalDateTime.now()).toNanos();
+        offlineDwellByType[sensorType.ordinal()].record(dwellNanos);
+    }
+
+    private long sensorAgeNanos(LocalDateTime sensorTimestamp) {
+        if (sensorTimestamp == null) return 0L;
+        long age = Duration.between(sensorTimestamp, LocalDateTime.now()).toNanos();
+        return Math.max(0L, Math.min(age, MAX_SENSOR_AGE_NANOS));
+    }
+
+    // ========== STATISTICI ==========
+
+    public LatencyStatistics getStatistics() {
+        LatencyStatistics stats = new LatencyStatistics();
+        stats.enabled = enabled;
+        stats.tracesStarted = tracesStarted.get();
+        stats.tracesCompleted = tracesCompleted.get();
+        stats.acked = outcomeCounts[Stage.BROKER_ACK.ordinal()].get();
+        stats.retryAcked = outcomeCounts[Stage.RETRY_ACK.ordinal()].get();
+        stats.offline = outcomeCounts[Stage.OFFLINE_STORED.ordinal()].get();
+        stats.dropped = outcomeCounts[Stage.DROPPED.ordinal()].get();
+        return stats;
+    }
+
+    public LatencySnapshot getEndToEnd(SensorType sensorType) {
+        return endToEndByType[sensorType.ordinal()].snapshot();
+    }
+
+    public LatencySnapshot getEndToEnd(CriticalityLevel level) {
+        return endToEndByLevel[level.ordinal()].snapshot();
+    }
+
+    public LatencySnapshot getStageLatency(Stage stage, SensorType sensorType) {
+        return stageByType[stage.ordinal()][sensorType.ordinal()].snapshot();
+    }
+
+    public LatencySnapshot getStageLatency(Stage stage, CriticalityLevel level) {
+        return stageByLevel[stage.ordinal()][level.ordinal()].snapshot();
+    }
+
+    public LatencySnapshot getOfflineDwell(SensorType sensorType) {
+        return offlineDwellByType[sensorType.ordinal()].snapshot();
+    }
+
+    // Raport text pentru log / ecranul de diagnostic
+    public String getLatencyReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("Pipeline Latency (sensor -> Kafka ACK):\n");
+        report.append("- ").append(getStatistics()).append("\n");
+
+        for (CriticalityLevel level : CriticalityLevel.values()) {
+            LatencySnapshot e2e = getEndToEnd(level);
+            if (e2e.count == 0) continue;
+            report.append("- ").append(level.name()).append(" e2e: ").append(e2e).append("\n");
+            for (Stage stage : Stage.values()) {
+                LatencySnapshot stageSnapshot = getStageLatency(stage, level);
+                if (stageSnapshot.count > 0) {
+                    report.append("    ").append(stage.name()).append(": ").append(stageSnapshot).append("\n");
+                }
+            }
+        }
+
+        for (SensorType type : SensorType.values()) {
+            LatencySnapshot e2e = getEndToEnd(type);
+            if (e2e.count > 0) {
+                report.append("- ").append(type.name()).append(" e2e: ").append(e2e).append("\n");
+            }
+            LatencySnapshot dwell = getOfflineDwell(type);
+            if (dwell.count > 0) {
+                report.append("- ").append(type.name()).append(" offline dwell: ").append(dwell).append("\n");
+            }
+        }
+        return report.toString();
+    }
+
+    public void resetStatistics() {
+        for (int s = 0; s < STAGE_COUNT; s++) {
+            for (int t = 0; t < TYPE_COUNT; t++) stageByType[s][t].reset();
+            for (int l = 0; l < LEVEL_COUNT; l++) stageByLevel[s][l].reset();
+            outcomeCounts[s].set(0);
+        }
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            endToEndByType[t].reset();
+            offlineDwellByType[t].reset();
+        }
+        for (int l = 0; l < LEVEL_COUNT; l++) endToEndByLevel[l].reset();
+        tracesStarted.set(0);
+        tracesCompleted.set(0);
+        Log.d(TAG, "🔄 Latency statistics reset");
+    }
+
+    // Histogramă log2 pe microsecunde (bucket i = [2^(i-1), 2^i) µs) - lock-free, dimensiune fixă
+    static class LatencyHistogram {
+        private static final int BUCKETS = 40; // 2^39 µs ≈ 6.4 zile
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sumMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(0L, nanos / 1_000L);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            sumMicros.addAndGet(micros);
+            long max;
+            while (micros > (max = maxMicros.get())) {
+                if (maxMicros.compareAndSet(max, micros)) break;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+            count.set(0);
+            sumMicros.set(0);
+            maxMicros.set(0);
+        }
+
+        LatencySnapshot snapshot() {
+            LatencySnapshot snapshot = new LatencySnapshot();
+            long[] copy = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = buckets.get(i);
+                total += copy[i];
+            }
+            snapshot.count = total;
+            if (total == 0) return snapshot;
+
+            snapshot.meanMs = sumMicros.get() / 1000.0 / Math.max(1, count.get());
+            snapshot.maxMs = maxMicros.get() / 1000.0;
+            snapshot.p50Ms = percentileMs(copy, total, 0.50);
+            snapshot.p95Ms = percentileMs(copy, total, 0.95);
+            snapshot.p99Ms = percentileMs(copy, total, 0.99);
+            return snapshot;
+        }
+
+        // Limita superioară a bucket-ului care conține percentila cerută
+        private double percentileMs(long[] copy, long total, double percentile) {
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < copy.length; i++) {
+                seen += copy[i];
+                if (seen >= target) {
+                    return Math.min((1L << i), Math.max(1L, maxMicros.get())) / 1000.0;
+                }
+            }
+            return maxMicros.get() / 1000.0;
+        }
+    }
+
+    // Snapshot imutabil al unei histograme
+    public static class LatencySnapshot {
+        public long count = 0;
+        public double meanMs = 0.0;
+        public double p50Ms = 0.0;
+        public double p95Ms = 0.0;
+        public double p99Ms = 0.0;
+        public double maxMs = 0.0;
+
+        @Override
+        public String toString() {
+            return String.format("n=%d, mean=%.1fms, p50≤%.1fms, p95≤%.1fms, p99≤%.1fms, max=%.1fms",
+                    count, meanMs, p50Ms, p95Ms, p99Ms, maxMs);
+        }
+    }
+
+    // Statistici generale de tracing
+    public static class LatencyStatistics {
+        public boolean enabled = false;
+        public long tracesStarted = 0;
+        public long tracesCompleted = 0;
+        public long acked = 0;
+        public long retryAcked = 0;
+        public long offline = 0;
+        public long dropped = 0;
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Latency Tracing: enabled=%s, Started=%d, Completed=%d (ACK=%d, RetryACK=%d, Offline=%d, Dropped=%d)",
+                    enabled, tracesStarted, tracesCompleted, acked, retryAcked, offline, dropped);
+        }
+    }
+}
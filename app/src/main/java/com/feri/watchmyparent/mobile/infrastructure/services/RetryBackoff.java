@@ -0,0 +1,18 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+// ✅ NEW: Exponential backoff-ul retry-urilor Kafka, fără dependențe Android
+// (folosit de KafkaRetryService și măsurat în modulul :benchmark)
+public final class RetryBackoff {
+
+    public static final long INITIAL_RETRY_DELAY_MS = 1000; // 1 second
+    public static final double BACKOFF_MULTIPLIER = 2.0;
+    public static final long MAX_RETRY_DELAY_MS = 300000; // 5 minutes
+
+    private RetryBackoff() {
+    }
+
+    public static long delayMillis(int attemptNumber) {
+        long delay = (long) (INITIAL_RETRY_DELAY_MS * Math.pow(BACKOFF_MULTIPLIER, attemptNumber));
+        return Math.min(delay, MAX_RETRY_DELAY_MS);
+    }
+}
@@ -0,0 +1,62 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorArchive;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// ✅ NEW: Sigilează periodic zilele vechi din sensor_data în arhiva comprimată (SensorArchive).
+// Prima rulare e amânată, ca să nu concureze cu pornirea aplicației și cu backfill-ul Health Connect
+@Singleton
+public class SensorArchiveService {
+
+    private static final String TAG = "SensorArchiveService";
+
+    private static final long INITIAL_DELAY_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long ARCHIVE_INTERVAL_MS = TimeUnit.HOURS.toMillis(24);
+
+    private final SensorArchive sensorArchive;
+    private final ScheduledExecutorService archiveScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    @Inject
+    public SensorArchiveService(SensorArchive sensorArchive) {
+        this.sensorArchive = sensorArchive;
+        Log.d(TAG, "✅ SensorArchiveService initialized");
+    }
+
+    // Apelat de etapa de fundal a pornirii aplicației; idempotent
+    public void start() {
+        if (!started.compareAndSet(false, true)) return;
+        Log.d(TAG, "🗄️ Scheduling archive runs (older than " + SensorArchive.ARCHIVE_AFTER_DAYS + " days)");
+
+        archiveScheduler.scheduleWithFixedDelay(
+                this::archiveOldData,
+                INITIAL_DELAY_MS,
+                ARCHIVE_INTERVAL_MS,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    private void archiveOldData() {
+        try {
+            // Așteptăm rezultatul - următoarea rulare pornește abia după ce aceasta s-a terminat
+            SensorArchive.SealStatistics stats = sensorArchive
+                    .sealBefore(LocalDateTime.now().minusDays(SensorArchive.ARCHIVE_AFTER_DAYS))
+                    .join();
+            Log.d(TAG, "✅ Archive run finished: " + stats + ", " + sensorArchive.getStatistics());
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Archive run failed", e);
+        }
+    }
+
+    public void shutdown() {
+        archiveScheduler.shutdown();
+        Log.d(TAG, "🛑 SensorArchiveService shutdown");
+    }
+}
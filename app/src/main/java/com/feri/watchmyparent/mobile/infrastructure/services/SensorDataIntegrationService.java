@@ -3,12 +3,24 @@ package com.feri.watchmyparent.mobile.infrastructure.services;
 import android.util.Log;
 
 import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
 import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.domain.valueobjects.VitalAnomaly;
 import com.feri.watchmyparent.mobile.infrastructure.watch.RealSamsungHealthManager;
+import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -16,14 +28,35 @@ import javax.inject.Singleton;
    //Based on my Samsung developer permissions and CriticalityLevel frequencies
 //Eliminat PostgreSQL direct - totul merge prin DataTransmissionService
 //MODIFICAT: Orchestrează colectarea și transmiterea DOAR prin Kafka
+// ✅ NEW: Multi-pacient / multi-device - fiecare pacient (userId) are propriile ceasuri înregistrate,
+// colectarea unui pacient rulează serial pe banda lui din PatientShardedExecutor, pacienții diferiți în paralel
 @Singleton
 public class SensorDataIntegrationService {
 
     private static final String TAG = "SensorDataIntegration";
 
-    private final RealSamsungHealthManager watchManager;
+    // Cât așteaptă transmisiile unui tick după cele ale tick-ului anterior al aceluiași pacient
+    private static final long TRANSMISSION_WAIT_TIMEOUT_MS = 30000;
+    // ✅ NEW: Câte rânduri netransmise din sensor_data reia un apel retryPendingTransmissions
+    private static final int RETRY_BATCH_SIZE = 200;
+
+    private final WatchManager watchManager;
     private final SamsungHealthDataService samsungHealthDataService;
     private final DataTransmissionService dataTransmissionService;
+    private final PipelineLatencyTracer latencyTracer;
+    private final PatientShardedExecutor patientExecutor;
+    private final VitalSignsAnomalyDetector anomalyDetector; // ✅ NEW: anomalii pe semnele vitale
+    private final PatientRegistry patientRegistry; // ✅ NEW: pacientul care poartă ceasul implicit
+    private final SensorDataRepository sensorDataRepository; // ✅ NEW: istoricul local (null -> fără persistare)
+    // ✅ NEW: tipurile livrate pasiv (Health Services) nu mai sunt citite prin polling cât timp sunt proaspete
+    private final PassiveDataCoverage passiveCoverage = new PassiveDataCoverage();
+
+    // userId -> ceasurile pacientului
+    private final Map<String, List<MonitoredDevice>> patientDevices = new ConcurrentHashMap<>();
+    // ✅ NEW: userId -> transmisiile ultimului tick (ordinea între tick-uri fără să blocheze banda)
+    private final Map<String, CompletableFuture<Void>> pendingTransmissions = new ConcurrentHashMap<>();
+    // ✅ NEW: Rândurile din sensor_data a căror transmisie e în curs în acest proces - retry-ul nu le ia încă o dată
+    private final Set<String> inFlightRows = ConcurrentHashMap.newKeySet();
 
     // Samsung Health permitted sensors (from your developer agreement)
     private final Set<SensorType> SAMSUNG_HEALTH_PERMITTED = new HashSet<>(Arrays.asList(
@@ -51,107 +84,599 @@ public class SensorDataIntegrationService {
             SensorType.STRESS
     ));
 
+       // ✅ MODIFICAT: Un singur constructor injectat; pacientul implicit vine din PatientRegistry
        @Inject
        public SensorDataIntegrationService(
                RealSamsungHealthManager watchManager,
                SamsungHealthDataService samsungHealthDataService,
-               DataTransmissionService dataTransmissionService) { // ✅ ÎNLOCUIT PostgreSQLDataService
+               DataTransmissionService dataTransmissionService, // ✅ ÎNLOCUIT PostgreSQLDataService
+               PipelineLatencyTracer latencyTracer,
+               VitalSignsAnomalyDetector anomalyDetector,
+               PatientRegistry patientRegistry,
+               SensorDataRepository sensorDataRepository) {
+           this(watchManager, samsungHealthDataService, dataTransmissionService, latencyTracer,
+                   new PatientShardedExecutor(), anomalyDetector, patientRegistry, sensorDataRepository);
+       }
+
+       private SensorDataIntegrationService(
+               WatchManager watchManager,
+               SamsungHealthDataService samsungHealthDataService,
+               DataTransmissionService dataTransmissionService,
+               PipelineLatencyTracer latencyTracer,
+               PatientShardedExecutor patientExecutor,
+               VitalSignsAnomalyDetector anomalyDetector,
+               PatientRegistry patientRegistry,
+               SensorDataRepository sensorDataRepository) {
 
            this.watchManager = watchManager;
            this.samsungHealthDataService = samsungHealthDataService;
            this.dataTransmissionService = dataTransmissionService;
+           this.latencyTracer = latencyTracer;
+           this.patientExecutor = patientExecutor;
+           this.anomalyDetector = anomalyDetector;
+           this.patientRegistry = patientRegistry;
+           this.sensorDataRepository = sensorDataRepository;
+
+           // Fără ceasul implicit (simulări headless) pacienții sunt adăugați doar prin registerPatientDevice
+           if (watchManager != null || samsungHealthDataService != null) {
+               registerPatientDevice(patientRegistry.getPrimaryUserId(), patientRegistry.getPrimaryDeviceId(),
+                       watchManager, samsungHealthDataService);
+               patientRegistry.addListener(this::movePrimaryDevice);
+           }
 
            Log.d(TAG, "✅ SensorDataIntegrationService initialized with Kafka-only pipeline");
            Log.d(TAG, "📊 Samsung Health permitted sensors: " + SAMSUNG_HEALTH_PERMITTED.size());
            Log.d(TAG, "📊 Android Sensor API sensors: " + ANDROID_SENSOR_API.size());
        }
 
+       // ✅ NEW: Simulări headless și teste - orice WatchManager, executor și detector; implicit fără ceas propriu
+       public static Builder builder(DataTransmissionService dataTransmissionService,
+                                     PipelineLatencyTracer latencyTracer) {
+           return new Builder(dataTransmissionService, latencyTracer);
+       }
+
+       public static final class Builder {
+           private final DataTransmissionService dataTransmissionService;
+           private final PipelineLatencyTracer latencyTracer;
+           private WatchManager watchManager;
+           private SamsungHealthDataService samsungHealthDataService;
+           private PatientShardedExecutor patientExecutor;
+           private VitalSignsAnomalyDetector anomalyDetector;
+           private PatientRegistry patientRegistry;
+           private SensorDataRepository sensorDataRepository;
+
+           private Builder(DataTransmissionService dataTransmissionService, PipelineLatencyTracer latencyTracer) {
+               this.dataTransmissionService = dataTransmissionService;
+               this.latencyTracer = latencyTracer;
+           }
+
+           // Ceasul pacientului implicit (cel din patientRegistry)
+           public Builder primaryWatch(WatchManager watchManager, SamsungHealthDataService samsungHealthDataService) {
+               this.watchManager = watchManager;
+               this.samsungHealthDataService = samsungHealthDataService;
+               return this;
+           }
+
+           public Builder patientExecutor(PatientShardedExecutor patientExecutor) {
+               this.patientExecutor = patientExecutor;
+               return this;
+           }
+
+           // Baseline-uri doar în memorie dacă lipsește
+           public Builder anomalyDetector(VitalSignsAnomalyDetector anomalyDetector) {
+               this.anomalyDetector = anomalyDetector;
+               return this;
+           }
+
+           public Builder patientRegistry(PatientRegistry patientRegistry) {
+               this.patientRegistry = patientRegistry;
+               return this;
+           }
+
+           // Fără repository citirile merg doar spre Kafka (simulările headless nu au bază locală)
+           public Builder sensorDataRepository(SensorDataRepository sensorDataRepository) {
+               this.sensorDataRepository = sensorDataRepository;
+               return this;
+           }
+
+           public SensorDataIntegrationService build() {
+               return new SensorDataIntegrationService(watchManager, samsungHealthDataService,
+                       dataTransmissionService, latencyTracer,
+                       patientExecutor != null ? patientExecutor : new PatientShardedExecutor(),
+                       anomalyDetector != null ? anomalyDetector : new VitalSignsAnomalyDetector(),
+                       patientRegistry != null ? patientRegistry
+                               : new PatientRegistry(PatientRegistry.DEFAULT_USER_ID, PatientRegistry.DEFAULT_DEVICE_ID),
+                       sensorDataRepository);
+           }
+       }
+
+    // ========== PACIENȚI / DEVICE-URI ==========
+
+    // Înregistrează un ceas pentru un pacient; samsungHealthDataService poate fi null (doar senzori hardware)
+    public MonitoredDevice registerPatientDevice(String userId, String deviceId, WatchManager deviceWatchManager,
+                                                 SamsungHealthDataService deviceHealthService) {
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        if (deviceWatchManager == null && deviceHealthService == null) {
+            throw new IllegalArgumentException("At least one data source is required for " + userId);
+        }
+
+        String resolvedDeviceId = deviceId != null ? deviceId
+                : (deviceWatchManager != null && deviceWatchManager.getDeviceId() != null
+                        ? deviceWatchManager.getDeviceId() : PatientRegistry.DEFAULT_DEVICE_ID);
+        MonitoredDevice device = new MonitoredDevice(userId, resolvedDeviceId, deviceWatchManager, deviceHealthService);
+
+        List<MonitoredDevice> devices = patientDevices.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        devices.removeIf(existing -> existing.deviceId.equals(resolvedDeviceId));
+        devices.add(device);
+
+        Log.d(TAG, "⌚ Registered device " + resolvedDeviceId + " for patient " + userId +
+                " (" + devices.size() + " device(s), " + patientDevices.size() + " patient(s))");
+        return device;
+    }
+
+    public MonitoredDevice registerPatientDevice(String userId, WatchManager deviceWatchManager,
+                                                 SamsungHealthDataService deviceHealthService) {
+        return registerPatientDevice(userId, null, deviceWatchManager, deviceHealthService);
+    }
+
+    public boolean unregisterPatientDevice(String userId, String deviceId) {
+        List<MonitoredDevice> devices = patientDevices.get(userId);
+        if (devices == null) return false;
+
+        boolean removed = devices.removeIf(device -> device.deviceId.equals(deviceId));
+        if (devices.isEmpty()) {
+            patientDevices.remove(userId);
+            patientExecutor.removePatient(userId);
+            pendingTransmissions.remove(userId);
+        }
+        Log.d(TAG, "⌚ Unregistered device " + deviceId + " for patient " + userId + ": " + removed);
+        return removed;
+    }
+
+    // ✅ NEW: Ceasul implicit trece la pacientul nou asociat; tipurile livrate pasiv îl urmează
+    private void movePrimaryDevice(String previousUserId, String previousDeviceId, String userId, String deviceId) {
+        unregisterPatientDevice(previousUserId, previousDeviceId);
+        registerPatientDevice(userId, deviceId, watchManager, samsungHealthDataService);
+
+        Set<SensorType> passiveTypes = passiveCoverage.getRegisteredTypes(previousUserId);
+        passiveCoverage.clear(previousUserId);
+        if (!passiveTypes.isEmpty()) {
+            passiveCoverage.register(userId, passiveTypes, System.currentTimeMillis());
+        }
+    }
+
+    public String getPrimaryUserId() {
+        return patientRegistry.getPrimaryUserId();
+    }
+
+    public Set<String> getMonitoredPatientIds() {
+        return new TreeSet<>(patientDevices.keySet());
+    }
+
+    public List<MonitoredDevice> getPatientDevices(String userId) {
+        List<MonitoredDevice> devices = patientDevices.get(userId);
+        return devices != null ? new ArrayList<>(devices) : new ArrayList<>();
+    }
+
+    // ========== COLECTARE ==========
+
     //Collect sensor data based on criticality levels and data sources
        //Trimite valorile sensorilor DOAR prin Kafka
-    public CompletableFuture<List<SensorReading>> collectSensorDataByCriticality(
-            com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel criticalityLevel) {
+    // Pacientul implicit (compatibilitate single-user)
+    public CompletableFuture<List<SensorReading>> collectSensorDataByCriticality(CriticalityLevel criticalityLevel) {
+        return collectSensorDataByCriticality(patientRegistry.getPrimaryUserId(), criticalityLevel);
+    }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                List<SensorType> sensorsToRead = getSensorsByCriticality(criticalityLevel);
-                Log.d(TAG, "📊 Collecting " + criticalityLevel.name() + " sensors: " + sensorsToRead.size());
+    // ✅ NEW: Colectare pentru un pacient - rulează pe banda lui, după orice colectare anterioară a aceluiași pacient
+    public CompletableFuture<List<SensorReading>> collectSensorDataByCriticality(String userId,
+                                                                               CriticalityLevel criticalityLevel) {
+        return patientExecutor.submit(userId, () -> collectForPatient(userId, criticalityLevel));
+    }
 
-                List<SensorReading> allReadings = new ArrayList<>();
+    // ✅ NEW: Tick partajat - toți pacienții în paralel; eșecul sau backoff-ul unui pacient nu afectează restul
+    public CompletableFuture<Map<String, List<SensorReading>>> collectAllPatientsByCriticality(
+            CriticalityLevel criticalityLevel) {
+
+        Map<String, CompletableFuture<List<SensorReading>>> perPatient = new LinkedHashMap<>();
+        for (String userId : patientDevices.keySet()) {
+            perPatient.put(userId, collectSensorDataByCriticality(userId, criticalityLevel)
+                    .exceptionally(throwable -> {
+                        Log.w(TAG, "⚠️ [" + criticalityLevel + "] Patient " + userId + " skipped: " +
+                                rootMessage(throwable));
+                        return Collections.emptyList();
+                    }));
+        }
 
-                // ✅ PHASE 1: Samsung Health SDK (6 permitted sensors)
-                List<SensorType> samsungHealthSensors = sensorsToRead.stream()
-                        .filter(SAMSUNG_HEALTH_PERMITTED::contains)
-                        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return CompletableFuture.allOf(perPatient.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<String, List<SensorReading>> results = new LinkedHashMap<>();
+                    for (Map.Entry<String, CompletableFuture<List<SensorReading>>> entry : perPatient.entrySet()) {
+                        results.put(entry.getKey(), entry.getValue().join());
+                    }
+                    return results;
+                });
+    }
 
-                if (!samsungHealthSensors.isEmpty()) {
-                    List<SensorReading> samsungReadings = collectFromSamsungHealth(samsungHealthSensors);
-                    allReadings.addAll(samsungReadings);
-                    Log.d(TAG, "✅ Samsung Health SDK: " + samsungReadings.size() + " readings");
-                }
+    // Rulează pe banda pacientului - aruncă excepție doar dacă TOATE device-urile pacientului au eșuat
+    private List<SensorReading> collectForPatient(String userId, CriticalityLevel criticalityLevel) {
+        List<MonitoredDevice> devices = patientDevices.get(userId);
+        if (devices == null || devices.isEmpty()) {
+            throw new IllegalStateException("No devices registered for patient " + userId);
+        }
+
+        List<SensorType> sensorsToRead = passiveCoverage.sensorsToPoll(userId,
+                getSensorsByCriticality(criticalityLevel), System.currentTimeMillis());
+        if (sensorsToRead.isEmpty()) {
+            // Toate tipurile nivelului vin pasiv - niciun device nu este trezit la acest tick
+            Log.d(TAG, "💤 " + criticalityLevel.name() + " sensors for " + userId + " covered by passive monitoring");
+            return Collections.emptyList();
+        }
+        Log.d(TAG, "📊 Collecting " + criticalityLevel.name() + " sensors for " + userId + ": " +
+                sensorsToRead.size() + " sensors, " + devices.size() + " device(s)");
 
-                // ✅ PHASE 2: Android Sensor API (12 sensors)
-                List<SensorType> androidSensors = sensorsToRead.stream()
-                        .filter(ANDROID_SENSOR_API::contains)
-                        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        List<SensorReading> allReadings = new ArrayList<>();
+        Exception lastError = null;
+        int failedDevices = 0;
 
-                if (!androidSensors.isEmpty()) {
-                    List<SensorReading> androidReadings = collectFromAndroidSensors(androidSensors);
-                    allReadings.addAll(androidReadings);
-                    Log.d(TAG, "✅ Android Sensor API: " + androidReadings.size() + " readings");
-                }
+        for (MonitoredDevice device : devices) {
+            try {
+                List<SensorReading> deviceReadings = collectFromDevice(device, sensorsToRead);
+                device.recordSuccess(deviceReadings.size());
+                allReadings.addAll(deviceReadings);
+            } catch (Exception e) {
+                device.recordFailure();
+                failedDevices++;
+                lastError = e;
+                Log.e(TAG, "❌ Device " + device.deviceId + " failed for patient " + userId, e);
+            }
+        }
 
-                // ✅ PHASE 3: Transmite prin Kafka DOAR (eliminat PostgreSQL)
-                if (!allReadings.isEmpty()) {
-                    transmitThroughKafkaOnly(allReadings, criticalityLevel);
-                }
+        if (failedDevices == devices.size()) {
+            throw new IllegalStateException("All devices failed for patient " + userId, lastError);
+        }
+
+        // ✅ PHASE 3: Transmite prin Kafka DOAR (eliminat PostgreSQL)
+        if (!allReadings.isEmpty()) {
+            detectAnomalies(allReadings, userId);
+            transmitThroughKafkaOnly(allReadings, userId, criticalityLevel);
+        }
+
+        Log.d(TAG, "✅ Total collected for " + userId + " / " + criticalityLevel.name() + ": " +
+                allReadings.size() + " readings");
+        return allReadings;
+    }
 
-                Log.d(TAG, "✅ Total collected for " + criticalityLevel.name() + ": " + allReadings.size() + " readings");
-                return allReadings;
+    // Aruncă excepție doar dacă toate sursele încercate ale device-ului au eșuat
+    private List<SensorReading> collectFromDevice(MonitoredDevice device, List<SensorType> sensorsToRead) {
+        List<SensorReading> readings = new ArrayList<>();
+        Exception lastError = null;
+        int attemptedSources = 0;
+        int failedSources = 0;
+
+        // ✅ PHASE 1: Samsung Health SDK (6 permitted sensors)
+        List<SensorType> samsungHealthSensors = new ArrayList<>();
+        List<SensorType> androidSensors = new ArrayList<>();
+        for (SensorType sensorType : sensorsToRead) {
+            if (SAMSUNG_HEALTH_PERMITTED.contains(sensorType)) {
+                samsungHealthSensors.add(sensorType);
+            } else if (ANDROID_SENSOR_API.contains(sensorType)) {
+                androidSensors.add(sensorType);
+            }
+        }
 
+        if (!samsungHealthSensors.isEmpty() && device.samsungHealthDataService != null) {
+            attemptedSources++;
+            try {
+                List<SensorReading> samsungReadings = collectFromSamsungHealth(device, samsungHealthSensors);
+                readings.addAll(samsungReadings);
+                Log.d(TAG, "✅ Samsung Health SDK: " + samsungReadings.size() + " readings");
             } catch (Exception e) {
-                Log.e(TAG, "❌ Error collecting sensor data for " + criticalityLevel.name(), e);
-                return new ArrayList<>();
+                failedSources++;
+                lastError = e;
+                Log.e(TAG, "❌ Error collecting from Samsung Health SDK", e);
             }
-        });
+        }
+
+        // ✅ PHASE 2: Android Sensor API (12 sensors)
+        if (!androidSensors.isEmpty() && device.watchManager != null) {
+            attemptedSources++;
+            try {
+                List<SensorReading> androidReadings = collectFromAndroidSensors(device, androidSensors);
+                readings.addAll(androidReadings);
+                Log.d(TAG, "✅ Android Sensor API: " + androidReadings.size() + " readings");
+            } catch (Exception e) {
+                failedSources++;
+                lastError = e;
+                Log.e(TAG, "❌ Error collecting from Android Sensor API", e);
+            }
+        }
+
+        if (attemptedSources > 0 && failedSources == attemptedSources) {
+            throw new IllegalStateException("All sources failed for device " + device.deviceId, lastError);
+        }
+        return readings;
     }
 
-       // MODIFICAT: Transmite DOAR prin Kafka (eliminat PostgreSQL)
-       private void transmitThroughKafkaOnly(List<SensorReading> readings,
-                                             com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel criticalityLevel) {
-           try {
-               Log.d(TAG, "📤 Transmitting " + readings.size() + " readings through Kafka-only pipeline...");
+       // ✅ NEW: Batch-uri pasive (Health Services) - aceeași cale ca polling-ul (anomalii + Kafka),
+       // pe banda pacientului, deci ordonate față de tick-urile de polling ale aceluiași pacient
+       public CompletableFuture<List<SensorReading>> ingestPassiveReadings(String userId, String deviceId,
+                                                                           List<SensorReading> readings) {
+           return patientExecutor.submit(userId, () -> ingestOnLane(userId, deviceId, readings));
+       }
 
-               for (SensorReading reading : readings) {
-                   // Convertește în SensorDataDTO
-                   com.feri.watchmyparent.mobile.application.dto.SensorDataDTO sensorDataDTO =
-                           convertToSensorDataDTO(reading, "demo-user-id", criticalityLevel);
+       private List<SensorReading> ingestOnLane(String userId, String deviceId, List<SensorReading> readings) {
+           List<SensorReading> accepted = passiveCoverage.accept(userId, readings, System.currentTimeMillis());
+           if (accepted.isEmpty()) {
+               return accepted;
+           }
 
-                   // ✅ Transmite DOAR prin Kafka via DataTransmissionService
-                   dataTransmissionService.transmitData(sensorDataDTO, "demo-user-id")
-                           .thenAccept(success -> {
-                               if (success) {
-                                   Log.d(TAG, "✅ Kafka transmission successful: " + reading.getSensorType());
-                               } else {
-                                   Log.w(TAG, "⚠️ Kafka transmission failed (will retry): " + reading.getSensorType());
+           Map<CriticalityLevel, List<SensorReading>> byLevel = new EnumMap<>(CriticalityLevel.class);
+           for (SensorReading reading : accepted) {
+               if (reading.getDeviceId() == null) {
+                   reading.setDeviceId(deviceId);
+               }
+               reading.setConnectionType("HEALTH_SERVICES_PASSIVE");
+               reading.setMetadata("source=health_services_passive,permitted=true");
+               latencyTracer.startTrace(reading);
+               byLevel.computeIfAbsent(reading.getSensorType().getCriticalityLevel(), level -> new ArrayList<>())
+                       .add(reading);
+           }
+
+           detectAnomalies(accepted, userId);
+           for (Map.Entry<CriticalityLevel, List<SensorReading>> entry : byLevel.entrySet()) {
+               transmitThroughKafkaOnly(entry.getValue(), userId, entry.getKey());
+           }
+
+           Log.d(TAG, "✅ Passive batch for " + userId + ": " + accepted.size() + "/" + readings.size() + " new readings");
+           return accepted;
+       }
+
+       // ✅ NEW: Înregistrarea pasivă a reușit - tipurile acceptate de platformă ies din polling
+       public void registerPassiveTypes(String userId, Collection<SensorType> types) {
+           passiveCoverage.register(userId, types, System.currentTimeMillis());
+           Log.d(TAG, "📡 Passive monitoring for " + userId + ": " + types);
+       }
+
+       // Permisiune pierdută / înregistrare ștearsă - polling-ul preia din nou toate tipurile
+       public void clearPassiveTypes(String userId) {
+           passiveCoverage.clear(userId);
+           Log.w(TAG, "⚠️ Passive monitoring cleared for " + userId + " - polling fallback active");
+       }
+
+       public PassiveDataCoverage.CoverageStatistics getPassiveCoverageStatistics() {
+           return passiveCoverage.getStatistics();
+       }
+
+       // ✅ NEW: Detecție streaming pe banda pacientului (ordinea citirilor e păstrată);
+       // anomaliile pleacă înaintea citirilor și nu blochează banda
+       private void detectAnomalies(List<SensorReading> readings, String userId) {
+           for (SensorReading reading : readings) {
+               for (VitalAnomaly anomaly : anomalyDetector.process(userId, reading)) {
+                   dataTransmissionService.transmitData(anomaly.toKafkaMessage(), userId)
+                           .thenApply(delivered -> {
+                               // ✅ NEW: cu Kafka indisponibil anomalia e păstrată offline; false = pierdută
+                               if (!delivered) {
+                                   Log.e(TAG, "❌ Anomaly lost (not sent, not stored offline): " + anomaly);
                                }
+                               return delivered;
                            })
                            .exceptionally(throwable -> {
-                               Log.e(TAG, "❌ Kafka transmission error: " + reading.getSensorType(), throwable);
-                               return null;
+                               Log.e(TAG, "❌ Anomaly transmission error: " + anomaly, throwable);
+                               return false;
                            });
                }
+           }
+       }
+
+       // MODIFICAT: Transmite DOAR prin Kafka (eliminat PostgreSQL)
+       // ✅ MODIFICAT: Nu mai ține ocupat workerul benzii - transmisiile tick-ului pleacă după cele ale tick-ului
+       // anterior al aceluiași pacient (ordinea e păstrată), dar așteaptă după ele cel mult
+       // TRANSMISSION_WAIT_TIMEOUT_MS; restul pacienților nu împart timpul de așteptare
+       private CompletableFuture<Void> transmitThroughKafkaOnly(List<SensorReading> readings, String userId,
+                                                               CriticalityLevel criticalityLevel) {
+           List<SensorData> rows = toLocalRows(readings, userId);
+           List<CompletableFuture<SensorData>> saves = persistLocally(rows, userId);
+
+           CompletableFuture<Void> previous = pendingTransmissions.get(userId);
+           CompletableFuture<Void> ready = previous == null || previous.isDone()
+                   ? CompletableFuture.completedFuture(null)
+                   : previous.copy().completeOnTimeout(null, TRANSMISSION_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                           .thenRun(() -> {
+                               if (!previous.isDone()) {
+                                   Log.w(TAG, "⏰ Kafka transmissions for " + userId + " still pending after " +
+                                           TRANSMISSION_WAIT_TIMEOUT_MS + "ms - next tick not held back");
+                               }
+                           });
+
+           CompletableFuture<Void> tick = ready.thenCompose(ignored -> sendReadings(readings, rows, userId, criticalityLevel))
+                   .thenAccept(results -> recordTransmissionStatus(rows, saves, results, userId));
+           pendingTransmissions.put(userId, tick);
+           tick.whenComplete((ignored, throwable) -> pendingTransmissions.remove(userId, tick));
+           return tick;
+       }
+
+       // ✅ NEW: Rândurile de istoric ale citirilor, în ordine (listă goală fără repository); id-ul fiecăruia
+       // însoțește citirea prin DataTransmissionService și coada offline
+       private List<SensorData> toLocalRows(List<SensorReading> readings, String userId) {
+           if (sensorDataRepository == null) return Collections.emptyList();
+
+           User user = new User();
+           user.setIdUser(userId);
+           List<SensorData> rows = new ArrayList<>(readings.size());
+           for (SensorReading reading : readings) {
+               SensorData data = new SensorData(user, reading.getSensorType(), reading.getValue(), reading.getDeviceId());
+               if (reading.getTimestamp() != null) data.setTimestamp(reading.getTimestamp());
+               if (reading.getUnit() != null) data.setUnit(reading.getUnit());
+               data.setMetadata(reading.getMetadata());
+               rows.add(data);
+               inFlightRows.add(data.getIdSensorData());
+           }
+           return rows;
+       }
+
+       // ✅ NEW: Istoricul local (dashboard, paginare, rollup-uri, arhivă) - citirile intră în buffer-ul write-behind
+       // al repository-ului, care le scrie în loturi cu un singur insert; Kafka rămâne calea spre server.
+       // Întoarce salvările în ordinea rândurilor
+       private List<CompletableFuture<SensorData>> persistLocally(List<SensorData> rows, String userId) {
+           if (rows.isEmpty()) return Collections.emptyList();
+
+           List<CompletableFuture<SensorData>> saves = new ArrayList<>(rows.size());
+           for (SensorData row : rows) {
+               saves.add(sensorDataRepository.save(row));
+           }
+
+           CompletableFuture.allOf(saves.toArray(new CompletableFuture[0]))
+                   .exceptionally(throwable -> {
+                       Log.w(TAG, "⚠️ Local history not saved for " + userId + ": " + rootMessage(throwable));
+                       return null;
+                   });
+           return saves;
+       }
+
+       // ✅ NEW: Statusul din sensor_data urmează rezultatul transmisiei - TRANSMITTED (confirmat de broker) permite
+       // arhivarea blocului, QUEUED e actualizat de coada offline când livrează, FAILED rămâne pentru
+       // retryPendingTransmissions. Se scrie după flush-ul write-behind al rândurilor (altfel UPDATE-ul nu
+       // găsește nimic) și nu ține tick-ul următor după el
+       private void recordTransmissionStatus(List<SensorData> rows, List<CompletableFuture<SensorData>> saves,
+                                             List<TransmissionStatus> results, String userId) {
+           if (saves.isEmpty()) return;
+
+           CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).handle((ignored, saveError) -> {
+               Map<TransmissionStatus, List<String>> byStatus = new EnumMap<>(TransmissionStatus.class);
+               for (int i = 0; i < saves.size(); i++) {
+                   if (saves.get(i).isCompletedExceptionally()) continue; // rândul nu există local
+                   byStatus.computeIfAbsent(results.get(i), status -> new ArrayList<>())
+                           .add(rows.get(i).getIdSensorData());
+               }
+               return writeTransmissionStatus(byStatus);
+           }).thenCompose(update -> update).whenComplete((ignored, throwable) -> {
+               for (SensorData row : rows) inFlightRows.remove(row.getIdSensorData());
+               if (throwable != null) {
+                   Log.w(TAG, "⚠️ Transmission status not saved for " + userId + ": " + rootMessage(throwable));
+               }
+           });
+       }
+
+       private CompletableFuture<Void> writeTransmissionStatus(Map<TransmissionStatus, List<String>> byStatus) {
+           List<CompletableFuture<Void>> updates = new ArrayList<>();
+           for (Map.Entry<TransmissionStatus, List<String>> entry : byStatus.entrySet()) {
+               LocalDateTime transmissionTime = entry.getKey() == TransmissionStatus.TRANSMITTED ? LocalDateTime.now() : null;
+               updates.add(sensorDataRepository.updateTransmissionStatus(entry.getValue(), entry.getKey(),
+                       transmissionTime));
+           }
+           return CompletableFuture.allOf(updates.toArray(new CompletableFuture[0]));
+       }
 
-               Log.d(TAG, "✅ All readings submitted to Kafka-only pipeline");
+       // Nu se termină niciodată cu excepție - eșecurile sunt logate per citire (retry / offline în DataTransmissionService).
+       // ✅ MODIFICAT: Întoarce statusul fiecărei citiri, în ordine; citirile cu rând local poartă id-ul lui
+       private CompletableFuture<List<TransmissionStatus>> sendReadings(List<SensorReading> readings, List<SensorData> rows,
+                                                                      String userId, CriticalityLevel criticalityLevel) {
+           Log.d(TAG, "📤 Transmitting " + readings.size() + " readings for " + userId +
+                   " through Kafka-only pipeline...");
+
+           List<CompletableFuture<TransmissionStatus>> transmissions = new ArrayList<>(readings.size());
+           for (int i = 0; i < readings.size(); i++) {
+               SensorReading reading = readings.get(i);
+               CompletableFuture<TransmissionStatus> transmission;
+               try {
+                   // Convertește în SensorDataDTO
+                   com.feri.watchmyparent.mobile.application.dto.SensorDataDTO sensorDataDTO =
+                           convertToSensorDataDTO(reading, userId, criticalityLevel);
+                   if (!rows.isEmpty()) {
+                       sensorDataDTO.setSensorDataId(rows.get(i).getIdSensorData());
+                   }
 
-           } catch (Exception e) {
-               Log.e(TAG, "❌ Error in Kafka-only transmission", e);
+                   // ✅ Transmite DOAR prin Kafka via DataTransmissionService
+                   transmission = dataTransmissionService.transmitSensorData(sensorDataDTO, userId);
+               } catch (Exception e) {
+                   transmission = new CompletableFuture<>();
+                   transmission.completeExceptionally(e);
+               }
+
+               transmissions.add(transmission
+                       .thenApply(status -> {
+                           if (status == TransmissionStatus.TRANSMITTED) {
+                               Log.d(TAG, "✅ Kafka transmission successful: " + reading.getSensorType());
+                           } else if (status == TransmissionStatus.QUEUED) {
+                               Log.d(TAG, "💾 Kafka unavailable, queued offline: " + reading.getSensorType());
+                           } else {
+                               Log.w(TAG, "⚠️ Kafka transmission failed (will retry): " + reading.getSensorType());
+                           }
+                           return status;
+                       })
+                       .exceptionally(throwable -> {
+                           Log.e(TAG, "❌ Kafka transmission error: " + reading.getSensorType(), throwable);
+                           return TransmissionStatus.FAILED;
+                       }));
            }
+
+           return CompletableFuture.allOf(transmissions.toArray(new CompletableFuture[0]))
+                   .thenApply(ignored -> {
+                       Log.d(TAG, "✅ All readings for " + userId + " submitted to Kafka-only pipeline");
+                       List<TransmissionStatus> results = new ArrayList<>(transmissions.size());
+                       for (CompletableFuture<TransmissionStatus> transmission : transmissions) {
+                           results.add(transmission.join());
+                       }
+                       return results;
+                   });
+       }
+
+       // ✅ NEW: Coada de retry a istoricului local - rândurile FAILED și cele PENDING rămase de la un proces oprit
+       // înainte de confirmare sunt retrimise, iar statusul lor urmează același drum ca la colectare (QUEUED trece
+       // în grija cozii offline). Rândurile transmise chiar acum de un tick sunt sărite. Întoarce câte au fost confirmate
+       public CompletableFuture<Integer> retryPendingTransmissions() {
+           if (sensorDataRepository == null) return CompletableFuture.completedFuture(0);
+
+           return sensorDataRepository.findPendingTransmissions(RETRY_BATCH_SIZE).thenCompose(pending -> {
+               List<SensorData> rows = new ArrayList<>();
+               for (SensorData row : pending) {
+                   if (inFlightRows.add(row.getIdSensorData())) rows.add(row);
+               }
+               if (rows.isEmpty()) return CompletableFuture.completedFuture(0);
+               Log.d(TAG, "🔄 Retrying " + rows.size() + " local readings without broker ack");
+
+               List<CompletableFuture<TransmissionStatus>> transmissions = new ArrayList<>(rows.size());
+               for (SensorData row : rows) {
+                   transmissions.add(retransmit(row).exceptionally(throwable -> TransmissionStatus.FAILED));
+               }
+               return CompletableFuture.allOf(transmissions.toArray(new CompletableFuture[0]))
+                       .thenCompose(ignored -> {
+                           Map<TransmissionStatus, List<String>> byStatus = new EnumMap<>(TransmissionStatus.class);
+                           for (int i = 0; i < rows.size(); i++) {
+                               byStatus.computeIfAbsent(transmissions.get(i).join(), status -> new ArrayList<>())
+                                       .add(rows.get(i).getIdSensorData());
+                           }
+                           List<String> transmitted = byStatus.getOrDefault(TransmissionStatus.TRANSMITTED,
+                                   Collections.emptyList());
+                           Log.d(TAG, "🔁 Retry of local readings: " + transmitted.size() + "/" + rows.size() +
+                                   " acknowledged");
+                           return writeTransmissionStatus(byStatus).thenApply(done -> transmitted.size());
+                       })
+                       .whenComplete((ignored, throwable) -> {
+                           for (SensorData row : rows) inFlightRows.remove(row.getIdSensorData());
+                       });
+           });
+       }
+
+       private CompletableFuture<TransmissionStatus> retransmit(SensorData row) {
+           String userId = row.getUser().getIdUser();
+           SensorReading reading = new SensorReading(row.getSensorType(), row.getValue(), row.getDeviceId());
+           reading.setTimestamp(row.getTimestamp());
+           reading.setUnit(row.getUnit());
+           reading.setMetadata(row.getMetadata());
+
+           com.feri.watchmyparent.mobile.application.dto.SensorDataDTO sensorDataDTO =
+                   convertToSensorDataDTO(reading, userId, row.getSensorType().getCriticalityLevel());
+           sensorDataDTO.setSensorDataId(row.getIdSensorData());
+           return dataTransmissionService.transmitSensorData(sensorDataDTO, userId);
        }
 
 
 
     // Get sensors by criticality level
-    private List<SensorType> getSensorsByCriticality(com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel criticalityLevel) {
+    private List<SensorType> getSensorsByCriticality(CriticalityLevel criticalityLevel) {
         List<SensorType> sensors = new ArrayList<>();
         for (SensorType sensorType : SensorType.values()) {
             if (sensorType.getCriticalityLevel() == criticalityLevel) {
@@ -162,94 +687,89 @@ public class SensorDataIntegrationService {
     }
 
     //Collect from Samsung Health SDK (your permitted sensors)
-    private List<SensorReading> collectFromSamsungHealth(List<SensorType> sensors) {
+    private List<SensorReading> collectFromSamsungHealth(MonitoredDevice device, List<SensorType> sensors) {
         List<SensorReading> readings = new ArrayList<>();
-        try {
-            Log.d(TAG, "📱 Collecting from Samsung Health SDK: " + sensors.size() + " sensors");
-
-            for (SensorType sensorType : sensors) {
-                if (samsungHealthDataService.isConnected() &&
-                        samsungHealthDataService.isSensorPermitted(sensorType)) {
-
-                    SensorReading reading = samsungHealthDataService.readSensorData(sensorType).join();
-                    if (reading != null) {
-                        reading.setDeviceId("samsung_galaxy_watch_7");
-                        reading.setConnectionType("SAMSUNG_HEALTH_SDK");
-                        reading.setMetadata("source=samsung_health_sdk,permitted=true");
-                        readings.add(reading);
-
-                        Log.d(TAG, "📊 Samsung Health: " + sensorType + " = " +
-                                String.format("%.2f", reading.getValue()) + " " + sensorType.getUnit());
-                    }
+        SamsungHealthDataService healthService = device.samsungHealthDataService;
+        Log.d(TAG, "📱 Collecting from Samsung Health SDK: " + sensors.size() + " sensors");
+
+        for (SensorType sensorType : sensors) {
+            if (healthService.isConnected() && healthService.isSensorPermitted(sensorType)) {
+
+                SensorReading reading = healthService.readSensorData(sensorType).join();
+                if (reading != null) {
+                    reading.setDeviceId(device.deviceId);
+                    reading.setConnectionType("SAMSUNG_HEALTH_SDK");
+                    reading.setMetadata("source=samsung_health_sdk,permitted=true");
+                    latencyTracer.startTrace(reading);
+                    readings.add(reading);
+
+                    Log.d(TAG, "📊 Samsung Health: " + sensorType + " = " +
+                            String.format("%.2f", reading.getValue()) + " " + sensorType.getUnit());
                 }
             }
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error collecting from Samsung Health SDK", e);
         }
         return readings;
     }
 
-       private List<SensorReading> collectFromAndroidSensors(List<SensorType> sensors) {
+       private List<SensorReading> collectFromAndroidSensors(MonitoredDevice device, List<SensorType> sensors) {
            List<SensorReading> readings = new ArrayList<>();
-           try {
-               Log.d(TAG, "🤖 Collecting from Android Sensor API: " + sensors.size() + " sensors");
-
-               List<SensorReading> androidReadings = watchManager.readSensorData(sensors).join();
-               for (SensorReading reading : androidReadings) {
-                   if (reading != null) {
-                       reading.setDeviceId("samsung_galaxy_watch_7");
-                       if (reading.getConnectionType() == null) {
-                           reading.setConnectionType("ANDROID_SENSOR_API");
-                       }
-                       reading.setMetadata("source=android_sensor_api,permitted=false");
-                       readings.add(reading);
-
-                       Log.d(TAG, "📊 Android Sensor: " + reading.getSensorType() + " = " +
-                               String.format("%.2f", reading.getValue()) + " " + reading.getSensorType().getUnit());
+           Log.d(TAG, "🤖 Collecting from Android Sensor API: " + sensors.size() + " sensors");
+
+           List<SensorReading> androidReadings = device.watchManager.readSensorData(sensors).join();
+           for (SensorReading reading : androidReadings) {
+               if (reading != null) {
+                   reading.setDeviceId(device.deviceId);
+                   if (reading.getConnectionType() == null) {
+                       reading.setConnectionType("ANDROID_SENSOR_API");
                    }
+                   reading.setMetadata("source=android_sensor_api,permitted=false");
+                   latencyTracer.startTrace(reading);
+                   readings.add(reading);
+
+                   Log.d(TAG, "📊 Android Sensor: " + reading.getSensorType() + " = " +
+                           String.format("%.2f", reading.getValue()) + " " + reading.getSensorType().getUnit());
                }
-           } catch (Exception e) {
-               Log.e(TAG, "❌ Error collecting from Android Sensor API", e);
            }
            return readings;
        }
 
        private com.feri.watchmyparent.mobile.application.dto.SensorDataDTO convertToSensorDataDTO(
-               SensorReading reading, String userId,
-               com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel criticalityLevel) {
+               SensorReading reading, String userId, CriticalityLevel criticalityLevel) {
 
            com.feri.watchmyparent.mobile.application.dto.SensorDataDTO dto =
-                   new com.feri.watchmyparent.mobile.application.dto.SensorDataDTO();
+                   com.feri.watchmyparent.mobile.application.dto.SensorDataDTO.fromReading(reading, userId);
+
+           // ✅ NEW: Nivelul de alertă după pragurile compilate din profilul medical
+           CompiledAlertRules.Level alertLevel = anomalyDetector.classify(userId, reading);
+           if (alertLevel != null) {
+               dto.setAlertLevel(alertLevel.name());
+           }
 
-           dto.setUserId(userId);
-           dto.setSensorType(reading.getSensorType());
-           dto.setValue(reading.getValue());
-           dto.setUnit(reading.getUnit() != null ? reading.getUnit() : reading.getSensorType().getUnit());
-           dto.setTimestamp(reading.getTimestamp() != null ? reading.getTimestamp() : LocalDateTime.now());
-           dto.setDeviceId(reading.getDeviceId());
-           dto.setTransmitted(false);
+           // ✅ NEW: Propagă trace-ul de latență (null pentru citirile neeșantionate)
+           dto.setTrace(reading.getTrace());
+           latencyTracer.mark(dto.getTrace(), ReadingTrace.Stage.DTO_CONVERTED);
 
            return dto;
        }
 
     // Collect all CRITICAL sensors (30 second frequency)
     public CompletableFuture<List<SensorReading>> collectCriticalSensors() {
-        return collectSensorDataByCriticality(com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel.CRITICAL);
+        return collectSensorDataByCriticality(CriticalityLevel.CRITICAL);
     }
 
     // Collect all IMPORTANT sensors (2 minute frequency)
     public CompletableFuture<List<SensorReading>> collectImportantSensors() {
-        return collectSensorDataByCriticality(com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel.IMPORTANT);
+        return collectSensorDataByCriticality(CriticalityLevel.IMPORTANT);
     }
 
     //Collect all REGULAR sensors (5 minute frequency)
     public CompletableFuture<List<SensorReading>> collectRegularSensors() {
-        return collectSensorDataByCriticality(com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel.REGULAR);
+        return collectSensorDataByCriticality(CriticalityLevel.REGULAR);
     }
 
     // Collect all LONG_TERM sensors (15 minute frequency)
     public CompletableFuture<List<SensorReading>> collectLongTermSensors() {
-        return collectSensorDataByCriticality(com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel.LONG_TERM);
+        return collectSensorDataByCriticality(CriticalityLevel.LONG_TERM);
     }
 
     // Get data source for a specific sensor
@@ -263,15 +783,108 @@ public class SensorDataIntegrationService {
         }
     }
 
+    public PatientShardedExecutor.ExecutorStatistics getShardStatistics() {
+        return patientExecutor.getStatistics();
+    }
+
+    public List<PatientShardedExecutor.LaneStatistics> getPatientLaneStatistics() {
+        return patientExecutor.getLaneStatistics();
+    }
+
+    public void addAnomalyListener(VitalSignsAnomalyDetector.AnomalyListener listener) {
+        anomalyDetector.addListener(listener);
+    }
+
+    public VitalSignsAnomalyDetector.DetectorStatistics getAnomalyStatistics() {
+        return anomalyDetector.getStatistics();
+    }
+
+    public void shutdown() {
+        patientExecutor.shutdown();
+        anomalyDetector.flushBaselines();
+    }
+
     // Get service status
     public String getServiceStatus() {
+        int deviceCount = 0;
+        for (List<MonitoredDevice> devices : patientDevices.values()) {
+            deviceCount += devices.size();
+        }
+
         StringBuilder status = new StringBuilder();
         status.append("Sensor Data Integration Service (Kafka-Only):\n");
-        status.append("- Samsung Health SDK: ").append(samsungHealthDataService.isConnected() ? "✅" : "❌").append("\n");
-        status.append("- Watch Manager: ").append(watchManager.isConnected() ? "✅" : "❌").append("\n");
+        status.append("- Samsung Health SDK: ")
+                .append(samsungHealthDataService != null && samsungHealthDataService.isConnected() ? "✅" : "❌").append("\n");
+        status.append("- Watch Manager: ")
+                .append(watchManager != null && watchManager.isConnected() ? "✅" : "❌").append("\n");
         status.append("- Data Transmission: ✅ Kafka-Only Pipeline\n");
         status.append("- Permitted sensors: ").append(SAMSUNG_HEALTH_PERMITTED.size()).append("\n");
-        status.append("- Android sensors: ").append(ANDROID_SENSOR_API.size());
+        status.append("- Android sensors: ").append(ANDROID_SENSOR_API.size()).append("\n");
+        status.append("- Monitored patients: ").append(patientDevices.size())
+                .append(" (").append(deviceCount).append(" devices)\n");
+        status.append("- ").append(patientExecutor.getStatistics()).append("\n");
+        status.append("- ").append(passiveCoverage.getStatistics()).append("\n");
+        status.append("- ").append(latencyTracer.getStatistics());
         return status.toString();
     }
-}
\ No newline at end of file
+
+    private static String rootMessage(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    // ✅ NEW: Un ceas înregistrat pentru un pacient
+    public static class MonitoredDevice {
+        public final String userId;
+        public final String deviceId;
+        final WatchManager watchManager;
+        final SamsungHealthDataService samsungHealthDataService;
+
+        private final AtomicLong readingsCollected = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile LocalDateTime lastCollection;
+
+        MonitoredDevice(String userId, String deviceId, WatchManager watchManager,
+                        SamsungHealthDataService samsungHealthDataService) {
+            this.userId = userId;
+            this.deviceId = deviceId;
+            this.watchManager = watchManager;
+            this.samsungHealthDataService = samsungHealthDataService;
+        }
+
+        void recordSuccess(int readings) {
+            readingsCollected.addAndGet(readings);
+            lastCollection = LocalDateTime.now();
+        }
+
+        void recordFailure() {
+            failures.incrementAndGet();
+        }
+
+        public boolean isConnected() {
+            return (watchManager != null && watchManager.isConnected())
+                    || (samsungHealthDataService != null && samsungHealthDataService.isConnected());
+        }
+
+        public long getReadingsCollected() {
+            return readingsCollected.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public LocalDateTime getLastCollection() {
+            return lastCollection;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("MonitoredDevice{user=%s, device=%s, connected=%s, readings=%d, failures=%d}",
+                    userId, deviceId, isConnected(), readingsCollected.get(), failures.get());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Simplificare online a traiectoriei (opening window, variantă streaming de Douglas-Peucker):
+// un punct nou e acceptat în segmentul curent cât timp toate punctele intermediare rămân la cel mult
+// toleranceMeters de poziția estimată prin dead-reckoning pe segmentul ancoră → punct nou
+// (distanța sincronizată în timp, SED). Când eroarea e depășită, punctul anterior devine punct păstrat
+// și ancora noului segment. Nu este thread-safe - o instanță per pacient, sincronizată de apelant.
+public class TrajectorySimplifier {
+
+    public static final double DEFAULT_TOLERANCE_METERS = 15.0;
+    public static final int DEFAULT_MAX_WINDOW = 64;
+    public static final long DEFAULT_MAX_SEGMENT_MS = TimeUnit.MINUTES.toMillis(30);
+    public static final long DEFAULT_MAX_GAP_MS = TimeUnit.MINUTES.toMillis(20);
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final double toleranceMeters;
+    private final int maxWindow;
+    private final long maxSegmentMs;
+    private final long maxGapMs;
+
+    private LocationPoint anchor;
+    private final List<LocationPoint> window = new ArrayList<>(); // puncte după ancoră, încă nepăstrate
+
+    private long pointsIn = 0;
+    private long pointsKept = 0;
+    private long pointsRejected = 0;
+
+    public TrajectorySimplifier(double toleranceMeters, int maxWindow, long maxSegmentMs, long maxGapMs) {
+        this.toleranceMeters = toleranceMeters;
+        this.maxWindow = maxWindow;
+        this.maxSegmentMs = maxSegmentMs;
+        this.maxGapMs = maxGapMs;
+    }
+
+    public TrajectorySimplifier() {
+        this(DEFAULT_TOLERANCE_METERS, DEFAULT_MAX_WINDOW, DEFAULT_MAX_SEGMENT_MS, DEFAULT_MAX_GAP_MS);
+    }
+
+    // Adaugă un fix și întoarce punctele care devin definitive (0 sau 1; primul fix e mereu păstrat)
+    public List<LocationPoint> add(LocationPoint point) {
+        pointsIn++;
+
+        if (anchor == null) {
+            anchor = point;
+            pointsKept++;
+            return Collections.singletonList(point);
+        }
+
+        LocationPoint last = window.isEmpty() ? anchor : window.get(window.size() - 1);
+        if (point.getTimestampMillis() <= last.getTimestampMillis()) {
+            pointsRejected++; // duplicat sau în afara ordinii
+            return Collections.emptyList();
+        }
+
+        if (window.isEmpty()) {
+            window.add(point);
+            return Collections.emptyList();
+        }
+
+        boolean breakSegment = point.getTimestampMillis() - last.getTimestampMillis() > maxGapMs
+                || point.getTimestampMillis() - anchor.getTimestampMillis() > maxSegmentMs
+                || window.size() >= maxWindow
+                || exceedsTolerance(point);
+
+        if (!breakSegment) {
+            window.add(point);
+            return Collections.emptyList();
+        }
+
+        // Ultimul punct din fereastră a fost validat la pasul anterior: devine punct păstrat și ancoră nouă
+        anchor = last;
+        window.clear();
+        window.add(point);
+        pointsKept++;
+        return Collections.singletonList(last);
+    }
+
+    // Ultima poziție primită, încă nepăstrată (coada traiectoriei), sau null
+    public LocationPoint pending() {
+        return window.isEmpty() ? null : window.get(window.size() - 1);
+    }
+
+    // Închide segmentul curent: ultimul fix primit devine punct păstrat
+    public List<LocationPoint> flush() {
+        LocationPoint last = pending();
+        if (last == null) {
+            return Collections.emptyList();
+        }
+        anchor = last;
+        window.clear();
+        pointsKept++;
+        return Collections.singletonList(last);
+    }
+
+    public void reset() {
+        anchor = null;
+        window.clear();
+    }
+
+    private boolean exceedsTolerance(LocationPoint candidate) {
+        double cosLat = Math.cos(Math.toRadians(anchor.getLatitude()));
+        double endX = (candidate.getLongitude() - anchor.getLongitude()) * cosLat;
+        double endY = candidate.getLatitude() - anchor.getLatitude();
+        double duration = candidate.getTimestampMillis() - anchor.getTimestampMillis();
+        double toleranceDegrees = toleranceMeters / METERS_PER_DEGREE;
+        double toleranceSquared = toleranceDegrees * toleranceDegrees;
+
+        for (int i = 0; i < window.size(); i++) {
+            LocationPoint p = window.get(i);
+            double ratio = (p.getTimestampMillis() - anchor.getTimestampMillis()) / duration;
+            double dx = (p.getLongitude() - anchor.getLongitude()) * cosLat - endX * ratio;
+            double dy = (p.getLatitude() - anchor.getLatitude()) - endY * ratio;
+            if (dx * dx + dy * dy > toleranceSquared) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double getToleranceMeters() { return toleranceMeters; }
+    public long getPointsIn() { return pointsIn; }
+    public long getPointsKept() { return pointsKept; }
+    public long getPointsRejected() { return pointsRejected; }
+
+    public double getCompressionRatio() {
+        return pointsKept > 0 ? (double) pointsIn / pointsKept : 1.0;
+    }
+}
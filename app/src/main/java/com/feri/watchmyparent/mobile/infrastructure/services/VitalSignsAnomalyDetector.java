@@ -0,0 +1,569 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.domain.valueobjects.VitalAnomaly;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.VitalBaselineDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.VitalBaselineEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// Detecție streaming de anomalii pe semnele vitale, per (pacient, SensorType), cu memorie constantă:
+//   - baseline personal EWMA / EWMVar, actualizat cu valoarea winsorizată (o valoare extremă nu "otrăvește" baseline-ul)
+//   - z-score robust față de baseline, confirmat de mai multe citiri consecutive
+//   - viteză de variație (unități/minut) între citiri apropiate
+//   - praguri absolute susținute pe o fereastră de timp (un eveniment per episod); cu un AlertRuleEngine
+//     pragurile critice vin din profilul medical compilat al pacientului
+// Baseline-urile se salvează periodic în Room (vital_baseline) și se reîncarcă la pornire.
+@Singleton
+public class VitalSignsAnomalyDetector {
+
+    private static final String TAG = "VitalAnomalyDetector";
+
+    public static final long PERSIST_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    public static final long ANOMALY_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(10);
+    // Un pacient care oscilează în jurul pragului absolut nu primește o alertă critică la fiecare traversare
+    public static final long SUSTAINED_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(60);
+    // Peste acest interval între citiri nu mai calculăm viteza și reluăm ferestrele susținute
+    public static final long MAX_SAMPLE_GAP_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final int KIND_COUNT = VitalAnomaly.Kind.values().length;
+    private static final int SENSOR_COUNT = SensorType.values().length;
+
+    // Parametrii detecției pentru un semn vital
+    public static final class SignalProfile {
+        public final double alpha;             // ponderea EWMA (~2/alpha citiri de memorie)
+        public final int minSamples;           // încălzire înainte de z-score
+        public final double zThreshold;
+        public final int zPersistence;         // citiri consecutive peste prag
+        public final double minStdDev;         // podea pentru deviația standard (senzori cu rezoluție mică)
+        public final double winsorZ;           // valorile sunt tăiate la mean ± winsorZ·sd înainte de actualizare
+        public final double lowLimit;          // NaN = fără limită
+        public final double highLimit;
+        public final long sustainMs;
+        public final double maxRisePerMinute;  // NaN = fără verificare
+        public final double maxDropPerMinute;
+
+        public SignalProfile(double alpha, int minSamples, double zThreshold, int zPersistence, double minStdDev,
+                             double winsorZ, double lowLimit, double highLimit, long sustainMs,
+                             double maxRisePerMinute, double maxDropPerMinute) {
+            this.alpha = alpha;
+            this.minSamples = minSamples;
+            this.zThreshold = zThreshold;
+            this.zPersistence = zPersistence;
+            this.minStdDev = minStdDev;
+            this.winsorZ = winsorZ;
+            this.lowLimit = lowLimit;
+            this.highLimit = highLimit;
+            this.sustainMs = sustainMs;
+            this.maxRisePerMinute = maxRisePerMinute;
+            this.maxDropPerMinute = maxDropPerMinute;
+        }
+    }
+
+    // Valori implicite pentru vârstnici, citiri CRITICAL la ~30 s
+    public static Map<SensorType, SignalProfile> defaultProfiles() {
+        Map<SensorType, SignalProfile> profiles = new EnumMap<>(SensorType.class);
+        profiles.put(SensorType.HEART_RATE, new SignalProfile(0.02, 30, 5.0, 3, 3.0, 3.0,
+                40, 120, TimeUnit.MINUTES.toMillis(2), 40, 40));
+        profiles.put(SensorType.BLOOD_OXYGEN, new SignalProfile(0.02, 30, 5.0, 3, 0.8, 3.0,
+                90, Double.NaN, TimeUnit.MINUTES.toMillis(1), Double.NaN, 6));
+        profiles.put(SensorType.BLOOD_PRESSURE, new SignalProfile(0.01, 30, 5.0, 3, 5.0, 3.0,
+                90, 180, TimeUnit.MINUTES.toMillis(5), 30, 30));
+        profiles.put(SensorType.BODY_TEMPERATURE, new SignalProfile(0.01, 30, 6.0, 3, 0.15, 3.0,
+                35.0, 38.0, TimeUnit.MINUTES.toMillis(5), 1.0, 1.0));
+        profiles.put(SensorType.STRESS, new SignalProfile(0.02, 30, 5.0, 4, 5.0, 3.0,
+                Double.NaN, 85, TimeUnit.MINUTES.toMillis(10), Double.NaN, Double.NaN));
+        return profiles;
+    }
+
+    public interface AnomalyListener {
+        void onAnomaly(VitalAnomaly anomaly);
+    }
+
+    private final VitalBaselineDao dao; // poate fi null - doar în memorie
+    private final AlertRuleEngine ruleEngine; // poate fi null - doar limitele din SignalProfile
+    private final SignalProfile[] profiles = new SignalProfile[SENSOR_COUNT];
+    private final Map<String, StreamState[]> streams = new ConcurrentHashMap<>();
+    private final List<AnomalyListener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService ioExecutor;
+    private final AtomicBoolean persistScheduled = new AtomicBoolean(false);
+    private volatile long lastPersistMillis = System.currentTimeMillis();
+
+    // Statistici
+    private final AtomicLong readingsProcessed = new AtomicLong();
+    private final AtomicLong readingsIgnored = new AtomicLong();
+    private final AtomicLongArray anomaliesByKind = new AtomicLongArray(KIND_COUNT);
+    private final AtomicLong baselinesPersisted = new AtomicLong();
+    private final AtomicLong baselinesRestored = new AtomicLong();
+
+    @Inject
+    public VitalSignsAnomalyDetector(VitalBaselineDao dao, AlertRuleEngine ruleEngine) {
+        this(dao, defaultProfiles(), ruleEngine);
+    }
+
+    public VitalSignsAnomalyDetector(VitalBaselineDao dao) {
+        this(dao, defaultProfiles(), null);
+    }
+
+    public VitalSignsAnomalyDetector() {
+        this(null, defaultProfiles(), null);
+    }
+
+    public VitalSignsAnomalyDetector(VitalBaselineDao dao, Map<SensorType, SignalProfile> signalProfiles) {
+        this(dao, signalProfiles, null);
+    }
+
+    public VitalSignsAnomalyDetector(VitalBaselineDao dao, Map<SensorType, SignalProfile> signalProfiles,
+                                     AlertRuleEngine ruleEngine) {
+        this.dao = dao;
+        this.ruleEngine = ruleEngine;
+        for (Map.Entry<SensorType, SignalProfile> entry : signalProfiles.entrySet()) {
+            profiles[entry.getKey().ordinal()] = entry.getValue();
+        }
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vital-baseline-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (dao != null) {
+            restoreBaselines();
+        }
+        Log.d(TAG, "✅ Vital signs anomaly detector: " + signalProfiles.keySet() + ", persistent=" + (dao != null)
+                + ", personalized thresholds=" + (ruleEngine != null));
+    }
+
+    public boolean isMonitored(SensorType sensorType) {
+        return sensorType != null && profiles[sensorType.ordinal()] != null;
+    }
+
+    public void addListener(AnomalyListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(AnomalyListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Clasificarea instantanee a unei citiri după pragurile personalizate (null fără AlertRuleEngine)
+    public CompiledAlertRules.Level classify(String userId, SensorReading reading) {
+        return ruleEngine != null ? ruleEngine.evaluate(userId, reading) : null;
+    }
+
+    // ========== INGEST ==========
+
+    public List<VitalAnomaly> process(String userId, SensorReading reading) {
+        if (reading == null || !reading.isValid() || !isMonitored(reading.getSensorType())) {
+            return Collections.emptyList();
+        }
+        LocalDateTime timestamp = reading.getTimestamp() != null ? reading.getTimestamp() : LocalDateTime.now();
+        return process(userId, reading.getSensorType(), reading.getValue(),
+                timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // Calea fierbinte: o căutare în map per pacient, restul pe array-uri, fără alocări când nu există anomalii
+    public List<VitalAnomaly> process(String userId, SensorType sensorType, double value, long timestampMillis) {
+        SignalProfile profile = sensorType != null ? profiles[sensorType.ordinal()] : null;
+        if (profile == null || Double.isNaN(value) || Double.isInfinite(value)) {
+            return Collections.emptyList();
+        }
+
+        StreamState state = stateFor(userId, sensorType);
+        List<VitalAnomaly> anomalies;
+        synchronized (state) {
+            if (state.sampleCount > 0 && timestampMillis <= state.lastTimestampMillis) {
+                readingsIgnored.incrementAndGet(); // duplicat sau în afara ordinii
+                return Collections.emptyList();
+            }
+            anomalies = evaluate(userId, sensorType, profile, state, value, timestampMillis);
+        }
+        readingsProcessed.incrementAndGet();
+
+        if (!anomalies.isEmpty()) {
+            for (VitalAnomaly anomaly : anomalies) {
+                anomaliesByKind.incrementAndGet(anomaly.getKind().ordinal());
+                Log.w(TAG, "🚨 " + anomaly);
+                for (AnomalyListener listener : listeners) {
+                    try {
+                        listener.onAnomaly(anomaly);
+                    } catch (Exception e) {
+                        Log.e(TAG, "❌ Anomaly listener failed", e);
+                    }
+                }
+            }
+        }
+
+        maybeSchedulePersist();
+        return anomalies;
+    }
+
+    private List<VitalAnomaly> evaluate(String userId, SensorType sensorType, SignalProfile profile,
+                                        StreamState state, double value, long t) {
+        List<VitalAnomaly> anomalies = Collections.emptyList();
+        double sd = Math.max(Math.sqrt(state.variance), profile.minStdDev);
+        boolean contiguous = state.sampleCount > 0 && t - state.lastTimestampMillis <= MAX_SAMPLE_GAP_MS;
+
+        // 1. Z-score robust față de baseline (după încălzire)
+        if (state.sampleCount >= profile.minSamples) {
+            double z = (value - state.mean) / sd;
+            state.highRun = z >= profile.zThreshold ? state.highRun + 1 : 0;
+            state.lowRun = z <= -profile.zThreshold ? state.lowRun + 1 : 0;
+            if (state.highRun == profile.zPersistence) {
+                anomalies = raise(anomalies, userId, sensorType, state, VitalAnomaly.Kind.DEVIATION_HIGH,
+                        VitalAnomaly.Severity.WARNING, value, sd, z, t);
+            } else if (state.lowRun == profile.zPersistence) {
+                anomalies = raise(anomalies, userId, sensorType, state, VitalAnomaly.Kind.DEVIATION_LOW,
+                        VitalAnomaly.Severity.WARNING, value, sd, z, t);
+            }
+        }
+
+        // 2. Viteză de variație între citiri apropiate
+        if (contiguous) {
+            double ratePerMinute = (value - state.lastValue) * 60_000.0 / (t - state.lastTimestampMillis);
+            if (ratePerMinute > profile.maxRisePerMinute) {
+                anomalies = raise(anomalies, userId, sensorType, state, VitalAnomaly.Kind.RAPID_RISE,
+                        VitalAnomaly.Severity.WARNING, value, sd, ratePerMinute, t);
+            } else if (-ratePerMinute > profile.maxDropPerMinute) {
+                anomalies = raise(anomalies, userId, sensorType, state, VitalAnomaly.Kind.RAPID_DROP,
+                        VitalAnomaly.Severity.WARNING, value, sd, ratePerMinute, t);
+            }
+        }
+
+        // 3. Praguri absolute susținute - un singur eveniment per episod
+        double highLimit = profile.highLimit;
+        double lowLimit = profile.lowLimit;
+        if (ruleEngine != null) {
+            CompiledAlertRules rules = ruleEngine.rulesFor(userId, t);
+            if (rules.hasThresholds(sensorType)) {
+                highLimit = rules.criticalHigh(sensorType, t);
+                lowLimit = rules.criticalLow(sensorType, t);
+            }
+        }
+        if (value > highLimit) {
+            if (state.highSinceMillis < 0 || !contiguous) {
+                state.highSinceMillis = t;
+                state.highEpisodeRaised = false;
+            }
+            if (!state.highEpisodeRaised && t - state.highSinceMillis >= profile.sustainMs) {
+                state.highEpisodeRaised = true;
+                anomalies = raise(anomalies, userId, sensorType, state, VitalAnomaly.Kind.SUSTAINED_HIGH,
+                        VitalAnomaly.Severity.CRITICAL, value, sd, (t - state.highSinceMillis) / 1000.0, t);
+            }
+        } else {
+            state.highSinceMillis = -1;
+            state.highEpisodeRaised = false;
+        }
+        if (value < lowLimit) {
+            if (state.lowSinceMillis < 0 || !contiguous) {
+                state.lowSinceMillis = t;
+                state.lowEpisodeRaised = false;
+            }
+            if (!state.lowEpisodeRaised && t - state.lowSinceMillis >= profile.sustainMs) {
+                state.lowEpisodeRaised = true;
+                anomalies = raise(anomalies, userId, sensorType, state, VitalAnomaly.Kind.SUSTAINED_LOW,
+                        VitalAnomaly.Severity.CRITICAL, value, sd, (t - state.lowSinceMillis) / 1000.0, t);
+            }
+        } else {
+            state.lowSinceMillis = -1;
+            state.lowEpisodeRaised = false;
+        }
+
+        // 4. Actualizare baseline (EWMA / EWMVar incremental) cu valoarea winsorizată
+        if (state.sampleCount == 0) {
+            state.mean = value;
+            state.variance = profile.minStdDev * profile.minStdDev;
+        } else {
+            boolean warm = state.sampleCount >= profile.minSamples;
+            double clipped = warm
+                    ? Math.max(state.mean - profile.winsorZ * sd, Math.min(state.mean + profile.winsorZ * sd, value))
+                    : value;
+            // În încălzire media converge ca o medie aritmetică, apoi rămâne la alpha
+            double alpha = Math.max(profile.alpha, 1.0 / (state.sampleCount + 1));
+            double diff = clipped - state.mean;
+            double increment = alpha * diff;
+            state.mean += increment;
+            state.variance = (1 - alpha) * (state.variance + diff * increment);
+        }
+        state.sampleCount++;
+        state.lastValue = value;
+        state.lastTimestampMillis = t;
+        state.dirty = true;
+        return anomalies;
+    }
+
+    private List<VitalAnomaly> raise(List<VitalAnomaly> anomalies, String userId, SensorType sensorType,
+                                     StreamState state, VitalAnomaly.Kind kind, VitalAnomaly.Severity severity,
+                                     double value, double sd, double score, long t) {
+        int index = kind.ordinal();
+        long cooldown = severity == VitalAnomaly.Severity.CRITICAL ? SUSTAINED_COOLDOWN_MS : ANOMALY_COOLDOWN_MS;
+        if (state.lastRaisedMillis[index] != 0 && t - state.lastRaisedMillis[index] < cooldown) {
+            return anomalies;
+        }
+        state.lastRaisedMillis[index] = t;
+        List<VitalAnomaly> result = anomalies.isEmpty() ? new ArrayList<VitalAnomaly>(2) : anomalies;
+        result.add(new VitalAnomaly(userId, sensorType, kind, severity, value, state.mean, sd, score, t));
+        return result;
+    }
+
+    private StreamState stateFor(String userId, SensorType sensorType) {
+        StreamState[] userStreams = streams.get(userId);
+        if (userStreams == null) {
+            StreamState[] created = new StreamState[SENSOR_COUNT];
+            userStreams = streams.putIfAbsent(userId, created);
+            if (userStreams == null) {
+                userStreams = created;
+            }
+        }
+        int index = sensorType.ordinal();
+        StreamState state = userStreams[index];
+        if (state == null) {
+            synchronized (userStreams) {
+                state = userStreams[index];
+                if (state == null) {
+                    state = new StreamState();
+                    userStreams[index] = state;
+                }
+            }
+        }
+        return state;
+    }
+
+    // Baseline curent (ex. pentru UI sau raportul medicului); null dacă nu există citiri
+    public Baseline getBaseline(String userId, SensorType sensorType) {
+        StreamState[] userStreams = streams.get(userId);
+        StreamState state = userStreams != null ? userStreams[sensorType.ordinal()] : null;
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            return state.sampleCount > 0
+                    ? new Baseline(state.mean, Math.sqrt(state.variance), state.sampleCount, state.lastTimestampMillis)
+                    : null;
+        }
+    }
+
+    public void resetUser(String userId) {
+        streams.remove(userId);
+        if (dao != null) {
+            ioExecutor.execute(() -> dao.deleteByUser(userId));
+        }
+    }
+
+    // ========== PERSISTENȚĂ ==========
+
+    private void maybeSchedulePersist() {
+        if (dao == null || System.currentTimeMillis() - lastPersistMillis < PERSIST_INTERVAL_MS) {
+            return;
+        }
+        if (persistScheduled.compareAndSet(false, true)) {
+            try {
+                ioExecutor.execute(() -> {
+                    try {
+                        writeDirtyBaselines();
+                    } finally {
+                        persistScheduled.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                persistScheduled.set(false);
+            }
+        }
+    }
+
+    // Scrie imediat baseline-urile modificate (ex. la oprirea colectării)
+    public CompletableFuture<Integer> flushBaselines() {
+        if (dao == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(this::writeDirtyBaselines, ioExecutor);
+    }
+
+    private int writeDirtyBaselines() {
+        lastPersistMillis = System.currentTimeMillis();
+        List<VitalBaselineEntity> entities = new ArrayList<>();
+        List<StreamState> written = new ArrayList<>();
+        for (Map.Entry<String, StreamState[]> entry : streams.entrySet()) {
+            StreamState[] userStreams = entry.getValue();
+            for (int i = 0; i < userStreams.length; i++) {
+                StreamState state = userStreams[i];
+                if (state == null) continue;
+                synchronized (state) {
+                    if (!state.dirty) continue;
+                    state.dirty = false;
+                    entities.add(toEntity(entry.getKey(), SensorType.values()[i], state, lastPersistMillis));
+                }
+                written.add(state);
+            }
+        }
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        try {
+            dao.upsertAll(entities);
+            baselinesPersisted.addAndGet(entities.size());
+            Log.d(TAG, "💾 Persisted " + entities.size() + " vital baselines");
+            return entities.size();
+        } catch (Exception e) {
+            for (StreamState state : written) {
+                synchronized (state) {
+                    state.dirty = true;
+                }
+            }
+            Log.w(TAG, "⚠️ Could not persist vital baselines: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Reîncarcă baseline-urile salvate; stream-urile care au primit deja citiri nu sunt suprascrise
+    public CompletableFuture<Integer> restoreBaselines() {
+        if (dao == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            int restored = 0;
+            try {
+                for (VitalBaselineEntity entity : dao.getAll()) {
+                    SensorType sensorType;
+                    try {
+                        sensorType = SensorType.valueOf(entity.sensorType);
+                    } catch (IllegalArgumentException e) {
+                        continue;
+                    }
+                    if (!isMonitored(sensorType)) continue;
+                    StreamState state = stateFor(entity.userId, sensorType);
+                    synchronized (state) {
+                        if (state.sampleCount > 0) continue;
+                        state.sampleCount = entity.sampleCount;
+                        state.mean = entity.mean;
+                        state.variance = entity.variance;
+                        state.lastValue = entity.lastValue;
+                        state.lastTimestampMillis = entity.lastTimestampMillis;
+                    }
+                    restored++;
+                }
+                baselinesRestored.addAndGet(restored);
+                Log.d(TAG, "✅ Restored " + restored + " vital baselines");
+            } catch (Exception e) {
+                Log.w(TAG, "⚠️ Could not restore vital baselines: " + e.getMessage());
+            }
+            return restored;
+        }, ioExecutor);
+    }
+
+    private static VitalBaselineEntity toEntity(String userId, SensorType sensorType, StreamState state, long now) {
+        VitalBaselineEntity entity = new VitalBaselineEntity();
+        entity.userId = userId;
+        entity.sensorType = sensorType.name();
+        entity.sampleCount = state.sampleCount;
+        entity.mean = state.mean;
+        entity.variance = state.variance;
+        entity.lastValue = state.lastValue;
+        entity.lastTimestampMillis = state.lastTimestampMillis;
+        entity.updatedAtMillis = now;
+        return entity;
+    }
+
+    public void shutdown() {
+        flushBaselines();
+        ioExecutor.shutdown();
+    }
+
+    // Starea unui stream (pacient, senzor) - dimensiune fixă, indiferent de câte citiri au trecut
+    private static final class StreamState {
+        long sampleCount;
+        double mean;
+        double variance;
+        double lastValue;
+        long lastTimestampMillis;
+        int highRun;
+        int lowRun;
+        long highSinceMillis = -1;
+        long lowSinceMillis = -1;
+        boolean highEpisodeRaised;
+        boolean lowEpisodeRaised;
+        final long[] lastRaisedMillis = new long[KIND_COUNT];
+        boolean dirty;
+    }
+
+    public static final class Baseline {
+        public final double mean;
+        public final double stdDev;
+        public final long sampleCount;
+        public final long lastTimestampMillis;
+
+        Baseline(double mean, double stdDev, long sampleCount, long lastTimestampMillis) {
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.sampleCount = sampleCount;
+            this.lastTimestampMillis = lastTimestampMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Baseline{%.2f±%.2f, n=%d}", mean, stdDev, sampleCount);
+        }
+    }
+
+    // ========== STATISTICI ==========
+
+    public DetectorStatistics getStatistics() {
+        DetectorStatistics stats = new DetectorStatistics();
+        stats.patients = streams.size();
+        for (StreamState[] userStreams : streams.values()) {
+            for (StreamState state : userStreams) {
+                if (state != null) stats.streams++;
+            }
+        }
+        stats.readingsProcessed = readingsProcessed.get();
+        stats.readingsIgnored = readingsIgnored.get();
+        for (int i = 0; i < KIND_COUNT; i++) {
+            long count = anomaliesByKind.get(i);
+            stats.anomalies += count;
+            if (i == VitalAnomaly.Kind.SUSTAINED_HIGH.ordinal() || i == VitalAnomaly.Kind.SUSTAINED_LOW.ordinal()) {
+                stats.criticalAnomalies += count;
+            }
+        }
+        stats.baselinesPersisted = baselinesPersisted.get();
+        stats.baselinesRestored = baselinesRestored.get();
+        return stats;
+    }
+
+    public static class DetectorStatistics {
+        public int patients = 0;
+        public int streams = 0;
+        public long readingsProcessed = 0;
+        public long readingsIgnored = 0;
+        public long anomalies = 0;
+        public long criticalAnomalies = 0;
+        public long baselinesPersisted = 0;
+        public long baselinesRestored = 0;
+
+        @Override
+        public String toString() {
+            return String.format("VitalAnomalies{patients=%d, streams=%d, readings=%d, ignored=%d, anomalies=%d, " +
+                            "critical=%d, persisted=%d, restored=%d}",
+                    patients, streams, readingsProcessed, readingsIgnored, anomalies, criticalAnomalies,
+                    baselinesPersisted, baselinesRestored);
+        }
+    }
+}
@@ -21,11 +21,22 @@ import com.feri.watchmyparent.mobile.R;
 import com.feri.watchmyparent.mobile.application.services.HealthDataApplicationService;
 import com.feri.watchmyparent.mobile.application.services.WatchConnectionApplicationService;
 import com.feri.watchmyparent.mobile.application.services.LocationApplicationService;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationStatus;
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+import com.feri.watchmyparent.mobile.infrastructure.external.LocationServiceAdapter;
 import com.feri.watchmyparent.mobile.presentation.ui.dashboard.DashboardActivity;
 
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
 import javax.inject.Inject;
 import dagger.hilt.android.AndroidEntryPoint;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 //COMPLET MODIFICAT pentru Kafka-Only Pipeline
 //Colectează date reale în background și le transmite DOAR prin Kafka
@@ -48,8 +59,22 @@ public class WatchDataCollectionService extends Service {
     @Inject
     SensorDataIntegrationService sensorDataIntegrationService;
 
+    @Inject
+    LocationServiceAdapter locationServiceAdapter;
+
+    @Inject
+    AdaptiveLocationStrategy adaptiveLocationStrategy; // ✅ NEW: prioritate/interval GPS după mișcare
+
+    @Inject
+    HealthServicesPassiveMonitor passiveMonitor; // ✅ NEW: livrări pasive - polling-ul rămâne fallback
+
+    @Inject
+    SensorDataRepository sensorDataRepository; // ✅ NEW: flush-ul write-behind la oprire
+
+    @Inject
+    PatientRegistry patientRegistry; // ✅ NEW: pacientul care poartă ceasul (și telefonul cu GPS-ul)
+
     private Handler handler;
-    private String currentUserId = "demo-user-id";
 
     // REAL periodic tasks pentru Samsung Galaxy Watch 7 data collection
     private Runnable criticalSensorTask;
@@ -63,14 +88,16 @@ public class WatchDataCollectionService extends Service {
     private static final long CRITICAL_INTERVAL = 30000; // 30 seconds - vital signs
     private static final long IMPORTANT_INTERVAL = 120000; // 2 minutes - movement
     private static final long REGULAR_INTERVAL = 300000; // 5 minutes - environment
-    private static final long LOCATION_INTERVAL = 600000; // 10 minutes - GPS location
+    private static final long LOCATION_INTERVAL = 600000; // 10 minutes - GPS location (fallback fără updates adaptive)
     private static final long LONG_TERM_INTERVAL = 900000; // 15 minutes - sleep
     private static final long HEALTH_CHECK_INTERVAL = 60000; // 1 minute - connection check
 
     // Service state
     private boolean isServiceRunning = false;
     private boolean isWatchConnected = false;
-    private int dataCollectionCount = 0;
+    private final AtomicInteger dataCollectionCount = new AtomicInteger();
+    private final Map<String, AtomicLong> patientReadingCounts = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<Boolean> lastAdaptiveLocationUpdate = CompletableFuture.completedFuture(false);
     private long serviceStartTime;
 
     @Override
@@ -126,7 +153,7 @@ public class WatchDataCollectionService extends Service {
             public void run() {
                 if (isWatchConnected) {
                     Log.d(TAG, "🔴 Collecting CRITICAL sensors through Kafka-only pipeline");
-                    collectCriticalSensorsKafkaOnly();
+                    collectForAllPatientsKafkaOnly(CriticalityLevel.CRITICAL);
                 }
                 if (isServiceRunning) {
                     handler.postDelayed(this, CRITICAL_INTERVAL);
@@ -140,7 +167,7 @@ public class WatchDataCollectionService extends Service {
             public void run() {
                 if (isWatchConnected) {
                     Log.d(TAG, "🟡 Collecting IMPORTANT sensors through Kafka-only pipeline");
-                    collectImportantSensorsKafkaOnly();
+                    collectForAllPatientsKafkaOnly(CriticalityLevel.IMPORTANT);
                 }
                 if (isServiceRunning) {
                     handler.postDelayed(this, IMPORTANT_INTERVAL);
@@ -154,7 +181,7 @@ public class WatchDataCollectionService extends Service {
             public void run() {
                 if (isWatchConnected) {
                     Log.d(TAG, "🟢 Collecting REGULAR sensors through Kafka-only pipeline");
-                    collectRegularSensorsKafkaOnly();
+                    collectForAllPatientsKafkaOnly(CriticalityLevel.REGULAR);
                 }
                 if (isServiceRunning) {
                     handler.postDelayed(this, REGULAR_INTERVAL);
@@ -168,7 +195,7 @@ public class WatchDataCollectionService extends Service {
             public void run() {
                 if (isWatchConnected) {
                     Log.d(TAG, "🔵 Collecting LONG-TERM sensors through Kafka-only pipeline");
-                    collectLongTermSensorsKafkaOnly();
+                    collectForAllPatientsKafkaOnly(CriticalityLevel.LONG_TERM);
                 }
                 if (isServiceRunning) {
                     handler.postDelayed(this, LONG_TERM_INTERVAL);
@@ -176,12 +203,16 @@ public class WatchDataCollectionService extends Service {
             }
         };
 
-        // GPS Location tracking (10 minutes)
+        // GPS Location tracking (10 minutes) - doar re-evaluează planul când updates adaptive sunt active
         locationUpdateTask = new Runnable() {
             @Override
             public void run() {
-                Log.d(TAG, "📍 Updating GPS location through Kafka-only pipeline");
-                updateLocationKafkaOnly();
+                if (locationServiceAdapter.isAdaptiveTrackingActive()) {
+                    adaptiveLocationStrategy.refresh(System.currentTimeMillis());
+                } else {
+                    Log.d(TAG, "📍 Updating GPS location through Kafka-only pipeline");
+                    updateLocationKafkaOnly();
+                }
                 if (isServiceRunning) {
                     handler.postDelayed(this, LOCATION_INTERVAL);
                 }
@@ -202,110 +233,100 @@ public class WatchDataCollectionService extends Service {
         Log.d(TAG, "✅ All Kafka-only data collection tasks configured");
     }
 
-    // CRITICAL sensors collection prin Kafka-only pipeline
-    private void collectCriticalSensorsKafkaOnly() {
-        CompletableFuture.runAsync(() -> {
-            try {
-                Log.d(TAG, "📊 [CRITICAL] Collecting Samsung Health SDK sensors through Kafka...");
-
-                sensorDataIntegrationService.collectCriticalSensors()
-                        .thenAccept(readings -> {
-                            dataCollectionCount += readings.size();
+    // ✅ NEW: Tick partajat pentru toți pacienții monitorizați - fiecare pacient pe banda lui
+    // (ordinea citirilor per pacient e păstrată, pacienții rulează în paralel, eșecurile sunt izolate)
+    private void collectForAllPatientsKafkaOnly(CriticalityLevel level) {
+        try {
+            Log.d(TAG, "📊 [" + level + "] Collecting for " +
+                    sensorDataIntegrationService.getMonitoredPatientIds().size() + " patient(s) through Kafka...");
+
+            sensorDataIntegrationService.collectAllPatientsByCriticality(level)
+                    .thenAccept(readingsByPatient -> {
+                        int tickReadings = 0;
+                        for (Map.Entry<String, List<SensorReading>> entry : readingsByPatient.entrySet()) {
+                            if (patientRegistry.getPrimaryUserId().equals(entry.getKey())) {
+                                // Pașii/accelerometrul pacientului cu telefonul ghidează achiziția GPS
+                                for (SensorReading reading : entry.getValue()) {
+                                    adaptiveLocationStrategy.onSensorReading(reading);
+                                }
+                            }
+                            int count = entry.getValue().size();
+                            tickReadings += count;
+                            patientReadingCounts.computeIfAbsent(entry.getKey(), id -> new AtomicLong())
+                                    .addAndGet(count);
+                        }
+                        int total = dataCollectionCount.addAndGet(tickReadings);
 
-                            Log.d(TAG, "✅ [CRITICAL] Collected " + readings.size() + " readings");
-                            Log.d(TAG, "📤 All critical data automatically transmitted through Kafka-only pipeline");
+                        Log.d(TAG, "✅ [" + level + "] Collected " + tickReadings + " readings from " +
+                                readingsByPatient.size() + " patient(s) → Kafka pipeline");
 
+                        if (level == CriticalityLevel.CRITICAL) {
                             // Update notification
                             long uptime = (System.currentTimeMillis() - serviceStartTime) / 60000;
-                            String statusText = String.format("📊 CRITICAL: %d readings, %d min uptime (Kafka-Only)",
-                                    dataCollectionCount, uptime);
+                            String statusText = String.format("📊 %d patient(s), %d readings, %d min uptime (Kafka-Only)",
+                                    readingsByPatient.size(), total, uptime);
                             updateServiceNotification(statusText);
+                        }
+                    })
+                    .exceptionally(throwable -> {
+                        Log.e(TAG, "❌ [" + level + "] Error in Kafka-only sensor collection", throwable);
+                        return null;
+                    });
 
-                            // Log summary (no individual readings to avoid spam)
-                            Log.d(TAG, "✅ " + readings.size() + " critical sensors → Kafka pipeline");
-
-                        })
-                        .exceptionally(throwable -> {
-                            Log.e(TAG, "❌ [CRITICAL] Error in Kafka-only sensor collection", throwable);
-                            return null;
-                        });
-
-            } catch (Exception e) {
-                Log.e(TAG, "❌ [CRITICAL] Exception in Kafka-only collection", e);
-            }
-        });
-    }
-
-    // IMPORTANT sensors collection prin Kafka-only pipeline
-    private void collectImportantSensorsKafkaOnly() {
-        CompletableFuture.runAsync(() -> {
-            try {
-                Log.d(TAG, "📊 [IMPORTANT] Collecting motion sensors through Kafka...");
-
-                sensorDataIntegrationService.collectImportantSensors()
-                        .thenAccept(readings -> {
-                            dataCollectionCount += readings.size();
-
-                            Log.d(TAG, "✅ [IMPORTANT] Collected " + readings.size() + " readings");
-                            Log.d(TAG, "✅ " + readings.size() + " important sensors → Kafka pipeline");
-                        })
-                        .exceptionally(throwable -> {
-                            Log.e(TAG, "❌ [IMPORTANT] Error in Kafka-only sensor collection", throwable);
-                            return null;
-                        });
-
-            } catch (Exception e) {
-                Log.e(TAG, "❌ [IMPORTANT] Exception in Kafka-only collection", e);
-            }
-        });
+        } catch (Exception e) {
+            Log.e(TAG, "❌ [" + level + "] Exception in Kafka-only collection", e);
+        }
     }
 
-    //REGULAR sensors collection prin Kafka-only pipeline
-    private void collectRegularSensorsKafkaOnly() {
-        CompletableFuture.runAsync(() -> {
-            try {
-                Log.d(TAG, "📊 [REGULAR] Collecting environmental sensors through Kafka...");
-
-                sensorDataIntegrationService.collectRegularSensors()
-                        .thenAccept(readings -> {
-                            dataCollectionCount += readings.size();
-
-                            Log.d(TAG, "✅ [REGULAR] Collected " + readings.size() + " readings");
-                            Log.d(TAG, "✅ " + readings.size() + " regular sensors → Kafka pipeline");
-                        })
-                        .exceptionally(throwable -> {
-                            Log.e(TAG, "❌ [REGULAR] Error in Kafka-only sensor collection", throwable);
-                            return null;
-                        });
-
-            } catch (Exception e) {
-                Log.e(TAG, "❌ [REGULAR] Exception in Kafka-only collection", e);
-            }
-        });
+    // ✅ NEW: Înregistrare pasivă (Health Services); tipurile acceptate sunt sărite de tick-urile de polling
+    // cât timp livrările sunt proaspete, iar fără suport/permisiune colectarea rămâne integral prin polling
+    private void startPassiveMonitoring() {
+        passiveMonitor.register()
+                .thenAccept(types -> Log.d(TAG, types.isEmpty()
+                        ? "📡 Passive monitoring unavailable - polling all sensors"
+                        : "📡 Passive monitoring active for " + types + " - polling is fallback only"));
     }
 
-    // LONG-TERM sensors collection prin Kafka-only pipeline
-    private void collectLongTermSensorsKafkaOnly() {
-        CompletableFuture.runAsync(() -> {
-            try {
-                Log.d(TAG, "📊 [LONG_TERM] Collecting sleep sensors through Kafka...");
-
-                sensorDataIntegrationService.collectLongTermSensors()
-                        .thenAccept(readings -> {
-                            dataCollectionCount += readings.size();
+    // ✅ NEW: Updates de locație adaptive; fără permisiune revine la task-ul periodic
+    private void startAdaptiveLocationTracking() {
+        locationServiceAdapter.startAdaptiveLocationUpdates(adaptiveLocationStrategy,
+                new LocationServiceAdapter.LocationUpdateCallback() {
+                    @Override
+                    public void onLocationUpdate(LocationStatus locationStatus) {
+                        // ✅ MODIFICAT: adresa din cache se salvează odată cu fix-ul
+                        String address = LocationServiceAdapter.isCoordinateAddress(locationStatus.getAddress())
+                                ? null : locationStatus.getAddress();
+                        lastAdaptiveLocationUpdate = locationService.updateLocation(
+                                        patientRegistry.getPrimaryUserId(),
+                                        locationStatus.getLatitude(), locationStatus.getLongitude(),
+                                        adaptiveLocationStrategy.getLastAccuracyMeters(), address)
+                                .exceptionally(throwable -> {
+                                    Log.e(TAG, "❌ Error processing adaptive location update", throwable);
+                                    return false;
+                                });
+                    }
 
-                            Log.d(TAG, "✅ [LONG_TERM] Collected " + readings.size() + " readings");
-                            Log.d(TAG, "✅ " + readings.size() + " long-term sensors → Kafka pipeline");
-                        })
-                        .exceptionally(throwable -> {
-                            Log.e(TAG, "❌ [LONG_TERM] Error in Kafka-only sensor collection", throwable);
-                            return null;
-                        });
+                    // ✅ NEW: Cache miss - adresa rezolvată ulterior actualizează locația salvată și transmisă,
+                    // după ce salvarea fix-ului s-a terminat
+                    @Override
+                    public void onAddressResolved(LocationStatus locationStatus) {
+                        lastAdaptiveLocationUpdate
+                                .thenCompose(saved -> locationService.updateResolvedAddress(
+                                        patientRegistry.getPrimaryUserId(),
+                                        locationStatus.getLatitude(), locationStatus.getLongitude(),
+                                        locationStatus.getAddress()))
+                                .exceptionally(throwable -> {
+                                    Log.e(TAG, "❌ Error updating resolved address", throwable);
+                                    return false;
+                                });
+                    }
 
-            } catch (Exception e) {
-                Log.e(TAG, "❌ [LONG_TERM] Exception in Kafka-only collection", e);
-            }
-        });
+                    @Override
+                    public void onError(Exception error) {
+                        Log.w(TAG, "⚠️ Adaptive location updates unavailable - using periodic updates: " +
+                                error.getMessage());
+                    }
+                });
     }
 
     // Location update prin Kafka-only pipeline
@@ -314,7 +335,8 @@ public class WatchDataCollectionService extends Service {
             try {
                 Log.d(TAG, "📍 Updating GPS location through Kafka-only pipeline");
 
-                locationService.updateUserLocation(currentUserId)
+                // GPS-ul telefonului aparține pacientului implicit, nu celorlalți pacienți monitorizați
+                locationService.updateUserLocation(patientRegistry.getPrimaryUserId())
                         .thenAccept(locationDTO -> {
                             if (locationDTO != null) {
                                 Log.d(TAG, "✅ Location updated: " + locationDTO.getStatus() +
@@ -359,6 +381,17 @@ public class WatchDataCollectionService extends Service {
             long uptime = (System.currentTimeMillis() - serviceStartTime) / 60000;
             Log.d(TAG, "💗 Kafka-only pipeline health check - Watch: " + (isWatchConnected ? "✅" : "❌") +
                     ", Uptime: " + uptime + " min, Total readings: " + dataCollectionCount);
+            Log.d(TAG, "👥 " + sensorDataIntegrationService.getShardStatistics() +
+                    ", readings per patient: " + patientReadingCounts);
+            Log.d(TAG, "🗺️ " + locationServiceAdapter.getGeocodeCacheStatistics());
+
+            // ✅ NEW: Citirile din istoricul local fără confirmarea broker-ului (FAILED, PENDING rămase de la un
+            // proces oprit) sunt retrimise; cele din coada offline sunt golite de KafkaRetryService
+            sensorDataIntegrationService.retryPendingTransmissions()
+                    .exceptionally(throwable -> {
+                        Log.e(TAG, "❌ Retry of local readings failed", throwable);
+                        return 0;
+                    });
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error in Kafka-only health check", e);
@@ -402,9 +435,11 @@ public class WatchDataCollectionService extends Service {
                         Log.d(TAG, "✅ Samsung Galaxy Watch 7 connected, starting Kafka-only pipeline");
 
                         isServiceRunning = true;
-                        dataCollectionCount = 0;
+                        dataCollectionCount.set(0);
 
                         // Start all periodic tasks for Kafka-only pipeline
+                        startPassiveMonitoring();
+                        startAdaptiveLocationTracking();
                         handler.post(criticalSensorTask);
                         handler.post(importantSensorTask);
                         handler.post(regularSensorTask);
@@ -444,6 +479,8 @@ public class WatchDataCollectionService extends Service {
                         Log.d(TAG, "✅ Watch connected (partial/full), starting Kafka-only tasks");
 
                         // Start all periodic tasks with staggered delays for fallback mode
+                        startPassiveMonitoring();
+                        startAdaptiveLocationTracking();
                         handler.post(criticalSensorTask);
                         handler.postDelayed(importantSensorTask, 60000); // Delay 1 minute
                         handler.postDelayed(regularSensorTask, 120000);  // Delay 2 minutes
@@ -491,6 +528,18 @@ public class WatchDataCollectionService extends Service {
             handler.removeCallbacks(longTermSensorTask);
             handler.removeCallbacks(healthCheckTask);
         }
+        if (locationServiceAdapter != null) {
+            locationServiceAdapter.stopAdaptiveLocationUpdates();
+            Log.d(TAG, "📊 " + adaptiveLocationStrategy.getStatistics());
+        }
+        // ✅ NEW: Oprirea colectării (inclusiv din onDestroy) oprește și livrările pasive ale platformei
+        if (passiveMonitor != null) {
+            passiveMonitor.unregister();
+        }
+
+        if (sensorDataIntegrationService != null) {
+            Log.d(TAG, "📊 " + sensorDataIntegrationService.getPassiveCoverageStatistics());
+        }
 
         // Disconnect from watch
         if (watchConnectionService != null) {
@@ -564,6 +613,8 @@ public class WatchDataCollectionService extends Service {
     public void onDestroy() {
         super.onDestroy();
         stopKafkaOnlyDataCollection();
+        // ✅ NEW: Citirile ținute în buffer-ul write-behind sunt scrise înainte ca procesul să poată fi oprit
+        sensorDataRepository.flush();
 
         Log.d(TAG, "🔚 Samsung Galaxy Watch 7 Kafka-Only Data Collection Service destroyed");
         Log.d(TAG, "📊 Service ran for " + ((System.currentTimeMillis() - serviceStartTime) / 60000) + " minutes");
@@ -0,0 +1,106 @@
+package com.feri.watchmyparent.mobile.infrastructure.startup;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// ✅ NEW: Pornirea aplicației în etape: doar etapele marcate main thread rulează în Application.onCreate,
+// restul rulează în fundal imediat ce dependențele lor s-au terminat. O dependență trebuie înregistrată înaintea
+// etapei care o cere, deci graful nu poate avea cicluri. O etapă eșuată e înregistrată în timeline, iar cele
+// care depind de ea rulează oricum (fiecare etapă își gestionează singură starea degradată).
+public class StagedInitializer {
+
+    private static final String TAG = "StagedInitializer";
+
+    private final StartupTimeline timeline;
+    private final Executor background;
+    private final List<Stage> mainThreadStages = new ArrayList<>();
+    private final Map<String, Stage> backgroundStages = new LinkedHashMap<>();
+    private boolean started = false;
+
+    public StagedInitializer(StartupTimeline timeline, Executor background) {
+        this.timeline = timeline;
+        this.background = background;
+    }
+
+    public synchronized StagedInitializer onMainThread(String name, Runnable task) {
+        checkNotStarted();
+        mainThreadStages.add(new Stage(name, task, new String[0]));
+        return this;
+    }
+
+    public synchronized StagedInitializer inBackground(String name, Runnable task, String... dependsOn) {
+        checkNotStarted();
+        if (backgroundStages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup stage: " + name);
+        }
+        for (String dependency : dependsOn) {
+            if (!backgroundStages.containsKey(dependency)) {
+                throw new IllegalArgumentException("Stage " + name + " depends on unknown stage " + dependency);
+            }
+        }
+        backgroundStages.put(name, new Stage(name, task, dependsOn));
+        return this;
+    }
+
+    // Rulează etapele main thread pe thread-ul apelant, apoi pornește etapele de fundal; viitorul se completează
+    // când toate etapele de fundal s-au terminat (niciodată excepțional)
+    public CompletableFuture<Void> start() {
+        List<Stage> mainStages;
+        List<Stage> backgroundOrder;
+        synchronized (this) {
+            checkNotStarted();
+            started = true;
+            mainStages = new ArrayList<>(mainThreadStages);
+            backgroundOrder = new ArrayList<>(backgroundStages.values());
+        }
+
+        for (Stage stage : mainStages) {
+            run(stage, true);
+        }
+
+        Map<String, CompletableFuture<Void>> completions = new LinkedHashMap<>();
+        for (Stage stage : backgroundOrder) {
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[stage.dependsOn.length];
+            for (int i = 0; i < stage.dependsOn.length; i++) {
+                dependencies[i] = completions.get(stage.dependsOn[i]);
+            }
+            CompletableFuture<Void> ready = dependencies.length == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.allOf(dependencies);
+            completions.put(stage.name, ready.thenRunAsync(() -> run(stage, false), background));
+        }
+        return CompletableFuture.allOf(completions.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void run(Stage stage, boolean mainThread) {
+        try {
+            timeline.measure(stage.name, mainThread, stage.task);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "❌ Startup stage failed: " + stage.name, e);
+        }
+    }
+
+    private void checkNotStarted() {
+        if (started) {
+            throw new IllegalStateException("Startup already started");
+        }
+    }
+
+    private static class Stage {
+        final String name;
+        final Runnable task;
+        final String[] dependsOn;
+
+        Stage(String name, Runnable task, String[] dependsOn) {
+            this.name = name;
+            this.task = task;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.feri.watchmyparent.mobile.infrastructure.startup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// ✅ NEW: Timeline-ul pornirii la rece: durata fiecărei componente (pe main thread sau în fundal) și reperele
+// (ex. primul ecran). Bugetul pe main thread e cel care contează pentru cold start; fundalul are un buget separat,
+// pentru că pipeline-ul (Kafka, calea de urgență) trebuie să fie gata la scurt timp după pornire.
+public class StartupTimeline {
+
+    public static final long DEFAULT_MAIN_THREAD_BUDGET_MS = 150;
+    public static final long DEFAULT_BACKGROUND_BUDGET_MS = 5_000;
+
+    private final long originNanos;
+    private final long mainThreadBudgetMs;
+    private final long backgroundBudgetMs;
+    private final List<Span> spans = new ArrayList<>();
+    private final List<Span> milestones = new ArrayList<>();
+
+    public StartupTimeline() {
+        this(System.nanoTime(), DEFAULT_MAIN_THREAD_BUDGET_MS, DEFAULT_BACKGROUND_BUDGET_MS);
+    }
+
+    public StartupTimeline(long originNanos, long mainThreadBudgetMs, long backgroundBudgetMs) {
+        this.originNanos = originNanos;
+        this.mainThreadBudgetMs = mainThreadBudgetMs;
+        this.backgroundBudgetMs = backgroundBudgetMs;
+    }
+
+    public long now() {
+        return System.nanoTime();
+    }
+
+    public synchronized void record(String component, boolean mainThread, long startNanos, long endNanos,
+                                    Throwable failure) {
+        spans.add(new Span(component, mainThread, Thread.currentThread().getName(),
+                startNanos - originNanos, endNanos - startNanos, failure));
+    }
+
+    // Măsoară o componentă pe thread-ul curent; excepțiile sunt înregistrate și propagate
+    public void measure(String component, boolean mainThread, Runnable task) {
+        long start = now();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            record(component, mainThread, start, now(), e);
+            throw e;
+        }
+        record(component, mainThread, start, now(), null);
+    }
+
+    public synchronized void mark(String milestone) {
+        for (Span existing : milestones) {
+            if (existing.component.equals(milestone)) return; // doar prima apariție (ex. primul onCreate)
+        }
+        milestones.add(new Span(milestone, false, Thread.currentThread().getName(), now() - originNanos, 0, null));
+    }
+
+    public synchronized List<Span> getSpans() {
+        List<Span> copy = new ArrayList<>(spans);
+        Collections.sort(copy, Comparator.comparingLong(span -> span.offsetNanos));
+        return copy;
+    }
+
+    public synchronized long getMainThreadMillis() {
+        long total = 0;
+        for (Span span : spans) {
+            if (span.mainThread) total += span.durationNanos;
+        }
+        return total / 1_000_000;
+    }
+
+    // Momentul (de la origine) la care s-a terminat ultima componentă
+    public synchronized long getCompletionMillis() {
+        long end = 0;
+        for (Span span : spans) {
+            end = Math.max(end, span.offsetNanos + span.durationNanos);
+        }
+        return end / 1_000_000;
+    }
+
+    // -1 dacă reperul nu a fost atins
+    public synchronized long getMilestoneMillis(String milestone) {
+        for (Span span : milestones) {
+            if (span.component.equals(milestone)) return span.offsetNanos / 1_000_000;
+        }
+        return -1;
+    }
+
+    public boolean isMainThreadWithinBudget() {
+        return getMainThreadMillis() <= mainThreadBudgetMs;
+    }
+
+    public boolean isWithinBudget() {
+        return isMainThreadWithinBudget() && getCompletionMillis() <= backgroundBudgetMs;
+    }
+
+    public long getMainThreadBudgetMs() {
+        return mainThreadBudgetMs;
+    }
+
+    public long getBackgroundBudgetMs() {
+        return backgroundBudgetMs;
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Startup timeline: main=%dms/%dms, done=%dms/%dms%n",
+                getMainThreadMillis(), mainThreadBudgetMs, getCompletionMillis(), backgroundBudgetMs));
+        for (Span span : getSpans()) {
+            report.append("  ").append(span).append('\n');
+        }
+        synchronized (this) {
+            for (Span milestone : milestones) {
+                report.append(String.format("  @%6.1fms  %s%n", milestone.offsetNanos / 1e6, milestone.component));
+            }
+        }
+        return report.toString();
+    }
+
+    public static class Span {
+        public final String component;
+        public final boolean mainThread;
+        public final String thread;
+        public final long offsetNanos;
+        public final long durationNanos;
+        public final Throwable failure;
+
+        Span(String component, boolean mainThread, String thread, long offsetNanos, long durationNanos,
+             Throwable failure) {
+            this.component = component;
+            this.mainThread = mainThread;
+            this.thread = thread;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+            this.failure = failure;
+        }
+
+        public long getDurationMillis() {
+            return durationNanos / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("@%6.1fms %7.1fms  %-4s %-28s [%s]%s", offsetNanos / 1e6, durationNanos / 1e6,
+                    mainThread ? "MAIN" : "BG", component, thread,
+                    failure != null ? " FAILED: " + failure.getMessage() : "");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.util.Log;
+
+// SensorManager în spatele SensorSubscriptionManager - un singur listener pentru toți senzorii
+public class AndroidSensorRegistrar implements SensorRegistrar {
+
+    private static final String TAG = "AndroidSensorRegistrar";
+
+    private final SensorManager sensorManager;
+    private final SensorEventListener listener;
+
+    public AndroidSensorRegistrar(SensorManager sensorManager, SensorEventListener listener) {
+        this.sensorManager = sensorManager;
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean isAvailable(int hardwareType) {
+        return sensorManager.getDefaultSensor(hardwareType) != null;
+    }
+
+    @Override
+    public boolean register(int hardwareType, int samplingPeriodUs, int maxReportLatencyUs) {
+        Sensor sensor = sensorManager.getDefaultSensor(hardwareType);
+        if (sensor == null) return false;
+        try {
+            // registerListener refuză un senzor deja înregistrat pentru același listener - schimbarea ratei
+            // înseamnă dezînregistrare + înregistrare
+            sensorManager.unregisterListener(listener, sensor);
+            return sensorManager.registerListener(listener, sensor, samplingPeriodUs, maxReportLatencyUs);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error registering " + sensor.getName(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void unregister(int hardwareType) {
+        Sensor sensor = sensorManager.getDefaultSensor(hardwareType);
+        if (sensor != null) {
+            sensorManager.unregisterListener(listener, sensor);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// ✅ NEW: Senzorii de mișcare derivați (GRAVITY, LINEAR_ACCELERATION, ROTATION, ORIENTATION) calculați la citire
+// din trei stream-uri brute: accelerometru, giroscop și rotation vector. Evenimentele doar copiază valorile
+// brute; cuaternionul/matricea de rotație și vectorul gravitației sunt calculate o singură dată per eșantion nou
+// și doar dacă un consumator citește un tip derivat.
+public class DerivedMotionSensors {
+
+    public static final float GRAVITY_EARTH = 9.80665f;
+
+    // Fereastra pentru estimarea gravitației din accelerometru când nu există rotation vector proaspăt
+    static final int ACCEL_WINDOW = 32;
+    // Rotation vector mai vechi decât atât față de accelerometru nu mai descrie orientarea curentă
+    static final long ROTATION_FRESH_MS = 2_000;
+    // La fel ca isRecentReading din RealSamsungHealthManager
+    static final long MAX_SAMPLE_AGE_MS = 5 * 60_000L;
+
+    // Buffer circular de eșantioane brute ale accelerometrului (x, y, z)
+    private final float[] accel = new float[ACCEL_WINDOW * 3];
+    private int accelCount = 0;
+    private int accelHead = ACCEL_WINDOW - 1;     // poziția ultimului eșantion; buffer-ul se umple de la 0
+    private long accelMillis = 0;
+    private long accelVersion = 0;
+
+    private final float[] gyro = new float[3];
+    private long gyroMillis = 0;
+    private boolean hasGyro = false;
+
+    private final float[] rotationVector = new float[4];
+    private int rotationLength = 0;
+    private long rotationMillis = 0;
+    private long rotationVersion = 0;
+
+    // Cache-uri invalidate prin versiunea eșantioanelor din care au fost calculate
+    private final float[] rotationMatrix = new float[9];
+    private float quaternionW;
+    private long matrixVersion = -1;
+    private final float[] gravity = new float[3];
+    private long gravityAccelVersion = -1;
+    private long gravityRotationVersion = -1;
+
+    private long rawEvents = 0;
+    private long reads = 0;
+    private long matrixComputations = 0;
+    private long gravityComputations = 0;
+
+    // ========== EVENIMENTE BRUTE (doar copiere) ==========
+
+    public synchronized void onAccelerometer(float[] values, long wallMillis) {
+        accelHead = (accelHead + 1) % ACCEL_WINDOW;
+        int offset = accelHead * 3;
+        accel[offset] = values[0];
+        accel[offset + 1] = values[1];
+        accel[offset + 2] = values[2];
+        if (accelCount < ACCEL_WINDOW) accelCount++;
+        accelMillis = wallMillis;
+        accelVersion++;
+        rawEvents++;
+    }
+
+    public synchronized void onGyroscope(float[] values, long wallMillis) {
+        gyro[0] = values[0];
+        gyro[1] = values[1];
+        gyro[2] = values[2];
+        gyroMillis = wallMillis;
+        hasGyro = true;
+        rawEvents++;
+    }
+
+    public synchronized void onRotationVector(float[] values, long wallMillis) {
+        rotationLength = Math.min(4, values.length);
+        System.arraycopy(values, 0, rotationVector, 0, rotationLength);
+        rotationMillis = wallMillis;
+        rotationVersion++;
+        rawEvents++;
+    }
+
+    // Stream-urile brute din care se calculează un tip; primul e obligatoriu, restul îmbunătățesc rezultatul
+    public static SensorType[] rawSourcesFor(SensorType sensorType) {
+        switch (sensorType) {
+            case ACCELEROMETER:
+                return new SensorType[]{SensorType.ACCELEROMETER};
+            case GYROSCOPE:
+                return new SensorType[]{SensorType.GYROSCOPE};
+            case GRAVITY:
+            case LINEAR_ACCELERATION:
+                return new SensorType[]{SensorType.ACCELEROMETER, SensorType.ROTATION};
+            case ROTATION:
+            case ORIENTATION:
+                return new SensorType[]{SensorType.ROTATION};
+            default:
+                return null;
+        }
+    }
+
+    public static boolean isDerived(SensorType sensorType) {
+        return rawSourcesFor(sensorType) != null;
+    }
+
+    // ========== CITIRI (calcul la cerere) ==========
+
+    // null dacă nu există eșantioane brute proaspete pentru tip
+    public synchronized SensorReading read(SensorType sensorType, long nowMillis) {
+        double value;
+        long sampleMillis;
+        switch (sensorType) {
+            case ACCELEROMETER:
+                if (!fresh(accelCount > 0, accelMillis, nowMillis)) return null;
+                int offset = accelHead * 3;
+                value = magnitude(accel[offset], accel[offset + 1], accel[offset + 2]);
+                sampleMillis = accelMillis;
+                break;
+            case GYROSCOPE:
+                if (!fresh(hasGyro, gyroMillis, nowMillis)) return null;
+                value = magnitude(gyro[0], gyro[1], gyro[2]);
+                sampleMillis = gyroMillis;
+                break;
+            case GRAVITY:
+                if (!fresh(accelCount > 0, accelMillis, nowMillis)) return null;
+                updateGravity();
+                value = magnitude(gravity[0], gravity[1], gravity[2]);
+                sampleMillis = accelMillis;
+                break;
+            case LINEAR_ACCELERATION:
+                if (!fresh(accelCount > 0, accelMillis, nowMillis)) return null;
+                updateGravity();
+                int latest = accelHead * 3;
+                value = magnitude(accel[latest] - gravity[0], accel[latest + 1] - gravity[1],
+                        accel[latest + 2] - gravity[2]);
+                sampleMillis = accelMillis;
+                break;
+            case ROTATION:
+                if (!fresh(rotationLength >= 3, rotationMillis, nowMillis)) return null;
+                updateRotationMatrix();
+                value = 2.0 * Math.acos(Math.min(1.0, Math.abs(quaternionW))); // unghiul rotației, rad
+                sampleMillis = rotationMillis;
+                break;
+            case ORIENTATION:
+                if (!fresh(rotationLength >= 3, rotationMillis, nowMillis)) return null;
+                updateRotationMatrix();
+                // Azimut ca în SensorManager.getOrientation, în grade [0, 360)
+                double azimuth = Math.toDegrees(Math.atan2(rotationMatrix[1], rotationMatrix[4]));
+                value = azimuth < 0 ? azimuth + 360.0 : azimuth;
+                sampleMillis = rotationMillis;
+                break;
+            default:
+                return null;
+        }
+        reads++;
+
+        SensorReading reading = new SensorReading(sensorType, value);
+        reading.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(sampleMillis), ZoneId.systemDefault()));
+        reading.setConnectionType("HARDWARE_SENSOR");
+        reading.setMetadata("derived=" + isComputed(sensorType));
+        return reading;
+    }
+
+    private static boolean isComputed(SensorType sensorType) {
+        return sensorType != SensorType.ACCELEROMETER && sensorType != SensorType.GYROSCOPE;
+    }
+
+    private static boolean fresh(boolean present, long sampleMillis, long nowMillis) {
+        return present && nowMillis - sampleMillis <= MAX_SAMPLE_AGE_MS;
+    }
+
+    // Cuaternion + matrice de rotație (ca SensorManager.getRotationMatrixFromVector), o dată per rotation vector
+    private void updateRotationMatrix() {
+        if (matrixVersion == rotationVersion) return;
+        float x = rotationVector[0];
+        float y = rotationVector[1];
+        float z = rotationVector[2];
+        float w = rotationLength > 3 ? rotationVector[3] : (float) Math.sqrt(Math.max(0f, 1f - x * x - y * y - z * z));
+
+        float xx = 2 * x * x, yy = 2 * y * y, zz = 2 * z * z;
+        float xy = 2 * x * y, zw = 2 * z * w, xz = 2 * x * z;
+        float yw = 2 * y * w, yz = 2 * y * z, xw = 2 * x * w;
+        rotationMatrix[0] = 1 - yy - zz;
+        rotationMatrix[1] = xy - zw;
+        rotationMatrix[2] = xz + yw;
+        rotationMatrix[3] = xy + zw;
+        rotationMatrix[4] = 1 - xx - zz;
+        rotationMatrix[5] = yz - xw;
+        rotationMatrix[6] = xz - yw;
+        rotationMatrix[7] = yz + xw;
+        rotationMatrix[8] = 1 - xx - yy;
+        quaternionW = w;
+        matrixVersion = rotationVersion;
+        matrixComputations++;
+    }
+
+    // Gravitația în coordonatele ceasului: din orientare (rândul 3 al matricei) dacă rotation vector e proaspăt,
+    // altfel media ferestrei de accelerometru (componenta lentă)
+    private void updateGravity() {
+        boolean useRotation = rotationLength >= 3 && Math.abs(accelMillis - rotationMillis) <= ROTATION_FRESH_MS;
+        long rotationKey = useRotation ? rotationVersion : -1;
+        if (gravityAccelVersion == accelVersion && gravityRotationVersion == rotationKey) return;
+
+        if (useRotation) {
+            updateRotationMatrix();
+            gravity[0] = GRAVITY_EARTH * rotationMatrix[6];
+            gravity[1] = GRAVITY_EARTH * rotationMatrix[7];
+            gravity[2] = GRAVITY_EARTH * rotationMatrix[8];
+        } else {
+            float sx = 0, sy = 0, sz = 0;
+            for (int i = 0; i < accelCount; i++) {
+                sx += accel[i * 3];
+                sy += accel[i * 3 + 1];
+                sz += accel[i * 3 + 2];
+            }
+            gravity[0] = sx / accelCount;
+            gravity[1] = sy / accelCount;
+            gravity[2] = sz / accelCount;
+        }
+        gravityAccelVersion = accelVersion;
+        gravityRotationVersion = rotationKey;
+        gravityComputations++;
+    }
+
+    private static double magnitude(float x, float y, float z) {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    public synchronized void clear() {
+        accelCount = 0;
+        accelHead = ACCEL_WINDOW - 1;
+        hasGyro = false;
+        rotationLength = 0;
+        accelVersion++;
+        rotationVersion++;
+    }
+
+    public synchronized DerivedStatistics getStatistics() {
+        DerivedStatistics stats = new DerivedStatistics();
+        stats.rawEvents = rawEvents;
+        stats.reads = reads;
+        stats.matrixComputations = matrixComputations;
+        stats.gravityComputations = gravityComputations;
+        return stats;
+    }
+
+    public static class DerivedStatistics {
+        public long rawEvents;
+        public long reads;
+        public long matrixComputations;
+        public long gravityComputations;
+
+        @Override
+        public String toString() {
+            return String.format("DerivedMotion{rawEvents=%d, reads=%d, matrices=%d, gravity=%d}",
+                    rawEvents, reads, matrixComputations, gravityComputations);
+        }
+    }
+}
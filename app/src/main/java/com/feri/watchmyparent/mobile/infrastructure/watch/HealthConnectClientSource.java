@@ -0,0 +1,177 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import androidx.health.connect.client.HealthConnectClient;
+import androidx.health.connect.client.aggregate.AggregateMetric;
+import androidx.health.connect.client.aggregate.AggregationResult;
+import androidx.health.connect.client.changes.Change;
+import androidx.health.connect.client.changes.DeletionChange;
+import androidx.health.connect.client.changes.UpsertionChange;
+import androidx.health.connect.client.records.BloodPressureRecord;
+import androidx.health.connect.client.records.BodyTemperatureRecord;
+import androidx.health.connect.client.records.HeartRateRecord;
+import androidx.health.connect.client.records.OxygenSaturationRecord;
+import androidx.health.connect.client.records.Record;
+import androidx.health.connect.client.records.SleepSessionRecord;
+import androidx.health.connect.client.records.StepsRecord;
+import androidx.health.connect.client.records.metadata.DataOrigin;
+import androidx.health.connect.client.request.AggregateRequest;
+import androidx.health.connect.client.request.ChangesTokenRequest;
+import androidx.health.connect.client.request.ReadRecordsRequest;
+import androidx.health.connect.client.response.ChangesResponse;
+import androidx.health.connect.client.response.ReadRecordsResponse;
+import androidx.health.connect.client.time.TimeRangeFilter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlin.jvm.JvmClassMappingKt;
+import kotlin.reflect.KClass;
+import kotlinx.coroutines.BuildersKt;
+
+// HealthConnectClient expune doar funcții suspend - apelurile sunt rulate cu runBlocking pe thread-ul
+// apelantului (RealSamsungHealthManager sincronizează deja în afara thread-ului principal)
+public class HealthConnectClientSource implements HealthConnectSource {
+
+    private final HealthConnectClient client;
+
+    public HealthConnectClientSource(HealthConnectClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public String getChangesToken(RecordKind kind) throws Exception {
+        Set<KClass<? extends Record>> recordTypes = Collections.<KClass<? extends Record>>singleton(
+                JvmClassMappingKt.getKotlinClass(recordClass(kind)));
+        ChangesTokenRequest request = new ChangesTokenRequest(recordTypes, Collections.<DataOrigin>emptySet());
+        return await(continuation -> client.getChangesToken(request, continuation));
+    }
+
+    @Override
+    public ChangesPage getChanges(RecordKind kind, String token) throws Exception {
+        ChangesResponse response = await(continuation -> client.getChanges(token, continuation));
+
+        ChangesPage page = new ChangesPage();
+        page.nextToken = response.getNextChangesToken();
+        page.hasMore = response.getHasMore();
+        page.tokenExpired = response.getChangesTokenExpired();
+        for (Change change : response.getChanges()) {
+            if (change instanceof UpsertionChange) {
+                addSamples(((UpsertionChange) change).getRecord(), page.upserted);
+            } else if (change instanceof DeletionChange) {
+                page.deleted++;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public RecordsPage readRecords(RecordKind kind, long fromMillis, long toMillis, String pageToken,
+                                   int pageSize) throws Exception {
+        ReadRecordsResponse<? extends Record> response = read(recordClass(kind), fromMillis, toMillis, pageToken, pageSize);
+
+        RecordsPage page = new RecordsPage();
+        page.nextPageToken = response.getPageToken();
+        for (Record record : response.getRecords()) {
+            addSamples(record, page.samples);
+        }
+        return page;
+    }
+
+    @Override
+    public double aggregate(RecordKind kind, long fromMillis, long toMillis) throws Exception {
+        AggregateMetric<?> metric;
+        switch (kind) {
+            case STEPS:
+                metric = StepsRecord.COUNT_TOTAL;
+                break;
+            case SLEEP_SESSION:
+                metric = SleepSessionRecord.SLEEP_DURATION_TOTAL;
+                break;
+            default:
+                throw new IllegalArgumentException("No aggregate metric for " + kind);
+        }
+        AggregateRequest request = new AggregateRequest(Collections.<AggregateMetric<?>>singleton(metric),
+                range(fromMillis, toMillis), Collections.<DataOrigin>emptySet());
+        AggregationResult result = await(continuation -> client.aggregate(request, continuation));
+
+        if (kind == RecordKind.STEPS) {
+            Long steps = result.get(StepsRecord.COUNT_TOTAL);
+            return steps != null ? steps : 0;
+        }
+        Duration sleep = result.get(SleepSessionRecord.SLEEP_DURATION_TOTAL);
+        return sleep != null ? sleep.toMinutes() / 60.0 : 0;
+    }
+
+    private <T extends Record> ReadRecordsResponse<T> read(Class<T> type, long fromMillis, long toMillis,
+                                                           String pageToken, int pageSize) throws InterruptedException {
+        ReadRecordsRequest<T> request = new ReadRecordsRequest<>(JvmClassMappingKt.getKotlinClass(type),
+                range(fromMillis, toMillis), Collections.<DataOrigin>emptySet(), true, pageSize, pageToken);
+        return await(continuation -> client.readRecords(request, continuation));
+    }
+
+    private static void addSamples(Record record, List<Sample> out) {
+        String id = record.getMetadata().getId();
+        String origin = record.getMetadata().getDataOrigin().getPackageName();
+
+        if (record instanceof HeartRateRecord) {
+            for (HeartRateRecord.Sample sample : ((HeartRateRecord) record).getSamples()) {
+                out.add(new Sample(id, sample.getTime().toEpochMilli(), sample.getBeatsPerMinute(), origin));
+            }
+        } else if (record instanceof OxygenSaturationRecord) {
+            OxygenSaturationRecord spo2 = (OxygenSaturationRecord) record;
+            out.add(new Sample(id, spo2.getTime().toEpochMilli(), spo2.getPercentage().getValue(), origin));
+        } else if (record instanceof BloodPressureRecord) {
+            BloodPressureRecord pressure = (BloodPressureRecord) record;
+            out.add(new Sample(id, pressure.getTime().toEpochMilli(),
+                    pressure.getSystolic().getInMillimetersOfMercury(), origin));
+        } else if (record instanceof BodyTemperatureRecord) {
+            BodyTemperatureRecord temperature = (BodyTemperatureRecord) record;
+            out.add(new Sample(id, temperature.getTime().toEpochMilli(),
+                    temperature.getTemperature().getInCelsius(), origin));
+        } else if (record instanceof StepsRecord) {
+            StepsRecord steps = (StepsRecord) record;
+            out.add(new Sample(id, steps.getEndTime().toEpochMilli(), steps.getCount(), origin));
+        } else if (record instanceof SleepSessionRecord) {
+            SleepSessionRecord sleep = (SleepSessionRecord) record;
+            out.add(new Sample(id, sleep.getEndTime().toEpochMilli(),
+                    Duration.between(sleep.getStartTime(), sleep.getEndTime()).toMinutes() / 60.0, origin));
+        }
+    }
+
+    private static Class<? extends Record> recordClass(RecordKind kind) {
+        switch (kind) {
+            case HEART_RATE:
+                return HeartRateRecord.class;
+            case OXYGEN_SATURATION:
+                return OxygenSaturationRecord.class;
+            case BLOOD_PRESSURE:
+                return BloodPressureRecord.class;
+            case BODY_TEMPERATURE:
+                return BodyTemperatureRecord.class;
+            case STEPS:
+                return StepsRecord.class;
+            case SLEEP_SESSION:
+                return SleepSessionRecord.class;
+            default:
+                throw new IllegalArgumentException("Unsupported record kind " + kind);
+        }
+    }
+
+    private static TimeRangeFilter range(long fromMillis, long toMillis) {
+        return TimeRangeFilter.between(Instant.ofEpochMilli(fromMillis), Instant.ofEpochMilli(toMillis));
+    }
+
+    private interface SuspendCall<T> {
+        Object invoke(Continuation<? super T> continuation);
+    }
+
+    private static <T> T await(SuspendCall<T> call) throws InterruptedException {
+        return BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                (scope, continuation) -> call.invoke(continuation));
+    }
+}
@@ -0,0 +1,70 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Accesul la Health Connect redus la operațiile folosite de HealthConnectSyncEngine.
+// Implementarea reală (HealthConnectClientSource) face interop-ul Kotlin; motorul de sincronizare
+// rămâne Java simplu și poate fi testat fără Android.
+public interface HealthConnectSource {
+
+    enum RecordKind {
+        HEART_RATE(SensorType.HEART_RATE, false),
+        OXYGEN_SATURATION(SensorType.BLOOD_OXYGEN, false),
+        BLOOD_PRESSURE(SensorType.BLOOD_PRESSURE, false),
+        BODY_TEMPERATURE(SensorType.BODY_TEMPERATURE, false),
+        // Totaluri - citite prin cereri de agregare, nu înregistrare cu înregistrare
+        STEPS(SensorType.STEP_COUNT, true),
+        SLEEP_SESSION(SensorType.SLEEP, true);
+
+        private final SensorType sensorType;
+        private final boolean aggregated;
+
+        RecordKind(SensorType sensorType, boolean aggregated) {
+            this.sensorType = sensorType;
+            this.aggregated = aggregated;
+        }
+
+        public SensorType getSensorType() { return sensorType; }
+        public boolean isAggregated() { return aggregated; }
+    }
+
+    String getChangesToken(RecordKind kind) throws Exception;
+
+    ChangesPage getChanges(RecordKind kind, String token) throws Exception;
+
+    RecordsPage readRecords(RecordKind kind, long fromMillis, long toMillis, String pageToken, int pageSize) throws Exception;
+
+    // Pași: numărul total; somn: ore
+    double aggregate(RecordKind kind, long fromMillis, long toMillis) throws Exception;
+
+    // O valoare dintr-o înregistrare (o înregistrare HeartRate conține o serie de eșantioane)
+    class Sample {
+        public final String recordId;
+        public final long timeMillis;
+        public final double value;
+        public final String origin;
+
+        public Sample(String recordId, long timeMillis, double value, String origin) {
+            this.recordId = recordId;
+            this.timeMillis = timeMillis;
+            this.value = value;
+            this.origin = origin;
+        }
+    }
+
+    class ChangesPage {
+        public List<Sample> upserted = new ArrayList<>();
+        public int deleted = 0;
+        public String nextToken;
+        public boolean hasMore = false;
+        public boolean tokenExpired = false;
+    }
+
+    class RecordsPage {
+        public List<Sample> samples = new ArrayList<>();
+        public String nextPageToken; // null = ultima pagină
+    }
+}
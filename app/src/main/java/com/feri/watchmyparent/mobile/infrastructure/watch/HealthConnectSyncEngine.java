@@ -0,0 +1,435 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSource.RecordKind;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSyncStore.SyncState;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+// Sincronizare incrementală din Health Connect:
+//   - câte un changes token per tip de înregistrare; la fiecare tick se cer doar modificările
+//   - răspunsurile mari sunt paginate, cu un buget de cereri per sincronizare (restul la tick-ul următor)
+//   - pașii și somnul sunt citiți prin cereri de agregare pe zi, recalculate doar pentru zilele modificate
+//   - fără token (prima pornire) sau cu token expirat, intervalul lipsă e recuperat în ferestre de 1h
+//   - tipurile fără modificări sunt interogate tot mai rar (până la 2 min); Health Connect primește oricum
+//     datele de la ceas în loturi, deci nu pierdem latență reală
+// Citirile noi se acumulează per SensorType și sunt preluate de RealSamsungHealthManager cu drain().
+public class HealthConnectSyncEngine {
+
+    private static final String TAG = "HealthConnectSync";
+
+    public static final int PAGE_SIZE = 500;
+    public static final int MAX_REQUESTS_PER_SYNC = 40;
+    public static final int MAX_CHANGE_PAGES_PER_SYNC = 5;
+    public static final int MAX_BACKFILL_WINDOWS_PER_SYNC = 6;
+    public static final long BACKFILL_WINDOW_MS = TimeUnit.HOURS.toMillis(1);
+    public static final long INITIAL_BACKFILL_MS = TimeUnit.HOURS.toMillis(24);
+    public static final long MAX_BACKFILL_MS = TimeUnit.DAYS.toMillis(7);
+    public static final long MIN_SYNC_INTERVAL_MS = 15_000;
+    public static final long MAX_POLL_BACKOFF_MS = TimeUnit.MINUTES.toMillis(2);
+    // Totalul zilei curente e recalculat cel mult o dată la 5 min (zilele trecute imediat)
+    public static final long AGGREGATE_REFRESH_MS = TimeUnit.MINUTES.toMillis(5);
+    // Înregistrări scrise înaintea tokenului dar cu ora ceasului ușor în viitor
+    public static final long CLOCK_SKEW_MS = TimeUnit.MINUTES.toMillis(5);
+    public static final int MAX_PENDING_PER_TYPE = 5_000;
+    private static final int SEEN_CAPACITY = 20_000;
+
+    private final HealthConnectSource source;
+    private final HealthConnectSyncStore store;
+    private final List<RecordKind> kinds;
+    private final ZoneId zone;
+    private final Map<RecordKind, SyncState> states = new EnumMap<>(RecordKind.class);
+    private final Map<RecordKind, TreeSet<LocalDate>> dirtyDays = new EnumMap<>(RecordKind.class);
+    private final Map<RecordKind, PollState> polls = new EnumMap<>(RecordKind.class);
+    private final Map<SensorType, ArrayDeque<SensorReading>> pending = new EnumMap<>(SensorType.class);
+    private final Map<SensorType, SensorReading> latest = new EnumMap<>(SensorType.class);
+    // Înregistrările actualizate (serii HeartRate extinse) revin în changes - eșantioanele deja emise sunt sărite
+    private final Map<String, Boolean> seen = new LinkedHashMap<String, Boolean>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > SEEN_CAPACITY;
+        }
+    };
+    private long lastSyncAttemptMillis = 0;
+    private int rotation = 0;
+
+    // Statistici
+    private long syncs = 0;
+    private long tokenRequests = 0;
+    private long changeRequests = 0;
+    private long readRequests = 0;
+    private long aggregateRequests = 0;
+    private long samplesEmitted = 0;
+    private long duplicatesSkipped = 0;
+    private long samplesDropped = 0;
+    private long tokenExpirations = 0;
+    private long backfillWindows = 0;
+    private long failures = 0;
+    private long skippedPolls = 0;
+
+    public HealthConnectSyncEngine(HealthConnectSource source, HealthConnectSyncStore store, ZoneId zone) {
+        this(source, store, zone, Arrays.asList(RecordKind.values()));
+    }
+
+    public HealthConnectSyncEngine(HealthConnectSource source, HealthConnectSyncStore store, ZoneId zone,
+                                   List<RecordKind> kinds) {
+        this.source = source;
+        this.store = store;
+        this.zone = zone;
+        this.kinds = new ArrayList<>(kinds);
+        for (RecordKind kind : kinds) {
+            states.put(kind, store.load(kind));
+            dirtyDays.put(kind, new TreeSet<>());
+            polls.put(kind, new PollState());
+        }
+    }
+
+    // ========== SINCRONIZARE ==========
+
+    public synchronized int syncIfDue(long nowMillis) {
+        if (nowMillis - lastSyncAttemptMillis < MIN_SYNC_INTERVAL_MS) {
+            return 0;
+        }
+        return sync(nowMillis);
+    }
+
+    // După reconectare: sincronizarea următoare nu mai așteaptă intervalul minim
+    public synchronized void requestSync() {
+        lastSyncAttemptMillis = 0;
+        for (PollState poll : polls.values()) {
+            poll.nextPollMillis = 0;
+        }
+    }
+
+    public synchronized int sync(long nowMillis) {
+        lastSyncAttemptMillis = nowMillis;
+        syncs++;
+        long emittedBefore = samplesEmitted;
+        int budget = MAX_REQUESTS_PER_SYNC;
+
+        // Tipul de start se rotește - un tip cu backlog mare nu consumă mereu bugetul celorlalte
+        int start = rotation++ % kinds.size();
+        for (int i = 0; i < kinds.size() && budget > 0; i++) {
+            budget = syncKind(kinds.get((start + i) % kinds.size()), nowMillis, budget);
+        }
+
+        int emitted = (int) (samplesEmitted - emittedBefore);
+        if (emitted > 0 || budget <= 0) {
+            Log.d(TAG, "🔄 Health Connect sync: " + emitted + " new samples, "
+                    + (MAX_REQUESTS_PER_SYNC - budget) + " requests" + (budget <= 0 ? " (budget exhausted)" : ""));
+        }
+        return emitted;
+    }
+
+    private int syncKind(RecordKind kind, long nowMillis, int budget) {
+        SyncState state = states.get(kind);
+        try {
+            if (state.changesToken == null) {
+                // Tokenul e cerut înaintea backfill-ului - nimic scris între timp nu se pierde
+                state.changesToken = source.getChangesToken(kind);
+                tokenRequests++;
+                budget--;
+                scheduleBackfill(state, state.lastSyncMillis > 0 ? state.lastSyncMillis : nowMillis - INITIAL_BACKFILL_MS,
+                        nowMillis + CLOCK_SKEW_MS);
+                persist(kind, state);
+            }
+            if (state.needsBackfill()) {
+                budget = backfill(kind, state, nowMillis, budget);
+            }
+            budget = pullChanges(kind, state, nowMillis, budget);
+            if (kind.isAggregated()) {
+                budget = refreshAggregates(kind, nowMillis, budget);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            // Permisiune lipsă pentru un tip, rate limit - celelalte tipuri continuă
+            failures++;
+            Log.w(TAG, "⚠️ Health Connect sync failed for " + kind + ": " + e.getMessage());
+        }
+        return budget;
+    }
+
+    private int pullChanges(RecordKind kind, SyncState state, long nowMillis, int budget) throws Exception {
+        PollState poll = polls.get(kind);
+        if (nowMillis < poll.nextPollMillis) {
+            skippedPolls++;
+            return budget;
+        }
+        for (int pages = 0; pages < MAX_CHANGE_PAGES_PER_SYNC && budget > 0; pages++) {
+            HealthConnectSource.ChangesPage page = source.getChanges(kind, state.changesToken);
+            changeRequests++;
+            budget--;
+
+            if (page.tokenExpired) {
+                // Token neutilizat prea mult timp - intervalul de la ultima sincronizare e recitit
+                tokenExpirations++;
+                Log.w(TAG, "⚠️ Changes token expired for " + kind + " - backfilling since last sync");
+                state.changesToken = source.getChangesToken(kind);
+                tokenRequests++;
+                budget--;
+                scheduleBackfill(state, state.lastSyncMillis > 0 ? state.lastSyncMillis : nowMillis - INITIAL_BACKFILL_MS,
+                        nowMillis + CLOCK_SKEW_MS);
+                persist(kind, state);
+                return budget;
+            }
+
+            accept(kind, page.upserted);
+            poll.onResult(nowMillis, !page.upserted.isEmpty() || page.deleted > 0);
+            if (kind.isAggregated() && page.deleted > 0) {
+                dirtyDays.get(kind).add(dayOf(kind, nowMillis));
+            }
+            state.changesToken = page.nextToken;
+            if (!page.hasMore) {
+                state.lastSyncMillis = nowMillis;
+                persist(kind, state);
+                return budget;
+            }
+            persist(kind, state);
+        }
+        return budget;
+    }
+
+    private int backfill(RecordKind kind, SyncState state, long nowMillis, int budget) throws Exception {
+        int windows = 0;
+        while (state.needsBackfill() && budget > 0 && windows < MAX_BACKFILL_WINDOWS_PER_SYNC) {
+            if (kind.isAggregated()) {
+                // Totalurile se recalculează pe zile întregi - fereastra de backfill e o zi
+                LocalDate day = dayOf(kind, state.backfillFromMillis);
+                aggregateDay(kind, day, nowMillis);
+                budget--;
+                dirtyDays.get(kind).remove(day);
+                state.backfillFromMillis = Math.min(dayEnd(kind, day), state.backfillToMillis);
+                windows++;
+                backfillWindows++;
+            } else {
+                long windowEnd = Math.min(state.backfillFromMillis + BACKFILL_WINDOW_MS, state.backfillToMillis);
+                HealthConnectSource.RecordsPage page = source.readRecords(kind, state.backfillFromMillis, windowEnd,
+                        state.backfillPageToken, PAGE_SIZE);
+                readRequests++;
+                budget--;
+                accept(kind, page.samples);
+                if (page.nextPageToken != null) {
+                    state.backfillPageToken = page.nextPageToken;
+                } else {
+                    state.backfillPageToken = null;
+                    state.backfillFromMillis = windowEnd;
+                    windows++;
+                    backfillWindows++;
+                }
+            }
+            persist(kind, state);
+        }
+        return budget;
+    }
+
+    private int refreshAggregates(RecordKind kind, long nowMillis, int budget) throws Exception {
+        TreeSet<LocalDate> days = dirtyDays.get(kind);
+        PollState poll = polls.get(kind);
+        LocalDate today = dayOf(kind, nowMillis);
+        for (LocalDate day : new ArrayList<>(days.descendingSet())) {
+            if (budget <= 0) break;
+            boolean current = !day.isBefore(today);
+            if (current && nowMillis - poll.lastAggregateMillis < AGGREGATE_REFRESH_MS) {
+                continue; // rămâne marcată pentru următoarea reîmprospătare
+            }
+            aggregateDay(kind, day, nowMillis);
+            budget--;
+            days.remove(day);
+            if (current) poll.lastAggregateMillis = nowMillis;
+        }
+        return budget;
+    }
+
+    private void aggregateDay(RecordKind kind, LocalDate day, long nowMillis) throws Exception {
+        long from = dayStart(kind, day);
+        long to = Math.min(dayEnd(kind, day), nowMillis);
+        if (from >= to) return;
+        double total = source.aggregate(kind, from, to);
+        aggregateRequests++;
+        emit(kind.getSensorType(), to, total, "source=health_connect,aggregate=day,date=" + day);
+    }
+
+    private void scheduleBackfill(SyncState state, long fromMillis, long toMillis) {
+        long from = Math.max(fromMillis, toMillis - MAX_BACKFILL_MS);
+        if (state.needsBackfill()) {
+            // Un interval încă nerecuperat se extinde, nu se înlocuiește
+            if (from < state.backfillFromMillis) state.backfillPageToken = null;
+            from = Math.min(from, state.backfillFromMillis);
+            toMillis = Math.max(toMillis, state.backfillToMillis);
+        } else {
+            state.backfillPageToken = null;
+        }
+        state.backfillFromMillis = from;
+        state.backfillToMillis = toMillis;
+    }
+
+    private void accept(RecordKind kind, List<HealthConnectSource.Sample> samples) {
+        for (HealthConnectSource.Sample sample : samples) {
+            if (kind.isAggregated()) {
+                // Pași/somn: înregistrarea doar marchează ziua pentru reagregare
+                dirtyDays.get(kind).add(dayOf(kind, sample.timeMillis));
+                continue;
+            }
+            String key = kind.ordinal() + ":" + sample.recordId + ":" + sample.timeMillis;
+            if (seen.put(key, Boolean.TRUE) != null) {
+                duplicatesSkipped++;
+                continue;
+            }
+            emit(kind.getSensorType(), sample.timeMillis, sample.value,
+                    "source=health_connect,origin=" + sample.origin + ",record=" + sample.recordId);
+        }
+    }
+
+    private void emit(SensorType sensorType, long timeMillis, double value, String metadata) {
+        SensorReading reading = new SensorReading(sensorType, value);
+        reading.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), zone));
+        reading.setConnectionType("HEALTH_CONNECT");
+        reading.setMetadata(metadata);
+
+        ArrayDeque<SensorReading> queue = pending.get(sensorType);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            pending.put(sensorType, queue);
+        }
+        queue.addLast(reading);
+        if (queue.size() > MAX_PENDING_PER_TYPE) {
+            queue.removeFirst();
+            samplesDropped++;
+        }
+        SensorReading current = latest.get(sensorType);
+        if (current == null || !reading.getTimestamp().isBefore(current.getTimestamp())) {
+            latest.put(sensorType, reading);
+        }
+        samplesEmitted++;
+    }
+
+    // Starea de polling nu e persistată - după repornire toate tipurile sunt interogate imediat
+    private static final class PollState {
+        long nextPollMillis = 0;
+        long lastAggregateMillis = 0;
+        int emptyStreak = 0;
+
+        void onResult(long nowMillis, boolean changed) {
+            if (changed) {
+                emptyStreak = 0;
+                nextPollMillis = 0;
+            } else {
+                emptyStreak = Math.min(emptyStreak + 1, 16);
+                nextPollMillis = nowMillis + Math.min(MAX_POLL_BACKOFF_MS, MIN_SYNC_INTERVAL_MS << (emptyStreak - 1));
+            }
+        }
+    }
+
+    private void persist(RecordKind kind, SyncState state) {
+        store.save(kind, state.copy());
+    }
+
+    // Somnul unei nopți se termină dimineața: ziua lui e [ziua precedentă 12:00, ziua 12:00)
+    private LocalDate dayOf(RecordKind kind, long millis) {
+        ZonedDateTime time = Instant.ofEpochMilli(millis).atZone(zone);
+        return kind == RecordKind.SLEEP_SESSION ? time.plusHours(12).toLocalDate() : time.toLocalDate();
+    }
+
+    private long dayStart(RecordKind kind, LocalDate day) {
+        ZonedDateTime start = day.atStartOfDay(zone);
+        return (kind == RecordKind.SLEEP_SESSION ? start.minusHours(12) : start).toInstant().toEpochMilli();
+    }
+
+    private long dayEnd(RecordKind kind, LocalDate day) {
+        return dayStart(kind, day.plusDays(1));
+    }
+
+    // ========== CITIRI ==========
+
+    public synchronized List<SensorReading> drain(SensorType sensorType) {
+        ArrayDeque<SensorReading> queue = pending.get(sensorType);
+        if (queue == null || queue.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<SensorReading> readings = new ArrayList<>(queue);
+        queue.clear();
+        return readings;
+    }
+
+    public synchronized SensorReading getLatest(SensorType sensorType) {
+        return latest.get(sensorType);
+    }
+
+    public synchronized boolean isBackfilling() {
+        for (SyncState state : states.values()) {
+            if (state.changesToken == null || state.needsBackfill()) return true;
+        }
+        return false;
+    }
+
+    // ========== STATISTICI ==========
+
+    public synchronized SyncStatistics getStatistics() {
+        SyncStatistics stats = new SyncStatistics();
+        stats.syncs = syncs;
+        stats.tokenRequests = tokenRequests;
+        stats.changeRequests = changeRequests;
+        stats.readRequests = readRequests;
+        stats.aggregateRequests = aggregateRequests;
+        stats.samplesEmitted = samplesEmitted;
+        stats.duplicatesSkipped = duplicatesSkipped;
+        stats.samplesDropped = samplesDropped;
+        stats.tokenExpirations = tokenExpirations;
+        stats.backfillWindows = backfillWindows;
+        stats.failures = failures;
+        stats.skippedPolls = skippedPolls;
+        for (SyncState state : states.values()) {
+            if (state.needsBackfill()) stats.kindsBackfilling++;
+        }
+        return stats;
+    }
+
+    public static class SyncStatistics {
+        public long syncs = 0;
+        public long tokenRequests = 0;
+        public long changeRequests = 0;
+        public long readRequests = 0;
+        public long aggregateRequests = 0;
+        public long samplesEmitted = 0;
+        public long duplicatesSkipped = 0;
+        public long samplesDropped = 0;
+        public long tokenExpirations = 0;
+        public long backfillWindows = 0;
+        public long failures = 0;
+        public long skippedPolls = 0;
+        public int kindsBackfilling = 0;
+
+        public long getTotalRequests() {
+            return tokenRequests + changeRequests + readRequests + aggregateRequests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("HealthConnectSync{syncs=%d, requests=%d (tokens=%d, changes=%d, reads=%d, " +
+                            "aggregates=%d), skippedPolls=%d, samples=%d, duplicates=%d, dropped=%d, expired=%d, " +
+                            "backfillWindows=%d, backfilling=%d, failures=%d}",
+                    syncs, getTotalRequests(), tokenRequests, changeRequests, readRequests, aggregateRequests,
+                    skippedPolls, samplesEmitted, duplicatesSkipped, samplesDropped, tokenExpirations,
+                    backfillWindows, kindsBackfilling, failures);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+// Starea sincronizării per tip de înregistrare - trebuie să supraviețuiască repornirii procesului,
+// altfel fiecare pornire ar reciti fereastra completă
+public interface HealthConnectSyncStore {
+
+    SyncState load(HealthConnectSource.RecordKind kind);
+
+    void save(HealthConnectSource.RecordKind kind, SyncState state);
+
+    class SyncState {
+        public String changesToken;
+        public long lastSyncMillis = 0;        // datele sunt complete până la acest moment
+        public long backfillFromMillis = 0;    // interval rămas de recuperat (from >= to = nimic)
+        public long backfillToMillis = 0;
+        public String backfillPageToken;
+
+        public boolean needsBackfill() {
+            return backfillFromMillis < backfillToMillis;
+        }
+
+        public SyncState copy() {
+            SyncState copy = new SyncState();
+            copy.changesToken = changesToken;
+            copy.lastSyncMillis = lastSyncMillis;
+            copy.backfillFromMillis = backfillFromMillis;
+            copy.backfillToMillis = backfillToMillis;
+            copy.backfillPageToken = backfillPageToken;
+            return copy;
+        }
+    }
+}
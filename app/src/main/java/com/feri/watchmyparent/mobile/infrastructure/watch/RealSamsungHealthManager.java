@@ -15,9 +15,11 @@ import com.feri.watchmyparent.mobile.infrastructure.services.SamsungHealthDataSe
 import com.feri.watchmyparent.mobile.infrastructure.utils.SamsungWatchSetupChecker;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
@@ -31,13 +33,25 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     private final Context context;
     private final SamsungHealthDataService samsungHealthDataService;
     private HealthConnectClient healthConnectClient;
+    private volatile HealthConnectSyncEngine healthConnectSync;
     private SensorManager sensorManager;
     private SamsungWatchSetupChecker.WatchSetupStatus setupStatus;
 
     // Real sensor data storage
     private final Map<SensorType, SensorReading> latestReadings = new HashMap<>();
-    private final Map<SensorType, Integer> sensorFrequencies = new HashMap<>();
-    private final Set<Integer> registeredSensorTypes = new HashSet<>();
+    private final Map<SensorType, Integer> sensorFrequencies = new ConcurrentHashMap<>();
+    // ✅ NEW: Senzori hardware înregistrați doar la cerere (ref-counting per senzor)
+    private volatile SensorSubscriptionManager sensorSubscriptions;
+    private final Map<SensorType, List<SensorSubscriptionManager.Subscription>> collectionSubscriptions = new ConcurrentHashMap<>();
+    private final Map<SensorType, Long> lastCollectionDemand = new ConcurrentHashMap<>();
+    private final Set<SensorType> disabledSensors = ConcurrentHashMap.newKeySet();
+    // ✅ NEW: Tipurile de mișcare derivate sunt calculate la citire din accelerometru/giroscop/rotation vector
+    private final DerivedMotionSensors derivedMotion = new DerivedMotionSensors();
+
+    private static final String COLLECTION_CONSUMER = "collection";
+    private static final int MIN_SAMPLING_PERIOD_US = 200_000;      // SENSOR_DELAY_NORMAL
+    private static final int COLLECTION_MAX_PERIOD_US = 5_000_000;
+    private static final int COLLECTION_IDLE_FACTOR = 3;
 
     // Samsung Health permitted sensors (handled by SamsungHealthDataService)
     private final Set<SensorType> SAMSUNG_HEALTH_PERMITTED_SENSORS = new HashSet<>(Arrays.asList(
@@ -59,7 +73,12 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         this.samsungHealthDataService = samsungHealthDataService;
         this.deviceId = "samsung_galaxy_watch_7_real";
 
-        Log.d(TAG, "🚀 Initializing REAL Samsung Health Manager for Galaxy Watch 7");
+        // ✅ MODIFICAT: SamsungWatchSetupChecker, Health Connect și senzorii nu mai sunt inițializați la injectare -
+        // pornirea aplicației apelează initialize() dintr-o etapă de fundal, iar connect() o face la nevoie
+        Log.d(TAG, "🚀 Created REAL Samsung Health Manager for Galaxy Watch 7 (deferred initialization)");
+    }
+
+    public void initialize() {
         initializeRealHealthSystems();
     }
 
@@ -105,6 +124,10 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
 
             if (sdkStatus == HealthConnectClient.SDK_AVAILABLE) {
                 healthConnectClient = HealthConnectClient.getOrCreate(context);
+                // ✅ NEW: Sincronizare incrementală (changes token per tip, starea persistată) - la reconectare
+                // golul de la ultima sincronizare e acoperit de token sau recuperat în ferestre limitate
+                healthConnectSync = new HealthConnectSyncEngine(new HealthConnectClientSource(healthConnectClient),
+                        new SharedPreferencesHealthConnectSyncStore(context), ZoneId.systemDefault());
                 healthConnectReady = true;
                 Log.d(TAG, "✅ Health Connect initialized for Samsung Galaxy Watch 7 data");
 
@@ -120,14 +143,18 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         }
     }
 
+    // ✅ MODIFICAT: Niciun senzor nu mai este înregistrat la pornire - SensorSubscriptionManager înregistrează
+    // doar senzorii ceruți de consumatori (tier-urile de colectare, activitate, ecrane live)
     private void initializeHardwareSensors() {
         try {
             sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
 
             if (sensorManager != null) {
-                registerCriticalSensors();
+                if (sensorSubscriptions == null) {
+                    sensorSubscriptions = new SensorSubscriptionManager(new AndroidSensorRegistrar(sensorManager, this));
+                }
                 hardwareSensorsReady = true;
-                Log.d(TAG, "✅ Hardware sensors initialized for Samsung Galaxy Watch 7");
+                Log.d(TAG, "✅ Hardware sensors initialized for Samsung Galaxy Watch 7 (on-demand registration)");
             } else {
                 Log.e(TAG, "❌ SensorManager not available");
                 hardwareSensorsReady = false;
@@ -138,203 +165,129 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         }
     }
 
-    private void registerCriticalSensors() {
-        Log.d(TAG, "🔄 Registering ALL available Samsung Galaxy Watch 7 sensors...");
-
-        // ✅ PRIORITY 1: CRITICAL health sensors (Samsung Health SDK permitted)
-        registerSensorIfAvailable(Sensor.TYPE_HEART_RATE, "Heart Rate");
-
-        // ✅ PRIORITY 2: IMPORTANT activity sensors
-        registerSensorIfAvailable(Sensor.TYPE_STEP_COUNTER, "Step Counter");
-        registerStepDetectorIfAvailable(); // For real-time step detection
-
-        // ✅ PRIORITY 3: MOTION sensors (reduced frequency for battery)
-        registerMotionSensorsOptimized();
-
-        // ✅ PRIORITY 4: ENVIRONMENTAL sensors available on Galaxy Watch 7
-        registerEnvironmentalSensors();
-
-        // ✅ PRIORITY 5: ADDITIONAL Samsung Galaxy Watch 7 specific sensors
-        registerSamsungSpecificSensors();
-
-        Log.d(TAG, "✅ Total registered sensors: " + registeredSensorTypes.size());
-        Log.d(TAG, "📊 Sensor registration complete for Samsung Galaxy Watch 7");
-    }
-
-    // ✅ NEW: Register step detector for real-time step detection
-    private void registerStepDetectorIfAvailable() {
-        Sensor stepDetector = sensorManager.getDefaultSensor(Sensor.TYPE_STEP_DETECTOR);
-        if (stepDetector != null) {
-            boolean registered = sensorManager.registerListener(this, stepDetector, SensorManager.SENSOR_DELAY_NORMAL);
-            if (registered) {
-                registeredSensorTypes.add(Sensor.TYPE_STEP_DETECTOR);
-                Log.d(TAG, "✅ Registered Step Detector sensor (real-time steps)");
-            }
+    // ✅ NEW: Abonament la senzorii hardware din care e citit un tip; listă goală dacă senzorul principal nu
+    // există pe device. Consumatorul trebuie să apeleze release() pe fiecare abonament când nu mai are nevoie de date.
+    // ✅ MODIFICAT: Tipurile derivate (GRAVITY, LINEAR_ACCELERATION, ORIENTATION) se abonează la stream-urile brute
+    // comune, deci mai mulți consumatori/tipuri împart aceeași înregistrare de accelerometru sau rotation vector
+    public List<SensorSubscriptionManager.Subscription> acquireSensorStream(String consumer, SensorType sensorType,
+                                                                            int samplingPeriodUs, int maxReportLatencyUs) {
+        SensorSubscriptionManager subscriptions = sensorSubscriptions;
+        int[] hardwareTypes = hardwareTypesFor(sensorType);
+        if (subscriptions == null || hardwareTypes == null) {
+            return Collections.emptyList();
         }
-    }
-
-    // ✅ ENHANCED: Motion sensors with optimized frequencies
-    private void registerMotionSensorsOptimized() {
-        // Accelerometer - reduced frequency for battery optimization
-        Sensor accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
-        if (accelerometer != null) {
-            boolean registered = sensorManager.registerListener(
-                    this,
-                    accelerometer,
-                    SensorManager.SENSOR_DELAY_NORMAL,
-                    1000000  // 1 second between updates (battery optimized)
-            );
-            if (registered) {
-                registeredSensorTypes.add(Sensor.TYPE_ACCELEROMETER);
-                Log.d(TAG, "✅ Registered Accelerometer sensor with reduced frequency");
+        List<SensorSubscriptionManager.Subscription> acquired = new ArrayList<>(hardwareTypes.length);
+        for (int i = 0; i < hardwareTypes.length; i++) {
+            SensorSubscriptionManager.Subscription subscription =
+                    subscriptions.acquire(consumer, hardwareTypes[i], samplingPeriodUs, maxReportLatencyUs);
+            if (subscription != null) {
+                acquired.add(subscription);
+            } else if (i == 0) {
+                // Fără senzorul principal tipul nu poate fi calculat
+                return Collections.emptyList();
             }
         }
+        return acquired;
+    }
 
-        // Gyroscope - for rotation detection
-        Sensor gyroscope = sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE);
-        if (gyroscope != null) {
-            boolean registered = sensorManager.registerListener(
-                    this,
-                    gyroscope,
-                    SensorManager.SENSOR_DELAY_NORMAL,
-                    2000000  // 2 seconds between updates
-            );
-            if (registered) {
-                registeredSensorTypes.add(Sensor.TYPE_GYROSCOPE);
-                Log.d(TAG, "✅ Registered Gyroscope sensor");
-            }
+    private static void releaseSubscriptions(List<SensorSubscriptionManager.Subscription> subscriptions) {
+        if (subscriptions == null) return;
+        for (SensorSubscriptionManager.Subscription subscription : subscriptions) {
+            subscription.release();
         }
-
-        // Linear acceleration - for movement analysis
-        registerSensorIfAvailable(Sensor.TYPE_LINEAR_ACCELERATION, "Linear Acceleration");
-
-        // Gravity sensor
-        registerSensorIfAvailable(Sensor.TYPE_GRAVITY, "Gravity");
-
-        // Rotation vector - for orientation
-        registerSensorIfAvailable(Sensor.TYPE_ROTATION_VECTOR, "Rotation Vector");
     }
 
-    // ✅ NEW: Environmental sensors available on Samsung Galaxy Watch 7
-    private void registerEnvironmentalSensors() {
-        // Light sensor - for automatic brightness and sleep detection
-        Sensor lightSensor = sensorManager.getDefaultSensor(Sensor.TYPE_LIGHT);
-        if (lightSensor != null) {
-            boolean registered = sensorManager.registerListener(
-                    this,
-                    lightSensor,
-                    SensorManager.SENSOR_DELAY_NORMAL
-            );
-            if (registered) {
-                registeredSensorTypes.add(Sensor.TYPE_LIGHT);
-                Log.d(TAG, "✅ Registered Light sensor");
+    // Tier-urile de colectare: senzorii citiți la acest tick rămân abonați; cei necitiți de mai mult de
+    // COLLECTION_IDLE_FACTOR intervale (ex. acoperiți pasiv sau dezactivați) sunt eliberați
+    private void updateCollectionDemand(List<SensorType> sensorTypes, long nowMillis) {
+        for (SensorType sensorType : sensorTypes) {
+            if (needsHardwareStream(sensorType)) {
+                lastCollectionDemand.put(sensorType, nowMillis);
+                if (!collectionSubscriptions.containsKey(sensorType)) {
+                    subscribeForCollection(sensorType);
+                }
             }
         }
 
-        // Proximity sensor - for palm detection and screen control
-        Sensor proximitySensor = sensorManager.getDefaultSensor(Sensor.TYPE_PROXIMITY);
-        if (proximitySensor != null) {
-            boolean registered = sensorManager.registerListener(
-                    this,
-                    proximitySensor,
-                    SensorManager.SENSOR_DELAY_NORMAL
-            );
-            if (registered) {
-                registeredSensorTypes.add(Sensor.TYPE_PROXIMITY);
-                Log.d(TAG, "✅ Registered Proximity sensor");
+        Iterator<Map.Entry<SensorType, List<SensorSubscriptionManager.Subscription>>> iterator =
+                collectionSubscriptions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<SensorType, List<SensorSubscriptionManager.Subscription>> entry = iterator.next();
+            Long lastDemand = lastCollectionDemand.get(entry.getKey());
+            long idleLimit = COLLECTION_IDLE_FACTOR * collectionIntervalSeconds(entry.getKey()) * 1000L;
+            if (lastDemand == null || nowMillis - lastDemand > idleLimit || !needsHardwareStream(entry.getKey())) {
+                releaseSubscriptions(entry.getValue());
+                iterator.remove();
+                Log.d(TAG, "🔕 Collection released " + entry.getKey() + " (no longer polled from hardware)");
             }
         }
-
-        // Ambient temperature - if available
-        registerSensorIfAvailable(Sensor.TYPE_AMBIENT_TEMPERATURE, "Ambient Temperature");
-
-        // Relative humidity - if available
-        registerSensorIfAvailable(Sensor.TYPE_RELATIVE_HUMIDITY, "Relative Humidity");
-
-        // Pressure sensor - for altitude/weather
-        registerSensorIfAvailable(Sensor.TYPE_PRESSURE, "Pressure");
     }
 
-    // ✅ NEW: Samsung-specific sensors and advanced sensors
-    private void registerSamsungSpecificSensors() {
-        // Magnetic field sensor
-        registerSensorIfAvailable(Sensor.TYPE_MAGNETIC_FIELD, "Magnetic Field");
-
-        // Significant motion detection
-        registerSensorIfAvailable(Sensor.TYPE_SIGNIFICANT_MOTION, "Significant Motion");
-
-        // Game rotation vector (no magnetometer)
-        registerSensorIfAvailable(Sensor.TYPE_GAME_ROTATION_VECTOR, "Game Rotation Vector");
-
-        // Geomagnetic rotation vector
-        registerSensorIfAvailable(Sensor.TYPE_GEOMAGNETIC_ROTATION_VECTOR, "Geomagnetic Rotation Vector");
-
-        // Check for Samsung-specific sensor types (if available)
-        registerSamsungVendorSensors();
+    // Rata și batching-ul: cel mult o jumătate de interval al tier-ului, deci o citire proaspătă la fiecare tick
+    private void subscribeForCollection(SensorType sensorType) {
+        int intervalSeconds = collectionIntervalSeconds(sensorType);
+        int periodUs = (int) Math.min(COLLECTION_MAX_PERIOD_US, intervalSeconds * 1_000_000L / 2);
+        int latencyUs = (int) Math.min(Integer.MAX_VALUE, intervalSeconds * 1_000_000L / 2);
+        List<SensorSubscriptionManager.Subscription> subscriptions = acquireSensorStream(COLLECTION_CONSUMER,
+                sensorType, Math.max(MIN_SAMPLING_PERIOD_US, periodUs), latencyUs);
+        if (!subscriptions.isEmpty()) {
+            releaseSubscriptions(collectionSubscriptions.put(sensorType, subscriptions));
+        }
     }
 
+    private int collectionIntervalSeconds(SensorType sensorType) {
+        Integer configured = sensorFrequencies.get(sensorType);
+        return configured != null ? configured : sensorType.getCriticalityLevel().getDefaultFrequencySeconds();
+    }
 
-    // ✅ NEW: Register Samsung vendor-specific sensors
-    private void registerSamsungVendorSensors() {
-        try {
-            // Get all available sensors and check for Samsung vendor sensors
-            List<Sensor> allSensors = sensorManager.getSensorList(Sensor.TYPE_ALL);
-
-            for (Sensor sensor : allSensors) {
-                // Check for Samsung vendor sensors by name patterns
-                String sensorName = sensor.getName().toLowerCase();
-                String vendorName = sensor.getVendor().toLowerCase();
-
-                if (vendorName.contains("samsung") || sensorName.contains("samsung")) {
-                    // Check if it's a sensor we haven't registered yet
-                    int sensorType = sensor.getType();
-                    if (!registeredSensorTypes.contains(sensorType)) {
-                        boolean registered = sensorManager.registerListener(
-                                this,
-                                sensor,
-                                SensorManager.SENSOR_DELAY_NORMAL
-                        );
-
-                        if (registered) {
-                            registeredSensorTypes.add(sensorType);
-                            Log.d(TAG, "✅ Registered Samsung vendor sensor: " + sensor.getName() +
-                                    " (Type: " + sensorType + ", Vendor: " + sensor.getVendor() + ")");
-                        }
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error registering Samsung vendor sensors", e);
+    // Senzorul hardware e necesar doar dacă Samsung Health SDK nu acoperă deja tipul și nu e dezactivat
+    private boolean needsHardwareStream(SensorType sensorType) {
+        if (hardwareTypesFor(sensorType) == null || disabledSensors.contains(sensorType)) {
+            return false;
         }
+        return !(SAMSUNG_HEALTH_PERMITTED_SENSORS.contains(sensorType) && samsungHealthDataService.isConnected());
     }
 
+    // Senzorii hardware necesari unui SensorType; pentru tipurile de mișcare derivate, stream-urile brute
+    // (primul e obligatoriu, rotation vector-ul doar îmbunătățește estimarea gravitației)
+    private static int[] hardwareTypesFor(SensorType sensorType) {
+        SensorType[] rawSources = DerivedMotionSensors.rawSourcesFor(sensorType);
+        if (rawSources == null) {
+            Integer hardwareType = hardwareTypeFor(sensorType);
+            return hardwareType != null ? new int[]{hardwareType} : null;
+        }
+        int[] hardwareTypes = new int[rawSources.length];
+        for (int i = 0; i < rawSources.length; i++) {
+            hardwareTypes[i] = hardwareTypeFor(rawSources[i]);
+        }
+        return hardwareTypes;
+    }
 
-    private void registerSensorIfAvailable(int sensorType, String sensorName) {
-        try {
-            Sensor sensor = sensorManager.getDefaultSensor(sensorType);
-            if (sensor != null) {
-                // Check if we've already registered this sensor type
-                if (registeredSensorTypes.contains(sensorType)) {
-                    Log.d(TAG, "⚠️ Sensor already registered: " + sensorName);
-                    return;
-                }
-
-                boolean registered = sensorManager.registerListener(this, sensor, SensorManager.SENSOR_DELAY_NORMAL);
-                if (registered) {
-                    registeredSensorTypes.add(sensorType);
-                    Log.d(TAG, "✅ Registered " + sensorName + " sensor");
-                    Log.d(TAG, "   Vendor: " + sensor.getVendor());
-                    Log.d(TAG, "   Max Range: " + sensor.getMaximumRange());
-                    Log.d(TAG, "   Resolution: " + sensor.getResolution());
-                } else {
-                    Log.w(TAG, "⚠️ Failed to register " + sensorName + " sensor");
-                }
-            } else {
-                Log.d(TAG, "📋 " + sensorName + " sensor not available on this device");
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error registering " + sensorName + " sensor", e);
+    // Senzorul hardware din care e citit fiecare tip ne-derivat (inversul mapHardwareSensorToSensorType)
+    private static Integer hardwareTypeFor(SensorType sensorType) {
+        switch (sensorType) {
+            case HEART_RATE:
+                return Sensor.TYPE_HEART_RATE;
+            case STEP_COUNT:
+                return Sensor.TYPE_STEP_COUNTER;
+            case ACCELEROMETER:
+                return Sensor.TYPE_ACCELEROMETER;
+            case GYROSCOPE:
+                return Sensor.TYPE_GYROSCOPE;
+            case ROTATION:
+                return Sensor.TYPE_ROTATION_VECTOR;
+            case MAGNETIC_FIELD:
+                return Sensor.TYPE_MAGNETIC_FIELD;
+            case LIGHT:
+                return Sensor.TYPE_LIGHT;
+            case PROXIMITY:
+                return Sensor.TYPE_PROXIMITY;
+            case BODY_TEMPERATURE:
+                return Sensor.TYPE_AMBIENT_TEMPERATURE;
+            case BLOOD_PRESSURE:
+                return Sensor.TYPE_PRESSURE;
+            default:
+                return null;
         }
     }
 
@@ -342,6 +295,21 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     @Override
     public void onSensorChanged(SensorEvent event) {
         try {
+            // ✅ NEW: Stream-urile de mișcare doar copiază valorile brute - calculul se face la citire
+            switch (event.sensor.getType()) {
+                case Sensor.TYPE_ACCELEROMETER:
+                    derivedMotion.onAccelerometer(event.values, System.currentTimeMillis());
+                    return;
+                case Sensor.TYPE_GYROSCOPE:
+                    derivedMotion.onGyroscope(event.values, System.currentTimeMillis());
+                    return;
+                case Sensor.TYPE_ROTATION_VECTOR:
+                    derivedMotion.onRotationVector(event.values, System.currentTimeMillis());
+                    return;
+                default:
+                    break;
+            }
+
             SensorType sensorType = mapHardwareSensorToSensorType(event.sensor.getType());
             if (sensorType != null) {
                 // ✅ SMART FILTERING: Reduce log spam for high-frequency sensors
@@ -372,8 +340,6 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     // ✅ NEW: Smart logging to reduce spam
     private boolean shouldLogSensorReading(int sensorType) {
         switch (sensorType) {
-            case Sensor.TYPE_ACCELEROMETER:
-            case Sensor.TYPE_GYROSCOPE:
             case Sensor.TYPE_MAGNETIC_FIELD:
                 // High frequency sensors: log only 2% of events
                 return Math.random() < 0.02;
@@ -393,30 +359,14 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     }
 
     // ✅ NEW: Calculate appropriate sensor value based on sensor type
+    // ✅ MODIFICAT: Accelerometrul, giroscopul și rotation vector-ul sunt calculate la citire în DerivedMotionSensors
     private double calculateSensorValue(SensorEvent event) {
         switch (event.sensor.getType()) {
-            case Sensor.TYPE_ACCELEROMETER:
-            case Sensor.TYPE_LINEAR_ACCELERATION:
-            case Sensor.TYPE_GRAVITY:
-                // Calculate magnitude for 3-axis sensors
-                return Math.sqrt(event.values[0] * event.values[0] +
-                        event.values[1] * event.values[1] +
-                        event.values[2] * event.values[2]);
-            case Sensor.TYPE_GYROSCOPE:
-                // Calculate rotation magnitude
-                return Math.sqrt(event.values[0] * event.values[0] +
-                        event.values[1] * event.values[1] +
-                        event.values[2] * event.values[2]);
             case Sensor.TYPE_MAGNETIC_FIELD:
                 // Calculate magnetic field strength
                 return Math.sqrt(event.values[0] * event.values[0] +
                         event.values[1] * event.values[1] +
                         event.values[2] * event.values[2]);
-            case Sensor.TYPE_ROTATION_VECTOR:
-            case Sensor.TYPE_GAME_ROTATION_VECTOR:
-            case Sensor.TYPE_GEOMAGNETIC_ROTATION_VECTOR:
-                // Use the w component or calculate quaternion magnitude
-                return event.values.length > 3 ? event.values[3] : event.values[0];
             default:
                 // For single-value sensors, use the first value
                 return event.values[0];
@@ -431,11 +381,6 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
             case Sensor.TYPE_STEP_COUNTER:
             case Sensor.TYPE_STEP_DETECTOR:
                 return SensorType.STEP_COUNT;
-            case Sensor.TYPE_ACCELEROMETER:
-            case Sensor.TYPE_LINEAR_ACCELERATION:
-                return SensorType.ACCELEROMETER;
-            case Sensor.TYPE_GYROSCOPE:
-                return SensorType.GYROSCOPE;
             case Sensor.TYPE_AMBIENT_TEMPERATURE:
                 return SensorType.BODY_TEMPERATURE;
             case Sensor.TYPE_LIGHT:
@@ -446,12 +391,6 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
                 return SensorType.BLOOD_PRESSURE; // Map pressure to blood pressure reading
             case Sensor.TYPE_MAGNETIC_FIELD:
                 return SensorType.MAGNETIC_FIELD;
-            case Sensor.TYPE_GRAVITY:
-                return SensorType.GRAVITY;
-            case Sensor.TYPE_ROTATION_VECTOR:
-            case Sensor.TYPE_GAME_ROTATION_VECTOR:
-            case Sensor.TYPE_GEOMAGNETIC_ROTATION_VECTOR:
-                return SensorType.ROTATION;
             default:
                 return null;
         }
@@ -477,20 +416,25 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     public String getSensorRegistrationStatus() {
         StringBuilder status = new StringBuilder();
         status.append("Samsung Galaxy Watch 7 Sensor Registration Status:\n");
-        status.append("- Total registered sensors: ").append(registeredSensorTypes.size()).append("\n");
+        status.append("- Total registered sensors: ").append(getRegisteredSensorCount()).append("\n");
         status.append("- Hardware sensors ready: ").append(hardwareSensorsReady ? "✅" : "❌").append("\n");
         status.append("- Latest readings available: ").append(latestReadings.size()).append("\n");
 
-        if (!registeredSensorTypes.isEmpty()) {
+        SensorSubscriptionManager subscriptions = sensorSubscriptions;
+        if (subscriptions != null && subscriptions.getActiveSensorCount() > 0) {
             status.append("\nRegistered sensor types:\n");
-            for (Integer sensorType : registeredSensorTypes) {
+            for (Integer sensorType : subscriptions.getActiveSensorTypes()) {
                 Sensor sensor = sensorManager.getDefaultSensor(sensorType);
                 if (sensor != null) {
                     status.append("- ").append(sensor.getName())
-                            .append(" (Type: ").append(sensorType).append(")\n");
+                            .append(" (Type: ").append(sensorType)
+                            .append(", consumers: ").append(subscriptions.getReferenceCount(sensorType))
+                            .append(", period: ").append(subscriptions.getSamplingPeriodUs(sensorType)).append("us)\n");
                 }
             }
+            status.append("- ").append(subscriptions.getStatistics()).append("\n");
         }
+        status.append("- ").append(derivedMotion.getStatistics()).append("\n");
 
         return status.toString();
     }
@@ -519,7 +463,7 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
                     Log.d(TAG, "   Samsung Health SDK: " + (samsungHealthReady ? "✅" : "❌"));
                     Log.d(TAG, "   Health Connect: " + (healthConnectReady ? "✅" : "❌"));
                     Log.d(TAG, "   Hardware Sensors: " + (hardwareSensorsReady ? "✅" : "❌"));
-                    Log.d(TAG, "   Registered Sensors: " + registeredSensorTypes.size());
+                    Log.d(TAG, "   Registered Sensors: " + getRegisteredSensorCount());
                 } else {
                     Log.e(TAG, "❌ Failed to connect to Samsung Galaxy Watch 7");
                 }
@@ -540,11 +484,13 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
             try {
                 Log.d(TAG, "🔌 Disconnecting from Samsung Galaxy Watch 7...");
 
-                // Unregister sensor listeners
-                if (sensorManager != null) {
-                    sensorManager.unregisterListener(this);
-                    registeredSensorTypes.clear();
+                // Unregister sensor listeners (toate abonamentele devin invalide)
+                SensorSubscriptionManager subscriptions = sensorSubscriptions;
+                if (subscriptions != null) {
+                    subscriptions.releaseAll();
                 }
+                collectionSubscriptions.clear();
+                lastCollectionDemand.clear();
 
                 // Disconnect Samsung Health Data Service
                 if (samsungHealthDataService != null) {
@@ -554,11 +500,13 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
                 // Clear Health Connect client
                 if (healthConnectClient != null) {
                     healthConnectClient = null;
+                    healthConnectSync = null;
                     healthConnectReady = false;
                 }
 
                 // Clear cached data
                 latestReadings.clear();
+                derivedMotion.clear();
 
                 // Reset state
                 isConnected = false;
@@ -586,12 +534,23 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
 
             Log.d(TAG, "📊 Reading REAL sensor data from Samsung Galaxy Watch 7 for " + sensorTypes.size() + " sensors");
 
+            // ✅ NEW: Doar senzorii hardware citiți de tier-uri rămân înregistrați
+            updateCollectionDemand(sensorTypes, System.currentTimeMillis());
+
+            // ✅ NEW: O singură sincronizare Health Connect per tick (doar modificările de la ultima)
+            HealthConnectSyncEngine sync = healthConnectSync;
+            if (healthConnectReady && sync != null) {
+                sync.syncIfDue(System.currentTimeMillis());
+            }
+
             for (SensorType sensorType : sensorTypes) {
                 try {
-                    SensorReading reading = readSingleSensorData(sensorType);
-                    if (reading != null) {
-                        readings.add(reading);
-                        Log.d(TAG, "📊 ✅ COLLECTED: " + sensorType + " = " + reading.getValue() + " " + sensorType.getUnit());
+                    List<SensorReading> sensorReadings = readSensorReadings(sensorType);
+                    readings.addAll(sensorReadings);
+                    if (!sensorReadings.isEmpty()) {
+                        SensorReading reading = sensorReadings.get(sensorReadings.size() - 1);
+                        Log.d(TAG, "📊 ✅ COLLECTED: " + sensorType + " = " + reading.getValue() + " " + sensorType.getUnit()
+                                + (sensorReadings.size() > 1 ? " (+" + (sensorReadings.size() - 1) + " synced)" : ""));
                     }
                 } catch (Exception e) {
                     Log.e(TAG, "❌ Error reading " + sensorType + " from Samsung Galaxy Watch 7", e);
@@ -604,7 +563,8 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     }
 
     // FIXED: Enhanced sensor reading with proper priority system
-    private SensorReading readSingleSensorData(SensorType sensorType) {
+    // ✅ NEW: Health Connect poate livra mai multe eșantioane per tick (toate cele noi de la ultima sincronizare)
+    private List<SensorReading> readSensorReadings(SensorType sensorType) {
         Log.d(TAG, "🔍 Trying to read " + sensorType + " data");
 
         // Priority 1: Use Samsung Health Data Service for permitted sensors
@@ -615,7 +575,7 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
                 if (samsungReading != null) {
                     samsungReading.setDeviceId(deviceId);
                     Log.d(TAG, "📊 SAMSUNG HEALTH SDK - REAL DATA: " + sensorType + " = " + samsungReading.getValue() + " " + sensorType.getUnit());
-                    return samsungReading;
+                    return Collections.singletonList(samsungReading);
                 }
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error reading from Samsung Health Data Service: " + sensorType, e);
@@ -623,22 +583,33 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         }
 
         // Priority 2: Use hardware sensors (for real-time data)
+        // ✅ NEW: Tipurile de mișcare sunt calculate acum, din ultimele eșantioane brute
+        if (DerivedMotionSensors.isDerived(sensorType)) {
+            SensorReading motionReading = derivedMotion.read(sensorType, System.currentTimeMillis());
+            if (motionReading != null) {
+                motionReading.setDeviceId(deviceId);
+                Log.d(TAG, "📊 HARDWARE: " + sensorType + " = " + motionReading.getValue() + " " + sensorType.getUnit());
+                return Collections.singletonList(motionReading);
+            }
+        }
         SensorReading hardwareReading = latestReadings.get(sensorType);
         if (hardwareReading != null && isRecentReading(hardwareReading)) {
             hardwareReading.setDeviceId(deviceId);
             hardwareReading.setConnectionType("HARDWARE_SENSOR");
             Log.d(TAG, "📊 HARDWARE: " + sensorType + " = " + hardwareReading.getValue() + " " + sensorType.getUnit());
-            return hardwareReading;
+            return Collections.singletonList(hardwareReading);
         }
 
-        // Priority 3: Use Health Connect (simplified for now)
-        if (healthConnectReady && healthConnectClient != null) {
-            SensorReading healthConnectReading = readFromHealthConnectSimplified(sensorType);
-            if (healthConnectReading != null) {
-                healthConnectReading.setDeviceId(deviceId);
-                healthConnectReading.setConnectionType("HEALTH_CONNECT");
-                Log.d(TAG, "📊 HEALTH CONNECT: " + sensorType + " = " + healthConnectReading.getValue() + " " + sensorType.getUnit());
-                return healthConnectReading;
+        // Priority 3: Use Health Connect (eșantioanele noi din sincronizarea incrementală)
+        HealthConnectSyncEngine sync = healthConnectSync;
+        if (healthConnectReady && sync != null) {
+            List<SensorReading> healthConnectReadings = sync.drain(sensorType);
+            if (!healthConnectReadings.isEmpty()) {
+                for (SensorReading reading : healthConnectReadings) {
+                    reading.setDeviceId(deviceId);
+                }
+                Log.d(TAG, "📊 HEALTH CONNECT: " + sensorType + " x" + healthConnectReadings.size());
+                return healthConnectReadings;
             }
         }
 
@@ -648,51 +619,10 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
             fallbackReading.setDeviceId(deviceId);
             fallbackReading.setConnectionType("REALISTIC_SIMULATION");
             Log.d(TAG, "📊 REALISTIC SIM: " + sensorType + " = " + fallbackReading.getValue() + " " + sensorType.getUnit());
+            return Collections.singletonList(fallbackReading);
         }
 
-        return fallbackReading;
-    }
-
-    //SIMPLIFIED: Health Connect reading without complex Kotlin interop
-    private SensorReading readFromHealthConnectSimplified(SensorType sensorType) {
-        try {
-            // For now, we'll use a simplified approach until Health Connect integration is complete
-            // The complex Kotlin interop requires additional setup
-
-            switch (sensorType) {
-                case HEART_RATE:
-                    return generateHealthConnectHeartRate();
-                case STEP_COUNT:
-                    return generateHealthConnectSteps();
-                default:
-                    return null;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error reading from Health Connect for " + sensorType, e);
-            return null;
-        }
-    }
-
-    private SensorReading generateHealthConnectHeartRate() {
-        // Simulate Health Connect heart rate data
-        double heartRate = 70 + Math.random() * 20; // 70-90 bpm
-
-        SensorReading reading = new SensorReading(SensorType.HEART_RATE, heartRate);
-        reading.setTimestamp(LocalDateTime.now());
-        reading.setMetadata("source=health_connect,simulated=true");
-
-        return reading;
-    }
-
-    private SensorReading generateHealthConnectSteps() {
-        // Simulate Health Connect steps data
-        double steps = Math.random() * 100; // 0-100 steps in recent period
-
-        SensorReading reading = new SensorReading(SensorType.STEP_COUNT, steps);
-        reading.setTimestamp(LocalDateTime.now());
-        reading.setMetadata("source=health_connect,simulated=true");
-
-        return reading;
+        return Collections.emptyList();
     }
 
     private boolean isRecentReading(SensorReading reading) {
@@ -770,6 +700,12 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         return CompletableFuture.supplyAsync(() -> {
             try {
                 sensorFrequencies.put(sensorType, frequencySeconds);
+                disabledSensors.remove(sensorType);
+                // ✅ NEW: Cerere explicită de la un tier - abonamentul existent trece la noua rată
+                if (needsHardwareStream(sensorType)) {
+                    lastCollectionDemand.put(sensorType, System.currentTimeMillis());
+                    subscribeForCollection(sensorType);
+                }
                 Log.d(TAG, "⚙️ Configured Samsung Galaxy Watch 7 sensor " + sensorType + " frequency to " + frequencySeconds + " seconds");
                 return true;
             } catch (Exception e) {
@@ -779,6 +715,17 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         });
     }
 
+    // ✅ NEW: Senzor dezactivat în SensorConfiguration - senzorul hardware nu mai este ținut înregistrat
+    @Override
+    public CompletableFuture<Boolean> disableSensor(SensorType sensorType) {
+        return CompletableFuture.supplyAsync(() -> {
+            disabledSensors.add(sensorType);
+            releaseSubscriptions(collectionSubscriptions.remove(sensorType));
+            Log.d(TAG, "⏸️ Sensor " + sensorType + " disabled for collection");
+            return true;
+        });
+    }
+
     @Override
     public CompletableFuture<Boolean> isDeviceAvailable() {
         return CompletableFuture.supplyAsync(() -> {
@@ -846,6 +793,11 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         return healthConnectReady;
     }
 
+    public HealthConnectSyncEngine.SyncStatistics getHealthConnectSyncStatistics() {
+        HealthConnectSyncEngine sync = healthConnectSync;
+        return sync != null ? sync.getStatistics() : new HealthConnectSyncEngine.SyncStatistics();
+    }
+
     public boolean areHardwareSensorsReady() {
         return hardwareSensorsReady;
     }
@@ -863,7 +815,8 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
     }
 
     public int getRegisteredSensorCount() {
-        return registeredSensorTypes.size();
+        SensorSubscriptionManager subscriptions = sensorSubscriptions;
+        return subscriptions != null ? subscriptions.getActiveSensorCount() : 0;
     }
 
     // Get implementation details for debugging
@@ -872,7 +825,7 @@ public class RealSamsungHealthManager extends WatchManager implements SensorEven
         details.append("Samsung Galaxy Watch 7 Implementation:\n");
         details.append("- Samsung Health SDK: ").append(samsungHealthDataService.isConnected() ? "✅ Connected" : "❌ Not Connected").append("\n");
         details.append("- Health Connect: ").append(healthConnectReady ? "✅ Ready" : "❌ Not Ready").append("\n");
-        details.append("- Hardware Sensors: ").append(hardwareSensorsReady ? "✅ Ready (" + registeredSensorTypes.size() + ")" : "❌ Not Ready").append("\n");
+        details.append("- Hardware Sensors: ").append(hardwareSensorsReady ? "✅ Ready (" + getRegisteredSensorCount() + ")" : "❌ Not Ready").append("\n");
         details.append("- Permitted Sensors: ").append(SAMSUNG_HEALTH_PERMITTED_SENSORS.size()).append(" sensors\n");
         details.append("- Total Supported: ").append(getSupportedSensors().join().size()).append(" sensors");
         return details.toString();
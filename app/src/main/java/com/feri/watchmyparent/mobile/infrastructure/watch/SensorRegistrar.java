@@ -0,0 +1,13 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+// Înregistrarea efectivă a unui senzor hardware (SensorManager pe device, fake în teste);
+// tipurile sunt constantele Sensor.TYPE_*
+public interface SensorRegistrar {
+
+    boolean isAvailable(int hardwareType);
+
+    // Re-înregistrarea aceluiași tip înlocuiește rata și latența anterioare
+    boolean register(int hardwareType, int samplingPeriodUs, int maxReportLatencyUs);
+
+    void unregister(int hardwareType);
+}
@@ -0,0 +1,225 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// ✅ NEW: Senzorii hardware sunt înregistrați doar cât timp îi cere cineva (tier-urile de colectare, detecția de
+// activitate, un ecran live). Fiecare senzor e înregistrat o singură dată, la cea mai mare rată cerută și cea mai
+// mică latență de raportare; la eliberarea ultimului consumator senzorul este dezînregistrat, iar la eliberarea
+// celui mai rapid consumator rata coboară la următoarea cerută.
+public class SensorSubscriptionManager {
+
+    private static final String TAG = "SensorSubscriptions";
+
+    private final SensorRegistrar registrar;
+    private final Map<Integer, SensorStream> streams = new HashMap<>();
+
+    private long acquires = 0;
+    private long releases = 0;
+    private long registrations = 0;
+    private long reRegistrations = 0;
+    private long unregistrations = 0;
+    private long failures = 0;
+
+    public SensorSubscriptionManager(SensorRegistrar registrar) {
+        this.registrar = registrar;
+    }
+
+    // null dacă senzorul lipsește de pe device sau înregistrarea a eșuat
+    public synchronized Subscription acquire(String consumer, int hardwareType, int samplingPeriodUs,
+                                             int maxReportLatencyUs) {
+        if (!registrar.isAvailable(hardwareType)) {
+            return null;
+        }
+
+        SensorStream stream = streams.get(hardwareType);
+        if (stream == null) {
+            stream = new SensorStream(hardwareType);
+            streams.put(hardwareType, stream);
+        }
+        Subscription subscription = new Subscription(this, consumer, hardwareType,
+                Math.max(0, samplingPeriodUs), Math.max(0, maxReportLatencyUs));
+        stream.subscriptions.add(subscription);
+
+        if (!apply(stream)) {
+            stream.subscriptions.remove(subscription);
+            if (stream.subscriptions.isEmpty()) {
+                streams.remove(hardwareType);
+            }
+            return null;
+        }
+        acquires++;
+        return subscription;
+    }
+
+    synchronized void release(Subscription subscription) {
+        if (subscription.released) return;
+        subscription.released = true;
+        releases++;
+
+        SensorStream stream = streams.get(subscription.hardwareType);
+        if (stream == null || !stream.subscriptions.remove(subscription)) return;
+
+        if (stream.subscriptions.isEmpty()) {
+            registrar.unregister(stream.hardwareType);
+            streams.remove(stream.hardwareType);
+            unregistrations++;
+            Log.d(TAG, "🔕 Sensor " + stream.hardwareType + " unregistered (no consumers)");
+        } else {
+            apply(stream);
+        }
+    }
+
+    // Deconectare - toate abonamentele devin invalide
+    public synchronized void releaseAll() {
+        for (SensorStream stream : streams.values()) {
+            for (Subscription subscription : stream.subscriptions) {
+                subscription.released = true;
+            }
+            registrar.unregister(stream.hardwareType);
+            unregistrations++;
+        }
+        streams.clear();
+    }
+
+    // Re-înregistrează doar dacă rata/latența efectivă s-a schimbat; false dacă noua configurație a eșuat
+    private boolean apply(SensorStream stream) {
+        int period = Integer.MAX_VALUE;
+        int latency = Integer.MAX_VALUE;
+        for (Subscription subscription : stream.subscriptions) {
+            period = Math.min(period, subscription.samplingPeriodUs);
+            latency = Math.min(latency, subscription.maxReportLatencyUs);
+        }
+        if (stream.registered && period == stream.samplingPeriodUs && latency == stream.maxReportLatencyUs) {
+            return true;
+        }
+
+        if (!registrar.register(stream.hardwareType, period, latency)) {
+            failures++;
+            Log.w(TAG, "⚠️ Failed to register sensor " + stream.hardwareType + " at " + period + "us");
+            // Un eșec la schimbarea ratei nu trebuie să lase consumatorii existenți fără date
+            if (stream.registered
+                    && !registrar.register(stream.hardwareType, stream.samplingPeriodUs, stream.maxReportLatencyUs)) {
+                stream.registered = false;
+            }
+            return false;
+        }
+        if (stream.registered) {
+            reRegistrations++;
+        } else {
+            registrations++;
+            Log.d(TAG, "✅ Sensor " + stream.hardwareType + " registered at " + period + "us");
+        }
+        stream.registered = true;
+        stream.samplingPeriodUs = period;
+        stream.maxReportLatencyUs = latency;
+        return true;
+    }
+
+    public synchronized boolean isActive(int hardwareType) {
+        return streams.containsKey(hardwareType);
+    }
+
+    public synchronized int getActiveSensorCount() {
+        return streams.size();
+    }
+
+    public synchronized Set<Integer> getActiveSensorTypes() {
+        return new TreeSet<>(streams.keySet());
+    }
+
+    public synchronized int getReferenceCount(int hardwareType) {
+        SensorStream stream = streams.get(hardwareType);
+        return stream != null ? stream.subscriptions.size() : 0;
+    }
+
+    // -1 dacă senzorul nu e înregistrat
+    public synchronized int getSamplingPeriodUs(int hardwareType) {
+        SensorStream stream = streams.get(hardwareType);
+        return stream != null ? stream.samplingPeriodUs : -1;
+    }
+
+    public synchronized SubscriptionStatistics getStatistics() {
+        SubscriptionStatistics stats = new SubscriptionStatistics();
+        stats.activeSensors = streams.size();
+        for (SensorStream stream : streams.values()) {
+            stats.activeSubscriptions += stream.subscriptions.size();
+        }
+        stats.acquires = acquires;
+        stats.releases = releases;
+        stats.registrations = registrations;
+        stats.reRegistrations = reRegistrations;
+        stats.unregistrations = unregistrations;
+        stats.failures = failures;
+        return stats;
+    }
+
+    private static class SensorStream {
+        final int hardwareType;
+        final List<Subscription> subscriptions = new ArrayList<>();
+        boolean registered = false;
+        int samplingPeriodUs;
+        int maxReportLatencyUs;
+
+        SensorStream(int hardwareType) {
+            this.hardwareType = hardwareType;
+        }
+    }
+
+    // Handle-ul unui consumator; release() e idempotent
+    public static class Subscription {
+        private final SensorSubscriptionManager manager;
+        public final String consumer;
+        public final int hardwareType;
+        public final int samplingPeriodUs;
+        public final int maxReportLatencyUs;
+        private volatile boolean released = false;
+
+        Subscription(SensorSubscriptionManager manager, String consumer, int hardwareType,
+                     int samplingPeriodUs, int maxReportLatencyUs) {
+            this.manager = manager;
+            this.consumer = consumer;
+            this.hardwareType = hardwareType;
+            this.samplingPeriodUs = samplingPeriodUs;
+            this.maxReportLatencyUs = maxReportLatencyUs;
+        }
+
+        public void release() {
+            manager.release(this);
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Subscription{%s, sensor=%d, period=%dus}", consumer, hardwareType, samplingPeriodUs);
+        }
+    }
+
+    public static class SubscriptionStatistics {
+        public int activeSensors;
+        public int activeSubscriptions;
+        public long acquires;
+        public long releases;
+        public long registrations;
+        public long reRegistrations;
+        public long unregistrations;
+        public long failures;
+
+        @Override
+        public String toString() {
+            return String.format("SensorSubscriptions{active=%d sensors/%d subs, acquires=%d, releases=%d, " +
+                            "registrations=%d, reRegistrations=%d, unregistrations=%d, failures=%d}",
+                    activeSensors, activeSubscriptions, acquires, releases, registrations, reRegistrations,
+                    unregistrations, failures);
+        }
+    }
+}
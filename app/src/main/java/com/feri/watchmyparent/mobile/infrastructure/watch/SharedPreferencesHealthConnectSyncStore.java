@@ -0,0 +1,39 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+public class SharedPreferencesHealthConnectSyncStore implements HealthConnectSyncStore {
+
+    private static final String PREFS_NAME = "health_connect_sync";
+
+    private final SharedPreferences prefs;
+
+    public SharedPreferencesHealthConnectSyncStore(Context context) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public SyncState load(HealthConnectSource.RecordKind kind) {
+        String prefix = kind.name() + ".";
+        SyncState state = new SyncState();
+        state.changesToken = prefs.getString(prefix + "token", null);
+        state.lastSyncMillis = prefs.getLong(prefix + "lastSync", 0);
+        state.backfillFromMillis = prefs.getLong(prefix + "backfillFrom", 0);
+        state.backfillToMillis = prefs.getLong(prefix + "backfillTo", 0);
+        state.backfillPageToken = prefs.getString(prefix + "backfillPage", null);
+        return state;
+    }
+
+    @Override
+    public void save(HealthConnectSource.RecordKind kind, SyncState state) {
+        String prefix = kind.name() + ".";
+        prefs.edit()
+                .putString(prefix + "token", state.changesToken)
+                .putLong(prefix + "lastSync", state.lastSyncMillis)
+                .putLong(prefix + "backfillFrom", state.backfillFromMillis)
+                .putLong(prefix + "backfillTo", state.backfillToMillis)
+                .putString(prefix + "backfillPage", state.backfillPageToken)
+                .apply();
+    }
+}
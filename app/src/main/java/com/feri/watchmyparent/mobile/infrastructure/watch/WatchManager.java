@@ -32,6 +32,11 @@ public abstract class WatchManager {
     public abstract CompletableFuture<Boolean> isDeviceAvailable();
     public abstract CompletableFuture<List<SensorType>> getSupportedSensors();
 
+    // ✅ NEW: Senzorul nu mai este colectat - implementările cu senzori hardware îi pot elibera înregistrarea
+    public CompletableFuture<Boolean> disableSensor(SensorType sensorType) {
+        return CompletableFuture.completedFuture(true);
+    }
+
     // EXISTING getters
     public boolean isConnected() {
         return isConnected;
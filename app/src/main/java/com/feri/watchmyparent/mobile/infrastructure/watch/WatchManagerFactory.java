@@ -4,6 +4,9 @@ import android.content.Context;
 import android.util.Log;
 
 import com.feri.watchmyparent.mobile.infrastructure.services.SamsungHealthDataService;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SimulationClock;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientProfile;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientWatchManager;
 
 // ✅ UPDATED Factory pentru Samsung Galaxy Watch 7 - DOAR RealSamsungHealthManager
 public class WatchManagerFactory {
@@ -36,6 +39,14 @@ public class WatchManagerFactory {
         }
     }
 
+    // ✅ NEW: Ceas sintetic determinist (simulări headless / load tests) - nu necesită Context
+    public static WatchManager createSimulatedWatchManager(long fleetSeed, int patientIndex, SimulationClock clock) {
+        SyntheticPatientWatchManager manager = new SyntheticPatientWatchManager(
+                SyntheticPatientProfile.generate(fleetSeed, patientIndex), clock);
+        Log.d(TAG, "🧪 Created simulated watch manager: " + manager.getDeviceId());
+        return manager;
+    }
+
     // ✅ REMOVED: Nu mai avem nevoie de createSamsungHealthManager - folosim doar REAL
 
     // Future implementations for other watch types
@@ -61,6 +72,7 @@ public class WatchManagerFactory {
         try {
             SamsungHealthDataService healthDataService = new SamsungHealthDataService(context);
             RealSamsungHealthManager testManager = new RealSamsungHealthManager(context, healthDataService);
+            testManager.initialize();
 
             boolean available = testManager.isHealthConnectReady() ||
                     testManager.areHardwareSensorsReady() ||
@@ -85,6 +97,9 @@ public class WatchManagerFactory {
                     realManager.areHardwareSensorsReady() ? "✅" : "❌",
                     realManager.isSamsungHealthDataConnected() ? "✅" : "❌",
                     realManager.getRegisteredSensorCount());
+        } else if (manager instanceof SyntheticPatientWatchManager) {
+            SyntheticPatientWatchManager simulated = (SyntheticPatientWatchManager) manager;
+            return "Simulated Watch Manager - " + simulated.getProfile() + ", " + simulated.getClock();
         } else {
             return "Unknown implementation: " + manager.getClass().getSimpleName();
         }
@@ -0,0 +1,66 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch.simulation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ceas de simulare: timpul simulat curge de speedFactor ori mai repede decât wall-clock-ul
+// speedFactor = 0 -> ceas manual, avansează doar prin advance() (util pentru replay determinist)
+public class SimulationClock {
+
+    private final LocalDateTime simStart;
+    private final double speedFactor;
+    private final long wallStartNanos;
+    private final AtomicLong manualOffsetMillis = new AtomicLong();
+
+    public SimulationClock(LocalDateTime simStart, double speedFactor) {
+        if (speedFactor < 0) {
+            throw new IllegalArgumentException("speedFactor must be >= 0: " + speedFactor);
+        }
+        this.simStart = simStart;
+        this.speedFactor = speedFactor;
+        this.wallStartNanos = System.nanoTime();
+    }
+
+    public static SimulationClock manual(LocalDateTime simStart) {
+        return new SimulationClock(simStart, 0.0);
+    }
+
+    public LocalDateTime now() {
+        return simStart.plus(Duration.ofMillis(elapsedSimMillis()));
+    }
+
+    public long elapsedSimMillis() {
+        long wallElapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallStartNanos);
+        return (long) (wallElapsedMillis * speedFactor) + manualOffsetMillis.get();
+    }
+
+    public void advance(Duration simDuration) {
+        manualOffsetMillis.addAndGet(simDuration.toMillis());
+    }
+
+    // Cât wall-clock corespunde unei durate simulate (ex. frecvența CRITICAL de 30s la 60x -> 500ms)
+    public long toWallMillis(Duration simDuration) {
+        if (speedFactor == 0.0) return 0L;
+        return Math.max(1L, (long) (simDuration.toMillis() / speedFactor));
+    }
+
+    public boolean isManual() {
+        return speedFactor == 0.0;
+    }
+
+    public double getSpeedFactor() {
+        return speedFactor;
+    }
+
+    public LocalDateTime getSimStart() {
+        return simStart;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SimulationClock{start=%s, speed=%.1fx, now=%s}",
+                simStart, speedFactor, now());
+    }
+}
@@ -0,0 +1,98 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch.simulation;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Flotă de pacienți virtuali care partajează același ceas de simulare
+// Același (fleetSeed, patientCount) produce mereu aceiași pacienți cu aceleași semnale
+public class SyntheticPatientFleet {
+
+    private static final String TAG = "SyntheticPatientFleet";
+
+    private final long fleetSeed;
+    private final SimulationClock clock;
+    private final List<SyntheticPatientWatchManager> patients;
+
+    public SyntheticPatientFleet(long fleetSeed, int patientCount, SimulationClock clock) {
+        if (patientCount <= 0) {
+            throw new IllegalArgumentException("patientCount must be > 0: " + patientCount);
+        }
+        this.fleetSeed = fleetSeed;
+        this.clock = clock;
+
+        List<SyntheticPatientWatchManager> managers = new ArrayList<>(patientCount);
+        for (int i = 0; i < patientCount; i++) {
+            managers.add(new SyntheticPatientWatchManager(SyntheticPatientProfile.generate(fleetSeed, i), clock));
+        }
+        this.patients = Collections.unmodifiableList(managers);
+
+        Log.d(TAG, "🧪 Synthetic fleet created: " + patientCount + " patients, seed=" + fleetSeed + ", " + clock);
+    }
+
+    public void connectAll() {
+        for (SyntheticPatientWatchManager patient : patients) {
+            patient.connect();
+        }
+    }
+
+    public void disconnectAll() {
+        for (SyntheticPatientWatchManager patient : patients) {
+            patient.disconnect();
+        }
+    }
+
+    public List<SyntheticPatientWatchManager> getPatients() {
+        return patients;
+    }
+
+    public SyntheticPatientWatchManager getPatient(int index) {
+        return patients.get(index);
+    }
+
+    public int size() {
+        return patients.size();
+    }
+
+    public long getFleetSeed() {
+        return fleetSeed;
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    public long getTotalReadingsGenerated() {
+        long total = 0;
+        for (SyntheticPatientWatchManager patient : patients) {
+            total += patient.getReadingsGenerated();
+        }
+        return total;
+    }
+
+    public String getFleetSummary() {
+        int withDesaturation = 0;
+        int fallProne = 0;
+        double restingHeartRateSum = 0;
+        for (SyntheticPatientWatchManager patient : patients) {
+            SyntheticPatientProfile profile = patient.getProfile();
+            if (profile.desaturationPropensity >= 0.4) withDesaturation++;
+            if (profile.fallsPerDay >= 0.1) fallProne++;
+            restingHeartRateSum += profile.restingHeartRate;
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("Synthetic Patient Fleet:\n");
+        summary.append("- Seed: ").append(fleetSeed).append("\n");
+        summary.append("- Patients: ").append(patients.size()).append("\n");
+        summary.append("- Clock: ").append(clock).append("\n");
+        summary.append(String.format(Locale.US, "- Mean resting HR: %.1f bpm\n", restingHeartRateSum / patients.size()));
+        summary.append("- Sleep desaturation profiles: ").append(withDesaturation).append("\n");
+        summary.append("- Fall-prone profiles: ").append(fallProne).append("\n");
+        summary.append("- Readings generated: ").append(getTotalReadingsGenerated());
+        return summary.toString();
+    }
+}
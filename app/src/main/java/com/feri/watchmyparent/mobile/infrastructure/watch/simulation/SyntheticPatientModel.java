@@ -0,0 +1,269 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch.simulation;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Model fiziologic determinist: valoarea unui senzor este o funcție pură de (profil, senzor, timestamp)
+// Nu există stare internă -> aceeași secundă simulată produce mereu aceeași valoare, indiferent de
+// ordinea sau frecvența citirilor (replay reproductibil, citiri concurente fără sincronizare)
+public class SyntheticPatientModel {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    // Stream-uri de zgomot independente
+    private static final long STREAM_BEDTIME = 1;
+    private static final long STREAM_SLEEP_DURATION = 2;
+    private static final long STREAM_ACTIVITY = 3;
+    private static final long STREAM_WALK_BOUT = 4;
+    private static final long STREAM_FALL = 5;
+    private static final long STREAM_DESATURATION = 6;
+    private static final long STREAM_DESATURATION_DEPTH = 7;
+    private static final long STREAM_DAILY_STEPS = 8;
+    private static final long STREAM_SENSOR_BASE = 100;
+
+    private static final long ACCELEROMETER_STREAM = STREAM_SENSOR_BASE + SensorType.ACCELEROMETER.ordinal() * 4L;
+
+    private static final int FALL_EFFECT_MINUTES = 15;
+
+    private final SyntheticPatientProfile profile;
+    private final long seed;
+
+    public SyntheticPatientModel(SyntheticPatientProfile profile) {
+        this.profile = profile;
+        this.seed = profile.seed;
+    }
+
+    public double valueAt(SensorType sensorType, LocalDateTime time) {
+        long sec = time.toEpochSecond(ZoneOffset.UTC);
+        long stream = STREAM_SENSOR_BASE + sensorType.ordinal() * 4L;
+        boolean asleep = isAsleep(sec);
+        double hour = hourOfDay(sec);
+
+        switch (sensorType) {
+            case HEART_RATE: {
+                double value = profile.restingHeartRate
+                        + profile.circadianHeartRateAmplitude * Math.cos(2 * Math.PI * (hour - 15) / 24)
+                        + (asleep ? -6 : 0)
+                        + activityLevel(sec, asleep) * 30
+                        + smooth(stream, sec, 120) * 2.5
+                        + gauss(stream + 1, sec) * 1.0
+                        + fallResponse(sec) * 25;
+                return Math.round(clamp(value, 35, 190));
+            }
+            case BLOOD_OXYGEN: {
+                double value = profile.spo2Baseline + smooth(stream, sec, 600) * 0.6 - desaturation(sec, asleep);
+                return round(clamp(value, 80, 100), 1);
+            }
+            case BLOOD_PRESSURE: {
+                // Morning surge în jurul orei 8 + efect de activitate, dipping nocturn
+                double value = profile.systolicBaseline
+                        + 10 * Math.exp(-((hour - 8) * (hour - 8)) / 4)
+                        + activityLevel(sec, asleep) * 12
+                        - (asleep ? 10 : 0)
+                        + smooth(stream, sec, 900) * 4;
+                return Math.round(clamp(value, 80, 220));
+            }
+            case BODY_TEMPERATURE: {
+                double value = profile.bodyTemperatureBaseline
+                        + 0.35 * Math.cos(2 * Math.PI * (hour - 17) / 24)
+                        + smooth(stream, sec, 1800) * 0.08;
+                return round(value, 2);
+            }
+            case SLEEP:
+                return round(sleepHoursAt(sec, asleep), 2);
+            case STEP_COUNT:
+                return stepsSinceMidnight(sec);
+            case FALL_DETECTION:
+                return isFallMinute(Math.floorDiv(sec, 60)) ? 1.0 : 0.0;
+            case STRESS: {
+                double value = profile.stressBaseline
+                        + smooth(stream, sec, 1200) * 8
+                        + activityLevel(sec, asleep) * 10
+                        + fallResponse(sec) * 35
+                        - (asleep ? 12 : 0);
+                return Math.round(clamp(value, 1, 100));
+            }
+            case ACCELEROMETER:
+                return round(accelerationMagnitude(stream, sec, asleep), 3);
+            case LINEAR_ACCELERATION:
+                // Același stream ca ACCELEROMETER -> cele două citiri rămân consistente
+                return round(Math.abs(accelerationMagnitude(ACCELEROMETER_STREAM, sec, asleep) - 9.81), 3);
+            case GYROSCOPE:
+                return round(activityLevel(sec, asleep) * 2.0 + Math.abs(gauss(stream, sec)) * 0.1
+                        + (isFallMinute(Math.floorDiv(sec, 60)) ? 4.0 : 0.0), 3);
+            case GRAVITY:
+                return round(9.81 + gauss(stream, sec) * 0.02, 3);
+            case ROTATION:
+                return round(smooth(stream, sec, 300) * Math.PI / 3, 3);
+            case ORIENTATION:
+                return round(((smooth(stream, sec, 600) * 120) % 360 + 360) % 360, 1);
+            case MAGNETIC_FIELD:
+                return round(45 + smooth(stream, sec, 300) * 8, 1);
+            case LIGHT: {
+                if (asleep) return round(Math.abs(gauss(stream, sec)) * 2, 1);
+                double daylight = Math.max(0, Math.sin(Math.PI * (hour - 6) / 14));
+                return round(50 + daylight * 800 * (0.6 + 0.4 * toUnit(hash(stream, Math.floorDiv(sec, 900), 0))), 1);
+            }
+            case PROXIMITY:
+                return 0.0; // Ceasul este purtat pe încheietură
+            default:
+                return 0.0;
+        }
+    }
+
+    // ========== SOMN ==========
+
+    public boolean isAsleep(LocalDateTime time) {
+        return isAsleep(time.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private boolean isAsleep(long sec) {
+        long day = Math.floorDiv(sec, SECONDS_PER_DAY);
+        return (sec >= sleepOnset(day - 1) && sec < wakeUp(day - 1))
+                || (sec >= sleepOnset(day) && sec < wakeUp(day));
+    }
+
+    // Noaptea "day" începe seara zilei day și se termină dimineața zilei day + 1
+    private long sleepOnset(long day) {
+        // Ora de culcare rămâne în aceeași zi calendaristică -> e suficient să verificăm nopțile day - 1 și day
+        double bedtime = clamp(profile.bedtimeHour + gauss(STREAM_BEDTIME, day) * 0.4, 19, 23.9);
+        return day * SECONDS_PER_DAY + (long) (bedtime * 3600);
+    }
+
+    private long wakeUp(long day) {
+        return sleepOnset(day) + (long) (sleepDuration(day) * 3600);
+    }
+
+    private double sleepDuration(long day) {
+        return clamp(profile.sleepHours + gauss(STREAM_SLEEP_DURATION, day) * 0.5, 3, 11);
+    }
+
+    // Durata somnului curent (dacă doarme) sau a ultimei nopți complete
+    private double sleepHoursAt(long sec, boolean asleep) {
+        long day = Math.floorDiv(sec, SECONDS_PER_DAY);
+        if (asleep) {
+            long onset = sec >= sleepOnset(day) ? sleepOnset(day) : sleepOnset(day - 1);
+            return (sec - onset) / 3600.0;
+        }
+        return sleepDuration(day - 1);
+    }
+
+    // ========== ACTIVITATE ==========
+
+    public double activityLevel(LocalDateTime time) {
+        long sec = time.toEpochSecond(ZoneOffset.UTC);
+        return activityLevel(sec, isAsleep(sec));
+    }
+
+    private double activityLevel(long sec, boolean asleep) {
+        if (asleep) return 0.05;
+        double hour = hourOfDay(sec);
+        double level = 0.25
+                + 0.15 * Math.exp(-((hour - 10) * (hour - 10)) / 4)
+                + 0.15 * Math.exp(-((hour - 16) * (hour - 16)) / 4)
+                + 0.1 * smooth(STREAM_ACTIVITY, sec, 900);
+        if (toUnit(hash(STREAM_WALK_BOUT, Math.floorDiv(sec, 600), 0)) < profile.walkBoutProbability) {
+            level += 0.5;
+        }
+        return clamp(level, 0, 1);
+    }
+
+    // Pași cumulați de la miezul nopții - monotoni în cadrul zilei, distribuiți pe fereastra de veghe
+    private double stepsSinceMidnight(long sec) {
+        long day = Math.floorDiv(sec, SECONDS_PER_DAY);
+        long awakeStart = wakeUp(day - 1);
+        long awakeEnd = sleepOnset(day);
+        double fraction = clamp((double) (sec - awakeStart) / (awakeEnd - awakeStart), 0, 1);
+        double shaped = fraction * fraction * (3 - 2 * fraction);
+        double dailyTarget = profile.dailyStepsTarget * (0.6 + 0.8 * toUnit(hash(STREAM_DAILY_STEPS, day, 0)));
+        return Math.floor(dailyTarget * shaped);
+    }
+
+    private double accelerationMagnitude(long stream, long sec, boolean asleep) {
+        if (isFallMinute(Math.floorDiv(sec, 60))) {
+            return 28 + gauss(stream, sec) * 3;
+        }
+        return 9.81 + activityLevel(sec, asleep) * 3 * Math.abs(gauss(stream, sec));
+    }
+
+    // ========== EVENIMENTE ==========
+
+    public boolean isFallAt(LocalDateTime time) {
+        return isFallMinute(Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    private boolean isFallMinute(long minute) {
+        return toUnit(hash(STREAM_FALL, minute, 0)) < profile.fallsPerDay / 1440.0;
+    }
+
+    // 1.0 imediat după o cădere, scade liniar la 0 în FALL_EFFECT_MINUTES
+    private double fallResponse(long sec) {
+        long minute = Math.floorDiv(sec, 60);
+        for (int k = 0; k < FALL_EFFECT_MINUTES; k++) {
+            if (isFallMinute(minute - k)) {
+                return 1.0 - (double) k / FALL_EFFECT_MINUTES;
+            }
+        }
+        return 0.0;
+    }
+
+    // Episoade de desaturare (apnee) în ferestre de 5 minute, doar în timpul somnului
+    private double desaturation(long sec, boolean asleep) {
+        if (!asleep || profile.desaturationPropensity <= 0) return 0.0;
+        long bucket = Math.floorDiv(sec, 300);
+        if (toUnit(hash(STREAM_DESATURATION, bucket, 0)) >= profile.desaturationPropensity * 0.25) return 0.0;
+        double depth = 2 + toUnit(hash(STREAM_DESATURATION_DEPTH, bucket, 0)) * (3 + 6 * profile.desaturationPropensity);
+        double phase = (sec - bucket * 300) / 300.0;
+        return depth * Math.sin(Math.PI * phase);
+    }
+
+    // ========== ZGOMOT DETERMINIST ==========
+
+    private long hash(long stream, long bucket, long salt) {
+        return mix(seed + stream * 0x9E3779B97F4A7C15L + mix(bucket * 0xBF58476D1CE4E5B9L + salt));
+    }
+
+    private double gauss(long stream, long bucket) {
+        double u1 = Math.max(1e-12, toUnit(hash(stream, bucket, 0)));
+        double u2 = toUnit(hash(stream, bucket, 1));
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    // Value noise interpolat (cosinus) - variație lentă, continuă în timp
+    private double smooth(long stream, long sec, long periodSeconds) {
+        long bucket = Math.floorDiv(sec, periodSeconds);
+        double f = (double) (sec - bucket * periodSeconds) / periodSeconds;
+        double w = (1 - Math.cos(Math.PI * f)) / 2;
+        return gauss(stream, bucket) * (1 - w) + gauss(stream, bucket + 1) * w;
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static double toUnit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    private static double hourOfDay(long sec) {
+        return Math.floorMod(sec, SECONDS_PER_DAY) / 3600.0;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    public SyntheticPatientProfile getProfile() {
+        return profile;
+    }
+}
@@ -0,0 +1,81 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch.simulation;
+
+import java.util.Locale;
+
+// Parametrii fiziologici ai unui pacient virtual - derivați determinist din (fleetSeed, patientIndex)
+// Intervalele sunt alese pentru o populație vârstnică (65-95 ani)
+public class SyntheticPatientProfile {
+
+    public final long seed;
+    public final int patientIndex;
+    public final String patientId;
+    public final int age;
+
+    // Heart rate (bpm)
+    public final double restingHeartRate;
+    public final double circadianHeartRateAmplitude;
+
+    // SpO2 (%) - desaturationPropensity ~ severitatea apneei în somn (0 = fără episoade)
+    public final double spo2Baseline;
+    public final double desaturationPropensity;
+
+    // Blood pressure (mmHg, sistolică)
+    public final double systolicBaseline;
+
+    // Body temperature (°C)
+    public final double bodyTemperatureBaseline;
+
+    // Sleep - ora de culcare (ore de la miezul nopții, poate depăși 24) și durata medie
+    public final double bedtimeHour;
+    public final double sleepHours;
+
+    // Activitate
+    public final int dailyStepsTarget;
+    public final double walkBoutProbability;
+
+    // Căderi pe zi (rata Poisson)
+    public final double fallsPerDay;
+
+    // Stres (scor 0-100)
+    public final double stressBaseline;
+
+    private SyntheticPatientProfile(long seed, int patientIndex) {
+        this.seed = seed;
+        this.patientIndex = patientIndex;
+        this.patientId = String.format(Locale.US, "sim-patient-%05d", patientIndex);
+
+        this.age = 65 + (int) (uniform(1) * 30);
+        this.restingHeartRate = 55 + uniform(2) * 25;
+        this.circadianHeartRateAmplitude = 4 + uniform(3) * 8;
+        this.spo2Baseline = 94.0 + uniform(4) * 4.5;
+        // ~20% dintre pacienți au episoade de desaturare semnificative
+        this.desaturationPropensity = uniform(5) < 0.2 ? 0.4 + uniform(6) * 0.6 : uniform(6) * 0.15;
+        this.systolicBaseline = 110 + uniform(7) * 40;
+        this.bodyTemperatureBaseline = 36.2 + uniform(8) * 0.6;
+        this.bedtimeHour = 21.0 + uniform(9) * 2.5;
+        this.sleepHours = 6.0 + uniform(10) * 3.0;
+        this.dailyStepsTarget = 1500 + (int) (uniform(11) * 6500);
+        this.walkBoutProbability = 0.05 + uniform(12) * 0.25;
+        // Majoritatea < 1 cădere/lună, o minoritate fragilă ~1 cădere/săptămână
+        this.fallsPerDay = uniform(13) < 0.1 ? 0.1 + uniform(14) * 0.1 : uniform(14) * 0.03;
+        this.stressBaseline = 20 + uniform(15) * 30;
+    }
+
+    public static SyntheticPatientProfile generate(long fleetSeed, int patientIndex) {
+        return new SyntheticPatientProfile(SyntheticPatientModel.mix(fleetSeed + 0x9E3779B97F4A7C15L * (patientIndex + 1)),
+                patientIndex);
+    }
+
+    private double uniform(int parameter) {
+        return SyntheticPatientModel.toUnit(SyntheticPatientModel.mix(seed ^ (parameter * 0xD1B54A32D192ED03L)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "SyntheticPatientProfile{id=%s, age=%d, restingHR=%.0f, spo2=%.1f, desat=%.2f, " +
+                        "systolic=%.0f, bedtime=%.1fh, sleep=%.1fh, steps=%d, falls/day=%.3f}",
+                patientId, age, restingHeartRate, spo2Baseline, desaturationPropensity,
+                systolicBaseline, bedtimeHour, sleepHours, dailyStepsTarget, fallsPerDay);
+    }
+}
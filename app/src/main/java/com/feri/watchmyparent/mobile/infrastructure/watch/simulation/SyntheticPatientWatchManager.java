@@ -0,0 +1,151 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch.simulation;
+
+import android.util.Log;
+
+import com.feri.watchmyparent.mobile.application.interfaces.SensorDataReader;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ceas virtual pentru un pacient sintetic - înlocuiește RealSamsungHealthManager în simulări headless pe JVM
+// Nu depinde de Context / Health Connect / SensorManager; valorile vin din SyntheticPatientModel
+public class SyntheticPatientWatchManager extends WatchManager implements SensorDataReader {
+
+    private static final String TAG = "SyntheticWatchManager";
+
+    public static final String CONNECTION_TYPE = "SIMULATED";
+
+    // LOCATION vine de la telefon, nu de la ceas
+    private static final Set<SensorType> SUPPORTED_SENSORS;
+    static {
+        Set<SensorType> sensors = EnumSet.allOf(SensorType.class);
+        sensors.remove(SensorType.LOCATION);
+        SUPPORTED_SENSORS = Collections.unmodifiableSet(sensors);
+    }
+
+    private final SyntheticPatientProfile profile;
+    private final SyntheticPatientModel model;
+    private final SimulationClock clock;
+    private final Map<SensorType, Integer> sensorFrequencies = new ConcurrentHashMap<>();
+    private final AtomicLong readingsGenerated = new AtomicLong();
+
+    public SyntheticPatientWatchManager(SyntheticPatientProfile profile, SimulationClock clock) {
+        super();
+        this.profile = profile;
+        this.model = new SyntheticPatientModel(profile);
+        this.clock = clock;
+        this.deviceId = "sim-watch-" + profile.patientId;
+    }
+
+    // Toate operațiile se completează sincron (completedFuture) - mii de pacienți nu trebuie
+    // să concureze pentru ForkJoinPool.commonPool() doar ca să calculeze o valoare
+    @Override
+    public CompletableFuture<Boolean> connect() {
+        isConnected = true;
+        Log.d(TAG, "✅ Simulated watch connected: " + deviceId);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> disconnect() {
+        isConnected = false;
+        Log.d(TAG, "🔌 Simulated watch disconnected: " + deviceId);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<List<SensorReading>> readSensorData(List<SensorType> sensorTypes) {
+        List<SensorReading> readings = new ArrayList<>();
+        if (!isConnected) {
+            return CompletableFuture.completedFuture(readings);
+        }
+
+        // O singură citire a ceasului -> toate valorile din batch au același timestamp
+        LocalDateTime now = clock.now();
+        for (SensorType sensorType : sensorTypes) {
+            if (SUPPORTED_SENSORS.contains(sensorType)) {
+                readings.add(createReading(sensorType, now));
+            }
+        }
+        return CompletableFuture.completedFuture(readings);
+    }
+
+    @Override
+    public CompletableFuture<SensorReading> readSingleSensor(SensorType sensorType) {
+        if (!isConnected || !SUPPORTED_SENSORS.contains(sensorType)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.completedFuture(createReading(sensorType, clock.now()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isSensorAvailable(SensorType sensorType) {
+        return CompletableFuture.completedFuture(SUPPORTED_SENSORS.contains(sensorType));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> configureSensorFrequency(SensorType sensorType, int frequencySeconds) {
+        sensorFrequencies.put(sensorType, frequencySeconds);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isDeviceAvailable() {
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<List<SensorType>> getSupportedSensors() {
+        return CompletableFuture.completedFuture(new ArrayList<>(SUPPORTED_SENSORS));
+    }
+
+    // Citire la un moment arbitrar (replay / verificări de determinism), fără a consulta ceasul
+    public SensorReading readAt(SensorType sensorType, LocalDateTime time) {
+        return createReading(sensorType, time);
+    }
+
+    private SensorReading createReading(SensorType sensorType, LocalDateTime time) {
+        SensorReading reading = new SensorReading(sensorType, model.valueAt(sensorType, time), deviceId);
+        reading.setTimestamp(time);
+        reading.setConnectionType(CONNECTION_TYPE);
+        reading.setAccuracy(1.0);
+        reading.setMetadata("source=simulator,patient=" + profile.patientId);
+        readingsGenerated.incrementAndGet();
+        return reading;
+    }
+
+    public SyntheticPatientProfile getProfile() {
+        return profile;
+    }
+
+    public SyntheticPatientModel getModel() {
+        return model;
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    public String getPatientId() {
+        return profile.patientId;
+    }
+
+    public Integer getSensorFrequency(SensorType sensorType) {
+        return sensorFrequencies.get(sensorType);
+    }
+
+    public long getReadingsGenerated() {
+        return readingsGenerated.get();
+    }
+}
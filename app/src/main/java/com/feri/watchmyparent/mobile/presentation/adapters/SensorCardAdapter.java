@@ -24,6 +24,7 @@ public class SensorCardAdapter extends RecyclerView.Adapter<SensorCardAdapter.Se
 
     private final OnSensorToggleListener toggleListener;
     private final OnFrequencyChangeListener frequencyListener;
+    private OnSensorSelectedListener selectedListener;
 
     public interface OnSensorToggleListener {
         void onSensorToggle(SensorConfigurationDTO config);
@@ -33,11 +34,20 @@ public class SensorCardAdapter extends RecyclerView.Adapter<SensorCardAdapter.Se
         void onFrequencyChange(SensorConfigurationDTO config, int newFrequency);
     }
 
+    // ✅ NEW: Selectarea unui card (ex. istoricul senzorului)
+    public interface OnSensorSelectedListener {
+        void onSensorSelected(SensorConfigurationDTO config);
+    }
+
     public SensorCardAdapter(OnSensorToggleListener toggleListener, OnFrequencyChangeListener frequencyListener) {
         this.toggleListener = toggleListener;
         this.frequencyListener = frequencyListener;
     }
 
+    public void setOnSensorSelectedListener(OnSensorSelectedListener selectedListener) {
+        this.selectedListener = selectedListener;
+    }
+
     public void updateConfigurations(List<SensorConfigurationDTO> configs) {
         this.configurations.clear();
         if (configs != null) {
@@ -120,6 +130,13 @@ public class SensorCardAdapter extends RecyclerView.Adapter<SensorCardAdapter.Se
                 currentValueText.setVisibility(View.VISIBLE);
             }
 
+            // Card click - istoricul senzorului
+            itemView.setOnClickListener(v -> {
+                if (selectedListener != null) {
+                    selectedListener.onSensorSelected(config);
+                }
+            });
+
             // Frequency display
             frequencyText.setText(config.getFormattedFrequency());
 
@@ -52,9 +52,16 @@ public class SensorDataAdapter extends RecyclerView.Adapter<SensorDataAdapter.Se
         private final TextView sensorValueText;
         private final TextView timestampText;
         private final View transmissionIndicator;
+        private final DateTimeFormatter timestampFormatter;
 
         public SensorViewHolder(@NonNull View itemView) {
+            this(itemView, DateTimeFormatter.ofPattern("HH:mm:ss"));
+        }
+
+        // ✅ NEW: Istoricul afișează și data, nu doar ora
+        public SensorViewHolder(@NonNull View itemView, DateTimeFormatter timestampFormatter) {
             super(itemView);
+            this.timestampFormatter = timestampFormatter;
             sensorNameText = itemView.findViewById(R.id.tv_sensor_name);
             sensorValueText = itemView.findViewById(R.id.tv_sensor_value);
             timestampText = itemView.findViewById(R.id.tv_timestamp);
@@ -76,7 +83,7 @@ public class SensorDataAdapter extends RecyclerView.Adapter<SensorDataAdapter.Se
 
             // Timestamp
             if (sensor.getTimestamp() != null) {
-                timestampText.setText(sensor.getTimestamp().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+                timestampText.setText(sensor.getTimestamp().format(timestampFormatter));
             } else {
                 timestampText.setText("--:--:--");
             }
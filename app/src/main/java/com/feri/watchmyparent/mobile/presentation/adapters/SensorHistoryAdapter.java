@@ -0,0 +1,78 @@
+package com.feri.watchmyparent.mobile.presentation.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.feri.watchmyparent.mobile.R;
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryKey;
+import com.feri.watchmyparent.mobile.infrastructure.database.KeysetPager;
+
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+// ✅ NEW: Istoricul senzorilor, citit direct din fereastra KeysetPager-ului. Fiecare bind anunță poziția,
+// iar pager-ul încarcă/eliberează pagini în avans - adapter-ul nu ține nicio copie a datelor
+public class SensorHistoryAdapter extends RecyclerView.Adapter<SensorDataAdapter.SensorViewHolder>
+        implements KeysetPager.Listener {
+
+    private final DateTimeFormatter timestampFormatter = DateTimeFormatter.ofPattern("dd.MM HH:mm:ss");
+    private KeysetPager<SensorHistoryKey, SensorDataDTO> pager;
+    private final Consumer<Throwable> loadErrorListener;
+
+    public SensorHistoryAdapter(Consumer<Throwable> loadErrorListener) {
+        this.loadErrorListener = loadErrorListener;
+    }
+
+    public void setPager(KeysetPager<SensorHistoryKey, SensorDataDTO> newPager) {
+        if (pager == newPager) return;
+        if (pager != null) {
+            pager.setListener(null);
+        }
+        pager = newPager;
+        if (pager != null) {
+            pager.setListener(this);
+        }
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public SensorDataAdapter.SensorViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_sensor_data, parent, false);
+        return new SensorDataAdapter.SensorViewHolder(view, timestampFormatter);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SensorDataAdapter.SensorViewHolder holder, int position) {
+        if (pager == null || position >= pager.size()) return;
+        // Rezultatele ajung prin Handler, după layout - notificările nu rulează în timpul bind-ului
+        pager.loadAround(position);
+        holder.bind(pager.get(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return pager != null ? pager.size() : 0;
+    }
+
+    @Override
+    public void onItemsInserted(int position, int count) {
+        notifyItemRangeInserted(position, count);
+    }
+
+    @Override
+    public void onItemsRemoved(int position, int count) {
+        notifyItemRangeRemoved(position, count);
+    }
+
+    @Override
+    public void onLoadFailed(Throwable error) {
+        if (loadErrorListener != null) {
+            loadErrorListener.accept(error);
+        }
+    }
+}
@@ -4,6 +4,11 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import java.util.function.Consumer;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+
 public abstract class BaseViewModel extends ViewModel {
 
     // ✅ CORECTAT: Eliminat asteriskurile din nume
@@ -11,6 +16,9 @@ public abstract class BaseViewModel extends ViewModel {
     protected final MutableLiveData<String> _error = new MutableLiveData<>();
     protected final MutableLiveData<String> _success = new MutableLiveData<>();
 
+    // ✅ NEW: Abonările la query-urile observabile trăiesc cât ViewModel-ul
+    private final CompositeDisposable subscriptions = new CompositeDisposable();
+
     // Public getters
     public LiveData<Boolean> getIsLoading() { return _isLoading; }
     public LiveData<String> getError() { return _error; }
@@ -45,9 +53,21 @@ public abstract class BaseViewModel extends ViewModel {
         _success.setValue(null);
     }
 
+    // ✅ NEW: Abonare legată de ViewModel. Valorile sosesc pe thread-urile Room/RxJava, deci callback-urile
+    // trebuie să folosească postValue; fluxul se oprește la prima eroare
+    protected <T> void observe(Flowable<T> source, Consumer<T> onNext, Consumer<Throwable> onError) {
+        subscriptions.add(source.subscribe(onNext::accept, onError::accept));
+    }
+
+    // ✅ NEW: Oprește abonările curente (ex. la schimbarea pacientului); ViewModel-ul poate deschide altele
+    protected void clearSubscriptions() {
+        subscriptions.clear();
+    }
+
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Cleanup logic can be added here if needed
+        // ✅ MODIFICAT: Eliberează abonările - upstream-ul partajat se oprește când pleacă ultimul ecran
+        subscriptions.dispose();
     }
 }
\ No newline at end of file
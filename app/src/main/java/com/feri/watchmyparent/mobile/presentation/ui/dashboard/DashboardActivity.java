@@ -81,6 +81,9 @@ public class DashboardActivity extends BaseActivity {
 
         // Load initial data
         viewModel.loadDashboardData();
+
+        // ✅ NEW: Reper în timeline-ul de pornire (primul ecran creat)
+        ((WatchMyParentApplication) getApplication()).getStartupTimeline().mark("dashboard-created");
     }
 
     private void initializeViews() {
@@ -114,6 +117,11 @@ public class DashboardActivity extends BaseActivity {
         // ✅ NEW: Setup button click listener
         watchSetupButton.setOnClickListener(v -> openWatchSetup());
         fabWatchSetup.setOnClickListener(v -> openWatchSetup());
+        // ✅ NEW: Apăsare lungă - un ceas în plus pentru pacientul curent
+        fabWatchSetup.setOnLongClickListener(v -> {
+            startActivity(RealWatchSetupActivity.createIntent(this, null, true));
+            return true;
+        });
     }
 
     private void setupRecyclerView() {
@@ -238,8 +246,7 @@ public class DashboardActivity extends BaseActivity {
     }
 
     private void openWatchSetup() {
-        Intent intent = new Intent(this, RealWatchSetupActivity.class);
-        startActivity(intent);
+        startActivity(RealWatchSetupActivity.createIntent(this, null, false));
     }
 
     private void initializeDemoDataIfNeeded() {
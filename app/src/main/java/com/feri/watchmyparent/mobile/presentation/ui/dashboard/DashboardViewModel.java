@@ -13,6 +13,7 @@ import com.feri.watchmyparent.mobile.application.services.WatchConnectionApplica
 import com.feri.watchmyparent.mobile.domain.enums.SensorType;
 import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
 import com.feri.watchmyparent.mobile.infrastructure.database.PostgreSQLConfig;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
 import com.feri.watchmyparent.mobile.presentation.ui.common.BaseViewModel;
 
 import javax.inject.Inject;
@@ -20,6 +21,7 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @HiltViewModel
 public class DashboardViewModel extends BaseViewModel {
@@ -34,6 +36,7 @@ public class DashboardViewModel extends BaseViewModel {
     // ✅ Infrastructure pentru testare
     private final PostgreSQLConfig postgreSQLConfig;
     private final RealHealthDataKafkaProducer kafkaProducer;
+    private final PatientRegistry patientRegistry; // ✅ NEW: pacientul asociat ceasului
 
     // ✅ DOAR DTO-uri pentru prezentare - respectă separation of concerns
     private final MutableLiveData<WatchConnectionStatusDTO> _connectionStatus = new MutableLiveData<>();
@@ -42,7 +45,11 @@ public class DashboardViewModel extends BaseViewModel {
     private final MutableLiveData<String> _kafkaStatus = new MutableLiveData<>();
     private final MutableLiveData<String> _postgreSQLStatus = new MutableLiveData<>();
 
-    private final String currentUserId = "demo-user-id";
+    // ✅ MODIFICAT: Pacientul asociat ceasului, nu un id fix. Fluxurile de locație și citiri se deschid o singură
+    // dată per pacient - dacă asocierea s-a schimbat între load-uri (ex. după setup-ul ceasului), sunt redeschise
+    private volatile String currentUserId;
+    private volatile boolean observingLocation = false;
+    private volatile boolean observingSensorData = false;
 
     @Inject
     public DashboardViewModel(
@@ -50,12 +57,15 @@ public class DashboardViewModel extends BaseViewModel {
             HealthDataApplicationService healthDataService,
             LocationApplicationService locationService,
             PostgreSQLConfig postgreSQLConfig,
-            RealHealthDataKafkaProducer kafkaProducer) {
+            RealHealthDataKafkaProducer kafkaProducer,
+            PatientRegistry patientRegistry) {
         this.watchConnectionService = watchConnectionService;
         this.healthDataService = healthDataService;
         this.locationService = locationService;
         this.postgreSQLConfig = postgreSQLConfig;
         this.kafkaProducer = kafkaProducer;
+        this.patientRegistry = patientRegistry;
+        this.currentUserId = patientRegistry.getPrimaryUserId();
     }
 
     // ✅ Getters pentru DTO-uri - clean interface
@@ -67,55 +77,74 @@ public class DashboardViewModel extends BaseViewModel {
 
     public void loadDashboardData() {
         setLoading(true);
+        followPrimaryPatient();
         loadConnectionStatus();
-        loadLocationStatus();
-        loadLatestSensorData();
+        observeLocationStatus();
+        observeLatestSensorData();
         testInfrastructureStatus();
     }
 
+    // ✅ NEW: Închide fluxurile pacientului anterior; următoarele observe le deschid pentru cel curent
+    private void followPrimaryPatient() {
+        String userId = patientRegistry.getPrimaryUserId();
+        if (userId.equals(currentUserId)) return;
+        clearSubscriptions();
+        observingLocation = false;
+        observingSensorData = false;
+        currentUserId = userId;
+        Log.d(TAG, "👤 Dashboard patient: " + userId);
+    }
+
     private void loadConnectionStatus() {
         WatchConnectionStatusDTO status = watchConnectionService.getCurrentStatus();
         _connectionStatus.setValue(status);
     }
 
-    private void loadLocationStatus() {
-        locationService.getLastLocation(currentUserId)
-                .thenAccept(locationOpt -> {
+    // ✅ MODIFICAT: Locația vine din fluxul partajat al bazei locale - se actualizează singură la fiecare salvare
+    private void observeLocationStatus() {
+        if (observingLocation) return;
+        observingLocation = true;
+        observe(locationService.observeLastLocation(currentUserId),
+                locationOpt -> {
                     if (locationOpt.isPresent()) {
                         // Convert LocationData to LocationDataDTO
-                        LocationDataDTO dto = convertLocationToDTO(locationOpt.get());
-                        _locationStatus.postValue(dto);
+                        _locationStatus.postValue(convertLocationToDTO(locationOpt.get()));
                     } else {
                         // Create a default LocationDataDTO when no location is found
-                        LocationDataDTO defaultDto = createDefaultLocationDTO();
-                        _locationStatus.postValue(defaultDto);
+                        _locationStatus.postValue(createDefaultLocationDTO());
                     }
-                })
-                .exceptionally(throwable -> {
-                    Log.e(TAG, "Error loading location status", throwable);
-                    // Use postValue for background thread
+                },
+                throwable -> {
+                    Log.e(TAG, "Error observing location status", throwable);
+                    observingLocation = false;
                     LocationDataDTO errorDto = createDefaultLocationDTO();
                     errorDto.setStatus("ERROR");
                     errorDto.setAddress("Failed to load location");
                     _locationStatus.postValue(errorDto);
-                    return null;
                 });
     }
 
-    private void loadLatestSensorData() {
-        healthDataService.getLatestSensorData(currentUserId)
-                .thenAccept(sensorData -> {
-                    // ✅ FIXED: Use postValue instead of setValue for background thread
+    // ✅ MODIFICAT: Ultimele citiri vin din fluxul partajat (distinct per senzor, cel mult o emisie pe cadru),
+    // deci colectarea nu mai trebuie urmată de o re-citire manuală
+    private void observeLatestSensorData() {
+        if (observingSensorData) {
+            post(() -> setLoading(false));
+            return;
+        }
+        observingSensorData = true;
+        AtomicBoolean firstEmission = new AtomicBoolean(true);
+        observe(healthDataService.observeLatestSensorData(currentUserId),
+                sensorData -> {
                     _latestSensorData.postValue(sensorData);
-                    // ✅ FIXED: Use postValue for setLoading too
-                    post(() -> setLoading(false));
-                })
-                .exceptionally(throwable -> {
-                    Log.e(TAG, "Error loading sensor data", throwable);
-                    // ✅ FIXED: Use postValue for background thread
+                    if (firstEmission.compareAndSet(true, false)) {
+                        post(() -> setLoading(false));
+                    }
+                },
+                throwable -> {
+                    Log.e(TAG, "Error observing sensor data", throwable);
+                    observingSensorData = false;
                     _latestSensorData.postValue(new ArrayList<>());
                     post(() -> setError("Failed to load sensor data"));
-                    return null;
                 });
     }
 
@@ -209,8 +238,7 @@ public class DashboardViewModel extends BaseViewModel {
         healthDataService.collectSensorData(currentUserId, List.of(SensorType.values()))
                 .thenAccept(sensorDataList -> {
                     Log.d(TAG, "✅ Collected " + sensorDataList.size() + " REAL sensor readings");
-                    // Refresh the display after collecting new data
-                    loadLatestSensorData();
+                    // Afișajul se actualizează din fluxul observat, după commit-ul citirilor
                     post(() -> setSuccess("📊 REAL sensor data collected successfully (" + sensorDataList.size() + " readings)"));
                 })
                 .exceptionally(throwable -> {
@@ -290,8 +318,8 @@ public class DashboardViewModel extends BaseViewModel {
     private void startDataCollection() {
         Log.d(TAG, "🔄 Starting automatic REAL data collection...");
         // The actual periodic collection is handled by WatchDataCollectionService
-        // This just ensures we have fresh data
-        loadLatestSensorData();
+        // This just ensures we are subscribed to fresh data
+        observeLatestSensorData();
     }
 
     // ✅ Helper method to post to main thread
@@ -4,6 +4,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import com.feri.watchmyparent.mobile.application.dto.LocationDataDTO;
 import com.feri.watchmyparent.mobile.application.services.LocationApplicationService;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
 import com.feri.watchmyparent.mobile.presentation.ui.common.BaseViewModel;
 
 import javax.inject.Inject;
@@ -13,28 +14,42 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 public class LocationStatusViewModel extends BaseViewModel {
 
     private final LocationApplicationService locationService;
+    private final PatientRegistry patientRegistry; // ✅ NEW: pacientul asociat ceasului
     private final MutableLiveData<LocationDataDTO> _locationStatus = new MutableLiveData<>();
 
-    private String currentUserId = "demo-user-id";
+    private volatile String currentUserId; // ✅ MODIFICAT: recitit din PatientRegistry la fiecare load
+    private volatile boolean observing = false;
 
     @Inject
-    public LocationStatusViewModel(LocationApplicationService locationService) {
+    public LocationStatusViewModel(LocationApplicationService locationService, PatientRegistry patientRegistry) {
         this.locationService = locationService;
+        this.patientRegistry = patientRegistry;
+        this.currentUserId = patientRegistry.getPrimaryUserId();
     }
 
     public LiveData<LocationDataDTO> getLocationStatus() { return _locationStatus; }
 
+    // ✅ MODIFICAT: Abonare unică la locația salvată - ecranul se actualizează la fiecare schimbare, fără re-citiri
+    // Dacă ceasul a fost asociat altui pacient, abonarea celui vechi e închisă și deschisă pentru cel nou
     public void loadLocationStatus() {
-        locationService.getCurrentUserLocation(currentUserId)
-                .thenAccept(_locationStatus::postValue)
-                .exceptionally(throwable -> {
-                    setError("Failed to load location status");
-                    return null;
+        String userId = patientRegistry.getPrimaryUserId();
+        if (!userId.equals(currentUserId)) {
+            clearSubscriptions();
+            observing = false;
+            currentUserId = userId;
+        }
+        if (observing) return;
+        observing = true;
+        observe(locationService.observeUserLocation(currentUserId),
+                _locationStatus::postValue,
+                throwable -> {
+                    observing = false;
+                    _error.postValue("Failed to load location status");
                 });
     }
 
     public void updateLocation() {
-        locationService.updateUserLocation(currentUserId)
+        locationService.updateUserLocation(patientRegistry.getPrimaryUserId())
                 .thenAccept(_locationStatus::postValue)
                 .exceptionally(throwable -> {
                     setError("Failed to update location");
@@ -1,13 +1,18 @@
 package com.feri.watchmyparent.mobile.presentation.ui.sensors;
 
 import android.os.Bundle;
+import android.util.Log;
+import android.widget.TextView;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.appcompat.widget.Toolbar;
 import com.feri.watchmyparent.mobile.R;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
 import com.feri.watchmyparent.mobile.presentation.ui.common.BaseActivity;
 import com.feri.watchmyparent.mobile.presentation.adapters.SensorCardAdapter;
+import com.feri.watchmyparent.mobile.presentation.adapters.SensorHistoryAdapter;
 import dagger.hilt.android.AndroidEntryPoint;
 
 @AndroidEntryPoint
@@ -16,6 +21,10 @@ public class SensorDataActivity extends BaseActivity {
     private SensorDataViewModel viewModel;
     private RecyclerView sensorsRecyclerView;
     private SensorCardAdapter sensorCardAdapter;
+    private RecyclerView historyRecyclerView;
+    private SensorHistoryAdapter historyAdapter;
+    private TextView historyTitleText;
+    private SensorType historySensorType;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,10 +39,15 @@ public class SensorDataActivity extends BaseActivity {
         observeViewModel();
 
         viewModel.loadSensorData();
+        if (savedInstanceState == null) {
+            viewModel.showHistory(null);
+        }
     }
 
     private void initializeViews() {
         sensorsRecyclerView = findViewById(R.id.rv_sensors);
+        historyRecyclerView = findViewById(R.id.rv_sensor_history);
+        historyTitleText = findViewById(R.id.tv_history_title);
     }
 
     private void setupRecyclerView() {
@@ -44,6 +58,26 @@ public class SensorDataActivity extends BaseActivity {
 
         sensorsRecyclerView.setLayoutManager(new GridLayoutManager(this, 2));
         sensorsRecyclerView.setAdapter(sensorCardAdapter);
+
+        // ✅ NEW: Click pe card - istoricul senzorului; din nou pe același senzor - toți senzorii
+        sensorCardAdapter.setOnSensorSelectedListener(sensor -> {
+            if (sensor.getSensorType() == null) return;
+            if (sensor.getSensorType() == historySensorType) {
+                historySensorType = null;
+                historyTitleText.setText("History: All sensors");
+            } else {
+                historySensorType = sensor.getSensorType();
+                historyTitleText.setText("History: " + sensor.getDisplayName());
+            }
+            viewModel.showHistory(historySensorType);
+        });
+
+        historyAdapter = new SensorHistoryAdapter(error -> {
+            Log.e("SensorDataActivity", "Error loading sensor history", error);
+            showError("Failed to load sensor history");
+        });
+        historyRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        historyRecyclerView.setAdapter(historyAdapter);
     }
 
     private void observeViewModel() {
@@ -59,8 +93,17 @@ public class SensorDataActivity extends BaseActivity {
             }
         });
 
+        viewModel.getHistory().observe(this, pager -> historyAdapter.setPager(pager));
+
         viewModel.getIsLoading().observe(this, this::showLoading);
         viewModel.getError().observe(this, this::showError);
         viewModel.getSuccess().observe(this, this::showSuccess);
     }
+
+    @Override
+    protected void onDestroy() {
+        // Pager-ul trăiește în ViewModel - nu trebuie să țină referința la adapter-ul activității distruse
+        historyAdapter.setPager(null);
+        super.onDestroy();
+    }
 }
@@ -1,5 +1,7 @@
 package com.feri.watchmyparent.mobile.presentation.ui.sensors;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
@@ -7,10 +9,17 @@ import androidx.lifecycle.MutableLiveData;
 import com.feri.watchmyparent.mobile.application.dto.SensorConfigurationDTO;
 import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
 import com.feri.watchmyparent.mobile.application.services.HealthDataApplicationService;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryKey;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryQuery;
+import com.feri.watchmyparent.mobile.infrastructure.database.KeysetPager;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
 import com.feri.watchmyparent.mobile.presentation.ui.common.BaseViewModel;
 import javax.inject.Inject;
 import dagger.hilt.android.lifecycle.HiltViewModel;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @HiltViewModel
 public class SensorDataViewModel extends BaseViewModel {
@@ -18,15 +27,24 @@ public class SensorDataViewModel extends BaseViewModel {
     private static final String TAG = "SensorDataViewModel";
 
     private final HealthDataApplicationService healthDataService;
+    private final PatientRegistry patientRegistry; // ✅ NEW: pacientul asociat ceasului
 
     private final MutableLiveData<List<SensorConfigurationDTO>> _sensorConfigurations = new MutableLiveData<>();
     private final MutableLiveData<List<SensorDataDTO>> _sensorData = new MutableLiveData<>();
+    // ✅ NEW: Istoricul paginat - pager-ul trăiește în ViewModel, deci fereastra supraviețuiește rotației
+    private final MutableLiveData<KeysetPager<SensorHistoryKey, SensorDataDTO>> _history = new MutableLiveData<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private SensorHistoryQuery historyQuery;
 
-    private String currentUserId = "demo-user-id";
+    // ✅ MODIFICAT: Pacientul asociat ceasului, recitit la fiecare load
+    private volatile String currentUserId;
+    private volatile boolean observingReadings = false;
 
     @Inject
-    public SensorDataViewModel(HealthDataApplicationService healthDataService) {
+    public SensorDataViewModel(HealthDataApplicationService healthDataService, PatientRegistry patientRegistry) {
         this.healthDataService = healthDataService;
+        this.patientRegistry = patientRegistry;
+        this.currentUserId = patientRegistry.getPrimaryUserId();
         Log.d(TAG, "✅ SensorDataViewModel initialized");
     }
 
@@ -39,8 +57,13 @@ public class SensorDataViewModel extends BaseViewModel {
         return _sensorData;
     }
 
+    public LiveData<KeysetPager<SensorHistoryKey, SensorDataDTO>> getHistory() {
+        return _history;
+    }
+
     // CORECTAT: Load sensor data cu error handling proper
     public void loadSensorData() {
+        followPrimaryPatient();
         Log.d(TAG, "🔄 Loading sensor data for user: " + currentUserId);
         setLoading(true);
 
@@ -49,7 +72,7 @@ public class SensorDataViewModel extends BaseViewModel {
                 .thenAccept(configs -> {
                     Log.d(TAG, "✅ Loaded " + configs.size() + " sensor configurations");
                     _sensorConfigurations.postValue(configs);
-                    loadLatestSensorReadings();
+                    observeLatestSensorReadings();
                 })
                 .exceptionally(throwable -> {
                     Log.e(TAG, "❌ Error loading sensor configurations: " + throwable.getMessage(), throwable);
@@ -59,22 +82,40 @@ public class SensorDataViewModel extends BaseViewModel {
                 });
     }
 
-    //CORECTAT: Load latest sensor readings cu error handling proper
-    private void loadLatestSensorReadings() {
-        Log.d(TAG, "📊 Loading latest sensor readings...");
+    // ✅ NEW: Dacă ceasul a fost asociat altui pacient, fluxul de citiri al celui vechi e închis
+    private void followPrimaryPatient() {
+        String userId = patientRegistry.getPrimaryUserId();
+        if (userId.equals(currentUserId)) return;
+        clearSubscriptions();
+        observingReadings = false;
+        currentUserId = userId;
+    }
+
+    // ✅ MODIFICAT: Abonare unică la ultimele citiri - lista se actualizează singură la fiecare scriere relevantă,
+    // deci refresh-urile ulterioare reîncarcă doar configurațiile
+    private void observeLatestSensorReadings() {
+        if (observingReadings) {
+            _isLoading.postValue(false);
+            return;
+        }
+        observingReadings = true;
+        Log.d(TAG, "📊 Observing latest sensor readings...");
 
-        healthDataService.getLatestSensorData(currentUserId)
-                .thenAccept(data -> {
-                    Log.d(TAG, "✅ Loaded " + data.size() + " sensor readings");
+        AtomicBoolean firstEmission = new AtomicBoolean(true);
+        observe(healthDataService.observeLatestSensorData(currentUserId),
+                data -> {
+                    Log.d(TAG, "✅ Received " + data.size() + " sensor readings");
                     _sensorData.postValue(data);
-                    setLoading(false);
-                    setSuccess("Sensor data loaded successfully");
-                })
-                .exceptionally(throwable -> {
-                    Log.e(TAG, "❌ Error loading sensor data: " + throwable.getMessage(), throwable);
-                    setError("Failed to load sensor data: " + throwable.getMessage());
-                    setLoading(false);
-                    return null;
+                    if (firstEmission.compareAndSet(true, false)) {
+                        _isLoading.postValue(false);
+                        _success.postValue("Sensor data loaded successfully");
+                    }
+                },
+                throwable -> {
+                    Log.e(TAG, "❌ Error observing sensor data: " + throwable.getMessage(), throwable);
+                    observingReadings = false;
+                    _error.postValue("Failed to load sensor data: " + throwable.getMessage());
+                    _isLoading.postValue(false);
                 });
     }
 
@@ -219,6 +260,24 @@ public class SensorDataViewModel extends BaseViewModel {
                 });
     }
 
+    // ✅ NEW: Istoricul unui senzor (null = toți senzorii), cele mai noi citiri primele
+    public void showHistory(SensorType sensorType) {
+        showHistory(sensorType, null, null);
+    }
+
+    // ✅ NEW: Istoricul pe intervalul [from, to) - null = fără limită. Paginile se încarcă pe măsură ce lista derulează
+    public void showHistory(SensorType sensorType, LocalDateTime from, LocalDateTime to) {
+        SensorHistoryQuery query = new SensorHistoryQuery(currentUserId, sensorType, from, to);
+        if (query.equals(historyQuery)) return;
+        historyQuery = query;
+        Log.d(TAG, "📜 Showing sensor history: " + query);
+
+        KeysetPager<SensorHistoryKey, SensorDataDTO> pager =
+                new KeysetPager<>(healthDataService.getSensorHistory(query), mainHandler::post);
+        pager.start();
+        _history.setValue(pager);
+    }
+
     // ADĂUGAT: Clear error/success messages
     public void clearMessages() {
         _success.setValue(null);
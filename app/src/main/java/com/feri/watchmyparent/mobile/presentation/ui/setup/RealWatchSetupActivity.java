@@ -4,6 +4,7 @@ import android.Manifest;
 import android.app.AlertDialog;
 import android.app.ProgressDialog;
 import android.content.ActivityNotFoundException;
+import android.content.Context;
 import android.content.Intent;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
@@ -25,6 +26,8 @@ import androidx.core.content.ContextCompat;
 import androidx.health.connect.client.HealthConnectClient;
 
 import com.feri.watchmyparent.mobile.R;
+import com.feri.watchmyparent.mobile.application.services.PatientPairingApplicationService;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
 import com.feri.watchmyparent.mobile.infrastructure.utils.SamsungWatchPermissions;
 import com.feri.watchmyparent.mobile.infrastructure.utils.SamsungWatchSetupChecker;
 import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
@@ -35,6 +38,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import dagger.hilt.android.AndroidEntryPoint;
 
 //Setup Activity for Samsung Galaxy Watch 7
@@ -53,6 +58,10 @@ public class RealWatchSetupActivity extends BaseActivity {
     private static final int REQUEST_CODE_ALL_PERMISSIONS = 100;
     private static final int REQUEST_CODE_BACKGROUND_LOCATION = 101;
 
+    // ✅ NEW: Pacientul cu care e asociat ceasul conectat (implicit pacientul curent) și dacă e un ceas în plus
+    public static final String EXTRA_PATIENT_USER_ID = "patient_user_id";
+    public static final String EXTRA_ADDITIONAL_WATCH = "additional_watch";
+
     // UI Components
     private TextView statusSummaryText;
     private TextView permissionStatusText;
@@ -71,6 +80,19 @@ public class RealWatchSetupActivity extends BaseActivity {
     private SamsungWatchPermissions.PermissionStatus permissionStatus;
     private WatchManager watchManager;
 
+    @Inject
+    PatientPairingApplicationService patientPairingService;
+
+    @Inject
+    PatientRegistry patientRegistry;
+
+    public static Intent createIntent(Context context, String patientUserId, boolean additionalWatch) {
+        Intent intent = new Intent(context, RealWatchSetupActivity.class);
+        intent.putExtra(EXTRA_PATIENT_USER_ID, patientUserId);
+        intent.putExtra(EXTRA_ADDITIONAL_WATCH, additionalWatch);
+        return intent;
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -621,6 +643,8 @@ private boolean checkSamsungDevice() {
                             String implInfo = WatchManagerFactory.getImplementationInfo(watchManager);
                             implementationInfoText.setText("Connected: " + implInfo);
                             implementationInfoText.setVisibility(View.VISIBLE);
+
+                            pairConnectedWatch();
                         } else {
                             Toast.makeText(this, "Failed to connect to watch",
                                     Toast.LENGTH_SHORT).show();
@@ -641,6 +665,25 @@ private boolean checkSamsungDevice() {
                 });
     }
 
+    // ✅ NEW: Ceasul conectat e asociat pacientului - ceasul telefonului prin PatientRegistry, unul în plus
+    // prin propriul WatchManager
+    private void pairConnectedWatch() {
+        String patientUserId = getIntent().getStringExtra(EXTRA_PATIENT_USER_ID);
+        String userId = patientUserId != null ? patientUserId : patientRegistry.getPrimaryUserId();
+        boolean additionalWatch = getIntent().getBooleanExtra(EXTRA_ADDITIONAL_WATCH, false);
+
+        (additionalWatch
+                ? patientPairingService.pairAdditionalWatch(userId, watchManager)
+                : patientPairingService.pairPrimaryWatch(userId, watchManager.getDeviceId()))
+                .thenAccept(paired -> runOnUiThread(() -> Toast.makeText(this,
+                        paired ? "Watch paired with patient " + userId : "Unknown patient " + userId,
+                        Toast.LENGTH_SHORT).show()))
+                .exceptionally(e -> {
+                    Log.e(TAG, "❌ Error pairing watch with " + userId, e);
+                    return null;
+                });
+    }
+
     private void checkHealthConnectClientStatus() {
         try {
             int sdkStatus = HealthConnectClient.getSdkStatus(this);
@@ -0,0 +1,129 @@
+package com.feri.watchmyparent.mobile.application.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaHealthCheckService;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaRetryService;
+import com.feri.watchmyparent.mobile.infrastructure.services.NetworkStateManager;
+import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statusul unei citiri: TRANSMITTED doar când broker-ul confirmă (direct sau prin retry), QUEUED când citirea a
+ * rămas doar în coada offline - inclusiv când retry-ul a păstrat-o offline -, FAILED când nu e nici trimisă, nici
+ * păstrată. transmitData rămâne true pentru livrat sau păstrat.
+ */
+public class DataTransmissionServiceImplTest {
+
+    private RealHealthDataKafkaProducer producer;
+    private KafkaHealthCheckService healthCheck;
+    private KafkaRetryService retryService;
+    private OfflineDataManager offlineDataManager;
+    private NetworkStateManager network;
+    private DataTransmissionServiceImpl service;
+
+    @Before
+    public void createService() {
+        producer = mock(RealHealthDataKafkaProducer.class);
+        healthCheck = mock(KafkaHealthCheckService.class);
+        retryService = mock(KafkaRetryService.class);
+        offlineDataManager = mock(OfflineDataManager.class);
+        network = mock(NetworkStateManager.class);
+        when(network.isNetworkAvailable()).thenReturn(true);
+        when(healthCheck.isKafkaHealthy()).thenReturn(true);
+        when(offlineDataManager.storeOfflineData(any(SensorDataDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        service = new DataTransmissionServiceImpl(producer, healthCheck, retryService, offlineDataManager, network,
+                new PipelineLatencyTracer());
+    }
+
+    @Test
+    public void brokerAckIsTransmitted() throws Exception {
+        brokerAnswers(true);
+
+        assertEquals(TransmissionStatus.TRANSMITTED, send());
+        verify(offlineDataManager, never()).storeOfflineData(any(SensorDataDTO.class));
+    }
+
+    @Test
+    public void readingStoredOfflineIsQueued() throws Exception {
+        when(network.isNetworkAvailable()).thenReturn(false);
+
+        assertEquals(TransmissionStatus.QUEUED, send());
+        assertTrue(service.transmitData(reading(), "patient-a").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void unhealthyKafkaFallsBackToTheOfflineQueue() throws Exception {
+        when(healthCheck.isKafkaHealthy()).thenReturn(false);
+        brokerAnswers(false);
+
+        assertEquals(TransmissionStatus.QUEUED, send());
+    }
+
+    @Test
+    public void retryThatOnlyStoredTheReadingIsQueued() throws Exception {
+        brokerAnswers(false);
+        when(retryService.retryTransmission(any(SensorDataDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(TransmissionStatus.QUEUED));
+
+        assertEquals(TransmissionStatus.QUEUED, send());
+        // Retry-ul a păstrat-o deja - nu e o a doua copie în coadă
+        verify(offlineDataManager, never()).storeOfflineData(any(SensorDataDTO.class));
+    }
+
+    @Test
+    public void acknowledgedRetryIsTransmitted() throws Exception {
+        brokerAnswers(false);
+        when(retryService.retryTransmission(any(SensorDataDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(TransmissionStatus.TRANSMITTED));
+
+        assertEquals(TransmissionStatus.TRANSMITTED, send());
+    }
+
+    @Test
+    public void readingNeitherSentNorStoredIsFailed() throws Exception {
+        when(network.isNetworkAvailable()).thenReturn(false);
+        when(offlineDataManager.storeOfflineData(any(SensorDataDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        assertEquals(TransmissionStatus.FAILED, send());
+        assertFalse(service.transmitData(reading(), "patient-a").get(5, TimeUnit.SECONDS));
+    }
+
+    private void brokerAnswers(boolean acknowledged) {
+        when(producer.sendSensorData(any(SensorDataDTO.class), anyString(),
+                eq(TelemetryJsonEncoder.SensorLayout.TRANSMISSION)))
+                .thenReturn(CompletableFuture.completedFuture(acknowledged));
+    }
+
+    private TransmissionStatus send() throws Exception {
+        return service.transmitSensorData(reading(), "patient-a").get(5, TimeUnit.SECONDS);
+    }
+
+    private static SensorDataDTO reading() {
+        SensorDataDTO dto = new SensorDataDTO("patient-a", SensorType.HEART_RATE, 72.0, "watch-a");
+        dto.setSensorDataId("row-1");
+        return dto;
+    }
+}
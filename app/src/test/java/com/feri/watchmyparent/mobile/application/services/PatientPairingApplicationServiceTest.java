@@ -0,0 +1,85 @@
+package com.feri.watchmyparent.mobile.application.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.repositories.UserRepository;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientRegistry;
+import com.feri.watchmyparent.mobile.infrastructure.services.SensorDataIntegrationService;
+import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asocierea ceasurilor: ceasul telefonului trece la pacient prin PatientRegistry (ascultătorii află de schimbare),
+ * un ceas în plus e înregistrat pentru pacientul lui, iar un pacient fără cont nu schimbă nimic.
+ */
+public class PatientPairingApplicationServiceTest {
+
+    private UserRepository userRepository;
+    private PatientRegistry patientRegistry;
+    private SensorDataIntegrationService integrationService;
+    private PatientPairingApplicationService service;
+
+    @Before
+    public void createService() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyString())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(userRepository.findById("patient-a"))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(new User())));
+        patientRegistry = new PatientRegistry(PatientRegistry.DEFAULT_USER_ID, PatientRegistry.DEFAULT_DEVICE_ID);
+        integrationService = mock(SensorDataIntegrationService.class);
+        service = new PatientPairingApplicationService(userRepository, patientRegistry, integrationService);
+    }
+
+    @Test
+    public void primaryWatchMovesToThePairedPatient() throws Exception {
+        List<String> changes = new ArrayList<>();
+        patientRegistry.addListener((previousUserId, previousDeviceId, userId, deviceId) ->
+                changes.add(previousUserId + "->" + userId + "@" + deviceId));
+
+        assertTrue(service.pairPrimaryWatch("patient-a", "watch-a").get(5, TimeUnit.SECONDS));
+
+        assertEquals("patient-a", patientRegistry.getPrimaryUserId());
+        assertEquals("watch-a", patientRegistry.getPrimaryDeviceId());
+        assertEquals(1, changes.size());
+        assertEquals(PatientRegistry.DEFAULT_USER_ID + "->patient-a@watch-a", changes.get(0));
+    }
+
+    @Test
+    public void unknownPatientKeepsThePrimaryWatch() throws Exception {
+        assertFalse(service.pairPrimaryWatch("patient-x", "watch-x").get(5, TimeUnit.SECONDS));
+        assertFalse(service.pairPrimaryWatch(null, "watch-x").get(5, TimeUnit.SECONDS));
+
+        assertEquals(PatientRegistry.DEFAULT_USER_ID, patientRegistry.getPrimaryUserId());
+        assertEquals(PatientRegistry.DEFAULT_DEVICE_ID, patientRegistry.getPrimaryDeviceId());
+    }
+
+    @Test
+    public void additionalWatchIsRegisteredForItsPatient() throws Exception {
+        WatchManager watch = mock(WatchManager.class);
+
+        assertTrue(service.pairAdditionalWatch("patient-a", watch).get(5, TimeUnit.SECONDS));
+        assertFalse(service.pairAdditionalWatch("patient-x", mock(WatchManager.class)).get(5, TimeUnit.SECONDS));
+
+        verify(integrationService).registerPatientDevice("patient-a", watch, null);
+        verify(integrationService, never()).registerPatientDevice(eq("patient-x"), any(WatchManager.class), any());
+        assertEquals(PatientRegistry.DEFAULT_USER_ID, patientRegistry.getPrimaryUserId());
+    }
+}
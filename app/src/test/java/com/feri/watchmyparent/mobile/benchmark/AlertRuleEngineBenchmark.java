@@ -0,0 +1,151 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.domain.entities.MedicalProfile;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.Medication;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.MedicationSetConverter;
+import com.feri.watchmyparent.mobile.infrastructure.services.AlertRuleCompiler;
+import com.feri.watchmyparent.mobile.infrastructure.services.AlertRuleEngine;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Throughput-ul evaluării pragurilor compilate pe 10.000 de pacienți, comparat cu reinterpretarea profilului
+ * (inclusiv JSON-ul medicației) la fiecare citire. Rulează doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*AlertRuleEngineBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea regulilor compilate e în AlertRuleEngineTest.
+ */
+public class AlertRuleEngineBenchmark {
+
+    private static final long NOON = LocalDate.of(2024, 3, 4).atTime(12, 0).toEpochSecond(ZoneOffset.UTC) * 1000L;
+
+    private static final SensorType[] VITALS = {SensorType.HEART_RATE, SensorType.BLOOD_OXYGEN,
+            SensorType.BLOOD_PRESSURE, SensorType.BODY_TEMPERATURE, SensorType.STRESS};
+
+    @Test
+    public void evaluationThroughputAcrossManyPatients() {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        int patients = 10_000;
+        Random random = new Random(7);
+        AlertRuleEngine engine = new AlertRuleEngine(null, ZoneOffset.UTC);
+        List<MedicalProfile> profiles = new ArrayList<>(patients);
+        String[] medicationJson = new String[patients];
+        for (int i = 0; i < patients; i++) {
+            MedicalProfile profile = randomProfile("patient-" + i, random);
+            profiles.add(profile);
+            medicationJson[i] = MedicationSetConverter.fromMedicationSet(profile.getMedications());
+        }
+
+        long compileStart = System.nanoTime();
+        for (MedicalProfile profile : profiles) {
+            engine.compile(profile);
+        }
+        double compileMicros = (System.nanoTime() - compileStart) / 1000.0 / patients;
+
+        // Citiri pre-generate: bucla măsurată conține doar evaluarea
+        int readings = 4_000_000;
+        int[] patientOf = new int[readings];
+        int[] sensorOf = new int[readings];
+        double[] valueOf = new double[readings];
+        long[] timeOf = new long[readings];
+        String[] userIds = new String[patients];
+        for (int i = 0; i < patients; i++) userIds[i] = "patient-" + i;
+        for (int r = 0; r < readings; r++) {
+            patientOf[r] = random.nextInt(patients);
+            sensorOf[r] = random.nextInt(VITALS.length);
+            valueOf[r] = sample(VITALS[sensorOf[r]], random);
+            timeOf[r] = NOON + random.nextInt(86_400) * 1000L;
+        }
+
+        long alerts = 0;
+        for (int round = 0; round < 3; round++) { // încălzire JIT + măsurare
+            alerts = 0;
+            long start = System.nanoTime();
+            for (int r = 0; r < readings; r++) {
+                if (engine.evaluate(userIds[patientOf[r]], VITALS[sensorOf[r]], valueOf[r], timeOf[r]).isAlert()) alerts++;
+            }
+            double nsPerEval = (System.nanoTime() - start) / (double) readings;
+            if (round == 2) {
+                System.out.println(String.format("  compiled: %.0f ns/evaluation (%.1f M/s), %d alerts",
+                        nsPerEval, 1000.0 / nsPerEval, alerts));
+            }
+        }
+
+        // Referință: profilul (cu medicația din JSON) reinterpretat la fiecare citire
+        int naiveReadings = 100_000;
+        long naiveAlerts = 0;
+        long naiveStart = System.nanoTime();
+        for (int r = 0; r < naiveReadings; r++) {
+            MedicalProfile profile = profiles.get(patientOf[r]);
+            Set<Medication> medications = MedicationSetConverter.fromString(medicationJson[patientOf[r]]);
+            profile.setMedications(medications);
+            if (AlertRuleCompiler.compile(profile, ZoneOffset.UTC, timeOf[r])
+                    .evaluate(VITALS[sensorOf[r]], valueOf[r], timeOf[r]).isAlert()) naiveAlerts++;
+        }
+        double naiveNs = (System.nanoTime() - naiveStart) / (double) naiveReadings;
+
+        long compiledAlerts = 0;
+        long compiledStart = System.nanoTime();
+        for (int r = 0; r < naiveReadings; r++) {
+            if (engine.evaluate(userIds[patientOf[r]], VITALS[sensorOf[r]], valueOf[r], timeOf[r]).isAlert()) compiledAlerts++;
+        }
+        double compiledNs = (System.nanoTime() - compiledStart) / (double) naiveReadings;
+
+        System.out.println("Alert rule engine - " + patients + " patients");
+        System.out.println(String.format("  compile: %.1f µs/profile", compileMicros));
+        System.out.println(String.format("  per-reading profile interpretation: %.0f ns/evaluation (%.0fx slower)",
+                naiveNs, naiveNs / compiledNs));
+        System.out.println("  " + engine.getStatistics());
+
+        assertEquals("Compiled and interpreted rules must agree", naiveAlerts, compiledAlerts);
+        assertTrue("Compiled evaluation should be far cheaper", naiveNs > 20 * compiledNs);
+    }
+
+    private static double sample(SensorType type, Random random) {
+        switch (type) {
+            case HEART_RATE: return 38 + random.nextInt(95);
+            case BLOOD_OXYGEN: return 84 + random.nextInt(17);
+            case BLOOD_PRESSURE: return 85 + random.nextInt(110);
+            case BODY_TEMPERATURE: return 34.8 + random.nextInt(40) / 10.0;
+            default: return random.nextInt(101);
+        }
+    }
+
+    private static final String[] CONDITIONS = {"Hipertensiune arterială", "BPOC", "Fibrilație atrială",
+            "Diabet zaharat tip 2", "Tulburare de anxietate", "Pacemaker", "Artroză", "Hipertiroidism"};
+    private static final String[] MEDICATIONS = {"Metoprolol", "Bisoprolol", "Ramipril", "Candesartan",
+            "Amlodipină", "Metformin", "Paracetamol", "Prednison", "Atorvastatină", "Digoxin", "Furosemid"};
+
+    private static MedicalProfile randomProfile(String userId, Random random) {
+        String[] conditions = new String[random.nextInt(3)];
+        for (int i = 0; i < conditions.length; i++) conditions[i] = CONDITIONS[random.nextInt(CONDITIONS.length)];
+        String[] medications = new String[random.nextInt(4)];
+        for (int i = 0; i < medications.length; i++) medications[i] = MEDICATIONS[random.nextInt(MEDICATIONS.length)];
+        return profile(userId, random.nextInt(10) == 0, conditions, medications);
+    }
+
+    private static MedicalProfile profile(String userId, boolean athletic, String[] conditions, String... medications) {
+        User user = new User();
+        user.setIdUser(userId);
+        MedicalProfile profile = new MedicalProfile(user);
+        for (String condition : conditions) profile.addDisease(condition);
+        for (String medication : medications) {
+            profile.addMedication(new Medication(medication, "1 cp/zi", LocalDate.of(2023, 6, 1)));
+        }
+        profile.updateAthleticHistory(athletic, athletic ? "maratonist" : null);
+        return profile;
+    }
+}
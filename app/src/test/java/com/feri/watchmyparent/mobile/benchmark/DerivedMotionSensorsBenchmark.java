@@ -0,0 +1,56 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.watch.DerivedMotionSensors;
+
+import org.junit.Test;
+
+/**
+ * Costul per eveniment al senzorilor de mișcare derivați, comparat cu magnitudinile calculate la fiecare
+ * eveniment (varianta veche). Rulează doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*DerivedMotionSensorsBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea senzorilor derivați e în DerivedMotionSensorsTest.
+ */
+public class DerivedMotionSensorsBenchmark {
+
+    private static final long T0 = 1_715_000_000_000L;
+    private static final float G = DerivedMotionSensors.GRAVITY_EARTH;
+
+    @Test
+    public void perEventCostComparedToEagerMagnitudes() {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        int events = 5_000_000;
+        float[] sample = {0.3f, 0.4f, G};
+        float[] rotation = {0.1f, 0.2f, 0.3f, 0.927f};
+        double sink = 0;
+
+        long eagerStart = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            sample[0] = i & 7;
+            // accelerometru, gravitație, accelerație liniară: magnitudine per eveniment + w-ul rotației
+            for (int k = 0; k < 3; k++) {
+                sink += Math.sqrt(sample[0] * sample[0] + sample[1] * sample[1] + sample[2] * sample[2]);
+            }
+            sink += rotation[3];
+        }
+        long eagerNanos = System.nanoTime() - eagerStart;
+
+        DerivedMotionSensors motion = new DerivedMotionSensors();
+        long lazyStart = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            sample[0] = i & 7;
+            motion.onAccelerometer(sample, T0 + i);
+            motion.onRotationVector(rotation, T0 + i);
+            if (i % 100_000 == 0) {
+                sink += motion.read(SensorType.LINEAR_ACCELERATION, T0 + i).getValue();
+            }
+        }
+        long lazyNanos = System.nanoTime() - lazyStart;
+
+        System.out.println(String.format("Motion per event: eager=%.1f ns, lazy=%.1f ns (sink=%.0f)",
+                eagerNanos / (double) events, lazyNanos / (double) events, sink));
+    }
+}
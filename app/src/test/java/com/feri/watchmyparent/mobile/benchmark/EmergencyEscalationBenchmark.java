@@ -0,0 +1,77 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationFixtures.FakeNotifier;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationFixtures.InMemoryContactRepository;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationFixtures.InMemoryOutboxDao;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationService;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyNotifier;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latența declanșare -> prima notificare pe 2.000 de alerte, cu canale care simulează latența rețelei
+ * (notificare locală ~1 ms, REST Proxy ~30 ms, gateway SMS ~120 ms). Rulează doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*EmergencyEscalationBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea căii de urgență e în EmergencyEscalationServiceTest.
+ */
+public class EmergencyEscalationBenchmark {
+
+    private static final String USER = "patient-1";
+
+    @Test
+    public void benchmarkTriggerToFirstNotification() throws Exception {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        // Latențe tipice: notificare locală ~1ms, REST proxy Kafka ~30ms, gateway SMS ~120ms
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        FakeNotifier local = new FakeNotifier("notification", 2_000, sleeping(1));
+        FakeNotifier kafka = new FakeNotifier("kafka", 5_000, sleeping(30));
+        FakeNotifier contacts = new FakeNotifier("contacts", 10_000, sleeping(120));
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(local, kafka, contacts));
+        service.warmUp(USER);
+
+        int alerts = 2_000;
+        CountDownLatch done = new CountDownLatch(alerts);
+        long start = System.nanoTime();
+        for (int i = 0; i < alerts; i++) {
+            // Pacienți diferiți - fără deduplicare
+            service.trigger(EmergencyAlert.fall("patient-" + i, System.currentTimeMillis(), 95.0, "watch", null))
+                    .whenComplete((result, throwable) -> done.countDown());
+            if (i % 50 == 49) Thread.sleep(5);
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        PipelineLatencyTracer.LatencySnapshot first = service.getFirstNotificationLatency();
+        EmergencyEscalationService.EscalationStatistics stats = service.getStatistics();
+        System.out.println("Emergency escalation, " + alerts + " alerts in " + elapsedMs + "ms");
+        System.out.println("  trigger -> first notification: " + first);
+        System.out.println("  kafka channel: " + service.getChannelLatency("kafka"));
+        System.out.println("  contacts channel: " + service.getChannelLatency("contacts"));
+        System.out.println("  " + stats);
+
+        assertEquals(alerts, stats.delivered);
+        assertTrue("p99 trigger -> first notification " + first.p99Ms + "ms", first.p99Ms < 50);
+        service.shutdown();
+    }
+
+    // ========== HELPERS ==========
+
+    private static FakeNotifier.Behaviour sleeping(long millis) {
+        return (alert, contacts) -> {
+            Thread.sleep(millis);
+            return true;
+        };
+    }
+}
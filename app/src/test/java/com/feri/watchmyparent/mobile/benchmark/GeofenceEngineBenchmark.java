@@ -0,0 +1,200 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.SafeZone;
+import com.feri.watchmyparent.mobile.infrastructure.services.GeofenceEngine;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmark pentru GeofenceEngine: costul unei evaluări cu index pe grilă vs. scanare liniară
+ * (haversine pe fiecare zonă, ca în LocationData.calculateDistance) pentru sute de zone per pacient.
+ * Rulează doar la cerere: ./gradlew :app:testDebugUnitTest --tests '*GeofenceEngineBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea tranzițiilor și persistența zonelor sunt în GeofenceEngineTest.
+ */
+public class GeofenceEngineBenchmark {
+
+    private static final String USER = "bench-user";
+    private static final double BASE_LAT = 47.0722; // Oradea
+    private static final double BASE_LNG = 21.9211;
+    private static final double AREA_DEGREES = 0.2; // ~20 km x 15 km
+    private static final int[] ZONE_COUNTS = {10, 100, 500, 1000};
+
+    @Test
+    public void indexedLookupMatchesLinearScanAndStaysFlat() throws IOException {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        int points = Integer.getInteger("benchmark.geofence.points", 200_000);
+        int rounds = Integer.getInteger("benchmark.geofence.rounds", 5);
+        double[][] fixes = randomFixes(new Random(7), points);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-8s %14s %14s %14s %10s %14s%n",
+                "zones", "lookup ns/op", "evaluate ns/op", "linear ns/op", "speedup", "candidates/op"));
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime[] timestamps = new LocalDateTime[points];
+        for (int i = 0; i < points; i++) {
+            timestamps[i] = start.plusSeconds(i);
+        }
+
+        double lookupAtSmallest = 0;
+        double lookupAtLargest = 0;
+        double linearAtLargest = 0;
+
+        for (int zoneCount : ZONE_COUNTS) {
+            List<SafeZone> zones = randomZones(new Random(zoneCount), zoneCount);
+            GeofenceEngine engine = new GeofenceEngine();
+            for (SafeZone zone : zones) {
+                engine.addZone(zone);
+            }
+
+            // Corectitudine: indexul găsește exact aceleași zone ca scanarea liniară exactă
+            for (int i = 0; i < Math.min(points, 20_000); i++) {
+                Set<String> expected = new HashSet<>();
+                for (SafeZone zone : zones) {
+                    if (zone.contains(fixes[i][0], fixes[i][1])) expected.add(zone.getZoneId());
+                }
+                Set<String> actual = new HashSet<>();
+                for (SafeZone zone : engine.getZonesContaining(USER, fixes[i][0], fixes[i][1])) {
+                    actual.add(zone.getZoneId());
+                }
+                assertEquals("Mismatch at fix " + i, expected, actual);
+            }
+
+            double lookupNs = Double.MAX_VALUE;
+            double evaluateNs = Double.MAX_VALUE;
+            double linearNs = Double.MAX_VALUE;
+            long sink = 0;
+            for (int round = 0; round < rounds; round++) {
+                long t = System.nanoTime();
+                for (int i = 0; i < points; i++) {
+                    sink += engine.getZonesContaining(USER, fixes[i][0], fixes[i][1]).size();
+                }
+                lookupNs = Math.min(lookupNs, (System.nanoTime() - t) / (double) points);
+
+                // Fix-urile aleatoare "teleportează" pacientul - include costul tranzițiilor, caz pesimist
+                t = System.nanoTime();
+                for (int i = 0; i < points; i++) {
+                    sink += engine.evaluate(USER, fixes[i][0], fixes[i][1], timestamps[i]).size();
+                }
+                evaluateNs = Math.min(evaluateNs, (System.nanoTime() - t) / (double) points);
+
+                t = System.nanoTime();
+                for (int i = 0; i < points; i++) {
+                    sink += linearScan(zones, fixes[i][0], fixes[i][1]);
+                }
+                linearNs = Math.min(linearNs, (System.nanoTime() - t) / (double) points);
+            }
+
+            GeofenceEngine.GeofenceStatistics stats = engine.getStatistics();
+            report.append(String.format("%-8d %14.1f %14.1f %14.1f %9.1fx %14.2f%n",
+                    zoneCount, lookupNs, evaluateNs, linearNs, linearNs / lookupNs,
+                    stats.averageCandidatesPerEvaluation));
+            if (sink == Long.MIN_VALUE) report.append(""); // păstrează rezultatele vii pentru JIT
+
+            if (zoneCount == ZONE_COUNTS[0]) lookupAtSmallest = lookupNs;
+            if (zoneCount == ZONE_COUNTS[ZONE_COUNTS.length - 1]) {
+                lookupAtLargest = lookupNs;
+                linearAtLargest = linearNs;
+            }
+        }
+
+        System.out.println("GeofenceEngine benchmark (" + points + " fixes, best of " + rounds + " rounds)");
+        System.out.print(report);
+        writeReport(report.toString());
+
+        // De 100x mai multe zone: căutarea indexată crește doar cu densitatea locală, scanarea liniară proporțional
+        assertTrue("Indexed lookup cost grew with zone count: " + lookupAtSmallest + " -> " + lookupAtLargest,
+                lookupAtLargest < lookupAtSmallest * 5);
+        assertTrue("Indexed lookup not faster than linear scan at " + ZONE_COUNTS[ZONE_COUNTS.length - 1] + " zones",
+                lookupAtLargest * 10 < linearAtLargest);
+    }
+
+    // Abordarea anterioară: distanță haversine către fiecare zonă (bounding circle pentru poligoane)
+    private static int linearScan(List<SafeZone> zones, double latitude, double longitude) {
+        int inside = 0;
+        for (SafeZone zone : zones) {
+            if (zone.getShape() == SafeZone.Shape.CIRCLE) {
+                if (haversineMeters(latitude, longitude, zone.getCenterLatitude(), zone.getCenterLongitude())
+                        <= zone.getRadiusMeters()) {
+                    inside++;
+                }
+            } else if (zone.contains(latitude, longitude)) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    private static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        final int R = 6371;
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return R * c * 1000;
+    }
+
+    private static List<SafeZone> randomZones(Random random, int count) {
+        SafeZone.Category[] categories = SafeZone.Category.values();
+        List<SafeZone> zones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double lat = BASE_LAT + (random.nextDouble() - 0.5) * AREA_DEGREES;
+            double lng = BASE_LNG + (random.nextDouble() - 0.5) * AREA_DEGREES;
+            SafeZone.Category category = categories[random.nextInt(categories.length)];
+            if (i % 10 == 0) {
+                int vertices = 5 + random.nextInt(6);
+                double[] lats = new double[vertices];
+                double[] lngs = new double[vertices];
+                double radius = 0.001 + random.nextDouble() * 0.003;
+                for (int v = 0; v < vertices; v++) {
+                    double angle = 2 * Math.PI * v / vertices;
+                    double r = radius * (0.6 + 0.4 * random.nextDouble());
+                    lats[v] = lat + r * Math.sin(angle);
+                    lngs[v] = lng + r * Math.cos(angle);
+                }
+                zones.add(SafeZone.polygon("zone-" + i, USER, "Zone " + i, category, lats, lngs));
+            } else {
+                zones.add(SafeZone.circle("zone-" + i, USER, "Zone " + i, category, lat, lng,
+                        50 + random.nextDouble() * 350));
+            }
+        }
+        return zones;
+    }
+
+    private static double[][] randomFixes(Random random, int count) {
+        double[][] fixes = new double[count][2];
+        for (int i = 0; i < count; i++) {
+            fixes[i][0] = BASE_LAT + (random.nextDouble() - 0.5) * AREA_DEGREES;
+            fixes[i][1] = BASE_LNG + (random.nextDouble() - 0.5) * AREA_DEGREES;
+        }
+        return fixes;
+    }
+
+    private static void writeReport(String report) throws IOException {
+        File dir = new File("build/reports/benchmark");
+        if (!dir.exists() && !dir.mkdirs()) {
+            return;
+        }
+        try (Writer writer = new FileWriter(new File(dir, "geofence-engine.txt"))) {
+            writer.write(report);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSource.RecordKind;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSyncEngine;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSyncFixtures.FakeHealthConnect;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSyncFixtures.InMemorySyncStore;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Numărul de cereri Health Connect pe 24h de tick-uri la 30 s (cu o deconectare de 2h), comparat cu recitirea
+ * ferestrelor complete. Rulează doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*HealthConnectSyncBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea sincronizării e în HealthConnectSyncEngineTest.
+ */
+public class HealthConnectSyncBenchmark {
+
+    private static final long START = LocalDate.of(2024, 5, 6).atTime(10, 0).toEpochSecond(ZoneOffset.UTC) * 1000L;
+    private static final long MINUTE = 60_000L;
+    private static final long TICK = 30_000L;
+
+    @Test
+    public void benchmarkQueryVolumeOverOneDay() {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        FakeHealthConnect hc = new FakeHealthConnect();
+        InMemorySyncStore store = new InMemorySyncStore();
+        HealthConnectSyncEngine engine = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC);
+
+        // 24h: puls la fiecare 5 s (o înregistrare pe minut), SpO2 la 10 min, pași pe minut, o deconectare de 2h
+        long end = START + TimeUnit.HOURS.toMillis(24);
+        long offlineFrom = START + TimeUnit.HOURS.toMillis(9);
+        long offlineTo = offlineFrom + TimeUnit.HOURS.toMillis(2);
+        Map<SensorType, Set<Long>> received = new EnumMap<>(SensorType.class);
+        int written = 0;
+        int ticks = 0;
+        long windowQueries = 0;
+        long windowSamples = 0;
+        long nanos = 0;
+        for (long now = START; now < end; now += TICK) {
+            if ((now - START) % MINUTE == 0) {
+                for (int s = 0; s < 12; s++) {
+                    hc.write(RecordKind.HEART_RATE, now + s * 5_000L, 60 + (now / MINUTE + s) % 30);
+                    written++;
+                }
+                hc.write(RecordKind.STEPS, now, (now / MINUTE) % 50);
+                if ((now - START) % (10 * MINUTE) == 0) {
+                    hc.write(RecordKind.OXYGEN_SATURATION, now, 96);
+                    written++;
+                }
+            }
+            if (now >= offlineFrom && now < offlineTo) continue;
+            ticks++;
+            long started = System.nanoTime();
+            engine.syncIfDue(now);
+            nanos += System.nanoTime() - started;
+            for (SensorType type : new SensorType[]{SensorType.HEART_RATE, SensorType.BLOOD_OXYGEN}) {
+                Set<Long> times = received.get(type);
+                if (times == null) received.put(type, times = new HashSet<>());
+                for (SensorReading reading : engine.drain(type)) {
+                    times.add(reading.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+            }
+            // Referința: fiecare tick recitește ultimele 5 minute pentru fiecare tip (paginat la 500)
+            for (RecordKind kind : RecordKind.values()) {
+                int inWindow = hc.count(kind, now - 5 * MINUTE, now);
+                windowQueries += Math.max(1, (inWindow + 499) / 500);
+                windowSamples += inWindow;
+            }
+        }
+        // Tick-urile după deconectare recuperează golul
+        for (int i = 0; i < 20 && engine.isBackfilling(); i++) {
+            engine.sync(end + i * TICK);
+        }
+
+        HealthConnectSyncEngine.SyncStatistics stats = engine.getStatistics();
+        int receivedCount = received.get(SensorType.HEART_RATE).size() + received.get(SensorType.BLOOD_OXYGEN).size();
+        System.out.println("Health Connect sync, 24h @30s ticks (" + ticks + " online ticks, 2h offline)");
+        System.out.println("  incremental: " + stats);
+        System.out.println(String.format("  full-window re-query: %d requests, %d samples re-read (gap of 2h lost)",
+                windowQueries, windowSamples));
+        System.out.println(String.format("  request ratio: %.1f%%, completeness: %d/%d samples, %.1fµs per sync",
+                100.0 * stats.getTotalRequests() / windowQueries, receivedCount, written,
+                nanos / 1000.0 / stats.syncs));
+
+        assertEquals(written, receivedCount);
+        assertTrue(stats.getTotalRequests() < windowQueries);
+    }
+
+    // ========== HELPERS ==========
+}
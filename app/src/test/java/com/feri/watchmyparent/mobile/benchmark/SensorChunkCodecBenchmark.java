@@ -0,0 +1,103 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorChunkCodec;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Viteza de decodare a arhivei: o scanare completă pe 30 de zile de puls (o citire la 30 s). Rulează doar
+ * la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*SensorChunkCodecBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea codec-ului e în SensorChunkCodecTest.
+ */
+public class SensorChunkCodecBenchmark {
+
+    private static final long DAY_START = LocalDateTime.of(2025, 5, 1, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final int TICK_MILLIS = 30_000;
+    private static final String WATCH = "galaxy-watch-7";
+
+    @Test
+    public void thirtyDayScanDecodesMillionsOfPointsPerSecond() {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+        List<byte[]> chunks = new ArrayList<>();
+        int points = 0;
+        long bytes = 0;
+        for (int day = 0; day < 30; day++) {
+            Readings readings = heartRateDay(DAY_START + day * DAY_MILLIS, day);
+            byte[] chunk = encode(readings);
+            chunks.add(chunk);
+            points += readings.size();
+            bytes += chunk.length;
+        }
+
+        double[] sum = new double[1];
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            sum[0] = 0;
+            long start = System.nanoTime();
+            int decoded = 0;
+            for (byte[] chunk : chunks) {
+                decoded += SensorChunkCodec.decode(chunk, Long.MIN_VALUE, Long.MAX_VALUE,
+                        (millis, value, unit, deviceId) -> sum[0] += value);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            assertEquals(points, decoded);
+        }
+        assertTrue(sum[0] > 0);
+        System.out.println(String.format("30 days of HEART_RATE: %,d points in %,d bytes (%.2f bytes/point), "
+                        + "full scan %.1f ms (%.1f M points/s)",
+                points, bytes, (double) bytes / points, best / 1e6, points / (best / 1e9) / 1e6));
+    }
+
+    // ========== Date sintetice ==========
+
+    private static final class Readings {
+        final List<Long> millis = new ArrayList<>();
+        final List<Double> values = new ArrayList<>();
+        final List<String> units = new ArrayList<>();
+        final List<String> deviceIds = new ArrayList<>();
+
+        int size() {
+            return millis.size();
+        }
+    }
+
+    // Puls la 30 s cu jitter de câteva ms, câteva goluri (ceasul scos), o oră de pe telefon și un rând fără unitate
+    private static Readings heartRateDay(long dayStart, long seed) {
+        Random random = new Random(seed);
+        Readings readings = new Readings();
+        for (long tick = dayStart; tick < dayStart + DAY_MILLIS; tick += TICK_MILLIS) {
+            long offset = tick - dayStart;
+            if (offset >= 3 * 3_600_000L && offset < 3 * 3_600_000L + 20 * 60_000L) continue;
+            double dayPhase = 2 * Math.PI * offset / DAY_MILLIS;
+            readings.millis.add(tick + random.nextInt(40));
+            readings.values.add((double) Math.round(72 + 8 * Math.sin(dayPhase) + random.nextGaussian() * 3));
+            readings.units.add(readings.size() == 1000 ? null : "bpm");
+            readings.deviceIds.add(offset >= 14 * 3_600_000L && offset < 15 * 3_600_000L ? "phone" : WATCH);
+        }
+        return readings;
+    }
+
+    private static byte[] encode(Readings readings) {
+        SensorChunkCodec.Builder builder = new SensorChunkCodec.Builder();
+        for (int i = 0; i < readings.size(); i++) {
+            builder.add(readings.millis.get(i), readings.values.get(i), readings.units.get(i),
+                    readings.deviceIds.get(i));
+        }
+        byte[] chunk = builder.encode();
+        assertArrayEquals(chunk, builder.encode());
+        return chunk;
+    }
+}
@@ -0,0 +1,161 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSerializer;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Throughput-ul și alocările per mesaj ale encoder-ului JSON de telemetrie, comparate cu vechiul drum
+ * (HashMap + Gson + String.format). Rulează doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*TelemetryJsonEncoderBenchmark*' -Dbenchmark.enabled=true
+ * Corectitudinea encoder-ului e în TelemetryJsonEncoderTest.
+ */
+public class TelemetryJsonEncoderBenchmark {
+
+    private static final long KEY_MILLIS = 1_715_000_123_456L;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (src, typeOfSrc, context)
+                    -> context.serialize(src.toString()))
+            .create();
+
+    @Test
+    public void encoderThroughputAndAllocationsComparedToGsonMaps() {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        int messages = 500_000;
+        Random random = new Random(5);
+        SensorDataDTO[] batch = new SensorDataDTO[1024];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = randomDto(random, i);
+            batch[i].setUnit(batch[i].getSensorType().getUnit());
+            batch[i].setValue(Math.round(batch[i].getValue() * 100) / 100.0);
+        }
+        // Încălzire
+        runLegacy(batch, 50_000);
+        runEncoder(batch, 50_000, new TelemetryJsonEncoder());
+
+        long legacyBytes = allocatedBytes();
+        long legacyStart = System.nanoTime();
+        long legacySink = runLegacy(batch, messages);
+        long legacyNanos = System.nanoTime() - legacyStart;
+        legacyBytes = allocatedBytes() - legacyBytes;
+
+        TelemetryJsonEncoder encoder = new TelemetryJsonEncoder();
+        long encoderBytes = allocatedBytes();
+        long encoderStart = System.nanoTime();
+        long encoderSink = runEncoder(batch, messages, encoder);
+        long encoderNanos = System.nanoTime() - encoderStart;
+        encoderBytes = allocatedBytes() - encoderBytes;
+
+        System.out.println(String.format("Telemetry JSON per message: Gson+HashMap %.0f ns / %d B, encoder %.0f ns"
+                        + " / %d B (sinks %d/%d)",
+                legacyNanos / (double) messages, legacyBytes / messages,
+                encoderNanos / (double) messages, encoderBytes / messages, legacySink, encoderSink));
+        assertEquals(legacySink, encoderSink);
+        assertTrue(encoderNanos < legacyNanos);
+    }
+
+    private long runLegacy(SensorDataDTO[] batch, int messages) {
+        long sink = 0;
+        for (int i = 0; i < messages; i++) {
+            SensorDataDTO dto = batch[i & (batch.length - 1)];
+            sink += legacyRecord(legacyTransmissionMessage(dto, "user-1"), "user-1", KEY_MILLIS).length;
+        }
+        return sink;
+    }
+
+    private static long runEncoder(SensorDataDTO[] batch, int messages, TelemetryJsonEncoder encoder) {
+        long sink = 0;
+        for (int i = 0; i < messages; i++) {
+            SensorDataDTO dto = batch[i & (batch.length - 1)];
+            sink += encoder.encodeSensorRecord(dto, "user-1", KEY_MILLIS,
+                    TelemetryJsonEncoder.SensorLayout.TRANSMISSION).getLength();
+        }
+        return sink;
+    }
+
+    // Alocările thread-ului curent (HotSpot); -1 dacă JVM-ul nu le expune
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static SensorDataDTO randomDto(Random random, int i) {
+        SensorType[] types = SensorType.values();
+        SensorDataDTO dto = new SensorDataDTO("ignored", types[random.nextInt(types.length)],
+                randomValue(random), i % 5 == 0 ? null : "galaxy-watch-" + (i % 3));
+        if (i % 11 == 0) dto.setUnit(null);
+        if (i % 4 == 0) dto.setAlertLevel(i % 8 == 0 ? "CRITICAL" : "WARNING");
+        dto.setRetryCount(i % 6);
+        dto.setTimestamp(LocalDateTime.of(2024, 1 + i % 12, 1 + i % 28, i % 24, i % 60, i % 3 == 0 ? 0 : i % 60,
+                i % 5 == 0 ? 0 : (i % 5 == 1 ? 250_000_000 : (i % 5 == 2 ? 123_456_000 : 1 + i))));
+        return dto;
+    }
+
+    private static double randomValue(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return 40 + random.nextInt(140);
+            case 1:
+                return random.nextInt(4000) / 100.0;
+            case 2:
+                return random.nextDouble() * 20 - 10;
+            case 3:
+                return random.nextInt(20_000);
+            default:
+                return random.nextGaussian();
+        }
+    }
+
+    // ========== Vechiul drum, copiat din codul înlocuit ==========
+
+    private static Map<String, Object> legacyTransmissionMessage(SensorDataDTO sensorData, String userId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", userId);
+        message.put("sensorType", sensorData.getSensorType().getCode());
+        message.put("value", sensorData.getValue());
+        message.put("unit", sensorData.getUnit());
+        message.put("timestamp", sensorData.getTimestamp().toString());
+        message.put("deviceId", sensorData.getDeviceId());
+        message.put("source", "samsung_galaxy_watch_7");
+        message.put("dataType", "REAL_SENSOR_DATA");
+        message.put("criticalityLevel", sensorData.getSensorType().getCriticalityLevel().name());
+        message.put("transmissionMethod", "kafka_only_pipeline");
+        if (sensorData.getAlertLevel() != null) {
+            message.put("alertLevel", sensorData.getAlertLevel());
+        }
+        if (sensorData.getSensorType().isSamsungHealthPermitted()) {
+            message.put("dataSource", "samsung_health_sdk");
+        } else {
+            message.put("dataSource", "android_sensor_api");
+        }
+        return message;
+    }
+
+    private byte[] legacyRecord(Map<String, Object> message, String userId, long keyMillis) {
+        String messageKey = userId + "_" + keyMillis;
+        String requestBody = String.format("{\"records\":[{\"key\":\"%s\",\"value\":%s}]}",
+                messageKey, gson.toJson(message));
+        return requestBody.getBytes(StandardCharsets.UTF_8);
+    }
+}
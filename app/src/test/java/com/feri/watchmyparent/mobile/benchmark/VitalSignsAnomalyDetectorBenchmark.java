@@ -0,0 +1,73 @@
+package com.feri.watchmyparent.mobile.benchmark;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.services.VitalSignsAnomalyDetector;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientModel;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientProfile;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Costul per citire al VitalSignsAnomalyDetector pe o flotă sintetică (20 de pacienți x 3 zile, citiri la 30 s,
+ * 5 semne vitale). Rulează doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*VitalSignsAnomalyDetectorBenchmark*' -Dbenchmark.enabled=true
+ * Detecția episoadelor și persistența baseline-urilor sunt în VitalSignsAnomalyDetectorTest.
+ */
+public class VitalSignsAnomalyDetectorBenchmark {
+
+    private static final long FLEET_SEED = 20240101L;
+    private static final int PATIENTS = 20;
+    private static final int DAYS = 3;
+    private static final int STEP_SECONDS = 30;
+    private static final SensorType[] VITALS = {SensorType.HEART_RATE, SensorType.BLOOD_OXYGEN,
+            SensorType.BLOOD_PRESSURE, SensorType.BODY_TEMPERATURE, SensorType.STRESS};
+    private static final long START_SECONDS = LocalDateTime.of(2024, 3, 4, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    @Test
+    public void costPerReadingOnASyntheticFleet() {
+        assumeTrue("Benchmark disabled (use -Dbenchmark.enabled=true)", Boolean.getBoolean("benchmark.enabled"));
+
+        // Pre-generăm citirile ca bucla măsurată să conțină doar detectorul
+        int steps = DAYS * 86_400 / STEP_SECONDS;
+        double[][][] values = new double[PATIENTS][VITALS.length][steps];
+        String[] userIds = new String[PATIENTS];
+        for (int p = 0; p < PATIENTS; p++) {
+            SyntheticPatientModel model = new SyntheticPatientModel(SyntheticPatientProfile.generate(FLEET_SEED, p));
+            userIds[p] = model.getProfile().patientId;
+            for (int s = 0; s < steps; s++) {
+                LocalDateTime time = LocalDateTime.ofEpochSecond(START_SECONDS + (long) s * STEP_SECONDS, 0, ZoneOffset.UTC);
+                for (int v = 0; v < VITALS.length; v++) {
+                    values[p][v][s] = model.valueAt(VITALS[v], time);
+                }
+            }
+        }
+
+        VitalSignsAnomalyDetector detector = new VitalSignsAnomalyDetector();
+        long readings = 0;
+        long anomalies = 0;
+        long start = System.nanoTime();
+        for (int s = 0; s < steps; s++) {
+            long millis = (START_SECONDS + (long) s * STEP_SECONDS) * 1000L;
+            for (int p = 0; p < PATIENTS; p++) {
+                for (int v = 0; v < VITALS.length; v++) {
+                    anomalies += detector.process(userIds[p], VITALS[v], values[p][v][s], millis).size();
+                    readings++;
+                }
+            }
+        }
+        double nsPerReading = (System.nanoTime() - start) / (double) readings;
+
+        System.out.println("Vital signs anomaly detector - replay of " + PATIENTS + " patients x " + DAYS + " days");
+        System.out.println(String.format("  %d readings, %.0f ns/reading (%.2f µs), %d anomalies",
+                readings, nsPerReading, nsPerReading / 1000, anomalies));
+        System.out.println("  " + detector.getStatistics());
+
+        assertTrue("Detector too slow: " + nsPerReading + " ns/reading", nsPerReading < 20_000);
+    }
+}
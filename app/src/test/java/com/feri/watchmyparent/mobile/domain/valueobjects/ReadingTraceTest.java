@@ -0,0 +1,88 @@
+package com.feri.watchmyparent.mobile.domain.valueobjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace.Stage;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapele unei citiri: prima marcare câștigă, după completare nimic nu se mai schimbă, iar marcările făcute
+ * din thread-uri diferite (colectare, transmisie, callback Kafka) sunt văzute de thread-ul care completează.
+ */
+public class ReadingTraceTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void firstMarkWinsAndCompletionFreezesTheTrace() {
+        ReadingTrace trace = new ReadingTrace(SensorType.HEART_RATE, 1_000 * MS, 1_010 * MS);
+        trace.mark(Stage.TRANSMIT_START, 1_020 * MS);
+        trace.mark(Stage.TRANSMIT_START, 1_500 * MS);
+        assertEquals(1_020 * MS, trace.getStageNanos(Stage.TRANSMIT_START));
+
+        assertTrue(trace.tryComplete());
+        assertFalse(trace.tryComplete());
+        trace.mark(Stage.BROKER_ACK, 1_030 * MS);
+        assertFalse(trace.hasStage(Stage.BROKER_ACK));
+    }
+
+    @Test
+    public void reportListsStagesInPipelineOrderRelativeToTheSensor() {
+        ReadingTrace trace = new ReadingTrace(SensorType.BLOOD_OXYGEN, 1_000 * MS, 1_250 * MS);
+        // Marcate în altă ordine decât cea a pipeline-ului
+        trace.mark(Stage.OFFLINE_STORED, 1_900 * MS);
+        trace.mark(Stage.DTO_CONVERTED, 1_260 * MS);
+        trace.mark(Stage.RETRY_QUEUED, 1_400 * MS);
+
+        assertEquals("ReadingTrace{type=BLOOD_OXYGEN, COLLECTED=+250ms, DTO_CONVERTED=+260ms, "
+                + "RETRY_QUEUED=+400ms, OFFLINE_STORED=+900ms}", trace.toString());
+    }
+
+    @Test
+    public void stagesMarkedOnOtherThreadsAreVisibleAndRacesKeepOneValue() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                ReadingTrace trace = new ReadingTrace(SensorType.HEART_RATE, MS, 2 * MS);
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(4);
+                long[] racing = {30 * MS, 31 * MS};
+                for (int t = 0; t < 4; t++) {
+                    final int thread = t;
+                    pool.execute(() -> {
+                        try {
+                            start.await();
+                            if (thread < 2) {
+                                trace.mark(Stage.BROKER_ACK, racing[thread]);
+                            } else {
+                                trace.mark(thread == 2 ? Stage.DTO_CONVERTED : Stage.TRANSMIT_START, thread * 10 * MS);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                start.countDown();
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+
+                assertEquals(20 * MS, trace.getStageNanos(Stage.DTO_CONVERTED));
+                assertEquals(30 * MS, trace.getStageNanos(Stage.TRANSMIT_START));
+                long ack = trace.getStageNanos(Stage.BROKER_ACK);
+                assertTrue("Unexpected ACK " + ack, ack == racing[0] || ack == racing[1]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Migrările 1→9 rulate pe SQLite real: o bază creată cu schema versiunii 1 ajunge la tabelele și indexurile
+ * versiunii 9 fără să piardă utilizatorii sau citirile, iar rollup-urile sunt calculate pentru istoricul existent.
+ */
+public class AppDatabaseMigrationsTest {
+
+    // Schema versiunii 1 pentru tabelele atinse de migrări (DDL-ul generat de Room)
+    private static final String USERS_V1 = "CREATE TABLE IF NOT EXISTS `users` (`idUser` TEXT NOT NULL, "
+            + "`firstNameUser` TEXT, `lastNameUser` TEXT, PRIMARY KEY(`idUser`))";
+    private static final String SENSOR_DATA_V1 = "CREATE TABLE IF NOT EXISTS `sensor_data` ("
+            + "`idSensorData` TEXT NOT NULL, `userId` TEXT, `sensorType` TEXT, `value` REAL NOT NULL, `unit` TEXT, "
+            + "`timestamp` TEXT, `transmissionStatus` TEXT, `transmissionTime` TEXT, `deviceId` TEXT, "
+            + "`metadata` TEXT, PRIMARY KEY(`idSensorData`), FOREIGN KEY(`userId`) REFERENCES `users`(`idUser`) "
+            + "ON UPDATE NO ACTION ON DELETE CASCADE )";
+    private static final String SENSOR_DATA_INDEX_V1 = "CREATE INDEX IF NOT EXISTS "
+            + "`index_sensor_data_userId_sensorType_timestamp` ON `sensor_data` (`userId`, `sensorType`, `timestamp`)";
+    private static final String SENSOR_DATA_STATUS_INDEX = "CREATE INDEX IF NOT EXISTS "
+            + "`index_sensor_data_transmissionStatus` ON `sensor_data` (`transmissionStatus`)";
+
+    private Connection connection;
+
+    @Before
+    public void createVersionOne() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        execute("PRAGMA foreign_keys=ON");
+        execute(USERS_V1);
+        execute(SENSOR_DATA_V1);
+        execute(SENSOR_DATA_INDEX_V1);
+        execute(SENSOR_DATA_STATUS_INDEX);
+        execute("INSERT INTO users (idUser, firstNameUser) VALUES ('patient-1', 'Maria')");
+        insertReading("r1", "HEART_RATE", 71, "2025-06-01T12:05:10");
+        insertReading("r2", "HEART_RATE", 83, "2025-06-01T12:09:59.250");
+        insertReading("r3", "HEART_RATE", 76, "2025-06-01T12:10");
+        insertReading("r4", "STEP_COUNT", 120, "2025-06-01T12:07:00");
+    }
+
+    @After
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void migrationsCoverEveryVersionInOrder() {
+        int version = 1;
+        for (Migration migration : AppDatabaseMigrations.ALL) {
+            assertEquals(version, migration.startVersion);
+            assertEquals(version + 1, migration.endVersion);
+            version++;
+        }
+        assertEquals(9, version);
+    }
+
+    @Test
+    public void versionOneDatabaseReachesTheCurrentSchemaWithItsData() throws SQLException {
+        migrateAll();
+
+        Set<String> tables = names("SELECT name FROM sqlite_master WHERE type = 'table'");
+        for (String table : new String[]{"geocode_cache", "location_history", "vital_baseline", "emergency_outbox",
+                "sensor_rollup", "sensor_archive_chunk", "safe_zone"}) {
+            assertTrue(table, tables.contains(table));
+        }
+        Set<String> indices = names("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'sensor_data' "
+                + "AND name LIKE 'index_%'");
+        assertFalse(indices.contains("index_sensor_data_userId_sensorType_timestamp"));
+        assertTrue(indices.contains("index_sensor_data_userId_sensorType_timestamp_idSensorData"));
+        assertTrue(indices.contains("index_sensor_data_userId_timestamp_idSensorData"));
+        assertTrue(indices.contains("index_sensor_data_transmissionStatus"));
+
+        assertEquals(1, count("SELECT COUNT(*) FROM users"));
+        assertEquals(4, count("SELECT COUNT(*) FROM sensor_data"));
+    }
+
+    @Test
+    public void existingReadingsGetFiveMinuteRollups() throws SQLException {
+        migrateAll();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT minValue, maxValue, sumValue, sampleCount FROM sensor_rollup "
+                     + "WHERE userId = 'patient-1' AND sensorType = 'HEART_RATE' AND bucketStart = '2025-06-01T12:05'")) {
+            assertTrue(rows.next());
+            assertEquals(71, rows.getDouble(1), 0);
+            assertEquals(83, rows.getDouble(2), 0);
+            assertEquals(154, rows.getDouble(3), 0);
+            assertEquals(2, rows.getInt(4));
+        }
+        assertEquals(1, count("SELECT sampleCount FROM sensor_rollup WHERE sensorType = 'HEART_RATE' "
+                + "AND bucketStart = '2025-06-01T12:10'"));
+        assertEquals(3, count("SELECT COUNT(*) FROM sensor_rollup"));
+
+        // Tabelele noi păstrează foreign key-ul către users
+        execute("DELETE FROM users WHERE idUser = 'patient-1'");
+        assertEquals(0, count("SELECT COUNT(*) FROM sensor_rollup"));
+    }
+
+    private void migrateAll() {
+        SupportSQLiteDatabase database = jdbcDatabase(connection);
+        for (Migration migration : AppDatabaseMigrations.ALL) {
+            migration.migrate(database);
+        }
+    }
+
+    // Doar execSQL e folosit de migrări; restul metodelor nu sunt apelate
+    private static SupportSQLiteDatabase jdbcDatabase(Connection connection) {
+        return (SupportSQLiteDatabase) Proxy.newProxyInstance(
+                SupportSQLiteDatabase.class.getClassLoader(),
+                new Class<?>[]{SupportSQLiteDatabase.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("execSQL")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute((String) args[0]);
+                    }
+                    return null;
+                });
+    }
+
+    private void insertReading(String id, String sensorType, double value, String timestamp) throws SQLException {
+        execute("INSERT INTO sensor_data (idSensorData, userId, sensorType, value, timestamp, transmissionStatus) "
+                + "VALUES ('" + id + "', 'patient-1', '" + sensorType + "', " + value + ", '" + timestamp + "', 'PENDING')");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rows = statement.executeQuery(sql)) {
+            return rows.next() ? rows.getInt(1) : 0;
+        }
+    }
+
+    private Set<String> names(String sql) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (Statement statement = connection.createStatement(); ResultSet rows = statement.executeQuery(sql)) {
+            while (rows.next()) names.add(rows.getString(1));
+        }
+        return names;
+    }
+}
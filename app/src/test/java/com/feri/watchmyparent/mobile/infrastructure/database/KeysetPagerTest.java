@@ -0,0 +1,243 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fereastra paginată a istoricului: derularea până la capăt vede fiecare citire exact o dată, în ordine,
+ * cu cel mult maxPages pagini în memorie; derularea înapoi re-încarcă paginile eliberate; rezultatele unei
+ * ferestre invalidate sunt ignorate. Sursa e un istoric în memorie (chei = numere descrescătoare), care
+ * numără rândurile citite - fiecare pagină citește pageSize rânduri, indiferent cât de adânc e în istoric.
+ */
+public class KeysetPagerTest {
+
+    private static final int HISTORY = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH = 20;
+    private static final int MAX_PAGES = 4;
+
+    @Test
+    public void scrollingThroughHistoryVisitsEveryRowOnceWithBoundedMemory() {
+        HistorySource source = new HistorySource(HISTORY);
+        KeysetPager<Integer, Integer> pager = new KeysetPager<>(source, PAGE_SIZE, PREFETCH, MAX_PAGES, Runnable::run);
+        Viewport viewport = new Viewport(pager);
+        pager.start();
+        assertEquals(PAGE_SIZE, pager.size());
+        assertEquals(PAGE_SIZE, source.rowsRead.get());
+
+        List<Integer> seen = new ArrayList<>();
+        int maxHeld = 0;
+        while (viewport.position < pager.size()) {
+            seen.add(viewport.bind());
+            viewport.position++;
+            maxHeld = Math.max(maxHeld, pager.size());
+        }
+
+        assertEquals(HISTORY, seen.size());
+        for (int i = 0; i < HISTORY; i++) {
+            assertEquals("row " + i, HISTORY - 1 - i, (int) seen.get(i));
+        }
+        assertTrue(pager.isEndReached());
+        assertTrue("held " + maxHeld, maxHeld <= MAX_PAGES * PAGE_SIZE);
+        // Un singur query pe pagină (plus pagina goală de la capăt), fiecare de cel mult PAGE_SIZE rânduri
+        assertEquals(HISTORY / PAGE_SIZE + 1, source.olderLoads.get());
+        assertEquals(HISTORY, source.rowsRead.get());
+    }
+
+    @Test
+    public void scrollingBackUpReloadsReleasedPagesInOrder() {
+        HistorySource source = new HistorySource(2_000);
+        KeysetPager<Integer, Integer> pager = new KeysetPager<>(source, PAGE_SIZE, PREFETCH, MAX_PAGES, Runnable::run);
+        Viewport viewport = new Viewport(pager);
+        pager.start();
+
+        // În jos până la rândul 1000 (cheia 999): primele pagini au fost eliberate
+        while (viewport.bind() != 999) viewport.position++;
+        assertTrue(pager.size() <= MAX_PAGES * PAGE_SIZE);
+        assertTrue(viewport.position < 1000);
+
+        // Înapoi în sus până la cea mai nouă citire
+        List<Integer> seen = new ArrayList<>();
+        while (viewport.position >= 0) {
+            seen.add(viewport.bind());
+            viewport.position--;
+        }
+        assertEquals(1001, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(999 + i, (int) seen.get(i));
+        }
+        assertEquals(1999, (int) pager.get(0));
+        assertTrue(pager.size() <= MAX_PAGES * PAGE_SIZE);
+        assertTrue(source.newerLoads.get() > 0);
+    }
+
+    @Test
+    public void staleResultsAreIgnoredAfterInvalidate() {
+        List<CompletableFuture<KeysetPager.Page<Integer, Integer>>> pending = new ArrayList<>();
+        KeysetPager<Integer, Integer> pager = new KeysetPager<>(new KeysetPager.PageSource<Integer, Integer>() {
+            @Override
+            public CompletableFuture<KeysetPager.Page<Integer, Integer>> loadOlder(Integer after, int limit) {
+                CompletableFuture<KeysetPager.Page<Integer, Integer>> future = new CompletableFuture<>();
+                pending.add(future);
+                return future;
+            }
+
+            @Override
+            public CompletableFuture<KeysetPager.Page<Integer, Integer>> loadNewer(Integer before, int limit) {
+                throw new AssertionError("window starts at the newest rows");
+            }
+        }, PAGE_SIZE, PREFETCH, MAX_PAGES, Runnable::run);
+        AtomicInteger inserted = new AtomicInteger();
+        pager.setListener(new CountingListener(inserted));
+
+        pager.start();
+        pager.invalidate();
+        assertEquals(2, pending.size());
+        pending.get(0).complete(page(100, 10));
+        assertEquals(0, pager.size());
+        assertEquals(0, inserted.get());
+
+        pending.get(1).complete(page(200, 10));
+        assertEquals(10, pager.size());
+        assertEquals(200, (int) pager.get(0));
+        assertFalse(pager.isLoading());
+        assertTrue(pager.isEndReached()); // pagină incompletă
+    }
+
+    @Test
+    public void failedLoadIsReportedAndRetriedOnNextBind() {
+        AtomicInteger attempts = new AtomicInteger();
+        HistorySource history = new HistorySource(500);
+        KeysetPager<Integer, Integer> pager = new KeysetPager<>(new KeysetPager.PageSource<Integer, Integer>() {
+            @Override
+            public CompletableFuture<KeysetPager.Page<Integer, Integer>> loadOlder(Integer after, int limit) {
+                if (attempts.incrementAndGet() == 2) {
+                    CompletableFuture<KeysetPager.Page<Integer, Integer>> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(new IllegalStateException("database is locked"));
+                    return failed;
+                }
+                return history.loadOlder(after, limit);
+            }
+
+            @Override
+            public CompletableFuture<KeysetPager.Page<Integer, Integer>> loadNewer(Integer before, int limit) {
+                return history.loadNewer(before, limit);
+            }
+        }, PAGE_SIZE, PREFETCH, MAX_PAGES, Runnable::run);
+        List<Throwable> errors = new ArrayList<>();
+        pager.setListener(new CountingListener(new AtomicInteger()) {
+            @Override
+            public void onLoadFailed(Throwable error) {
+                errors.add(error);
+            }
+        });
+
+        pager.start();
+        pager.loadAround(PAGE_SIZE - 1);
+        assertEquals(1, errors.size());
+        assertEquals(PAGE_SIZE, pager.size());
+        pager.loadAround(PAGE_SIZE - 1);
+        assertEquals(2 * PAGE_SIZE, pager.size());
+        assertEquals(1, pager.getStatistics().failedLoads);
+    }
+
+    private static KeysetPager.Page<Integer, Integer> page(int first, int count) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) items.add(first - i);
+        return new KeysetPager.Page<>(items, first, first - count + 1);
+    }
+
+    // RecyclerView simulat: poziția vizibilă se mută cu elementele inserate/eliminate deasupra ei
+    private static final class Viewport implements KeysetPager.Listener {
+        final KeysetPager<Integer, Integer> pager;
+        int position = 0;
+
+        Viewport(KeysetPager<Integer, Integer> pager) {
+            this.pager = pager;
+            pager.setListener(this);
+        }
+
+        int bind() {
+            pager.loadAround(position);
+            return pager.get(position);
+        }
+
+        @Override
+        public void onItemsInserted(int at, int count) {
+            // Prima pagină nu mută nimic; o pagină mai nouă adăugată deasupra împinge poziția în jos
+            if (at == 0 && pager.size() > count) position += count;
+        }
+
+        @Override
+        public void onItemsRemoved(int at, int count) {
+            if (at < position) position -= count;
+        }
+
+        @Override
+        public void onLoadFailed(Throwable error) {
+            throw new AssertionError(error);
+        }
+    }
+
+    private static class CountingListener implements KeysetPager.Listener {
+        final AtomicInteger inserted;
+
+        CountingListener(AtomicInteger inserted) {
+            this.inserted = inserted;
+        }
+
+        @Override
+        public void onItemsInserted(int position, int count) {
+            inserted.addAndGet(count);
+        }
+
+        @Override
+        public void onItemsRemoved(int position, int count) {
+        }
+
+        @Override
+        public void onLoadFailed(Throwable error) {
+        }
+    }
+
+    // Istoric descrescător HISTORY-1 .. 0; "după cheie" = valori mai mici, ca ORDER BY timestamp DESC
+    private static final class HistorySource implements KeysetPager.PageSource<Integer, Integer> {
+        final int rows;
+        final AtomicInteger rowsRead = new AtomicInteger();
+        final AtomicInteger olderLoads = new AtomicInteger();
+        final AtomicInteger newerLoads = new AtomicInteger();
+
+        HistorySource(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public CompletableFuture<KeysetPager.Page<Integer, Integer>> loadOlder(Integer after, int limit) {
+            olderLoads.incrementAndGet();
+            int start = after == null ? rows - 1 : after - 1;
+            int count = Math.max(0, Math.min(limit, start + 1));
+            return CompletableFuture.completedFuture(read(start, count));
+        }
+
+        @Override
+        public CompletableFuture<KeysetPager.Page<Integer, Integer>> loadNewer(Integer before, int limit) {
+            newerLoads.incrementAndGet();
+            int end = before + 1; // cea mai veche valoare din pagină
+            int count = Math.max(0, Math.min(limit, rows - end));
+            return CompletableFuture.completedFuture(read(end + count - 1, count));
+        }
+
+        private KeysetPager.Page<Integer, Integer> read(int first, int count) {
+            rowsRead.addAndGet(count);
+            return count == 0 ? new KeysetPager.Page<>(new ArrayList<>(), null, null) : page(first, count);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+/**
+ * Query-urile observabile ale UI-ului: o rafală de invalidări Room (un tick de colectare scris rând cu rând)
+ * ajunge pe ecran ca cel mult o emisie pe cadru, re-citirile fără schimbări reale nu ajung deloc, iar toate
+ * ecranele care observă același query împart un singur upstream, reconectat după o eroare. Procesorul ține
+ * locul Flowable-ului Room; testele rulează pe rxjava 3.1.8, versiunea declarată în build.gradle.
+ */
+public class ReactiveQueriesTest {
+
+    private final TestScheduler frames = new TestScheduler();
+    private final ReactiveQueries queries = new ReactiveQueries(frames);
+    private final PublishProcessor<List<SensorData>> room = PublishProcessor.create();
+
+    @Test
+    public void burstOfInvalidationsReachesTheUiOncePerFrame() {
+        TestSubscriber<List<SensorData>> ui = queries.throttleToFrame(
+                room.distinctUntilChanged(ReactiveQueries::sameLatestReadings)).test();
+
+        // 17 scrieri în aceeași fereastră de 16 ms: prima trece imediat, ultima la sfârșitul cadrului
+        List<SensorData> readings = new ArrayList<>();
+        for (SensorType type : SensorType.values()) {
+            readings.add(reading(type, 1));
+            room.onNext(new ArrayList<>(readings));
+        }
+        ui.assertValueCount(1);
+        frames.advanceTimeBy(ReactiveQueries.FRAME_BUDGET_MS, TimeUnit.MILLISECONDS);
+        ui.assertValueCount(2);
+        assertEquals(SensorType.values().length, ui.values().get(1).size());
+
+        // Cadru fără invalidări - nimic nou
+        frames.advanceTimeBy(ReactiveQueries.FRAME_BUDGET_MS, TimeUnit.MILLISECONDS);
+        ui.assertValueCount(2);
+    }
+
+    @Test
+    public void reloadsWithoutRealChangesAreDropped() {
+        TestSubscriber<List<SensorData>> ui = queries.throttleToFrame(
+                room.distinctUntilChanged(ReactiveQueries::sameLatestReadings)).test();
+        List<SensorData> latest = new ArrayList<>();
+        latest.add(reading(SensorType.HEART_RATE, 72));
+        latest.add(reading(SensorType.STEP_COUNT, 1200));
+
+        // Room re-rulează query-ul la orice scriere în tabelă (alți pacienți, statusuri de transmisie)
+        for (int i = 0; i < 10; i++) {
+            room.onNext(reload(latest));
+            frames.advanceTimeBy(ReactiveQueries.FRAME_BUDGET_MS, TimeUnit.MILLISECONDS);
+        }
+        ui.assertValueCount(1);
+
+        latest.set(0, reading(SensorType.HEART_RATE, 75));
+        room.onNext(reload(latest));
+        frames.advanceTimeBy(ReactiveQueries.FRAME_BUDGET_MS, TimeUnit.MILLISECONDS);
+        ui.assertValueCount(2);
+        assertEquals(75, ui.values().get(1).get(0).getValue(), 0);
+        ui.assertNoErrors();
+    }
+
+    @Test
+    public void screensObservingTheSameQueryShareOneUpstream() {
+        AtomicInteger upstreamSubscriptions = new AtomicInteger();
+        Flowable<List<SensorData>> dashboard = queries.shared("sensor_data/latest/user-1",
+                () -> room.doOnSubscribe(subscription -> upstreamSubscriptions.incrementAndGet()));
+        Flowable<List<SensorData>> sensors = queries.shared("sensor_data/latest/user-1",
+                () -> room.doOnSubscribe(subscription -> upstreamSubscriptions.incrementAndGet()));
+        assertSame(dashboard, sensors);
+
+        TestSubscriber<List<SensorData>> dashboardUi = dashboard.test();
+        TestSubscriber<List<SensorData>> sensorsUi = sensors.test();
+        assertEquals(1, upstreamSubscriptions.get());
+
+        List<SensorData> latest = new ArrayList<>();
+        latest.add(reading(SensorType.HEART_RATE, 72));
+        room.onNext(latest);
+        dashboardUi.assertValueCount(1);
+        sensorsUi.assertValueCount(1);
+
+        // Un ecran deschis mai târziu primește imediat ultima valoare, fără un query nou
+        TestSubscriber<List<SensorData>> locationUi = sensors.test();
+        locationUi.assertValueCount(1);
+        assertEquals(1, upstreamSubscriptions.get());
+
+        // Upstream-ul se închide odată cu ultimul ecran
+        dashboardUi.cancel();
+        sensorsUi.cancel();
+        assertTrue(room.hasSubscribers());
+        locationUi.cancel();
+        assertFalse(room.hasSubscribers());
+    }
+
+    @Test
+    public void sharedQueryReconnectsAfterAnUpstreamError() {
+        // Fiecare abonare upstream e un query Room nou (Room re-rulează query-ul la abonare)
+        List<PublishProcessor<List<SensorData>>> connections = new ArrayList<>();
+        Flowable<List<SensorData>> latest = queries.shared("sensor_data/latest/user-1", () -> Flowable.defer(() -> {
+            PublishProcessor<List<SensorData>> connection = PublishProcessor.create();
+            connections.add(connection);
+            return connection;
+        }));
+
+        TestSubscriber<List<SensorData>> dashboardUi = latest.test();
+        List<SensorData> readings = new ArrayList<>();
+        readings.add(reading(SensorType.HEART_RATE, 72));
+        connections.get(0).onNext(readings);
+        connections.get(0).onError(new IllegalStateException("database closed"));
+        dashboardUi.assertValueCount(1).assertError(IllegalStateException.class);
+
+        // Ecranul deschis după eroare nu primește eroarea veche, ci un query nou
+        TestSubscriber<List<SensorData>> sensorsUi = latest.test();
+        assertEquals(2, connections.size());
+        sensorsUi.assertNoErrors().assertNoValues();
+        connections.get(1).onNext(readings);
+        sensorsUi.assertValueCount(1).assertNoErrors();
+    }
+
+    @Test
+    public void frameThrottleOnTheComputationSchedulerDeliversTheLatestValue() throws InterruptedException {
+        ReactiveQueries computationQueries = new ReactiveQueries();
+        PublishProcessor<Integer> source = PublishProcessor.create();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        TestSubscriber<Integer> ui = computationQueries.throttleToFrame(source)
+                .doOnNext(value -> threads.add(Thread.currentThread().getName()))
+                .test();
+
+        // Prima valoare trece pe thread-ul care scrie, ultima din cadru e livrată de scheduler-ul computation -
+        // de aceea ViewModel-urile folosesc postValue
+        source.onNext(1);
+        source.onNext(2);
+        source.onNext(3);
+        ui.awaitCount(2);
+        ui.assertValues(1, 3);
+        assertTrue(threads.toString(), threads.get(1).startsWith("RxComputationThreadPool"));
+
+        // emitLast: valoarea reținută în cadru nu se pierde când fluxul se termină
+        source.onNext(4);
+        source.onNext(5);
+        source.onComplete();
+        assertTrue(ui.await(5, TimeUnit.SECONDS));
+        ui.assertComplete();
+        assertEquals(5, (int) ui.values().get(ui.values().size() - 1));
+    }
+
+    private static SensorData reading(SensorType type, double value) {
+        User user = new User();
+        user.setIdUser("user-1");
+        return new SensorData(user, type, value, "watch-1");
+    }
+
+    // Aceleași rânduri, obiecte noi - ce produce Room la fiecare re-rulare a query-ului
+    private static List<SensorData> reload(List<SensorData> readings) {
+        List<SensorData> copies = new ArrayList<>(readings.size());
+        for (SensorData reading : readings) {
+            SensorData copy = new SensorData();
+            copy.setIdSensorData(reading.getIdSensorData());
+            copy.setUser(reading.getUser());
+            copy.setSensorType(reading.getSensorType());
+            copy.setValue(reading.getValue());
+            copy.setUnit(reading.getUnit());
+            copy.setTimestamp(reading.getTimestamp());
+            copy.setTransmissionStatus(reading.getTransmissionStatus());
+            copy.setDeviceId(reading.getDeviceId());
+            copies.add(copy);
+        }
+        return copies;
+    }
+}
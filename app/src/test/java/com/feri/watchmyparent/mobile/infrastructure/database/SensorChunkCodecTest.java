@@ -0,0 +1,213 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Chunk-urile arhivei: o zi de puls (o citire la 30 s, cu jitter de milisecunde și goluri) trebuie să revină
+ * exact la decodare, inclusiv unit/deviceId null și schimbarea ceasului, și să ocupe o fracțiune din rândurile
+ * Room echivalente. Rândurile sunt estimate aici ca textele pe care Room le scrie (id UUID, timestamp ISO etc.).
+ */
+public class SensorChunkCodecTest {
+
+    private static final long DAY_START = LocalDateTime.of(2025, 5, 1, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final int TICK_MILLIS = 30_000;
+    private static final String WATCH = "galaxy-watch-7";
+
+    @Test
+    public void dayOfHeartRateRoundTripsExactly() {
+        Readings day = heartRateDay(DAY_START, 42);
+        byte[] chunk = encode(day);
+
+        List<long[]> times = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        List<String> units = new ArrayList<>();
+        List<String> devices = new ArrayList<>();
+        int emitted = SensorChunkCodec.decode(chunk, Long.MIN_VALUE, Long.MAX_VALUE,
+                (millis, value, unit, deviceId) -> {
+                    times.add(new long[]{millis});
+                    values.add(value);
+                    units.add(unit);
+                    devices.add(deviceId);
+                });
+
+        assertEquals(day.size(), emitted);
+        for (int i = 0; i < day.size(); i++) {
+            assertEquals("time " + i, day.millis.get(i).longValue(), times.get(i)[0]);
+            assertEquals("value " + i, Double.doubleToRawLongBits(day.values.get(i)),
+                    Double.doubleToRawLongBits(values.get(i)));
+            assertEquals("unit " + i, day.units.get(i), units.get(i));
+            assertEquals("device " + i, day.deviceIds.get(i), devices.get(i));
+        }
+    }
+
+    @Test
+    public void footerHoldsRangeCountAndExtremesWithoutDecoding() {
+        Readings day = heartRateDay(DAY_START, 7);
+        SensorChunkCodec.Footer footer = SensorChunkCodec.Footer.read(encode(day));
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (double value : day.values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        assertEquals(day.size(), footer.count);
+        assertEquals(day.millis.get(0).longValue(), footer.firstMillis);
+        assertEquals(day.millis.get(day.size() - 1).longValue(), footer.lastMillis);
+        assertEquals(min, footer.minValue, 0);
+        assertEquals(max, footer.maxValue, 0);
+        assertTrue(footer.overlaps(DAY_START + DAY_MILLIS / 2, DAY_START + DAY_MILLIS));
+        assertTrue(!footer.overlaps(DAY_START + DAY_MILLIS, DAY_START + 2 * DAY_MILLIS));
+    }
+
+    @Test
+    public void chunkIsAFractionOfTheRoomRows() {
+        Readings day = heartRateDay(DAY_START, 3);
+        byte[] chunk = encode(day);
+        long rowBytes = 0;
+        for (int i = 0; i < day.size(); i++) {
+            rowBytes += estimatedRowBytes(day, i);
+        }
+        double rowBytesPerPoint = (double) rowBytes / day.size();
+        double chunkBytesPerPoint = (double) chunk.length / day.size();
+
+        assertTrue("chunk bytes/point " + chunkBytesPerPoint, chunkBytesPerPoint < 4);
+        assertTrue(rowBytesPerPoint / chunkBytesPerPoint > 20);
+    }
+
+    @Test
+    public void rangeDecodeReturnsOnlyTheRequestedWindow() {
+        Readings day = heartRateDay(DAY_START, 11);
+        byte[] chunk = encode(day);
+        long from = DAY_START + 6 * 3_600_000L;
+        long to = DAY_START + 9 * 3_600_000L;
+
+        int expected = 0;
+        for (long millis : day.millis) {
+            if (millis >= from && millis < to) expected++;
+        }
+        long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+        int emitted = SensorChunkCodec.decode(chunk, from, to, (millis, value, unit, deviceId) -> {
+            bounds[0] = Math.min(bounds[0], millis);
+            bounds[1] = Math.max(bounds[1], millis);
+        });
+
+        assertEquals(expected, emitted);
+        assertTrue(bounds[0] >= from);
+        assertTrue(bounds[1] < to);
+    }
+
+    @Test
+    public void resealMergesLateReadingsInTimeOrder() {
+        SensorChunkCodec.Builder first = new SensorChunkCodec.Builder();
+        for (int i = 0; i < 100; i += 2) {
+            first.add(DAY_START + (long) i * TICK_MILLIS, 70 + i % 7, "bpm", WATCH);
+        }
+        SensorChunkCodec.Builder merged = new SensorChunkCodec.Builder();
+        merged.addAll(first.encode());
+        // Citirile sosite după sigilare (backfill) - intercalate cu cele arhivate
+        for (int i = 1; i < 100; i += 2) {
+            merged.add(DAY_START + (long) i * TICK_MILLIS, 70 + i % 7, "bpm", WATCH);
+        }
+
+        SensorChunkCodec.ChunkReader reader = new SensorChunkCodec.ChunkReader(merged.encode());
+        assertEquals(100, reader.count());
+        int i = 0;
+        while (reader.next()) {
+            assertEquals(DAY_START + (long) i * TICK_MILLIS, reader.getEpochMillis());
+            assertEquals(70 + i % 7, reader.getValue(), 0);
+            i++;
+        }
+        assertEquals(100, i);
+    }
+
+    @Test
+    public void singlePointAndNullColumnsRoundTrip() {
+        SensorChunkCodec.Builder builder = new SensorChunkCodec.Builder();
+        builder.add(DAY_START, 97.5, null, null);
+        SensorChunkCodec.ChunkReader reader = new SensorChunkCodec.ChunkReader(builder.encode());
+        assertTrue(reader.next());
+        assertEquals(DAY_START, reader.getEpochMillis());
+        assertEquals(97.5, reader.getValue(), 0);
+        assertNull(reader.getUnit());
+        assertNull(reader.getDeviceId());
+        assertTrue(!reader.next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedChunkIsRejected() {
+        byte[] chunk = encode(heartRateDay(DAY_START, 5));
+        byte[] truncated = new byte[chunk.length - 9];
+        System.arraycopy(chunk, 0, truncated, 0, truncated.length);
+        new SensorChunkCodec.ChunkReader(truncated);
+    }
+
+    // ========== Date sintetice ==========
+
+    private static final class Readings {
+        final List<Long> millis = new ArrayList<>();
+        final List<Double> values = new ArrayList<>();
+        final List<String> units = new ArrayList<>();
+        final List<String> deviceIds = new ArrayList<>();
+
+        int size() {
+            return millis.size();
+        }
+    }
+
+    // Puls la 30 s cu jitter de câteva ms, câteva goluri (ceasul scos), o oră de pe telefon și un rând fără unitate
+    private static Readings heartRateDay(long dayStart, long seed) {
+        Random random = new Random(seed);
+        Readings readings = new Readings();
+        for (long tick = dayStart; tick < dayStart + DAY_MILLIS; tick += TICK_MILLIS) {
+            long offset = tick - dayStart;
+            if (offset >= 3 * 3_600_000L && offset < 3 * 3_600_000L + 20 * 60_000L) continue;
+            double dayPhase = 2 * Math.PI * offset / DAY_MILLIS;
+            readings.millis.add(tick + random.nextInt(40));
+            readings.values.add((double) Math.round(72 + 8 * Math.sin(dayPhase) + random.nextGaussian() * 3));
+            readings.units.add(readings.size() == 1000 ? null : "bpm");
+            readings.deviceIds.add(offset >= 14 * 3_600_000L && offset < 15 * 3_600_000L ? "phone" : WATCH);
+        }
+        return readings;
+    }
+
+    private static byte[] encode(Readings readings) {
+        SensorChunkCodec.Builder builder = new SensorChunkCodec.Builder();
+        for (int i = 0; i < readings.size(); i++) {
+            builder.add(readings.millis.get(i), readings.values.get(i), readings.units.get(i),
+                    readings.deviceIds.get(i));
+        }
+        byte[] chunk = builder.encode();
+        assertArrayEquals(chunk, builder.encode());
+        return chunk;
+    }
+
+    // Textele unui rând sensor_data (ca SensorArchive.estimatedRowBytes), fără antetul înregistrării și indexuri
+    private static long estimatedRowBytes(Readings readings, int index) {
+        String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(readings.millis.get(index)), ZoneOffset.UTC)
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return 8 + utf8Length(UUID.randomUUID().toString()) + utf8Length(UUID.randomUUID().toString())
+                + utf8Length("HEART_RATE") + utf8Length(readings.units.get(index)) + 2L * utf8Length(timestamp)
+                + utf8Length("TRANSMITTED") + utf8Length(readings.deviceIds.get(index));
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,145 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorSeries;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Seriile pentru grafice: un puls pe 30 de zile (o citire la 30 s, 86.400 de rânduri) ajunge la cel mult
+ * maxPoints puncte din rollup-urile de 5 minute, cu minimul și maximul global păstrate; intervalele scurte
+ * folosesc citirile brute, reduse cu LTTB, care păstrează capetele și vârfurile. Rollup-urile sunt calculate
+ * aici în memorie, ca INSERT ... SELECT-ul din SensorRollupDao.
+ */
+public class SeriesDownsamplerTest {
+
+    private static final LocalDateTime END = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final int TICK_SECONDS = 30;
+    private static final int MAX_POINTS = SeriesDownsampler.DEFAULT_MAX_POINTS;
+
+    @Test
+    public void thirtyDayHeartRateChartComesFromRollupsAndKeepsExtremes() {
+        LocalDateTime from = END.minusDays(30);
+        assertTrue(SeriesDownsampler.useRollups(from, END, MAX_POINTS));
+        int readings = 30 * 24 * 3600 / TICK_SECONDS;
+        double[] heartRate = heartRate(readings, 42);
+        heartRate[readings / 3] = 178;  // tahicardie de o citire
+        heartRate[2 * readings / 3] = 38; // bradicardie de o citire
+
+        SeriesDownsampler.MinMaxBuckets buckets = new SeriesDownsampler.MinMaxBuckets(from, END, MAX_POINTS);
+        long rollupSeconds = SeriesDownsampler.ROLLUP_BUCKET_SECONDS;
+        int perRollup = (int) (rollupSeconds / TICK_SECONDS);
+        for (int first = 0; first < readings; first += perRollup) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = first; i < Math.min(readings, first + perRollup); i++) {
+                min = Math.min(min, heartRate[i]);
+                max = Math.max(max, heartRate[i]);
+            }
+            buckets.add(SeriesDownsampler.epochSecond(from) + (long) first * TICK_SECONDS, min, max);
+        }
+        SensorSeries series = buckets.toSeries(SensorType.HEART_RATE, from, END);
+
+        assertEquals(SensorSeries.Source.ROLLUP, series.getSource());
+        assertEquals(readings / perRollup, series.getSourceRows());
+        assertTrue("points " + series.size(), series.size() <= MAX_POINTS);
+        assertTrue(series.size() > MAX_POINTS / 2);
+        assertIncreasing(series);
+        assertEquals(178, max(series), 0);
+        assertEquals(38, min(series), 0);
+        assertTrue(series.getEpochSecond(0) >= SeriesDownsampler.epochSecond(from));
+        assertTrue(series.getEpochSecond(series.size() - 1) < SeriesDownsampler.epochSecond(END));
+    }
+
+    @Test
+    public void shortRangeUsesRawReadingsAndLttbKeepsEndpointsAndSpikes() {
+        LocalDateTime from = END.minusHours(6);
+        assertFalse(SeriesDownsampler.useRollups(from, END, MAX_POINTS));
+        int readings = 6 * 3600 / TICK_SECONDS;
+        double[] heartRate = heartRate(readings, 7);
+        heartRate[readings / 2] = 165;
+
+        SeriesDownsampler.RawSeries raw = new SeriesDownsampler.RawSeries();
+        long fromSecond = SeriesDownsampler.epochSecond(from);
+        for (int i = 0; i < readings; i++) {
+            raw.add(fromSecond + (long) i * TICK_SECONDS, heartRate[i]);
+        }
+        SensorSeries series = raw.toSeries(SensorType.HEART_RATE, from, END, MAX_POINTS);
+
+        assertEquals(SensorSeries.Source.RAW, series.getSource());
+        assertEquals(readings, series.getSourceRows());
+        assertEquals(MAX_POINTS, series.size());
+        assertIncreasing(series);
+        assertEquals(fromSecond, series.getEpochSecond(0));
+        assertEquals(heartRate[0], series.getValue(0), 0);
+        assertEquals(heartRate[readings - 1], series.getValue(series.size() - 1), 0);
+        assertEquals(165, max(series), 0);
+        assertEquals(from, series.getTimestamp(0));
+    }
+
+    @Test
+    public void fewReadingsAreReturnedUnchanged() {
+        LocalDateTime from = END.minusMinutes(30);
+        SeriesDownsampler.RawSeries raw = new SeriesDownsampler.RawSeries();
+        for (int i = 0; i < 60; i++) {
+            raw.add(SeriesDownsampler.epochSecond(from) + i * TICK_SECONDS, 70 + i % 5);
+        }
+        SensorSeries series = raw.toSeries(SensorType.HEART_RATE, from, END, MAX_POINTS);
+        assertEquals(60, series.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals(70 + i % 5, series.getValue(i), 0);
+        }
+    }
+
+    @Test
+    public void rollupBucketsAreAlignedToFiveMinutes() {
+        assertEquals(LocalDateTime.of(2025, 6, 1, 12, 5),
+                SeriesDownsampler.rollupBucketStart(LocalDateTime.of(2025, 6, 1, 12, 9, 59, 999_000_000)));
+        assertEquals(LocalDateTime.of(2025, 6, 1, 12, 10),
+                SeriesDownsampler.rollupBucketStart(LocalDateTime.of(2025, 6, 1, 12, 10)));
+        // Pragul: maxPoints/2 bucket-uri de rollup în interval
+        assertFalse(SeriesDownsampler.useRollups(END.minusMinutes(5L * 249), END, MAX_POINTS));
+        assertTrue(SeriesDownsampler.useRollups(END.minusMinutes(5L * 250), END, MAX_POINTS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooFewPointsAreRejected() {
+        new SeriesDownsampler.MinMaxBuckets(END.minusDays(1), END, 2);
+    }
+
+    // Puls în jurul a 72, cu variație circadiană și zgomot
+    private static double[] heartRate(int readings, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[readings];
+        for (int i = 0; i < readings; i++) {
+            double dayPhase = 2 * Math.PI * (i * TICK_SECONDS % 86_400) / 86_400.0;
+            values[i] = Math.round(72 + 8 * Math.sin(dayPhase) + random.nextGaussian() * 3);
+        }
+        return values;
+    }
+
+    private static void assertIncreasing(SensorSeries series) {
+        for (int i = 1; i < series.size(); i++) {
+            assertTrue("point " + i, series.getEpochSecond(i) >= series.getEpochSecond(i - 1));
+        }
+    }
+
+    private static double max(SensorSeries series) {
+        double max = -Double.MAX_VALUE;
+        for (double value : series.getValues()) max = Math.max(max, value);
+        return max;
+    }
+
+    private static double min(SensorSeries series) {
+        double min = Double.MAX_VALUE;
+        for (double value : series.getValues()) min = Math.min(min, value);
+        return min;
+    }
+}
@@ -0,0 +1,256 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scriitorul unic: commit-ul precede future-ul, CRITICAL trece înaintea cozii, iar o scriere eșuată nu pierde
+ * restul lotului - nici pe o bază cu erori la nivel de instrucțiune, nici sub tranzacțiile imbricate ale Room.
+ */
+public class StorageWriterTest {
+
+    @Test
+    public void futuresCompleteOnlyAfterTheirTransactionCommits() throws Exception {
+        StatementDatabase database = new StatementDatabase();
+        StorageWriter writer = new StorageWriter("test", database, 5, 64);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Boolean>> observed = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 400; i++) {
+            String id = "row-" + i;
+            producers.execute(() -> observed.add(writer.submit(Priority.NORMAL, () -> database.insert(id))
+                    .thenApply(ignored -> database.isCommitted(id))));
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(5, TimeUnit.SECONDS));
+
+        for (CompletableFuture<Boolean> future : observed) {
+            assertTrue("future completed before commit", future.get(5, TimeUnit.SECONDS));
+        }
+        StorageWriter.WriterStatistics stats = writer.getStatistics();
+        assertEquals(400, database.committedRows());
+        assertEquals(400, stats.committedWrites);
+        assertTrue("writes were not grouped: " + stats.transactions, stats.transactions < 100);
+        writer.close();
+    }
+
+    @Test
+    public void criticalWritesAreAppliedBeforeQueuedNormalWrites() throws Exception {
+        StorageWriter writer = new StorageWriter("test", new StatementDatabase(), 5, 256);
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+        // Scriitorul e ocupat cu o tranzacție lentă cât timp se umple coada
+        CompletableFuture<Void> slow = writer.execute(Priority.NORMAL, () -> {
+            blocking.countDown();
+            await(release);
+        });
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String id = "steps-" + i;
+            futures.add(writer.submit(StorageWriter.priorityOf(SensorType.STEP_COUNT), () -> applied.add(id)));
+        }
+        futures.add(writer.submit(StorageWriter.priorityOf(SensorType.HEART_RATE), () -> applied.add("heart-rate")));
+        release.countDown();
+
+        slow.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Boolean> future : futures) future.get(5, TimeUnit.SECONDS);
+        assertEquals("heart-rate", applied.get(0));
+        assertEquals("steps-0", applied.get(1));
+        assertEquals("steps-19", applied.get(20));
+        assertEquals(Priority.NORMAL, StorageWriter.priorityOf(null));
+        writer.close();
+    }
+
+    @Test
+    public void failedWriteFailsOnlyItsCallerButFailedCommitFailsTheBatch() throws Exception {
+        StatementDatabase database = new StatementDatabase();
+        StorageWriter writer = new StorageWriter("test", database, 20, 3);
+
+        CompletableFuture<Boolean> first = writer.submit(Priority.NORMAL, () -> database.insert("a"));
+        CompletableFuture<Boolean> duplicate = writer.submit(Priority.NORMAL, () -> database.insert("a"));
+        CompletableFuture<Boolean> third = writer.submit(Priority.NORMAL, () -> database.insert("b"));
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(third.get(5, TimeUnit.SECONDS));
+        assertTrue(failed(duplicate));
+        assertEquals(2, database.committedRows());
+
+        database.failNextCommit = true;
+        CompletableFuture<Boolean> lost = writer.submit(Priority.NORMAL, () -> database.insert("c"));
+        assertTrue(failed(lost));
+        assertEquals(2, database.committedRows());
+
+        StorageWriter.WriterStatistics stats = writer.getStatistics();
+        assertEquals(2, stats.committedWrites);
+        assertEquals(2, stats.failedWrites);
+        // Lotul cu duplicatul e anulat o dată și reluat fără el; commit-ul eșuat e a doua anulare
+        assertEquals(2, stats.failedTransactions);
+
+        writer.close();
+        assertTrue(failed(writer.submit(Priority.CRITICAL, () -> database.insert("d"))));
+    }
+
+    @Test
+    public void failedDaoCallUnderRoomNestedTransactionsKeepsTheRestOfTheBatch() throws Exception {
+        RoomLikeDatabase database = new RoomLikeDatabase();
+        StorageWriter writer = new StorageWriter("test", database, 50, 4);
+
+        // Citirea pacientului înainte ca utilizatorul demo să existe: foreign key-ul eșuează doar pentru ea
+        CompletableFuture<Boolean> before = writer.submit(Priority.NORMAL, () -> database.insert("reading-1"));
+        CompletableFuture<Boolean> orphan = writer.submit(Priority.NORMAL, () -> database.insertOrphan("reading-2"));
+        CompletableFuture<Boolean> after = writer.submit(Priority.NORMAL, () -> database.insert("reading-3"));
+        CompletableFuture<Boolean> critical = writer.submit(Priority.CRITICAL, () -> database.insert("fall"));
+
+        assertTrue(before.get(5, TimeUnit.SECONDS));
+        assertTrue(after.get(5, TimeUnit.SECONDS));
+        assertTrue(critical.get(5, TimeUnit.SECONDS));
+        assertTrue(failed(orphan));
+        assertTrue(database.isCommitted("reading-1"));
+        assertTrue(database.isCommitted("reading-3"));
+        assertTrue(database.isCommitted("fall"));
+        assertEquals(3, database.committedRows());
+        assertEquals(0, database.silentRollbacks.get());
+
+        StorageWriter.WriterStatistics stats = writer.getStatistics();
+        assertEquals(3, stats.committedWrites);
+        assertEquals(1, stats.failedWrites);
+        assertEquals(2, stats.transactions);
+        assertEquals(1, stats.failedTransactions);
+        writer.close();
+    }
+
+    private static boolean failed(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            throw new AssertionError("future did not complete", e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Eroare la nivel de instrucțiune (ca ABORT în SQLite/JDBC): o cheie duplicată eșuează doar insert-ul
+    private static final class StatementDatabase implements StorageWriter.Transactor {
+        final Set<String> committed = Collections.synchronizedSet(new HashSet<>());
+        List<String> pending;
+        volatile boolean failNextCommit = false;
+
+        @Override
+        public synchronized void runInTransaction(Runnable body) {
+            pending = new ArrayList<>();
+            try {
+                body.run();
+                if (failNextCommit) {
+                    failNextCommit = false;
+                    throw new IllegalStateException("disk I/O error");
+                }
+                committed.addAll(pending);
+            } finally {
+                pending = null;
+            }
+        }
+
+        boolean insert(String id) {
+            if (pending == null) throw new IllegalStateException("insert outside a transaction");
+            if (committed.contains(id) || pending.contains(id)) {
+                throw new IllegalStateException("UNIQUE constraint failed: " + id);
+            }
+            pending.add(id);
+            return true;
+        }
+
+        boolean isCommitted(String id) {
+            return committed.contains(id);
+        }
+
+        int committedRows() {
+            return committed.size();
+        }
+    }
+
+    // Ca SQLiteSession sub Room: fiecare apel DAO generat deschide o tranzacție imbricată; dacă aruncă, tranzacția
+    // exterioară e marcată (mChildFailed) și endTransaction face ROLLBACK fără să arunce
+    private static final class RoomLikeDatabase implements StorageWriter.Transactor {
+        final Set<String> committed = Collections.synchronizedSet(new HashSet<>());
+        final AtomicInteger silentRollbacks = new AtomicInteger();
+        List<String> pending;
+        boolean childFailed;
+
+        @Override
+        public synchronized void runInTransaction(Runnable body) {
+            pending = new ArrayList<>();
+            childFailed = false;
+            try {
+                body.run();
+                if (childFailed) {
+                    silentRollbacks.incrementAndGet();
+                } else {
+                    committed.addAll(pending);
+                }
+            } finally {
+                pending = null;
+            }
+        }
+
+        boolean insert(String id) {
+            return nested(() -> pending.add(id));
+        }
+
+        // INSERT cu foreign key către un utilizator inexistent
+        boolean insertOrphan(String id) {
+            return nested(() -> {
+                throw new IllegalStateException("FOREIGN KEY constraint failed: " + id);
+            });
+        }
+
+        private boolean nested(Runnable statement) {
+            if (pending == null) throw new IllegalStateException("DAO call outside a transaction");
+            boolean successful = false;
+            try {
+                statement.run();
+                successful = true;
+                return true;
+            } finally {
+                if (!successful) childFailed = true;
+            }
+        }
+
+        boolean isCommitted(String id) {
+            return committed.contains(id);
+        }
+
+        int committedRows() {
+            return committed.size();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.feri.watchmyparent.mobile.infrastructure.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffer-ul write-behind al SensorDataRepository: un tick de colectare devine un singur insert în lot,
+ * citirile CRITICAL golesc imediat bufferul (nu stau doar în memorie), iar future-urile se completează abia
+ * după scrierea lotului. Simularea unei ore de colectare numără inserturile față de un insert per citire.
+ */
+public class WriteBehindBufferTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "write-behind-test");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<List<SensorType>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void tickIsWrittenAsOneBatchAndLeftoversFlushOnTimer() throws Exception {
+        WriteBehindBuffer<SensorType> buffer = buffer(50, 17);
+
+        List<CompletableFuture<SensorType>> tick = new ArrayList<>();
+        for (SensorType type : nonCritical(17)) tick.add(buffer.add(type));
+        for (CompletableFuture<SensorType> future : tick) future.get(1, TimeUnit.SECONDS);
+        assertEquals(1, batches.size());
+        assertEquals(17, batches.get(0).size());
+
+        // Sub prag: rămân în buffer până expiră fereastra
+        CompletableFuture<SensorType> late = buffer.add(SensorType.STEP_COUNT);
+        buffer.add(SensorType.LIGHT);
+        assertFalse(late.isDone());
+        assertEquals(SensorType.STEP_COUNT, late.get(1, TimeUnit.SECONDS));
+        assertEquals(2, batches.get(1).size());
+
+        WriteBehindBuffer.FlushStatistics stats = buffer.getStatistics();
+        assertEquals(1, stats.countFlushes);
+        assertEquals(1, stats.timeFlushes);
+        assertEquals(19, stats.flushedItems);
+        assertEquals(17, stats.largestFlush);
+        assertTrue(stats.maxBufferedMs >= 40);
+    }
+
+    @Test
+    public void criticalReadingFlushesImmediatelyAndCompletesOnlyAfterTheWrite() throws Exception {
+        CompletableFuture<Void> write = new CompletableFuture<>();
+        WriteBehindBuffer<SensorType> buffer = new WriteBehindBuffer<>(items -> {
+            batches.add(new ArrayList<>(items));
+            return write;
+        }, WriteBehindBufferTest::isCritical, 60_000, 64, timer);
+
+        CompletableFuture<SensorType> steps = buffer.add(SensorType.STEP_COUNT);
+        CompletableFuture<SensorType> light = buffer.add(SensorType.LIGHT);
+        CompletableFuture<SensorType> heartRate = buffer.add(SensorType.HEART_RATE);
+
+        // Lotul a plecat imediat, cu tot ce era în buffer, dar nimic nu e confirmat înaintea scrierii
+        assertEquals(1, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(0, buffer.getBufferedCount());
+        assertFalse(heartRate.isDone());
+        write.complete(null);
+        assertEquals(SensorType.HEART_RATE, heartRate.get(1, TimeUnit.SECONDS));
+        assertTrue(steps.isDone() && light.isDone());
+        assertEquals(1, buffer.getStatistics().durableFlushes);
+    }
+
+    @Test
+    public void explicitFlushWritesLeftoversAndFailedWriteFailsTheirFutures() throws Exception {
+        WriteBehindBuffer<SensorType> buffer = new WriteBehindBuffer<>(items -> {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("disk full"));
+            return failed;
+        }, WriteBehindBufferTest::isCritical, 60_000, 64, timer);
+
+        assertTrue(buffer.flush().isDone()); // buffer gol
+        CompletableFuture<SensorType> steps = buffer.add(SensorType.STEP_COUNT);
+        buffer.flush().get(1, TimeUnit.SECONDS);
+        try {
+            steps.get(1, TimeUnit.SECONDS);
+            throw new AssertionError("write failure was swallowed");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        WriteBehindBuffer.FlushStatistics stats = buffer.getStatistics();
+        assertEquals(1, stats.explicitFlushes);
+        assertEquals(1, stats.failedFlushes);
+    }
+
+    @Test
+    public void hourOfCollectionTicksWritesNonCriticalReadingsOnlyAlongsideCriticalOnes() throws Exception {
+        // O oră de tick-uri pe tier-uri, trimise back-to-back: fiecare citire CRITICAL se scrie imediat și ia cu ea
+        // ce s-a adunat din celelalte tier-uri, deci citirile non-critice nu mai costă inserturi proprii
+        WriteBehindBuffer<SensorType> buffer = buffer(20, 64);
+        int readings = 0;
+        int criticalReadings = 0;
+        List<CompletableFuture<SensorType>> futures = new ArrayList<>();
+        for (int second = 0; second < 3600; second += 30) {
+            for (SensorType type : SensorType.values()) {
+                if (second % type.getCriticalityLevel().getDefaultFrequencySeconds() == 0) {
+                    futures.add(buffer.add(type));
+                    readings++;
+                    if (isCritical(type)) criticalReadings++;
+                }
+            }
+        }
+        buffer.flush();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        WriteBehindBuffer.FlushStatistics stats = buffer.getStatistics();
+        assertEquals(readings, stats.flushedItems);
+        assertTrue(stats.flushes <= criticalReadings + 1);
+    }
+
+    private WriteBehindBuffer<SensorType> buffer(long maxDelayMs, int maxItems) {
+        return new WriteBehindBuffer<>(items -> {
+            batches.add(new ArrayList<>(items));
+            return CompletableFuture.completedFuture(null);
+        }, WriteBehindBufferTest::isCritical, maxDelayMs, maxItems, timer);
+    }
+
+    private static boolean isCritical(SensorType type) {
+        return type.getCriticalityLevel() == CriticalityLevel.CRITICAL;
+    }
+
+    private static List<SensorType> nonCritical(int count) {
+        List<SensorType> types = new ArrayList<>();
+        while (types.size() < count) {
+            for (SensorType type : SensorType.values()) {
+                if (!isCritical(type) && types.size() < count) types.add(type);
+            }
+        }
+        return types;
+    }
+}
@@ -0,0 +1,246 @@
+package com.feri.watchmyparent.mobile.infrastructure.external;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.GeocodeCacheDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.GeocodeCacheEntity;
+import com.feri.watchmyparent.mobile.infrastructure.utils.Geohash;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache-ul de reverse geocoding: cererile concurente pentru aceeași celulă produc un singur apel Geocoder (pe
+ * centrul celulei), L1 respectă TTL-ul și evacuează celula folosită cel mai demult, L2 (Room) evită Geocoder-ul
+ * după restart, iar o adresă lipsă nu e păstrată în cache.
+ */
+public class ReverseGeocodeCacheTest {
+
+    private static final double HOME_LAT = 47.0722;
+    private static final double HOME_LNG = 21.9211;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+
+    private ReverseGeocodeCache cache;
+
+    @After
+    public void shutdown() {
+        if (cache != null) cache.shutdown();
+    }
+
+    @Test
+    public void concurrentLookupsForOneCellShareOneGeocoderCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<double[]> calls = new CopyOnWriteArrayList<>();
+        cache = new ReverseGeocodeCache((lat, lng) -> {
+            calls.add(new double[]{lat, lng});
+            release.await(5, TimeUnit.SECONDS);
+            return "Strada Republicii 1, Oradea";
+        }, null, ReverseGeocodeCache.DEFAULT_PRECISION, 16, HOUR_MS);
+
+        double[] center = Geohash.decodeCenter(cache.cellOf(HOME_LAT, HOME_LNG));
+        List<CompletableFuture<String>> lookups = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // Fixuri diferite (jitter de ~1 m) în aceeași celulă
+            double jitter = (i - 5) / METERS_PER_DEGREE;
+            lookups.add(cache.getAddress(center[0] + jitter, center[1] - jitter));
+        }
+        release.countDown();
+
+        for (CompletableFuture<String> lookup : lookups) {
+            assertEquals("Strada Republicii 1, Oradea", lookup.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.size());
+        // Geocoder-ul primește centrul celulei, nu primul fix
+        assertEquals(center[0], calls.get(0)[0], 1e-12);
+        assertEquals(center[1], calls.get(0)[1], 1e-12);
+
+        ReverseGeocodeCache.GeocodeCacheStatistics stats = cache.getStatistics();
+        assertEquals(10, stats.lookups);
+        assertEquals(1, stats.geocoderCalls);
+        assertEquals(9, stats.coalesced);
+        assertEquals(0, stats.inFlight);
+    }
+
+    @Test
+    public void memoryEntryIsServedUntilItsTtlExpires() throws Exception {
+        CountingResolver resolver = new CountingResolver("Piața Unirii, Oradea");
+        cache = new ReverseGeocodeCache(resolver, null, ReverseGeocodeCache.DEFAULT_PRECISION, 16, 200);
+
+        assertEquals("Piața Unirii, Oradea", cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+        assertEquals("Piața Unirii, Oradea", cache.peek(HOME_LAT, HOME_LNG));
+        assertTrue(cache.getAddress(HOME_LAT, HOME_LNG).isDone());
+        assertEquals(1, resolver.calls);
+        assertEquals(1, cache.getStatistics().memoryHits);
+
+        Thread.sleep(300);
+        assertNull(cache.peek(HOME_LAT, HOME_LNG));
+        assertEquals("Piața Unirii, Oradea", cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+        assertEquals(2, resolver.calls);
+    }
+
+    @Test
+    public void leastRecentlyUsedCellIsEvicted() throws Exception {
+        CountingResolver resolver = new CountingResolver("address");
+        cache = new ReverseGeocodeCache(resolver, null, ReverseGeocodeCache.DEFAULT_PRECISION, 2, HOUR_MS);
+        double kilometer = 1000.0 / METERS_PER_DEGREE;
+
+        cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS);
+        cache.getAddress(HOME_LAT + kilometer, HOME_LNG).get(5, TimeUnit.SECONDS);
+        assertNotNull(cache.peek(HOME_LAT, HOME_LNG)); // prima celulă devine cea mai recent folosită
+        cache.getAddress(HOME_LAT + 2 * kilometer, HOME_LNG).get(5, TimeUnit.SECONDS);
+
+        assertNotNull(cache.peek(HOME_LAT, HOME_LNG));
+        assertNull(cache.peek(HOME_LAT + kilometer, HOME_LNG));
+        assertNotNull(cache.peek(HOME_LAT + 2 * kilometer, HOME_LNG));
+        assertEquals(2, cache.getStatistics().memoryEntries);
+        assertEquals(3, resolver.calls);
+    }
+
+    @Test
+    public void persistentEntrySurvivesARestartWithoutGeocoding() throws Exception {
+        InMemoryGeocodeDao dao = new InMemoryGeocodeDao();
+        CountingResolver first = new CountingResolver("Strada Republicii 1, Oradea");
+        cache = new ReverseGeocodeCache(first, dao, ReverseGeocodeCache.DEFAULT_PRECISION, 16, HOUR_MS);
+        cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS);
+        cache.shutdown();
+
+        String cell = cache.cellOf(HOME_LAT, HOME_LNG);
+        assertEquals("Strada Republicii 1, Oradea", dao.rows.get(cell).address);
+
+        // Proces nou: L1 e gol, L2 răspunde
+        CountingResolver second = new CountingResolver("should not be used");
+        cache = new ReverseGeocodeCache(second, dao, ReverseGeocodeCache.DEFAULT_PRECISION, 16, HOUR_MS);
+        assertEquals("Strada Republicii 1, Oradea", cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+        assertEquals("Strada Republicii 1, Oradea", cache.peek(HOME_LAT, HOME_LNG));
+        assertEquals(0, second.calls);
+        assertEquals(1, cache.getStatistics().persistentHits);
+        assertEquals(1, dao.rows.get(cell).hitCount);
+    }
+
+    @Test
+    public void expiredPersistentEntryIsResolvedAgain() throws Exception {
+        InMemoryGeocodeDao dao = new InMemoryGeocodeDao();
+        CountingResolver resolver = new CountingResolver("Strada Nouă 2, Oradea");
+        cache = new ReverseGeocodeCache(resolver, dao, ReverseGeocodeCache.DEFAULT_PRECISION, 16, HOUR_MS);
+        String cell = cache.cellOf(HOME_LAT, HOME_LNG);
+        GeocodeCacheEntity stale = new GeocodeCacheEntity();
+        stale.geohash = cell;
+        stale.address = "Strada Veche 1, Oradea";
+        stale.resolvedAtMillis = System.currentTimeMillis() - 2 * HOUR_MS;
+        dao.upsert(stale);
+
+        assertEquals("Strada Nouă 2, Oradea", cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+        assertEquals(1, resolver.calls);
+        assertEquals("Strada Nouă 2, Oradea", dao.rows.get(cell).address);
+
+        assertEquals(0, cache.purgeExpired().get(5, TimeUnit.SECONDS).intValue());
+        dao.rows.get(cell).resolvedAtMillis = System.currentTimeMillis() - 2 * HOUR_MS;
+        assertEquals(1, cache.purgeExpired().get(5, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void missingAddressIsNotCached() throws Exception {
+        InMemoryGeocodeDao dao = new InMemoryGeocodeDao();
+        CountingResolver resolver = new CountingResolver(null);
+        cache = new ReverseGeocodeCache(resolver, dao, ReverseGeocodeCache.DEFAULT_PRECISION, 16, HOUR_MS);
+
+        assertNull(cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+        assertNull(cache.peek(HOME_LAT, HOME_LNG));
+        assertTrue(dao.rows.isEmpty());
+
+        // Geocoder-ul răspunde data viitoare - adresa e cerută din nou, apoi păstrată
+        resolver.address = "Strada Republicii 1, Oradea";
+        assertEquals("Strada Republicii 1, Oradea", cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+        assertEquals(2, resolver.calls);
+        assertEquals(1, dao.rows.size());
+    }
+
+    @Test
+    public void geocoderFailureIsReportedAndNotCached() throws Exception {
+        CountingResolver resolver = new CountingResolver("Strada Republicii 1, Oradea");
+        resolver.failNext = true;
+        cache = new ReverseGeocodeCache(resolver, null, ReverseGeocodeCache.DEFAULT_PRECISION, 16, HOUR_MS);
+
+        try {
+            cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS);
+            throw new AssertionError("Expected the geocoder failure");
+        } catch (java.util.concurrent.ExecutionException expected) {
+            assertEquals("grpc failed", expected.getCause().getMessage());
+        }
+        assertEquals(1, cache.getStatistics().failures);
+        assertEquals("Strada Republicii 1, Oradea", cache.getAddress(HOME_LAT, HOME_LNG).get(5, TimeUnit.SECONDS));
+    }
+
+    // ========== HELPERS ==========
+
+    private static final class CountingResolver implements ReverseGeocodeCache.AddressResolver {
+        volatile String address;
+        volatile boolean failNext;
+        volatile int calls;
+
+        CountingResolver(String address) {
+            this.address = address;
+        }
+
+        @Override
+        public synchronized String resolve(double latitude, double longitude) throws Exception {
+            calls++;
+            if (failNext) {
+                failNext = false;
+                throw new java.io.IOException("grpc failed");
+            }
+            return address;
+        }
+    }
+
+    // geocode_cache în memorie, cu aceeași semantică a query-urilor Room
+    private static final class InMemoryGeocodeDao implements GeocodeCacheDao {
+        final Map<String, GeocodeCacheEntity> rows = new ConcurrentHashMap<>();
+
+        @Override
+        public void upsert(GeocodeCacheEntity entry) {
+            rows.put(entry.geohash, entry);
+        }
+
+        @Override
+        public GeocodeCacheEntity findByGeohash(String geohash) {
+            return rows.get(geohash);
+        }
+
+        @Override
+        public int recordHit(String geohash, long accessMillis) {
+            GeocodeCacheEntity row = rows.get(geohash);
+            if (row == null) return 0;
+            row.hitCount++;
+            row.lastAccessMillis = accessMillis;
+            return 1;
+        }
+
+        @Override
+        public int deleteResolvedBefore(long cutoffMillis) {
+            int deleted = 0;
+            for (GeocodeCacheEntity row : rows.values()) {
+                if (row.resolvedAtMillis < cutoffMillis && rows.remove(row.geohash) != null) deleted++;
+            }
+            return deleted;
+        }
+
+        @Override
+        public int count() {
+            return rows.size();
+        }
+    }
+}
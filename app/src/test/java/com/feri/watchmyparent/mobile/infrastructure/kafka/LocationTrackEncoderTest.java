@@ -0,0 +1,112 @@
+package com.feri.watchmyparent.mobile.infrastructure.kafka;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Lotul delta-encoded trece prin JSON și revine la aceleași puncte (coordonate la 1e-6, precizie rotunjită la metru)
+ * și e de câteva ori mai mic decât un mesaj JSON per fix.
+ */
+public class LocationTrackEncoderTest {
+
+    private static final String USER = "patient-1";
+    private static final double HOME_LAT = 47.0722;
+    private static final double HOME_LNG = 21.9211;
+
+    @Test
+    public void batchRoundTripsThroughJson() {
+        List<LocationPoint> points = walk(200, new Random(11));
+        Gson gson = new Gson();
+
+        String json = gson.toJson(LocationTrackEncoder.encode(USER, points));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> parsed = gson.fromJson(json, Map.class);
+        List<LocationPoint> decoded = LocationTrackEncoder.decode(parsed);
+
+        assertEquals(LocationTrackEncoder.DATA_TYPE, parsed.get("dataType"));
+        assertEquals(USER, parsed.get("userId"));
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            LocationPoint expected = points.get(i);
+            LocationPoint actual = decoded.get(i);
+            assertEquals(expected.getTimestampMillis(), actual.getTimestampMillis());
+            assertEquals(expected.getLatitude(), actual.getLatitude(), 1e-6);
+            assertEquals(expected.getLongitude(), actual.getLongitude(), 1e-6);
+            assertEquals(Math.round(expected.getAccuracyMeters()), actual.getAccuracyMeters(), 0.0);
+        }
+    }
+
+    @Test
+    public void batchIsSmallerThanOneMessagePerFix() {
+        List<LocationPoint> points = walk(200, new Random(11));
+        Gson gson = new Gson();
+
+        int perFixBytes = 0;
+        for (LocationPoint point : points) {
+            perFixBytes += utf8Length(gson.toJson(legacyMessage(point)));
+        }
+        int batchBytes = utf8Length(gson.toJson(LocationTrackEncoder.encode(USER, points)));
+        assertTrue("Delta encoding should beat per-point JSON: " + batchBytes + " vs " + perFixBytes,
+                batchBytes * 3 < perFixBytes);
+    }
+
+    @Test
+    public void emptyBatchDecodesToNoPoints() {
+        Map<String, Object> message = LocationTrackEncoder.encode(USER, Collections.<LocationPoint>emptyList());
+        assertEquals(0, LocationTrackEncoder.decode(message).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPayloadFormatIsRejected() {
+        Map<String, Object> message = new HashMap<>();
+        message.put("payloadFormat", "LOCATION_TRACK_DELTA_V0");
+        message.put("pointCount", 0);
+        LocationTrackEncoder.decode(message);
+    }
+
+    // Mers pe jos: un fix la 5 s, ~1.4 m/s cu direcție care se schimbă lent
+    private static List<LocationPoint> walk(int count, Random random) {
+        List<LocationPoint> points = new ArrayList<>(count);
+        double lat = HOME_LAT;
+        double lng = HOME_LNG;
+        double heading = 0;
+        long t = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            points.add(new LocationPoint(lat, lng, 4 + random.nextDouble() * 8, t));
+            heading += random.nextGaussian() * 0.2;
+            lat += Math.cos(heading) * 7 / 111_320.0;
+            lng += Math.sin(heading) * 7 / 75_900.0;
+            t += 5_000;
+        }
+        return points;
+    }
+
+    // Formatul vechi: un mesaj per fix
+    private static Map<String, Object> legacyMessage(LocationPoint point) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("dataType", "LOCATION_DATA");
+        message.put("userId", USER);
+        message.put("latitude", point.getLatitude());
+        message.put("longitude", point.getLongitude());
+        message.put("accuracy", point.getAccuracyMeters());
+        message.put("timestamp", point.getTimestamp().toString());
+        return message;
+    }
+
+    private static int utf8Length(String json) {
+        return json.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,50 @@
+package com.feri.watchmyparent.mobile.infrastructure.kafka;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+/**
+ * Corpul cererii REST Proxy rămâne JSON valid oricare ar fi cheia, iar valoarea e inserată neschimbată;
+ * din răspuns sunt numărate doar record-urile cu offset și fără error_code.
+ */
+public class RestProxyRecordsTest {
+
+    @Test
+    public void keyIsEscapedAsAJsonString() {
+        String key = "user \"quoted\" \\ path\n\t\u0001";
+        String body = RestProxyRecords.recordBody(key, "{\"value\":72.0}");
+
+        JsonObject record = JsonParser.parseString(body).getAsJsonObject()
+                .getAsJsonArray("records").get(0).getAsJsonObject();
+        assertEquals(key, record.get("key").getAsString());
+        assertEquals(72.0, record.getAsJsonObject("value").get("value").getAsDouble(), 0);
+    }
+
+    @Test
+    public void plainKeysKeepTheSameBody() {
+        assertEquals("{\"records\":[{\"key\":\"patient-1_1700000000000\",\"value\":{\"v\":1}}]}",
+                RestProxyRecords.recordBody(RestProxyRecords.messageKey("patient-1", 1_700_000_000_000L), "{\"v\":1}"));
+    }
+
+    @Test
+    public void onlyRecordsWithAnOffsetAndNoErrorCodeAreAccepted() {
+        assertEquals(2, RestProxyRecords.acceptedRecords("{\"offsets\":["
+                + "{\"partition\":0,\"offset\":41,\"error_code\":null,\"error\":null},"
+                + "{\"partition\":null,\"offset\":null,\"error_code\":50002,\"error\":\"Broker failure\"},"
+                + "{\"partition\":0,\"offset\":42}],\"key_schema_id\":null,\"value_schema_id\":null}"));
+        assertEquals(0, RestProxyRecords.acceptedRecords(
+                "{\"offsets\":[{\"partition\":null,\"offset\":null,\"error_code\":40403,\"error\":\"x\"}]}"));
+    }
+
+    @Test
+    public void responsesWithoutOffsetsConfirmNothing() {
+        assertEquals(0, RestProxyRecords.acceptedRecords(""));
+        assertEquals(0, RestProxyRecords.acceptedRecords("OK"));
+        assertEquals(0, RestProxyRecords.acceptedRecords("{}"));
+        assertEquals(0, RestProxyRecords.acceptedRecords("{\"offsets\":{}}"));
+    }
+}
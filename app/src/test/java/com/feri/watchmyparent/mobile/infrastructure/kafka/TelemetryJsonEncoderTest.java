@@ -0,0 +1,263 @@
+package com.feri.watchmyparent.mobile.infrastructure.kafka;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.entities.LocationData;
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationStatus;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSerializer;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Encoder-ul JSON precompilat pentru telemetrie: corpul REST Proxy scris direct în bytes trebuie să fie identic
+ * cu vechiul drum (HashMap construit în DataTransmissionServiceImpl / KafkaRetryService / KafkaMessageFormatter,
+ * Gson, String.format, OutputStreamWriter UTF-8).
+ */
+public class TelemetryJsonEncoderTest {
+
+    private static final long KEY_MILLIS = 1_715_000_123_456L;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (src, typeOfSrc, context)
+                    -> context.serialize(src.toString()))
+            .create();
+
+    @Test
+    public void sensorRecordsAreByteIdenticalToGsonMaps() {
+        Random random = new Random(42);
+        TelemetryJsonEncoder encoder = new TelemetryJsonEncoder(16); // pornește mic ca să testeze creșterea
+        for (int i = 0; i < 20_000; i++) {
+            SensorDataDTO dto = randomDto(random, i);
+            String userId = i % 50 == 0 ? "useré-" + i : "user-" + (i % 7);
+
+            encoder.encodeSensorRecord(dto, userId, KEY_MILLIS + i, TelemetryJsonEncoder.SensorLayout.TRANSMISSION);
+            assertSameBytes(legacyRecord(legacyTransmissionMessage(dto, userId), userId, KEY_MILLIS + i), encoder);
+
+            dto.setUserId(userId);
+            encoder.encodeSensorRecord(dto, userId, KEY_MILLIS, TelemetryJsonEncoder.SensorLayout.RETRY);
+            assertSameBytes(legacyRecord(legacyRetryMessage(dto), userId, KEY_MILLIS), encoder);
+            assertEquals(gson.toJson(legacyRetryMessage(dto)), encoder.valueAsString());
+            assertEquals(userId + "_" + KEY_MILLIS, encoder.keyAsString());
+        }
+    }
+
+    @Test
+    public void escapingAndNumbersMatchGson() {
+        String[] units = {"bpm", "<script>&'=\"", "back\\slash", "tab\tnew\nline\r\f\b", "\u0000\u001f\u007f",
+                "\u2028\u2029", "°C µg ă", "emoji 💓", "lone \uD83D surrogate", "\uDC93 low first", ""};
+        double[] values = {0, -0.0, 1, 72, 72.5, 98.25, 36.6, -1.5, 0.1, 0.001, 0.0001, 1e-10, 9_999_999.5,
+                1e7, 12_345_678.9, 1e21, 1e22, 123.456789, 46.770439, 23.594_232_1, 0.3 * 3, 100.0 / 3,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 4.35, 2.675, 1.005, 5e-324};
+        LocalDateTime[] timestamps = {
+                LocalDateTime.of(2024, 5, 6, 7, 8),
+                LocalDateTime.of(2024, 5, 6, 7, 8, 9),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 0, 1_000_000),
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0, 120_000),
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0, 7),
+                LocalDateTime.of(999, 1, 1, 0, 0),
+                LocalDateTime.of(12_345, 1, 1, 0, 0),
+                LocalDateTime.of(-5, 1, 1, 0, 0)};
+
+        TelemetryJsonEncoder encoder = new TelemetryJsonEncoder();
+        int i = 0;
+        for (String unit : units) {
+            for (double value : values) {
+                SensorDataDTO dto = new SensorDataDTO("user-1", SensorType.values()[i % SensorType.values().length],
+                        value, i % 3 == 0 ? null : "watch " + unit);
+                dto.setUnit(unit);
+                dto.setTimestamp(timestamps[i % timestamps.length]);
+                dto.setAlertLevel(i % 2 == 0 ? unit : null);
+                i++;
+                encoder.encodeSensorRecord(dto, "user-1", KEY_MILLIS, TelemetryJsonEncoder.SensorLayout.TRANSMISSION);
+                assertSameBytes(legacyRecord(legacyTransmissionMessage(dto, "user-1"), "user-1", KEY_MILLIS), encoder);
+            }
+        }
+
+        // NaN / Infinity: Gson refuză valoarea, encoder-ul la fel (mesajul merge pe drumul de eșec)
+        for (double invalid : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            SensorDataDTO dto = new SensorDataDTO("user-1", SensorType.HEART_RATE, invalid, "watch");
+            boolean gsonRejected = false;
+            boolean encoderRejected = false;
+            try {
+                gson.toJson(legacyTransmissionMessage(dto, "user-1"));
+            } catch (IllegalArgumentException expected) {
+                gsonRejected = true;
+            }
+            try {
+                encoder.encodeSensorValue(dto, "user-1", TelemetryJsonEncoder.SensorLayout.TRANSMISSION);
+            } catch (IllegalArgumentException expected) {
+                encoderRejected = true;
+            }
+            assertTrue(gsonRejected);
+            assertTrue(encoderRejected);
+        }
+    }
+
+    @Test
+    public void randomDoublesMatchDoubleToString() {
+        Random random = new Random(3);
+        TelemetryJsonEncoder encoder = new TelemetryJsonEncoder();
+        SensorDataDTO dto = new SensorDataDTO("u", SensorType.HEART_RATE, 0, null);
+        dto.setUnit(null);
+        dto.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, 0));
+        for (int i = 0; i < 200_000; i++) {
+            double value;
+            switch (i % 4) {
+                case 0:
+                    value = random.nextInt(20_000) / 100.0; // valori de senzor cu 2 zecimale
+                    break;
+                case 1:
+                    value = (random.nextDouble() - 0.5) * 360; // coordonate
+                    break;
+                case 2:
+                    value = Math.round(random.nextDouble() * 1e6) / 1e6 + random.nextInt(90);
+                    break;
+                default:
+                    value = Double.longBitsToDouble(random.nextLong());
+                    if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+            }
+            dto.setValue(value);
+            String json = encoder.encodeSensorValue(dto, "u", TelemetryJsonEncoder.SensorLayout.RETRY)
+                    .valueAsString();
+            String expected = "\"value\":" + Double.toString(value);
+            assertTrue(value + " -> " + json, json.contains(expected + ",") || json.contains(expected + "}"));
+        }
+    }
+
+    @Test
+    public void formatterMessagesAreByteIdenticalToGsonMaps() {
+        User user = new User("Ana", "Pop", "ana@example.com", null);
+        user.setIdUser("user-<7>");
+        TelemetryJsonEncoder encoder = new TelemetryJsonEncoder();
+
+        for (SensorType type : SensorType.values()) {
+            SensorData sensorData = new SensorData(user, type, 71.25, type.ordinal() % 2 == 0 ? null : "watch-7");
+            sensorData.setTimestamp(LocalDateTime.of(2024, 5, 6, 7, 8, 9, 500_000_000));
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "SENSOR_DATA");
+            message.put("userId", sensorData.getUser().getIdUser());
+            message.put("sensorType", sensorData.getSensorType().getCode());
+            message.put("value", sensorData.getValue());
+            message.put("unit", sensorData.getUnit());
+            message.put("timestamp", sensorData.getTimestamp().toString());
+            message.put("deviceId", sensorData.getDeviceId());
+            message.put("criticality", sensorData.getSensorType().getCriticalityLevel().name());
+            assertEquals(gson.toJson(message), encoder.encodeSensorData(sensorData).valueAsString());
+        }
+
+        for (boolean home : new boolean[]{true, false}) {
+            LocationData locationData = new LocationData(user, 46.770439, 23.591423);
+            LocationStatus status = new LocationStatus(home ? "HOME" : "AWAY", 46.770439, 23.5914231,
+                    home ? null : "Str. Memorandumului 28, Cluj-Napoca");
+            status.setTimestamp(LocalDateTime.of(2024, 5, 6, 7, 8, 0, 123_456_789));
+            locationData.setLocationStatus(status);
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "LOCATION_DATA");
+            message.put("userId", locationData.getUser().getIdUser());
+            message.put("status", locationData.getLocationStatus().getStatus());
+            message.put("latitude", locationData.getLocationStatus().getLatitude());
+            message.put("longitude", locationData.getLocationStatus().getLongitude());
+            message.put("address", locationData.getLocationStatus().getAddress());
+            message.put("timestamp", locationData.getLocationStatus().getTimestamp().toString());
+            message.put("isAtHome", locationData.isAtHome());
+            assertEquals(gson.toJson(message), encoder.encodeLocationData(locationData).valueAsString());
+        }
+    }
+
+    private static SensorDataDTO randomDto(Random random, int i) {
+        SensorType[] types = SensorType.values();
+        SensorDataDTO dto = new SensorDataDTO("ignored", types[random.nextInt(types.length)],
+                randomValue(random), i % 5 == 0 ? null : "galaxy-watch-" + (i % 3));
+        if (i % 11 == 0) dto.setUnit(null);
+        if (i % 4 == 0) dto.setAlertLevel(i % 8 == 0 ? "CRITICAL" : "WARNING");
+        dto.setRetryCount(i % 6);
+        dto.setTimestamp(LocalDateTime.of(2024, 1 + i % 12, 1 + i % 28, i % 24, i % 60, i % 3 == 0 ? 0 : i % 60,
+                i % 5 == 0 ? 0 : (i % 5 == 1 ? 250_000_000 : (i % 5 == 2 ? 123_456_000 : 1 + i))));
+        return dto;
+    }
+
+    private static double randomValue(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return 40 + random.nextInt(140);
+            case 1:
+                return random.nextInt(4000) / 100.0;
+            case 2:
+                return random.nextDouble() * 20 - 10;
+            case 3:
+                return random.nextInt(20_000);
+            default:
+                return random.nextGaussian();
+        }
+    }
+
+    // ========== Vechiul drum, copiat din codul înlocuit ==========
+
+    private static Map<String, Object> legacyTransmissionMessage(SensorDataDTO sensorData, String userId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", userId);
+        message.put("sensorType", sensorData.getSensorType().getCode());
+        message.put("value", sensorData.getValue());
+        message.put("unit", sensorData.getUnit());
+        message.put("timestamp", sensorData.getTimestamp().toString());
+        message.put("deviceId", sensorData.getDeviceId());
+        message.put("source", "samsung_galaxy_watch_7");
+        message.put("dataType", "REAL_SENSOR_DATA");
+        message.put("criticalityLevel", sensorData.getSensorType().getCriticalityLevel().name());
+        message.put("transmissionMethod", "kafka_only_pipeline");
+        if (sensorData.getAlertLevel() != null) {
+            message.put("alertLevel", sensorData.getAlertLevel());
+        }
+        if (sensorData.getSensorType().isSamsungHealthPermitted()) {
+            message.put("dataSource", "samsung_health_sdk");
+        } else {
+            message.put("dataSource", "android_sensor_api");
+        }
+        return message;
+    }
+
+    private static Map<String, Object> legacyRetryMessage(SensorDataDTO sensorData) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", sensorData.getUserId());
+        message.put("sensorType", sensorData.getSensorType().getCode());
+        message.put("value", sensorData.getValue());
+        message.put("unit", sensorData.getUnit());
+        message.put("timestamp", sensorData.getTimestamp().toString());
+        message.put("deviceId", sensorData.getDeviceId());
+        message.put("source", "samsung_galaxy_watch_7");
+        message.put("dataType", "RETRY_SENSOR_DATA");
+        message.put("retryCount", sensorData.getRetryCount());
+        message.put("criticalityLevel", sensorData.getSensorType().getCriticalityLevel().name());
+        return message;
+    }
+
+    private byte[] legacyRecord(Map<String, Object> message, String userId, long keyMillis) {
+        String messageKey = userId + "_" + keyMillis;
+        String requestBody = String.format("{\"records\":[{\"key\":\"%s\",\"value\":%s}]}",
+                messageKey, gson.toJson(message));
+        return requestBody.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameBytes(byte[] expected, TelemetryJsonEncoder encoder) {
+        byte[] actual = Arrays.copyOf(encoder.getBuffer(), encoder.getLength());
+        if (!Arrays.equals(expected, actual)) {
+            assertEquals(new String(expected, StandardCharsets.UTF_8), encoder.toString());
+        }
+        assertArrayEquals(expected, actual);
+    }
+}
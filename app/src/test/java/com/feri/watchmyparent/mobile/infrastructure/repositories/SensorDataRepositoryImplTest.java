@@ -0,0 +1,110 @@
+package com.feri.watchmyparent.mobile.infrastructure.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.database.MatrixCursor;
+
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.database.ReactiveQueries;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorArchive;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorChunkCodec;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorArchiveDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorDataDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SensorRollupDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SensorRollupEntity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rollup-urile de 5 minute după o citire întârziată: într-o zi deja arhivată bucket-ul combină punctele din
+ * chunk cu rândul nou, iar în zilele nearhivate rămâne recalculat în SQL din sensor_data.
+ */
+public class SensorDataRepositoryImplTest {
+
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2025, 5, 1, 10, 5);
+
+    private SensorDataDao sensorDataDao;
+    private SensorRollupDao sensorRollupDao;
+    private SensorArchiveDao sensorArchiveDao;
+    private SensorDataRepositoryImpl repository;
+
+    @Before
+    public void createRepository() {
+        sensorDataDao = mock(SensorDataDao.class);
+        sensorRollupDao = mock(SensorRollupDao.class);
+        sensorArchiveDao = mock(SensorArchiveDao.class);
+        StorageWriter writer = new StorageWriter("test", Runnable::run);
+        repository = new SensorDataRepositoryImpl(sensorDataDao, sensorRollupDao,
+                new SensorArchive(sensorDataDao, sensorArchiveDao, writer), writer, new ReactiveQueries(), 0, 0);
+    }
+
+    @Test
+    public void lateReadingInASealedDayKeepsTheArchivedPointsInItsRollup() throws Exception {
+        SensorChunkCodec.Builder chunk = new SensorChunkCodec.Builder();
+        chunk.add(SensorArchive.epochMillis(BUCKET.plusSeconds(30)), 70, "bpm", "watch");
+        chunk.add(SensorArchive.epochMillis(BUCKET.plusSeconds(60)), 90, "bpm", "watch");
+        chunk.add(SensorArchive.epochMillis(BUCKET.plusMinutes(5)), 200, "bpm", "watch"); // bucket-ul următor
+        when(sensorArchiveDao.getChunkData(eq("patient-1"), eq(SensorType.HEART_RATE), any(), any(),
+                anyDouble(), anyDouble())).thenReturn(blobs(chunk.encode()));
+        when(sensorDataDao.getSensorDataSeries("patient-1", SensorType.HEART_RATE, BUCKET, BUCKET.plusMinutes(5)))
+                .thenReturn(series(65));
+
+        repository.save(reading(65, BUCKET.plusSeconds(45))).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<SensorRollupEntity> rollup = ArgumentCaptor.forClass(SensorRollupEntity.class);
+        verify(sensorRollupDao).insertRollup(rollup.capture());
+        assertEquals(BUCKET, rollup.getValue().bucketStart);
+        assertEquals(3, rollup.getValue().sampleCount);
+        assertEquals(65, rollup.getValue().minValue, 0);
+        assertEquals(90, rollup.getValue().maxValue, 0);
+        assertEquals(225, rollup.getValue().sumValue, 0);
+        verify(sensorRollupDao, never()).insertRollupFromSensorData(any(), any(), any(), any());
+    }
+
+    @Test
+    public void recentReadingIsRolledUpFromSensorData() throws Exception {
+        when(sensorArchiveDao.getChunkData(any(), any(), any(), any(), anyDouble(), anyDouble())).thenReturn(blobs());
+
+        repository.save(reading(72, BUCKET.plusSeconds(45))).get(5, TimeUnit.SECONDS);
+
+        verify(sensorRollupDao).deleteRollup("patient-1", SensorType.HEART_RATE, BUCKET);
+        verify(sensorRollupDao).insertRollupFromSensorData("patient-1", SensorType.HEART_RATE, BUCKET,
+                BUCKET.plusMinutes(5));
+        verify(sensorRollupDao, never()).insertRollup(any());
+    }
+
+    private static SensorData reading(double value, LocalDateTime timestamp) {
+        User user = new User();
+        user.setIdUser("patient-1");
+        SensorData data = new SensorData(user, SensorType.HEART_RATE, value, "watch");
+        data.setTimestamp(timestamp);
+        return data;
+    }
+
+    private static MatrixCursor blobs(byte[]... chunks) {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"data"});
+        for (byte[] chunk : chunks) cursor.addRow(new Object[]{chunk});
+        return cursor;
+    }
+
+    private static MatrixCursor series(double... values) {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"epochSecond", "value"});
+        for (double value : values) cursor.addRow(new Object[]{SensorArchive.epochMillis(BUCKET) / 1000, value});
+        return cursor;
+    }
+}
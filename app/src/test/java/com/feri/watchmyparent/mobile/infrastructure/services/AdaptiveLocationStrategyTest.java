@@ -0,0 +1,211 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.GeofenceTransition;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SafeZone;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Planul de achiziție urmărește mișcarea și marginile zonelor: pașii prin casă nu pornesc GPS-ul precis, un pacient
+ * nemișcat trece pe fix-uri pasive, iar pe o zi sintetică (acasă → farmacie → acasă) strategia folosește mult mai
+ * puțin GPS precis decât un fix HIGH_ACCURACY la 10 minute, fără să detecteze tranzițiile mai târziu.
+ */
+public class AdaptiveLocationStrategyTest {
+
+    private static final String USER = "patient-1";
+    private static final double HOME_LAT = 47.0722;
+    private static final double HOME_LNG = 21.9211;
+    private static final double PHARMACY_LAT = HOME_LAT + 800 / 111_320.0; // ~800 m nord
+    private static final double PHARMACY_LNG = HOME_LNG;
+
+    private static final int DAY_SECONDS = 24 * 3600;
+    private static final int WALK_OUT_START = 10 * 3600;
+    private static final int WALK_SECONDS = 700;                 // ~1.15 m/s
+    private static final int PHARMACY_STAY = 20 * 60;
+    private static final int WALK_BACK_START = WALK_OUT_START + WALK_SECONDS + PHARMACY_STAY;
+
+    private static final int MOTION_SAMPLE_SECONDS = 120;        // IMPORTANT_INTERVAL
+    private static final int BASELINE_INTERVAL_SECONDS = 600;    // LOCATION_INTERVAL
+    private static final int ONE_SHOT_GPS_SECONDS = 15;          // time-to-fix al unui fix precis izolat
+
+    @Test
+    public void stepsAtHomeKeepBalancedAccuracyUntilFixesShowDisplacementNearAnEdge() {
+        AdaptiveLocationStrategy strategy = new AdaptiveLocationStrategy(newEngine(), USER);
+        long t0 = 1_000_000L;
+        strategy.onLocation(HOME_LAT, HOME_LNG, 10, Double.NaN, t0);
+        strategy.onMotionSample(SensorType.STEP_COUNT, 100, t0);
+        strategy.onMotionSample(SensorType.STEP_COUNT, 200, t0 + 120_000L); // 50 pași/min
+
+        AdaptiveLocationStrategy.LocationPlan plan = strategy.getCurrentPlan();
+        assertEquals(AdaptiveLocationStrategy.Mode.WALKING, plan.mode);
+        assertEquals(AdaptiveLocationStrategy.Accuracy.BALANCED, plan.accuracy);
+
+        // Un fix la ~100 m de casă, la 40 m de marginea zonei: deplasare confirmată lângă margine
+        strategy.onLocation(HOME_LAT + 100 / 111_320.0, HOME_LNG, 10, Double.NaN, t0 + 150_000L);
+        plan = strategy.getCurrentPlan();
+        assertEquals(AdaptiveLocationStrategy.Mode.NEAR_ZONE_EDGE, plan.mode);
+        assertEquals(AdaptiveLocationStrategy.Accuracy.HIGH, plan.accuracy);
+        assertEquals(0, plan.maxUpdateDelayMs);
+    }
+
+    @Test
+    public void stillPatientWithFreshMotionSignalsFallsBackToPassiveFixes() {
+        AdaptiveLocationStrategy strategy = new AdaptiveLocationStrategy(newEngine(), USER);
+        long t0 = 1_000_000L;
+        strategy.onLocation(HOME_LAT, HOME_LNG, 10, Double.NaN, t0);
+        strategy.onMotionSample(SensorType.STEP_COUNT, 100, t0);
+        strategy.onMotionSample(SensorType.STEP_COUNT, 101, t0 + 5 * 60_000L);
+        assertEquals(AdaptiveLocationStrategy.Mode.STATIONARY, strategy.getCurrentPlan().mode);
+
+        strategy.onMotionSample(SensorType.STEP_COUNT, 102, t0 + 11 * 60_000L);
+        assertEquals(AdaptiveLocationStrategy.Mode.STATIONARY_PASSIVE, strategy.getCurrentPlan().mode);
+        assertEquals(AdaptiveLocationStrategy.Accuracy.PASSIVE, strategy.getCurrentPlan().accuracy);
+
+        // Semnalele de mișcare expirate nu mai garantează trezirea - revine la fix-uri BALANCED
+        assertEquals(AdaptiveLocationStrategy.Mode.STATIONARY, strategy.refresh(t0 + 20 * 60_000L).mode);
+    }
+
+    @Test
+    public void adaptiveAcquisitionUsesLessGpsWithoutSlowerTransitions() {
+        long baseMs = System.currentTimeMillis();
+        Map<String, Integer> truth = trueTransitions();
+
+        // ---- Adaptive ----
+        GeofenceEngine adaptiveEngine = newEngine();
+        AdaptiveLocationStrategy strategy = new AdaptiveLocationStrategy(adaptiveEngine, USER);
+        Random noise = new Random(42);
+        Map<String, Integer> adaptiveDetected = new LinkedHashMap<>();
+        List<double[]> pending = new ArrayList<>();  // {lat, lng, accuracy, t}
+        int lastFixT = -1_000_000;
+        int highAccuracySeconds = 0;
+        int adaptiveFixes = 0;
+        double steps = 0;
+
+        for (int t = 0; t < DAY_SECONDS; t++) {
+            boolean walking = isWalking(t);
+            steps += walking ? 100 / 60.0 : 2 / 60.0;
+            if (t % MOTION_SAMPLE_SECONDS == 0) {
+                strategy.onMotionSample(SensorType.STEP_COUNT, Math.floor(steps), baseMs + t * 1000L);
+            }
+
+            AdaptiveLocationStrategy.LocationPlan plan = strategy.getCurrentPlan();
+            if (plan.accuracy == AdaptiveLocationStrategy.Accuracy.HIGH) {
+                highAccuracySeconds++;
+            }
+            if (plan.accuracy != AdaptiveLocationStrategy.Accuracy.PASSIVE && t - lastFixT >= plan.intervalMs / 1000) {
+                double sigma = plan.accuracy == AdaptiveLocationStrategy.Accuracy.HIGH ? 5 : 15;
+                double[] p = position(t);
+                pending.add(new double[]{p[0] + noise.nextGaussian() * sigma / 111_320.0,
+                        p[1] + noise.nextGaussian() * sigma / 75_900.0, sigma, t});
+                lastFixT = t;
+                adaptiveFixes++;
+            }
+
+            boolean flush = !pending.isEmpty()
+                    && (plan.maxUpdateDelayMs == 0 || (t - pending.get(0)[3]) * 1000 >= plan.maxUpdateDelayMs);
+            if (flush) {
+                for (double[] fix : pending) {
+                    long fixMs = baseMs + (long) fix[3] * 1000L;
+                    strategy.onLocation(fix[0], fix[1], fix[2], Double.NaN, fixMs);
+                    record(adaptiveEngine.evaluate(USER, fix[0], fix[1], toDateTime(fixMs)), t, adaptiveDetected);
+                }
+                pending.clear();
+            }
+        }
+        AdaptiveLocationStrategy.AcquisitionStatistics stats = strategy.getStatistics(baseMs + DAY_SECONDS * 1000L);
+
+        // ---- Baseline: un fix HIGH_ACCURACY la 10 minute ----
+        GeofenceEngine baselineEngine = newEngine();
+        Random baselineNoise = new Random(42);
+        Map<String, Integer> baselineDetected = new LinkedHashMap<>();
+        int baselineFixes = 0;
+        for (int t = 0; t < DAY_SECONDS; t += BASELINE_INTERVAL_SECONDS) {
+            double[] p = position(t);
+            double lat = p[0] + baselineNoise.nextGaussian() * 5 / 111_320.0;
+            double lng = p[1] + baselineNoise.nextGaussian() * 5 / 75_900.0;
+            record(baselineEngine.evaluate(USER, lat, lng, toDateTime(baseMs + t * 1000L)), t, baselineDetected);
+            baselineFixes++;
+        }
+        int baselineGpsSeconds = baselineFixes * ONE_SHOT_GPS_SECONDS;
+
+        assertTrue("Adaptive strategy should use much less precise GPS time",
+                highAccuracySeconds * 2 < baselineGpsSeconds);
+        for (Map.Entry<String, Integer> entry : truth.entrySet()) {
+            Integer adaptive = adaptiveDetected.get(entry.getKey());
+            assertTrue("Adaptive strategy missed " + entry.getKey(), adaptive != null);
+            Integer baseline = baselineDetected.get(entry.getKey());
+            if (baseline != null) {
+                assertTrue("Adaptive detection of " + entry.getKey() + " slower than baseline",
+                        adaptive - entry.getValue() <= baseline - entry.getValue());
+            }
+        }
+    }
+
+    private static GeofenceEngine newEngine() {
+        GeofenceEngine engine = new GeofenceEngine();
+        engine.addZone(SafeZone.circle("home", USER, "Home", SafeZone.Category.HOME, HOME_LAT, HOME_LNG, 60));
+        engine.addZone(SafeZone.circle("pharmacy", USER, "Pharmacy", SafeZone.Category.PHARMACY,
+                PHARMACY_LAT, PHARMACY_LNG, 60));
+        return engine;
+    }
+
+    private static boolean isWalking(int t) {
+        return (t >= WALK_OUT_START && t < WALK_OUT_START + WALK_SECONDS)
+                || (t >= WALK_BACK_START && t < WALK_BACK_START + WALK_SECONDS);
+    }
+
+    private static double[] position(int t) {
+        double fraction;
+        if (t < WALK_OUT_START) {
+            fraction = 0;
+        } else if (t < WALK_OUT_START + WALK_SECONDS) {
+            fraction = (t - WALK_OUT_START) / (double) WALK_SECONDS;
+        } else if (t < WALK_BACK_START) {
+            fraction = 1;
+        } else if (t < WALK_BACK_START + WALK_SECONDS) {
+            fraction = 1 - (t - WALK_BACK_START) / (double) WALK_SECONDS;
+        } else {
+            fraction = 0;
+        }
+        return new double[]{HOME_LAT + (PHARMACY_LAT - HOME_LAT) * fraction, HOME_LNG};
+    }
+
+    // Momentele reale (s) în care traseul traversează marginile zonelor de 60 m
+    private static Map<String, Integer> trueTransitions() {
+        int edgeSeconds = (int) Math.ceil(60.0 / 800.0 * WALK_SECONDS);
+        Map<String, Integer> truth = new LinkedHashMap<>();
+        truth.put("EXIT home", WALK_OUT_START + edgeSeconds);
+        truth.put("ENTER pharmacy", WALK_OUT_START + WALK_SECONDS - edgeSeconds);
+        truth.put("EXIT pharmacy", WALK_BACK_START + edgeSeconds);
+        truth.put("ENTER home", WALK_BACK_START + WALK_SECONDS - edgeSeconds);
+        return truth;
+    }
+
+    private static void record(List<GeofenceTransition> transitions, int deliveredAt, Map<String, Integer> detected) {
+        for (GeofenceTransition transition : transitions) {
+            if (transition.getType() == GeofenceTransition.Type.DWELL) continue;
+            String key = transition.getType() + " " + transition.getZone().getZoneId();
+            // Prima detecție după plecare (ENTER home de la începutul zilei nu contează)
+            if (deliveredAt >= WALK_OUT_START && !detected.containsKey(key)) {
+                detected.put(key, deliveredAt);
+            }
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
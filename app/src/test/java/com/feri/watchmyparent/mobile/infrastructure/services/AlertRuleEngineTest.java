@@ -0,0 +1,177 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.entities.MedicalProfile;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.repositories.MedicalProfileRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.Medication;
+import com.feri.watchmyparent.mobile.domain.valueobjects.VitalAnomaly;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Praguri de alertă compilate din MedicalProfile: profiluri diferite (beta-blocant, sportiv, pacemaker, BPOC)
+ * primesc tratamente diferite, o salvare a profilului recompilează regulile, iar detectorul de anomalii
+ * escaladează după limitele critice personalizate.
+ */
+public class AlertRuleEngineTest {
+
+    private static final long NOON = LocalDate.of(2024, 3, 4).atTime(12, 0).toEpochSecond(ZoneOffset.UTC) * 1000L;
+    private static final long NIGHT = NOON + 15 * 3_600_000L; // 03:00
+
+    @Test
+    public void profilesCompileToDifferentThresholds() {
+        InMemoryProfileRepository repository = new InMemoryProfileRepository();
+        AlertRuleEngine engine = new AlertRuleEngine(repository, ZoneOffset.UTC);
+
+        repository.save(profile("beta-blocker", false, new String[]{}, "Metoprolol"));
+        repository.save(profile("athlete", true, new String[]{}));
+        repository.save(profile("pacemaker", false, new String[]{"Pacemaker (bloc AV grad III)"}, "Bisoprolol"));
+        repository.save(profile("copd", false, new String[]{"BPOC"}));
+
+        // Pulsul de 47 e normal sub beta-blocant (și la sportiv), dar suspect la un pacient fără profil
+        assertEquals(CompiledAlertRules.Level.NORMAL, engine.evaluate("beta-blocker", SensorType.HEART_RATE, 47, NOON));
+        assertEquals(CompiledAlertRules.Level.NORMAL, engine.evaluate("athlete", SensorType.HEART_RATE, 47, NOON));
+        assertEquals(CompiledAlertRules.Level.WARNING_LOW, engine.evaluate("no-profile", SensorType.HEART_RATE, 47, NOON));
+        // ... iar tahicardia e semnalată mai devreme sub beta-blocant
+        assertEquals(CompiledAlertRules.Level.WARNING_HIGH, engine.evaluate("beta-blocker", SensorType.HEART_RATE, 95, NOON));
+        assertEquals(CompiledAlertRules.Level.NORMAL, engine.evaluate("athlete", SensorType.HEART_RATE, 95, NOON));
+        // Pacemaker-ul are prioritate față de relaxarea dată de beta-blocant
+        assertEquals(CompiledAlertRules.Level.CRITICAL_LOW, engine.evaluate("pacemaker", SensorType.HEART_RATE, 47, NOON));
+        // BPOC: 89% e ținta obișnuită, nu o urgență
+        assertEquals(CompiledAlertRules.Level.NORMAL, engine.evaluate("copd", SensorType.BLOOD_OXYGEN, 89, NOON));
+        assertEquals(CompiledAlertRules.Level.CRITICAL_LOW, engine.evaluate("athlete", SensorType.BLOOD_OXYGEN, 89, NOON));
+        // Tabelul de noapte: 46 bpm e normal în somn, atenționare ziua
+        assertEquals(CompiledAlertRules.Level.NORMAL, engine.evaluate("no-profile", SensorType.HEART_RATE, 46, NIGHT));
+
+        // Salvarea profilului recompilează regulile, ștergerea revine la pragurile implicite
+        MedicalProfile athlete = repository.byUser.get("athlete");
+        athlete.addMedication(new Medication("Paracetamol", "500mg", LocalDate.of(2024, 1, 1)));
+        repository.save(athlete);
+        assertEquals(CompiledAlertRules.Level.WARNING_HIGH,
+                engine.evaluate("athlete", SensorType.BODY_TEMPERATURE, 37.3, NOON));
+        repository.delete(athlete.getIdMedicalProfile());
+        assertTrue(engine.rulesFor("athlete", NOON).isDefault());
+
+        assertEquals(5, engine.getStatistics().compilations);
+    }
+
+    @Test
+    public void scheduledMedicationAppliesFromItsStartDate() {
+        InMemoryProfileRepository repository = new InMemoryProfileRepository();
+        AlertRuleEngine engine = new AlertRuleEngine(repository, ZoneOffset.UTC);
+        MedicalProfile profile = profile("scheduled", false, new String[]{});
+        // Salvarea compilează la ora curentă, deci medicația începe peste două zile față de azi
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate startDate = today.plusDays(2);
+        profile.addMedication(new Medication("Metoprolol", "50mg", startDate));
+        repository.save(profile);
+        long todayNoon = today.atTime(12, 0).toEpochSecond(ZoneOffset.UTC) * 1000L;
+        long start = startDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        // Înainte de data de început beta-blocantul nu relaxează pragurile, iar regulile expiră exact atunci
+        assertEquals(CompiledAlertRules.Level.WARNING_LOW,
+                engine.evaluate("scheduled", SensorType.HEART_RATE, 47, todayNoon));
+        CompiledAlertRules beforeStart = engine.rulesFor("scheduled", todayNoon);
+        assertTrue(beforeStart.isValidAt(start - 1));
+        assertFalse(beforeStart.isValidAt(start));
+
+        // Prima citire din ziua de început recompilează regulile cu medicația
+        assertEquals(CompiledAlertRules.Level.NORMAL,
+                engine.evaluate("scheduled", SensorType.HEART_RATE, 47, start + 12 * 3_600_000L));
+        assertTrue(engine.getStatistics().recompilations >= 1);
+    }
+
+    @Test
+    public void detectorUsesPersonalizedCriticalLimits() {
+        InMemoryProfileRepository repository = new InMemoryProfileRepository();
+        AlertRuleEngine engine = new AlertRuleEngine(repository, ZoneOffset.UTC);
+        repository.save(profile("beta-blocker", false, new String[]{}, "Bisoprolol"));
+        engine.compile(profile("default", false, new String[]{}));
+        VitalSignsAnomalyDetector detector = new VitalSignsAnomalyDetector(null,
+                VitalSignsAnomalyDetector.defaultProfiles(), engine);
+
+        // 38 bpm timp de 5 minute: sub limita critică implicită (40), dar peste cea a beta-blocantului (35)
+        boolean betaBlockerAlert = false;
+        boolean defaultAlert = false;
+        for (int i = 0; i < 10; i++) {
+            long t = NOON + i * 30_000L;
+            for (VitalAnomaly anomaly : detector.process("beta-blocker", SensorType.HEART_RATE, 38, t)) {
+                betaBlockerAlert |= anomaly.getKind() == VitalAnomaly.Kind.SUSTAINED_LOW;
+            }
+            for (VitalAnomaly anomaly : detector.process("default", SensorType.HEART_RATE, 38, t)) {
+                defaultAlert |= anomaly.getKind() == VitalAnomaly.Kind.SUSTAINED_LOW;
+            }
+        }
+        assertFalse("Beta-blocker bradycardia above its critical limit must not escalate", betaBlockerAlert);
+        assertTrue("Default patient must escalate sustained bradycardia", defaultAlert);
+    }
+
+    private static MedicalProfile profile(String userId, boolean athletic, String[] conditions, String... medications) {
+        User user = new User();
+        user.setIdUser(userId);
+        MedicalProfile profile = new MedicalProfile(user);
+        for (String condition : conditions) profile.addDisease(condition);
+        for (String medication : medications) {
+            profile.addMedication(new Medication(medication, "1 cp/zi", LocalDate.of(2023, 6, 1)));
+        }
+        profile.updateAthleticHistory(athletic, athletic ? "maratonist" : null);
+        return profile;
+    }
+
+    // Salvează sincron și anunță listenerii, ca MedicalProfileRepositoryImpl după scrierea în Room
+    private static final class InMemoryProfileRepository implements MedicalProfileRepository {
+        final Map<String, MedicalProfile> byUser = new ConcurrentHashMap<>();
+        private final List<ProfileChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<MedicalProfile> save(MedicalProfile medicalProfile) {
+            byUser.put(medicalProfile.getUser().getIdUser(), medicalProfile);
+            for (ProfileChangeListener listener : listeners) listener.onProfileSaved(medicalProfile);
+            return CompletableFuture.completedFuture(medicalProfile);
+        }
+
+        @Override
+        public CompletableFuture<Optional<MedicalProfile>> findById(String id) {
+            for (MedicalProfile profile : byUser.values()) {
+                if (profile.getIdMedicalProfile().equals(id)) return CompletableFuture.completedFuture(Optional.of(profile));
+            }
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        @Override
+        public CompletableFuture<Optional<MedicalProfile>> findByUserId(String userId) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(byUser.get(userId)));
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(String id) {
+            byUser.values().removeIf(profile -> profile.getIdMedicalProfile().equals(id));
+            for (ProfileChangeListener listener : listeners) listener.onProfileDeleted(id);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void addChangeListener(ProfileChangeListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeChangeListener(ProfileChangeListener listener) {
+            listeners.remove(listener);
+        }
+    }
+}
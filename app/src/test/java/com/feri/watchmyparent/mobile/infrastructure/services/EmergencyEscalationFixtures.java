@@ -0,0 +1,158 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import com.feri.watchmyparent.mobile.domain.entities.EmergencyContact;
+import com.feri.watchmyparent.mobile.domain.repositories.EmergencyContactRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.EmergencyOutboxDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.EmergencyOutboxEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Dublurile căii de urgență folosite de EmergencyEscalationServiceTest și EmergencyEscalationBenchmark:
+// canale de notificare programabile, outbox-ul în memorie și două contacte de urgență fixe
+public final class EmergencyEscalationFixtures {
+
+    private EmergencyEscalationFixtures() {
+    }
+
+    public static final class FakeNotifier implements EmergencyNotifier {
+
+        public interface Behaviour {
+            boolean deliver(EmergencyAlert alert, List<EmergencyContact> contacts) throws Exception;
+        }
+
+        public final String channel;
+        public final long timeoutMs;
+        public final Behaviour behaviour;
+        public final AtomicInteger calls = new AtomicInteger();
+        public final AtomicInteger lastContactCount = new AtomicInteger(-1);
+
+        public FakeNotifier(String channel, long timeoutMs, Behaviour behaviour) {
+            this.channel = channel;
+            this.timeoutMs = timeoutMs;
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public String getChannel() {
+            return channel;
+        }
+
+        @Override
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        @Override
+        public boolean deliver(EmergencyAlert alert, List<EmergencyContact> contacts) throws Exception {
+            calls.incrementAndGet();
+            lastContactCount.set(contacts.size());
+            return behaviour.deliver(alert, contacts);
+        }
+    }
+
+    // Copii ale rândurilor, ca într-o bază de date reală
+    public static final class InMemoryOutboxDao implements EmergencyOutboxDao {
+        public final Map<String, EmergencyOutboxEntity> rows = new ConcurrentHashMap<>();
+        public volatile boolean failWrites = false;
+
+        @Override
+        public long insert(EmergencyOutboxEntity alert) {
+            if (failWrites) throw new IllegalStateException("disk full");
+            return rows.putIfAbsent(alert.alertId, copy(alert)) == null ? 1 : -1;
+        }
+
+        @Override
+        public int update(EmergencyOutboxEntity alert) {
+            if (failWrites) throw new IllegalStateException("disk full");
+            return rows.replace(alert.alertId, copy(alert)) != null ? 1 : 0;
+        }
+
+        @Override
+        public EmergencyOutboxEntity getById(String alertId) {
+            EmergencyOutboxEntity row = rows.get(alertId);
+            return row != null ? copy(row) : null;
+        }
+
+        @Override
+        public List<EmergencyOutboxEntity> getPending() {
+            List<EmergencyOutboxEntity> pending = new ArrayList<>();
+            for (EmergencyOutboxEntity row : rows.values()) {
+                if (EmergencyOutboxEntity.STATE_PENDING.equals(row.state)) pending.add(copy(row));
+            }
+            return pending;
+        }
+
+        @Override
+        public List<EmergencyOutboxEntity> getRecent(String userId, int limit) {
+            List<EmergencyOutboxEntity> recent = new ArrayList<>();
+            for (EmergencyOutboxEntity row : rows.values()) {
+                if (userId.equals(row.userId) && recent.size() < limit) recent.add(copy(row));
+            }
+            return recent;
+        }
+
+        @Override
+        public int deleteCompletedOlderThan(long cutoffMillis) {
+            int removed = 0;
+            for (EmergencyOutboxEntity row : rows.values()) {
+                if (!EmergencyOutboxEntity.STATE_PENDING.equals(row.state) && row.triggeredAtMillis < cutoffMillis
+                        && rows.remove(row.alertId) != null) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private static EmergencyOutboxEntity copy(EmergencyOutboxEntity source) {
+            EmergencyOutboxEntity row = new EmergencyOutboxEntity();
+            row.alertId = source.alertId;
+            row.userId = source.userId;
+            row.alertType = source.alertType;
+            row.subject = source.subject;
+            row.triggeredAtMillis = source.triggeredAtMillis;
+            row.confidence = source.confidence;
+            row.deviceId = source.deviceId;
+            row.location = source.location;
+            row.details = source.details;
+            row.state = source.state;
+            row.attempts = source.attempts;
+            row.deliveredChannels = source.deliveredChannels;
+            row.firstNotificationMillis = source.firstNotificationMillis;
+            row.createdAtMillis = source.createdAtMillis;
+            row.updatedAtMillis = source.updatedAtMillis;
+            return row;
+        }
+    }
+
+    public static final class InMemoryContactRepository implements EmergencyContactRepository {
+        @Override
+        public CompletableFuture<EmergencyContact> save(EmergencyContact emergencyContact) {
+            return CompletableFuture.completedFuture(emergencyContact);
+        }
+
+        @Override
+        public CompletableFuture<Optional<EmergencyContact>> findById(String id) {
+            return CompletableFuture.completedFuture(Optional.<EmergencyContact>empty());
+        }
+
+        @Override
+        public CompletableFuture<List<EmergencyContact>> findByUserId(String userId) {
+            return CompletableFuture.completedFuture(Arrays.asList(
+                    new EmergencyContact("Ana", "Popescu", "Daughter", "+40700000001"),
+                    new EmergencyContact("Mihai", "Popescu", "Son", "+40700000002")));
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(String id) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.EmergencyAlert;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.EmergencyOutboxEntity;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationFixtures.FakeNotifier;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationFixtures.InMemoryContactRepository;
+import com.feri.watchmyparent.mobile.infrastructure.services.EmergencyEscalationFixtures.InMemoryOutboxDao;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calea de urgență: rândul din outbox e scris înaintea oricărei notificări, declanșările duplicate produc o
+ * singură escaladare, un canal blocat e întrerupt de timeout, iar alertele rămase PENDING sunt reluate - după
+ * restart, periodic și fără să dubleze o escaladare în curs.
+ */
+public class EmergencyEscalationServiceTest {
+
+    private static final String USER = "patient-1";
+
+    @Test
+    public void outboxRowIsWrittenBeforeAnyNotification() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        AtomicBoolean rowMissing = new AtomicBoolean(false);
+        FakeNotifier.Behaviour checkOutbox = (alert, contacts) -> {
+            if (outbox.getById(alert.getAlertId()) == null) rowMissing.set(true);
+            return true;
+        };
+        FakeNotifier local = new FakeNotifier("notification", 1_000, checkOutbox);
+        FakeNotifier kafka = new FakeNotifier("kafka", 1_000, checkOutbox);
+        FakeNotifier contacts = new FakeNotifier("contacts", 1_000, checkOutbox);
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(local, kafka, contacts));
+
+        EmergencyAlert alert = EmergencyAlert.fall(USER, System.currentTimeMillis(), 97.0, "watch", "Home");
+        EmergencyEscalationService.EscalationResult result = service.trigger(alert).get(5, TimeUnit.SECONDS);
+
+        assertFalse("A channel ran before the outbox row existed", rowMissing.get());
+        assertTrue(result.complete);
+        assertTrue(result.firstNotificationMs >= 0);
+        assertEquals(3, result.deliveredChannels.size());
+        // Contactele vin din repository chiar fără warm-up
+        assertEquals(2, contacts.lastContactCount.get());
+
+        EmergencyOutboxEntity row = outbox.getById(alert.getAlertId());
+        assertEquals(EmergencyOutboxEntity.STATE_DELIVERED, row.state);
+        assertTrue(row.firstNotificationMillis > 0);
+        assertEquals(1, row.attempts);
+        service.shutdown();
+    }
+
+    @Test
+    public void outboxFailureDoesNotBlockNotification() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        outbox.failWrites = true;
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> true);
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Collections.<EmergencyNotifier>singletonList(local));
+
+        EmergencyEscalationService.EscalationResult result = service.trigger(
+                EmergencyAlert.fall(USER, System.currentTimeMillis(), 90.0, "watch", null)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.complete);
+        assertEquals(1, local.calls.get());
+        assertEquals(1, service.getStatistics().outboxFailures);
+        service.shutdown();
+    }
+
+    @Test
+    public void duplicateTriggersEscalateOnce() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> {
+            Thread.sleep(20);
+            return true;
+        });
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Collections.<EmergencyNotifier>singletonList(local));
+
+        // Broadcast-ul Samsung Health și SDK-ul raportează aceeași cădere, la câteva sute de ms distanță
+        long fallAt = System.currentTimeMillis();
+        List<CompletableFuture<EmergencyEscalationService.EscalationResult>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(service.trigger(EmergencyAlert.fall(USER, fallAt + i * 100, 95.0, "watch", null)));
+        }
+        int duplicates = 0;
+        for (CompletableFuture<EmergencyEscalationService.EscalationResult> result : results) {
+            if (result.get(5, TimeUnit.SECONDS).duplicate) duplicates++;
+        }
+
+        assertEquals(9, duplicates);
+        assertEquals(1, outbox.rows.size());
+        assertEquals(1, local.calls.get());
+        assertEquals(9, service.getStatistics().duplicatesSuppressed);
+
+        // O cădere nouă, după fereastra de deduplicare, e o alertă separată
+        service.trigger(EmergencyAlert.fall(USER, fallAt + EmergencyEscalationService.DEDUP_WINDOW_MS + 1,
+                95.0, "watch", null)).get(5, TimeUnit.SECONDS);
+        assertEquals(2, outbox.rows.size());
+        assertEquals(2, local.calls.get());
+        service.shutdown();
+    }
+
+    @Test
+    public void hangingChannelTimesOutAndIsRedeliveredAfterRestart() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        AtomicBoolean kafkaDown = new AtomicBoolean(true);
+        FakeNotifier.Behaviour kafkaBehaviour = (alert, contacts) -> {
+            if (kafkaDown.get()) {
+                Thread.sleep(60_000); // conexiune blocată - întreruptă de timeout
+            }
+            return true;
+        };
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> true);
+        FakeNotifier kafka = new FakeNotifier("kafka", 100, kafkaBehaviour);
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(local, kafka));
+
+        EmergencyAlert alert = EmergencyAlert.fall(USER, System.currentTimeMillis(), 99.0, "watch", null);
+        long start = System.nanoTime();
+        EmergencyEscalationService.EscalationResult result = service.trigger(alert).get(5, TimeUnit.SECONDS);
+        long roundMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Notificarea locală nu așteaptă canalul blocat; runda se încheie la timeout-ul lui
+        assertFalse(result.complete);
+        assertTrue(result.deliveredChannels.contains("notification"));
+        assertTrue("First round took " + roundMs + "ms", roundMs < 1_000);
+        assertTrue(result.firstNotificationMs < 100);
+        assertEquals(1, service.getStatistics().channelTimeouts);
+
+        EmergencyOutboxEntity row = outbox.getById(alert.getAlertId());
+        assertEquals(EmergencyOutboxEntity.STATE_PENDING, row.state);
+        assertEquals("notification", row.deliveredChannels);
+
+        // Procesul e oprit înaintea reîncercărilor; la repornire Kafka funcționează din nou
+        service.shutdown();
+        kafkaDown.set(false);
+        FakeNotifier localAfterRestart = new FakeNotifier("notification", 1_000, (a, c) -> true);
+        FakeNotifier kafkaAfterRestart = new FakeNotifier("kafka", 1_000, (a, c) -> true);
+        EmergencyEscalationService restarted = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(localAfterRestart, kafkaAfterRestart));
+
+        assertEquals(Integer.valueOf(1), restarted.redeliverPending().get(5, TimeUnit.SECONDS));
+        waitFor(() -> EmergencyOutboxEntity.STATE_DELIVERED.equals(outbox.getById(alert.getAlertId()).state));
+
+        // Doar canalul lipsă e reluat - aparținătorul nu primește notificarea locală de două ori
+        assertEquals(0, localAfterRestart.calls.get());
+        assertEquals(1, kafkaAfterRestart.calls.get());
+        row = outbox.getById(alert.getAlertId());
+        assertTrue(row.deliveredChannels.contains("notification") && row.deliveredChannels.contains("kafka"));
+        assertEquals(Integer.valueOf(0), restarted.redeliverPending().get(5, TimeUnit.SECONDS));
+        restarted.shutdown();
+    }
+
+    @Test
+    public void failedChannelIsRetriedWithBackoff() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        AtomicInteger kafkaCalls = new AtomicInteger();
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> true);
+        FakeNotifier kafka = new FakeNotifier("kafka", 1_000, (alert, contacts) -> {
+            if (kafkaCalls.incrementAndGet() == 1) throw new java.io.IOException("proxy unreachable");
+            return true;
+        });
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(local, kafka));
+
+        EmergencyAlert alert = EmergencyAlert.fall(USER, System.currentTimeMillis(), 99.0, "watch", null);
+        assertFalse(service.trigger(alert).get(5, TimeUnit.SECONDS).complete);
+        waitFor(() -> EmergencyOutboxEntity.STATE_DELIVERED.equals(outbox.getById(alert.getAlertId()).state));
+
+        assertEquals(2, kafka.calls.get());
+        assertEquals(1, local.calls.get());
+        assertEquals(2, outbox.getById(alert.getAlertId()).attempts);
+        assertEquals(1, service.getStatistics().retries);
+        service.shutdown();
+    }
+
+    @Test
+    public void alertLeftPendingAfterItsRetriesIsRedeliveredWhileTheAppRuns() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        AtomicBoolean kafkaDown = new AtomicBoolean(true);
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> true);
+        FakeNotifier kafka = new FakeNotifier("kafka", 1_000, (alert, contacts) -> !kafkaDown.get());
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(local, kafka), 2, 50);
+
+        EmergencyAlert alert = EmergencyAlert.fall(USER, System.currentTimeMillis(), 99.0, "watch", null);
+        assertFalse(service.trigger(alert).get(5, TimeUnit.SECONDS).complete);
+        waitFor(() -> outbox.getById(alert.getAlertId()).attempts == EmergencyEscalationService.MAX_ATTEMPTS_PER_RUN);
+        assertEquals(EmergencyOutboxEntity.STATE_PENDING, outbox.getById(alert.getAlertId()).state);
+
+        // Reîncercările s-au epuizat; reluarea periodică livrează alerta după ce proxy-ul revine
+        service.startRedelivery();
+        kafkaDown.set(false);
+        waitFor(() -> EmergencyOutboxEntity.STATE_DELIVERED.equals(outbox.getById(alert.getAlertId()).state));
+
+        assertEquals(1, local.calls.get());
+        assertEquals(1, service.getStatistics().redelivered);
+        assertEquals(Integer.valueOf(0), service.redeliverPending().get(5, TimeUnit.SECONDS));
+        service.shutdown();
+    }
+
+    @Test
+    public void redeliveryDoesNotDuplicateAnEscalationStillInProgress() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        CountDownLatch release = new CountDownLatch(1);
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> true);
+        FakeNotifier kafka = new FakeNotifier("kafka", 5_000, (alert, contacts) -> release.await(5, TimeUnit.SECONDS));
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Arrays.<EmergencyNotifier>asList(local, kafka), 2, 60_000);
+
+        EmergencyAlert alert = EmergencyAlert.fall(USER, System.currentTimeMillis(), 99.0, "watch", null);
+        CompletableFuture<EmergencyEscalationService.EscalationResult> result = service.trigger(alert);
+        waitFor(() -> kafka.calls.get() == 1);
+
+        // Kafka își revine în timpul primei runde - rândul e PENDING, dar escaladarea e încă în curs
+        assertEquals(Integer.valueOf(0), service.redeliverPending().get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertTrue(result.get(5, TimeUnit.SECONDS).complete);
+        assertEquals(1, kafka.calls.get());
+        service.shutdown();
+    }
+
+    @Test
+    public void finishedEscalationsLeaveTheActiveMapAfterTheDedupWindow() throws Exception {
+        InMemoryOutboxDao outbox = new InMemoryOutboxDao();
+        FakeNotifier local = new FakeNotifier("notification", 1_000, (alert, contacts) -> true);
+        EmergencyEscalationService service = new EmergencyEscalationService(outbox, new InMemoryContactRepository(),
+                Collections.<EmergencyNotifier>singletonList(local));
+
+        // O alertă recentă rămâne pentru deduplicare; cele cu fereastra deja trecută sunt scoase imediat
+        service.trigger(EmergencyAlert.fall(USER, System.currentTimeMillis(), 95.0, "watch", null))
+                .get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 20; i++) {
+            long triggeredAt = System.currentTimeMillis() - EmergencyEscalationService.DEDUP_WINDOW_MS - 1_000;
+            service.trigger(EmergencyAlert.fall("resident-" + i, triggeredAt, 95.0, "watch", null))
+                    .get(5, TimeUnit.SECONDS);
+        }
+        waitFor(() -> service.getActiveEscalationCount() == 1);
+        assertEquals(21, service.getStatistics().delivered);
+        service.shutdown();
+    }
+
+    // ========== HELPERS ==========
+
+    private interface Condition {
+        boolean holds();
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.holds()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Condition not reached in 10s");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.GeofenceTransition;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SafeZone;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.SafeZoneDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.SafeZoneEntity;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tranzițiile ENTER/DWELL/EXIT (cu confirmarea EXIT-ului), apartenența exactă la poligoane și persistența zonelor:
+ * scrise la fiecare modificare, reîncărcate la pornire, fără să suprascrie modificările făcute între timp.
+ */
+public class GeofenceEngineTest {
+
+    private static final String USER = "patient-1";
+    private static final double BASE_LAT = 47.0722; // Oradea
+    private static final double BASE_LNG = 21.9211;
+
+    @Test
+    public void reportsEnterDwellAndConfirmedExit() {
+        GeofenceEngine engine = new GeofenceEngine();
+        engine.addZone(SafeZone.circle("home", USER, "Home", SafeZone.Category.HOME,
+                BASE_LAT, BASE_LNG, 100, 300));
+        LocalDateTime t0 = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+        List<GeofenceTransition> enter = engine.evaluate(USER, BASE_LAT, BASE_LNG, t0);
+        assertEquals(1, enter.size());
+        assertEquals(GeofenceTransition.Type.ENTER, enter.get(0).getType());
+
+        assertTrue(engine.evaluate(USER, BASE_LAT, BASE_LNG, t0.plusMinutes(2)).isEmpty());
+        List<GeofenceTransition> dwell = engine.evaluate(USER, BASE_LAT, BASE_LNG, t0.plusMinutes(6));
+        assertEquals(1, dwell.size());
+        assertEquals(GeofenceTransition.Type.DWELL, dwell.get(0).getType());
+        assertTrue(engine.evaluate(USER, BASE_LAT, BASE_LNG, t0.plusMinutes(7)).isEmpty());
+
+        // Un singur fix în afară (jitter) nu produce EXIT
+        double away = BASE_LAT + 0.01;
+        assertTrue(engine.evaluate(USER, away, BASE_LNG, t0.plusMinutes(8)).isEmpty());
+        assertTrue(engine.evaluate(USER, BASE_LAT, BASE_LNG, t0.plusMinutes(9)).isEmpty());
+
+        engine.evaluate(USER, away, BASE_LNG, t0.plusMinutes(10));
+        List<GeofenceTransition> exit = engine.evaluate(USER, away, BASE_LNG, t0.plusMinutes(11));
+        assertEquals(1, exit.size());
+        assertEquals(GeofenceTransition.Type.EXIT, exit.get(0).getType());
+        assertEquals(11 * 60, exit.get(0).getTimeInZone().getSeconds());
+    }
+
+    @Test
+    public void polygonZonesUseExactContainment() {
+        GeofenceEngine engine = new GeofenceEngine();
+        // Pătrat ~200 m cu o "tăietură" în colțul NE (formă de L)
+        engine.addZone(daycare());
+
+        assertEquals(1, engine.getZonesContaining(USER, 47.0705, 21.9210).size());
+        assertEquals(1, engine.getZonesContaining(USER, 47.0715, 21.9205).size());
+        assertTrue(engine.getZonesContaining(USER, 47.0715, 21.9225).isEmpty()); // în tăietură
+        assertTrue(engine.getZonesContaining(USER, 47.0730, 21.9210).isEmpty());
+    }
+
+    @Test
+    public void zonesSurviveARestart() throws Exception {
+        InMemorySafeZoneDao dao = new InMemorySafeZoneDao();
+        GeofenceEngine engine = new GeofenceEngine(dao);
+        engine.addZone(SafeZone.circle("home", USER, "Home", SafeZone.Category.HOME, BASE_LAT, BASE_LNG, 100, 300));
+        engine.addZone(daycare());
+        engine.addZone(SafeZone.circle("pharmacy", USER, "Pharmacy", SafeZone.Category.PHARMACY,
+                BASE_LAT + 0.005, BASE_LNG, 40));
+        engine.removeZone(USER, "pharmacy");
+        engine.restoreZones().get(5, TimeUnit.SECONDS); // rulează după scrierile de mai sus, pe același thread
+
+        GeofenceEngine restarted = new GeofenceEngine(dao);
+        assertEquals(Integer.valueOf(2), restarted.restoreZones().get(5, TimeUnit.SECONDS));
+        assertEquals(engine.getZones(USER).size(), restarted.getZones(USER).size());
+        for (SafeZone zone : engine.getZones(USER)) {
+            assertTrue(zone.toString(), restarted.getZones(USER).contains(zone));
+        }
+        SafeZone polygon = restarted.getZones(USER).stream()
+                .filter(zone -> zone.getShape() == SafeZone.Shape.POLYGON).findFirst().get();
+        assertArrayEquals(daycare().getLatitudes(), polygon.getLatitudes(), 0);
+
+        // Zona reîncărcată produce tranziții ca înainte de restart
+        List<GeofenceTransition> enter = restarted.evaluate(USER, BASE_LAT, BASE_LNG, LocalDateTime.now());
+        assertEquals(1, enter.size());
+        assertEquals("home", enter.get(0).getZone().getZoneId());
+    }
+
+    @Test
+    public void changesMadeBeforeTheRestoreFinishesAreKept() throws Exception {
+        InMemorySafeZoneDao dao = new InMemorySafeZoneDao();
+        GeofenceEngine previous = new GeofenceEngine(dao);
+        previous.addZone(SafeZone.circle("home", USER, "Old home", SafeZone.Category.HOME, BASE_LAT, BASE_LNG, 100));
+        previous.addZone(SafeZone.circle("relative", USER, "Ana", SafeZone.Category.RELATIVE,
+                BASE_LAT + 0.01, BASE_LNG, 80));
+        previous.restoreZones().get(5, TimeUnit.SECONDS);
+
+        dao.blockReads = new CountDownLatch(1);
+        GeofenceEngine engine = new GeofenceEngine(dao);
+        SafeZone newHome = SafeZone.circle("home", USER, "New home", SafeZone.Category.HOME,
+                BASE_LAT + 0.02, BASE_LNG, 120);
+        engine.addZone(newHome);
+        dao.blockReads.countDown();
+        engine.restoreZones().get(5, TimeUnit.SECONDS);
+
+        assertEquals(newHome, engine.getZones(USER).stream()
+                .filter(zone -> zone.getZoneId().equals("home")).findFirst().get());
+        assertEquals(2, engine.getZones(USER).size());
+        assertEquals("New home", dao.rows.get(USER + "/home").name);
+    }
+
+    private static SafeZone daycare() {
+        double[] lats = {47.0700, 47.0700, 47.0710, 47.0710, 47.0720, 47.0720};
+        double[] lngs = {21.9200, 21.9230, 21.9230, 21.9215, 21.9215, 21.9200};
+        return SafeZone.polygon("daycare", USER, "Daycare", SafeZone.Category.CARE_FACILITY, lats, lngs);
+    }
+
+    private static final class InMemorySafeZoneDao implements SafeZoneDao {
+        final Map<String, SafeZoneEntity> rows = new ConcurrentHashMap<>();
+        volatile CountDownLatch blockReads;
+
+        @Override
+        public void upsert(SafeZoneEntity zone) {
+            rows.put(zone.userId + "/" + zone.zoneId, zone);
+        }
+
+        @Override
+        public List<SafeZoneEntity> getAll() {
+            CountDownLatch latch = blockReads;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ArrayList<>(rows.values());
+        }
+
+        @Override
+        public int delete(String userId, String zoneId) {
+            return rows.remove(userId + "/" + zoneId) != null ? 1 : 0;
+        }
+
+        @Override
+        public int deleteByUser(String userId) {
+            int before = rows.size();
+            rows.keySet().removeIf(key -> key.startsWith(userId + "/"));
+            return before - rows.size();
+        }
+    }
+}
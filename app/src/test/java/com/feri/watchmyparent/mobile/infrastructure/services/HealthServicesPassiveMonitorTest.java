@@ -0,0 +1,144 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+
+import androidx.health.services.client.HealthServices;
+import androidx.health.services.client.HealthServicesClient;
+import androidx.health.services.client.PassiveMonitoringClient;
+import androidx.health.services.client.data.DataType;
+import androidx.health.services.client.data.PassiveListenerConfig;
+import androidx.health.services.client.data.PassiveMonitoringCapabilities;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dezînregistrarea pasivă: listener-ul platformei e șters și când procesul a repornit (flag-ul local e pierdut,
+ * înregistrarea platformei nu), iar o înregistrare care se termină după oprire nu reactivează livrările.
+ */
+public class HealthServicesPassiveMonitorTest {
+
+    private MockedStatic<HealthServices> healthServices;
+    private PassiveMonitoringClient client;
+    private SensorDataIntegrationService integrationService;
+    private HealthServicesPassiveMonitor monitor;
+
+    @Before
+    public void createMonitor() {
+        client = mock(PassiveMonitoringClient.class);
+        HealthServicesClient healthServicesClient = mock(HealthServicesClient.class);
+        when(healthServicesClient.getPassiveMonitoringClient()).thenReturn(client);
+        healthServices = mockStatic(HealthServices.class);
+        healthServices.when(() -> HealthServices.getClient(any(Context.class))).thenReturn(healthServicesClient);
+
+        integrationService = mock(SensorDataIntegrationService.class);
+        when(integrationService.getPrimaryUserId()).thenReturn("patient-1");
+        monitor = new HealthServicesPassiveMonitor(mock(Context.class), integrationService);
+    }
+
+    @After
+    public void closeStatic() {
+        healthServices.close();
+    }
+
+    @Test
+    public void unregisterClearsTheListenerLeftByAPreviousProcess() {
+        assertFalse(monitor.isRegistered());
+
+        monitor.unregister();
+
+        verify(client).clearPassiveListenerServiceAsync();
+        verify(integrationService).clearPassiveTypes("patient-1");
+    }
+
+    @Test
+    public void registrationFinishingAfterStopDoesNotResumeDeliveries() throws Exception {
+        PassiveMonitoringCapabilities capabilities = mock(PassiveMonitoringCapabilities.class);
+        Set<DataType<?, ?>> supported = new HashSet<>();
+        supported.add(DataType.HEART_RATE_BPM);
+        when(capabilities.getSupportedDataTypesPassiveMonitoring()).thenReturn(supported);
+        when(capabilities.getSupportedHealthEventTypes()).thenReturn(Collections.emptySet());
+        when(client.getCapabilitiesAsync()).thenReturn(new TestFuture<>(capabilities, null));
+        TestFuture<Void> pendingRegistration = new TestFuture<>(null, new CompletableFuture<>());
+        when(client.setPassiveListenerServiceAsync(eq(HealthServicesPassiveListenerService.class),
+                any(PassiveListenerConfig.class))).thenReturn(pendingRegistration);
+
+        CompletableFuture<Set<SensorType>> registered = monitor.register();
+        monitor.unregister();
+        pendingRegistration.gate.complete(null); // platforma confirmă abia după oprire
+
+        assertTrue(registered.get(5, TimeUnit.SECONDS).isEmpty());
+        assertFalse(monitor.isRegistered());
+        verify(client, times(2)).clearPassiveListenerServiceAsync();
+        verify(integrationService, never()).registerPassiveTypes(any(), anyCollection());
+    }
+
+    // ListenableFuture completat imediat sau când gate-ul e completat
+    private static final class TestFuture<T> implements ListenableFuture<T> {
+        final CompletableFuture<Void> gate;
+        private final T value;
+
+        TestFuture(T value, CompletableFuture<Void> gate) {
+            this.value = value;
+            this.gate = gate != null ? gate : CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void addListener(Runnable listener, Executor executor) {
+            gate.thenRun(() -> executor.execute(listener));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return gate.isDone();
+        }
+
+        @Override
+        public T get() throws java.util.concurrent.ExecutionException, InterruptedException {
+            gate.get();
+            return value;
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit)
+                throws java.util.concurrent.ExecutionException, InterruptedException,
+                java.util.concurrent.TimeoutException {
+            gate.get(timeout, unit);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
+import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager.OfflineHealthData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Golirea cozii offline actualizează istoricul local: citirea confirmată de broker devine TRANSMITTED (după flush-ul
+ * write-behind), cea scoasă din coadă fără livrare devine FAILED pentru retry-ul din sensor_data, iar coada altui
+ * pacient nu e atinsă. Un retry care doar păstrează citirea offline întoarce QUEUED.
+ */
+public class KafkaRetryServiceTest {
+
+    private RealHealthDataKafkaProducer producer;
+    private KafkaHealthCheckService healthCheck;
+    private OfflineDataManager offlineDataManager;
+    private SensorDataRepository repository;
+    private KafkaRetryService service;
+
+    @Before
+    public void createService() {
+        producer = mock(RealHealthDataKafkaProducer.class);
+        healthCheck = mock(KafkaHealthCheckService.class);
+        offlineDataManager = mock(OfflineDataManager.class);
+        repository = mock(SensorDataRepository.class);
+        when(healthCheck.isKafkaHealthy()).thenReturn(true);
+        when(repository.flush()).thenReturn(CompletableFuture.completedFuture(null));
+        when(repository.updateTransmissionStatus(anyList(), any(TransmissionStatus.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        service = new KafkaRetryService(producer, healthCheck, offlineDataManager, new PipelineLatencyTracer(),
+                repository, 60_000);
+    }
+
+    @After
+    public void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void drainMarksDeliveredRowsTransmittedAndDroppedRowsFailed() throws Exception {
+        when(offlineDataManager.getOfflineEvents()).thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+        when(offlineDataManager.getOfflineData()).thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+                offline(1, "patient-a", "row-1"), offline(2, "patient-a", "row-2"), offline(3, "patient-b", "row-3"))));
+        when(producer.sendSensorData(any(SensorDataDTO.class), anyString(), eq(TelemetryJsonEncoder.SensorLayout.RETRY)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        "row-1".equals(invocation.<SensorDataDTO>getArgument(0).getSensorDataId())));
+        when(offlineDataManager.deleteOfflineData(anyList())).thenReturn(CompletableFuture.completedFuture(true));
+        when(offlineDataManager.incrementRetryCount(anyList())).thenReturn(CompletableFuture.completedFuture(true));
+        when(offlineDataManager.cleanupFailedRecords(anyInt())).thenReturn(CompletableFuture.completedFuture(1));
+        when(offlineDataManager.drainDroppedSensorDataIds()).thenReturn(Collections.singletonList("row-9"));
+
+        // row-2 a rămas netrimis - coada nu e goală
+        assertFalse(service.drainOfflineData("patient-a").get(5, TimeUnit.SECONDS));
+
+        verify(offlineDataManager).deleteOfflineData(Collections.singletonList(1L));
+        verify(offlineDataManager).incrementRetryCount(Collections.singletonList(2L));
+        verify(producer, never()).sendSensorData(argThat(dto -> "row-3".equals(dto.getSensorDataId())),
+                anyString(), any());
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).flush();
+        order.verify(repository).updateTransmissionStatus(eq(Collections.singletonList("row-1")),
+                eq(TransmissionStatus.TRANSMITTED), any(LocalDateTime.class));
+        order.verify(repository).flush();
+        order.verify(repository).updateTransmissionStatus(eq(Collections.singletonList("row-9")),
+                eq(TransmissionStatus.FAILED), isNull());
+    }
+
+    @Test
+    public void drainIsSkippedWhileKafkaIsUnhealthy() throws Exception {
+        when(healthCheck.isKafkaHealthy()).thenReturn(false);
+
+        assertFalse(service.drainOfflineData(null).get(5, TimeUnit.SECONDS));
+        verify(offlineDataManager, never()).getOfflineData();
+    }
+
+    @Test
+    public void retryStoredOfflineIsQueued() throws Exception {
+        when(healthCheck.isKafkaHealthy()).thenReturn(false);
+        when(offlineDataManager.storeOfflineData(any(SensorDataDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        assertEquals(TransmissionStatus.QUEUED, service.retryTransmission(reading()).get(5, TimeUnit.SECONDS));
+
+        when(offlineDataManager.storeOfflineData(any(SensorDataDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(false));
+        assertEquals(TransmissionStatus.FAILED, service.retryTransmission(reading()).get(5, TimeUnit.SECONDS));
+    }
+
+    private static OfflineHealthData offline(long id, String userId, String sensorDataId) {
+        OfflineHealthData data = new OfflineHealthData();
+        data.id = id;
+        data.userId = userId;
+        data.sensorType = SensorType.HEART_RATE;
+        data.value = 72.0;
+        data.unit = "bpm";
+        data.timestamp = LocalDateTime.now();
+        data.createdAt = LocalDateTime.now();
+        data.deviceId = "watch-" + userId;
+        data.sensorDataId = sensorDataId;
+        return data;
+    }
+
+    private static SensorDataDTO reading() {
+        return new SensorDataDTO("patient-a", SensorType.HEART_RATE, 72.0, "watch-a");
+    }
+}
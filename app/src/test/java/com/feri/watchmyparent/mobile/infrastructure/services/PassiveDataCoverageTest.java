@@ -0,0 +1,160 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acoperirea pasivă (Health Services) față de polling-ul la 30 s: batch-urile re-livrate sunt deduplicate,
+ * tipurile acoperite nu mai sunt citite prin polling, iar livrările întârziate / permisiunea pierdută readuc
+ * tipul în polling. Simularea pe 24h numără citirile de puls prin polling (treziri ale ceasului) și golul
+ * maxim din seria de puls, cu procesul înghețat 30 min și Health Services oprit 2h.
+ */
+public class PassiveDataCoverageTest {
+
+    private static final String USER = "patient-1";
+    private static final long T0 = 1_715_000_000_000L;
+    private static final long SECOND = 1_000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+
+    private static final long TICK = 30 * SECOND;       // CRITICAL_INTERVAL din WatchDataCollectionService
+    private static final long SAMPLE = MINUTE;          // puls eșantionat pasiv de platformă
+    private static final long BATCH = 3 * MINUTE;       // livrare batch către PassiveListenerService
+
+    @Test
+    public void redeliveredBatchesAreDroppedAndCoveredTypesSkipPolling() {
+        PassiveDataCoverage coverage = new PassiveDataCoverage();
+        coverage.register(USER, Arrays.asList(SensorType.HEART_RATE, SensorType.STEP_COUNT), T0);
+
+        List<SensorReading> batch = Arrays.asList(
+                reading(SensorType.HEART_RATE, 72, T0 - 2 * MINUTE),
+                reading(SensorType.HEART_RATE, 74, T0 - MINUTE),
+                reading(SensorType.STEP_COUNT, 1200, T0 - MINUTE));
+        assertEquals(3, coverage.accept(USER, batch, T0).size());
+        // Aceeași livrare după repornirea procesului + un punct nou
+        List<SensorReading> redelivered = new ArrayList<>(batch);
+        redelivered.add(reading(SensorType.HEART_RATE, 75, T0));
+        List<SensorReading> accepted = coverage.accept(USER, redelivered, T0 + MINUTE);
+        assertEquals(1, accepted.size());
+        assertEquals(75.0, accepted.get(0).getValue(), 0.0);
+        assertEquals(3, coverage.getStatistics().duplicatesDropped);
+
+        // Tipurile neînregistrate nu sunt acceptate pasiv și rămân în polling
+        assertTrue(coverage.accept(USER, Collections.singletonList(reading(SensorType.BLOOD_OXYGEN, 97, T0)),
+                T0).isEmpty());
+        List<SensorType> toPoll = coverage.sensorsToPoll(USER,
+                Arrays.asList(SensorType.HEART_RATE, SensorType.BLOOD_OXYGEN, SensorType.STEP_COUNT), T0 + MINUTE);
+        assertEquals(Collections.singletonList(SensorType.BLOOD_OXYGEN), toPoll);
+        assertEquals(2, coverage.getStatistics().pollsSkipped);
+    }
+
+    @Test
+    public void staleDeliveriesAndLostPermissionFallBackToPolling() {
+        PassiveDataCoverage coverage = new PassiveDataCoverage();
+        coverage.register(USER, Arrays.asList(SensorType.HEART_RATE, SensorType.STEP_COUNT), T0);
+        List<SensorType> requested = Arrays.asList(SensorType.HEART_RATE, SensorType.STEP_COUNT);
+
+        // Până la primul batch tipurile sunt acoperite o fereastră de staleness
+        assertTrue(coverage.sensorsToPoll(USER, requested, T0 + MINUTE).isEmpty());
+
+        // Pulsul (CRITICAL) devine stale mai repede decât pașii
+        long stalePulse = T0 + PassiveDataCoverage.CRITICAL_STALE_AFTER_MS + SECOND;
+        assertEquals(Collections.singletonList(SensorType.HEART_RATE),
+                coverage.sensorsToPoll(USER, requested, stalePulse));
+        assertEquals(requested, coverage.sensorsToPoll(USER, requested,
+                T0 + PassiveDataCoverage.DEFAULT_STALE_AFTER_MS + SECOND));
+
+        // Un batch nou scoate pulsul din polling
+        coverage.accept(USER, Collections.singletonList(reading(SensorType.HEART_RATE, 70, stalePulse)), stalePulse);
+        assertTrue(coverage.isCovered(USER, SensorType.HEART_RATE, stalePulse + MINUTE));
+
+        // Permisiune pierdută: totul revine imediat în polling
+        coverage.clear(USER);
+        assertFalse(coverage.isCovered(USER, SensorType.HEART_RATE, stalePulse + MINUTE));
+        assertEquals(requested, coverage.sensorsToPoll(USER, requested, stalePulse + MINUTE));
+    }
+
+    @Test
+    public void dayOfPassiveDeliveryCutsPollingAndCoversGaps() {
+        long day = 24 * HOUR;
+        long frozenFrom = 6 * HOUR, frozenTo = frozenFrom + 30 * MINUTE;      // proces înghețat (Doze)
+        long outageFrom = 12 * HOUR, outageTo = outageFrom + 2 * HOUR;        // Health Services nu livrează
+
+        PassiveDataCoverage coverage = new PassiveDataCoverage();
+        coverage.register(USER, Collections.singletonList(SensorType.HEART_RATE), T0);
+
+        List<SensorReading> platformBuffer = new ArrayList<>();
+        List<Long> pollingOnlySeries = new ArrayList<>();
+        List<Long> passiveSeries = new ArrayList<>();
+        int pollingOnlyReads = 0, fallbackReads = 0;
+
+        for (long t = 0; t <= day; t += TICK) {
+            long now = T0 + t;
+            boolean frozen = t >= frozenFrom && t < frozenTo;
+            boolean outage = t >= outageFrom && t < outageTo;
+
+            // Platforma eșantionează independent de proces; livrarea așteaptă până procesul poate fi pornit
+            if (!outage && t % SAMPLE == 0) {
+                platformBuffer.add(reading(SensorType.HEART_RATE, 70, now));
+            }
+            if (!outage && !frozen && t % BATCH == 0 && !platformBuffer.isEmpty()) {
+                for (SensorReading accepted : coverage.accept(USER, platformBuffer, now)) {
+                    passiveSeries.add(millis(accepted));
+                }
+                platformBuffer.clear();
+            }
+
+            if (frozen) continue;
+            pollingOnlyReads++;
+            pollingOnlySeries.add(now);
+            if (!coverage.sensorsToPoll(USER, Collections.singletonList(SensorType.HEART_RATE), now).isEmpty()) {
+                fallbackReads++;
+                passiveSeries.add(now);
+            }
+        }
+
+        Collections.sort(passiveSeries);
+        long pollingOnlyGap = maxGap(pollingOnlySeries);
+        long passiveGap = maxGap(passiveSeries);
+
+        // Polling-ul rulează doar cât Health Services e oprit (de la ultimul batch + pragul de staleness)
+        long expectedFallback = (outageTo - (outageFrom - BATCH) - PassiveDataCoverage.CRITICAL_STALE_AFTER_MS) / TICK;
+        assertTrue(fallbackReads <= expectedFallback);
+        assertTrue(fallbackReads * 10 < pollingOnlyReads);
+        // Fereastra înghețată e acoperită de eșantioanele platformei; golul maxim e pragul de fallback
+        assertTrue(pollingOnlyGap > 30 * MINUTE);
+        assertTrue(passiveGap <= PassiveDataCoverage.CRITICAL_STALE_AFTER_MS + BATCH + TICK);
+    }
+
+    private static long maxGap(List<Long> series) {
+        long gap = 0;
+        for (int i = 1; i < series.size(); i++) {
+            gap = Math.max(gap, series.get(i) - series.get(i - 1));
+        }
+        return gap;
+    }
+
+    private static SensorReading reading(SensorType type, double value, long timeMillis) {
+        SensorReading reading = new SensorReading(type, value);
+        reading.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()));
+        return reading;
+    }
+
+    private static long millis(SensorReading reading) {
+        return reading.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
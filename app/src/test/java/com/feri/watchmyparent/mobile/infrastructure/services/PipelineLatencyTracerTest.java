@@ -0,0 +1,123 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace;
+import com.feri.watchmyparent.mobile.domain.valueobjects.ReadingTrace.Stage;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O citire eșantionată e marcată de thread-ul de colectare, de pool-ul de transmisie și de callback-ul Kafka;
+ * la completare fiecare etapă intră o singură dată în histograme, iar raportul le listează în ordinea pipeline-ului.
+ */
+public class PipelineLatencyTracerTest {
+
+    private PipelineLatencyTracer tracer;
+
+    @Before
+    public void createTracer() {
+        tracer = new PipelineLatencyTracer();
+        for (CriticalityLevel level : CriticalityLevel.values()) tracer.setSamplingRate(level, 1.0);
+    }
+
+    @Test
+    public void stagesMarkedAcrossThreadsAreRecordedOnce() throws Exception {
+        ExecutorService transmitPool = Executors.newSingleThreadExecutor();
+        ExecutorService kafkaCallback = Executors.newSingleThreadExecutor();
+        try {
+            List<Future<?>> acks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                ReadingTrace trace = tracer.startTrace(new SensorReading(SensorType.HEART_RATE, 70 + i));
+                assertNotNull(trace);
+                tracer.mark(trace, Stage.DTO_CONVERTED);
+                acks.add(transmitPool.submit(() -> {
+                    tracer.mark(trace, Stage.TRANSMIT_START);
+                    return kafkaCallback.submit(() -> tracer.complete(trace, Stage.BROKER_ACK)).get();
+                }));
+            }
+            for (Future<?> ack : acks) ack.get(5, TimeUnit.SECONDS);
+        } finally {
+            transmitPool.shutdownNow();
+            kafkaCallback.shutdownNow();
+        }
+
+        PipelineLatencyTracer.LatencyStatistics stats = tracer.getStatistics();
+        assertEquals(50, stats.tracesStarted);
+        assertEquals(50, stats.tracesCompleted);
+        assertEquals(50, stats.acked);
+        for (Stage stage : new Stage[]{Stage.COLLECTED, Stage.DTO_CONVERTED, Stage.TRANSMIT_START, Stage.BROKER_ACK}) {
+            assertEquals(stage.name(), 50, tracer.getStageLatency(stage, CriticalityLevel.CRITICAL).count);
+        }
+        assertEquals(0, tracer.getStageLatency(Stage.RETRY_QUEUED, CriticalityLevel.CRITICAL).count);
+        assertEquals(50, tracer.getEndToEnd(SensorType.HEART_RATE).count);
+    }
+
+    @Test
+    public void secondCompletionIsIgnored() {
+        ReadingTrace trace = tracer.startTrace(new SensorReading(SensorType.STEP_COUNT, 1200));
+        tracer.mark(trace, Stage.TRANSMIT_START);
+        tracer.complete(trace, Stage.OFFLINE_STORED);
+        tracer.complete(trace, Stage.RETRY_ACK);
+
+        PipelineLatencyTracer.LatencyStatistics stats = tracer.getStatistics();
+        assertEquals(1, stats.tracesCompleted);
+        assertEquals(1, stats.offline);
+        assertEquals(0, stats.retryAcked);
+        assertEquals(1, tracer.getEndToEnd(SensorType.STEP_COUNT).count);
+    }
+
+    @Test
+    public void unsampledReadingsAreNotTraced() {
+        tracer.setSamplingRate(CriticalityLevel.CRITICAL, 0.0);
+        SensorReading reading = new SensorReading(SensorType.HEART_RATE, 72);
+
+        assertNull(tracer.startTrace(reading));
+        assertNull(reading.getTrace());
+        tracer.complete(null, Stage.BROKER_ACK);
+        assertEquals(0, tracer.getStatistics().tracesStarted);
+    }
+
+    @Test
+    public void reportListsLevelThenStagesInPipelineOrder() {
+        ReadingTrace trace = tracer.startTrace(new SensorReading(SensorType.HEART_RATE, 72));
+        tracer.mark(trace, Stage.DTO_CONVERTED);
+        tracer.mark(trace, Stage.TRANSMIT_START);
+        tracer.mark(trace, Stage.RETRY_QUEUED);
+        tracer.complete(trace, Stage.RETRY_ACK);
+
+        String report = tracer.getLatencyReport();
+        assertTrue(report, report.startsWith("Pipeline Latency (sensor -> Kafka ACK):\n- "));
+
+        String[] lines = report.split("\n");
+        int level = indexOf(lines, "- CRITICAL e2e: ");
+        assertTrue(report, level > 1);
+        String[] expected = {"COLLECTED", "DTO_CONVERTED", "TRANSMIT_START", "RETRY_QUEUED", "RETRY_ACK"};
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(report, lines[level + 1 + i].startsWith("    " + expected[i] + ": "));
+        }
+        assertTrue(report, lines[level + 1 + expected.length].startsWith("- HEART_RATE e2e: "));
+        assertEquals(report, -1, indexOf(lines, "- IMPORTANT e2e: "));
+    }
+
+    private static int indexOf(String[] lines, String prefix) {
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].startsWith(prefix)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,340 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.watch.WatchManager;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ceasul implicit e atribuit pacientului din PatientRegistry și îl urmează la reasociere, citirile colectate
+ * ajung în istoricul local cu statusul confirmat de Kafka (QUEUED cât timp sunt doar în coada offline), rândurile
+ * netransmise sunt reluate de retry, iar banda pacientului nu așteaptă confirmarea Kafka: tick-ul următor se termină
+ * imediat, dar transmisiile lui pleacă abia după cele ale tick-ului anterior.
+ */
+public class SensorDataIntegrationServiceTest {
+
+    private SensorDataIntegrationService service;
+
+    @After
+    public void shutdown() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    public void primaryWatchFollowsThePatientRegistry() throws Exception {
+        PatientRegistry registry = new PatientRegistry("patient-a", "watch-a");
+        PendingTransmissionService transmissions = new PendingTransmissionService(true);
+        service = SensorDataIntegrationService.builder(transmissions, new PipelineLatencyTracer())
+                .primaryWatch(new FakeWatchManager(), null)
+                .patientRegistry(registry)
+                .build();
+
+        assertEquals(Collections.singleton("patient-a"), service.getMonitoredPatientIds());
+        assertEquals("watch-a", service.getPatientDevices("patient-a").get(0).deviceId);
+
+        registry.setPrimaryPatient("patient-b", "watch-b");
+        assertEquals(Collections.singleton("patient-b"), service.getMonitoredPatientIds());
+        assertEquals("watch-b", service.getPatientDevices("patient-b").get(0).deviceId);
+
+        List<SensorReading> readings = service.collectSensorDataByCriticality(CriticalityLevel.REGULAR)
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(regularSensors(), readings.size());
+        for (SensorReading reading : readings) assertEquals("watch-b", reading.getDeviceId());
+        assertEquals(Collections.singleton("patient-b"), transmissions.userIds());
+    }
+
+    @Test
+    public void laneIsNotHeldByPendingTransmissions() throws Exception {
+        PendingTransmissionService transmissions = new PendingTransmissionService(false);
+        service = SensorDataIntegrationService.builder(transmissions, new PipelineLatencyTracer())
+                .primaryWatch(new FakeWatchManager(), null)
+                .build();
+
+        // Kafka nu confirmă nimic, dar ambele tick-uri se termină fără să țină banda ocupată
+        service.collectSensorDataByCriticality(CriticalityLevel.REGULAR).get(5, TimeUnit.SECONDS);
+        service.collectSensorDataByCriticality(CriticalityLevel.REGULAR).get(5, TimeUnit.SECONDS);
+        assertEquals(regularSensors(), transmissions.started.size());
+
+        // Transmisiile tick-ului al doilea pleacă după confirmarea celor din primul
+        for (CompletableFuture<TransmissionStatus> pending : new ArrayList<>(transmissions.started)) {
+            pending.complete(TransmissionStatus.TRANSMITTED);
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (transmissions.started.size() < 2 * regularSensors() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2 * regularSensors(), transmissions.started.size());
+    }
+
+    @Test
+    public void collectedReadingsAreSavedToLocalHistory() throws Exception {
+        SensorDataRepository repository = mock(SensorDataRepository.class);
+        when(repository.save(any(SensorData.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.getArgument(0)));
+        service = SensorDataIntegrationService.builder(new PendingTransmissionService(true), new PipelineLatencyTracer())
+                .primaryWatch(new FakeWatchManager(), null)
+                .patientRegistry(new PatientRegistry("patient-a", "watch-a"))
+                .sensorDataRepository(repository)
+                .build();
+
+        List<SensorReading> readings = service.collectSensorDataByCriticality(CriticalityLevel.REGULAR)
+                .get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<SensorData> saved = ArgumentCaptor.forClass(SensorData.class);
+        verify(repository, timeout(5_000).times(readings.size())).save(saved.capture());
+        for (int i = 0; i < readings.size(); i++) {
+            SensorData data = saved.getAllValues().get(i);
+            assertEquals("patient-a", data.getUser().getIdUser());
+            assertEquals("watch-a", data.getDeviceId());
+            assertEquals(readings.get(i).getSensorType(), data.getSensorType());
+            assertEquals(readings.get(i).getTimestamp(), data.getTimestamp());
+        }
+    }
+
+    @Test
+    public void savedReadingsTakeTheirKafkaTransmissionStatus() throws Exception {
+        SensorDataRepository repository = mock(SensorDataRepository.class);
+        when(repository.save(any(SensorData.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.getArgument(0)));
+        when(repository.updateTransmissionStatus(anyList(), any(TransmissionStatus.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        PendingTransmissionService transmissions = new PendingTransmissionService(true);
+        transmissions.rejected = SensorType.GRAVITY;
+        transmissions.queued = SensorType.LIGHT;
+        service = SensorDataIntegrationService.builder(transmissions, new PipelineLatencyTracer())
+                .primaryWatch(new FakeWatchManager(), null)
+                .sensorDataRepository(repository)
+                .build();
+
+        service.collectSensorDataByCriticality(CriticalityLevel.REGULAR).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<SensorData> saved = ArgumentCaptor.forClass(SensorData.class);
+        verify(repository, timeout(5_000).times(regularSensors())).save(saved.capture());
+        List<String> transmitted = new ArrayList<>();
+        List<String> queued = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (SensorData data : saved.getAllValues()) {
+            SensorType type = data.getSensorType();
+            (type == SensorType.GRAVITY ? failed : type == SensorType.LIGHT ? queued : transmitted)
+                    .add(data.getIdSensorData());
+        }
+        verify(repository, timeout(5_000)).updateTransmissionStatus(eq(transmitted),
+                eq(TransmissionStatus.TRANSMITTED), any(LocalDateTime.class));
+        // Păstrată doar offline - nu e confirmată, coada offline o marchează când o livrează
+        verify(repository, timeout(5_000)).updateTransmissionStatus(eq(queued), eq(TransmissionStatus.QUEUED), isNull());
+        verify(repository, timeout(5_000)).updateTransmissionStatus(eq(failed), eq(TransmissionStatus.FAILED), isNull());
+
+        // Fiecare citire pleacă cu id-ul rândului ei, ca livrarea din coada offline să-l găsească
+        Set<String> sentIds = new HashSet<>();
+        for (SensorDataDTO dto : transmissions.sent) sentIds.add(dto.getSensorDataId());
+        Set<String> savedIds = new HashSet<>(transmitted);
+        savedIds.addAll(queued);
+        savedIds.addAll(failed);
+        assertEquals(savedIds, sentIds);
+    }
+
+    @Test
+    public void pendingLocalRowsAreRetransmittedWithTheirStatus() throws Exception {
+        SensorData failedRow = localRow("patient-a", SensorType.HEART_RATE, 71.0);
+        failedRow.markAsFailed();
+        SensorData orphanedRow = localRow("patient-b", SensorType.LIGHT, 320.0);
+        SensorDataRepository repository = mock(SensorDataRepository.class);
+        when(repository.findPendingTransmissions(anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(Arrays.asList(failedRow, orphanedRow)));
+        when(repository.updateTransmissionStatus(anyList(), any(TransmissionStatus.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        PendingTransmissionService transmissions = new PendingTransmissionService(true);
+        transmissions.queued = SensorType.LIGHT;
+        service = SensorDataIntegrationService.builder(transmissions, new PipelineLatencyTracer())
+                .sensorDataRepository(repository)
+                .build();
+
+        assertEquals(1, service.retryPendingTransmissions().get(5, TimeUnit.SECONDS).intValue());
+
+        assertEquals(2, transmissions.sent.size());
+        for (SensorDataDTO dto : transmissions.sent) {
+            SensorData row = dto.getSensorType() == SensorType.HEART_RATE ? failedRow : orphanedRow;
+            assertEquals(row.getIdSensorData(), dto.getSensorDataId());
+            assertEquals(row.getUser().getIdUser(), dto.getUserId());
+            assertEquals(row.getTimestamp(), dto.getTimestamp());
+            assertEquals(row.getValue(), dto.getValue(), 0.0);
+        }
+        verify(repository).updateTransmissionStatus(eq(Collections.singletonList(failedRow.getIdSensorData())),
+                eq(TransmissionStatus.TRANSMITTED), any(LocalDateTime.class));
+        verify(repository).updateTransmissionStatus(eq(Collections.singletonList(orphanedRow.getIdSensorData())),
+                eq(TransmissionStatus.QUEUED), isNull());
+    }
+
+    @Test
+    public void retryDoesNotResendReadingsStillInFlight() throws Exception {
+        List<SensorData> savedRows = new CopyOnWriteArrayList<>();
+        SensorDataRepository repository = mock(SensorDataRepository.class);
+        when(repository.save(any(SensorData.class))).thenAnswer(invocation -> {
+            savedRows.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(invocation.getArgument(0));
+        });
+        when(repository.findPendingTransmissions(anyInt())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(new ArrayList<>(savedRows)));
+        when(repository.updateTransmissionStatus(anyList(), any(TransmissionStatus.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        PendingTransmissionService transmissions = new PendingTransmissionService(false);
+        service = SensorDataIntegrationService.builder(transmissions, new PipelineLatencyTracer())
+                .primaryWatch(new FakeWatchManager(), null)
+                .sensorDataRepository(repository)
+                .build();
+
+        // Kafka n-a răspuns încă: rândurile sunt PENDING în baza de date, dar transmisia lor e în curs
+        service.collectSensorDataByCriticality(CriticalityLevel.REGULAR).get(5, TimeUnit.SECONDS);
+        assertEquals(regularSensors(), transmissions.started.size());
+        assertEquals(0, service.retryPendingTransmissions().get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(regularSensors(), transmissions.started.size());
+
+        // După ce statusul tick-ului e scris, un rând rămas PENDING (proces oprit) e din nou al retry-ului
+        for (CompletableFuture<TransmissionStatus> pending : transmissions.started) {
+            pending.complete(TransmissionStatus.FAILED);
+        }
+        transmissions.acknowledge = true;
+        verify(repository, timeout(5_000)).updateTransmissionStatus(anyList(), eq(TransmissionStatus.FAILED), isNull());
+        long deadline = System.currentTimeMillis() + 5_000;
+        int retried = 0;
+        while (retried == 0 && System.currentTimeMillis() < deadline) {
+            service.retryPendingTransmissions().get(5, TimeUnit.SECONDS);
+            retried = transmissions.started.size() - regularSensors();
+            Thread.sleep(5);
+        }
+        assertEquals(regularSensors(), retried);
+    }
+
+    private static SensorData localRow(String userId, SensorType type, double value) {
+        User user = new User();
+        user.setIdUser(userId);
+        SensorData row = new SensorData(user, type, value, "watch-" + userId);
+        row.setTimestamp(LocalDateTime.now().minusHours(2));
+        return row;
+    }
+
+    private static int regularSensors() {
+        int count = 0;
+        for (SensorType type : SensorType.values()) {
+            if (type.getCriticalityLevel() == CriticalityLevel.REGULAR) count++;
+        }
+        return count;
+    }
+
+    // Citiri hardware pentru orice tip cerut
+    private static final class FakeWatchManager extends WatchManager {
+        FakeWatchManager() {
+            isConnected = true;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> connect() {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> disconnect() {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<List<SensorReading>> readSensorData(List<SensorType> sensorTypes) {
+            List<SensorReading> readings = new ArrayList<>();
+            for (SensorType type : sensorTypes) readings.add(new SensorReading(type, 1.0));
+            return CompletableFuture.completedFuture(readings);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> configureSensorFrequency(SensorType sensorType, int frequencySeconds) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> isDeviceAvailable() {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<List<SensorType>> getSupportedSensors() {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+    }
+
+    // Confirmă imediat sau lasă transmisiile în așteptare (Kafka lent)
+    private static final class PendingTransmissionService implements DataTransmissionService {
+        final List<CompletableFuture<TransmissionStatus>> started = new CopyOnWriteArrayList<>();
+        final List<SensorDataDTO> sent = new CopyOnWriteArrayList<>();
+        final List<String> users = new CopyOnWriteArrayList<>();
+        volatile boolean acknowledge;
+        SensorType rejected; // Kafka răspunde false, iar coada offline nu o păstrează
+        SensorType queued;   // Kafka indisponibil - păstrată doar în coada offline
+
+        PendingTransmissionService(boolean acknowledge) {
+            this.acknowledge = acknowledge;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> transmitData(Object data, String userId) {
+            return transmitSensorData((SensorDataDTO) data, userId)
+                    .thenApply(status -> status != TransmissionStatus.FAILED);
+        }
+
+        @Override
+        public CompletableFuture<TransmissionStatus> transmitSensorData(SensorDataDTO data, String userId) {
+            users.add(userId);
+            sent.add(data);
+            TransmissionStatus status = data.getSensorType() == rejected ? TransmissionStatus.FAILED
+                    : data.getSensorType() == queued ? TransmissionStatus.QUEUED : TransmissionStatus.TRANSMITTED;
+            CompletableFuture<TransmissionStatus> transmission = acknowledge
+                    ? CompletableFuture.completedFuture(status) : new CompletableFuture<>();
+            started.add(transmission);
+            return transmission;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> retryFailedTransmissions(String userId) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<Integer> getPendingTransmissionCount(String userId) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        Set<String> userIds() {
+            return new HashSet<>(users);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationPoint;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pe o zi sintetică (acasă staționar, plimbare la farmacie, drum cu mașina pe un traseu curb) simplificatorul
+ * păstrează de cel puțin 5 ori mai puține puncte, iar traiectoria reconstruită nu se abate de la fixurile brute
+ * mai mult decât toleranța; fixurile duplicate sau în afara ordinii sunt respinse.
+ */
+public class TrajectorySimplifierTest {
+
+    private static final double HOME_LAT = 47.0722;
+    private static final double HOME_LNG = 21.9211;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double TOLERANCE_METERS = 15.0;
+
+    @Test
+    public void simplifierCompressesWithinTolerance() {
+        List<LocationPoint> raw = syntheticDay(System.currentTimeMillis(), new Random(7));
+
+        TrajectorySimplifier simplifier = new TrajectorySimplifier(TOLERANCE_METERS,
+                TrajectorySimplifier.DEFAULT_MAX_WINDOW,
+                TrajectorySimplifier.DEFAULT_MAX_SEGMENT_MS,
+                TrajectorySimplifier.DEFAULT_MAX_GAP_MS);
+        List<LocationPoint> kept = new ArrayList<>();
+        for (LocationPoint point : raw) {
+            kept.addAll(simplifier.add(point));
+        }
+        kept.addAll(simplifier.flush());
+
+        assertTrue("Expected at least 5x fewer points, got " + kept.size(), kept.size() * 5 <= raw.size());
+        double maxError = maxSynchronizedError(raw, kept);
+        assertTrue("Reconstruction error above tolerance: " + maxError, maxError <= TOLERANCE_METERS + 0.5);
+        assertEquals(raw.get(0), kept.get(0));
+        assertEquals(raw.get(raw.size() - 1), kept.get(kept.size() - 1));
+    }
+
+    @Test
+    public void outOfOrderAndDuplicateFixesAreDropped() {
+        TrajectorySimplifier simplifier = new TrajectorySimplifier();
+        assertEquals(1, simplifier.add(new LocationPoint(HOME_LAT, HOME_LNG, 5, 10_000)).size());
+        assertEquals(0, simplifier.add(new LocationPoint(HOME_LAT, HOME_LNG, 5, 10_000)).size());
+        assertEquals(0, simplifier.add(new LocationPoint(HOME_LAT, HOME_LNG, 5, 5_000)).size());
+        assertEquals(2, simplifier.getPointsRejected());
+    }
+
+    // Ziua sintetică: 1 fix/min staționar, 1 fix/5 s în mișcare, zgomot gaussian de 4 m
+    private static List<LocationPoint> syntheticDay(long baseMs, Random random) {
+        List<LocationPoint> points = new ArrayList<>();
+        long t = 0;
+        // 0-10h acasă
+        for (; t < 10 * 3600; t += 60) {
+            points.add(noisy(HOME_LAT, HOME_LNG, baseMs, t, random));
+        }
+        // 10h-10h12 plimbare 800 m spre nord, cu o cotitură spre est la jumătate
+        long walkStart = t;
+        for (; t < walkStart + 720; t += 5) {
+            double f = (t - walkStart) / 720.0;
+            double north = Math.min(f, 0.5) * 800;
+            double east = Math.max(0, f - 0.5) * 600;
+            points.add(noisy(HOME_LAT + north / METERS_PER_DEGREE, HOME_LNG + east / (METERS_PER_DEGREE * cosHome()),
+                    baseMs, t, random));
+        }
+        double pharmacyLat = HOME_LAT + 400 / METERS_PER_DEGREE;
+        double pharmacyLng = HOME_LNG + 300 / (METERS_PER_DEGREE * cosHome());
+        // 20 min la farmacie
+        long stayEnd = t + 1200;
+        for (; t < stayEnd; t += 60) {
+            points.add(noisy(pharmacyLat, pharmacyLng, baseMs, t, random));
+        }
+        // 30 min cu mașina pe un arc de cerc de ~15 km, apoi înapoi acasă
+        long driveStart = t;
+        for (; t < driveStart + 1800; t += 5) {
+            double angle = (t - driveStart) / 1800.0 * Math.PI;
+            double north = Math.sin(angle) * 2500;
+            double east = (1 - Math.cos(angle)) * 2500;
+            points.add(noisy(pharmacyLat + north / METERS_PER_DEGREE,
+                    pharmacyLng + east / (METERS_PER_DEGREE * cosHome()), baseMs, t, random));
+        }
+        // restul zilei acasă
+        for (; t < 24 * 3600; t += 60) {
+            points.add(noisy(HOME_LAT, HOME_LNG, baseMs, t, random));
+        }
+        return points;
+    }
+
+    private static LocationPoint noisy(double lat, double lng, long baseMs, long t, Random random) {
+        double noiseLat = random.nextGaussian() * 4 / METERS_PER_DEGREE;
+        double noiseLng = random.nextGaussian() * 4 / (METERS_PER_DEGREE * cosHome());
+        return new LocationPoint(lat + noiseLat, lng + noiseLng, 4 + random.nextDouble() * 8, baseMs + t * 1000);
+    }
+
+    private static double cosHome() {
+        return Math.cos(Math.toRadians(HOME_LAT));
+    }
+
+    // Pentru fiecare fix brut: distanța până la poziția interpolată în timp pe segmentul păstrat care îl acoperă
+    private static double maxSynchronizedError(List<LocationPoint> raw, List<LocationPoint> kept) {
+        double max = 0;
+        int segment = 0;
+        for (LocationPoint p : raw) {
+            while (segment < kept.size() - 2 && kept.get(segment + 1).getTimestampMillis() < p.getTimestampMillis()) {
+                segment++;
+            }
+            LocationPoint a = kept.get(segment);
+            LocationPoint b = kept.get(Math.min(segment + 1, kept.size() - 1));
+            double ratio = b.getTimestampMillis() == a.getTimestampMillis() ? 0
+                    : (p.getTimestampMillis() - a.getTimestampMillis()) / (double) (b.getTimestampMillis() - a.getTimestampMillis());
+            double lat = a.getLatitude() + (b.getLatitude() - a.getLatitude()) * ratio;
+            double lng = a.getLongitude() + (b.getLongitude() - a.getLongitude()) * ratio;
+            double dy = (p.getLatitude() - lat) * METERS_PER_DEGREE;
+            double dx = (p.getLongitude() - lng) * METERS_PER_DEGREE * Math.cos(Math.toRadians(a.getLatitude()));
+            max = Math.max(max, Math.sqrt(dx * dx + dy * dy));
+        }
+        return max;
+    }
+}
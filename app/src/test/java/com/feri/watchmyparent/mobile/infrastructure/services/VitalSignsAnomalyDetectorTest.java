@@ -0,0 +1,197 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.VitalAnomaly;
+import com.feri.watchmyparent.mobile.infrastructure.database.dao.VitalBaselineDao;
+import com.feri.watchmyparent.mobile.infrastructure.database.entities.VitalBaselineEntity;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientModel;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientProfile;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reluarea unei flote sintetice (SyntheticPatientModel, citiri la 30 s): episoadele injectate în ultima zi
+ * (tahicardie, desaturare, hipertensiune, febră) sunt detectate repede, datele normale produc puține anomalii,
+ * iar baseline-urile persistate sunt reîncărcate "calde" după restart.
+ */
+public class VitalSignsAnomalyDetectorTest {
+
+    private static final long FLEET_SEED = 20240101L;
+    private static final int PATIENTS = 20;
+    private static final int DAYS = 3;
+    private static final int STEP_SECONDS = 30;
+    private static final SensorType[] VITALS = {SensorType.HEART_RATE, SensorType.BLOOD_OXYGEN,
+            SensorType.BLOOD_PRESSURE, SensorType.BODY_TEMPERATURE, SensorType.STRESS};
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 4, 0, 0);
+    private static final long START_SECONDS = START.toEpochSecond(ZoneOffset.UTC);
+    // Episoadele încep în ultima zi la 14:00 (pacientul e treaz)
+    private static final long EPISODE_START = START_SECONDS + (DAYS - 1) * 86_400L + 14 * 3600L;
+    private static final long EPISODE_SECONDS = 40 * 60;
+
+    @Test
+    public void replayDetectsInjectedEpisodesQuicklyWithFewFalseAlarms() {
+        VitalSignsAnomalyDetector detector = new VitalSignsAnomalyDetector();
+        List<SyntheticPatientModel> models = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            models.add(new SyntheticPatientModel(SyntheticPatientProfile.generate(FLEET_SEED, i)));
+        }
+
+        int steps = DAYS * 86_400 / STEP_SECONDS;
+        double[][][] values = new double[PATIENTS][VITALS.length][steps];
+        for (int p = 0; p < PATIENTS; p++) {
+            for (int s = 0; s < steps; s++) {
+                long sec = START_SECONDS + (long) s * STEP_SECONDS;
+                LocalDateTime time = LocalDateTime.ofEpochSecond(sec, 0, ZoneOffset.UTC);
+                for (int v = 0; v < VITALS.length; v++) {
+                    values[p][v][s] = inject(p, VITALS[v], models.get(p).valueAt(VITALS[v], time), sec);
+                }
+            }
+        }
+
+        String[] userIds = new String[PATIENTS];
+        for (int p = 0; p < PATIENTS; p++) {
+            userIds[p] = models.get(p).getProfile().patientId;
+        }
+
+        Map<String, Long> detectedAt = new LinkedHashMap<>();
+        long[] cleanAnomalies = new long[VitalAnomaly.Kind.values().length];
+        long cleanCritical = 0;
+        for (int s = 0; s < steps; s++) {
+            long sec = START_SECONDS + (long) s * STEP_SECONDS;
+            long millis = sec * 1000L;
+            for (int p = 0; p < PATIENTS; p++) {
+                String userId = userIds[p];
+                for (int v = 0; v < VITALS.length; v++) {
+                    List<VitalAnomaly> anomalies = detector.process(userId, VITALS[v], values[p][v][s], millis);
+                    for (int a = 0; a < anomalies.size(); a++) {
+                        VitalAnomaly anomaly = anomalies.get(a);
+                        if (isInjected(p, VITALS[v]) && sec >= EPISODE_START) {
+                            // Episodul și revenirea după el (inclusiv RAPID_DROP la final) aparțin injecției
+                            String key = VITALS[v] + " (patient " + p + ")";
+                            if (!detectedAt.containsKey(key)) detectedAt.put(key, sec - EPISODE_START);
+                        } else {
+                            cleanAnomalies[anomaly.getKind().ordinal()]++;
+                            if (anomaly.isCritical()) cleanCritical++;
+                        }
+                    }
+                }
+            }
+        }
+        long clean = 0;
+        for (long count : cleanAnomalies) clean += count;
+        double patientDays = PATIENTS * (double) DAYS;
+
+        assertEquals("Every injected episode must be detected", 4, detectedAt.size());
+        assertTrue(detectedAt.get(SensorType.HEART_RATE + " (patient 0)") <= 300);
+        assertTrue(detectedAt.get(SensorType.BLOOD_OXYGEN + " (patient 1)") <= 180);
+        assertTrue(detectedAt.get(SensorType.BLOOD_PRESSURE + " (patient 2)") <= 600);
+        assertTrue(detectedAt.get(SensorType.BODY_TEMPERATURE + " (patient 3)") <= 1800);
+        assertTrue("Too many anomalies on normal data", clean / patientDays < 5);
+        assertTrue("Too many critical anomalies on normal data: " + cleanCritical, cleanCritical / patientDays < 1);
+    }
+
+    @Test
+    public void baselinesSurviveRestart() {
+        InMemoryBaselineDao dao = new InMemoryBaselineDao();
+        VitalSignsAnomalyDetector first = new VitalSignsAnomalyDetector(dao);
+        first.restoreBaselines().join();
+        long t = START_SECONDS * 1000L;
+        for (int i = 0; i < 200; i++) {
+            first.process("restart-user", SensorType.HEART_RATE, 70 + (i % 5), t + i * 30_000L);
+        }
+        assertEquals(1, (int) first.flushBaselines().join());
+
+        VitalSignsAnomalyDetector second = new VitalSignsAnomalyDetector(dao);
+        second.restoreBaselines().join();
+        VitalSignsAnomalyDetector.Baseline restored = second.getBaseline("restart-user", SensorType.HEART_RATE);
+        VitalSignsAnomalyDetector.Baseline original = first.getBaseline("restart-user", SensorType.HEART_RATE);
+        assertNotNull(restored);
+        assertEquals(original.mean, restored.mean, 1e-9);
+        assertEquals(original.stdDev, restored.stdDev, 1e-9);
+        assertEquals(200, restored.sampleCount);
+
+        // Baseline-ul restaurat e deja "cald": o tahicardie susținută e semnalată fără re-învățare
+        List<VitalAnomaly> anomalies = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            anomalies.addAll(second.process("restart-user", SensorType.HEART_RATE, 130, t + (200 + i) * 30_000L));
+        }
+        boolean deviation = false;
+        for (VitalAnomaly anomaly : anomalies) {
+            deviation |= anomaly.getKind() == VitalAnomaly.Kind.DEVIATION_HIGH;
+        }
+        assertTrue("Restored baseline should flag deviation immediately", deviation);
+    }
+
+    // Pacienții 0-3 primesc câte un episod pe un semn vital diferit
+    private static boolean isInjected(int patient, SensorType sensorType) {
+        switch (patient) {
+            case 0: return sensorType == SensorType.HEART_RATE;
+            case 1: return sensorType == SensorType.BLOOD_OXYGEN;
+            case 2: return sensorType == SensorType.BLOOD_PRESSURE;
+            case 3: return sensorType == SensorType.BODY_TEMPERATURE;
+            default: return false;
+        }
+    }
+
+    private static double inject(int patient, SensorType sensorType, double value, long sec) {
+        if (!isInjected(patient, sensorType) || sec < EPISODE_START || sec >= EPISODE_START + EPISODE_SECONDS) {
+            return value;
+        }
+        double ramp = Math.min(1.0, (sec - EPISODE_START) / 120.0); // 2 minute de creștere
+        switch (sensorType) {
+            case HEART_RATE: return Math.round(value + 55 * ramp);        // tahicardie
+            case BLOOD_OXYGEN: return Math.round((value - 9 * ramp) * 10) / 10.0; // desaturare în stare de veghe
+            case BLOOD_PRESSURE: return Math.round(Math.max(value, 190 * ramp)); // criză hipertensivă
+            case BODY_TEMPERATURE: {
+                double feverRamp = Math.min(1.0, (sec - EPISODE_START) / 1800.0); // febră în 30 minute
+                return Math.round((value + 2.2 * feverRamp) * 100) / 100.0;
+            }
+            default: return value;
+        }
+    }
+
+    private static final class InMemoryBaselineDao implements VitalBaselineDao {
+        private final Map<String, VitalBaselineEntity> rows = new ConcurrentHashMap<>();
+
+        @Override
+        public void upsertAll(List<VitalBaselineEntity> baselines) {
+            for (VitalBaselineEntity entity : baselines) {
+                rows.put(entity.userId + "|" + entity.sensorType, entity);
+            }
+        }
+
+        @Override
+        public List<VitalBaselineEntity> getAll() {
+            return new ArrayList<>(rows.values());
+        }
+
+        @Override
+        public List<VitalBaselineEntity> getByUser(String userId) {
+            List<VitalBaselineEntity> result = new ArrayList<>();
+            for (VitalBaselineEntity entity : rows.values()) {
+                if (entity.userId.equals(userId)) result.add(entity);
+            }
+            return result;
+        }
+
+        @Override
+        public int deleteByUser(String userId) {
+            int before = rows.size();
+            rows.values().removeIf(entity -> entity.userId.equals(userId));
+            return before - rows.size();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.feri.watchmyparent.mobile.infrastructure.services;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.feri.watchmyparent.mobile.domain.repositories.SensorDataRepository;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+/**
+ * Oprirea serviciului de colectare oprește și monitorizarea pasivă: altfel platforma ar porni în continuare
+ * procesul și ar livra batch-uri care ajung în Kafka după ce colectarea a fost oprită.
+ */
+public class WatchDataCollectionServiceTest {
+
+    @Test
+    public void destroyingTheServiceUnregistersPassiveMonitoring() {
+        WatchDataCollectionService service = new WatchDataCollectionService();
+        service.passiveMonitor = mock(HealthServicesPassiveMonitor.class);
+        service.sensorDataIntegrationService = mock(SensorDataIntegrationService.class);
+        service.sensorDataRepository = mock(SensorDataRepository.class);
+
+        service.onDestroy();
+
+        // Livrările pasive sunt oprite înainte de flush-ul final al istoricului
+        InOrder order = inOrder(service.passiveMonitor, service.sensorDataRepository);
+        order.verify(service.passiveMonitor).unregister();
+        order.verify(service.sensorDataRepository).flush();
+        verify(service.sensorDataIntegrationService).getPassiveCoverageStatistics();
+    }
+}
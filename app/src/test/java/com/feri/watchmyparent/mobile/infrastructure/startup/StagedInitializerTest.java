@@ -0,0 +1,116 @@
+package com.feri.watchmyparent.mobile.infrastructure.startup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pornirea în etape: pe main thread rămân doar etapele critice, etapele de fundal pornesc imediat ce
+ * dependențele lor s-au terminat, iar o etapă eșuată e înregistrată fără să oprească etapele care depind de ea.
+ */
+public class StagedInitializerTest {
+
+    @Test
+    public void backgroundStagesRunAfterTheirDependencies() throws Exception {
+        StartupTimeline timeline = new StartupTimeline();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<String> order = new CopyOnWriteArrayList<>();
+        try {
+            new StagedInitializer(timeline, executor)
+                    .onMainThread("logging", () -> order.add("logging"))
+                    .inBackground("emergency-path", () -> work(order, "emergency-path", 30))
+                    .inBackground("kafka-monitoring", () -> work(order, "kafka-monitoring", 5), "emergency-path")
+                    .inBackground("health-connect-check", () -> work(order, "health-connect-check", 10))
+                    .inBackground("watch-setup", () -> work(order, "watch-setup", 5), "health-connect-check")
+                    .inBackground("demo-data", () -> work(order, "demo-data", 1))
+                    .start()
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Etapa main thread rulează sincron, înaintea oricărei etape de fundal
+        assertEquals("logging", order.get(0));
+        Map<String, StartupTimeline.Span> spans = spansByName(timeline);
+        assertEquals(6, spans.size());
+        assertStartsAfter(spans, "kafka-monitoring", "emergency-path");
+        assertStartsAfter(spans, "watch-setup", "health-connect-check");
+        // Etapele independente nu se așteaptă între ele
+        assertTrue(spans.get("demo-data").offsetNanos < end(spans.get("emergency-path")));
+        assertTrue(spans.get("logging").mainThread);
+        assertFalse(spans.get("emergency-path").mainThread);
+    }
+
+    @Test
+    public void failedStageIsRecordedAndDependentsStillRun() throws Exception {
+        StartupTimeline timeline = new StartupTimeline();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new StagedInitializer(timeline, executor)
+                    .inBackground("health-connect-check", () -> {
+                        throw new IllegalStateException("Health Connect unavailable");
+                    })
+                    .inBackground("watch-setup", () -> { }, "health-connect-check")
+                    .start()
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, StartupTimeline.Span> spans = spansByName(timeline);
+        assertNotNull(spans.get("health-connect-check").failure);
+        assertTrue(spans.containsKey("watch-setup"));
+        assertTrue(timeline.format().contains("FAILED: Health Connect unavailable"));
+
+        // Dependențele trebuie înregistrate înaintea etapei care le cere (graful nu poate avea cicluri)
+        try {
+            new StagedInitializer(timeline, executor).inBackground("watch-setup", () -> { }, "health-connect-check");
+            fail("Unknown dependency accepted");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    private static void work(List<String> order, String name, long millis) {
+        sleep(millis);
+        order.add(name);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, StartupTimeline.Span> spansByName(StartupTimeline timeline) {
+        Map<String, StartupTimeline.Span> spans = new HashMap<>();
+        for (StartupTimeline.Span span : timeline.getSpans()) {
+            spans.put(span.component, span);
+        }
+        return Collections.unmodifiableMap(spans);
+    }
+
+    private static long end(StartupTimeline.Span span) {
+        return span.offsetNanos + span.durationNanos;
+    }
+
+    private static void assertStartsAfter(Map<String, StartupTimeline.Span> spans, String stage, String dependency) {
+        assertTrue(stage + " started before " + dependency + " finished",
+                spans.get(stage).offsetNanos >= end(spans.get(dependency)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.feri.watchmyparent.mobile.infrastructure.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Geohash: codurile de referință, centrul decodat rămâne în celula punctului, precizia mai mică e prefixul celei
+ * mai mari, iar punctele la câțiva metri cad în aceeași celulă, în timp ce celula vecină are alt cod.
+ */
+public class GeohashTest {
+
+    private static final double HOME_LAT = 47.0722;
+    private static final double HOME_LNG = 21.9211;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    @Test
+    public void encodesReferenceCoordinates() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", Geohash.encode(42.605, -5.603, 5));
+        assertEquals("s0000", Geohash.encode(0.0, 0.0, 5));
+    }
+
+    @Test
+    public void decodedCenterStaysInsideTheCell() {
+        for (int precision = 1; precision <= Geohash.MAX_PRECISION; precision++) {
+            String hash = Geohash.encode(HOME_LAT, HOME_LNG, precision);
+            double[] center = Geohash.decodeCenter(hash);
+            assertEquals(hash, Geohash.encode(center[0], center[1], precision));
+
+            // Celula are 5*p/2 biți de longitudine și restul de latitudine
+            int lngBits = (5 * precision + 1) / 2;
+            int latBits = 5 * precision / 2;
+            assertEquals(HOME_LAT, center[0], 180.0 / (1L << latBits) / 2);
+            assertEquals(HOME_LNG, center[1], 360.0 / (1L << lngBits) / 2);
+        }
+    }
+
+    @Test
+    public void lowerPrecisionIsAPrefix() {
+        String full = Geohash.encode(HOME_LAT, HOME_LNG, Geohash.MAX_PRECISION);
+        for (int precision = 1; precision < Geohash.MAX_PRECISION; precision++) {
+            assertEquals(full.substring(0, precision), Geohash.encode(HOME_LAT, HOME_LNG, precision));
+        }
+    }
+
+    @Test
+    public void nearbyFixesShareACellAndTheNeighbourDoesNot() {
+        String cell = Geohash.encode(HOME_LAT, HOME_LNG, 8);
+        double[] center = Geohash.decodeCenter(cell);
+        double fiveMeters = 5.0 / METERS_PER_DEGREE;
+
+        // Jitter GPS de câțiva metri în jurul centrului - aceeași cheie de cache
+        assertEquals(cell, Geohash.encode(center[0] + fiveMeters, center[1] - fiveMeters, 8));
+        assertEquals(cell, Geohash.encode(center[0] - fiveMeters, center[1] + fiveMeters, 8));
+
+        // Celula vecină spre nord (o înălțime de celulă mai sus): alt cod, centru la exact o celulă distanță
+        double cellHeight = 180.0 / (1L << 20);
+        String north = Geohash.encode(center[0] + cellHeight, center[1], 8);
+        assertNotEquals(cell, north);
+        double[] northCenter = Geohash.decodeCenter(north);
+        assertEquals(cellHeight, northCenter[0] - center[0], 1e-9);
+        assertEquals(center[1], northCenter[1], 1e-9);
+
+        // ~220 m mai la nord depășește celula de precizie 7 (≈153 m)
+        assertNotEquals(Geohash.encode(HOME_LAT, HOME_LNG, 7),
+                Geohash.encode(HOME_LAT + 220.0 / METERS_PER_DEGREE, HOME_LNG, 7));
+        assertTrue(Geohash.encode(HOME_LAT, HOME_LNG, 7).startsWith(Geohash.encode(HOME_LAT, HOME_LNG, 6)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPrecisionOutOfRange() {
+        Geohash.encode(HOME_LAT, HOME_LNG, Geohash.MAX_PRECISION + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCharactersOutsideTheAlphabet() {
+        Geohash.decodeCenter("u4pa"); // 'a' nu face parte din base32 geohash
+    }
+}
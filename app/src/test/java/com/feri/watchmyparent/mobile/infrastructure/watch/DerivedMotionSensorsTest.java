@@ -0,0 +1,120 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Senzorii de mișcare derivați calculați la citire: GRAVITY, LINEAR_ACCELERATION, ROTATION și ORIENTATION se
+ * obțin din accelerometru + rotation vector, iar matricea de rotație / gravitația sunt calculate cel mult o dată
+ * per eșantion și doar dacă tipul e citit. Comparația cu varianta veche (patru stream-uri hardware, magnitudine
+ * calculată la fiecare eveniment) numără înregistrările și calculele pe o oră de colectare REGULAR.
+ */
+public class DerivedMotionSensorsTest {
+
+    private static final long T0 = 1_715_000_000_000L;
+    private static final float G = DerivedMotionSensors.GRAVITY_EARTH;
+
+    @Test
+    public void derivedValuesMatchRotationAndAccelerometer() {
+        DerivedMotionSensors motion = new DerivedMotionSensors();
+        // Ceas înclinat 90° în jurul axei X: gravitația apare pe axa Y a ceasului
+        float half = (float) Math.sin(Math.PI / 4);
+        motion.onRotationVector(new float[]{half, 0f, 0f, half}, T0);
+        motion.onAccelerometer(new float[]{0f, G, 1.5f}, T0);
+
+        assertEquals(G, motion.read(SensorType.GRAVITY, T0).getValue(), 1e-3);
+        assertEquals(1.5, motion.read(SensorType.LINEAR_ACCELERATION, T0).getValue(), 1e-3);
+        assertEquals(Math.PI / 2, motion.read(SensorType.ROTATION, T0).getValue(), 1e-3);
+        assertEquals(Math.sqrt(G * G + 1.5 * 1.5), motion.read(SensorType.ACCELEROMETER, T0).getValue(), 1e-3);
+
+        // Rotație de 90° în jurul axei Z: azimut 270° (ca SensorManager.getOrientation)
+        motion.onRotationVector(new float[]{0f, 0f, half}, T0);
+        assertEquals(270.0, motion.read(SensorType.ORIENTATION, T0).getValue(), 1e-2);
+
+        // Fără rotation vector proaspăt gravitația e media ferestrei de accelerometru
+        DerivedMotionSensors noRotation = new DerivedMotionSensors();
+        noRotation.onAccelerometer(new float[]{0f, 0f, G + 2f}, T0);
+        noRotation.onAccelerometer(new float[]{0f, 0f, G - 2f}, T0 + 100);
+        assertEquals(G, noRotation.read(SensorType.GRAVITY, T0 + 100).getValue(), 1e-3);
+        assertEquals(2.0, noRotation.read(SensorType.LINEAR_ACCELERATION, T0 + 100).getValue(), 1e-3);
+
+        // Eșantioane vechi sau lipsă: niciun tip derivat
+        assertNull(noRotation.read(SensorType.ROTATION, T0));
+        assertNull(noRotation.read(SensorType.GYROSCOPE, T0));
+        assertNull(motion.read(SensorType.GRAVITY, T0 + 10 * 60_000L));
+        assertTrue(DerivedMotionSensors.isDerived(SensorType.ORIENTATION));
+        assertTrue(!DerivedMotionSensors.isDerived(SensorType.HEART_RATE));
+    }
+
+    @Test
+    public void unreadTypesAreNeverComputedAndCachesAreShared() {
+        DerivedMotionSensors motion = new DerivedMotionSensors();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            motion.onAccelerometer(new float[]{random.nextFloat(), random.nextFloat(), G}, T0 + i);
+            motion.onRotationVector(new float[]{0.1f, 0.2f, 0.3f, 0.927f}, T0 + i);
+        }
+        DerivedMotionSensors.DerivedStatistics idle = motion.getStatistics();
+        assertEquals(20_000, idle.rawEvents);
+        assertEquals(0, idle.matrixComputations);
+        assertEquals(0, idle.gravityComputations);
+
+        // Patru tipuri citite din aceleași eșantioane: o singură matrice și o singură gravitație
+        long now = T0 + 10_000;
+        for (SensorType type : new SensorType[]{SensorType.GRAVITY, SensorType.LINEAR_ACCELERATION,
+                SensorType.ROTATION, SensorType.ORIENTATION, SensorType.GRAVITY}) {
+            assertNotNull(motion.read(type, now));
+        }
+        DerivedMotionSensors.DerivedStatistics read = motion.getStatistics();
+        assertEquals(5, read.reads);
+        assertEquals(1, read.matrixComputations);
+        assertEquals(1, read.gravityComputations);
+
+        // Un eșantion nou invalidează doar ce depinde de el
+        motion.onAccelerometer(new float[]{0f, 0f, G}, now);
+        motion.read(SensorType.ORIENTATION, now);
+        motion.read(SensorType.LINEAR_ACCELERATION, now);
+        assertEquals(1, motion.getStatistics().matrixComputations);
+        assertEquals(2, motion.getStatistics().gravityComputations);
+    }
+
+    @Test
+    public void hourOfRegularCollectionRegistersFewerStreamsAndComputesOnRead() {
+        // Vechi: ACCELEROMETER, GRAVITY, LINEAR_ACCELERATION, ROTATION_VECTOR înregistrate separat la 5 s
+        // (tier-ul REGULAR) și magnitudine calculată la fiecare eveniment; ORIENTATION indisponibil
+        int legacyStreams = 4;
+        int eventsPerStream = 3600 / 5;
+        long legacyComputations = (long) legacyStreams * eventsPerStream;
+
+        // Nou: accelerometru + rotation vector, tipurile citite o dată la 300 s (REGULAR)
+        DerivedMotionSensors motion = new DerivedMotionSensors();
+        Random random = new Random(11);
+        int reads = 0;
+        for (int second = 0; second < 3600; second += 5) {
+            long now = T0 + second * 1000L;
+            motion.onAccelerometer(new float[]{random.nextFloat(), random.nextFloat(), G}, now);
+            motion.onRotationVector(new float[]{0.1f, 0.2f, 0.3f}, now);
+            if (second % 300 == 0) {
+                for (SensorType type : new SensorType[]{SensorType.ACCELEROMETER, SensorType.GRAVITY,
+                        SensorType.LINEAR_ACCELERATION, SensorType.ROTATION, SensorType.ORIENTATION}) {
+                    motion.read(type, now);
+                    reads++;
+                }
+            }
+        }
+        DerivedMotionSensors.DerivedStatistics stats = motion.getStatistics();
+        long lazyComputations = stats.reads + stats.matrixComputations + stats.gravityComputations;
+
+        assertEquals(reads, stats.reads);
+        assertEquals(3600 / 300, stats.matrixComputations);
+        assertTrue(lazyComputations * 10 < legacyComputations);
+    }
+}
@@ -0,0 +1,204 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSource.RecordKind;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSyncFixtures.FakeHealthConnect;
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSyncFixtures.InMemorySyncStore;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sincronizare incrementală Health Connect pe un Health Connect simulat: doar eșantioanele noi sunt
+ * emise, un token expirat sau o pornire fără token recuperează golul în ferestre limitate, pașii vin din
+ * agregare, iar starea persistată evită recitirea după restart.
+ */
+public class HealthConnectSyncEngineTest {
+
+    private static final long START = LocalDate.of(2024, 5, 6).atTime(10, 0).toEpochSecond(ZoneOffset.UTC) * 1000L;
+    private static final long MINUTE = 60_000L;
+    private static final long TICK = 30_000L;
+
+    @Test
+    public void incrementalSyncEmitsOnlyNewSamples() {
+        FakeHealthConnect hc = new FakeHealthConnect();
+        InMemorySyncStore store = new InMemorySyncStore();
+        long now = START;
+        for (int i = 120; i > 0; i--) {
+            hc.write(RecordKind.HEART_RATE, now - i * MINUTE, 70 + i % 10);
+        }
+        HealthConnectSyncEngine engine = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC);
+
+        // Prima pornire: backfill-ul de 24h rulează în câteva sincronizări, fără duplicate
+        List<SensorReading> first = new ArrayList<>();
+        for (int i = 0; i < 10 && (i == 0 || engine.isBackfilling()); i++) {
+            engine.sync(now);
+            first.addAll(engine.drain(SensorType.HEART_RATE));
+            now += TICK;
+        }
+        assertFalse(engine.isBackfilling());
+        assertEquals(120, first.size());
+        assertEquals(120, distinctTimes(first));
+
+        // Tick obișnuit: doar cele două eșantioane noi, cel mult o cerere de changes per tip
+        now += HealthConnectSyncEngine.MAX_POLL_BACKOFF_MS;
+        hc.write(RecordKind.HEART_RATE, now - 1_000, 81);
+        hc.write(RecordKind.HEART_RATE, now - 500, 82);
+        long requestsBefore = engine.getStatistics().getTotalRequests();
+        engine.sync(now);
+        List<SensorReading> delta = engine.drain(SensorType.HEART_RATE);
+        assertEquals(2, delta.size());
+        assertEquals(82.0, engine.getLatest(SensorType.HEART_RATE).getValue(), 0.0);
+        assertEquals(RecordKind.values().length, engine.getStatistics().getTotalRequests() - requestsBefore);
+
+        // Tipurile fără modificări sunt interogate mai rar la tick-urile următoare
+        requestsBefore = engine.getStatistics().getTotalRequests();
+        engine.sync(now + TICK);
+        assertTrue(engine.getStatistics().getTotalRequests() - requestsBefore < RecordKind.values().length);
+
+        // O înregistrare actualizată (serie extinsă) revine în changes - eșantioanele vechi nu sunt re-emise
+        hc.rewriteLast(RecordKind.HEART_RATE);
+        engine.requestSync();
+        engine.sync(now + 2 * TICK);
+        assertTrue(engine.drain(SensorType.HEART_RATE).isEmpty());
+        assertEquals(1, engine.getStatistics().duplicatesSkipped);
+    }
+
+    @Test
+    public void largeChangeSetsArePagedAcrossTicks() {
+        FakeHealthConnect hc = new FakeHealthConnect();
+        InMemorySyncStore store = new InMemorySyncStore();
+        HealthConnectSyncEngine engine = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC,
+                Arrays.asList(RecordKind.HEART_RATE));
+        long now = START;
+        engine.sync(now); // token + backfill gol
+
+        // 3.000 de eșantioane scrise deodată (ceasul sincronizat după o zi offline)
+        for (int i = 0; i < 3_000; i++) {
+            hc.write(RecordKind.HEART_RATE, now + i * 1_000L, 60 + i % 40);
+        }
+        now += TICK;
+        engine.sync(now);
+        int firstTick = engine.drain(SensorType.HEART_RATE).size();
+        // Paginile de changes sunt limitate per tick; restul vine la tick-urile următoare
+        assertEquals(HealthConnectSyncEngine.MAX_CHANGE_PAGES_PER_SYNC * FakeHealthConnect.CHANGES_PAGE_SIZE, firstTick);
+        int total = firstTick;
+        for (int i = 0; i < 10 && total < 3_000; i++) {
+            now += TICK;
+            engine.sync(now);
+            total += engine.drain(SensorType.HEART_RATE).size();
+        }
+        assertEquals(3_000, total);
+    }
+
+    @Test
+    public void expiredTokenBackfillsGapInBoundedWindows() {
+        FakeHealthConnect hc = new FakeHealthConnect();
+        InMemorySyncStore store = new InMemorySyncStore();
+        HealthConnectSyncEngine engine = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC,
+                Arrays.asList(RecordKind.HEART_RATE));
+        long now = START;
+        engine.sync(now);
+        engine.drain(SensorType.HEART_RATE);
+
+        // 10 ore fără sincronizare, iar tokenul expiră între timp
+        for (long t = now + MINUTE; t < now + 10 * 60 * MINUTE; t += MINUTE) {
+            hc.write(RecordKind.HEART_RATE, t, 72);
+        }
+        now += 10 * 60 * MINUTE;
+        hc.expireTokens();
+
+        Set<Long> recovered = new HashSet<>();
+        int syncs = 0;
+        do {
+            long readsBefore = engine.getStatistics().backfillWindows;
+            engine.sync(now);
+            assertTrue(engine.getStatistics().backfillWindows - readsBefore <= HealthConnectSyncEngine.MAX_BACKFILL_WINDOWS_PER_SYNC);
+            for (SensorReading reading : engine.drain(SensorType.HEART_RATE)) {
+                assertTrue("duplicate sample", recovered.add(reading.getTimestamp().toEpochSecond(ZoneOffset.UTC)));
+            }
+            now += TICK;
+            syncs++;
+        } while (engine.isBackfilling() && syncs < 20);
+
+        assertEquals(10 * 60 - 1, recovered.size());
+        assertEquals(1, engine.getStatistics().tokenExpirations);
+        assertTrue("Gap recovered in " + syncs + " syncs", syncs >= 2);
+    }
+
+    @Test
+    public void stepsComeFromDailyAggregates() {
+        FakeHealthConnect hc = new FakeHealthConnect();
+        InMemorySyncStore store = new InMemorySyncStore();
+        HealthConnectSyncEngine engine = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC,
+                Arrays.asList(RecordKind.STEPS));
+        long now = START;
+        engine.sync(now);
+        engine.drain(SensorType.STEP_COUNT);
+
+        for (int i = 0; i < 30; i++) {
+            hc.write(RecordKind.STEPS, now + i * MINUTE, 40);
+        }
+        now += 30 * MINUTE;
+        long readsBefore = engine.getStatistics().readRequests;
+        engine.sync(now);
+        List<SensorReading> steps = engine.drain(SensorType.STEP_COUNT);
+
+        // Un singur total pentru zi, calculat de Health Connect - nu 30 de înregistrări citite
+        assertEquals(1, steps.size());
+        assertEquals(hc.total(RecordKind.STEPS, LocalDate.of(2024, 5, 6)), steps.get(0).getValue(), 0.0);
+        assertEquals(readsBefore, engine.getStatistics().readRequests);
+
+        // Fără pași noi, fără cerere de agregare
+        long aggregatesBefore = engine.getStatistics().aggregateRequests;
+        engine.sync(now + TICK);
+        assertTrue(engine.drain(SensorType.STEP_COUNT).isEmpty());
+        assertEquals(aggregatesBefore, engine.getStatistics().aggregateRequests);
+    }
+
+    @Test
+    public void restartResumesFromPersistedToken() {
+        FakeHealthConnect hc = new FakeHealthConnect();
+        InMemorySyncStore store = new InMemorySyncStore();
+        long now = START;
+        for (int i = 60; i > 0; i--) {
+            hc.write(RecordKind.HEART_RATE, now - i * MINUTE, 75);
+        }
+        HealthConnectSyncEngine engine = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC);
+        while (engine.getStatistics().syncs == 0 || engine.isBackfilling()) {
+            engine.sync(now);
+            now += TICK;
+        }
+        assertEquals(60, engine.drain(SensorType.HEART_RATE).size());
+
+        // Proces repornit: o nouă instanță, aceeași stare persistată
+        hc.write(RecordKind.HEART_RATE, now - 1_000, 90);
+        HealthConnectSyncEngine restarted = new HealthConnectSyncEngine(hc, store, ZoneOffset.UTC);
+        restarted.sync(now);
+        assertFalse(restarted.isBackfilling());
+        assertEquals(1, restarted.drain(SensorType.HEART_RATE).size());
+        assertEquals(0, restarted.getStatistics().readRequests);
+    }
+
+    // ========== HELPERS ==========
+
+    private static int distinctTimes(List<SensorReading> readings) {
+        Set<Long> times = new HashSet<>();
+        for (SensorReading reading : readings) {
+            times.add(reading.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        return times.size();
+    }
+}
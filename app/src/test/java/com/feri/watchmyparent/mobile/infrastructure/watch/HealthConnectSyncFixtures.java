@@ -0,0 +1,136 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import com.feri.watchmyparent.mobile.infrastructure.watch.HealthConnectSource.RecordKind;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Dublurile Health Connect folosite de HealthConnectSyncEngineTest și HealthConnectSyncBenchmark
+public final class HealthConnectSyncFixtures {
+
+    private HealthConnectSyncFixtures() {
+    }
+
+    // Health Connect simulat: jurnal de modificări per tip, tokenuri = poziție în jurnal
+    public static final class FakeHealthConnect implements HealthConnectSource {
+        public static final int CHANGES_PAGE_SIZE = 100;
+
+        private final Map<RecordKind, List<long[]>> records = new EnumMap<>(RecordKind.class); // {time, value bits}
+        private final Map<RecordKind, List<Integer>> changeLog = new EnumMap<>(RecordKind.class); // index în records
+        private int tokenGeneration = 0;
+
+        public FakeHealthConnect() {
+            for (RecordKind kind : RecordKind.values()) {
+                records.put(kind, new ArrayList<>());
+                changeLog.put(kind, new ArrayList<>());
+            }
+        }
+
+        public void write(RecordKind kind, long timeMillis, double value) {
+            records.get(kind).add(new long[]{timeMillis, Double.doubleToLongBits(value)});
+            changeLog.get(kind).add(records.get(kind).size() - 1);
+        }
+
+        public void rewriteLast(RecordKind kind) {
+            changeLog.get(kind).add(records.get(kind).size() - 1);
+        }
+
+        public void expireTokens() {
+            tokenGeneration++;
+        }
+
+        public int count(RecordKind kind, long from, long to) {
+            int count = 0;
+            for (long[] record : records.get(kind)) {
+                if (record[0] >= from && record[0] < to) count++;
+            }
+            return count;
+        }
+
+        public double total(RecordKind kind, LocalDate day) {
+            long from = day.atStartOfDay().toEpochSecond(ZoneOffset.UTC) * 1000L;
+            double total = 0;
+            for (long[] record : records.get(kind)) {
+                if (record[0] >= from && record[0] < from + TimeUnit.DAYS.toMillis(1)) {
+                    total += Double.longBitsToDouble(record[1]);
+                }
+            }
+            return total;
+        }
+
+        private Sample sample(RecordKind kind, int index) {
+            long[] record = records.get(kind).get(index);
+            return new Sample(kind + "-" + index, record[0], Double.longBitsToDouble(record[1]), "com.sec.android.app.shealth");
+        }
+
+        @Override
+        public String getChangesToken(RecordKind kind) {
+            return tokenGeneration + ":" + changeLog.get(kind).size();
+        }
+
+        @Override
+        public ChangesPage getChanges(RecordKind kind, String token) {
+            String[] parts = token.split(":");
+            ChangesPage page = new ChangesPage();
+            if (Integer.parseInt(parts[0]) != tokenGeneration) {
+                page.tokenExpired = true;
+                return page;
+            }
+            List<Integer> log = changeLog.get(kind);
+            int position = Integer.parseInt(parts[1]);
+            int end = Math.min(log.size(), position + CHANGES_PAGE_SIZE);
+            for (int i = position; i < end; i++) {
+                page.upserted.add(sample(kind, log.get(i)));
+            }
+            page.nextToken = tokenGeneration + ":" + end;
+            page.hasMore = end < log.size();
+            return page;
+        }
+
+        @Override
+        public RecordsPage readRecords(RecordKind kind, long fromMillis, long toMillis, String pageToken, int pageSize) {
+            List<Integer> matching = new ArrayList<>();
+            List<long[]> all = records.get(kind);
+            for (int i = 0; i < all.size(); i++) {
+                if (all.get(i)[0] >= fromMillis && all.get(i)[0] < toMillis) matching.add(i);
+            }
+            int offset = pageToken != null ? Integer.parseInt(pageToken) : 0;
+            int end = Math.min(matching.size(), offset + pageSize);
+            RecordsPage page = new RecordsPage();
+            for (int i = offset; i < end; i++) {
+                page.samples.add(sample(kind, matching.get(i)));
+            }
+            page.nextPageToken = end < matching.size() ? String.valueOf(end) : null;
+            return page;
+        }
+
+        @Override
+        public double aggregate(RecordKind kind, long fromMillis, long toMillis) {
+            double total = 0;
+            for (long[] record : records.get(kind)) {
+                if (record[0] >= fromMillis && record[0] < toMillis) total += Double.longBitsToDouble(record[1]);
+            }
+            return total;
+        }
+    }
+
+    public static final class InMemorySyncStore implements HealthConnectSyncStore {
+        private final Map<RecordKind, SyncState> states = new EnumMap<>(RecordKind.class);
+
+        @Override
+        public SyncState load(RecordKind kind) {
+            SyncState state = states.get(kind);
+            return state != null ? state.copy() : new SyncState();
+        }
+
+        @Override
+        public void save(RecordKind kind, SyncState state) {
+            states.put(kind, state.copy());
+        }
+    }
+}
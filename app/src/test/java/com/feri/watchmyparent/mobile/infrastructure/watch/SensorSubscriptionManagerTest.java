@@ -0,0 +1,188 @@
+package com.feri.watchmyparent.mobile.infrastructure.watch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.feri.watchmyparent.mobile.infrastructure.watch.SensorSubscriptionManager.Subscription;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Abonamente la senzori cu ref-counting: un senzor e înregistrat o singură dată, la cea mai mare rată cerută,
+ * coboară rata când pleacă cel mai rapid consumator și e dezînregistrat la ultimul release. Simularea pe 24h
+ * compară evenimentele livrate de senzori cu înregistrarea tuturor senzorilor la pornire (comportamentul vechi).
+ */
+public class SensorSubscriptionManagerTest {
+
+    // Sensor.TYPE_* (constantele Android)
+    private static final int ACCELEROMETER = 1;
+    private static final int MAGNETIC_FIELD = 2;
+    private static final int GYROSCOPE = 4;
+    private static final int LIGHT = 5;
+    private static final int PRESSURE = 6;
+    private static final int PROXIMITY = 8;
+    private static final int GRAVITY = 9;
+    private static final int LINEAR_ACCELERATION = 10;
+    private static final int ROTATION_VECTOR = 11;
+    private static final int RELATIVE_HUMIDITY = 12;
+    private static final int AMBIENT_TEMPERATURE = 13;
+    private static final int GAME_ROTATION_VECTOR = 15;
+    private static final int SIGNIFICANT_MOTION = 17;
+    private static final int STEP_DETECTOR = 18;
+    private static final int STEP_COUNTER = 19;
+    private static final int GEOMAGNETIC_ROTATION_VECTOR = 20;
+    private static final int HEART_RATE = 21;
+
+    private static final int SENSOR_DELAY_NORMAL_US = 200_000;
+    private static final long DAY_SECONDS = 24 * 3600L;
+
+    @Test
+    public void sharedSensorIsRegisteredOnceAtHighestRequestedRate() {
+        FakeRegistrar registrar = new FakeRegistrar(ACCELEROMETER, GYROSCOPE);
+        SensorSubscriptionManager manager = new SensorSubscriptionManager(registrar);
+
+        Subscription collection = manager.acquire("collection", ACCELEROMETER, 5_000_000, 60_000_000);
+        Subscription activity = manager.acquire("activity", ACCELEROMETER, 1_000_000, 0);
+        Subscription liveView = manager.acquire("live-view", ACCELEROMETER, 20_000, 0);
+
+        assertEquals(1, manager.getActiveSensorCount());
+        assertEquals(3, manager.getReferenceCount(ACCELEROMETER));
+        assertEquals(20_000, registrar.periods.get(ACCELEROMETER).intValue());
+        assertEquals(0, registrar.latencies.get(ACCELEROMETER).intValue());
+
+        // Cel mai rapid consumator pleacă -> rata coboară la următoarea cerută
+        liveView.release();
+        liveView.release(); // idempotent
+        assertEquals(1_000_000, registrar.periods.get(ACCELEROMETER).intValue());
+        // O eliberare care nu schimbă rata nu re-înregistrează
+        int callsBefore = registrar.registerCalls;
+        Subscription second = manager.acquire("activity-2", ACCELEROMETER, 2_000_000, 0);
+        second.release();
+        assertEquals(callsBefore, registrar.registerCalls);
+
+        activity.release();
+        assertEquals(5_000_000, registrar.periods.get(ACCELEROMETER).intValue());
+        assertEquals(60_000_000, registrar.latencies.get(ACCELEROMETER).intValue());
+        collection.release();
+
+        assertEquals(0, manager.getActiveSensorCount());
+        assertFalse(registrar.periods.containsKey(ACCELEROMETER));
+        SensorSubscriptionManager.SubscriptionStatistics stats = manager.getStatistics();
+        assertEquals(1, stats.registrations);
+        assertEquals(1, stats.unregistrations);
+        assertEquals(4, stats.reRegistrations);
+    }
+
+    @Test
+    public void missingSensorsAndFailedRegistrationsAreNotHeld() {
+        FakeRegistrar registrar = new FakeRegistrar(ACCELEROMETER, HEART_RATE);
+        SensorSubscriptionManager manager = new SensorSubscriptionManager(registrar);
+
+        assertNull(manager.acquire("collection", GYROSCOPE, 1_000_000, 0));
+        registrar.failing.add(HEART_RATE);
+        assertNull(manager.acquire("collection", HEART_RATE, 1_000_000, 0));
+        assertFalse(manager.isActive(HEART_RATE));
+        assertEquals(1, manager.getStatistics().failures);
+
+        // Un eșec la schimbarea ratei păstrează înregistrarea existentă
+        Subscription slow = manager.acquire("collection", ACCELEROMETER, 1_000_000, 0);
+        registrar.failing.add(ACCELEROMETER);
+        assertNull(manager.acquire("live-view", ACCELEROMETER, 20_000, 0));
+        assertEquals(1, manager.getReferenceCount(ACCELEROMETER));
+        assertEquals(1_000_000, manager.getSamplingPeriodUs(ACCELEROMETER));
+
+        // Deconectarea invalidează toate abonamentele
+        manager.releaseAll();
+        assertTrue(slow.isReleased());
+        assertTrue(registrar.periods.isEmpty());
+    }
+
+    @Test
+    public void demandDrivenDayDeliversFarFewerSensorEvents() {
+        int[] all = {HEART_RATE, STEP_COUNTER, STEP_DETECTOR, ACCELEROMETER, GYROSCOPE, LINEAR_ACCELERATION, GRAVITY,
+                ROTATION_VECTOR, LIGHT, PROXIMITY, AMBIENT_TEMPERATURE, RELATIVE_HUMIDITY, PRESSURE, MAGNETIC_FIELD,
+                SIGNIFICANT_MOTION, GAME_ROTATION_VECTOR, GEOMAGNETIC_ROTATION_VECTOR};
+
+        // Vechi: toți senzorii înregistrați permanent (accelerometru la 1 s, giroscop la 2 s, restul NORMAL)
+        FakeRegistrar legacy = new FakeRegistrar(all);
+        for (int type : all) {
+            int period = type == ACCELEROMETER ? 1_000_000 : type == GYROSCOPE ? 2_000_000 : SENSOR_DELAY_NORMAL_US;
+            legacy.register(type, period, 0);
+        }
+        legacy.advance(DAY_SECONDS);
+
+        // Nou: tier-urile cer doar ce citesc din hardware (puls și pași vin din Samsung Health / pasiv),
+        // detecția de activitate ține accelerometrul 16h, iar ecranul live cere 20 ms timp de 10 min
+        FakeRegistrar demand = new FakeRegistrar(all);
+        SensorSubscriptionManager manager = new SensorSubscriptionManager(demand);
+        List<Integer> important = Arrays.asList(ACCELEROMETER, GYROSCOPE);
+        List<Integer> regular = Arrays.asList(GRAVITY, LINEAR_ACCELERATION, ROTATION_VECTOR, MAGNETIC_FIELD, LIGHT,
+                PROXIMITY);
+        for (int type : important) manager.acquire("collection", type, 5_000_000, 60_000_000);
+        for (int type : regular) manager.acquire("collection", type, 5_000_000, 150_000_000);
+
+        Subscription activity = manager.acquire("activity", ACCELEROMETER, 1_000_000, 0);
+        demand.advance(8 * 3600L);
+        Subscription liveView = manager.acquire("live-view", ACCELEROMETER, 20_000, 0);
+        demand.advance(600L);
+        liveView.release();
+        demand.advance(8 * 3600L - 600L);
+        activity.release();
+        demand.advance(8 * 3600L);
+
+        assertEquals(important.size() + regular.size(), manager.getActiveSensorCount());
+        assertTrue(demand.peakActive < all.length / 2 + 1);
+        assertTrue(demand.events * 3 < legacy.events);
+    }
+
+    // SensorManager simulat: numără evenimentele livrate la rata înregistrată
+    private static class FakeRegistrar implements SensorRegistrar {
+        final Set<Integer> available = new HashSet<>();
+        final Set<Integer> failing = new HashSet<>();
+        final Map<Integer, Integer> periods = new HashMap<>();
+        final Map<Integer, Integer> latencies = new HashMap<>();
+        int registerCalls = 0;
+        int peakActive = 0;
+        long events = 0;
+
+        FakeRegistrar(int... types) {
+            for (int type : types) available.add(type);
+        }
+
+        @Override
+        public boolean isAvailable(int hardwareType) {
+            return available.contains(hardwareType);
+        }
+
+        @Override
+        public boolean register(int hardwareType, int samplingPeriodUs, int maxReportLatencyUs) {
+            registerCalls++;
+            if (failing.contains(hardwareType)) return false;
+            periods.put(hardwareType, samplingPeriodUs);
+            latencies.put(hardwareType, maxReportLatencyUs);
+            peakActive = Math.max(peakActive, periods.size());
+            return true;
+        }
+
+        @Override
+        public void unregister(int hardwareType) {
+            periods.remove(hardwareType);
+            latencies.remove(hardwareType);
+        }
+
+        void advance(long seconds) {
+            for (int period : periods.values()) {
+                events += seconds * 1_000_000L / Math.max(1, period);
+            }
+        }
+    }
+}
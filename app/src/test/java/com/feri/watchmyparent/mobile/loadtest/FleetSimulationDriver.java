@@ -0,0 +1,186 @@
+package com.feri.watchmyparent.mobile.loadtest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.services.PatientShardedExecutor;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
+import com.feri.watchmyparent.mobile.infrastructure.services.SamsungHealthDataService;
+import com.feri.watchmyparent.mobile.infrastructure.services.SensorDataIntegrationService;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SimulationClock;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientFleet;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientWatchManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Rulează un SensorDataIntegrationService REAL cu toți pacienții sintetici înregistrați, cu tick-uri partajate
+// la frecvențele CriticalityLevel comprimate de SimulationClock (ex. CRITICAL 30s la 120x -> un tick la 250ms)
+// Samsung Health SDK e înlocuit per pacient de un mock care citește din simulator
+public class FleetSimulationDriver {
+
+    private final SyntheticPatientFleet fleet;
+    private final PipelineLatencyTracer latencyTracer;
+    private final SensorDataIntegrationService integrationService;
+
+    // Ultimul timestamp văzut per (pacient, nivel) - verifică ordinea citirilor pe banda pacientului
+    private final Map<String, LocalDateTime> lastTimestamps = new ConcurrentHashMap<>();
+    private final AtomicLong orderingViolations = new AtomicLong();
+
+    private final AtomicLongArray ticks = new AtomicLongArray(CriticalityLevel.values().length);
+    private final AtomicLongArray overruns = new AtomicLongArray(CriticalityLevel.values().length);
+    private final AtomicLongArray readings = new AtomicLongArray(CriticalityLevel.values().length);
+    private final AtomicLong fallEvents = new AtomicLong();
+
+    public FleetSimulationDriver(SyntheticPatientFleet fleet,
+                                 DataTransmissionService transmissionService,
+                                 PipelineLatencyTracer latencyTracer,
+                                 int shardWorkers) {
+        this.fleet = fleet;
+        this.latencyTracer = latencyTracer;
+        this.integrationService = SensorDataIntegrationService.builder(transmissionService, latencyTracer)
+                .patientExecutor(new PatientShardedExecutor(shardWorkers,
+                        PatientShardedExecutor.DEFAULT_MAX_BACKLOG_PER_PATIENT))
+                .build();
+
+        for (SyntheticPatientWatchManager patient : fleet.getPatients()) {
+            integrationService.registerPatientDevice(patient.getPatientId(), patient.getDeviceId(),
+                    patient, simulatedSamsungHealth(patient));
+        }
+    }
+
+    private static SamsungHealthDataService simulatedSamsungHealth(SyntheticPatientWatchManager patient) {
+        // stubOnly: fără înregistrarea invocărilor -> memorie constantă la mii de pacienți
+        SamsungHealthDataService service = mock(SamsungHealthDataService.class, withSettings().stubOnly());
+        when(service.isConnected()).thenAnswer(invocation -> patient.isConnected());
+        when(service.isSensorPermitted(any(SensorType.class))).thenReturn(true);
+        when(service.readSensorData(any(SensorType.class))).thenAnswer(invocation ->
+                patient.readSingleSensor(invocation.getArgument(0)));
+        return service;
+    }
+
+    public FleetReport run(int wallDurationSeconds) throws InterruptedException {
+        SimulationClock clock = fleet.getClock();
+        fleet.connectAll();
+
+        CriticalityLevel[] levels = CriticalityLevel.values();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(levels.length);
+        long startMs = System.currentTimeMillis();
+        long simStartMs = clock.elapsedSimMillis();
+
+        for (CriticalityLevel level : levels) {
+            long periodMs = clock.toWallMillis(Duration.ofSeconds(level.getDefaultFrequencySeconds()));
+            AtomicBoolean running = new AtomicBoolean(false);
+            scheduler.scheduleAtFixedRate(() -> tick(level, periodMs, running), 0, periodMs, TimeUnit.MILLISECONDS);
+        }
+
+        Thread.sleep(wallDurationSeconds * 1000L);
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        integrationService.shutdown();
+
+        FleetReport report = new FleetReport();
+        report.patients = fleet.size();
+        report.speedFactor = clock.getSpeedFactor();
+        report.wallSeconds = (System.currentTimeMillis() - startMs) / 1000.0;
+        report.simulatedMinutes = (clock.elapsedSimMillis() - simStartMs) / 60_000.0;
+        report.ticks = new long[levels.length];
+        report.overruns = new long[levels.length];
+        report.readingsByLevel = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            report.ticks[i] = ticks.get(i);
+            report.overruns[i] = overruns.get(i);
+            report.readingsByLevel[i] = readings.get(i);
+            report.readingsCollected += readings.get(i);
+        }
+        report.readingsPerSecond = report.readingsCollected / Math.max(0.001, report.wallSeconds);
+        report.fallEvents = fallEvents.get();
+        report.orderingViolations = orderingViolations.get();
+        report.shards = integrationService.getShardStatistics();
+        report.latencyReport = latencyTracer.getLatencyReport();
+        return report;
+    }
+
+    // Un tick colectează nivelul pentru toată flota; dacă tick-ul anterior nu s-a terminat, se marchează overrun
+    private void tick(CriticalityLevel level, long periodMs, AtomicBoolean running) {
+        if (!running.compareAndSet(false, true)) {
+            overruns.incrementAndGet(level.ordinal());
+            return;
+        }
+        try {
+            Map<String, List<SensorReading>> collected = integrationService.collectAllPatientsByCriticality(level)
+                    .get(Math.max(periodMs * 4, 1000), TimeUnit.MILLISECONDS);
+            for (Map.Entry<String, List<SensorReading>> entry : collected.entrySet()) {
+                readings.addAndGet(level.ordinal(), entry.getValue().size());
+                for (SensorReading reading : entry.getValue()) {
+                    if (reading.getSensorType() == SensorType.FALL_DETECTION && reading.getValue() >= 1.0) {
+                        fallEvents.incrementAndGet();
+                    }
+                    LocalDateTime previous = lastTimestamps.put(entry.getKey() + "/" + level, reading.getTimestamp());
+                    if (previous != null && reading.getTimestamp().isBefore(previous)) {
+                        orderingViolations.incrementAndGet();
+                    }
+                }
+            }
+            ticks.incrementAndGet(level.ordinal());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Timeout sau eroare de colectare -> tick pierdut
+            overruns.incrementAndGet(level.ordinal());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public static class FleetReport {
+        public int patients;
+        public double speedFactor;
+        public double wallSeconds;
+        public double simulatedMinutes;
+        public long[] ticks;           // indexat după CriticalityLevel.ordinal()
+        public long[] overruns;
+        public long[] readingsByLevel;
+        public long readingsCollected;
+        public double readingsPerSecond;
+        public long fallEvents;
+        public long orderingViolations;
+        public PatientShardedExecutor.ExecutorStatistics shards;
+        public KafkaRestProxyStandIn.ServerStatistics server;
+        public String latencyReport;
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("=== FLEET SIMULATION REPORT ===\n");
+            sb.append(String.format("Patients: %d @ %.0fx (%.1f wall s = %.1f simulated min)\n",
+                    patients, speedFactor, wallSeconds, simulatedMinutes));
+            for (CriticalityLevel level : CriticalityLevel.values()) {
+                int i = level.ordinal();
+                sb.append(String.format("  %-9s ticks=%d overruns=%d readings=%d\n",
+                        level, ticks[i], overruns[i], readingsByLevel[i]));
+            }
+            sb.append(String.format("Readings collected: %d (%.0f/s), fall events: %d, ordering violations: %d\n",
+                    readingsCollected, readingsPerSecond, fallEvents, orderingViolations));
+            if (shards != null) sb.append(shards).append("\n");
+            if (server != null) sb.append("Server: ").append(server).append("\n");
+            if (latencyReport != null) sb.append(latencyReport);
+            return sb.toString();
+        }
+    }
+}
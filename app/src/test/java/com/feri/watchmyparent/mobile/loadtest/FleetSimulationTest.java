@@ -0,0 +1,141 @@
+package com.feri.watchmyparent.mobile.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.application.services.DataTransmissionServiceImpl;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaHealthCheckService;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaRetryService;
+import com.feri.watchmyparent.mobile.infrastructure.services.NetworkStateManager;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SimulationClock;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientFleet;
+import com.feri.watchmyparent.mobile.infrastructure.watch.simulation.SyntheticPatientWatchManager;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+/**
+ * Simulare headless a unei flote de pacienți sintetici prin SensorDataIntegrationService (un singur serviciu,
+ * toți pacienții înregistrați, colectare pe benzi per pacient) + stack-ul Kafka.
+ * Testul de determinism rulează mereu; simularea completă doar la cerere:
+ * ./gradlew :app:testDebugUnitTest --tests '*FleetSimulationTest*' -Dloadtest.enabled=true
+ *   -Dloadtest.fleet.patients=1000 -Dloadtest.fleet.speed=120 -Dloadtest.fleet.durationSeconds=20
+ */
+public class FleetSimulationTest {
+
+    private static final LocalDateTime SIM_START = LocalDateTime.of(2025, 1, 6, 6, 0);
+
+    private KafkaRestProxyStandIn server;
+    private RealHealthDataKafkaProducer producer;
+    private KafkaHealthCheckService healthCheckService;
+    private KafkaRetryService retryService;
+
+    @After
+    public void tearDown() {
+        if (retryService != null) retryService.shutdown();
+        if (healthCheckService != null) healthCheckService.shutdown();
+        if (producer != null) producer.close();
+        if (server != null) server.close();
+    }
+
+    @Test
+    public void sameSeedProducesIdenticalStreams() {
+        SyntheticPatientFleet first = new SyntheticPatientFleet(1234L, 20, SimulationClock.manual(SIM_START));
+        SyntheticPatientFleet second = new SyntheticPatientFleet(1234L, 20, SimulationClock.manual(SIM_START));
+
+        for (int p = 0; p < first.size(); p++) {
+            SyntheticPatientWatchManager a = first.getPatient(p);
+            SyntheticPatientWatchManager b = second.getPatient(p);
+            assertEquals(a.getDeviceId(), b.getDeviceId());
+            for (int minute = 0; minute < 48 * 60; minute += 7) {
+                LocalDateTime time = SIM_START.plusMinutes(minute);
+                for (SensorType type : SensorType.values()) {
+                    assertEquals(a.getModel().valueAt(type, time), b.getModel().valueAt(type, time), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void streamsStayWithinPhysiologicalRanges() {
+        SyntheticPatientFleet fleet = new SyntheticPatientFleet(99L, 50, SimulationClock.manual(SIM_START));
+        for (SyntheticPatientWatchManager patient : fleet.getPatients()) {
+            double previousSteps = -1;
+            for (int minute = 0; minute < 24 * 60; minute++) {
+                LocalDateTime time = SIM_START.plusMinutes(minute);
+                double hr = patient.getModel().valueAt(SensorType.HEART_RATE, time);
+                double spo2 = patient.getModel().valueAt(SensorType.BLOOD_OXYGEN, time);
+                assertTrue("HR out of range: " + hr, hr >= 35 && hr <= 190);
+                assertTrue("SpO2 out of range: " + spo2, spo2 >= 80 && spo2 <= 100);
+
+                // Pașii sunt cumulați și se resetează doar la miezul nopții
+                double steps = patient.getModel().valueAt(SensorType.STEP_COUNT, time);
+                if (time.getHour() != 0 || time.getMinute() != 0) {
+                    assertTrue("Steps decreased within a day", steps >= previousSteps);
+                }
+                previousSteps = steps;
+            }
+        }
+    }
+
+    @Test
+    public void fleetDrivesIntegrationServiceThroughKafka() throws Exception {
+        assumeTrue("Fleet simulation disabled (use -Dloadtest.enabled=true)", Boolean.getBoolean("loadtest.enabled"));
+
+        int patients = Integer.getInteger("loadtest.fleet.patients", 200);
+        double speed = Double.parseDouble(System.getProperty("loadtest.fleet.speed", "120"));
+        int durationSeconds = Integer.getInteger("loadtest.fleet.durationSeconds", 15);
+        long seed = Long.getLong("loadtest.seed", 42L);
+        int shardWorkers = Integer.getInteger("loadtest.fleet.shardWorkers", 16);
+
+        server = new KafkaRestProxyStandIn(new KafkaRestProxyStandIn.Config());
+        server.start();
+        producer = new RealHealthDataKafkaProducer(server.getBootstrapServers(), server.getRestPort());
+        assertTrue("Producer could not reach the stand-in", awaitProducerConnected(producer));
+
+        PipelineLatencyTracer tracer = new PipelineLatencyTracer();
+        InMemoryOfflineStore offlineStore = new InMemoryOfflineStore();
+        NetworkStateManager network = mock(NetworkStateManager.class);
+        when(network.isNetworkAvailable()).thenReturn(true);
+        when(network.getCurrentNetworkType()).thenReturn("FleetSimulation");
+
+        healthCheckService = new KafkaHealthCheckService(producer, 1);
+        retryService = new KafkaRetryService(producer, healthCheckService, offlineStore.getManager(), tracer,
+                null, 2000);
+        healthCheckService.start();
+        retryService.start();
+        DataTransmissionServiceImpl transmissionService = new DataTransmissionServiceImpl(
+                producer, healthCheckService, retryService, offlineStore.getManager(), network, tracer);
+
+        SyntheticPatientFleet fleet = new SyntheticPatientFleet(seed, patients, new SimulationClock(SIM_START, speed));
+        FleetSimulationDriver.FleetReport report =
+                new FleetSimulationDriver(fleet, transmissionService, tracer, shardWorkers).run(durationSeconds);
+
+        // Lasă transmisiile în curs să se termine înainte de citirea statisticilor serverului
+        Thread.sleep(2000);
+        report.server = server.getStatistics();
+
+        System.out.println(fleet.getFleetSummary());
+        System.out.println(report);
+
+        assertTrue("No readings were collected", report.readingsCollected > 0);
+        assertTrue("Stand-in accepted no records", report.server.acceptedRecords > 0);
+        assertEquals("Per-patient readings were reordered", 0, report.orderingViolations);
+    }
+
+    private boolean awaitProducerConnected(RealHealthDataKafkaProducer producer) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (producer.healthCheck().join()) return true;
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package com.feri.watchmyparent.mobile.loadtest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager;
+import com.feri.watchmyparent.mobile.infrastructure.services.OfflineDataManager.OfflineHealthData;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Coada offline în memorie în spatele unui mock de OfflineDataManager (Room nu rulează pe JVM)
+// Respectă aceeași semantică: limită de înregistrări, ordonare după createdAt, retry count
+public class InMemoryOfflineStore {
+
+    private static final int MAX_OFFLINE_RECORDS = 10000;
+
+    private final ConcurrentSkipListMap<Long, OfflineHealthData> records = new ConcurrentSkipListMap<>();
+    private final AtomicLong idSequence = new AtomicLong();
+    private final AtomicInteger peakSize = new AtomicInteger();
+    private final AtomicLong evictedRecords = new AtomicLong();
+    private final AtomicLong deliveredRecords = new AtomicLong(); // șterse după retry reușit
+    private final OfflineDataManager manager;
+
+    public InMemoryOfflineStore() {
+        manager = mock(OfflineDataManager.class);
+
+        when(manager.storeOfflineData(any(SensorDataDTO.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(store(invocation.getArgument(0))));
+
+        when(manager.getOfflineData()).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(new ArrayList<>(records.values())));
+
+        when(manager.deleteOfflineData(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            int deleted = 0;
+            for (Long id : ids) {
+                if (records.remove(id) != null) deleted++;
+            }
+            deliveredRecords.addAndGet(deleted);
+            return CompletableFuture.completedFuture(deleted > 0);
+        });
+
+        when(manager.incrementRetryCount(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            for (Long id : ids) {
+                OfflineHealthData data = records.get(id);
+                if (data != null) data.retryCount++;
+            }
+            return CompletableFuture.completedFuture(!ids.isEmpty());
+        });
+
+        // Generatorul trimite doar citiri - coada de evenimente (tranziții de zonă, anomalii) rămâne goală
+        when(manager.getOfflineEvents()).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(new ArrayList<>()));
+
+        when(manager.cleanupFailedRecords(anyInt())).thenAnswer(invocation -> {
+            int maxRetries = invocation.getArgument(0);
+            int deleted = 0;
+            for (Map.Entry<Long, OfflineHealthData> entry : records.entrySet()) {
+                if (entry.getValue().retryCount >= maxRetries && records.remove(entry.getKey()) != null) {
+                    deleted++;
+                }
+            }
+            return CompletableFuture.completedFuture(deleted);
+        });
+
+        when(manager.getOfflineStatistics()).thenAnswer(invocation -> {
+            OfflineDataManager.OfflineStatistics stats = new OfflineDataManager.OfflineStatistics();
+            stats.totalRecords = records.size();
+            for (OfflineHealthData data : records.values()) {
+                if (data.retryCount == 0) stats.pendingRecords++;
+                if (data.retryCount >= 3) stats.failedRecords++;
+            }
+            Map.Entry<Long, OfflineHealthData> oldest = records.firstEntry();
+            stats.oldestRecord = oldest != null ? oldest.getValue().createdAt : null;
+            return CompletableFuture.completedFuture(stats);
+        });
+    }
+
+    private boolean store(SensorDataDTO sensorData) {
+        if (records.size() >= MAX_OFFLINE_RECORDS) {
+            // La fel ca OfflineDataManager: se șterg cele mai vechi 1000
+            for (int i = 0; i < 1000 && !records.isEmpty(); i++) {
+                records.pollFirstEntry();
+                evictedRecords.incrementAndGet();
+            }
+        }
+
+        OfflineHealthData data = new OfflineHealthData();
+        data.id = idSequence.incrementAndGet();
+        data.userId = sensorData.getUserId();
+        data.sensorType = sensorData.getSensorType();
+        data.value = sensorData.getValue();
+        data.unit = sensorData.getUnit();
+        data.timestamp = sensorData.getTimestamp();
+        data.deviceId = sensorData.getDeviceId();
+        data.retryCount = sensorData.getRetryCount();
+        data.createdAt = LocalDateTime.now();
+        data.sensorDataId = sensorData.getSensorDataId();
+        records.put(data.id, data);
+
+        int size = records.size();
+        peakSize.accumulateAndGet(size, Math::max);
+        return true;
+    }
+
+    public OfflineDataManager getManager() {
+        return manager;
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    public int getPeakSize() {
+        return peakSize.get();
+    }
+
+    public long getEvictedRecords() {
+        return evictedRecords.get();
+    }
+
+    public long getStoredRecords() {
+        return idSequence.get();
+    }
+
+    public long getDeliveredRecords() {
+        return deliveredRecords.get();
+    }
+}
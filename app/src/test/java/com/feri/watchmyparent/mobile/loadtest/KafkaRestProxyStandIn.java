@@ -0,0 +1,400 @@
+package com.feri.watchmyparent.mobile.loadtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stand-in local pentru Kafka REST Proxy (contractul POST /topics/{topic}) + "broker" TCP pentru probe
+// Latență, rată de erori, eșecuri parțiale de batch și ferestre de outage sunt configurabile
+// În timpul unui outage ambele socket-uri sunt închise -> clientul primește connection refused, ca în realitate
+public class KafkaRestProxyStandIn implements AutoCloseable {
+
+    private final Config config;
+    private final Random random;
+    private final ExecutorService connectionPool = Executors.newCachedThreadPool();
+    private final Set<Socket> openConnections = ConcurrentHashMap.newKeySet();
+
+    private volatile ServerSocket restSocket;
+    private volatile ServerSocket brokerSocket;
+    private int restPort;
+    private int brokerPort;
+    private volatile boolean running = false;
+    private volatile boolean inOutage = false;
+    private long startedAtMs;
+    private Thread outageMonitor;
+
+    // Statistics (server side)
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong acceptedRecords = new AtomicLong();
+    private final AtomicLong healthTopicRecords = new AtomicLong();
+    private final AtomicLong locationTopicRecords = new AtomicLong();
+    private final AtomicLong erroredRequests = new AtomicLong();
+    private final AtomicLong partiallyFailedRecords = new AtomicLong();
+    private final AtomicLong brokerProbes = new AtomicLong();
+
+    public KafkaRestProxyStandIn(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    public void start() throws IOException {
+        restSocket = bind(0);
+        brokerSocket = bind(0);
+        restPort = restSocket.getLocalPort();
+        brokerPort = brokerSocket.getLocalPort();
+        running = true;
+        startedAtMs = System.currentTimeMillis();
+
+        startAcceptLoops();
+
+        if (!config.outages.isEmpty()) {
+            outageMonitor = new Thread(this::monitorOutages, "rest-proxy-outage-monitor");
+            outageMonitor.setDaemon(true);
+            outageMonitor.start();
+        }
+    }
+
+    public String getBootstrapServers() {
+        return "127.0.0.1:" + brokerPort;
+    }
+
+    public int getRestPort() {
+        return restPort;
+    }
+
+    public long getStartedAtMs() {
+        return startedAtMs;
+    }
+
+    public boolean isInOutage() {
+        return inOutage;
+    }
+
+    private ServerSocket bind(int port) throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 512);
+        return socket;
+    }
+
+    private void startAcceptLoops() {
+        final ServerSocket rest = restSocket;
+        final ServerSocket broker = brokerSocket;
+        connectionPool.execute(() -> acceptLoop(rest, true));
+        connectionPool.execute(() -> acceptLoop(broker, false));
+    }
+
+    private void acceptLoop(ServerSocket serverSocket, boolean rest) {
+        while (running && !serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                openConnections.add(client);
+                connectionPool.execute(() -> {
+                    if (rest) {
+                        handleRestConnection(client);
+                    } else {
+                        handleBrokerConnection(client);
+                    }
+                });
+            } catch (IOException e) {
+                // Socket închis (outage / stop)
+                return;
+            }
+        }
+    }
+
+    // Închide / redeschide socket-urile conform ferestrelor de outage
+    private void monitorOutages() {
+        while (running) {
+            boolean shouldBeDown = isWithinOutageWindow(System.currentTimeMillis() - startedAtMs);
+            try {
+                if (shouldBeDown && !inOutage) {
+                    inOutage = true;
+                    closeQuietly(restSocket);
+                    closeQuietly(brokerSocket);
+                    closeOpenConnections();
+                } else if (!shouldBeDown && inOutage) {
+                    restSocket = bind(restPort);
+                    brokerSocket = bind(brokerPort);
+                    inOutage = false;
+                    startAcceptLoops();
+                }
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // Portul încă în TIME_WAIT - reîncercăm la următorul tick
+            }
+        }
+    }
+
+    private boolean isWithinOutageWindow(long elapsedMs) {
+        for (OutageWindow window : config.outages) {
+            if (elapsedMs >= window.startMs && elapsedMs < window.endMs) return true;
+        }
+        return false;
+    }
+
+    // ========== REST PROXY ==========
+
+    private void handleRestConnection(Socket client) {
+        try (Socket socket = client) {
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            // Keep-alive: HttpURLConnection refolosește conexiunile
+            while (running && !inOutage) {
+                String requestLine = readLine(in);
+                if (requestLine == null || requestLine.isEmpty()) return;
+
+                int contentLength = 0;
+                boolean close = false;
+                String header;
+                while ((header = readLine(in)) != null && !header.isEmpty()) {
+                    String lower = header.toLowerCase(Locale.ROOT);
+                    if (lower.startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring(15).trim());
+                    } else if (lower.startsWith("connection:") && lower.contains("close")) {
+                        close = true;
+                    }
+                }
+
+                byte[] body = readFully(in, contentLength);
+                handleRequest(requestLine, new String(body, StandardCharsets.UTF_8), out);
+                if (close) return;
+            }
+        } catch (IOException ignored) {
+            // Clientul a închis conexiunea
+        } finally {
+            openConnections.remove(client);
+        }
+    }
+
+    private void handleRequest(String requestLine, String body, OutputStream out) throws IOException {
+        requests.incrementAndGet();
+        String[] parts = requestLine.split(" ");
+        String method = parts.length > 0 ? parts[0] : "";
+        String path = parts.length > 1 ? parts[1] : "";
+
+        if (!"POST".equals(method) || !path.startsWith("/topics/")) {
+            writeResponse(out, 404, "{\"error_code\":40401,\"message\":\"Not found\"}");
+            return;
+        }
+        String topic = path.substring("/topics/".length());
+
+        simulateLatency();
+
+        if (nextDouble() < config.errorRate) {
+            erroredRequests.incrementAndGet();
+            writeResponse(out, 500, "{\"error_code\":50001,\"message\":\"Simulated broker error\"}");
+            return;
+        }
+
+        JsonArray records;
+        try {
+            JsonObject request = JsonParser.parseString(body).getAsJsonObject();
+            records = request.getAsJsonArray("records");
+        } catch (Exception e) {
+            erroredRequests.incrementAndGet();
+            writeResponse(out, 422, "{\"error_code\":42201,\"message\":\"Unprocessable entity\"}");
+            return;
+        }
+
+        // Contract REST Proxy v2: un offset (sau o eroare) per record, HTTP 200 chiar și la eșec parțial
+        StringBuilder offsets = new StringBuilder("{\"offsets\":[");
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) offsets.append(',');
+            if (nextDouble() < config.partialFailureRate) {
+                partiallyFailedRecords.incrementAndGet();
+                offsets.append("{\"partition\":null,\"offset\":null,\"error_code\":50002,\"error\":\"Simulated record failure\"}");
+            } else {
+                long offset = acceptedRecords.incrementAndGet();
+                if (topic.startsWith("location")) {
+                    locationTopicRecords.incrementAndGet();
+                } else {
+                    healthTopicRecords.incrementAndGet();
+                }
+                offsets.append("{\"partition\":0,\"offset\":").append(offset)
+                        .append(",\"error_code\":null,\"error\":null}");
+            }
+        }
+        offsets.append("],\"key_schema_id\":null,\"value_schema_id\":null}");
+        writeResponse(out, 200, offsets.toString());
+    }
+
+    private void simulateLatency() {
+        long delay = config.latencyMs;
+        if (config.latencyJitterMs > 0) {
+            delay += (long) (nextDouble() * config.latencyJitterMs);
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeResponse(OutputStream out, int status, String body) throws IOException {
+        byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+        String reason = status == 200 ? "OK" : status == 404 ? "Not Found" : "Error";
+        String head = "HTTP/1.1 " + status + " " + reason + "\r\n" +
+                "Content-Type: application/vnd.kafka.v2+json\r\n" +
+                "Content-Length: " + payload.length + "\r\n" +
+                "Connection: keep-alive\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(payload);
+        out.flush();
+    }
+
+    // ========== BROKER (probe TCP) ==========
+
+    private void handleBrokerConnection(Socket client) {
+        brokerProbes.incrementAndGet();
+        try (Socket socket = client; InputStream in = socket.getInputStream()) {
+            // Producătorul doar deschide și închide conexiunea - nu se trimit date pe acest port
+            while (in.read() != -1) {
+                // ignorat
+            }
+        } catch (IOException ignored) {
+            // Probe-urile de conexiune închid imediat socket-ul
+        } finally {
+            openConnections.remove(client);
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private double nextDouble() {
+        synchronized (random) {
+            return random.nextDouble();
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') break;
+            if (c != '\r') line.write(c);
+        }
+        if (c == -1 && line.size() == 0) return null;
+        return new String(line.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(buffer, read, length - read);
+            if (n < 0) throw new IOException("Unexpected end of stream");
+            read += n;
+        }
+        return buffer;
+    }
+
+    private void closeOpenConnections() {
+        for (Socket socket : openConnections) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+        openConnections.clear();
+    }
+
+    private static void closeQuietly(ServerSocket socket) {
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (outageMonitor != null) outageMonitor.interrupt();
+        closeQuietly(restSocket);
+        closeQuietly(brokerSocket);
+        closeOpenConnections();
+        connectionPool.shutdownNow();
+    }
+
+    public ServerStatistics getStatistics() {
+        ServerStatistics stats = new ServerStatistics();
+        stats.requests = requests.get();
+        stats.acceptedRecords = acceptedRecords.get();
+        stats.healthTopicRecords = healthTopicRecords.get();
+        stats.locationTopicRecords = locationTopicRecords.get();
+        stats.erroredRequests = erroredRequests.get();
+        stats.partiallyFailedRecords = partiallyFailedRecords.get();
+        stats.brokerProbes = brokerProbes.get();
+        return stats;
+    }
+
+    // Configurația stand-in-ului
+    public static class Config {
+        public long seed = 42L;
+        public long latencyMs = 5;
+        public long latencyJitterMs = 10;
+        public double errorRate = 0.0;           // HTTP 500 pe întreaga cerere
+        public double partialFailureRate = 0.0;  // HTTP 200, dar record-ul are error_code
+        public List<OutageWindow> outages = new ArrayList<>();
+
+        public Config addOutage(long startMs, long endMs) {
+            outages.add(new OutageWindow(startMs, endMs));
+            return this;
+        }
+    }
+
+    // Fereastră de outage relativă la pornirea serverului
+    public static class OutageWindow {
+        public final long startMs;
+        public final long endMs;
+
+        public OutageWindow(long startMs, long endMs) {
+            this.startMs = startMs;
+            this.endMs = endMs;
+        }
+    }
+
+    // Statistici server
+    public static class ServerStatistics {
+        public long requests = 0;
+        public long acceptedRecords = 0;
+        public long healthTopicRecords = 0;
+        public long locationTopicRecords = 0;
+        public long erroredRequests = 0;
+        public long partiallyFailedRecords = 0;
+        public long brokerProbes = 0;
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Server Stats: Requests=%d, Accepted=%d (health=%d, location=%d), Errors=%d, PartialFailures=%d, Probes=%d",
+                    requests, acceptedRecords, healthTopicRecords, locationTopicRecords,
+                    erroredRequests, partiallyFailedRecords, brokerProbes);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.feri.watchmyparent.mobile.loadtest;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.application.interfaces.DataTransmissionService;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Generator de load: N pacienți virtuali trimit citiri prin stack-ul REAL de transmisie
+// (DataTransmissionServiceImpl -> RealHealthDataKafkaProducer -> KafkaRetryService -> coada offline)
+public class PipelineLoadGenerator {
+
+    private static final List<SensorType> DEFAULT_SENSOR_MIX = Arrays.asList(
+            SensorType.HEART_RATE, SensorType.BLOOD_OXYGEN, SensorType.STEP_COUNT,
+            SensorType.BODY_TEMPERATURE, SensorType.ACCELEROMETER);
+
+    private final Config config;
+    private final DataTransmissionService transmissionService;
+    private final InMemoryOfflineStore offlineStore;
+    private final KafkaRestProxyStandIn server;
+    private final PipelineLatencyTracer latencyTracer;
+
+    // Client-side statistics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final LatencyRecorder submitLatency = new LatencyRecorder();
+
+    public PipelineLoadGenerator(Config config,
+                                 DataTransmissionService transmissionService,
+                                 InMemoryOfflineStore offlineStore,
+                                 KafkaRestProxyStandIn server,
+                                 PipelineLatencyTracer latencyTracer) {
+        this.config = config;
+        this.transmissionService = transmissionService;
+        this.offlineStore = offlineStore;
+        this.server = server;
+        this.latencyTracer = latencyTracer;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ScheduledExecutorService patients = Executors.newScheduledThreadPool(config.generatorThreads);
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        Random seedSource = new Random(config.seed);
+        List<ScheduledFuture<?>> tasks = new ArrayList<>();
+
+        long periodMicros = Math.max(1L, (long) (1_000_000L / config.readingsPerPatientPerSecond));
+        long runStartMs = System.currentTimeMillis();
+
+        for (int p = 0; p < config.patients; p++) {
+            final String userId = "load-patient-" + p;
+            final Random random = new Random(seedSource.nextLong());
+            long initialDelay = (long) (random.nextDouble() * periodMicros);
+            tasks.add(patients.scheduleAtFixedRate(
+                    () -> emitReading(userId, random, inFlight),
+                    initialDelay, periodMicros, TimeUnit.MICROSECONDS));
+        }
+
+        // Eșantionează backlog-ul offline și throughput-ul pe durata rulării + perioada de drenare
+        List<long[]> timeline = new ArrayList<>();
+        long lastAccepted = server.getStatistics().acceptedRecords;
+        long peakThroughput = 0;
+        long recoveredAtMs = -1;
+        long lastOutageEndMs = lastOutageEnd();
+        long stopGeneratingAtMs = runStartMs + config.durationSeconds * 1000L;
+        long hardStopMs = stopGeneratingAtMs + config.drainSeconds * 1000L;
+        boolean generating = true;
+
+        while (System.currentTimeMillis() < hardStopMs) {
+            Thread.sleep(config.sampleIntervalMs);
+            long now = System.currentTimeMillis();
+
+            if (generating && now >= stopGeneratingAtMs) {
+                for (ScheduledFuture<?> task : tasks) task.cancel(false);
+                generating = false;
+            }
+
+            long accepted = server.getStatistics().acceptedRecords;
+            long perSecond = (accepted - lastAccepted) * 1000L / config.sampleIntervalMs;
+            lastAccepted = accepted;
+            peakThroughput = Math.max(peakThroughput, perSecond);
+            int backlog = offlineStore.size();
+            timeline.add(new long[]{now - runStartMs, perSecond, backlog});
+
+            long elapsedSinceServerStart = now - server.getStartedAtMs();
+            if (recoveredAtMs < 0 && lastOutageEndMs >= 0 && elapsedSinceServerStart > lastOutageEndMs
+                    && backlog == 0 && inFlight.availablePermits() == config.maxInFlight) {
+                recoveredAtMs = elapsedSinceServerStart;
+            }
+            if (!generating && backlog == 0 && inFlight.availablePermits() == config.maxInFlight) {
+                break;
+            }
+        }
+
+        patients.shutdownNow();
+        patients.awaitTermination(5, TimeUnit.SECONDS);
+
+        long activeMs = Math.max(1L, Math.min(System.currentTimeMillis(), stopGeneratingAtMs) - runStartMs);
+
+        LoadReport report = new LoadReport();
+        report.patients = config.patients;
+        report.readingsPerPatientPerSecond = config.readingsPerPatientPerSecond;
+        report.durationSeconds = config.durationSeconds;
+        report.submitted = submitted.get();
+        report.succeeded = succeeded.get();
+        report.failed = failed.get();
+        report.shed = shed.get();
+        report.offeredPerSecond = report.submitted * 1000.0 / activeMs;
+        report.sustainedThroughputPerSecond = server.getStatistics().acceptedRecords * 1000.0 / activeMs;
+        report.peakThroughputPerSecond = peakThroughput;
+        report.submitLatency = submitLatency.snapshot();
+        report.peakOfflineBacklog = offlineStore.getPeakSize();
+        report.finalOfflineBacklog = offlineStore.size();
+        report.evictedOfflineRecords = offlineStore.getEvictedRecords();
+        report.backlogRecoveryMs = recoveredAtMs >= 0 && lastOutageEndMs >= 0 ? recoveredAtMs - lastOutageEndMs : -1;
+        report.server = server.getStatistics();
+        // transmitData întoarce true și când citirea a fost doar pusă în coada offline; livrările reale ale
+        // clientului (direct + retry din coada offline) trebuie să aibă fiecare un offset acceptat de server.
+        // Surplusul serverului vine din retry-uri după un timeout al clientului (duplicate)
+        report.offlineStored = offlineStore.getStoredRecords();
+        report.offlineDelivered = offlineStore.getDeliveredRecords();
+        report.clientDelivered = report.succeeded - report.offlineStored + report.offlineDelivered;
+        report.unconfirmedDeliveries = Math.max(0L, report.clientDelivered - report.server.healthTopicRecords);
+        report.latencyReport = latencyTracer.getLatencyReport();
+        report.timeline = timeline;
+        return report;
+    }
+
+    private void emitReading(String userId, Random random, Semaphore inFlight) {
+        if (!inFlight.tryAcquire()) {
+            // Stack-ul nu ține pasul - măsurăm presiunea în loc să acumulăm cozi nelimitate
+            shed.incrementAndGet();
+            return;
+        }
+
+        SensorType type = config.sensorMix.get(random.nextInt(config.sensorMix.size()));
+        SensorReading reading = new SensorReading(type, plausibleValue(type, random), "load-watch-" + userId);
+        latencyTracer.startTrace(reading);
+
+        SensorDataDTO dto = new SensorDataDTO(userId, type, reading.getValue(), reading.getDeviceId());
+        dto.setTimestamp(reading.getTimestamp());
+        dto.setTrace(reading.getTrace());
+
+        submitted.incrementAndGet();
+        final long startNanos = System.nanoTime();
+        CompletableFuture<Boolean> future;
+        try {
+            future = transmissionService.transmitData(dto, userId);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            inFlight.release();
+            return;
+        }
+
+        future.whenComplete((success, throwable) -> {
+            submitLatency.record(System.nanoTime() - startNanos);
+            if (throwable == null && Boolean.TRUE.equals(success)) {
+                succeeded.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            inFlight.release();
+        });
+    }
+
+    private double plausibleValue(SensorType type, Random random) {
+        switch (type) {
+            case HEART_RATE: return 72 + random.nextGaussian() * 8;
+            case BLOOD_OXYGEN: return Math.min(100.0, 97 + random.nextGaussian());
+            case BODY_TEMPERATURE: return 36.6 + random.nextGaussian() * 0.3;
+            case STEP_COUNT: return random.nextInt(12000);
+            default: return 9.81 + random.nextGaussian() * 0.5;
+        }
+    }
+
+    private long lastOutageEnd() {
+        long end = -1;
+        for (KafkaRestProxyStandIn.OutageWindow window : config.serverConfig.outages) {
+            end = Math.max(end, window.endMs);
+        }
+        return end;
+    }
+
+    // Histogramă log2 (µs) pentru latența submit -> completarea future-ului
+    static class LatencyRecorder {
+        private static final int BUCKETS = 40;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(0L, nanos / 1_000L);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+            max.accumulateAndGet(micros, Math::max);
+        }
+
+        PipelineLatencyTracer.LatencySnapshot snapshot() {
+            PipelineLatencyTracer.LatencySnapshot snapshot = new PipelineLatencyTracer.LatencySnapshot();
+            long[] copy = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = buckets.get(i);
+                total += copy[i];
+            }
+            snapshot.count = total;
+            if (total == 0) return snapshot;
+            snapshot.p50Ms = percentile(copy, total, 0.50);
+            snapshot.p95Ms = percentile(copy, total, 0.95);
+            snapshot.p99Ms = percentile(copy, total, 0.99);
+            snapshot.maxMs = max.get() / 1000.0;
+            return snapshot;
+        }
+
+        private double percentile(long[] copy, long total, double p) {
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < copy.length; i++) {
+                seen += copy[i];
+                if (seen >= target) return Math.min(1L << i, Math.max(1L, max.get())) / 1000.0;
+            }
+            return max.get() / 1000.0;
+        }
+    }
+
+    // Parametrii scenariului (suprascriși din system properties loadtest.*)
+    public static class Config {
+        public int patients = 50;
+        public double readingsPerPatientPerSecond = 1.0;
+        public int durationSeconds = 30;
+        public int drainSeconds = 60;
+        public int generatorThreads = 4;
+        public int maxInFlight = 2000;
+        public long sampleIntervalMs = 500;
+        public long seed = 7L;
+        public List<SensorType> sensorMix = DEFAULT_SENSOR_MIX;
+        public KafkaRestProxyStandIn.Config serverConfig = new KafkaRestProxyStandIn.Config();
+
+        public static Config fromSystemProperties() {
+            Config config = new Config();
+            config.patients = Integer.getInteger("loadtest.patients", config.patients);
+            config.readingsPerPatientPerSecond = Double.parseDouble(System.getProperty(
+                    "loadtest.readingsPerSecond", String.valueOf(config.readingsPerPatientPerSecond)));
+            config.durationSeconds = Integer.getInteger("loadtest.durationSeconds", config.durationSeconds);
+            config.drainSeconds = Integer.getInteger("loadtest.drainSeconds", config.drainSeconds);
+            config.maxInFlight = Integer.getInteger("loadtest.maxInFlight", config.maxInFlight);
+            config.seed = Long.getLong("loadtest.seed", config.seed);
+
+            KafkaRestProxyStandIn.Config server = config.serverConfig;
+            server.seed = config.seed;
+            server.latencyMs = Long.getLong("loadtest.latencyMs", server.latencyMs);
+            server.latencyJitterMs = Long.getLong("loadtest.latencyJitterMs", server.latencyJitterMs);
+            server.errorRate = Double.parseDouble(System.getProperty("loadtest.errorRate", "0.01"));
+            server.partialFailureRate = Double.parseDouble(System.getProperty("loadtest.partialFailureRate", "0.005"));
+
+            // Format: "5000-12000,20000-25000" (ms de la pornirea serverului)
+            String outages = System.getProperty("loadtest.outages", "8000-14000");
+            for (String window : outages.split(",")) {
+                String[] bounds = window.trim().split("-");
+                if (bounds.length == 2) {
+                    server.addOutage(Long.parseLong(bounds[0].trim()), Long.parseLong(bounds[1].trim()));
+                }
+            }
+            return config;
+        }
+    }
+
+    // Raportul final al rulării
+    public static class LoadReport {
+        public int patients;
+        public double readingsPerPatientPerSecond;
+        public int durationSeconds;
+        public long submitted;
+        public long succeeded;
+        public long failed;
+        public long shed;
+        public double offeredPerSecond;
+        public double sustainedThroughputPerSecond;
+        public long peakThroughputPerSecond;
+        public PipelineLatencyTracer.LatencySnapshot submitLatency;
+        public int peakOfflineBacklog;
+        public int finalOfflineBacklog;
+        public long evictedOfflineRecords;
+        public long offlineStored;
+        public long offlineDelivered;
+        public long clientDelivered;
+        public long unconfirmedDeliveries; // raportate livrate de client, fără record acceptat de server
+        public long backlogRecoveryMs;
+        public KafkaRestProxyStandIn.ServerStatistics server;
+        public String latencyReport;
+        public List<long[]> timeline; // [elapsedMs, acceptedPerSecond, offlineBacklog]
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Load Report: Patients=%d @ %.2f/s for %ds\n" +
+                    "  Offered=%.1f/s, Sustained=%.1f/s, Peak=%d/s\n" +
+                    "  Submitted=%d, Succeeded=%d, Failed=%d, Shed=%d\n" +
+                    "  Submit latency: %s\n" +
+                    "  Offline backlog: peak=%d, final=%d, evicted=%d, recovery=%s\n" +
+                    "  Delivered: client=%d (offline stored %d, retried %d), server accepted=%d, unconfirmed=%d\n" +
+                    "  %s\n%s",
+                    patients, readingsPerPatientPerSecond, durationSeconds,
+                    offeredPerSecond, sustainedThroughputPerSecond, peakThroughputPerSecond,
+                    submitted, succeeded, failed, shed,
+                    submitLatency,
+                    peakOfflineBacklog, finalOfflineBacklog, evictedOfflineRecords,
+                    backlogRecoveryMs >= 0 ? backlogRecoveryMs + "ms" : "not recovered",
+                    clientDelivered, offlineStored, offlineDelivered, server.healthTopicRecords, unconfirmedDeliveries,
+                    server, latencyReport);
+        }
+    }
+}
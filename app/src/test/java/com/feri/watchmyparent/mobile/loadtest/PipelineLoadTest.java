@@ -0,0 +1,108 @@
+package com.feri.watchmyparent.mobile.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.feri.watchmyparent.mobile.application.services.DataTransmissionServiceImpl;
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RealHealthDataKafkaProducer;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaHealthCheckService;
+import com.feri.watchmyparent.mobile.infrastructure.services.KafkaRetryService;
+import com.feri.watchmyparent.mobile.infrastructure.services.NetworkStateManager;
+import com.feri.watchmyparent.mobile.infrastructure.services.PipelineLatencyTracer;
+import com.google.gson.GsonBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Load test pentru pipeline-ul de transmisie contra unui Kafka REST Proxy stand-in local.
+ * Rulează doar la cerere: ./gradlew :app:testDebugUnitTest --tests '*PipelineLoadTest*' -Dloadtest.enabled=true
+ * Raportul JSON se scrie în app/build/reports/loadtest/.
+ */
+public class PipelineLoadTest {
+
+    private KafkaRestProxyStandIn server;
+    private RealHealthDataKafkaProducer producer;
+    private KafkaHealthCheckService healthCheckService;
+    private KafkaRetryService retryService;
+
+    @Before
+    public void setUp() {
+        assumeTrue("Load test disabled (use -Dloadtest.enabled=true)", Boolean.getBoolean("loadtest.enabled"));
+    }
+
+    @After
+    public void tearDown() {
+        if (retryService != null) retryService.shutdown();
+        if (healthCheckService != null) healthCheckService.shutdown();
+        if (producer != null) producer.close();
+        if (server != null) server.close();
+    }
+
+    @Test
+    public void sustainedLoadWithOutageRecovers() throws Exception {
+        PipelineLoadGenerator.Config config = PipelineLoadGenerator.Config.fromSystemProperties();
+
+        server = new KafkaRestProxyStandIn(config.serverConfig);
+        server.start();
+
+        producer = new RealHealthDataKafkaProducer(server.getBootstrapServers(), server.getRestPort());
+        assertTrue("Producer could not reach the stand-in", awaitProducerConnected(producer));
+
+        PipelineLatencyTracer tracer = new PipelineLatencyTracer();
+        for (CriticalityLevel level : CriticalityLevel.values()) {
+            tracer.setSamplingRate(level, Double.parseDouble(System.getProperty("loadtest.sampling", "0.1")));
+        }
+
+        InMemoryOfflineStore offlineStore = new InMemoryOfflineStore();
+        NetworkStateManager network = mock(NetworkStateManager.class);
+        when(network.isNetworkAvailable()).thenReturn(true);
+        when(network.getCurrentNetworkType()).thenReturn("LoadTest");
+
+        healthCheckService = new KafkaHealthCheckService(producer, 1);
+        retryService = new KafkaRetryService(producer, healthCheckService,
+                offlineStore.getManager(), tracer, null, 2000);
+        healthCheckService.start();
+        retryService.start();
+        DataTransmissionServiceImpl transmissionService = new DataTransmissionServiceImpl(
+                producer, healthCheckService, retryService, offlineStore.getManager(), network, tracer);
+
+        PipelineLoadGenerator.LoadReport report = new PipelineLoadGenerator(
+                config, transmissionService, offlineStore, server, tracer).run();
+
+        System.out.println(report);
+        writeReport(report);
+
+        assertTrue("No readings were submitted", report.submitted > 0);
+        assertTrue("Stand-in accepted no records", report.server.acceptedRecords > 0);
+        assertEquals("Offline backlog did not drain", 0, report.finalOfflineBacklog);
+        assertEquals("Client counted deliveries the stand-in never accepted", 0, report.unconfirmedDeliveries);
+    }
+
+    private boolean awaitProducerConnected(RealHealthDataKafkaProducer producer) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (producer.healthCheck().join()) return true;
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private void writeReport(PipelineLoadGenerator.LoadReport report) throws IOException {
+        File dir = new File("build/reports/loadtest");
+        if (!dir.exists() && !dir.mkdirs()) return;
+        try (Writer writer = new FileWriter(new File(dir, "pipeline-load-report.json"))) {
+            new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create()
+                    .toJson(report, writer);
+        }
+    }
+}
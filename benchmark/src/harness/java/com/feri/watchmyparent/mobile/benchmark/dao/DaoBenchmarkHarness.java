@@ -0,0 +1,695 @@
+package com.feri.watchmyparent.mobile.benchmark.dao;
+
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorHistoryQuery;
+import com.feri.watchmyparent.mobile.infrastructure.database.SensorChunkCodec;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.DateTimeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.SensorTypeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.TransmissionStatusConverter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Harness-ul de benchmark pentru DAO-urile Room (SensorDataDao, LocationDataDao, OfflineHealthDataDao), rulat pe
+// schema Room recreată în SQLite prin sqlite-jdbc, cu 1-10M rânduri sintetice per pacient. Măsoară fiecare query
+// (citind toate coloanele prin converter-e, ca în codul generat de Room) și fiecare tipar de scriere (insert
+// auto-commit vs lot într-o tranzacție, update / delete pe id, ștergerile din coada offline) și salvează planul
+// fiecărei instrucțiuni (EXPLAIN QUERY PLAN) într-un raport JSON per volum.
+//
+// Rulare: ./gradlew :benchmark:daoBenchmark -Pdao.rows=1000000,10000000
+public final class DaoBenchmarkHarness {
+
+    private static final int MIN_RUNS = 3;
+    private static final int MAX_RUNS = 50;
+    private static final int SINGLE_INSERTS_PER_RUN = 200;
+    private static final int BATCH_INSERTS_PER_RUN = 1000;
+    private static final int IDS_PER_BULK_OPERATION = 100;
+    private static final int MAX_RETRY_ATTEMPTS = 5;
+    private static final int HISTORY_PAGE_SIZE = 50;
+    private static final int ARCHIVE_DAYS = 30;
+
+    private final long rowsPerPatient;
+    private final int patients;
+    private final File workDir;
+    private final long timeBudgetNanos;
+    private final SyntheticDataLoader loader = new SyntheticDataLoader(42);
+    private final List<Result> results = new ArrayList<>();
+
+    private Connection app;
+    private Connection offline;
+    private String userId;
+    private long insertSequence = 0;
+
+    DaoBenchmarkHarness(long rowsPerPatient, int patients, File workDir, long timeBudgetMillis) {
+        this.rowsPerPatient = rowsPerPatient;
+        this.patients = patients;
+        this.workDir = workDir;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long[] rows = {1_000_000L};
+        int patients = 1;
+        long budgetMillis = 10_000;
+        File outDir = new File("build/reports/dao");
+        File workDir = new File(System.getProperty("java.io.tmpdir"));
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            switch (option[0]) {
+                case "--rows":
+                    String[] values = option[1].split(",");
+                    rows = new long[values.length];
+                    for (int i = 0; i < values.length; i++) rows[i] = Long.parseLong(values[i].trim());
+                    break;
+                case "--patients":
+                    patients = Integer.parseInt(option[1]);
+                    break;
+                case "--timeBudgetMs":
+                    budgetMillis = Long.parseLong(option[1]);
+                    break;
+                case "--out":
+                    outDir = new File(option[1]);
+                    break;
+                case "--workDir":
+                    workDir = new File(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        if (!outDir.isDirectory() && !outDir.mkdirs()) throw new IOException("Cannot create " + outDir);
+        for (long rowsPerPatient : rows) {
+            Report report = new DaoBenchmarkHarness(rowsPerPatient, patients, workDir, budgetMillis).run();
+            File file = new File(outDir, "dao-benchmark-" + rowsPerPatient + ".json");
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+                gson.toJson(report, writer);
+            }
+            System.out.println(report.format());
+            System.out.println("Report: " + file.getAbsolutePath());
+        }
+    }
+
+    Report run() throws SQLException, IOException {
+        File appFile = File.createTempFile("watchmyparent_app", ".db", workDir);
+        File offlineFile = File.createTempFile("offline_health_data", ".db", workDir);
+        try {
+            app = DriverManager.getConnection("jdbc:sqlite:" + appFile.getAbsolutePath());
+            offline = DriverManager.getConnection("jdbc:sqlite:" + offlineFile.getAbsolutePath());
+            RoomSchema.createAppDatabase(app);
+            RoomSchema.createOfflineDatabase(offline);
+
+            Report report = new Report();
+            report.rowsPerPatient = rowsPerPatient;
+            report.patients = patients;
+            report.sqliteVersion = scalar(app, "SELECT sqlite_version()");
+
+            long loadStart = System.nanoTime();
+            loader.loadUsers(app, patients);
+            for (int patient = 0; patient < patients; patient++) {
+                report.sensorRows += loader.loadSensorData(app, loader.userId(patient), rowsPerPatient);
+                report.locationRows += loader.loadLocationData(app, loader.userId(patient),
+                        Math.max(1, rowsPerPatient / 20));
+            }
+            long rollupRows = loader.loadSensorRollups(app);
+            System.out.println(String.format("Built %,d sensor rollups", rollupRows));
+            report.offlineRows = loader.loadOfflineData(offline, loader.userId(0),
+                    SyntheticDataLoader.MAX_OFFLINE_RECORDS);
+            try (Statement statement = app.createStatement()) {
+                statement.execute("ANALYZE");
+                statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+            report.loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+            report.databaseBytes = appFile.length();
+            System.out.println(String.format("Loaded %,d sensor rows, %,d location rows, %,d offline rows in %,d ms",
+                    report.sensorRows, report.locationRows, report.offlineRows, report.loadMillis));
+
+            userId = loader.userId(0);
+            measureSensorDataDao();
+            measureSensorArchive(report);
+            measureLocationDataDao();
+            measureOfflineHealthDataDao();
+
+            report.results = results;
+            return report;
+        } finally {
+            if (app != null) app.close();
+            if (offline != null) offline.close();
+            for (File file : new File[]{appFile, offlineFile}) {
+                for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                    new File(file.getAbsolutePath() + suffix).delete();
+                }
+            }
+        }
+    }
+
+    // ========== SensorDataDao ==========
+
+    private void measureSensorDataDao() throws SQLException {
+        String dao = "SensorDataDao";
+        query(dao, "getSensorDataByUserAndType", app,
+                "SELECT * FROM sensor_data WHERE userId = ? AND sensorType = ? ORDER BY timestamp DESC",
+                userId, SensorTypeConverter.fromSensorType(SensorType.HEART_RATE));
+        query(dao, "getSensorDataByTransmissionStatus", app,
+                "SELECT * FROM sensor_data WHERE transmissionStatus = ? ORDER BY timestamp ASC",
+                TransmissionStatusConverter.fromTransmissionStatus(TransmissionStatus.PENDING));
+        query(dao, "getAllSensorDataByUser", app,
+                "SELECT * FROM sensor_data WHERE userId = ? ORDER BY timestamp DESC", userId);
+        query(dao, "getLatestSensorDataByUser", app,
+                "SELECT * FROM sensor_data WHERE userId = ? GROUP BY sensorType ORDER BY timestamp DESC", userId);
+        // Room expandează parametrul vararg într-o listă IN (?,?)
+        query(dao, "getPendingTransmissions", app,
+                "SELECT * FROM sensor_data WHERE transmissionStatus IN (?,?) ORDER BY timestamp ASC LIMIT ?",
+                TransmissionStatusConverter.fromTransmissionStatus(TransmissionStatus.PENDING),
+                TransmissionStatusConverter.fromTransmissionStatus(TransmissionStatus.FAILED), 200);
+        query(dao, "getSensorDataByUserWithLimit", app,
+                "SELECT * FROM sensor_data WHERE userId = ? ORDER BY timestamp DESC LIMIT ?", userId, 100);
+
+        // Istoricul paginat keyset: prima pagină și o pagină din mijlocul istoricului costă la fel;
+        // OFFSET-ul echivalent (aceeași pagină) e măsurat doar pentru comparație
+        String earliest = DateTimeConverter.dateTimeToTimestamp(SensorHistoryQuery.EARLIEST);
+        String latest = DateTimeConverter.dateTimeToTimestamp(SensorHistoryQuery.LATEST);
+        String pageOlder = "SELECT * FROM sensor_data WHERE userId = ? AND timestamp >= ? "
+                + "AND timestamp <= ? AND (timestamp < ? OR idSensorData < ?) "
+                + "ORDER BY timestamp DESC, idSensorData DESC LIMIT ?";
+        String pageOlderByType = "SELECT * FROM sensor_data WHERE userId = ? AND sensorType = ? AND timestamp >= ? "
+                + "AND timestamp <= ? AND (timestamp < ? OR idSensorData < ?) "
+                + "ORDER BY timestamp DESC, idSensorData DESC LIMIT ?";
+        String pageNewer = "SELECT * FROM sensor_data WHERE userId = ? AND timestamp < ? "
+                + "AND timestamp >= ? AND (timestamp > ? OR idSensorData > ?) "
+                + "ORDER BY timestamp ASC, idSensorData ASC LIMIT ?";
+        query(dao, "getSensorDataPageOlder (first page)", app, pageOlder,
+                userId, earliest, latest, latest, "", HISTORY_PAGE_SIZE);
+        long middle = rowsPerPatient / 2;
+        String[] key = historyKeyAt(middle);
+        if (key != null) {
+            query(dao, "getSensorDataPageOlder (row " + middle + ")", app, pageOlder,
+                    userId, earliest, key[0], key[0], key[1], HISTORY_PAGE_SIZE);
+            query(dao, "getSensorDataPageNewer (row " + middle + ")", app, pageNewer,
+                    userId, latest, key[0], key[0], key[1], HISTORY_PAGE_SIZE);
+            query(dao, "OFFSET pagination (row " + middle + ", comparison)", app,
+                    "SELECT * FROM sensor_data WHERE userId = ? ORDER BY timestamp DESC, idSensorData DESC "
+                            + "LIMIT ? OFFSET ?", userId, HISTORY_PAGE_SIZE, middle);
+        }
+        query(dao, "getSensorDataPageOlderByType (first page)", app, pageOlderByType,
+                userId, SensorTypeConverter.fromSensorType(SensorType.HEART_RATE), earliest, latest, latest, "",
+                HISTORY_PAGE_SIZE);
+
+        // Seriile pentru grafice (findSeries): 6 h din citirile brute, 30 de zile din rollup-uri; query-ul brut pe
+        // 30 de zile e măsurat doar pentru comparație (ce ar citi graficul fără rollup-uri)
+        String heartRate = SensorTypeConverter.fromSensorType(SensorType.HEART_RATE);
+        String end = DateTimeConverter.dateTimeToTimestamp(SyntheticDataLoader.END);
+        String sixHours = DateTimeConverter.dateTimeToTimestamp(SyntheticDataLoader.END.minusHours(6));
+        String thirtyDays = DateTimeConverter.dateTimeToTimestamp(SyntheticDataLoader.END.minusDays(30));
+        String rawSeries = "SELECT CAST(strftime('%s', timestamp) AS INTEGER) AS epochSecond, value FROM sensor_data "
+                + "WHERE userId = ? AND sensorType = ? AND timestamp >= ? AND timestamp < ? ORDER BY timestamp ASC";
+        query(dao, "getSensorDataSeries (6 h)", app, rawSeries, userId, heartRate, sixHours, end);
+        query(dao, "getSensorDataSeries (30 d, comparison)", app, rawSeries, userId, heartRate, thirtyDays, end);
+        query("SensorRollupDao", "getRollupSeries (30 d)", app,
+                "SELECT CAST(strftime('%s', bucketStart) AS INTEGER) AS epochSecond, minValue, maxValue "
+                        + "FROM sensor_rollup WHERE userId = ? AND sensorType = ? "
+                        + "AND bucketStart >= ? AND bucketStart < ? ORDER BY bucketStart ASC",
+                userId, heartRate, thirtyDays, end);
+
+        // @Insert(onConflict = REPLACE): o tranzacție per apel (SensorDataRepositoryImpl.save)
+        write(dao, "insertSensorData (auto-commit)", app, SyntheticDataLoader.INSERT_SENSOR_DATA,
+                SINGLE_INSERTS_PER_RUN, () -> {
+                    try (PreparedStatement insert = app.prepareStatement(SyntheticDataLoader.INSERT_SENSOR_DATA)) {
+                        for (int i = 0; i < SINGLE_INSERTS_PER_RUN; i++) {
+                            bindNewSensorRow(insert);
+                            insert.executeUpdate();
+                        }
+                    }
+                    return SINGLE_INSERTS_PER_RUN;
+                });
+        write(dao, "insertSensorData (batch transaction)", app, SyntheticDataLoader.INSERT_SENSOR_DATA,
+                BATCH_INSERTS_PER_RUN, () -> inTransaction(app, true, () -> {
+                    try (PreparedStatement insert = app.prepareStatement(SyntheticDataLoader.INSERT_SENSOR_DATA)) {
+                        for (int i = 0; i < BATCH_INSERTS_PER_RUN; i++) {
+                            bindNewSensorRow(insert);
+                            insert.executeUpdate();
+                        }
+                    }
+                    return BATCH_INSERTS_PER_RUN;
+                }));
+
+        List<String> ids = loader.sampleIds(app, "sensor_data", "idSensorData", MAX_RUNS * 2 + 2);
+        // @Update: toate coloanele, după cheia primară
+        String update = "UPDATE OR ABORT `sensor_data` SET `idSensorData` = ?,`userId` = ?,`sensorType` = ?,"
+                + "`value` = ?,`unit` = ?,`timestamp` = ?,`transmissionStatus` = ?,`transmissionTime` = ?,"
+                + "`deviceId` = ?,`metadata` = ? WHERE `idSensorData` = ?";
+        int[] cursor = {0};
+        write(dao, "updateSensorData", app, update, 1, () -> {
+            String id = ids.get(cursor[0]++ % ids.size());
+            try (PreparedStatement statement = app.prepareStatement(update)) {
+                loader.bindSensorData(statement, id, userId, SensorType.HEART_RATE, SyntheticDataLoader.END, 0);
+                statement.setString(11, id);
+                return statement.executeUpdate();
+            }
+        }, ids.get(0));
+        String delete = "DELETE FROM sensor_data WHERE idSensorData = ?";
+        write(dao, "deleteSensorDataById", app, delete, 1, () -> {
+            try (PreparedStatement statement = app.prepareStatement(delete)) {
+                statement.setString(1, ids.get(ids.size() - 1 - (cursor[0]++ % ids.size())));
+                return statement.executeUpdate();
+            }
+        }, ids.get(1));
+    }
+
+    // Cheia (timestamp, id) a rândului de pe poziția dată în istoricul pacientului - punctul de start al paginii
+    private String[] historyKeyAt(long position) throws SQLException {
+        try (PreparedStatement statement = app.prepareStatement("SELECT timestamp, idSensorData FROM sensor_data "
+                + "WHERE userId = ? ORDER BY timestamp DESC, idSensorData DESC LIMIT 1 OFFSET ?")) {
+            statement.setString(1, userId);
+            statement.setLong(2, position);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new String[]{rs.getString(1), rs.getString(2)} : null;
+            }
+        }
+    }
+
+    // ========== SensorArchiveDao ==========
+
+    // Ultimele 30 de zile de HEART_RATE ale pacientului sigilate în chunk-uri (ca SensorArchive, dar fără să
+    // șteargă rândurile), apoi: octeți per punct în rânduri vs chunk-uri și scanarea celor 30 de zile din
+    // sensor_data vs decodarea chunk-urilor
+    private void measureSensorArchive(Report report) throws SQLException {
+        String dao = "SensorArchiveDao";
+        String heartRate = SensorTypeConverter.fromSensorType(SensorType.HEART_RATE);
+        LocalDateTime end = SyntheticDataLoader.END.truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = end.minusDays(ARCHIVE_DAYS);
+        String fromText = DateTimeConverter.dateTimeToTimestamp(from);
+        String endText = DateTimeConverter.dateTimeToTimestamp(end);
+
+        long sealStart = System.nanoTime();
+        for (LocalDateTime block = from; block.isBefore(end); block = block.plusDays(1)) {
+            sealArchiveBlock(heartRate, block);
+        }
+        long sealMillis = (System.nanoTime() - sealStart) / 1_000_000;
+
+        // Octeții de date ai rândurilor (textele ASCII, value ca REAL), fără antetul înregistrării și indexuri
+        try (PreparedStatement statement = app.prepareStatement("SELECT COUNT(*), SUM(8 + "
+                + "IFNULL(LENGTH(idSensorData), 0) + IFNULL(LENGTH(userId), 0) + IFNULL(LENGTH(sensorType), 0) + "
+                + "IFNULL(LENGTH(unit), 0) + IFNULL(LENGTH(timestamp), 0) + IFNULL(LENGTH(transmissionStatus), 0) + "
+                + "IFNULL(LENGTH(transmissionTime), 0) + IFNULL(LENGTH(deviceId), 0) + IFNULL(LENGTH(metadata), 0)) "
+                + "FROM sensor_data WHERE userId = ? AND sensorType = ? AND timestamp >= ? AND timestamp < ?")) {
+            bind(statement, userId, heartRate, fromText, endText);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                report.archivePoints = rs.getLong(1);
+                report.archiveRowBytesPerPoint = report.archivePoints == 0 ? 0 : rs.getDouble(2) / report.archivePoints;
+            }
+        }
+        try (PreparedStatement statement = app.prepareStatement(
+                "SELECT SUM(LENGTH(data)) FROM sensor_archive_chunk WHERE userId = ? AND sensorType = ?")) {
+            bind(statement, userId, heartRate);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                report.archiveChunkBytesPerPoint = report.archivePoints == 0 ? 0
+                        : rs.getDouble(1) / report.archivePoints;
+            }
+        }
+        System.out.println(String.format("Sealed %,d HEART_RATE points (%d days) in %,d ms: "
+                        + "%.1f bytes/point as rows, %.2f bytes/point in chunks",
+                report.archivePoints, ARCHIVE_DAYS, sealMillis, report.archiveRowBytesPerPoint,
+                report.archiveChunkBytesPerPoint));
+
+        String chunkData = "SELECT data FROM sensor_archive_chunk WHERE userId = ? AND sensorType = ? "
+                + "AND blockStart < ? AND lastTimestamp >= ? AND maxValue >= ? AND minValue <= ? ORDER BY blockStart ASC";
+        Object[] params = {userId, heartRate, endText, fromText, -Double.MAX_VALUE, Double.MAX_VALUE};
+        long fromMillis = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long endMillis = end.toInstant(ZoneOffset.UTC).toEpochMilli();
+        double[] sum = new double[1];
+        Result result = measure(dao, "getChunkData + decode (" + ARCHIVE_DAYS + " d)", "query", chunkData, 1, () -> {
+            int points = 0;
+            try (PreparedStatement statement = app.prepareStatement(chunkData)) {
+                bind(statement, params);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        points += SensorChunkCodec.decode(rs.getBytes(1), fromMillis, endMillis,
+                                (millis, value, unit, deviceId) -> sum[0] += value);
+                    }
+                }
+            }
+            return points;
+        });
+        result.plan = explain(app, chunkData, params);
+        record(result);
+        query("SensorDataDao", "getSensorDataSeries (archived days, comparison)", app,
+                "SELECT CAST(strftime('%s', timestamp) AS INTEGER) AS epochSecond, value FROM sensor_data "
+                        + "WHERE userId = ? AND sensorType = ? AND timestamp >= ? AND timestamp < ? "
+                        + "ORDER BY timestamp ASC", userId, heartRate, fromText, endText);
+    }
+
+    private void sealArchiveBlock(String sensorType, LocalDateTime blockStart) throws SQLException {
+        SensorChunkCodec.Builder builder = new SensorChunkCodec.Builder();
+        try (PreparedStatement statement = app.prepareStatement("SELECT timestamp, value, unit, deviceId "
+                + "FROM sensor_data WHERE userId = ? AND sensorType = ? AND timestamp >= ? AND timestamp < ? "
+                + "ORDER BY timestamp ASC")) {
+            bind(statement, userId, sensorType, DateTimeConverter.dateTimeToTimestamp(blockStart),
+                    DateTimeConverter.dateTimeToTimestamp(blockStart.plusDays(1)));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    LocalDateTime timestamp = DateTimeConverter.fromTimestamp(rs.getString(1));
+                    builder.add(timestamp.toInstant(ZoneOffset.UTC).toEpochMilli(), rs.getDouble(2),
+                            rs.getString(3), rs.getString(4));
+                }
+            }
+        }
+        if (builder.size() == 0) return;
+        byte[] data = builder.encode();
+        SensorChunkCodec.Footer footer = SensorChunkCodec.Footer.read(data);
+        try (PreparedStatement insert = app.prepareStatement("INSERT OR REPLACE INTO `sensor_archive_chunk` "
+                + "(`userId`,`sensorType`,`blockStart`,`firstTimestamp`,`lastTimestamp`,`pointCount`,`minValue`,"
+                + "`maxValue`,`data`) VALUES (?,?,?,?,?,?,?,?,?)")) {
+            bind(insert, userId, sensorType, DateTimeConverter.dateTimeToTimestamp(blockStart),
+                    DateTimeConverter.dateTimeToTimestamp(
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(footer.firstMillis), ZoneOffset.UTC)),
+                    DateTimeConverter.dateTimeToTimestamp(
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(footer.lastMillis), ZoneOffset.UTC)),
+                    footer.count, footer.minValue, footer.maxValue);
+            insert.setBytes(9, data);
+            insert.executeUpdate();
+        }
+    }
+
+    // ========== LocationDataDao ==========
+
+    private void measureLocationDataDao() throws SQLException {
+        String dao = "LocationDataDao";
+        query(dao, "getLocationDataByUser", app,
+                "SELECT * FROM location_data WHERE userId = ? ORDER BY updatedAt DESC LIMIT 1", userId);
+        write(dao, "insertLocationData (auto-commit)", app, SyntheticDataLoader.INSERT_LOCATION_DATA,
+                SINGLE_INSERTS_PER_RUN, () -> {
+                    try (PreparedStatement insert = app.prepareStatement(SyntheticDataLoader.INSERT_LOCATION_DATA)) {
+                        for (int i = 0; i < SINGLE_INSERTS_PER_RUN; i++) {
+                            loader.bindLocationData(insert, loader.randomId(), userId,
+                                    SyntheticDataLoader.END.plusSeconds(++insertSequence));
+                            insert.executeUpdate();
+                        }
+                    }
+                    return SINGLE_INSERTS_PER_RUN;
+                });
+        List<String> ids = loader.sampleIds(app, "location_data", "idLocationData", MAX_RUNS + 1);
+        String delete = "DELETE FROM location_data WHERE idLocationData = ?";
+        int[] cursor = {0};
+        write(dao, "deleteLocationDataById", app, delete, 1, () -> {
+            try (PreparedStatement statement = app.prepareStatement(delete)) {
+                statement.setString(1, ids.get(cursor[0]++ % ids.size()));
+                return statement.executeUpdate();
+            }
+        }, ids.get(0));
+    }
+
+    // ========== OfflineHealthDataDao ==========
+
+    private void measureOfflineHealthDataDao() throws SQLException {
+        String dao = "OfflineHealthDataDao";
+        query(dao, "getAllOfflineData", offline, "SELECT * FROM offline_health_data ORDER BY createdAt ASC");
+        query(dao, "getOfflineCount", offline, "SELECT COUNT(*) FROM offline_health_data");
+        query(dao, "getPendingCount", offline, "SELECT COUNT(*) FROM offline_health_data WHERE retryCount = 0");
+        query(dao, "getFailedCount", offline,
+                "SELECT COUNT(*) FROM offline_health_data WHERE retryCount >= ?", MAX_RETRY_ATTEMPTS);
+        query(dao, "getOldestRecordTime", offline, "SELECT MIN(createdAt) FROM offline_health_data");
+
+        // Ștergerile și actualizările în masă rulează într-o tranzacție anulată, ca fiecare rulare să vadă
+        // aceeași coadă (costul commit-ului e acoperit de tiparele de insert)
+        List<String> ids = loader.sampleIds(offline, "offline_health_data", "id", IDS_PER_BULK_OPERATION);
+        String idList = "(" + String.join(",", ids) + ")";
+        String deleteByIds = "DELETE FROM offline_health_data WHERE id IN " + idList;
+        write(dao, "deleteOfflineDataByIds (100 ids, rolled back)", offline, deleteByIds, 1,
+                () -> inTransaction(offline, false, () -> update(offline, deleteByIds)));
+        String increment = "UPDATE offline_health_data SET retryCount = retryCount + 1 WHERE id IN " + idList;
+        write(dao, "incrementRetryCount (100 ids, rolled back)", offline, increment, 1,
+                () -> inTransaction(offline, false, () -> update(offline, increment)));
+        String deleteFailed = "DELETE FROM offline_health_data WHERE retryCount >= " + MAX_RETRY_ATTEMPTS;
+        write(dao, "deleteFailedRecords (rolled back)", offline, deleteFailed, 1,
+                () -> inTransaction(offline, false, () -> update(offline, deleteFailed)));
+        String deleteOldest = "DELETE FROM offline_health_data WHERE id IN "
+                + "(SELECT id FROM offline_health_data ORDER BY createdAt ASC LIMIT 1000)";
+        write(dao, "deleteOldestRecords(1000) (rolled back)", offline, deleteOldest, 1,
+                () -> inTransaction(offline, false, () -> update(offline, deleteOldest)));
+
+        // storeOfflineData: getOfflineCount + insert, fiecare auto-commit
+        write(dao, "insertOfflineData (auto-commit, with count check)", offline, SyntheticDataLoader.INSERT_OFFLINE,
+                SINGLE_INSERTS_PER_RUN, () -> {
+                    try (PreparedStatement insert = offline.prepareStatement(SyntheticDataLoader.INSERT_OFFLINE)) {
+                        for (int i = 0; i < SINGLE_INSERTS_PER_RUN; i++) {
+                            scalar(offline, "SELECT COUNT(*) FROM offline_health_data");
+                            loader.bindOfflineData(insert, userId,
+                                    SyntheticDataLoader.END.plusSeconds(++insertSequence), 0);
+                            insert.executeUpdate();
+                        }
+                    }
+                    return SINGLE_INSERTS_PER_RUN;
+                });
+        write(dao, "insertOfflineData (batch transaction)", offline, SyntheticDataLoader.INSERT_OFFLINE,
+                BATCH_INSERTS_PER_RUN, () -> inTransaction(offline, true, () -> {
+                    try (PreparedStatement insert = offline.prepareStatement(SyntheticDataLoader.INSERT_OFFLINE)) {
+                        for (int i = 0; i < BATCH_INSERTS_PER_RUN; i++) {
+                            loader.bindOfflineData(insert, userId,
+                                    SyntheticDataLoader.END.plusSeconds(++insertSequence), 0);
+                            insert.executeUpdate();
+                        }
+                    }
+                    return BATCH_INSERTS_PER_RUN;
+                }));
+    }
+
+    // ========== Măsurare ==========
+
+    private void query(String dao, String name, Connection connection, String sql, Object... params)
+            throws SQLException {
+        Result result = measure(dao, name, "query", sql, 1, () -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                bind(statement, params);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return readAll(rs);
+                }
+            }
+        });
+        result.plan = explain(connection, sql, params);
+        record(result);
+    }
+
+    private void write(String dao, String name, Connection connection, String sql, int rowsPerRun,
+                       Operation operation, Object... planParams) throws SQLException {
+        Result result = measure(dao, name, "write", sql, rowsPerRun, operation);
+        result.plan = explain(connection, sql, planParams);
+        record(result);
+    }
+
+    private Result measure(String dao, String name, String kind, String sql, int rowsPerRun, Operation operation)
+            throws SQLException {
+        operation.run(); // încălzire (cache-ul de pagini, statement-urile compilate)
+        List<Long> durations = new ArrayList<>();
+        int rows = 0;
+        long started = System.nanoTime();
+        while (durations.size() < MAX_RUNS
+                && (durations.size() < MIN_RUNS || System.nanoTime() - started < timeBudgetNanos)) {
+            long start = System.nanoTime();
+            rows = operation.run();
+            durations.add(System.nanoTime() - start);
+        }
+        long[] sorted = new long[durations.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = durations.get(i);
+        Arrays.sort(sorted);
+
+        Result result = new Result();
+        result.dao = dao;
+        result.name = name;
+        result.kind = kind;
+        result.sql = sql;
+        result.rows = rows;
+        result.runs = sorted.length;
+        result.minMillis = sorted[0] / 1e6;
+        result.medianMillis = sorted[sorted.length / 2] / 1e6;
+        result.p95Millis = sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)] / 1e6;
+        result.maxMillis = sorted[sorted.length - 1] / 1e6;
+        result.microsPerRow = rowsPerRun > 1 ? result.medianMillis * 1000 / rowsPerRun : 0;
+        return result;
+    }
+
+    private void record(Result result) {
+        results.add(result);
+        System.out.println(result);
+    }
+
+    // Citește fiecare rând complet, cu converter-ele Room (fără să păstreze lista - la 10M rânduri nu încape)
+    private static int readAll(ResultSet rs) throws SQLException {
+        int columns = rs.getMetaData().getColumnCount();
+        String[] names = new String[columns + 1];
+        for (int i = 1; i <= columns; i++) names[i] = rs.getMetaData().getColumnName(i);
+        int count = 0;
+        Object sink = null;
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                sink = convert(names[i], rs, i);
+            }
+            count++;
+        }
+        if (sink == Boolean.FALSE) System.out.print(""); // păstrează conversiile observabile
+        return count;
+    }
+
+    private static Object convert(String column, ResultSet rs, int index) throws SQLException {
+        switch (column) {
+            case "timestamp":
+            case "transmissionTime":
+            case "createdAt":
+            case "updatedAt":
+                return DateTimeConverter.fromTimestamp(rs.getString(index));
+            case "sensorType":
+                return SensorTypeConverter.fromString(rs.getString(index));
+            case "transmissionStatus":
+                return TransmissionStatusConverter.fromString(rs.getString(index));
+            case "value":
+            case "latitude":
+            case "longitude":
+            case "homeLatitude":
+            case "homeLongitude":
+            case "radiusMeters":
+                return rs.getDouble(index);
+            case "id":
+            case "retryCount":
+                return rs.getLong(index);
+            default:
+                return rs.getString(index);
+        }
+    }
+
+    private static List<String> explain(Connection connection, String sql, Object... params) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) plan.add(rs.getString("detail"));
+            }
+        } catch (SQLException e) {
+            // Parametrii lipsă (ex. INSERT) - planul nu e relevant
+            plan.add("n/a: " + e.getMessage());
+        }
+        return plan;
+    }
+
+    private static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+
+    private void bindNewSensorRow(PreparedStatement insert) throws SQLException {
+        loader.bindSensorData(insert, loader.randomId(), userId, SensorType.HEART_RATE,
+                SyntheticDataLoader.END.plusSeconds(++insertSequence), insertSequence);
+    }
+
+    private static int update(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+
+    private static int inTransaction(Connection connection, boolean commit, Operation operation) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            int rows = operation.run();
+            if (commit) {
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+            return rows;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String scalar(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    interface Operation {
+        int run() throws SQLException;
+    }
+
+    // ========== Raport ==========
+
+    static class Report {
+        public String generatedAt = LocalDateTime.now().toString();
+        public String sqliteVersion;
+        public long rowsPerPatient;
+        public int patients;
+        public long sensorRows;
+        public long locationRows;
+        public long offlineRows;
+        public long loadMillis;
+        public long databaseBytes;
+        public long archivePoints;
+        public double archiveRowBytesPerPoint;
+        public double archiveChunkBytesPerPoint;
+        public List<Result> results;
+
+        String format() {
+            StringBuilder text = new StringBuilder(String.format(
+                    "DAO benchmark: %,d rows/patient x %d patients, SQLite %s, database %.1f MB, load %,d ms%n",
+                    rowsPerPatient, patients, sqliteVersion, databaseBytes / 1048576.0, loadMillis));
+            text.append(String.format("  Archive: %,d points, %.1f bytes/point as rows, %.2f bytes/point in chunks%n",
+                    archivePoints, archiveRowBytesPerPoint, archiveChunkBytesPerPoint));
+            for (Result result : results) {
+                text.append("  ").append(result).append('\n');
+                for (String step : result.plan) {
+                    text.append("      ").append(step).append('\n');
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    static class Result {
+        public String dao;
+        public String name;
+        public String kind;
+        public String sql;
+        public int rows;
+        public int runs;
+        public double minMillis;
+        public double medianMillis;
+        public double p95Millis;
+        public double maxMillis;
+        public double microsPerRow;
+        public List<String> plan;
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %-50s rows=%-9d median=%9.3fms p95=%9.3fms%s", dao, name, rows,
+                    medianMillis, p95Millis, microsPerRow > 0 ? String.format(" (%.1f us/row)", microsPerRow) : "");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.feri.watchmyparent.mobile.benchmark.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Schema Room a entităților măsurate (aceleași coloane, afinități, constrângeri și indexuri ca DDL-ul generat),
+// plus configurarea conexiunii de pe Android: WAL, synchronous=NORMAL, foreign_keys=ON (Room îl activează
+// pentru entitățile cu @ForeignKey). Formatele coloanelor sunt cele ale converter-elor: LocalDateTime ca text
+// ISO_LOCAL_DATE_TIME, enum-urile ca text (SensorType.getCode(), TransmissionStatus.name()).
+// La orice schimbare în entities/ sau în DAO-uri, DDL-ul de aici trebuie actualizat.
+final class RoomSchema {
+
+    // AppDatabase: UserEntity (cu AddressUser @Embedded)
+    static final String USERS = "CREATE TABLE IF NOT EXISTS `users` (`idUser` TEXT NOT NULL, "
+            + "`firstNameUser` TEXT, `lastNameUser` TEXT, `dateOfBirthUser` TEXT, `userType` TEXT, "
+            + "`phoneNumberUser` TEXT, `emailUser` TEXT, `password` TEXT, `resetPasswordToken` TEXT, "
+            + "`resetPasswordTokenExpiry` TEXT, `accountNonExpired` INTEGER NOT NULL, "
+            + "`accountNonLocked` INTEGER NOT NULL, `credentialsNonExpired` INTEGER NOT NULL, "
+            + "`enabled` INTEGER NOT NULL, `createdAt` TEXT, `updatedAt` TEXT, `cityUser` TEXT, "
+            + "`villageUser` TEXT, `streetUser` TEXT, `numberUser` TEXT, `buildingUser` TEXT, "
+            + "`staircaseUser` TEXT, `floorUser` TEXT, `apartmentUser` TEXT, `postalCodeUser` TEXT, "
+            + "`countyUser` TEXT, `stateUser` TEXT, `countryUser` TEXT, `nearestAmbulanceCityUser` TEXT, "
+            + "PRIMARY KEY(`idUser`))";
+
+    // AppDatabase: SensorDataEntity
+    static final String SENSOR_DATA = "CREATE TABLE IF NOT EXISTS `sensor_data` (`idSensorData` TEXT NOT NULL, "
+            + "`userId` TEXT, `sensorType` TEXT, `value` REAL NOT NULL, `unit` TEXT, `timestamp` TEXT, "
+            + "`transmissionStatus` TEXT, `transmissionTime` TEXT, `deviceId` TEXT, `metadata` TEXT, "
+            + "PRIMARY KEY(`idSensorData`), FOREIGN KEY(`userId`) REFERENCES `users`(`idUser`) "
+            + "ON UPDATE NO ACTION ON DELETE CASCADE )";
+    static final String SENSOR_DATA_INDEX_USER_TYPE_TIME = "CREATE INDEX IF NOT EXISTS "
+            + "`index_sensor_data_userId_sensorType_timestamp_idSensorData` ON `sensor_data` "
+            + "(`userId`, `sensorType`, `timestamp`, `idSensorData`)";
+    static final String SENSOR_DATA_INDEX_USER_TIME = "CREATE INDEX IF NOT EXISTS "
+            + "`index_sensor_data_userId_timestamp_idSensorData` ON `sensor_data` (`userId`, `timestamp`, `idSensorData`)";
+    static final String SENSOR_DATA_INDEX_STATUS = "CREATE INDEX IF NOT EXISTS "
+            + "`index_sensor_data_transmissionStatus` ON `sensor_data` (`transmissionStatus`)";
+
+    // AppDatabase: SensorRollupEntity (cheia primară începe cu userId - acoperă și foreign key-ul)
+    static final String SENSOR_ROLLUP = "CREATE TABLE IF NOT EXISTS `sensor_rollup` (`userId` TEXT NOT NULL, "
+            + "`sensorType` TEXT NOT NULL, `bucketStart` TEXT NOT NULL, `minValue` REAL NOT NULL, "
+            + "`maxValue` REAL NOT NULL, `sumValue` REAL NOT NULL, `sampleCount` INTEGER NOT NULL, "
+            + "PRIMARY KEY(`userId`, `sensorType`, `bucketStart`), FOREIGN KEY(`userId`) REFERENCES "
+            + "`users`(`idUser`) ON UPDATE NO ACTION ON DELETE CASCADE )";
+
+    // AppDatabase: SensorArchiveChunkEntity (footer-ul duplicat în coloane, blob-ul la final)
+    static final String SENSOR_ARCHIVE_CHUNK = "CREATE TABLE IF NOT EXISTS `sensor_archive_chunk` ("
+            + "`userId` TEXT NOT NULL, `sensorType` TEXT NOT NULL, `blockStart` TEXT NOT NULL, "
+            + "`firstTimestamp` TEXT, `lastTimestamp` TEXT, `pointCount` INTEGER NOT NULL, "
+            + "`minValue` REAL NOT NULL, `maxValue` REAL NOT NULL, `data` BLOB, "
+            + "PRIMARY KEY(`userId`, `sensorType`, `blockStart`), FOREIGN KEY(`userId`) REFERENCES "
+            + "`users`(`idUser`) ON UPDATE NO ACTION ON DELETE CASCADE )";
+
+    // AppDatabase: LocationDataEntity (cu LocationStatus @Embedded)
+    static final String LOCATION_DATA = "CREATE TABLE IF NOT EXISTS `location_data` ("
+            + "`idLocationData` TEXT NOT NULL, `userId` TEXT, `homeLatitude` REAL NOT NULL, "
+            + "`homeLongitude` REAL NOT NULL, `radiusMeters` REAL NOT NULL, `deviceId` TEXT, `createdAt` TEXT, "
+            + "`updatedAt` TEXT, `status` TEXT, `latitude` REAL, `longitude` REAL, `address` TEXT, "
+            + "`timestamp` TEXT, PRIMARY KEY(`idLocationData`), FOREIGN KEY(`userId`) REFERENCES "
+            + "`users`(`idUser`) ON UPDATE NO ACTION ON DELETE CASCADE )";
+    static final String LOCATION_DATA_INDEX_USER = "CREATE INDEX IF NOT EXISTS `index_location_data_userId` "
+            + "ON `location_data` (`userId`)";
+
+    // Baza separată offline_health_data (OfflineDataManager.OfflineHealthData)
+    static final String OFFLINE_HEALTH_DATA = "CREATE TABLE IF NOT EXISTS `offline_health_data` ("
+            + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userId` TEXT, `sensorType` TEXT, "
+            + "`value` REAL NOT NULL, `unit` TEXT, `timestamp` TEXT, `deviceId` TEXT, "
+            + "`retryCount` INTEGER NOT NULL, `createdAt` TEXT, `sensorDataId` TEXT)";
+
+    private RoomSchema() {
+    }
+
+    static void configure(Connection connection, boolean foreignKeys) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA foreign_keys=" + (foreignKeys ? "ON" : "OFF"));
+        }
+    }
+
+    static void createAppDatabase(Connection connection) throws SQLException {
+        configure(connection, true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(USERS);
+            statement.execute(SENSOR_DATA);
+            statement.execute(SENSOR_DATA_INDEX_USER_TYPE_TIME);
+            statement.execute(SENSOR_DATA_INDEX_USER_TIME);
+            statement.execute(SENSOR_DATA_INDEX_STATUS);
+            statement.execute(SENSOR_ROLLUP);
+            statement.execute(SENSOR_ARCHIVE_CHUNK);
+            statement.execute(LOCATION_DATA);
+            statement.execute(LOCATION_DATA_INDEX_USER);
+        }
+    }
+
+    static void createOfflineDatabase(Connection connection) throws SQLException {
+        configure(connection, false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(OFFLINE_HEALTH_DATA);
+        }
+    }
+}
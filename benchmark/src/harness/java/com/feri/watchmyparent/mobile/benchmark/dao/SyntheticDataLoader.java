@@ -0,0 +1,227 @@
+package com.feri.watchmyparent.mobile.benchmark.dao;
+
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.enums.TransmissionStatus;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.DateTimeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.SensorTypeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.TransmissionStatusConverter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Încarcă date sintetice deterministe cu cadența reală a colectării (CRITICAL la 30 s, IMPORTANT la 2 min,
+// REGULAR la 5 min, LONG_TERM la 15 min), mergând înapoi în timp de la END până se ating rândurile cerute per
+// pacient. Statusurile de transmisie sunt ~97% TRANSMITTED, restul PENDING / FAILED / QUEUED.
+final class SyntheticDataLoader {
+
+    static final LocalDateTime END = LocalDateTime.of(2025, 6, 1, 12, 0);
+    static final int MAX_OFFLINE_RECORDS = 10000;
+
+    private static final int BATCH = 50_000;
+    private static final int TICK_SECONDS = 30;
+
+    static final String INSERT_SENSOR_DATA = "INSERT OR REPLACE INTO `sensor_data` (`idSensorData`,`userId`,"
+            + "`sensorType`,`value`,`unit`,`timestamp`,`transmissionStatus`,`transmissionTime`,`deviceId`,"
+            + "`metadata`) VALUES (?,?,?,?,?,?,?,?,?,?)";
+    static final String INSERT_LOCATION_DATA = "INSERT OR REPLACE INTO `location_data` (`idLocationData`,"
+            + "`userId`,`homeLatitude`,`homeLongitude`,`radiusMeters`,`deviceId`,`createdAt`,`updatedAt`,`status`,"
+            + "`latitude`,`longitude`,`address`,`timestamp`) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?)";
+    static final String INSERT_OFFLINE = "INSERT OR ABORT INTO `offline_health_data` (`id`,`userId`,`sensorType`,"
+            + "`value`,`unit`,`timestamp`,`deviceId`,`retryCount`,`createdAt`) VALUES (nullif(?, 0),?,?,?,?,?,?,?,?)";
+    private static final String INSERT_USER = "INSERT OR REPLACE INTO `users` (`idUser`,`firstNameUser`,"
+            + "`lastNameUser`,`userType`,`emailUser`,`accountNonExpired`,`accountNonLocked`,"
+            + "`credentialsNonExpired`,`enabled`,`createdAt`,`updatedAt`,`cityUser`,`countryUser`) "
+            + "VALUES (?,?,?,?,?,1,1,1,1,?,?,?,?)";
+
+    private final Random random;
+
+    SyntheticDataLoader(long seed) {
+        this.random = new Random(seed);
+    }
+
+    String userId(int patient) {
+        return new UUID(0x5eed_0000_0000_0000L + patient, 0x1234_5678_9abcL + patient).toString();
+    }
+
+    String randomId() {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    // Rollup-urile de 5 minute pentru toate citirile încărcate, într-un singur INSERT ... SELECT. bucketStart are
+    // formatul DateTimeConverter pentru un minut fix ("yyyy-MM-ddTHH:mm"), ca în SensorRollupDao
+    static final String BUILD_SENSOR_ROLLUPS = "INSERT OR REPLACE INTO `sensor_rollup` (`userId`,`sensorType`,"
+            + "`bucketStart`,`minValue`,`maxValue`,`sumValue`,`sampleCount`) SELECT userId, sensorType, "
+            + "substr(timestamp, 1, 14) || printf('%02d', CAST(substr(timestamp, 15, 2) AS INTEGER) / 5 * 5) AS bucket, "
+            + "MIN(value), MAX(value), SUM(value), COUNT(*) FROM sensor_data GROUP BY userId, sensorType, bucket";
+
+    long loadSensorRollups(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(BUILD_SENSOR_ROLLUPS);
+        }
+    }
+
+    void loadUsers(Connection connection, int patients) throws SQLException {
+        String now = DateTimeConverter.dateTimeToTimestamp(END);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_USER)) {
+            for (int patient = 0; patient < patients; patient++) {
+                insert.setString(1, userId(patient));
+                insert.setString(2, "Pacient");
+                insert.setString(3, String.valueOf(patient));
+                insert.setString(4, "SENIOR");
+                insert.setString(5, "pacient" + patient + "@example.com");
+                insert.setString(6, now);
+                insert.setString(7, now);
+                insert.setString(8, "Cluj-Napoca");
+                insert.setString(9, "Romania");
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    // Returnează numărul de rânduri încărcate
+    long loadSensorData(Connection connection, String userId, long rows) throws SQLException {
+        SensorType[] types = SensorType.values();
+        long loaded = 0;
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SENSOR_DATA)) {
+            for (long tick = 0; loaded < rows; tick++) {
+                LocalDateTime timestamp = END.minusSeconds(tick * TICK_SECONDS);
+                for (SensorType type : types) {
+                    if (loaded >= rows) break;
+                    if (tick % ticksBetween(type.getCriticalityLevel()) != 0) continue;
+                    bindSensorData(insert, randomId(), userId, type, timestamp, tick);
+                    insert.addBatch();
+                    if (++loaded % BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return loaded;
+    }
+
+    void bindSensorData(PreparedStatement insert, String id, String userId, SensorType type,
+                        LocalDateTime timestamp, long tick) throws SQLException {
+        TransmissionStatus status = statusFor(tick);
+        insert.setString(1, id);
+        insert.setString(2, userId);
+        insert.setString(3, SensorTypeConverter.fromSensorType(type));
+        insert.setDouble(4, 40 + random.nextInt(1600) / 10.0);
+        insert.setString(5, type.getUnit());
+        insert.setString(6, DateTimeConverter.dateTimeToTimestamp(timestamp));
+        insert.setString(7, TransmissionStatusConverter.fromTransmissionStatus(status));
+        insert.setString(8, status == TransmissionStatus.TRANSMITTED
+                ? DateTimeConverter.dateTimeToTimestamp(timestamp.plusSeconds(2)) : null);
+        insert.setString(9, "galaxy-watch-7");
+        insert.setString(10, null);
+    }
+
+    long loadLocationData(Connection connection, String userId, long rows) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_LOCATION_DATA)) {
+            for (long i = 0; i < rows; i++) {
+                bindLocationData(insert, randomId(), userId, END.minusMinutes(i * 2));
+                insert.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return rows;
+    }
+
+    void bindLocationData(PreparedStatement insert, String id, String userId, LocalDateTime at)
+            throws SQLException {
+        boolean home = random.nextInt(4) != 0;
+        String time = DateTimeConverter.dateTimeToTimestamp(at);
+        insert.setString(1, id);
+        insert.setString(2, userId);
+        insert.setDouble(3, 46.770439);
+        insert.setDouble(4, 23.591423);
+        insert.setDouble(5, 100);
+        insert.setString(6, "galaxy-watch-7");
+        insert.setString(7, time);
+        insert.setString(8, time);
+        insert.setString(9, home ? "HOME" : "AWAY");
+        insert.setDouble(10, 46.770439 + (home ? 0 : random.nextGaussian() * 0.01));
+        insert.setDouble(11, 23.591423 + (home ? 0 : random.nextGaussian() * 0.01));
+        insert.setString(12, home ? "Acasă" : "Str. Memorandumului 28, Cluj-Napoca");
+        insert.setString(13, time);
+    }
+
+    // Coada offline e plafonată la MAX_OFFLINE_RECORDS în OfflineDataManager
+    long loadOfflineData(Connection connection, String userId, long rows) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_OFFLINE)) {
+            for (long i = 0; i < rows; i++) {
+                bindOfflineData(insert, userId, END.minusSeconds((rows - i) * 30), (int) (i % 6));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return rows;
+    }
+
+    void bindOfflineData(PreparedStatement insert, String userId, LocalDateTime at, int retryCount)
+            throws SQLException {
+        SensorType type = SensorType.HEART_RATE;
+        insert.setLong(1, 0);
+        insert.setString(2, userId);
+        insert.setString(3, SensorTypeConverter.fromSensorType(type));
+        insert.setDouble(4, 55 + random.nextInt(70));
+        insert.setString(5, type.getUnit());
+        insert.setString(6, DateTimeConverter.dateTimeToTimestamp(at));
+        insert.setString(7, "galaxy-watch-7");
+        insert.setInt(8, retryCount);
+        insert.setString(9, DateTimeConverter.dateTimeToTimestamp(at.plusSeconds(1)));
+    }
+
+    // Id-uri existente, pentru operațiile pe un singur rând
+    List<String> sampleIds(Connection connection, String table, String idColumn, int count) throws SQLException {
+        List<String> ids = new ArrayList<>(count);
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT `" + idColumn + "` FROM `" + table + "` ORDER BY random() LIMIT ?")) {
+            select.setInt(1, count);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    private TransmissionStatus statusFor(long tick) {
+        int roll = random.nextInt(100);
+        if (tick < 120 && roll < 30) return TransmissionStatus.PENDING; // ultima oră: încă netransmise
+        if (roll < 97) return TransmissionStatus.TRANSMITTED;
+        if (roll < 98) return TransmissionStatus.PENDING;
+        if (roll < 99) return TransmissionStatus.FAILED;
+        return TransmissionStatus.QUEUED;
+    }
+
+    // Cadența implicită a nivelului (CriticalityLevel.getDefaultFrequencySeconds) în tick-uri de 30 s
+    private static long ticksBetween(CriticalityLevel level) {
+        return Math.max(1, level.getDefaultFrequencySeconds() / TICK_SECONDS);
+    }
+}
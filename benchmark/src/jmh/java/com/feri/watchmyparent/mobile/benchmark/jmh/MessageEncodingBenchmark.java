@@ -0,0 +1,185 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.entities.LocationData;
+import com.feri.watchmyparent.mobile.domain.entities.SensorData;
+import com.feri.watchmyparent.mobile.domain.entities.User;
+import com.feri.watchmyparent.mobile.domain.valueobjects.LocationStatus;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.KafkaMessageFormatter;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RestProxyRecords;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSerializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Construirea mesajelor Kafka: encoder-ul precompilat (layout-urile TRANSMISSION / RETRY, formatter-ul) față de
+// drumul HashMap + Gson + String.format pe care îl înlocuiește, plus corpul REST Proxy pentru mesajele Map
+@State(Scope.Benchmark)
+public class MessageEncodingBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    @Param({"CRITICAL", "MIXED", "MOTION"})
+    public TelemetryFixtures.SensorMix sensorMix;
+
+    private final TelemetryJsonEncoder encoder = new TelemetryJsonEncoder();
+    private final KafkaMessageFormatter formatter = new KafkaMessageFormatter();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (src, typeOfSrc, context)
+                    -> context.serialize(src.toString()))
+            .create();
+
+    private List<SensorDataDTO> dtos;
+    private List<SensorData> entities;
+    private List<LocationData> locations;
+    private List<String> jsonValues;
+
+    @Setup
+    public void setUp() {
+        dtos = TelemetryFixtures.dtos(sensorMix, batchSize, 42);
+        User user = new User("Ana", "Pop", "ana.pop@example.com", null);
+        user.setIdUser(TelemetryFixtures.USER_ID);
+
+        entities = new ArrayList<>(batchSize);
+        locations = new ArrayList<>(batchSize);
+        jsonValues = new ArrayList<>(batchSize);
+        for (int i = 0; i < dtos.size(); i++) {
+            SensorDataDTO dto = dtos.get(i);
+            dto.setRetryCount(i % 5);
+            SensorData entity = new SensorData(user, dto.getSensorType(), dto.getValue(), dto.getDeviceId());
+            entity.setTimestamp(dto.getTimestamp());
+            entities.add(entity);
+
+            LocationData location = new LocationData(user, 46.770439, 23.591423);
+            LocationStatus status = new LocationStatus(i % 3 == 0 ? "AWAY" : "HOME",
+                    46.770439 + i * 1e-5, 23.591423 - i * 1e-5, "Str. Memorandumului 28, Cluj-Napoca");
+            status.setTimestamp(dto.getTimestamp());
+            location.setLocationStatus(status);
+            locations.add(location);
+
+            jsonValues.add(gson.toJson(legacyTransmissionMessage(dto, TelemetryFixtures.USER_ID)));
+        }
+    }
+
+    @Benchmark
+    public long encoderTransmissionRecords() {
+        long bytes = 0;
+        for (SensorDataDTO dto : dtos) {
+            bytes += encoder.encodeSensorRecord(dto, TelemetryFixtures.USER_ID, 1_715_000_000_000L,
+                    TelemetryJsonEncoder.SensorLayout.TRANSMISSION).getLength();
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long encoderRetryRecords() {
+        long bytes = 0;
+        for (SensorDataDTO dto : dtos) {
+            bytes += encoder.encodeSensorRecord(dto, TelemetryFixtures.USER_ID, 1_715_000_000_000L,
+                    TelemetryJsonEncoder.SensorLayout.RETRY).getLength();
+        }
+        return bytes;
+    }
+
+    // Referința: builder-ul de Map din DataTransmissionServiceImpl + Gson + corpul REST Proxy
+    @Benchmark
+    public long gsonMapTransmissionRecords() {
+        long chars = 0;
+        for (SensorDataDTO dto : dtos) {
+            String json = gson.toJson(legacyTransmissionMessage(dto, TelemetryFixtures.USER_ID));
+            chars += RestProxyRecords.recordBody(
+                    RestProxyRecords.messageKey(TelemetryFixtures.USER_ID, 1_715_000_000_000L), json).length();
+        }
+        return chars;
+    }
+
+    // Referința: builder-ul de Map din KafkaRetryService + Gson + corpul REST Proxy
+    @Benchmark
+    public long gsonMapRetryRecords() {
+        long chars = 0;
+        for (SensorDataDTO dto : dtos) {
+            String json = gson.toJson(legacyRetryMessage(dto));
+            chars += RestProxyRecords.recordBody(
+                    RestProxyRecords.messageKey(dto.getUserId(), 1_715_000_000_000L), json).length();
+        }
+        return chars;
+    }
+
+    @Benchmark
+    public void formatterSensorData(Blackhole blackhole) {
+        for (SensorData entity : entities) {
+            blackhole.consume(formatter.formatSensorData(entity));
+        }
+    }
+
+    @Benchmark
+    public void formatterLocationData(Blackhole blackhole) {
+        for (LocationData location : locations) {
+            blackhole.consume(formatter.formatLocationData(location));
+        }
+    }
+
+    // Corpul REST Proxy pentru mesajele care rămân pe drumul Map + Gson (locație, generic)
+    @Benchmark
+    public void restProxyBodyFromJson(Blackhole blackhole) {
+        long millis = 1_715_000_000_000L;
+        for (String json : jsonValues) {
+            blackhole.consume(RestProxyRecords.recordBody(
+                    RestProxyRecords.messageKey(TelemetryFixtures.USER_ID, millis++), json));
+        }
+    }
+
+    // ========== Builder-ele de Map înlocuite de TelemetryJsonEncoder (păstrate ca referință) ==========
+
+    static Map<String, Object> legacyTransmissionMessage(SensorDataDTO sensorData, String userId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", userId);
+        message.put("sensorType", sensorData.getSensorType().getCode());
+        message.put("value", sensorData.getValue());
+        message.put("unit", sensorData.getUnit());
+        message.put("timestamp", sensorData.getTimestamp().toString());
+        message.put("deviceId", sensorData.getDeviceId());
+        message.put("source", "samsung_galaxy_watch_7");
+        message.put("dataType", "REAL_SENSOR_DATA");
+        message.put("criticalityLevel", sensorData.getSensorType().getCriticalityLevel().name());
+        message.put("transmissionMethod", "kafka_only_pipeline");
+        if (sensorData.getAlertLevel() != null) {
+            message.put("alertLevel", sensorData.getAlertLevel());
+        }
+        if (sensorData.getSensorType().isSamsungHealthPermitted()) {
+            message.put("dataSource", "samsung_health_sdk");
+        } else {
+            message.put("dataSource", "android_sensor_api");
+        }
+        return message;
+    }
+
+    static Map<String, Object> legacyRetryMessage(SensorDataDTO sensorData) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", sensorData.getUserId());
+        message.put("sensorType", sensorData.getSensorType().getCode());
+        message.put("value", sensorData.getValue());
+        message.put("unit", sensorData.getUnit());
+        message.put("timestamp", sensorData.getTimestamp().toString());
+        message.put("deviceId", sensorData.getDeviceId());
+        message.put("source", "samsung_galaxy_watch_7");
+        message.put("dataType", "RETRY_SENSOR_DATA");
+        message.put("retryCount", sensorData.getRetryCount());
+        message.put("criticalityLevel", sensorData.getSensorType().getCriticalityLevel().name());
+        return message;
+    }
+}
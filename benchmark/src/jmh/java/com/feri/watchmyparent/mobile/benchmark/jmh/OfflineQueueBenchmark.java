@@ -0,0 +1,169 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.DateTimeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.database.converters.SensorTypeConverter;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.TelemetryJsonEncoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Coada offline (OfflineDataManager): inserarea unui lot așa cum o face storeOfflineData (verificare limită +
+// INSERT auto-commit per citire) și golirea ei ca în KafkaRetryService.processOfflineData (SELECT ordonat,
+// conversie în DTO, record RETRY, DELETE după id-uri). Schema și formatele sunt cele generate de Room pentru
+// OfflineHealthData, pe un fișier SQLite în WAL (ca pe Android).
+@State(Scope.Benchmark)
+public class OfflineQueueBenchmark {
+
+    private static final int MAX_OFFLINE_RECORDS = 10000;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS `offline_health_data` ("
+            + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userId` TEXT, `sensorType` TEXT, "
+            + "`value` REAL NOT NULL, `unit` TEXT, `timestamp` TEXT, `deviceId` TEXT, "
+            + "`retryCount` INTEGER NOT NULL, `createdAt` TEXT)";
+    private static final String INSERT = "INSERT INTO `offline_health_data` "
+            + "(`userId`,`sensorType`,`value`,`unit`,`timestamp`,`deviceId`,`retryCount`,`createdAt`) "
+            + "VALUES (?,?,?,?,?,?,?,?)";
+    private static final String COUNT = "SELECT COUNT(*) FROM offline_health_data";
+    private static final String DELETE_OLDEST = "DELETE FROM offline_health_data WHERE id IN "
+            + "(SELECT id FROM offline_health_data ORDER BY createdAt ASC LIMIT ?)";
+    private static final String SELECT_ALL = "SELECT * FROM offline_health_data ORDER BY createdAt ASC";
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    @Param({"CRITICAL", "MIXED", "MOTION"})
+    public TelemetryFixtures.SensorMix sensorMix;
+
+    private File databaseFile;
+    private Connection connection;
+    private List<SensorDataDTO> batch;
+    private final TelemetryJsonEncoder encoder = new TelemetryJsonEncoder();
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws SQLException, IOException {
+        databaseFile = File.createTempFile("offline_health_data", ".db");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute(CREATE_TABLE);
+        }
+        batch = TelemetryFixtures.dtos(sensorMix, batchSize, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws SQLException {
+        connection.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(databaseFile.getAbsolutePath() + suffix).delete();
+        }
+    }
+
+    // Golirea pornește de la o coadă cu exact un lot
+    @Setup(Level.Invocation)
+    public void fillQueue() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM offline_health_data");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (SensorDataDTO dto : batch) {
+                bind(insert, dto);
+                insert.executeUpdate();
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // storeOfflineData: numărătoare + eventuală curățare + INSERT, fiecare în tranzacția lui
+    @Benchmark
+    public long insertBatch() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement count = connection.prepareStatement(COUNT);
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (SensorDataDTO dto : batch) {
+                try (ResultSet rs = count.executeQuery()) {
+                    rs.next();
+                    if (rs.getInt(1) >= MAX_OFFLINE_RECORDS) {
+                        try (PreparedStatement trim = connection.prepareStatement(DELETE_OLDEST)) {
+                            trim.setInt(1, 1000);
+                            trim.executeUpdate();
+                        }
+                    }
+                }
+                bind(insert, dto);
+                insert.executeUpdate();
+                lastId++;
+            }
+        }
+        return lastId;
+    }
+
+    // processOfflineData: citește coada, trimite fiecare înregistrare ca record RETRY, șterge ce s-a trimis
+    @Benchmark
+    public long drainBatch() throws SQLException {
+        List<Long> sentIds = new ArrayList<>();
+        long bytes = 0;
+        try (Statement select = connection.createStatement(); ResultSet rs = select.executeQuery(SELECT_ALL)) {
+            while (rs.next()) {
+                SensorDataDTO dto = new SensorDataDTO();
+                dto.setUserId(rs.getString("userId"));
+                dto.setSensorType(SensorTypeConverter.fromString(rs.getString("sensorType")));
+                dto.setValue(rs.getDouble("value"));
+                dto.setUnit(rs.getString("unit"));
+                dto.setTimestamp(DateTimeConverter.fromTimestamp(rs.getString("timestamp")));
+                dto.setDeviceId(rs.getString("deviceId"));
+                dto.setRetryCount(rs.getInt("retryCount"));
+                bytes += encoder.encodeSensorRecord(dto, dto.getUserId(), System.currentTimeMillis(),
+                        TelemetryJsonEncoder.SensorLayout.RETRY).getLength();
+                sentIds.add(rs.getLong("id"));
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            StringBuilder delete = new StringBuilder("DELETE FROM offline_health_data WHERE id IN (");
+            for (int i = 0; i < sentIds.size(); i++) {
+                delete.append(i == 0 ? "?" : ",?");
+            }
+            try (PreparedStatement statement = connection.prepareStatement(delete.append(')').toString())) {
+                for (int i = 0; i < sentIds.size(); i++) {
+                    statement.setLong(i + 1, sentIds.get(i));
+                }
+                statement.executeUpdate();
+            }
+        }
+        return bytes;
+    }
+
+    private static void bind(PreparedStatement insert, SensorDataDTO dto) throws SQLException {
+        SensorType type = dto.getSensorType();
+        insert.setString(1, dto.getUserId());
+        insert.setString(2, SensorTypeConverter.fromSensorType(type));
+        insert.setDouble(3, dto.getValue());
+        insert.setString(4, dto.getUnit());
+        insert.setString(5, DateTimeConverter.dateTimeToTimestamp(dto.getTimestamp()));
+        insert.setString(6, dto.getDeviceId());
+        insert.setInt(7, dto.getRetryCount());
+        insert.setString(8, DateTimeConverter.dateTimeToTimestamp(LocalDateTime.now()));
+    }
+}
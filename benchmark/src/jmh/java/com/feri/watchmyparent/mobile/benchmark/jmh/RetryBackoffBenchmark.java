@@ -0,0 +1,74 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.infrastructure.services.RetryBackoff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Programarea retry-urilor din KafkaRetryService: delay-ul exponential per încercare și inserarea în
+// scheduler-ul cu 3 thread-uri (aceeași configurație ca serviciul). Task-urile sunt anulate înainte să ruleze,
+// deci se măsoară doar costul programării cu o coadă de retry-uri deja în așteptare.
+@State(Scope.Benchmark)
+public class RetryBackoffBenchmark {
+
+    private static final int MAX_RETRY_ATTEMPTS = 5;
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    // Retry-uri deja programate (backlog-ul cozii de delay)
+    @Param({"0", "10000"})
+    public int pendingRetries;
+
+    private ScheduledThreadPoolExecutor retryScheduler;
+    private final List<ScheduledFuture<?>> backlog = new ArrayList<>();
+    private final Runnable noop = () -> { };
+
+    @Setup
+    public void setUp() {
+        // = Executors.newScheduledThreadPool(3); task-urile anulate sunt scoase din coadă ca backlog-ul să rămână fix
+        retryScheduler = new ScheduledThreadPoolExecutor(3);
+        retryScheduler.setRemoveOnCancelPolicy(true);
+        for (int i = 0; i < pendingRetries; i++) {
+            backlog.add(retryScheduler.schedule(noop, RetryBackoff.MAX_RETRY_DELAY_MS + i, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        retryScheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public long delaysForBatch() {
+        long total = 0;
+        for (int i = 0; i < batchSize; i++) {
+            total += RetryBackoff.delayMillis(i % MAX_RETRY_ATTEMPTS);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int scheduleAndCancelBatch() {
+        List<ScheduledFuture<?>> scheduled = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            scheduled.add(retryScheduler.schedule(noop, RetryBackoff.delayMillis(i % MAX_RETRY_ATTEMPTS),
+                    TimeUnit.MILLISECONDS));
+        }
+        int cancelled = 0;
+        for (ScheduledFuture<?> future : scheduled) {
+            if (future.cancel(false)) cancelled++;
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,38 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+// SensorReading -> SensorDataDTO (SensorDataIntegrationService.convertToSensorDataDTO) pe un lot de citiri
+@State(Scope.Benchmark)
+public class SensorConversionBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    @Param({"CRITICAL", "MIXED", "MOTION"})
+    public TelemetryFixtures.SensorMix sensorMix;
+
+    private List<SensorReading> readings;
+
+    @Setup
+    public void setUp() {
+        readings = TelemetryFixtures.readings(sensorMix, batchSize, 42);
+    }
+
+    @Benchmark
+    public void convertBatch(Blackhole blackhole) {
+        for (SensorReading reading : readings) {
+            blackhole.consume(SensorDataDTO.fromReading(reading, TelemetryFixtures.USER_ID));
+        }
+    }
+}
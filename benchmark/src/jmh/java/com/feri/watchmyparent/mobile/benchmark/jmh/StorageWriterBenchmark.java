@@ -0,0 +1,125 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter;
+import com.feri.watchmyparent.mobile.infrastructure.database.StorageWriter.Priority;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Group commit-ul StorageWriter contra tranzacțiilor de un rând trimise dintr-un pool de 4 thread-uri
+// (comportamentul vechi al repository-urilor). Baza e simulată: un singur scriitor la un moment dat (lock-ul
+// SQLite) și un cost fix de fsync per commit. Scorul e timpul pentru un lot complet de scrieri, până la ultimul
+// commit. Corectitudinea scriitorului e în StorageWriterTest.
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageWriterBenchmark {
+
+    private static final int PRODUCER_THREADS = 4;
+
+    @Param({"64", "1024"})
+    public int writes;
+
+    @Param({"100", "1000"})
+    public long fsyncMicros;
+
+    private ExecutorService producers;
+    private FakeDatabase database;
+    private StorageWriter writer;
+
+    @Setup
+    public void setUp() {
+        producers = Executors.newFixedThreadPool(PRODUCER_THREADS);
+        database = new FakeDatabase(TimeUnit.MICROSECONDS.toNanos(fsyncMicros));
+        writer = new StorageWriter("bench", database);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writer.close();
+        producers.shutdownNow();
+    }
+
+    // Vechi: fiecare save() e o tranzacție auto-commit pe pool-ul repository-ului
+    @Benchmark
+    public long singleRowTransactions() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(writes);
+        for (int i = 0; i < writes; i++) {
+            futures.add(CompletableFuture.runAsync(() -> database.runInTransaction(database::insert), producers));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return database.committedRows();
+    }
+
+    // Nou: aceleași scrieri, trimise din thread-urile producătoare către scriitorul unic (1 din 10 CRITICAL)
+    @Benchmark
+    public long groupCommit() {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(writes);
+        for (int i = 0; i < writes; i++) {
+            Priority priority = i % 10 == 0 ? Priority.CRITICAL : Priority.NORMAL;
+            futures.add(CompletableFuture.supplyAsync(() -> writer.submit(priority, database::insert), producers)
+                    .thenCompose(write -> write));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return database.committedRows();
+    }
+
+    // Rândurile devin vizibile la commit, iar fiecare commit plătește un fsync
+    private static final class FakeDatabase implements StorageWriter.Transactor {
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final ThreadLocal<int[]> pending = new ThreadLocal<>();
+        private final AtomicLong committed = new AtomicLong();
+        private final long fsyncNanos;
+
+        FakeDatabase(long fsyncNanos) {
+            this.fsyncNanos = fsyncNanos;
+        }
+
+        @Override
+        public void runInTransaction(Runnable body) {
+            writeLock.lock();
+            try {
+                int[] rows = new int[1];
+                pending.set(rows);
+                body.run();
+                fsync();
+                committed.addAndGet(rows[0]);
+            } finally {
+                pending.remove();
+                writeLock.unlock();
+            }
+        }
+
+        boolean insert() {
+            int[] rows = pending.get();
+            if (rows == null) throw new IllegalStateException("insert outside a transaction");
+            rows[0]++;
+            return true;
+        }
+
+        long committedRows() {
+            return committed.get();
+        }
+
+        private void fsync() {
+            long deadline = System.nanoTime() + fsyncNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.domain.enums.CriticalityLevel;
+import com.feri.watchmyparent.mobile.domain.enums.SensorType;
+import com.feri.watchmyparent.mobile.domain.valueobjects.SensorReading;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Date sintetice deterministe pentru benchmark-uri: loturi de citiri după mixul de senzori
+final class TelemetryFixtures {
+
+    static final String USER_ID = "3f2b8c4e-9a71-4d2e-b6a5-0c1d2e3f4a5b";
+    static final String DEVICE_ID = "galaxy-watch-7-R8AW";
+    static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 7, 0);
+
+    // Mixul de senzori al unui lot
+    enum SensorMix {
+        // Doar senzorii CRITICAL (tier-ul de 30 s)
+        CRITICAL,
+        // Distribuția reală a unei ore: vitale + mișcare + mediu
+        MIXED,
+        // Doar senzorii de mișcare (valori cu multe zecimale, fără Samsung Health)
+        MOTION;
+
+        SensorType[] types() {
+            List<SensorType> types = new ArrayList<>();
+            for (SensorType type : SensorType.values()) {
+                switch (this) {
+                    case CRITICAL:
+                        if (type.getCriticalityLevel() == CriticalityLevel.CRITICAL) types.add(type);
+                        break;
+                    case MOTION:
+                        if (type.name().contains("ACCELER") || type == SensorType.GYROSCOPE
+                                || type == SensorType.GRAVITY || type == SensorType.ROTATION
+                                || type == SensorType.ORIENTATION) {
+                            types.add(type);
+                        }
+                        break;
+                    default:
+                        types.add(type);
+                }
+            }
+            return types.toArray(new SensorType[0]);
+        }
+    }
+
+    private TelemetryFixtures() {
+    }
+
+    static List<SensorReading> readings(SensorMix mix, int count, long seed) {
+        Random random = new Random(seed);
+        SensorType[] types = mix.types();
+        List<SensorReading> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SensorType type = types[random.nextInt(types.length)];
+            SensorReading reading = new SensorReading(type, valueFor(type, random), DEVICE_ID);
+            reading.setTimestamp(START.plusNanos(i * 30_000_000_000L + random.nextInt(1000) * 1_000_000L));
+            readings.add(reading);
+        }
+        return readings;
+    }
+
+    static List<SensorDataDTO> dtos(SensorMix mix, int count, long seed) {
+        List<SensorDataDTO> dtos = new ArrayList<>(count);
+        int i = 0;
+        for (SensorReading reading : readings(mix, count, seed)) {
+            SensorDataDTO dto = SensorDataDTO.fromReading(reading, USER_ID);
+            if (i++ % 10 == 0) dto.setAlertLevel("WARNING");
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    // Valori în intervalele pe care le produce ceasul (vitalele rotunjite ca în SDK, mișcarea float)
+    private static double valueFor(SensorType type, Random random) {
+        switch (type) {
+            case HEART_RATE:
+                return 55 + random.nextInt(70);
+            case BLOOD_OXYGEN:
+                return 92 + random.nextInt(80) / 10.0;
+            case BLOOD_PRESSURE:
+                return 105 + random.nextInt(50);
+            case BODY_TEMPERATURE:
+                return 35.5 + random.nextInt(30) / 10.0;
+            case STEP_COUNT:
+                return random.nextInt(12_000);
+            case STRESS:
+                return random.nextInt(100);
+            case FALL_DETECTION:
+                return random.nextInt(50) == 0 ? 1 : 0;
+            case SLEEP:
+                return random.nextInt(100) / 10.0;
+            default:
+                return (float) (random.nextGaussian() * 4);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.feri.watchmyparent.mobile.benchmark.jmh;
+
+import com.feri.watchmyparent.mobile.application.dto.SensorDataDTO;
+import com.feri.watchmyparent.mobile.infrastructure.kafka.RestProxyRecords;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rutarea pe topic (fostul AndroidCompatibleKafkaProducer.determineTopicName) pentru mesajele Map:
+// senzori cu dataType, locații (dataType sau doar coordonate) și mesaje generice fără dataType
+@State(Scope.Benchmark)
+public class TopicRoutingBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    @Param({"CRITICAL", "MIXED", "MOTION"})
+    public TelemetryFixtures.SensorMix sensorMix;
+
+    private List<Map<String, Object>> messages;
+
+    @Setup
+    public void setUp() {
+        messages = new ArrayList<>(batchSize);
+        int i = 0;
+        for (SensorDataDTO dto : TelemetryFixtures.dtos(sensorMix, batchSize, 42)) {
+            Map<String, Object> message;
+            switch (i++ % 8) {
+                case 0:
+                    message = new HashMap<>();
+                    message.put("dataType", "LOCATION_DATA");
+                    message.put("latitude", 46.770439);
+                    message.put("longitude", 23.591423);
+                    break;
+                case 1:
+                    message = new HashMap<>();
+                    message.put("latitude", 46.770439);
+                    message.put("longitude", 23.591423);
+                    message.put("userId", TelemetryFixtures.USER_ID);
+                    break;
+                case 2:
+                    message = new HashMap<>();
+                    message.put("dataType", "GENERIC_DATA");
+                    message.put("data", dto.getSensorType().getCode());
+                    break;
+                default:
+                    message = MessageEncodingBenchmark.legacyTransmissionMessage(dto, TelemetryFixtures.USER_ID);
+            }
+            messages.add(message);
+        }
+    }
+
+    @Benchmark
+    public void routeBatch(Blackhole blackhole) {
+        for (Map<String, Object> message : messages) {
+            blackhole.consume(RestProxyRecords.topicFor(message));
+        }
+    }
+}